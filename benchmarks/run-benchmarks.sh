@@ -0,0 +1,13 @@
+#!/bin/bash
+# Builds the benchmarks jar, including the modules it depends on, and runs the benchmarks.
+# Arguments are passed on to JMH. Results are written as JSON to target/benchmark-results.json
+# unless other result options are given.
+set -e
+
+cd "$(dirname "$0")"
+mvn -q -f ../pom.xml -pl benchmarks -am -DskipTests -DskipBrowser package
+
+if [[ "$*" == *-rf* ]]; then
+    exec java -jar target/benchmarks.jar "$@"
+fi
+exec java -jar target/benchmarks.jar -rf json -rff target/benchmark-results.json "$@"
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseFactory;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.kernel.GraphDatabaseAPI;
+
+/**
+ * An embedded database in a temporary directory, for benchmarks that need a real store. Benchmark states
+ * {@link #start(Map) start} it in a trial level setup, optionally {@link #populate(Populator) populate} it and
+ * {@link #shutdown() shut it down}, which also deletes the store, in a trial level tear down.
+ */
+public class BenchmarkDatabase
+{
+    public interface Populator
+    {
+        void populate( GraphDatabaseService db, int batch );
+    }
+
+    public static final int BATCHES = 100;
+
+    private final File storeDir;
+    private GraphDatabaseAPI db;
+
+    public BenchmarkDatabase() throws IOException
+    {
+        storeDir = File.createTempFile( "neo4j-benchmark", "" );
+        if ( !storeDir.delete() || !storeDir.mkdirs() )
+        {
+            throw new IOException( "Unable to create store directory " + storeDir );
+        }
+    }
+
+    public GraphDatabaseAPI start( Map<String,String> config )
+    {
+        db = (GraphDatabaseAPI) new GraphDatabaseFactory()
+                .newEmbeddedDatabaseBuilder( storeDir.getAbsolutePath() )
+                .setConfig( config )
+                .newGraphDatabase();
+        return db;
+    }
+
+    /**
+     * Calls the populator {@value #BATCHES} times, each time in its own transaction.
+     */
+    public void populate( Populator populator )
+    {
+        for ( int batch = 0; batch < BATCHES; batch++ )
+        {
+            try ( Transaction tx = db.beginTx() )
+            {
+                populator.populate( db, batch );
+                tx.success();
+            }
+        }
+    }
+
+    public <T> T resolve( Class<T> type )
+    {
+        return db.getDependencyResolver().resolveDependency( type );
+    }
+
+    public void shutdown() throws IOException
+    {
+        if ( db != null )
+        {
+            db.shutdown();
+            db = null;
+        }
+        FileUtils.deleteRecursively( storeDir );
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.collection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.kernel.impl.util.diffsets.DiffSets;
+import org.neo4j.kernel.impl.util.diffsets.DiffSetsVisitor;
+import org.neo4j.kernel.impl.util.diffsets.PrimitiveLongDiffSets;
+import org.neo4j.kernel.impl.util.diffsets.ReadableDiffSets;
+
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.emptyIterator;
+
+/**
+ * Reads the added elements of the diff sets that transaction state keeps node and relationship ids in,
+ * comparing {@link PrimitiveLongDiffSets} with the boxed {@link DiffSets}. A transaction which reads its own
+ * changes augments an empty store result with all {@link #size} added ids, which is what the
+ * {@code augment} benchmarks measure, optionally changing the diff set after each read like a transaction
+ * interleaving reads and writes does.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class DiffSetsBenchmark
+{
+    @Param( {"100", "100000"} )
+    public int size;
+
+    private PrimitiveLongDiffSets primitive;
+    private DiffSets<Long> boxed;
+    private long nextId;
+
+    @Setup
+    public void setUp()
+    {
+        primitive = new PrimitiveLongDiffSets();
+        boxed = new DiffSets<>();
+        for ( long id = 0; id < size; id++ )
+        {
+            primitive.add( id );
+            boxed.add( id );
+        }
+        nextId = size;
+    }
+
+    @Benchmark
+    public long augmentPrimitive()
+    {
+        return sum( primitive.augment( emptyIterator() ) );
+    }
+
+    @Benchmark
+    public long augmentBoxed()
+    {
+        return sum( boxed.augment( emptyIterator() ) );
+    }
+
+    @Benchmark
+    public long augmentPrimitiveThenChange()
+    {
+        long sum = sum( primitive.augment( emptyIterator() ) );
+        change( primitive );
+        return sum;
+    }
+
+    @Benchmark
+    public long augmentBoxedThenChange()
+    {
+        long sum = sum( boxed.augment( emptyIterator() ) );
+        change( boxed );
+        return sum;
+    }
+
+    @Benchmark
+    public long visitPrimitive()
+    {
+        return visit( primitive );
+    }
+
+    @Benchmark
+    public long visitBoxed()
+    {
+        return visit( boxed );
+    }
+
+    private void change( PrimitiveLongDiffSets diffSets )
+    {
+        // Keeps the size constant: the newest id replaces the oldest one
+        diffSets.add( nextId );
+        diffSets.remove( nextId++ - size );
+    }
+
+    private void change( DiffSets<Long> diffSets )
+    {
+        diffSets.add( nextId );
+        diffSets.remove( nextId++ - size );
+    }
+
+    private static long sum( PrimitiveLongIterator iterator )
+    {
+        long sum = 0;
+        while ( iterator.hasNext() )
+        {
+            sum += iterator.next();
+        }
+        return sum;
+    }
+
+    private static long visit( ReadableDiffSets<Long> diffSets )
+    {
+        SummingVisitor visitor = new SummingVisitor();
+        diffSets.accept( visitor );
+        return visitor.sum;
+    }
+
+    private static class SummingVisitor extends DiffSetsVisitor.Adapter<Long>
+    {
+        private long sum;
+
+        @Override
+        public void visitAdded( Long element )
+        {
+            sum += element;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.collection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongIntMap;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+
+/**
+ * Adds and looks up random keys in the primitive long collections, comparing with the boxed
+ * {@link HashSet} that they replace. Sets are filled with {@link #size} keys in a sparse id range,
+ * lookups hit an existing key or miss.
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class PrimitiveCollectionsBenchmark
+{
+    @Param( {"1000", "1000000"} )
+    public int size;
+
+    private long[] keys;
+    private PrimitiveLongSet heapSet;
+    private PrimitiveLongSet offHeapSet;
+    private PrimitiveLongIntMap longIntMap;
+    private Set<Long> boxedSet;
+
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random( 42 );
+        keys = new long[size];
+        heapSet = Primitive.longSet();
+        offHeapSet = Primitive.offHeapLongSet();
+        longIntMap = Primitive.longIntMap();
+        boxedSet = new HashSet<>();
+        for ( int i = 0; i < size; i++ )
+        {
+            long key = random.nextLong() & Long.MAX_VALUE;
+            keys[i] = key;
+            heapSet.add( key );
+            offHeapSet.add( key );
+            longIntMap.put( key, i );
+            boxedSet.add( key );
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        heapSet.close();
+        offHeapSet.close();
+        longIntMap.close();
+    }
+
+    @Benchmark
+    public int fillHeapSet()
+    {
+        try ( PrimitiveLongSet set = Primitive.longSet() )
+        {
+            for ( long key : keys )
+            {
+                set.add( key );
+            }
+            return set.size();
+        }
+    }
+
+    @Benchmark
+    public int fillBoxedSet()
+    {
+        Set<Long> set = new HashSet<>();
+        for ( long key : keys )
+        {
+            set.add( key );
+        }
+        return set.size();
+    }
+
+    @Benchmark
+    public boolean heapSetContainsExisting()
+    {
+        return heapSet.contains( existingKey() );
+    }
+
+    @Benchmark
+    public boolean heapSetContainsMissing()
+    {
+        return heapSet.contains( missingKey() );
+    }
+
+    @Benchmark
+    public boolean offHeapSetContainsExisting()
+    {
+        return offHeapSet.contains( existingKey() );
+    }
+
+    @Benchmark
+    public boolean boxedSetContainsExisting()
+    {
+        return boxedSet.contains( existingKey() );
+    }
+
+    @Benchmark
+    public int longIntMapGet()
+    {
+        return longIntMap.get( existingKey() );
+    }
+
+    private long existingKey()
+    {
+        return keys[ThreadLocalRandom.current().nextInt( keys.length )];
+    }
+
+    private long missingKey()
+    {
+        // Keys in the collections are never negative
+        return -1 - ThreadLocalRandom.current().nextLong( Long.MAX_VALUE );
+    }
+}
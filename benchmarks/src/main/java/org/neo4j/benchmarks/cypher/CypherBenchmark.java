@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.cypher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.benchmarks.BenchmarkDatabase;
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.GraphDatabaseAPI;
+
+import static org.neo4j.helpers.collection.MapUtil.map;
+
+/**
+ * Runs a few representative read queries, covering label scans, index seeks, expands, filters, projections
+ * and aggregation, and pulls all their rows. The queries are planned once during warmup, so what's measured
+ * is the throughput of the pipes executing the cached plans.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class CypherBenchmark
+{
+    private static final int PEOPLE_PER_BATCH = 1000;
+    private static final int FRIENDS_PER_PERSON = 10;
+    private static final Label PERSON = DynamicLabel.label( "Person" );
+    private static final RelationshipType KNOWS = DynamicRelationshipType.withName( "KNOWS" );
+
+    private BenchmarkDatabase database;
+    private GraphDatabaseAPI db;
+    private long people;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        database = new BenchmarkDatabase();
+        db = database.start( Collections.<String,String>emptyMap() );
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().indexFor( PERSON ).on( "id" ).create();
+            tx.success();
+        }
+        database.populate( new BenchmarkDatabase.Populator()
+        {
+            @Override
+            public void populate( GraphDatabaseService db, int batch )
+            {
+                for ( int i = 0; i < PEOPLE_PER_BATCH; i++ )
+                {
+                    Node person = db.createNode( PERSON );
+                    person.setProperty( "id", person.getId() );
+                    person.setProperty( "age", ThreadLocalRandom.current().nextInt( 100 ) );
+                    for ( int f = 0; f < FRIENDS_PER_PERSON && f < person.getId(); f++ )
+                    {
+                        person.createRelationshipTo(
+                                db.getNodeById( ThreadLocalRandom.current().nextLong( person.getId() ) ), KNOWS );
+                    }
+                }
+            }
+        } );
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.schema().awaitIndexesOnline( 1, TimeUnit.MINUTES );
+            tx.success();
+        }
+        people = (long) PEOPLE_PER_BATCH * BenchmarkDatabase.BATCHES;
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public void labelScanFilterCount( Blackhole blackhole )
+    {
+        run( "MATCH (p:Person) WHERE p.age > {age} RETURN count(*)",
+                map( "age", ThreadLocalRandom.current().nextInt( 100 ) ), blackhole );
+    }
+
+    @Benchmark
+    public void aggregateByGroup( Blackhole blackhole )
+    {
+        run( "MATCH (p:Person) RETURN p.age % 10 AS bucket, count(*) AS people ORDER BY bucket",
+                Collections.<String,Object>emptyMap(), blackhole );
+    }
+
+    @Benchmark
+    public void indexSeekExpand( Blackhole blackhole )
+    {
+        run( "MATCH (p:Person {id: {id}})-[:KNOWS]->(f)-[:KNOWS]->(ff) RETURN ff.id, ff.age",
+                map( "id", ThreadLocalRandom.current().nextLong( people ) ), blackhole );
+    }
+
+    private void run( String query, Map<String,Object> parameters, Blackhole blackhole )
+    {
+        try ( Transaction tx = db.beginTx();
+              Result result = db.execute( query, parameters ) )
+        {
+            while ( result.hasNext() )
+            {
+                blackhole.consume( result.next() );
+            }
+            tx.success();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.log;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.benchmarks.BenchmarkDatabase;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.TransactionAppender;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.state.NeoStoreProvider;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.batched_writes;
+import static org.neo4j.helpers.collection.MapUtil.stringMap;
+
+/**
+ * Appends transactions to the transaction log of a real database, including forcing the log. The
+ * transactions are not applied to the store. With multiple threads and {@link #batchedWrites} the appender
+ * can force several transactions at once, which is what the concurrent benchmark is measuring.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class LogAppendBenchmark
+{
+    @Param( {"true", "false"} )
+    public boolean batchedWrites;
+
+    @Param( {"1", "100"} )
+    public int commandsPerTransaction;
+
+    private BenchmarkDatabase database;
+    private TransactionAppender appender;
+    private TransactionIdStore transactionIdStore;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        database = new BenchmarkDatabase();
+        database.start( stringMap( batched_writes.name(), String.valueOf( batchedWrites ) ) );
+        appender = database.resolve( LogicalTransactionStore.class ).getAppender();
+        transactionIdStore = database.resolve( NeoStoreProvider.class ).evaluate();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public long append() throws IOException
+    {
+        return appendTransaction();
+    }
+
+    @Benchmark
+    @Threads( 8 )
+    public long concurrentAppend() throws IOException
+    {
+        return appendTransaction();
+    }
+
+    private long appendTransaction() throws IOException
+    {
+        long transactionId = appender.append( transaction(), LogAppendEvent.NULL );
+        transactionIdStore.transactionClosed( transactionId );
+        return transactionId;
+    }
+
+    private TransactionRepresentation transaction()
+    {
+        List<Command> commands = new ArrayList<>( commandsPerTransaction );
+        for ( int i = 0; i < commandsPerTransaction; i++ )
+        {
+            NodeRecord before = new NodeRecord( i, false, Record.NO_NEXT_RELATIONSHIP.intValue(),
+                    Record.NO_NEXT_PROPERTY.intValue() );
+            NodeRecord after = new NodeRecord( i, false, Record.NO_NEXT_RELATIONSHIP.intValue(),
+                    Record.NO_NEXT_PROPERTY.intValue() );
+            after.setInUse( true );
+            commands.add( new Command.NodeCommand().init( before, after ) );
+        }
+        PhysicalTransactionRepresentation transaction = new PhysicalTransactionRepresentation( commands );
+        long now = System.currentTimeMillis();
+        transaction.setHeader( new byte[0], -1, -1, now, transactionIdStore.getLastCommittedTransactionId(),
+                now, -1 );
+        return transaction;
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.pagecache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.io.pagecache.impl.muninn.MuninnPageCache;
+import org.neo4j.io.pagecache.tracing.PageCacheTracer;
+
+import static org.neo4j.io.pagecache.PagedFile.PF_EXCLUSIVE_LOCK;
+import static org.neo4j.io.pagecache.PagedFile.PF_SHARED_LOCK;
+
+/**
+ * Pins and unpins random pages of a mapped file. When the file has no more pages than the cache this measures
+ * the pin/unpin fast path, otherwise most pins will also have to fault a page in, and evict another.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.SECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class PageCacheBenchmark
+{
+    private static final int PAGE_SIZE = 8192;
+    private static final int CACHED_PAGES = 1000;
+
+    @Param( {"1000", "100000"} )
+    public int filePages;
+
+    private File file;
+    private PageCache pageCache;
+    private PagedFile pagedFile;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        file = File.createTempFile( "neo4j-pagecache-benchmark", ".db" );
+        pageCache = new MuninnPageCache( new DefaultFileSystemAbstraction(), CACHED_PAGES, PAGE_SIZE,
+                PageCacheTracer.NULL );
+        pagedFile = pageCache.map( file, PAGE_SIZE );
+        try ( PageCursor cursor = pagedFile.io( 0, PF_EXCLUSIVE_LOCK ) )
+        {
+            for ( long pageId = 0; pageId < filePages && cursor.next(); pageId++ )
+            {
+                cursor.putLong( pageId );
+            }
+        }
+        pagedFile.flush();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        pagedFile.close();
+        pageCache.close();
+        if ( !file.delete() )
+        {
+            file.deleteOnExit();
+        }
+    }
+
+    @Benchmark
+    public long sharedPin() throws IOException
+    {
+        return readRandomPage();
+    }
+
+    @Benchmark
+    @Threads( 4 )
+    public long concurrentSharedPin() throws IOException
+    {
+        return readRandomPage();
+    }
+
+    /**
+     * Pin latency with 64 threads, where any contention on the translation table shows up in the tail latencies.
+     */
+    @Benchmark
+    @Threads( 64 )
+    @BenchmarkMode( Mode.SampleTime )
+    @OutputTimeUnit( TimeUnit.NANOSECONDS )
+    public long highlyConcurrentSharedPin() throws IOException
+    {
+        return readRandomPage();
+    }
+
+    @Benchmark
+    public void exclusivePin() throws IOException
+    {
+        writeRandomPage();
+    }
+
+    @Benchmark
+    @Threads( 4 )
+    public void concurrentExclusivePin() throws IOException
+    {
+        writeRandomPage();
+    }
+
+    private long readRandomPage() throws IOException
+    {
+        long value = 0;
+        try ( PageCursor cursor = pagedFile.io( randomPageId(), PF_SHARED_LOCK ) )
+        {
+            if ( cursor.next() )
+            {
+                do
+                {
+                    value = cursor.getLong( 0 );
+                }
+                while ( cursor.shouldRetry() );
+            }
+        }
+        return value;
+    }
+
+    private void writeRandomPage() throws IOException
+    {
+        try ( PageCursor cursor = pagedFile.io( randomPageId(), PF_EXCLUSIVE_LOCK ) )
+        {
+            if ( cursor.next() )
+            {
+                cursor.putLong( 8, cursor.getLong( 8 ) + 1 );
+            }
+        }
+    }
+
+    private long randomPageId()
+    {
+        return ThreadLocalRandom.current().nextLong( filePages );
+    }
+}
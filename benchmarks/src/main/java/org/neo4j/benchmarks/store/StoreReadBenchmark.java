@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.store;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.benchmarks.BenchmarkDatabase;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.impl.store.NeoStore;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.state.NeoStoreProvider;
+
+/**
+ * Reads random records from each of the main record stores, and expands random nodes through the core API.
+ * The store is small enough to fit in the page cache, so this measures the record reading itself rather
+ * than page faults, see {@link org.neo4j.benchmarks.pagecache.PageCacheBenchmark} for those.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class StoreReadBenchmark
+{
+    private static final int NODES_PER_BATCH = 1000;
+    private static final int RELATIONSHIPS_PER_NODE = 5;
+    private static final RelationshipType TYPE = DynamicRelationshipType.withName( "TYPE" );
+
+    private BenchmarkDatabase database;
+    private GraphDatabaseAPI db;
+    private NodeStore nodeStore;
+    private RelationshipStore relationshipStore;
+    private PropertyStore propertyStore;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        database = new BenchmarkDatabase();
+        db = database.start( Collections.<String,String>emptyMap() );
+        database.populate( new BenchmarkDatabase.Populator()
+        {
+            @Override
+            public void populate( GraphDatabaseService db, int batch )
+            {
+                for ( int i = 0; i < NODES_PER_BATCH; i++ )
+                {
+                    Node node = db.createNode();
+                    node.setProperty( "id", node.getId() );
+                    node.setProperty( "name", "node-" + node.getId() );
+                    for ( int r = 0; r < RELATIONSHIPS_PER_NODE && r < node.getId(); r++ )
+                    {
+                        Node other = db.getNodeById( ThreadLocalRandom.current().nextLong( node.getId() ) );
+                        node.createRelationshipTo( other, TYPE );
+                    }
+                }
+            }
+        } );
+        NeoStore neoStore = database.resolve( NeoStoreProvider.class ).evaluate();
+        nodeStore = neoStore.getNodeStore();
+        relationshipStore = neoStore.getRelationshipStore();
+        propertyStore = neoStore.getPropertyStore();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        database.shutdown();
+    }
+
+    @Benchmark
+    public NodeRecord nodeRecord()
+    {
+        return nodeStore.forceGetRecord( randomId( nodeStore.getHighId() ) );
+    }
+
+    @Benchmark
+    public RelationshipRecord relationshipRecord()
+    {
+        return relationshipStore.forceGetRecord( randomId( relationshipStore.getHighId() ) );
+    }
+
+    @Benchmark
+    public PropertyRecord propertyRecord()
+    {
+        return propertyStore.forceGetRecord( randomId( propertyStore.getHighId() ) );
+    }
+
+    @Benchmark
+    public long expandNode()
+    {
+        long otherNodes = 0;
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = db.getNodeById( randomId( nodeStore.getHighId() ) );
+            for ( Relationship relationship : node.getRelationships() )
+            {
+                otherNodes += relationship.getOtherNode( node ).getId();
+            }
+            tx.success();
+        }
+        return otherNodes;
+    }
+
+    private static long randomId( long highId )
+    {
+        return ThreadLocalRandom.current().nextLong( highId );
+    }
+}
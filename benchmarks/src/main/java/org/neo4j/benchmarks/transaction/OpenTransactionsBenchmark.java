@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.benchmarks.transaction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.benchmarks.BenchmarkDatabase;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.api.exceptions.TransactionFailureException;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.impl.core.ThreadUnboundTransaction;
+
+/**
+ * Serves requests against many open transactions from a fixed number of threads, the way the transactional
+ * endpoint does, by binding a transaction to the serving thread only for the duration of a request. Each of the
+ * {@value #THREADS} threads owns {@code transactionsPerThread} open transactions and serves them round robin,
+ * so the score shows what it costs to hold that many transactions open on so few threads.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Fork( 1 )
+@Warmup( iterations = 5 )
+@Measurement( iterations = 5 )
+public class OpenTransactionsBenchmark
+{
+    private static final int THREADS = 4;
+
+    private BenchmarkDatabase database;
+    private GraphDatabaseAPI db;
+    private ThreadToStatementContextBridge bridge;
+    private long nodeId;
+
+    @Setup
+    public void setUp() throws IOException
+    {
+        database = new BenchmarkDatabase();
+        db = database.start( Collections.<String,String>emptyMap() );
+        bridge = database.resolve( ThreadToStatementContextBridge.class );
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = db.createNode();
+            node.setProperty( "name", "node" );
+            nodeId = node.getId();
+            tx.success();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException
+    {
+        database.shutdown();
+    }
+
+    @State( Scope.Thread )
+    public static class Transactions
+    {
+        @Param( {"1", "100", "2500"} )
+        public int transactionsPerThread;
+
+        private ThreadUnboundTransaction[] transactions;
+        private int next;
+
+        @Setup
+        public void begin( OpenTransactionsBenchmark benchmark )
+        {
+            transactions = new ThreadUnboundTransaction[transactionsPerThread];
+            for ( int i = 0; i < transactions.length; i++ )
+            {
+                benchmark.db.beginTx();
+                transactions[i] = benchmark.bridge.detachTransactionFromCurrentThread();
+            }
+        }
+
+        @TearDown
+        public void rollback() throws TransactionFailureException
+        {
+            for ( ThreadUnboundTransaction transaction : transactions )
+            {
+                transaction.rollback();
+            }
+        }
+
+        ThreadUnboundTransaction next()
+        {
+            ThreadUnboundTransaction transaction = transactions[next];
+            next = (next + 1) % transactions.length;
+            return transaction;
+        }
+    }
+
+    @Benchmark
+    @Threads( THREADS )
+    public Object serveRequest( Transactions transactions )
+    {
+        ThreadUnboundTransaction transaction = transactions.next();
+        transaction.bindToCurrentThread();
+        try
+        {
+            return db.getNodeById( nodeId ).getProperty( "name" );
+        }
+        finally
+        {
+            transaction.unbindFromCurrentThread();
+        }
+    }
+}
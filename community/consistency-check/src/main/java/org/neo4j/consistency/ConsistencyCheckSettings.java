@@ -28,10 +28,12 @@ import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 
 import static org.neo4j.helpers.Settings.BOOLEAN;
 import static org.neo4j.helpers.Settings.FALSE;
+import static org.neo4j.helpers.Settings.INTEGER;
 import static org.neo4j.helpers.Settings.NO_DEFAULT;
 import static org.neo4j.helpers.Settings.PATH;
 import static org.neo4j.helpers.Settings.TRUE;
 import static org.neo4j.helpers.Settings.basePath;
+import static org.neo4j.helpers.Settings.min;
 import static org.neo4j.helpers.Settings.options;
 import static org.neo4j.helpers.Settings.setting;
 
@@ -58,6 +60,15 @@ public class ConsistencyCheckSettings
     public static final Setting<TaskExecutionOrder> consistency_check_execution_order =
             setting( "consistency_check_execution_order", options( TaskExecutionOrder.class ), TaskExecutionOrder.MULTI_PASS.name() );
 
+    @Description("Keep a compact, off-heap copy of the node fields that relationships are checked against, " +
+            "so that those checks don't need random reads in the node store. Needs 8 bytes per node.")
+    public static final Setting<Boolean> consistency_check_node_cache = setting( "consistency_check_node_cache", BOOLEAN, TRUE );
+
+    @Description("Number of threads used for checking each store when the execution order is PARALLEL. " +
+            "Each store is split into that many ranges of records which are checked concurrently.")
+    public static final Setting<Integer> consistency_check_threads = setting( "consistency_check_threads", INTEGER,
+            String.valueOf( Runtime.getRuntime().availableProcessors() ), min( 1 ) );
+
     @SuppressWarnings("unchecked")
     @Description("File name for inconsistencies log file. If not specified, logs to a file in the store directory.")
     public static final
@@ -201,7 +201,7 @@ enum NodeField implements
         }
         else
         {
-            engine.comparativeCheck( records.node( valueFrom( relationship ) ), this );
+            engine.comparativeCheck( records.nodeRelationshipFields( valueFrom( relationship ) ), this );
         }
     }
 
@@ -75,7 +75,7 @@ public class RelationshipGroupRecordCheck implements
             }
             else
             {
-                engine.comparativeCheck( records.node( record.getOwningNode() ), this );
+                engine.comparativeCheck( records.nodeRelationshipFields( record.getOwningNode() ), this );
             }
         }
 
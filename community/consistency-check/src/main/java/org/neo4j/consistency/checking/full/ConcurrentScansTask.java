@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.checking.full;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Runs scans that don't depend on each other, like those of the label scan store and of each index, concurrently
+ * on the executor of a {@link TaskExecutionOrder#PARALLEL} check, and waits for all of them to complete. Each scan
+ * still runs on a single thread.
+ */
+class ConcurrentScansTask implements StoppableRunnable
+{
+    private final List<StoppableRunnable> scans;
+    private final ExecutorService executor;
+
+    ConcurrentScansTask( List<StoppableRunnable> scans, ExecutorService executor )
+    {
+        this.scans = scans;
+        this.executor = executor;
+    }
+
+    @Override
+    public void run()
+    {
+        List<Future<?>> futures = new ArrayList<>( scans.size() );
+        for ( StoppableRunnable scan : scans )
+        {
+            futures.add( executor.submit( scan ) );
+        }
+        try
+        {
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            stopScanning();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( e );
+        }
+        catch ( ExecutionException e )
+        {
+            stopScanning();
+            throw new RuntimeException( e.getCause() );
+        }
+    }
+
+    @Override
+    public void stopScanning()
+    {
+        for ( StoppableRunnable scan : scans )
+        {
+            scan.stopScanning();
+        }
+    }
+}
@@ -21,6 +21,7 @@ package org.neo4j.consistency.checking.full;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.neo4j.consistency.checking.SchemaRecordCheck;
 import org.neo4j.consistency.checking.index.IndexAccessors;
@@ -55,13 +56,23 @@ public class ConsistencyCheckTasks
     private final ProgressMonitorFactory.MultiPartBuilder progress;
     private final TaskExecutionOrder order;
     private final StoreProcessor processor;
+    private final ExecutorService executor;
+    private final int numberOfThreads;
 
     ConsistencyCheckTasks( ProgressMonitorFactory.MultiPartBuilder progress, TaskExecutionOrder order,
                            StoreProcessor processor )
+    {
+        this( progress, order, processor, null, 1 );
+    }
+
+    ConsistencyCheckTasks( ProgressMonitorFactory.MultiPartBuilder progress, TaskExecutionOrder order,
+                           StoreProcessor processor, ExecutorService executor, int numberOfThreads )
     {
         this.progress = progress;
         this.order = order;
         this.processor = processor;
+        this.executor = executor;
+        this.numberOfThreads = numberOfThreads;
     }
 
     public List<StoppableRunnable> createTasks(
@@ -111,16 +122,18 @@ public class ConsistencyCheckTasks
         tasks.add( create( nativeStores.getLabelNameStore() ) );
         tasks.add( create( nativeStores.getNodeDynamicLabelStore() ) );
 
+        // The scans of the label scan store and the indexes don't depend on each other
+        List<StoppableRunnable> scans = new ArrayList<>();
         if ( checkLabelScanStore )
         {
-            tasks.add( new RecordScanner<>( new IterableStore<>( nativeStores.getNodeStore() ),
+            scans.add( new RecordScanner<>( new IterableStore<>( nativeStores.getNodeStore() ),
                     "NodeStoreToLabelScanStore",
                     progress, new NodeToLabelScanRecordProcessor( reporter, labelScanStore ) ) );
         }
 
         if ( checkIndexes )
         {
-            tasks.add( new RecordScanner<>( new IterableStore<>( nativeStores.getNodeStore() ), "NodeStoreToIndexes",
+            scans.add( new RecordScanner<>( new IterableStore<>( nativeStores.getNodeStore() ), "NodeStoreToIndexes",
                     progress, new NodeToLabelIndexesProcessor( reporter, indexes, new PropertyReader(
                             (PropertyStore) nativeStores.getPropertyStore(), (NodeStore) nativeStores.getNodeStore() ) ) ) );
         }
@@ -130,7 +143,7 @@ public class ConsistencyCheckTasks
         {
             if ( checkLabelScanStore )
             {
-                tasks.add( new RecordScanner<>( labelScanStore.newAllEntriesReader(),
+                scans.add( new RecordScanner<>( labelScanStore.newAllEntriesReader(),
                         format( "LabelScanStore_%d", iPass ), progress, new LabelScanDocumentProcessor(
                         filteredReporter,
                         new LabelScanCheck() ) ) );
@@ -140,7 +153,7 @@ public class ConsistencyCheckTasks
             {
                 for ( IndexRule indexRule : indexes.rules() )
                 {
-                    tasks.add( new RecordScanner<>( new IndexIterator( indexes.accessorFor( indexRule ) ),
+                    scans.add( new RecordScanner<>( new IndexIterator( indexes.accessorFor( indexRule ) ),
                             format( "Index_%d_%d", indexRule.getId(), iPass ), progress,
                             new IndexEntryProcessor( filteredReporter,
                             new IndexCheck( indexRule ) ) ) );
@@ -148,19 +161,27 @@ public class ConsistencyCheckTasks
             }
             iPass++;
         }
+        if ( order == TaskExecutionOrder.PARALLEL && executor != null && scans.size() > 1 )
+        {
+            tasks.add( new ConcurrentScansTask( scans, executor ) );
+        }
+        else
+        {
+            tasks.addAll( scans );
+        }
         return tasks;
     }
 
     private <RECORD extends AbstractBaseRecord> StoreProcessorTask<RECORD> create( RecordStore<RECORD> input )
     {
         return new StoreProcessorTask<>(
-                input, progress, order, processor, processor );
+                input, progress, order, executor, numberOfThreads, processor, processor );
     }
 
     private <RECORD extends AbstractBaseRecord> StoreProcessorTask<RECORD> create( RecordStore<RECORD> input,
             StoreProcessor[] processors )
     {
         return new StoreProcessorTask<>(
-                input, progress, order, processor, processors );
+                input, progress, order, executor, numberOfThreads, processor, processors );
     }
 }
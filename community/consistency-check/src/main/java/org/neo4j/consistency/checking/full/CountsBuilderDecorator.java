@@ -19,7 +19,10 @@
  */
 package org.neo4j.consistency.checking.full;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.consistency.checking.CheckDecorator;
@@ -53,8 +56,8 @@ import static org.neo4j.kernel.impl.store.counts.keys.CountsKeyFactory.relations
 class CountsBuilderDecorator extends CheckDecorator.Adapter
 {
     private static final int WILDCARD = -1;
-    private final MultiSet<CountsKey> nodeCounts = new MultiSet<>();
-    private final MultiSet<CountsKey> relationshipCounts = new MultiSet<>();
+    private final PerThreadCounts nodeCounts = new PerThreadCounts();
+    private final PerThreadCounts relationshipCounts = new PerThreadCounts();
     private final Predicate<NodeRecord> nodeCountBuildCondition = new MultiPassAvoidanceCondition<>();
     private final Predicate<RelationshipRecord> relationshipCountBuildCondition = new MultiPassAvoidanceCondition<>();
     private final NodeStore nodeStore;
@@ -65,7 +68,7 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
                            CheckerEngine<CountsEntry,ConsistencyReport.CountsConsistencyReport> engine,
                            RecordAccess records )
         {
-            final long expectedCount = nodeCounts.count( record.getCountsKey() );
+            final long expectedCount = nodeCounts.merged().count( record.getCountsKey() );
             if ( expectedCount != record.getCount() )
             {
                 engine.report().inconsistentNodeCount( expectedCount );
@@ -79,7 +82,7 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
                            CheckerEngine<CountsEntry,ConsistencyReport.CountsConsistencyReport> engine,
                            RecordAccess records )
         {
-            final long expectedCount = relationshipCounts.count( record.getCountsKey() );
+            final long expectedCount = relationshipCounts.merged().count( record.getCountsKey() );
             if ( expectedCount != record.getCount() )
             {
                 engine.report().inconsistentRelationshipCount( expectedCount );
@@ -93,7 +96,7 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
                            CheckerEngine<CountsEntry,ConsistencyReport.CountsConsistencyReport> engine,
                            RecordAccess records )
         {
-            final int expectedCount = nodeCounts.uniqueSize();
+            final int expectedCount = nodeCounts.merged().uniqueSize();
 
             if ( record.getCount() != expectedCount )
             {
@@ -108,7 +111,7 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
                            CheckerEngine<CountsEntry,ConsistencyReport.CountsConsistencyReport> engine,
                            RecordAccess records )
         {
-            final int expectedCount = relationshipCounts.uniqueSize();
+            final int expectedCount = relationshipCounts.merged().uniqueSize();
             if ( record.getCount() != expectedCount )
             {
                 engine.report().inconsistentNumberOfRelationshipKeys( expectedCount );
@@ -138,8 +141,8 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
     public void checkCounts( CountsAccessor counts, final ConsistencyReporter reporter, ProgressMonitorFactory
             progressFactory )
     {
-        final int nodes = nodeCounts.uniqueSize();
-        final int relationships = relationshipCounts.uniqueSize();
+        final int nodes = nodeCounts.merged().uniqueSize();
+        final int relationships = relationshipCounts.merged().uniqueSize();
         final int total = nodes + relationships;
 
         final AtomicInteger nodeEntries = new AtomicInteger( 0 );
@@ -178,11 +181,11 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
     private static class NodeCounts implements OwningRecordCheck<NodeRecord,NodeConsistencyReport>
     {
         private final NodeStore nodeStore;
-        private final MultiSet<CountsKey> counts;
+        private final PerThreadCounts counts;
         private final Predicate<NodeRecord> countUpdateCondition;
         private final OwningRecordCheck<NodeRecord,NodeConsistencyReport> inner;
 
-        public NodeCounts( NodeStore nodeStore, MultiSet<CountsKey> counts,
+        public NodeCounts( NodeStore nodeStore, PerThreadCounts counts,
                            Predicate<NodeRecord> countUpdateCondition,
                            OwningRecordCheck<NodeRecord,NodeConsistencyReport> inner )
         {
@@ -209,6 +212,7 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
                 {
                     final Set<Long> labels = labelsFor( nodeStore, engine, records, record.getId()
                     );
+                    final MultiSet<CountsKey> counts = this.counts.get();
                     counts.add( nodeKey( WILDCARD ) );
                     for ( long label : labels )
                     {
@@ -233,11 +237,11 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
         /** Don't support these counts at the moment so don't compute them */
         private static final boolean COMPUTE_DOUBLE_SIDED_RELATIONSHIP_COUNTS = false;
         private final NodeStore nodeStore;
-        private final MultiSet<CountsKey> counts;
+        private final PerThreadCounts counts;
         private final Predicate<RelationshipRecord> countUpdateCondition;
         private final OwningRecordCheck<RelationshipRecord,RelationshipConsistencyReport> inner;
 
-        public RelationshipCounts( NodeStore nodeStore, MultiSet<CountsKey> counts,
+        public RelationshipCounts( NodeStore nodeStore, PerThreadCounts counts,
                                    Predicate<RelationshipRecord> countUpdateCondition,
                                    OwningRecordCheck<RelationshipRecord,RelationshipConsistencyReport> inner )
         {
@@ -267,6 +271,7 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
                     final Set<Long> secondNodeLabels = labelsFor( nodeStore, engine, records, record.getSecondNode() );
                     final int type = record.getType();
 
+                    final MultiSet<CountsKey> counts = this.counts.get();
                     counts.add( relationshipKey( WILDCARD, WILDCARD, WILDCARD ) );
                     counts.add( relationshipKey( WILDCARD, type, WILDCARD ) );
                     for ( long firstLabel : firstNodeLabels )
@@ -307,6 +312,40 @@ class CountsBuilderDecorator extends CheckDecorator.Adapter
         }
     }
 
+    /**
+     * Counts kept by each checking thread on its own, so that threads checking different ranges of a store don't
+     * contend for them. They are merged when the counts are checked, after all records have been checked.
+     */
+    private static class PerThreadCounts extends ThreadLocal<MultiSet<CountsKey>>
+    {
+        private final List<MultiSet<CountsKey>> allCounts = new CopyOnWriteArrayList<>();
+        private MultiSet<CountsKey> merged;
+
+        @Override
+        protected MultiSet<CountsKey> initialValue()
+        {
+            MultiSet<CountsKey> counts = new MultiSet<>();
+            allCounts.add( counts );
+            return counts;
+        }
+
+        MultiSet<CountsKey> merged()
+        {
+            if ( merged == null )
+            {
+                merged = new MultiSet<>();
+                for ( MultiSet<CountsKey> counts : allCounts )
+                {
+                    for ( Map.Entry<CountsKey,Long> entry : counts.entrySet() )
+                    {
+                        merged.increment( entry.getKey(), entry.getValue() );
+                    }
+                }
+            }
+            return merged;
+        }
+    }
+
     private static class MultiPassAvoidanceCondition<T extends AbstractBaseRecord> implements Predicate<T>
     {
         private boolean started = false, done = false;
@@ -21,6 +21,8 @@ package org.neo4j.consistency.checking.full;
 
 import java.lang.reflect.Array;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.neo4j.consistency.ConsistencyCheckSettings;
 import org.neo4j.consistency.checking.CheckDecorator;
@@ -30,6 +32,7 @@ import org.neo4j.consistency.report.ConsistencySummaryStatistics;
 import org.neo4j.consistency.report.InconsistencyMessageLogger;
 import org.neo4j.consistency.report.InconsistencyReport;
 import org.neo4j.consistency.store.CacheSmallStoresRecordAccess;
+import org.neo4j.consistency.store.CachedNodeFieldsRecordAccess;
 import org.neo4j.consistency.store.DiffRecordAccess;
 import org.neo4j.consistency.store.DirectRecordAccess;
 import org.neo4j.graphdb.factory.GraphDatabaseSettings;
@@ -44,13 +47,16 @@ import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
 import org.neo4j.kernel.impl.store.record.PropertyKeyTokenRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipTypeTokenRecord;
 import org.neo4j.kernel.impl.util.StringLogger;
+import org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory;
 
 public class FullCheck
 {
     private final boolean checkPropertyOwners;
     private final boolean checkLabelScanStore;
     private final boolean checkIndexes;
+    private final boolean cacheNodeFields;
     private final TaskExecutionOrder order;
+    private final int numberOfThreads;
     private final ProgressMonitorFactory progressFactory;
     private final Long totalMappedMemory;
     private final IndexSamplingConfig samplingConfig;
@@ -60,7 +66,9 @@ public class FullCheck
         this.checkPropertyOwners = tuningConfiguration.get( ConsistencyCheckSettings.consistency_check_property_owners );
         this.checkLabelScanStore = tuningConfiguration.get( ConsistencyCheckSettings.consistency_check_label_scan_store );
         this.checkIndexes = tuningConfiguration.get( ConsistencyCheckSettings.consistency_check_indexes );
+        this.cacheNodeFields = tuningConfiguration.get( ConsistencyCheckSettings.consistency_check_node_cache );
         this.order = tuningConfiguration.get( ConsistencyCheckSettings.consistency_check_execution_order );
+        this.numberOfThreads = tuningConfiguration.get( ConsistencyCheckSettings.consistency_check_threads );
         this.totalMappedMemory = tuningConfiguration.get( GraphDatabaseSettings.pagecache_memory );
         this.samplingConfig = new IndexSamplingConfig( tuningConfiguration );
         this.progressFactory = progressFactory;
@@ -72,15 +80,42 @@ public class FullCheck
         ConsistencySummaryStatistics summary = new ConsistencySummaryStatistics();
         InconsistencyReport report = new InconsistencyReport( new InconsistencyMessageLogger( logger ), summary );
 
-        OwnerCheck ownerCheck = new OwnerCheck( checkPropertyOwners );
+        OwnerCheck ownerCheck = new OwnerCheck( checkPropertyOwners,
+                order == TaskExecutionOrder.PARALLEL ? numberOfThreads : OwnerCheck.DEFAULT_CONCURRENCY_LEVEL );
         CountsBuilderDecorator countsBuilder =
                 new CountsBuilderDecorator( stores.nativeStores().getRawNeoStore().getNodeStore() );
-        CheckDecorator decorator = new CheckDecorator.ChainCheckDecorator( ownerCheck, countsBuilder );
+        StringDictionaryCheckDecorator stringDictionaryCheck = new StringDictionaryCheckDecorator(
+                stores.nativeStores().getRawNeoStore().getPropertyStore().getStringDictionary() );
         DiffRecordAccess records = recordAccess( stores.nativeStores() );
-        execute( stores, decorator, records, report );
-        ownerCheck.scanForOrphanChains( progressFactory );
-        countsBuilder.checkCounts( stores.nativeStores().getCounts(), new ConsistencyReporter( records, report ),
-                progressFactory );
+        CachedNodeFieldsRecordAccess nodeFieldsCache = null;
+        CheckDecorator decorator;
+        if ( cacheNodeFields )
+        {
+            nodeFieldsCache = new CachedNodeFieldsRecordAccess( records,
+                    stores.nativeStores().getNodeStore(), NumberArrayFactory.AUTO,
+                    stores.nativeStores().getNodeStore().getHighId() );
+            records = nodeFieldsCache;
+            decorator = new CheckDecorator.ChainCheckDecorator( ownerCheck, countsBuilder, stringDictionaryCheck,
+                    new NodeFieldsCachingDecorator( nodeFieldsCache ) );
+        }
+        else
+        {
+            decorator = new CheckDecorator.ChainCheckDecorator( ownerCheck, countsBuilder, stringDictionaryCheck );
+        }
+        try
+        {
+            execute( stores, decorator, records, report );
+            ownerCheck.scanForOrphanChains( progressFactory );
+            countsBuilder.checkCounts( stores.nativeStores().getCounts(), new ConsistencyReporter( records, report ),
+                    progressFactory );
+        }
+        finally
+        {
+            if ( nodeFieldsCache != null )
+            {
+                nodeFieldsCache.close();
+            }
+        }
 
         if ( !summary.isConsistent() )
         {
@@ -97,6 +132,9 @@ public class FullCheck
         StoreProcessor processEverything = new StoreProcessor( decorator, reporter );
 
         ProgressMonitorFactory.MultiPartBuilder progress = progressFactory.multipleParts( "Full consistency check" );
+        // one pool for the ranges of all stores, rather than one per store
+        ExecutorService executor = order == TaskExecutionOrder.PARALLEL && numberOfThreads > 1 ?
+                Executors.newFixedThreadPool( numberOfThreads ) : null;
 
         final StoreAccess nativeStores = directStoreAccess.nativeStores();
         try ( IndexAccessors indexes =
@@ -104,7 +142,8 @@ public class FullCheck
         {
             MultiPassStore.Factory multiPass = new MultiPassStore.Factory(
                     decorator, totalMappedMemory, nativeStores, recordAccess, report );
-            List<StoppableRunnable> tasks = new ConsistencyCheckTasks( progress, order, processEverything ).createTasks(
+            List<StoppableRunnable> tasks = new ConsistencyCheckTasks(
+                    progress, order, processEverything, executor, numberOfThreads ).createTasks(
                     nativeStores,
                     directStoreAccess.labelScanStore(),
                     indexes,
@@ -120,7 +159,13 @@ public class FullCheck
         {
             throw new ConsistencyCheckIncompleteException( e );
         }
-
+        finally
+        {
+            if ( executor != null )
+            {
+                executor.shutdown();
+            }
+        }
     }
 
     static DiffRecordAccess recordAccess( StoreAccess store )
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.checking.full;
+
+import org.neo4j.consistency.checking.CheckDecorator;
+import org.neo4j.consistency.checking.CheckerEngine;
+import org.neo4j.consistency.checking.ComparativeRecordChecker;
+import org.neo4j.consistency.checking.OwningRecordCheck;
+import org.neo4j.consistency.report.ConsistencyReport.NodeConsistencyReport;
+import org.neo4j.consistency.store.CachedNodeFieldsRecordAccess;
+import org.neo4j.consistency.store.DiffRecordAccess;
+import org.neo4j.consistency.store.RecordAccess;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
+
+/**
+ * Fills a {@link CachedNodeFieldsRecordAccess} with every node record that passes through the node checker.
+ */
+class NodeFieldsCachingDecorator extends CheckDecorator.Adapter
+{
+    private final CachedNodeFieldsRecordAccess cache;
+
+    NodeFieldsCachingDecorator( CachedNodeFieldsRecordAccess cache )
+    {
+        this.cache = cache;
+    }
+
+    @Override
+    public OwningRecordCheck<NodeRecord,NodeConsistencyReport> decorateNodeChecker(
+            final OwningRecordCheck<NodeRecord,NodeConsistencyReport> checker )
+    {
+        return new OwningRecordCheck<NodeRecord,NodeConsistencyReport>()
+        {
+            @Override
+            public ComparativeRecordChecker<NodeRecord,PrimitiveRecord,NodeConsistencyReport> ownerCheck()
+            {
+                return checker.ownerCheck();
+            }
+
+            @Override
+            public void check( NodeRecord record, CheckerEngine<NodeRecord,NodeConsistencyReport> engine,
+                               RecordAccess records )
+            {
+                cache.cache( record );
+                checker.check( record, engine, records );
+            }
+
+            @Override
+            public void checkChange( NodeRecord oldRecord, NodeRecord newRecord,
+                                     CheckerEngine<NodeRecord,NodeConsistencyReport> engine,
+                                     DiffRecordAccess records )
+            {
+                checker.checkChange( oldRecord, newRecord, engine, records );
+            }
+        };
+    }
+}
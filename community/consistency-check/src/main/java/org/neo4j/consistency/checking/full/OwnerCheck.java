@@ -66,19 +66,32 @@ class OwnerCheck implements CheckDecorator
     private final ConcurrentMap<Long, PropertyOwner> owners;
     private final Map<RecordType, ConcurrentMap<Long, DynamicOwner>> dynamics;
 
+    static final int DEFAULT_CONCURRENCY_LEVEL = 4;
+
     OwnerCheck( boolean active, DynamicStore... stores )
     {
-        this.owners = active ? new ConcurrentHashMap<Long, PropertyOwner>( 16, 0.75f, 4 ) : null;
-        this.dynamics = active ? initialize( stores ) : null;
+        this( active, DEFAULT_CONCURRENCY_LEVEL, stores );
+    }
+
+    /**
+     * @param concurrencyLevel the number of threads checking records concurrently. The owner maps are keyed by
+     * record id and sharded into this many segments, so that threads checking different id ranges rarely
+     * contend for the same segment.
+     */
+    OwnerCheck( boolean active, int concurrencyLevel, DynamicStore... stores )
+    {
+        this.owners = active ? new ConcurrentHashMap<Long, PropertyOwner>( 16, 0.75f, concurrencyLevel ) : null;
+        this.dynamics = active ? initialize( concurrencyLevel, stores ) : null;
     }
 
-    private static Map<RecordType, ConcurrentMap<Long, DynamicOwner>> initialize( DynamicStore[] stores )
+    private static Map<RecordType, ConcurrentMap<Long, DynamicOwner>> initialize( int concurrencyLevel,
+            DynamicStore[] stores )
     {
         EnumMap<RecordType, ConcurrentMap<Long, DynamicOwner>> map =
                 new EnumMap<>( RecordType.class );
         for ( DynamicStore store : stores )
         {
-            map.put( store.type, new ConcurrentHashMap<Long, DynamicOwner>( 16, 0.75f, 4 ) );
+            map.put( store.type, new ConcurrentHashMap<Long, DynamicOwner>( 16, 0.75f, concurrencyLevel ) );
         }
         return unmodifiableMap( map );
     }
@@ -19,6 +19,11 @@
  */
 package org.neo4j.consistency.checking.full;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
 import org.neo4j.helpers.progress.ProgressListener;
 import org.neo4j.helpers.progress.ProgressMonitorFactory;
 import org.neo4j.kernel.impl.store.RecordStore;
@@ -28,30 +33,77 @@ import static java.lang.String.format;
 
 class StoreProcessorTask<R extends AbstractBaseRecord> implements StoppableRunnable
 {
+    /**
+     * Stores smaller than this are not worth splitting into ranges for parallel checking.
+     */
+    static final long MINIMUM_RANGE_SIZE = 10_000;
+
     private final RecordStore<R> store;
     private final StoreProcessor[] processors;
     private final ProgressListener[] progressListeners;
-
+    private final long[] rangeBoundaries;
+    private final ExecutorService executor;
 
     StoreProcessorTask( RecordStore<R> store,
                         ProgressMonitorFactory.MultiPartBuilder builder,
                         TaskExecutionOrder order, StoreProcessor singlePassProcessor,
                         StoreProcessor... multiPassProcessors )
     {
-        this( store, "", builder, order, singlePassProcessor, multiPassProcessors );
+        this( store, "", builder, order, null, 1, singlePassProcessor, multiPassProcessors );
+    }
+
+    /**
+     * @param executor runs the ranges of a {@link TaskExecutionOrder#PARALLEL} check. It is shared by all tasks
+     * of a check, and owned by whoever created the tasks.
+     */
+    StoreProcessorTask( RecordStore<R> store,
+                        ProgressMonitorFactory.MultiPartBuilder builder,
+                        TaskExecutionOrder order, ExecutorService executor, int numberOfThreads,
+                        StoreProcessor singlePassProcessor, StoreProcessor... multiPassProcessors )
+    {
+        this( store, "", builder, order, executor, numberOfThreads, singlePassProcessor, multiPassProcessors );
     }
 
     StoreProcessorTask( RecordStore<R> store, String builderPrefix,
                         ProgressMonitorFactory.MultiPartBuilder builder,
                         TaskExecutionOrder order, StoreProcessor singlePassProcessor,
                         StoreProcessor... multiPassProcessors )
+    {
+        this( store, builderPrefix, builder, order, null, 1, singlePassProcessor, multiPassProcessors );
+    }
+
+    StoreProcessorTask( RecordStore<R> store, String builderPrefix,
+                        ProgressMonitorFactory.MultiPartBuilder builder,
+                        TaskExecutionOrder order, ExecutorService executor, int numberOfThreads,
+                        StoreProcessor singlePassProcessor, StoreProcessor... multiPassProcessors )
     {
         this.store = store;
+        this.executor = executor;
         String storeFileName = store.getStorageFileName().getName();
 
         String sanitizedBuilderPrefix = builderPrefix == null ? "" : builderPrefix;
 
-        if ( order == TaskExecutionOrder.MULTI_PASS )
+        int ranges = order == TaskExecutionOrder.PARALLEL && executor != null ?
+                numberOfRanges( store.getHighId(), numberOfThreads ) : 1;
+        long[] rangeBoundaries = null;
+        if ( ranges > 1 )
+        {
+            this.processors = new StoreProcessor[]{singlePassProcessor};
+            rangeBoundaries = new long[ranges + 1];
+            this.progressListeners = new ProgressListener[ranges];
+            long highId = store.getHighId();
+            for ( int i = 0; i < ranges; i++ )
+            {
+                rangeBoundaries[i] = highId * i / ranges;
+            }
+            rangeBoundaries[ranges] = highId;
+            for ( int i = 0; i < ranges; i++ )
+            {
+                String partName = rangePartName( storeFileName, sanitizedBuilderPrefix, i );
+                progressListeners[i] = builder.progressForPart( partName, rangeBoundaries[i + 1] - rangeBoundaries[i] );
+            }
+        }
+        else if ( order == TaskExecutionOrder.MULTI_PASS )
         {
             this.processors = multiPassProcessors;
             this.progressListeners = new ProgressListener[multiPassProcessors.length];
@@ -68,6 +120,12 @@ class StoreProcessorTask<R extends AbstractBaseRecord> implements StoppableRunna
             this.progressListeners = new ProgressListener[]{
                     builder.progressForPart( partName, store.getHighId() )};
         }
+        this.rangeBoundaries = rangeBoundaries;
+    }
+
+    static int numberOfRanges( long highId, int numberOfThreads )
+    {
+        return (int) Math.max( 1, Math.min( numberOfThreads, highId / MINIMUM_RANGE_SIZE ) );
     }
 
     private String partName( String storeFileName, String builderPrefix )
@@ -84,10 +142,25 @@ class StoreProcessorTask<R extends AbstractBaseRecord> implements StoppableRunna
         return format( "%s_pass_%s%d", storeFileName, prefix, i );
     }
 
+    private String rangePartName( String storeFileName, String prefix, int i )
+    {
+        if ( prefix.length() != 0 )
+        {
+            prefix += "_";
+        }
+        return format( "%s_range_%s%d", storeFileName, prefix, i );
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public void run()
     {
+        if ( rangeBoundaries != null )
+        {
+            runRangesInParallel();
+            return;
+        }
+
         for ( int i = 0; i < processors.length; i++ )
         {
             StoreProcessor processor = processors[i];
@@ -107,6 +180,51 @@ class StoreProcessorTask<R extends AbstractBaseRecord> implements StoppableRunna
         }
     }
 
+    private void runRangesInParallel()
+    {
+        final StoreProcessor processor = processors[0];
+        int ranges = progressListeners.length;
+        beforeProcessing( processor );
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>( ranges );
+            for ( int i = 0; i < ranges; i++ )
+            {
+                final long fromId = rangeBoundaries[i];
+                final long toId = rangeBoundaries[i + 1];
+                final ProgressListener progressListener = progressListeners[i];
+                futures.add( executor.submit( new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        try
+                        {
+                            processor.applyFilteredRange( store, fromId, toId, progressListener );
+                        }
+                        catch ( Throwable e )
+                        {
+                            progressListener.failed( e );
+                        }
+                    }
+                } ) );
+            }
+            for ( Future<?> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( Exception e )
+        {
+            processor.stop();
+            throw new RuntimeException( e );
+        }
+        finally
+        {
+            afterProcessing( processor );
+        }
+    }
+
     protected void beforeProcessing( StoreProcessor processor )
     {
         // intentionally empty
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.checking.full;
+
+import org.neo4j.consistency.checking.CheckDecorator;
+import org.neo4j.consistency.checking.CheckerEngine;
+import org.neo4j.consistency.checking.RecordCheck;
+import org.neo4j.consistency.report.ConsistencyReport.PropertyConsistencyReport;
+import org.neo4j.consistency.store.DiffRecordAccess;
+import org.neo4j.consistency.store.RecordAccess;
+import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.StringDictionary;
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.kernel.impl.store.record.PropertyRecord;
+
+/**
+ * Checks that {@link PropertyType#DICTIONARY_STRING dictionary string} property blocks refer to entries that
+ * exist in the {@link StringDictionary} of the store. The dictionary isn't a record store, so it can't be
+ * reached through the {@link RecordAccess} that the property record check itself is given.
+ */
+class StringDictionaryCheckDecorator extends CheckDecorator.Adapter
+{
+    private final StringDictionary dictionary;
+
+    StringDictionaryCheckDecorator( StringDictionary dictionary )
+    {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public RecordCheck<PropertyRecord,PropertyConsistencyReport> decoratePropertyChecker(
+            final RecordCheck<PropertyRecord,PropertyConsistencyReport> checker )
+    {
+        return new RecordCheck<PropertyRecord,PropertyConsistencyReport>()
+        {
+            @Override
+            public void check( PropertyRecord record, CheckerEngine<PropertyRecord,PropertyConsistencyReport> engine,
+                               RecordAccess records )
+            {
+                checker.check( record, engine, records );
+                if ( record.inUse() )
+                {
+                    for ( PropertyBlock block : record )
+                    {
+                        if ( block.forceGetType() == PropertyType.DICTIONARY_STRING &&
+                             !dictionary.contains( block.getSingleValueLong() ) )
+                        {
+                            engine.report().invalidPropertyValue( block );
+                        }
+                    }
+                }
+            }
+
+            @Override
+            public void checkChange( PropertyRecord oldRecord, PropertyRecord newRecord,
+                                     CheckerEngine<PropertyRecord,PropertyConsistencyReport> engine,
+                                     DiffRecordAccess records )
+            {
+                checker.checkChange( oldRecord, newRecord, engine, records );
+            }
+        };
+    }
+}
@@ -27,7 +27,12 @@ import org.neo4j.helpers.progress.Completion;
 public enum TaskExecutionOrder
 {
     SINGLE_THREADED,
-    MULTI_PASS;
+    MULTI_PASS,
+    /**
+     * Checks each store in a single pass, like {@link #SINGLE_THREADED}, but splits the records of each store
+     * into ranges that are checked concurrently.
+     */
+    PARALLEL;
 
     void execute( List<StoppableRunnable> tasks, Completion completion ) throws ConsistencyCheckIncompleteException
     {
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.store;
+
+import org.neo4j.kernel.impl.store.RecordStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.unsafe.impl.batchimport.cache.LongArray;
+import org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory;
+
+/**
+ * Keeps the fields of each node record that relationships and relationship groups are checked against packed
+ * into a single long per node, off-heap where possible. The cache is filled with {@link #cache(NodeRecord)}
+ * while the node store is checked, after which {@link #nodeRelationshipFields(long)} is answered without
+ * random reads in the node store.
+ * <p>
+ * Records served from the cache only carry the cached fields. Should one of them end up in an inconsistency
+ * report, the full record is read from the node store when the report is rendered.
+ */
+public class CachedNodeFieldsRecordAccess extends DelegatingRecordAccess implements AutoCloseable
+{
+    private static final long NOT_CACHED = -1;
+    private static final long IN_USE = 1L << 62;
+    private static final long DENSE = 1L << 61;
+    private static final long NEXT_REL_MASK = (1L << 40) - 1;
+
+    private final RecordStore<NodeRecord> nodeStore;
+    private final LongArray fields;
+
+    public CachedNodeFieldsRecordAccess( DiffRecordAccess delegate, RecordStore<NodeRecord> nodeStore,
+            NumberArrayFactory factory, long highNodeId )
+    {
+        super( delegate );
+        this.nodeStore = nodeStore;
+        this.fields = factory.newLongArray( Math.max( highNodeId, 1 ), NOT_CACHED );
+    }
+
+    public void cache( NodeRecord node )
+    {
+        long id = node.getId();
+        if ( id < fields.length() )
+        {
+            // nextRel is stored off by one so that NO_NEXT_RELATIONSHIP (-1) fits in the unsigned mask
+            long packed = (node.getNextRel() + 1) & NEXT_REL_MASK;
+            if ( node.inUse() )
+            {
+                packed |= IN_USE;
+            }
+            if ( node.isDense() )
+            {
+                packed |= DENSE;
+            }
+            fields.set( id, packed );
+        }
+    }
+
+    @Override
+    public RecordReference<NodeRecord> nodeRelationshipFields( long id )
+    {
+        long packed = id < fields.length() ? fields.get( id ) : NOT_CACHED;
+        if ( packed == NOT_CACHED )
+        {
+            return super.nodeRelationshipFields( id );
+        }
+
+        NodeRecord node = new CachedNodeRecord( id, (packed & DENSE) != 0, (packed & NEXT_REL_MASK) - 1,
+                (packed & IN_USE) != 0, nodeStore );
+        return new DirectRecordReference<>( node, this );
+    }
+
+    @Override
+    public void close()
+    {
+        fields.close();
+    }
+
+    /**
+     * A node record rebuilt from the cache, which lacks the labels and properties of the stored record.
+     * Its string form is that of the stored record, so that reports show what is actually in the store.
+     */
+    static class CachedNodeRecord extends NodeRecord
+    {
+        private final RecordStore<NodeRecord> nodeStore;
+
+        CachedNodeRecord( long id, boolean dense, long nextRel, boolean inUse, RecordStore<NodeRecord> nodeStore )
+        {
+            super( id, dense, nextRel, Record.NO_NEXT_PROPERTY.intValue(), inUse );
+            this.nodeStore = nodeStore;
+        }
+
+        @Override
+        public String toString()
+        {
+            return nodeStore.forceGetRecord( getId() ).toString();
+        }
+    }
+}
@@ -110,6 +110,12 @@ public class DelegatingRecordAccess implements DiffRecordAccess
         return delegate.node( id );
     }
 
+    @Override
+    public RecordReference<NodeRecord> nodeRelationshipFields( long id )
+    {
+        return delegate.nodeRelationshipFields( id );
+    }
+
     @Override
     public RecordReference<RelationshipRecord> relationship( long id )
     {
@@ -53,6 +53,12 @@ public class DirectRecordAccess implements DiffRecordAccess
         return referenceTo( access.getNodeStore(), id );
     }
 
+    @Override
+    public RecordReference<NodeRecord> nodeRelationshipFields( long id )
+    {
+        return node( id );
+    }
+
     @Override
     public RecordReference<RelationshipRecord> relationship( long id )
     {
@@ -69,6 +69,16 @@ public class FilteringRecordAccess extends DelegatingRecordAccess
         return super.node( id );
     }
 
+    @Override
+    public RecordReference<NodeRecord> nodeRelationshipFields( long id )
+    {
+        if ( shouldSkip( id, MultiPassStore.NODES ) )
+        {
+            return skipReference();
+        }
+        return super.nodeRelationshipFields( id );
+    }
+
     @Override
     public RecordReference<RelationshipRecord> relationship( long id )
     {
@@ -35,6 +35,14 @@ public interface RecordAccess
 
     RecordReference<NodeRecord> node( final long id );
 
+    /**
+     * A reference to a node record where only {@link NodeRecord#inUse() inUse}, {@link NodeRecord#isDense() dense}
+     * and {@link NodeRecord#getNextRel() nextRel} are guaranteed to be loaded. This is what relationship and
+     * relationship group records are checked against, and it can be answered from a compact cache instead of
+     * from the node store.
+     */
+    RecordReference<NodeRecord> nodeRelationshipFields( final long id );
+
     RecordReference<RelationshipRecord> relationship( final long id );
 
     RecordReference<PropertyRecord> property( final long id );
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.checking.full;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ConcurrentScansTaskTest
+{
+    @Test
+    public void shouldRunScansConcurrently() throws Exception
+    {
+        // given scans that can only complete when both run at the same time
+        final CountDownLatch bothStarted = new CountDownLatch( 2 );
+        final AtomicBoolean timedOut = new AtomicBoolean();
+        StoppableRunnable scan = new Scan()
+        {
+            @Override
+            public void run()
+            {
+                bothStarted.countDown();
+                try
+                {
+                    if ( !bothStarted.await( 10, TimeUnit.SECONDS ) )
+                    {
+                        timedOut.set( true );
+                    }
+                }
+                catch ( InterruptedException e )
+                {
+                    throw new RuntimeException( e );
+                }
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool( 2 );
+        try
+        {
+            // when
+            new ConcurrentScansTask( asList( scan, scan ), executor ).run();
+
+            // then
+            assertEquals( 0, bothStarted.getCount() );
+            assertTrue( "Scans ran one after the other", !timedOut.get() );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldStopAllScansWhenOneFails() throws Exception
+    {
+        // given
+        final RuntimeException failure = new RuntimeException( "scan failed" );
+        Scan failing = new Scan()
+        {
+            @Override
+            public void run()
+            {
+                throw failure;
+            }
+        };
+        Scan other = new Scan();
+        List<StoppableRunnable> scans = asList( failing, other );
+        ExecutorService executor = Executors.newFixedThreadPool( 2 );
+        try
+        {
+            // when
+            new ConcurrentScansTask( scans, executor ).run();
+            fail( "Should have failed" );
+        }
+        catch ( RuntimeException e )
+        {
+            // then
+            assertEquals( failure, e.getCause() );
+            assertTrue( failing.stopped );
+            assertTrue( other.stopped );
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    private static class Scan implements StoppableRunnable
+    {
+        volatile boolean stopped;
+
+        @Override
+        public void run()
+        {
+        }
+
+        @Override
+        public void stopScanning()
+        {
+            stopped = true;
+        }
+    }
+}
@@ -481,6 +481,12 @@ public class ExecutionOrderIntegrationTest
             return logging( access.node( id ) );
         }
 
+        @Override
+        public RecordReference<NodeRecord> nodeRelationshipFields( long id )
+        {
+            return logging( access.nodeRelationshipFields( id ) );
+        }
+
         @Override
         public RecordReference<RelationshipRecord> relationship( long id )
         {
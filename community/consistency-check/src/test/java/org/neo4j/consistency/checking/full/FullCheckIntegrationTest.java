@@ -124,7 +124,8 @@ public class FullCheckIntegrationTest
     {
         return Arrays.asList( new Object[][]{
                 {TaskExecutionOrder.SINGLE_THREADED},
-                {TaskExecutionOrder.MULTI_PASS}
+                {TaskExecutionOrder.MULTI_PASS},
+                {TaskExecutionOrder.PARALLEL}
         } );
     }
 
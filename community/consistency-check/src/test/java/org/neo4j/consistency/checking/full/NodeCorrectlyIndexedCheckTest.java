@@ -41,6 +41,7 @@ import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.SchemaIndexProvider.Descriptor;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.kernel.impl.api.index.sampling.IndexHistogramBuilder;
 import org.neo4j.kernel.impl.store.NodeLabelsField;
 import org.neo4j.kernel.impl.store.record.IndexRule;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
@@ -244,7 +245,7 @@ public class NodeCorrectlyIndexedCheckTest
                 }
 
                 @Override
-                public long sampleIndex( Register.DoubleLong.Out sampler )
+                public long sampleIndex( Register.DoubleLong.Out sampler, IndexHistogramBuilder histogram )
                 {
                     throw new UnsupportedOperationException();
                 }
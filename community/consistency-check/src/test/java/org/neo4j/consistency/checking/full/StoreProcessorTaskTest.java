@@ -21,6 +21,7 @@ package org.neo4j.consistency.checking.full;
 
 import static org.junit.Assert.assertNotSame;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -28,9 +29,12 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import static org.neo4j.consistency.checking.full.TaskExecutionOrder.MULTI_PASS;
+import static org.neo4j.consistency.checking.full.TaskExecutionOrder.PARALLEL;
 import static org.neo4j.consistency.checking.full.TaskExecutionOrder.SINGLE_THREADED;
 
 import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -115,4 +119,71 @@ public class StoreProcessorTaskTest
 
         assertNotSame(listener1.getValue(), listener2.getValue());
     }
+
+    @Test
+    public void parallelShouldProcessDisjointRangesCoveringTheWholeStore() throws Exception
+    {
+        // given
+        StoreProcessor singlePassProcessor = mock( StoreProcessor.class );
+        StoreProcessor multiPassProcessor = mock( StoreProcessor.class );
+
+        NodeStore store = mock( NodeStore.class );
+        when( store.getStorageFileName() ).thenReturn( new File("node-store") );
+        when( store.getHighId() ).thenReturn( 100_000L );
+
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        StoreProcessorTask<NodeRecord> task = new StoreProcessorTask<NodeRecord>(
+                store, ProgressMonitorFactory.NONE.multipleParts( "check" ), PARALLEL, executor, 4,
+                singlePassProcessor, multiPassProcessor );
+
+        // when
+        try
+        {
+            task.run();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        // then
+        verify( singlePassProcessor ).applyFilteredRange( same( store ), eq( 0L ), eq( 25_000L ),
+                any( ProgressListener.class ) );
+        verify( singlePassProcessor ).applyFilteredRange( same( store ), eq( 25_000L ), eq( 50_000L ),
+                any( ProgressListener.class ) );
+        verify( singlePassProcessor ).applyFilteredRange( same( store ), eq( 50_000L ), eq( 75_000L ),
+                any( ProgressListener.class ) );
+        verify( singlePassProcessor ).applyFilteredRange( same( store ), eq( 75_000L ), eq( 100_000L ),
+                any( ProgressListener.class ) );
+        verifyZeroInteractions( multiPassProcessor );
+    }
+
+    @Test
+    public void parallelShouldNotSplitSmallStores() throws Exception
+    {
+        // given
+        StoreProcessor singlePassProcessor = mock( StoreProcessor.class );
+
+        NodeStore store = mock( NodeStore.class );
+        when( store.getStorageFileName() ).thenReturn( new File("node-store") );
+        when( store.getHighId() ).thenReturn( 10L );
+
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        StoreProcessorTask<NodeRecord> task = new StoreProcessorTask<NodeRecord>(
+                store, ProgressMonitorFactory.NONE.multipleParts( "check" ), PARALLEL, executor, 4,
+                singlePassProcessor, mock( StoreProcessor.class ) );
+
+        // when
+        try
+        {
+            task.run();
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        // then
+        verify( singlePassProcessor ).applyFiltered( same( store ), any( ProgressListener.class ) );
+    }
 }
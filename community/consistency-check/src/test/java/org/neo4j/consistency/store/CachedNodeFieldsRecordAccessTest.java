@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.consistency.store;
+
+import org.junit.Test;
+
+import org.neo4j.kernel.impl.store.RecordStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+public class CachedNodeFieldsRecordAccessTest
+{
+    @Test
+    public void shouldServeCachedNodeFieldsWithoutDelegating() throws Exception
+    {
+        // given
+        DiffRecordAccess delegate = mock( DiffRecordAccess.class );
+        @SuppressWarnings("unchecked")
+        RecordStore<NodeRecord> nodeStore = mock( RecordStore.class );
+        try ( CachedNodeFieldsRecordAccess recordAccess =
+                      new CachedNodeFieldsRecordAccess( delegate, nodeStore, NumberArrayFactory.HEAP, 10 ) )
+        {
+            recordAccess.cache( new NodeRecord( 3, true, 12345, 7, true ) );
+            recordAccess.cache( new NodeRecord( 4, false, Record.NO_NEXT_RELATIONSHIP.intValue(), 7, false ) );
+
+            // when
+            NodeRecord dense = ((DirectRecordReference<NodeRecord>) recordAccess.nodeRelationshipFields( 3 )).record();
+            NodeRecord unused = ((DirectRecordReference<NodeRecord>) recordAccess.nodeRelationshipFields( 4 )).record();
+
+            // then
+            assertEquals( 3, dense.getId() );
+            assertTrue( dense.inUse() );
+            assertTrue( dense.isDense() );
+            assertEquals( 12345, dense.getNextRel() );
+            assertEquals( 4, unused.getId() );
+            assertFalse( unused.inUse() );
+            assertFalse( unused.isDense() );
+            assertEquals( Record.NO_NEXT_RELATIONSHIP.intValue(), unused.getNextRel() );
+            verifyZeroInteractions( delegate, nodeStore );
+        }
+    }
+
+    @Test
+    public void shouldDescribeCachedNodeByItsStoredRecord() throws Exception
+    {
+        // given
+        DiffRecordAccess delegate = mock( DiffRecordAccess.class );
+        @SuppressWarnings("unchecked")
+        RecordStore<NodeRecord> nodeStore = mock( RecordStore.class );
+        NodeRecord stored = new NodeRecord( 3, true, true, 12345, 7, 42 );
+        when( nodeStore.forceGetRecord( 3 ) ).thenReturn( stored );
+        try ( CachedNodeFieldsRecordAccess recordAccess =
+                      new CachedNodeFieldsRecordAccess( delegate, nodeStore, NumberArrayFactory.HEAP, 10 ) )
+        {
+            recordAccess.cache( stored );
+
+            // when
+            NodeRecord cached = ((DirectRecordReference<NodeRecord>) recordAccess.nodeRelationshipFields( 3 )).record();
+
+            // then
+            assertEquals( stored.toString(), cached.toString() );
+        }
+    }
+
+    @Test
+    public void shouldDelegateForNodesNotCached() throws Exception
+    {
+        // given
+        DiffRecordAccess delegate = mock( DiffRecordAccess.class );
+        @SuppressWarnings("unchecked")
+        RecordStore<NodeRecord> nodeStore = mock( RecordStore.class );
+        try ( CachedNodeFieldsRecordAccess recordAccess =
+                      new CachedNodeFieldsRecordAccess( delegate, nodeStore, NumberArrayFactory.HEAP, 10 ) )
+        {
+            // when
+            recordAccess.nodeRelationshipFields( 5 );
+            recordAccess.nodeRelationshipFields( 100 );
+            recordAccess.node( 5 );
+
+            // then
+            verify( delegate ).nodeRelationshipFields( 5 );
+            verify( delegate ).nodeRelationshipFields( 100 );
+            verify( delegate ).node( 5 );
+        }
+    }
+}
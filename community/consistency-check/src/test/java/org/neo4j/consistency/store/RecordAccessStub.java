@@ -421,6 +421,12 @@ public class RecordAccessStub implements RecordAccess, DiffRecordAccess
         return reference( nodes, id, Version.LATEST );
     }
 
+    @Override
+    public RecordReference<NodeRecord> nodeRelationshipFields( long id )
+    {
+        return node( id );
+    }
+
     @Override
     public RecordReference<RelationshipRecord> relationship( long id )
     {
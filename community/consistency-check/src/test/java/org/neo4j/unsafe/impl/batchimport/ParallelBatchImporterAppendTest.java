@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.neo4j.consistency.ConsistencyCheckService;
+import org.neo4j.consistency.ConsistencyCheckService.Result;
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseFactory;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.progress.ProgressMonitorFactory;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.util.StringLogger;
+import org.neo4j.kernel.logging.DevNullLoggingService;
+import org.neo4j.test.TargetDirectory;
+import org.neo4j.tooling.GlobalGraphOperations;
+import org.neo4j.unsafe.impl.batchimport.input.InputNode;
+import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
+import org.neo4j.unsafe.impl.batchimport.input.Inputs;
+import org.neo4j.unsafe.impl.batchimport.input.SimpleInputIterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import static org.neo4j.helpers.collection.IteratorUtil.count;
+import static org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdGenerators.fromInput;
+import static org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdMappers.actual;
+import static org.neo4j.unsafe.impl.batchimport.staging.ExecutionMonitors.invisible;
+
+public class ParallelBatchImporterAppendTest
+{
+    private static final int DENSE_NODE_THRESHOLD = 30;
+    private static final Label PERSON = DynamicLabel.label( "Person" );
+    private static final RelationshipType KNOWS = DynamicRelationshipType.withName( "KNOWS" );
+
+    public final @Rule TargetDirectory.TestDirectory directory = TargetDirectory.testDirForTest( getClass() );
+
+    private final Configuration config = new Configuration.Default()
+    {
+        @Override
+        public int batchSize()
+        {
+            return 10;
+        }
+
+        @Override
+        public int denseNodeThreshold()
+        {
+            return DENSE_NODE_THRESHOLD;
+        }
+    };
+
+    @Test
+    public void shouldAppendNodesAndRelationshipsToExistingStore() throws Exception
+    {
+        // given a store with a dense node (0), a sparse node about to become dense (1) and a few more nodes
+        GraphDatabaseService db = newDb();
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node[] nodes = new Node[10];
+            for ( int i = 0; i < nodes.length; i++ )
+            {
+                nodes[i] = db.createNode( PERSON );
+                nodes[i].setProperty( "name", "Existing " + i );
+            }
+            for ( int i = 0; i < DENSE_NODE_THRESHOLD + 10; i++ )
+            {
+                nodes[0].createRelationshipTo( nodes[2 + i % 8], KNOWS );
+            }
+            for ( int i = 0; i < DENSE_NODE_THRESHOLD - 10; i++ )
+            {
+                nodes[1].createRelationshipTo( nodes[2 + i % 8], KNOWS );
+            }
+            tx.success();
+        }
+        finally
+        {
+            db.shutdown();
+        }
+
+        // when appending new nodes, with relationships to both new and existing nodes
+        List<InputNode> nodes = new ArrayList<>();
+        for ( long id = 10; id < 30; id++ )
+        {
+            nodes.add( new InputNode( "test", id, id, id, new Object[] {"name", "New " + id}, null,
+                    new String[] {"Person", "New"}, null ) );
+        }
+        List<InputRelationship> relationships = new ArrayList<>();
+        for ( long id = 10; id < 30; id++ )
+        {
+            relationships.add( relationship( 0L, id, "KNOWS" ) );
+            relationships.add( relationship( id, 1L, "LIKES" ) );
+            relationships.add( relationship( id, id == 29 ? 10L : id + 1, "KNOWS" ) );
+        }
+        relationships.add( relationship( 2L, 2L, "KNOWS" ) );
+
+        new ParallelBatchImporter( directory.absolutePath(), config, new DevNullLoggingService(), invisible(), true )
+                .doImport( Inputs.input( iterable( nodes ), iterable( relationships ), actual(), fromInput(), false ) );
+
+        // then
+        db = newDb();
+        try ( Transaction tx = db.beginTx() )
+        {
+            GlobalGraphOperations ops = GlobalGraphOperations.at( db );
+            assertEquals( 30, count( ops.getAllNodes() ) );
+            assertEquals( 30, count( db.findNodes( PERSON ) ) );
+            assertEquals( 20, count( db.findNodes( DynamicLabel.label( "New" ) ) ) );
+            assertEquals( 40 + 20 + 61, count( ops.getAllRelationships() ) );
+            assertEquals( "Existing 0", db.getNodeById( 0 ).getProperty( "name" ) );
+            assertEquals( "New 10", db.getNodeById( 10 ).getProperty( "name" ) );
+            assertEquals( 60, db.getNodeById( 0 ).getDegree() );
+            assertEquals( 40, db.getNodeById( 1 ).getDegree() );
+            assertEquals( 20, db.getNodeById( 1 ).getDegree( DynamicRelationshipType.withName( "LIKES" ) ) );
+            assertEquals( 4, db.getNodeById( 10 ).getDegree() );
+            for ( Node node : ops.getAllNodes() )
+            {
+                assertEquals( "For node " + node, count( node.getRelationships() ), node.getDegree() );
+            }
+            tx.success();
+        }
+        finally
+        {
+            db.shutdown();
+        }
+        Result result = new ConsistencyCheckService().runFullConsistencyCheck( directory.absolutePath(),
+                new Config(), ProgressMonitorFactory.NONE, StringLogger.DEV_NULL );
+        assertTrue( "Database contains inconsistencies, there should be a report in " + directory.absolutePath(),
+                result.isSuccessful() );
+    }
+
+    private GraphDatabaseService newDb()
+    {
+        return new GraphDatabaseFactory().newEmbeddedDatabaseBuilder( directory.absolutePath() )
+                .setConfig( GraphDatabaseSettings.dense_node_threshold, String.valueOf( DENSE_NODE_THRESHOLD ) )
+                .newGraphDatabase();
+    }
+
+    private static InputRelationship relationship( Object startNode, Object endNode, String type )
+    {
+        return new InputRelationship( "test", 0, 0, new Object[0], null, startNode, endNode, type, null );
+    }
+
+    private static <T> InputIterable<T> iterable( final List<T> items )
+    {
+        return new InputIterable<T>()
+        {
+            @Override
+            public InputIterator<T> iterator()
+            {
+                final Iterator<T> iterator = items.iterator();
+                return new SimpleInputIterator<T>( "test" )
+                {
+                    @Override
+                    protected T fetchNextOrNull()
+                    {
+                        return iterator.hasNext() ? iterator.next() : null;
+                    }
+                };
+            }
+        };
+    }
+}
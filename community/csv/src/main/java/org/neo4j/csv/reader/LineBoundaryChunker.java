@@ -0,0 +1,355 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.csv.reader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static java.lang.String.format;
+
+/**
+ * Cuts the characters of a {@link CharReadable} into {@link Chunk chunks} of whole lines, so that each chunk
+ * can be parsed by its own {@link CharSeeker}, independently of the other chunks, f.ex. in parallel.
+ * A chunk only ends after a new line character which isn't inside a quoted value. Quotes are interpreted
+ * the same way as {@link BufferedCharSeeker} interprets them, i.e. a quote only starts a quoted value at the
+ * start of a value and quotes inside quoted values are escaped by another quote or a back slash.
+ *
+ * Characters are read into a {@link SectionedCharBuffer} where characters after the last line boundary are
+ * compacted into the back section before reading more, the same way {@link BufferedCharSeeker} does it.
+ * A line can therefore be at most as long as the effective buffer size.
+ */
+public class LineBoundaryChunker implements Closeable
+{
+    private static final char EOL_CHAR = '\n';
+    private static final char EOL_CHAR_2 = '\r';
+    private static final char BACK_SLASH = '\\';
+
+    private final CharReadable reader;
+    private final int chunkSize;
+    private final int delimiter;
+    private final char quoteChar;
+    private SectionedCharBuffer buffer;
+    // index into the buffer array where the next chunk starts, which is always at the start of a line
+    private int cursor;
+    private boolean eof;
+    private String sourceDescription;
+    // number of lines of the current source before the next chunk
+    private long lineNumber;
+    // number of lines in the chunk found by the last call to endOfChunk
+    private int linesInChunk;
+    // number of characters before the next chunk
+    private long position;
+
+    /**
+     * @param reader {@link CharReadable} to read characters from.
+     * @param bufferSize effective buffer size, i.e. the max length of a line.
+     * @param chunkSize number of characters after which a chunk is cut at the next line boundary. Chunks are
+     * also cut at the last line boundary of each buffer read, so chunks can be smaller than this.
+     * @param delimiter delimiter character between values.
+     * @param quoteChar character to interpret as quotation character.
+     */
+    public LineBoundaryChunker( CharReadable reader, int bufferSize, int chunkSize, int delimiter, char quoteChar )
+    {
+        this.reader = reader;
+        this.buffer = new SectionedCharBuffer( bufferSize );
+        this.cursor = buffer.front();
+        this.chunkSize = chunkSize;
+        this.delimiter = delimiter;
+        this.quoteChar = quoteChar;
+        this.sourceDescription = reader.sourceDescription();
+    }
+
+    /**
+     * @return the next {@link Chunk} of whole lines, or {@code null} if there are no more characters to read.
+     * @throws IOException on I/O error reading from the underlying {@link CharReadable}.
+     */
+    public Chunk next() throws IOException
+    {
+        while ( true )
+        {
+            if ( cursor < buffer.front() )
+            {
+                int end = endOfChunk( buffer.array(), cursor, buffer.front() );
+                if ( end != -1 )
+                {
+                    return chunk( end );
+                }
+            }
+            else if ( eof )
+            {
+                return null;
+            }
+
+            // There's no whole line left in the buffer, read more
+            if ( buffer.front() - cursor >= buffer.pivot() )
+            {
+                throw new IllegalStateException( "Tried to read in a line larger than effective buffer size " +
+                        buffer.pivot() + " in " + sourceDescription + " after line " + lineNumber );
+            }
+            buffer = reader.read( buffer, cursor );
+            cursor = buffer.back();
+            eof = !buffer.hasAvailable();
+            String sourceDescriptionAfterRead = reader.sourceDescription();
+            if ( !sourceDescription.equals( sourceDescriptionAfterRead ) )
+            {   // We moved over to a new source, reset line number
+                lineNumber = 0;
+                sourceDescription = sourceDescriptionAfterRead;
+            }
+        }
+    }
+
+    /**
+     * @return index (exclusive) of the end of the chunk starting at {@code from}, or {@code -1} if there's
+     * no line boundary between {@code from} and {@code to}. Also sets {@link #linesInChunk}.
+     */
+    private int endOfChunk( char[] data, int from, int to )
+    {
+        int end = -1;
+        int lines = 0;
+        int quoteDepth = 0;
+        boolean valueStart = true;
+        boolean lineStart = true;
+        for ( int i = from; i < to; i++ )
+        {
+            char ch = data[i];
+            if ( quoteDepth == 0 )
+            {   // In normal mode, i.e. not within quotes
+                if ( ch == quoteChar && valueStart )
+                {
+                    quoteDepth++;
+                    valueStart = lineStart = false;
+                }
+                else if ( ch == EOL_CHAR || ch == EOL_CHAR_2 )
+                {
+                    if ( ch == EOL_CHAR_2 && i+1 < to && data[i+1] == EOL_CHAR )
+                    {   // Cut after the \n of \r\n, so that both end up in the same chunk
+                        continue;
+                    }
+                    if ( ch == EOL_CHAR_2 && i+1 == to && !eof )
+                    {   // Can't tell whether or not there's a \n after this \r
+                        break;
+                    }
+                    if ( !lineStart )
+                    {   // Empty lines aren't counted, just like BufferedCharSeeker doesn't count them
+                        lines++;
+                    }
+                    valueStart = lineStart = true;
+                    end = i+1;
+                    linesInChunk = lines;
+                    if ( end - from >= chunkSize )
+                    {
+                        return end;
+                    }
+                }
+                else
+                {
+                    valueStart = ch == delimiter;
+                    lineStart = false;
+                }
+            }
+            else
+            {   // In quoted mode, i.e. within quotes
+                if ( ch == quoteChar || ch == BACK_SLASH )
+                {
+                    if ( i+1 == to && !eof )
+                    {   // Can't tell what this character means until we see the next one
+                        break;
+                    }
+                    char nextCh = i+1 < to ? data[i+1] : 0;
+                    if ( ch == quoteChar )
+                    {
+                        if ( nextCh == quoteChar )
+                        {   // Found a double quote, i.e. quote-in-quote
+                            i++;
+                            quoteDepth = quoteDepth == 1 ? 2 : 1;
+                        }
+                        else
+                        {   // Found an ending quote
+                            quoteDepth--;
+                        }
+                    }
+                    else if ( nextCh == quoteChar )
+                    {   // Found a slash encoded quote
+                        i++;
+                    }
+                }
+                else if ( ch == EOL_CHAR )
+                {
+                    lines++;
+                }
+            }
+        }
+
+        if ( eof )
+        {   // Everything that's left is the last chunk
+            linesInChunk = lineStart ? lines : lines+1;
+            return to;
+        }
+        return end;
+    }
+
+    private Chunk chunk( int end )
+    {
+        Chunk chunk = new Chunk( Arrays.copyOfRange( buffer.array(), cursor, end ),
+                sourceDescription, lineNumber, position );
+        lineNumber += linesInChunk;
+        position += end - cursor;
+        cursor = end;
+        return chunk;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        reader.close();
+    }
+
+    /**
+     * Whole lines of characters from a {@link LineBoundaryChunker}. Can be read as a {@link CharReadable},
+     * but most conveniently parsed using a {@link #seeker(char) seeker}.
+     */
+    public static class Chunk extends CharReadable.Adapter
+    {
+        private final char[] data;
+        private final String sourceDescription;
+        private final long lineNumber;
+        private final long position;
+        private boolean read;
+
+        Chunk( char[] data, String sourceDescription, long lineNumber, long position )
+        {
+            this.data = data;
+            this.sourceDescription = sourceDescription;
+            this.lineNumber = lineNumber;
+            this.position = position;
+        }
+
+        @Override
+        public SectionedCharBuffer read( SectionedCharBuffer buffer, int from ) throws IOException
+        {
+            buffer.compact( buffer, from );
+            buffer.readFrom( data, 0, read ? 0 : data.length );
+            read = true;
+            return buffer;
+        }
+
+        /**
+         * @param quoteChar character to interpret as quotation character.
+         * @return a {@link CharSeeker} for the lines in this chunk, which reports line numbers and positions
+         * in the source that this chunk was cut from.
+         */
+        public CharSeeker seeker( char quoteChar )
+        {
+            // +1 since a value can be at most one less than the buffer size
+            return new ChunkSeeker( new BufferedCharSeeker( this, data.length + 1, quoteChar ), this );
+        }
+
+        public int length()
+        {
+            return data.length;
+        }
+
+        @Override
+        public String sourceDescription()
+        {
+            return sourceDescription;
+        }
+
+        /**
+         * @return number of lines in the source before this chunk.
+         */
+        @Override
+        public long lineNumber()
+        {
+            return lineNumber;
+        }
+
+        /**
+         * @return number of characters in the source before this chunk.
+         */
+        @Override
+        public long position()
+        {
+            return position;
+        }
+    }
+
+    private static class ChunkSeeker implements CharSeeker
+    {
+        private final BufferedCharSeeker actual;
+        private final Chunk chunk;
+
+        ChunkSeeker( BufferedCharSeeker actual, Chunk chunk )
+        {
+            this.actual = actual;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public boolean seek( Mark mark, int untilChar ) throws IOException
+        {
+            return actual.seek( mark, untilChar );
+        }
+
+        @Override
+        public <EXTRACTOR extends Extractor<?>> EXTRACTOR extract( Mark mark, EXTRACTOR extractor )
+        {
+            return actual.extract( mark, extractor );
+        }
+
+        @Override
+        public boolean tryExtract( Mark mark, Extractor<?> extractor )
+        {
+            return actual.tryExtract( mark, extractor );
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            actual.close();
+        }
+
+        @Override
+        public String sourceDescription()
+        {
+            return chunk.sourceDescription();
+        }
+
+        @Override
+        public long lineNumber()
+        {
+            return chunk.lineNumber() + actual.lineNumber();
+        }
+
+        @Override
+        public long position()
+        {
+            // The position of the actual seeker starts at its buffer size, see BufferedCharSeeker#position()
+            return chunk.position() + actual.position() - (chunk.length() + 1);
+        }
+
+        @Override
+        public String toString()
+        {
+            return format( "%s[source:%s, line:%d]", actual, sourceDescription(), lineNumber() );
+        }
+    }
+}
@@ -142,6 +142,20 @@ public class SectionedCharBuffer
         }
     }
 
+    /**
+     * Like {@link #readFrom(Reader, int)} but copies the characters from a {@code char[]} instead.
+     *
+     * @param data characters to copy into the front section.
+     * @param offset index into {@code data} of the first character to copy.
+     * @param length number of characters to copy, at most {@link #pivot()} characters are copied.
+     */
+    public void readFrom( char[] data, int offset, int length )
+    {
+        int read = min( length, pivot );
+        System.arraycopy( data, offset, buffer, pivot, read );
+        front = pivot + read;
+    }
+
     /**
      * Puts a character into the front section of the buffer and increments the front index.
      * @param ch
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.csv.reader;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.neo4j.csv.reader.LineBoundaryChunker.Chunk;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import static org.neo4j.csv.reader.Readables.wrap;
+
+public class LineBoundaryChunkerTest
+{
+    @Test
+    public void shouldCutChunksAtLineBoundaries() throws Exception
+    {
+        // GIVEN
+        LineBoundaryChunker chunker = chunker( "1,a\n2,b\n3,c\n4,d\n", 20, 6 );
+
+        // WHEN/THEN
+        assertChunk( "1,a\n2,b\n", chunker.next() );
+        assertChunk( "3,c\n4,d\n", chunker.next() );
+        assertNull( chunker.next() );
+        chunker.close();
+    }
+
+    @Test
+    public void shouldNotCutChunksAtLineBoundariesInsideQuotes() throws Exception
+    {
+        // GIVEN
+        LineBoundaryChunker chunker = chunker( "1,\"a\nb\"\n2,\"c \"\"d\"\"\ne\"\n3,d\n", 30, 1 );
+
+        // WHEN/THEN
+        assertChunk( "1,\"a\nb\"\n", chunker.next() );
+        assertChunk( "2,\"c \"\"d\"\"\ne\"\n", chunker.next() );
+        assertChunk( "3,d\n", chunker.next() );
+        assertNull( chunker.next() );
+        chunker.close();
+    }
+
+    @Test
+    public void shouldIncludeLastLineWithoutNewLineInLastChunk() throws Exception
+    {
+        // GIVEN
+        LineBoundaryChunker chunker = chunker( "1,a\n2,b\n3,c", 100, 5 );
+
+        // WHEN/THEN
+        assertChunk( "1,a\n2,b\n", chunker.next() );
+        assertChunk( "3,c", chunker.next() );
+        assertNull( chunker.next() );
+        chunker.close();
+    }
+
+    @Test
+    public void shouldReadLinesSpanningMultipleBufferReads() throws Exception
+    {
+        // GIVEN
+        LineBoundaryChunker chunker = chunker( "first,line\nsecond,line\nthird,line\n", 16, 1 );
+
+        // WHEN/THEN
+        assertChunk( "first,line\n", chunker.next() );
+        assertChunk( "second,line\n", chunker.next() );
+        assertChunk( "third,line\n", chunker.next() );
+        assertNull( chunker.next() );
+        chunker.close();
+    }
+
+    @Test
+    public void shouldParseChunksWithLineNumbersAndPositionsOfTheSource() throws Exception
+    {
+        // GIVEN
+        LineBoundaryChunker chunker = chunker( "1,a\n2,b\n3,c\n", 20, 1 );
+        Mark mark = new Mark();
+        Extractors extractors = new Extractors( ';' );
+        chunker.next();
+
+        // WHEN
+        CharSeeker seeker = chunker.next().seeker( '"' );
+
+        // THEN
+        assertEquals( 1, seeker.lineNumber() );
+        assertEquals( 4, seeker.position() );
+        assertTrue( seeker.seek( mark, ',' ) );
+        assertEquals( 2L, seeker.extract( mark, extractors.long_() ).longValue() );
+        assertTrue( seeker.seek( mark, ',' ) );
+        assertEquals( "b", seeker.extract( mark, extractors.string() ).value() );
+        assertTrue( mark.isEndOfLine() );
+        assertEquals( 8, seeker.position() );
+        assertFalse( seeker.seek( mark, ',' ) );
+        seeker.close();
+        chunker.close();
+    }
+
+    @Test
+    public void shouldFailOnLineLargerThanBuffer() throws Exception
+    {
+        // GIVEN
+        LineBoundaryChunker chunker = chunker( "this is a very long line,which doesn't fit\n", 10, 1 );
+
+        // WHEN
+        try
+        {
+            chunker.next();
+            fail( "Should have failed" );
+        }
+        catch ( IllegalStateException e )
+        {   // THEN good
+        }
+        chunker.close();
+    }
+
+    private void assertChunk( String expected, Chunk chunk )
+    {
+        assertEquals( expected.length(), chunk.length() );
+        assertEquals( expected, read( chunk ) );
+    }
+
+    private String read( Chunk chunk )
+    {
+        try
+        {
+            SectionedCharBuffer buffer = chunk.read( new SectionedCharBuffer( chunk.length() + 1 ), 0 );
+            return new String( buffer.array(), buffer.pivot(), buffer.available() );
+        }
+        catch ( IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    private LineBoundaryChunker chunker( String data, int bufferSize, int chunkSize )
+    {
+        return new LineBoundaryChunker( wrap( new StringReader( data ) ), bufferSize, chunkSize, ',', '"' );
+    }
+}
@@ -25,7 +25,7 @@ import org.neo4j.cypher.internal.compiler.v2_2.ast.rewriters.{normalizeReturnCla
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan._
 import org.neo4j.cypher.internal.compiler.v2_2.parser.{CypherParser, ParserMonitor}
 import org.neo4j.cypher.internal.compiler.v2_2.planner._
-import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.{CachedMetricsFactory, SimpleMetricsFactory}
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.{CachedMetricsFactory, IDPQueryGraphSolver, IDPSolverConfig, SimpleMetricsFactory}
 import org.neo4j.cypher.internal.compiler.v2_2.spi.PlanContext
 import org.neo4j.graphdb.GraphDatabaseService
 import org.neo4j.helpers.Clock
@@ -85,6 +85,29 @@ object CypherCompilerFactory {
                     logger: StringLogger): CypherCompiler = conservativeCompiler(graph, queryCacheSize,
     statsDivergenceThreshold, queryPlanTTL, clock, kernelMonitors, logger, _ => true)
 
+  def idpCompiler(graph: GraphDatabaseService, queryCacheSize: Int, statsDivergenceThreshold: Double,
+                  queryPlanTTL: Long, clock: Clock, kernelMonitors: KernelMonitors,
+                  logger: StringLogger, solverConfig: IDPSolverConfig): CypherCompiler = {
+    val monitors = new Monitors(kernelMonitors)
+    val parser = new CypherParser(monitors.newMonitor[ParserMonitor[Statement]](monitorTag))
+    val checker = new SemanticChecker(monitors.newMonitor[SemanticCheckMonitor](monitorTag))
+    val rewriter = new ASTRewriter(monitors.newMonitor[AstRewritingMonitor](monitorTag))
+    val planBuilderMonitor = monitors.newMonitor[NewLogicalPlanSuccessRateMonitor](monitorTag)
+    val planningMonitor = monitors.newMonitor[PlanningMonitor](monitorTag)
+    val metricsFactory = CachedMetricsFactory(SimpleMetricsFactory)
+    val queryGraphSolver = IDPQueryGraphSolver.withDefaults(solverConfig = solverConfig, clock = clock)
+    val planner = new Planner(monitors, metricsFactory, planningMonitor, clock,
+      queryGraphSolver = queryGraphSolver, plannerName = IDP)
+    val pipeBuilder = new LegacyVsNewPipeBuilder(new LegacyPipeBuilder(monitors), planner, planBuilderMonitor)
+    val execPlanBuilder = new ExecutionPlanBuilder(graph, statsDivergenceThreshold, queryPlanTTL, clock, pipeBuilder)
+    val planCacheFactory = () => new LRUCache[PreparedQuery, ExecutionPlan](queryCacheSize)
+    monitors.addMonitorListener(logStalePlanRemovalMonitor(logger), monitorTag)
+    val cacheMonitor = monitors.newMonitor[AstCacheMonitor](monitorTag)
+    val cache = new MonitoringCacheAccessor[PreparedQuery, ExecutionPlan](cacheMonitor)
+
+    new CypherCompiler(parser, checker, execPlanBuilder, rewriter, cache, planCacheFactory, cacheMonitor, monitors)
+  }
+
   private def logStalePlanRemovalMonitor(logger: StringLogger) = new AstCacheMonitor {
     override def cacheDiscard(key: PreparedQuery) {
       logger.info(s"Discarded stale query from the query cache: ${key.queryText}")
@@ -35,6 +35,12 @@ case object Rule extends PlannerName("RULE")
  */
 case object Cost extends PlannerName("COST")
 
+/**
+ * Cost based query planner that searches the plan space with iterative dynamic programming, which finds better plans
+ * than the greedy search of the Cost planner while keeping planning time within a configurable budget.
+ */
+case object IDP extends PlannerName("IDP")
+
 
 /**
  * Hybrid planner that uses the Cost based planner for most of its operations but falls back to
@@ -47,8 +53,9 @@ object PlannerName {
   def apply(name: String): PlannerName = name.toUpperCase match {
     case "RULE" => Rule
     case "COST" => Cost
+    case "IDP" => IDP
     case "CONSERVATIVE" => Conservative
     //Note that conservative planner is not exposed to end users.
-    case n => throw new IllegalArgumentException(s"$n is not a a valid planner, valid options are COST and RULE")
+    case n => throw new IllegalArgumentException(s"$n is not a a valid planner, valid options are COST, IDP and RULE")
   }
 }
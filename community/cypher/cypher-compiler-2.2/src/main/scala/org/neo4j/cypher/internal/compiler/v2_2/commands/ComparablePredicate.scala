@@ -56,10 +56,9 @@ case class Equals(a: Expression, b: Expression) extends Predicate with Comparer
     else             None
   }
 
-  def isMatch(m: ExecutionContext)(implicit state: QueryState): Option[Boolean] = {
-    val a1 = a(m)
-    val b1 = b(m)
+  def isMatch(m: ExecutionContext)(implicit state: QueryState): Option[Boolean] = equalValues(a(m), b(m))
 
+  def equalValues(a1: Any, b1: Any)(implicit state: QueryState): Option[Boolean] = {
     (a1, b1) match {
       case (null, _)                                             => None
       case (_, null)                                             => None
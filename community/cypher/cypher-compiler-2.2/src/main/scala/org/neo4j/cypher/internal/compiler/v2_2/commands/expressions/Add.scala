@@ -25,10 +25,9 @@ import symbols._
 import org.neo4j.cypher.internal.helpers.{TypeSafeMathSupport, IsCollection}
 
 case class Add(a: Expression, b: Expression) extends Expression with TypeSafeMathSupport {
-  def apply(ctx: ExecutionContext)(implicit state: QueryState) = {
-    val aVal = a(ctx)
-    val bVal = b(ctx)
+  def apply(ctx: ExecutionContext)(implicit state: QueryState) = compute(a(ctx), b(ctx))
 
+  def compute(aVal: Any, bVal: Any): Any = {
     (aVal, bVal) match {
       case (null, _)                          => null
       case (_, null)                          => null
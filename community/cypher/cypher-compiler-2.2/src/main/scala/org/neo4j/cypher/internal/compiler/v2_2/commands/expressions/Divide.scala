@@ -19,18 +19,12 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_2.commands.expressions
 
-import org.neo4j.cypher.internal.compiler.v2_2._
-import pipes.QueryState
-
 case class Divide(a: Expression, b: Expression) extends Arithmetics(a, b) {
   def operand = "/"
 
   def verb = "divide"
 
-  override def apply(ctx: ExecutionContext)(implicit state: QueryState) = {
-    val aVal = a(ctx)
-    val bVal = b(ctx)
-
+  override def compute(aVal: Any, bVal: Any): Any = {
     (aVal, bVal) match {
       case (_, 0) => throw new ArithmeticException("/ by zero")
       case (null, _) => null
@@ -0,0 +1,414 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.commands.expressions
+
+import org.neo4j.cypher.internal.compiler.v2_2._
+import org.neo4j.cypher.internal.compiler.v2_2.commands._
+import org.neo4j.cypher.internal.compiler.v2_2.pipes.QueryState
+import org.neo4j.cypher.internal.compiler.v2_2.symbols._
+
+import scala.util.Try
+import scala.util.control.NoStackTrace
+
+/*
+The expression compiler turns an already semantically checked expression tree into a tree of evaluators that are
+specialised for the node they were built from.
+
+Arithmetic and comparisons whose operands are typed as integers or floats in the symbol table of the pipe are compiled
+into evaluators working on primitive longs and doubles, which hand their results to each other without boxing them.
+Should a value turn out not to be of the calculated type at runtime, e.g. because it is null, the outermost primitive
+evaluator evaluates its whole expression with the interpreter instead. Boolean logic works on shared Option instances
+instead of allocating tuples and options for every row. Anything else is evaluated by the interpreter, so compiling an
+expression never changes its semantics.
+ */
+object ExpressionCompiler {
+  def compile(expression: Expression, symbols: SymbolTable): CompiledExpression =
+    new ExpressionCompiler(symbols).compile(expression)
+
+  def compilePredicate(predicate: Predicate, symbols: SymbolTable): CompiledPredicate =
+    new ExpressionCompiler(symbols).compilePredicate(predicate)
+}
+
+class ExpressionCompiler(symbols: SymbolTable) {
+  private type CompiledNumber = Either[CompiledLongExpression, CompiledDoubleExpression]
+
+  def compile(expression: Expression): CompiledExpression = expression match {
+    case Literal(v)                   => CompiledLiteral(v)
+    case ArithmeticOperation(_, _, _) => compileArithmetic(expression)
+    case predicate: Predicate         => compilePredicate(predicate)
+    case _                            => InterpretedExpression(expression)
+  }
+
+  def compilePredicate(predicate: Predicate): CompiledPredicate = predicate match {
+    case True()                     => CompiledTrue
+    case Not(a)                     => CompiledNot(compilePredicate(a))
+    case and: And                   => CompiledAnd(compilePredicate(and.a), compilePredicate(and.b))
+    case Or(a, b)                   => CompiledOr(compilePredicate(a), compilePredicate(b))
+    case Xor(a, b)                  => CompiledXor(compilePredicate(a), compilePredicate(b))
+    case Ands(predicates)           => CompiledAnds(predicates.map(compilePredicate).toArray)
+    case Ors(predicates)            => CompiledOrs(predicates.map(compilePredicate).toArray)
+    case IsNull(a)                  => CompiledIsNull(compile(a))
+    case e@Equals(a, b)             => compileEquals(a, b, e)
+    case e@LessThan(a, b)           => compileComparison(a, b, e)
+    case e@LessThanOrEqual(a, b)    => compileComparison(a, b, e)
+    case e@GreaterThan(a, b)        => compileComparison(a, b, e)
+    case e@GreaterThanOrEqual(a, b) => compileComparison(a, b, e)
+    case _                          => InterpretedPredicate(predicate)
+  }
+
+  private def compileArithmetic(expression: Expression): CompiledExpression = compileNumber(expression) match {
+    case Some(Left(long))    => long
+    case Some(Right(double)) => double
+    case None                => InterpretedExpression(expression)
+  }
+
+  private def compileEquals(a: Expression, b: Expression, original: Equals): CompiledPredicate =
+    (compileNumber(a), compileNumber(b)) match {
+      case (Some(Left(l)), Some(Left(r))) => CompiledLongEquals(l, r, original)
+      case _                              => InterpretedPredicate(original)
+    }
+
+  // comparing integers with floats is left to the interpreter, which compares them exactly
+  private def compileComparison(a: Expression, b: Expression, original: ComparablePredicate): CompiledPredicate =
+    (compileNumber(a), compileNumber(b)) match {
+      case (Some(Left(l)), Some(Left(r)))   => CompiledLongComparison(l, r, original)
+      case (Some(Right(l)), Some(Right(r))) => CompiledDoubleComparison(l, r, original)
+      case _                                => InterpretedPredicate(original)
+    }
+
+  /*
+  Compiles expressions that evaluate to a Long or a Double, given the types of their operands. Like the interpreter,
+  arithmetic on two integers gives an integer, except for modulo, and arithmetic involving a float gives a float.
+   */
+  private def compileNumber(expression: Expression): Option[CompiledNumber] = expression match {
+    case Literal(v: Long)   => Some(Left(CompiledLongLiteral(v, expression)))
+    case Literal(v: Double) => Some(Right(CompiledDoubleLiteral(v, expression)))
+
+    case ArithmeticOperation(a, b, operator) =>
+      for (l <- compileNumber(a); r <- compileNumber(b)) yield (l, r, operator) match {
+        case (Left(longL), Left(longR), integral: IntegralOperator) =>
+          Left(CompiledLongArithmetic(longL, longR, integral, expression))
+        case _ =>
+          Right(CompiledDoubleArithmetic(asDouble(l), asDouble(r), operator, expression))
+      }
+
+    case _ => typeOf(expression) match {
+      case Some(CTInteger) => Some(Left(CompiledLongValue(expression)))
+      case Some(CTFloat)   => Some(Right(CompiledDoubleValue(expression)))
+      case _               => None
+    }
+  }
+
+  private def asDouble(number: CompiledNumber): CompiledDoubleExpression =
+    number match {
+      case Left(long)    => CompiledLongAsDouble(long)
+      case Right(double) => double
+    }
+
+  // the legacy pipes do not always know all identifiers they are handed expressions over
+  private def typeOf(expression: Expression): Option[CypherType] = Try(expression.getType(symbols)).toOption
+}
+
+object ArithmeticOperation {
+  def unapply(expression: Expression): Option[(Expression, Expression, PrimitiveOperator)] = expression match {
+    case Add(a, b)      => Some((a, b, PlusOperator))
+    case Subtract(a, b) => Some((a, b, MinusOperator))
+    case Multiply(a, b) => Some((a, b, MultiplyOperator))
+    case Divide(a, b)   => Some((a, b, DivideOperator))
+    case Modulo(a, b)   => Some((a, b, ModuloOperator))
+    case _              => None
+  }
+}
+
+abstract class CompiledExpression {
+  def apply(ctx: ExecutionContext, state: QueryState): Any
+}
+
+abstract class CompiledPredicate extends CompiledExpression {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Option[Boolean]
+
+  def isTrue(ctx: ExecutionContext, state: QueryState): Boolean = {
+    val result = isMatch(ctx, state)
+    result.nonEmpty && result.get
+  }
+
+  def apply(ctx: ExecutionContext, state: QueryState): Any = isMatch(ctx, state).getOrElse(null)
+}
+
+object CompiledPredicate {
+  val TRUE: Option[Boolean] = Some(true)
+  val FALSE: Option[Boolean] = Some(false)
+
+  def of(value: Boolean): Option[Boolean] = if (value) TRUE else FALSE
+}
+
+case class InterpretedExpression(inner: Expression) extends CompiledExpression {
+  def apply(ctx: ExecutionContext, state: QueryState): Any = inner(ctx)(state)
+}
+
+case class InterpretedPredicate(inner: Predicate) extends CompiledPredicate {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Option[Boolean] = inner.isMatch(ctx)(state)
+}
+
+case class CompiledLiteral(value: Any) extends CompiledExpression {
+  def apply(ctx: ExecutionContext, state: QueryState): Any = value
+}
+
+/*
+Thrown by a primitive evaluator reading a value that is not of the type calculated for it. It is caught by the
+outermost primitive evaluator, which then leaves the expression to the interpreter.
+ */
+object NotOfCalculatedType extends RuntimeException with NoStackTrace
+
+abstract class CompiledLongExpression extends CompiledExpression {
+  def original: Expression
+
+  def applyLong(ctx: ExecutionContext, state: QueryState): Long
+
+  // only called by evaluators that are not primitive themselves, so this is the only place the value is boxed
+  def apply(ctx: ExecutionContext, state: QueryState): Any =
+    try {
+      applyLong(ctx, state)
+    } catch {
+      case NotOfCalculatedType => original(ctx)(state)
+    }
+}
+
+abstract class CompiledDoubleExpression extends CompiledExpression {
+  def original: Expression
+
+  def applyDouble(ctx: ExecutionContext, state: QueryState): Double
+
+  // only called by evaluators that are not primitive themselves, so this is the only place the value is boxed
+  def apply(ctx: ExecutionContext, state: QueryState): Any =
+    try {
+      applyDouble(ctx, state)
+    } catch {
+      case NotOfCalculatedType => original(ctx)(state)
+    }
+}
+
+case class CompiledLongLiteral(value: Long, original: Expression) extends CompiledLongExpression {
+  def applyLong(ctx: ExecutionContext, state: QueryState): Long = value
+}
+
+case class CompiledDoubleLiteral(value: Double, original: Expression) extends CompiledDoubleExpression {
+  def applyDouble(ctx: ExecutionContext, state: QueryState): Double = value
+}
+
+case class CompiledLongValue(original: Expression) extends CompiledLongExpression {
+  def applyLong(ctx: ExecutionContext, state: QueryState): Long = original(ctx)(state) match {
+    case value: java.lang.Long => value.longValue()
+    case _                     => throw NotOfCalculatedType
+  }
+}
+
+case class CompiledDoubleValue(original: Expression) extends CompiledDoubleExpression {
+  def applyDouble(ctx: ExecutionContext, state: QueryState): Double = original(ctx)(state) match {
+    case value: java.lang.Double => value.doubleValue()
+    case _                       => throw NotOfCalculatedType
+  }
+}
+
+case class CompiledLongAsDouble(a: CompiledLongExpression) extends CompiledDoubleExpression {
+  def original: Expression = a.original
+
+  def applyDouble(ctx: ExecutionContext, state: QueryState): Double = a.applyLong(ctx, state).toDouble
+}
+
+sealed abstract class PrimitiveOperator {
+  def onDoubles(l: Double, r: Double): Double
+}
+
+sealed abstract class IntegralOperator extends PrimitiveOperator {
+  def onLongs(l: Long, r: Long): Long
+}
+
+object PlusOperator extends IntegralOperator {
+  def onLongs(l: Long, r: Long): Long = l + r
+  def onDoubles(l: Double, r: Double): Double = l + r
+}
+
+object MinusOperator extends IntegralOperator {
+  def onLongs(l: Long, r: Long): Long = l - r
+  def onDoubles(l: Double, r: Double): Double = l - r
+}
+
+object MultiplyOperator extends IntegralOperator {
+  def onLongs(l: Long, r: Long): Long = l * r
+  def onDoubles(l: Double, r: Double): Double = l * r
+}
+
+object DivideOperator extends IntegralOperator {
+  def onLongs(l: Long, r: Long): Long = {
+    if (r == 0) throw new ArithmeticException("/ by zero")
+    l / r
+  }
+
+  def onDoubles(l: Double, r: Double): Double = {
+    if (r == 0.0) throw new ArithmeticException("/ by zero")
+    l / r
+  }
+}
+
+// the modulo of two integers is a float
+object ModuloOperator extends PrimitiveOperator {
+  def onDoubles(l: Double, r: Double): Double = l % r
+}
+
+case class CompiledLongArithmetic(a: CompiledLongExpression, b: CompiledLongExpression, operator: IntegralOperator,
+                                  original: Expression) extends CompiledLongExpression {
+  def applyLong(ctx: ExecutionContext, state: QueryState): Long = {
+    val l = a.applyLong(ctx, state)
+    val r = b.applyLong(ctx, state)
+    operator.onLongs(l, r)
+  }
+}
+
+case class CompiledDoubleArithmetic(a: CompiledDoubleExpression, b: CompiledDoubleExpression,
+                                    operator: PrimitiveOperator, original: Expression)
+  extends CompiledDoubleExpression {
+  def applyDouble(ctx: ExecutionContext, state: QueryState): Double = {
+    val l = a.applyDouble(ctx, state)
+    val r = b.applyDouble(ctx, state)
+    operator.onDoubles(l, r)
+  }
+}
+
+case class CompiledLongComparison(a: CompiledLongExpression, b: CompiledLongExpression, original: ComparablePredicate)
+  extends CompiledPredicate {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Option[Boolean] =
+    try {
+      val l = a.applyLong(ctx, state)
+      val r = b.applyLong(ctx, state)
+      CompiledPredicate.of(original.compare(java.lang.Long.compare(l, r)))
+    } catch {
+      case NotOfCalculatedType => original.isMatch(ctx)(state)
+    }
+}
+
+case class CompiledDoubleComparison(a: CompiledDoubleExpression, b: CompiledDoubleExpression,
+                                    original: ComparablePredicate) extends CompiledPredicate {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Option[Boolean] =
+    try {
+      val l = a.applyDouble(ctx, state)
+      val r = b.applyDouble(ctx, state)
+      CompiledPredicate.of(original.compare(java.lang.Double.compare(l, r)))
+    } catch {
+      case NotOfCalculatedType => original.isMatch(ctx)(state)
+    }
+}
+
+case class CompiledLongEquals(a: CompiledLongExpression, b: CompiledLongExpression, original: Equals)
+  extends CompiledPredicate {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Option[Boolean] =
+    try {
+      val l = a.applyLong(ctx, state)
+      val r = b.applyLong(ctx, state)
+      CompiledPredicate.of(l == r)
+    } catch {
+      case NotOfCalculatedType => original.isMatch(ctx)(state)
+    }
+}
+
+case class CompiledIsNull(a: CompiledExpression) extends CompiledPredicate {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Option[Boolean] = CompiledPredicate.of(a(ctx, state) == null)
+}
+case object CompiledTrue extends CompiledPredicate {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Option[Boolean] = CompiledPredicate.TRUE
+}
+
+case class CompiledNot(a: CompiledPredicate) extends CompiledPredicate {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Option[Boolean] = {
+    val result = a.isMatch(ctx, state)
+    if (result.isEmpty) None else CompiledPredicate.of(!result.get)
+  }
+}
+
+// Both sides are always evaluated, just like the interpreted And
+case class CompiledAnd(a: CompiledPredicate, b: CompiledPredicate) extends CompiledPredicate {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Option[Boolean] = {
+    val l = a.isMatch(ctx, state)
+    val r = b.isMatch(ctx, state)
+
+    if ((l.nonEmpty && !l.get) || (r.nonEmpty && !r.get)) CompiledPredicate.FALSE
+    else if (l.isEmpty || r.isEmpty) None
+    else CompiledPredicate.TRUE
+  }
+}
+
+// Both sides are always evaluated, just like the interpreted Or
+case class CompiledOr(a: CompiledPredicate, b: CompiledPredicate) extends CompiledPredicate {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Option[Boolean] = {
+    val l = a.isMatch(ctx, state)
+    val r = b.isMatch(ctx, state)
+
+    if ((l.nonEmpty && l.get) || (r.nonEmpty && r.get)) CompiledPredicate.TRUE
+    else if (l.isEmpty || r.isEmpty) None
+    else CompiledPredicate.FALSE
+  }
+}
+
+case class CompiledXor(a: CompiledPredicate, b: CompiledPredicate) extends CompiledPredicate {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Option[Boolean] = {
+    val l = a.isMatch(ctx, state)
+    val r = b.isMatch(ctx, state)
+
+    if (l.isEmpty || r.isEmpty) None
+    else CompiledPredicate.of(l.get ^ r.get)
+  }
+}
+
+// Stops at the first false, and is otherwise unknown if any of the predicates were unknown
+case class CompiledAnds(predicates: Array[CompiledPredicate]) extends CompiledPredicate {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Option[Boolean] = {
+    var sawUnknown = false
+    var i = 0
+    while (i < predicates.length) {
+      val result = predicates(i).isMatch(ctx, state)
+      if (result.isEmpty)
+        sawUnknown = true
+      else if (!result.get)
+        return CompiledPredicate.FALSE
+      i += 1
+    }
+
+    if (sawUnknown) None else CompiledPredicate.TRUE
+  }
+}
+
+// Stops at the first true, and is otherwise unknown if any of the predicates were unknown
+case class CompiledOrs(predicates: Array[CompiledPredicate]) extends CompiledPredicate {
+  def isMatch(ctx: ExecutionContext, state: QueryState): Option[Boolean] = {
+    var sawUnknown = false
+    var i = 0
+    while (i < predicates.length) {
+      val result = predicates(i).isMatch(ctx, state)
+      if (result.isEmpty)
+        sawUnknown = true
+      else if (result.get)
+        return CompiledPredicate.TRUE
+      i += 1
+    }
+
+    if (sawUnknown) None else CompiledPredicate.FALSE
+  }
+}
+
@@ -22,13 +22,11 @@ package org.neo4j.cypher.internal.compiler.v2_2.commands.expressions
 import org.neo4j.cypher.internal.compiler.v2_2._
 import commands.{SingleNode, Pattern, PathExtractor, ShortestPath}
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects
+import org.neo4j.cypher.internal.compiler.v2_2.spi.QueryContext
 import pipes.QueryState
 import symbols._
-import org.neo4j.graphalgo.GraphAlgoFactory
-import org.neo4j.graphdb.{Path, DynamicRelationshipType, Node, Expander}
-import org.neo4j.kernel.Traversal
+import org.neo4j.graphdb.{Direction, Path, Node}
 import collection.Map
-import scala.collection.JavaConverters._
 
 case class ShortestPathExpression(ast: ShortestPath) extends Expression with PathExtractor {
   val pathPattern:Seq[Pattern] = Seq(ast)
@@ -41,10 +39,10 @@ case class ShortestPathExpression(ast: ShortestPath) extends Expression with Pat
     }
   }
 
-  private def getMatches(m: Map[String, Any]): Any = {
+  private def getMatches(m: Map[String, Any])(implicit state: QueryState): Any = {
     val start = getEndPoint(m, ast.left)
     val end = getEndPoint(m, ast.right)
-    shortestPathStrategy.findResult(start, end)
+    shortestPathStrategy.findResult(start, end, state.query)
   }
 
   def getEndPoint(m: Map[String, Any], start: SingleNode): Node = m.getOrElse(start.name,
@@ -59,18 +57,10 @@ case class ShortestPathExpression(ast: ShortestPath) extends Expression with Pat
 
   def rewrite(f: (Expression) => Expression): Expression = f(ShortestPathExpression(ast.rewrite(f)))
 
-  private lazy val expander: Expander = if (ast.relTypes.isEmpty) {
-    Traversal.expanderForAllTypes(ast.dir)
-  } else {
-    ast.relTypes.foldLeft(Traversal.emptyExpander()) {
-      case (e, t) => e.add(DynamicRelationshipType.withName(t), ast.dir)
-    }
-  }
-
   val shortestPathStrategy = if (ast.single)
-    new SingleShortestPathStrategy(expander, ast.allowZeroLength, ast.maxDepth.getOrElse(15))
+    new SingleShortestPathStrategy(ast.dir, ast.relTypes, ast.allowZeroLength, ast.maxDepth.getOrElse(15))
   else
-    new AllShortestPathsStrategy(expander, ast.allowZeroLength, ast.maxDepth.getOrElse(15))
+    new AllShortestPathsStrategy(ast.dir, ast.relTypes, ast.allowZeroLength, ast.maxDepth.getOrElse(15))
 
   def calculateType(symbols: SymbolTable) =  shortestPathStrategy.typ
 
@@ -80,29 +70,23 @@ case class ShortestPathExpression(ast: ShortestPath) extends Expression with Pat
 }
 
 trait ShortestPathStrategy {
-  def findResult(start: Node, end: Node): Any
+  def findResult(start: Node, end: Node, query: QueryContext): Any
   def typ: CypherType
 }
 
-class SingleShortestPathStrategy(expander: Expander, allowZeroLength: Boolean, depth: Int) extends ShortestPathStrategy {
-  private val finder = GraphAlgoFactory.shortestPath(expander, depth)
-
-  def findResult(start: Node, end: Node): Path = {
-    val result = finder.findSinglePath(start, end)
-    if (!allowZeroLength && result != null && result.length() == 0)
-      null
-    else
-      result
-  }
+class SingleShortestPathStrategy(dir: Direction, relTypes: Seq[String], allowZeroLength: Boolean, depth: Int) extends ShortestPathStrategy {
+  def findResult(start: Node, end: Node, query: QueryContext): Path =
+    query.singleShortestPath(start, end, depth, dir, relTypes) match {
+      case Some(result) if allowZeroLength || result.length() > 0 => result
+      case _ => null
+    }
 
   def typ = CTPath
 }
 
-class AllShortestPathsStrategy(expander: Expander, allowZeroLength: Boolean, depth: Int) extends ShortestPathStrategy {
-  private val finder = GraphAlgoFactory.shortestPath(expander, depth)
-
-  def findResult(start: Node, end: Node): Stream[Path] = {
-    finder.findAllPaths(start, end).asScala.toStream
+class AllShortestPathsStrategy(dir: Direction, relTypes: Seq[String], allowZeroLength: Boolean, depth: Int) extends ShortestPathStrategy {
+  def findResult(start: Node, end: Node, query: QueryContext): Stream[Path] = {
+    query.allShortestPath(start, end, depth, dir, relTypes).toStream
   }.filter { p => allowZeroLength || p.length() > 0 }
 
   def typ = CTCollection(CTPath)
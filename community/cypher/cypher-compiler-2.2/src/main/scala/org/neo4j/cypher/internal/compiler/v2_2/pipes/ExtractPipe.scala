@@ -20,7 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v2_2.pipes
 
 import org.neo4j.cypher.internal.compiler.v2_2._
-import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.{CachedExpression, Expression, Identifier}
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.{CachedExpression, Expression, ExpressionCompiler, Identifier}
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects._
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.InternalPlanDescription.Arguments.KeyNames
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.{PlanDescriptionImpl, SingleChild}
@@ -74,18 +74,22 @@ case class ExtractPipe(source: Pipe, expressions: Map[String, Expression], hack_
       case (name, _) => source.symbols.hasIdentifierNamed(name)
     }
 
+    val compiledExpressions = expressions.toArray.map {
+      case (name, expression) => (name, ExpressionCompiler.compile(expression, source.symbols))
+    }
+
     val applyExpressionsOverwritingOriginal = (ctx: ExecutionContext, state: QueryState) => {
-      expressions.foreach {
+      compiledExpressions.foreach {
         case (name, expression) =>
-          ctx += name -> expression(ctx)(state)
+          ctx += name -> expression(ctx, state)
       }
       ctx
     }
     val applyExpressionsWhileKeepingOriginal = (ctx: ExecutionContext, state: QueryState) => {
       val original = ctx.clone()
-      expressions.foreach {
+      compiledExpressions.foreach {
         case (name, expression) =>
-          ctx += name -> expression(original)(state)
+          ctx += name -> expression(original, state)
       }
       ctx
     }
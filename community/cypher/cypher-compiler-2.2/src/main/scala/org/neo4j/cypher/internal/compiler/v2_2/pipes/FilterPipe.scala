@@ -21,17 +21,20 @@ package org.neo4j.cypher.internal.compiler.v2_2.pipes
 
 import org.neo4j.cypher.internal.compiler.v2_2._
 import org.neo4j.cypher.internal.compiler.v2_2.commands.Predicate
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.ExpressionCompiler
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.InternalPlanDescription.Arguments.LegacyExpression
 
 case class FilterPipe(source: Pipe, predicate: Predicate)(val estimatedCardinality: Option[Double] = None)
                      (implicit pipeMonitor: PipeMonitor) extends PipeWithSource(source, pipeMonitor) with RonjaPipe {
   val symbols = source.symbols
 
+  private val compiledPredicate = ExpressionCompiler.compilePredicate(predicate, symbols)
+
   protected def internalCreateResults(input: Iterator[ExecutionContext],state: QueryState) = {
     //register as parent so that stats are associated with this pipe
     state.decorator.registerParentPipe(this)
 
-    input.filter(ctx => predicate.isTrue(ctx)(state))
+    input.filter(ctx => compiledPredicate.isTrue(ctx, state))
   }
 
   def planDescription = source.planDescription.andThen(this, "Filter", identifiers, LegacyExpression(predicate))
@@ -20,7 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v2_2.pipes
 
 import org.neo4j.cypher.internal.compiler.v2_2.ExecutionContext
-import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.Expression
+import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.{ExpressionCompiler, Expression}
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.InternalPlanDescription.Arguments.KeyNames
 import org.neo4j.cypher.internal.compiler.v2_2.symbols.SymbolTable
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.Effects._
@@ -35,15 +35,19 @@ case class ProjectionNewPipe(source: Pipe, expressions: Map[String, Expression])
     source.symbols.add(newIdentifiers)
   }
 
+  private val compiledExpressions = expressions.toArray.map {
+    case (name, expression) => (name, ExpressionCompiler.compile(expression, source.symbols))
+  }
+
   protected def internalCreateResults(input: Iterator[ExecutionContext], state: QueryState) = {
     //register as parent so that stats are associated with this pipe
     state.decorator.registerParentPipe(this)
     input.map {
       original =>
         val m = MutableMaps.create(expressions.size)
-        expressions.foreach {
+        compiledExpressions.foreach {
           case (name, expression) =>
-            m.put(name, expression(original)(state))
+            m.put(name, expression(original, state))
         }
 
         ExecutionContext(m)
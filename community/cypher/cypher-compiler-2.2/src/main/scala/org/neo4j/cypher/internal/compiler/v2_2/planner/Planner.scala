@@ -45,16 +45,19 @@ case class Planner(monitors: Monitors,
                    queryGraphSolver: QueryGraphSolver = new CompositeQueryGraphSolver(
                      new GreedyQueryGraphSolver(expandsOrJoins),
                      new GreedyQueryGraphSolver(expandsOnly)
-                   )) extends PipeBuilder {
+                   ),
+                   plannerName: PlannerName = Cost) extends PipeBuilder {
 
   val executionPlanBuilder: PipeExecutionPlanBuilder =
-    maybeExecutionPlanBuilder.getOrElse(new PipeExecutionPlanBuilder(clock, monitors))
+    maybeExecutionPlanBuilder.getOrElse(new PipeExecutionPlanBuilder(clock, monitors, plannerName))
 
   def producePlan(inputQuery: PreparedQuery, planContext: PlanContext): PipeInfo = {
     Planner.rewriteStatement(inputQuery.statement, inputQuery.scopeTree, inputQuery.semanticTable, inputQuery.conditions) match {
       case (ast: Query, rewrittenSemanticTable) =>
         monitor.startedPlanning(inputQuery.queryText)
-        val (logicalPlan, pipeBuildContext) = produceLogicalPlan(ast, rewrittenSemanticTable)(planContext)
+        // the values of auto extracted literals are part of the query text, so they are safe to plan with
+        val semanticTable = rewrittenSemanticTable.copy(extractedParams = inputQuery.extractedParams)
+        val (logicalPlan, pipeBuildContext) = produceLogicalPlan(ast, semanticTable)(planContext)
         monitor.foundPlan(inputQuery.queryText, logicalPlan)
         val result = executionPlanBuilder.build(logicalPlan)(pipeBuildContext, planContext)
         monitor.successfulPlanning(inputQuery.queryText, result)
@@ -34,7 +34,8 @@ class SemanticTable(
     val recordedScopes: ASTAnnotationMap[ASTNode, Scope] = ASTAnnotationMap.empty,
     val resolvedLabelIds: mutable.Map[String, LabelId] = new mutable.HashMap[String, LabelId],
     val resolvedPropertyKeyNames: mutable.Map[String, PropertyKeyId] = new mutable.HashMap[String, PropertyKeyId],
-    val resolvedRelTypeNames: mutable.Map[String, RelTypeId] = new mutable.HashMap[String, RelTypeId]
+    val resolvedRelTypeNames: mutable.Map[String, RelTypeId] = new mutable.HashMap[String, RelTypeId],
+    val extractedParams: Map[String, Any] = Map.empty
   ) extends Cloneable {
 
   def isNode(expr: Identifier) = types(expr).specified == symbols.CTNode.invariant
@@ -60,8 +61,9 @@ class SemanticTable(
     recordedScopes: ASTAnnotationMap[ASTNode, Scope] = recordedScopes,
     resolvedLabelIds: mutable.Map[String, LabelId] = resolvedLabelIds,
     resolvedPropertyKeyNames: mutable.Map[String, PropertyKeyId] = resolvedPropertyKeyNames,
-    resolvedRelTypeNames: mutable.Map[String, RelTypeId] = resolvedRelTypeNames
+    resolvedRelTypeNames: mutable.Map[String, RelTypeId] = resolvedRelTypeNames,
+    extractedParams: Map[String, Any] = extractedParams
   ) =
-    new SemanticTable(types, recordedScopes, resolvedLabelIds.clone(), resolvedPropertyKeyNames.clone(), resolvedRelTypeNames.clone())
+    new SemanticTable(types, recordedScopes, resolvedLabelIds.clone(), resolvedPropertyKeyNames.clone(), resolvedRelTypeNames.clone(), extractedParams)
 }
 
@@ -43,7 +43,7 @@ import org.neo4j.helpers.Clock
 
 case class PipeExecutionBuilderContext(cardinality: Metrics.CardinalityModel, semanticTable: SemanticTable)
 
-class PipeExecutionPlanBuilder(clock: Clock, monitors: Monitors) {
+class PipeExecutionPlanBuilder(clock: Clock, monitors: Monitors, plannerName: PlannerName = Cost) {
 
   val entityProducerFactory = new EntityProducerFactory
   val resolver = new KeyTokenResolver
@@ -253,6 +253,6 @@ class PipeExecutionPlanBuilder(clock: Clock, monitors: Monitors) {
         None
     }
 
-    PipeInfo(topLevelPipe, updating, None, fingerprint, Cost)
+    PipeInfo(topLevelPipe, updating, None, fingerprint, plannerName)
   }
 }
@@ -142,6 +142,9 @@ object ExhaustiveQueryGraphSolver {
       createSubQueryWithRels(remainingRels, hints)
     }
 
+    def withOnlyRelationships(rels: Set[PatternRelationship]): QueryGraph =
+      createSubQueryWithRels(rels, inner.hints)
+
     def combinations(size: Int): Seq[QueryGraph] = if (size < 0 || size > inner.patternRelationships.size )
       throw new IndexOutOfBoundsException(s"Expected $size to be in [0,${inner.patternRelationships.size}[")
      else if (size == 0) {
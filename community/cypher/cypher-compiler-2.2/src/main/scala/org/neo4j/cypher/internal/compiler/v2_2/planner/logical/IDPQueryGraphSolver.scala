@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.planner.logical
+
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.ExhaustiveQueryGraphSolver._
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.IDPQueryGraphSolver._
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans._
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.steps.LogicalPlanProducer._
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.steps.solveOptionalMatches.OptionalSolver
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.steps.{applyOptional, outerHashJoin, pickBestPlan}
+import org.neo4j.cypher.internal.compiler.v2_2.planner.{CantHandleQueryException, QueryGraph}
+import org.neo4j.helpers.Clock
+
+import scala.annotation.tailrec
+import scala.collection.mutable
+
+/**
+ * Iterative dynamic programming solver.
+ *
+ * Each connected component is solved bottom up like in the exhaustive solver, but only until the plan table holds more
+ * than `maxTableSize` plans or the current round has been running for more than `maxIterationTime` milliseconds. The
+ * cheapest of the largest sub-plans found so far is then picked, the relationships it covers are collapsed into a
+ * single building block, the plan table is compacted and a new round starts from the remaining blocks. Patterns small
+ * enough to fit the budget are solved in one round and get the same plan as with exhaustive search.
+ */
+case class IDPQueryGraphSolver(leafPlanTableGenerator: PlanTableGenerator,
+                               bestPlanFinder: CandidateSelector,
+                               config: PlanningStrategyConfiguration,
+                               optionalSolvers: Seq[OptionalSolver],
+                               solverConfig: IDPSolverConfig,
+                               clock: Clock)
+  extends QueryGraphSolver with PatternExpressionSolving {
+
+  def emptyPlanTable: PlanTable = ExhaustivePlanTable.empty
+
+  def plan(queryGraph: QueryGraph)(implicit context: LogicalPlanningContext, leafPlan: Option[LogicalPlan]): LogicalPlan = {
+    val cache = initiateCacheWithLeafPlans(queryGraph, leafPlan)
+    val plans = queryGraph.connectedComponents.map { qg =>
+      val result = planComponent(qg, cache)
+      cache + result
+      result
+    }
+
+    val resultPlan = plans.reduceRightOption[LogicalPlan] { case (p, acc) =>
+      val result = config.applySelections(planCartesianProduct(p, acc), queryGraph)
+      cache + result
+      result
+    }
+
+    val plan = resultPlan.getOrElse(cache.getOrElse(queryGraph,
+      if (queryGraph.argumentIds.isEmpty)
+        planSingleRow()
+      else
+        planQueryArgumentRow(queryGraph)
+    ))
+
+    val optionalQGs: Seq[QueryGraph] = findQGsToSolve(plan, cache, queryGraph.optionalMatches)
+    val result = optionalQGs.foldLeft(plan) {
+      case (lhs: LogicalPlan, optionalQg: QueryGraph) =>
+        val plans = optionalSolvers.flatMap(_.apply(optionalQg, lhs))
+        assert(plans.map(_.solved).distinct.size == 1) // All plans are solving the same query
+        bestPlanFinder(plans).get
+    }
+    result
+  }
+
+  private def planComponent(qg: QueryGraph, leaves: PlanTable)(implicit context: LogicalPlanningContext): LogicalPlan =
+    if (qg.patternRelationships.isEmpty)
+      leaves.getOrElse(qg, throw new CantHandleQueryException)
+    else {
+      // the component gets a table of its own, so that compacting it does not throw away plans of other components
+      var table = leaves.plans.foldLeft(emptyPlanTable)(_ + _)
+      var blocks: IndexedSeq[Block] = qg.patternRelationships.toIndexedSeq.map { rel =>
+        val relQG = qg.withOnlyRelationships(Set(rel))
+        val plans = (expandOptions(relQG, table) ++ table.get(relQG)).map(config.applySelections(_, relQG))
+        val best = bestPlanFinder(plans).getOrElse(throw new CantHandleQueryException)
+        table + best
+        Block(Set(rel), best)
+      }
+
+      while (blocks.size > 1) {
+        val block = solveRound(qg, blocks, table)
+        blocks = blocks.filter(_.relationships.intersect(block.relationships).isEmpty) :+ block
+        table = compact(table, block)
+      }
+
+      blocks.head.plan
+    }
+
+  /*
+   * Solves all connected combinations of blocks, smallest first, until either everything is solved or the budget of
+   * this round is spent, and returns the cheapest plan among the largest combinations solved.
+   */
+  private def solveRound(qg: QueryGraph, blocks: IndexedSeq[Block], table: PlanTable)
+                        (implicit context: LogicalPlanningContext): Block = {
+    val start = clock.currentTimeMillis()
+    def withinBudget =
+      table.size <= solverConfig.maxTableSize && clock.currentTimeMillis() - start <= solverConfig.maxIterationTime
+
+    val solved = mutable.Map[Set[Int], LogicalPlan]()
+    blocks.indices.foreach(i => solved += Set(i) -> blocks(i).plan)
+
+    var level: Seq[Set[Int]] = blocks.indices.map(Set(_))
+    var spent = false
+    while (!spent && level.head.size < blocks.size && (level.head.size == 1 || withinBudget)) {
+      // always solve pairs, so that every round collapses at least two blocks
+      val mustSolve = level.head.size == 1
+      def inBudget = mustSolve || withinBudget
+
+      val goals = level.flatMap(goal => blocks.indices.collect {
+        case i if !goal(i) && goal.exists(blocks(_).isConnectedTo(blocks(i))) => goal + i
+      }).distinct
+
+      val nextLevel = goals.flatMap { goal =>
+        val goalQG = qg.withOnlyRelationships(goal.flatMap(blocks(_).relationships))
+        // plans for this exact sub-graph that survived compaction do not have to be found again
+        val bestPlan = table.get(goalQG).orElse {
+          if (inBudget) {
+            val plans = joins(goal, blocks, solved, inBudget) ++ expands(qg, goal, blocks, solved)
+            bestPlanFinder(plans.map(config.applySelections(_, goalQG)))
+          } else None
+        }
+        bestPlan.map { plan =>
+          solved += goal -> plan
+          table + plan
+          goal
+        }
+      }
+
+      if (nextLevel.nonEmpty)
+        level = nextLevel
+      else if (mustSolve)
+        throw new CantHandleQueryException
+      else
+        // the budget ran out before any goal of this size was solved, so the round ends with the previous size
+        spent = true
+    }
+
+    val best = bestPlanFinder(level.map(solved)).get
+    val goal = level.find(solved(_) eq best).get
+    Block(goal.flatMap(blocks(_).relationships), best)
+  }
+
+  /*
+   * A goal of n blocks has 2^n splits, so the budget is checked while they are enumerated rather than once per goal.
+   */
+  private def joins(goal: Set[Int], blocks: IndexedSeq[Block], solved: collection.Map[Set[Int], LogicalPlan],
+                    inBudget: => Boolean) =
+    for {
+      lhsGoal <- goal.subsets().takeWhile(_ => inBudget).toList if lhsGoal.nonEmpty && lhsGoal != goal
+      rhsGoal = goal -- lhsGoal
+      lhs <- solved.get(lhsGoal)
+      rhs <- solved.get(rhsGoal)
+      overlappingNodes = lhsGoal.flatMap(blocks(_).nodes) intersect rhsGoal.flatMap(blocks(_).nodes)
+      if overlappingNodes.nonEmpty
+    } yield planNodeHashJoin(overlappingNodes, lhs, rhs)
+
+  private def expands(qg: QueryGraph, goal: Set[Int], blocks: IndexedSeq[Block],
+                      solved: collection.Map[Set[Int], LogicalPlan]) =
+    for {
+      i <- goal.toSeq if blocks(i).relationships.size == 1
+      lhs <- solved.get(goal - i)
+    } yield expand(qg, lhs, blocks(i).relationships.head)
+
+  private def expand(qg: QueryGraph, lhs: LogicalPlan, rel: PatternRelationship): LogicalPlan = {
+    val from = if (lhs.availableSymbols(rel.nodes._1)) rel.nodes._1 else rel.nodes._2
+    val to = rel.otherSide(from)
+    val dir = rel.directionRelativeTo(from)
+    val mode = if (lhs.availableSymbols(to)) ExpandInto else ExpandAll
+    rel.length match {
+      case SimplePatternLength =>
+        planSimpleExpand(lhs, from, dir, to, rel, mode)
+
+      case _: VarPatternLength =>
+        val (predicates, allPredicates) = steps.expand.variableLengthPredicates(lhs, rel, qg)
+        planVarExpand(lhs, from, dir, to, rel, predicates, allPredicates, mode)
+    }
+  }
+
+  private def compact(table: PlanTable, block: Block): PlanTable = {
+    val unaffected = table.plans.filter(_.solved.lastQueryGraph.patternRelationships.intersect(block.relationships).isEmpty)
+    (unaffected :+ block.plan).foldLeft(emptyPlanTable)(_ + _)
+  }
+
+  private def initiateCacheWithLeafPlans(queryGraph: QueryGraph, leafPlan: Option[LogicalPlan])
+                                        (implicit context: LogicalPlanningContext) =
+    leafPlanTableGenerator.apply(queryGraph, leafPlan).plans.foldLeft(context.strategy.emptyPlanTable)(_ + _)
+
+  private def findQGsToSolve(plan: LogicalPlan, table: PlanTable, graphs: Seq[QueryGraph]): Seq[QueryGraph] = {
+    @tailrec
+    def inner(in: Seq[QueryGraph], out: Seq[QueryGraph]): Seq[QueryGraph] = in match {
+      case hd :: tl if isSolved(table, hd)  => inner(tl, out)
+      case hd :: tl if applicable(plan, hd) => inner(tl, out :+ hd)
+      case _                                => out
+    }
+
+    inner(graphs, Seq.empty)
+  }
+
+  private def isSolved(table: PlanTable, optionalQG: QueryGraph) =
+    table.plans.exists(_.solved.lastQueryGraph.optionalMatches.contains(optionalQG))
+
+  private def applicable(outerPlan: LogicalPlan, optionalQG: QueryGraph) =
+    optionalQG.argumentIds.subsetOf(outerPlan.availableSymbols)
+}
+
+/**
+ * @param maxTableSize     number of plans the table may hold before a round is cut short and compacted
+ * @param maxIterationTime milliseconds a round may spend before it is cut short and compacted
+ */
+case class IDPSolverConfig(maxTableSize: Int = 128, maxIterationTime: Long = 1000)
+
+object IDPSolverConfig {
+  val default = IDPSolverConfig()
+}
+
+object IDPQueryGraphSolver {
+
+  def withDefaults(leafPlanTableGenerator: PlanTableGenerator = LeafPlanTableGenerator(PlanningStrategyConfiguration.default),
+                   bestPlanFinder: CandidateSelector = pickBestPlan,
+                   config: PlanningStrategyConfiguration = PlanningStrategyConfiguration.default,
+                   optionalSolvers: Seq[OptionalSolver] = Seq(applyOptional, outerHashJoin),
+                   solverConfig: IDPSolverConfig = IDPSolverConfig.default,
+                   clock: Clock = Clock.SYSTEM_CLOCK) =
+    new IDPQueryGraphSolver(leafPlanTableGenerator, bestPlanFinder, config, optionalSolvers, solverConfig, clock)
+
+  /**
+   * A set of pattern relationships that is planned as a unit; either a single relationship or the relationships
+   * collapsed at the end of a round.
+   */
+  case class Block(relationships: Set[PatternRelationship], plan: LogicalPlan) {
+    val nodes: Set[IdName] = relationships.flatMap(r => Set(r.nodes._1, r.nodes._2))
+
+    def isConnectedTo(other: Block) = nodes.exists(other.nodes)
+  }
+}
@@ -73,9 +73,9 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
     case _: Equals =>
       GraphStatistics.DEFAULT_EQUALITY_SELECTIVITY
 
-    // WHERE <expr> >= <expr>
-    case _: GreaterThan | _: GreaterThanOrEqual | _: LessThan | _: LessThanOrEqual =>
-      GraphStatistics.DEFAULT_RANGE_SELECTIVITY
+    // WHERE x.prop >= <value>
+    case comparison@(_: GreaterThan | _: GreaterThanOrEqual | _: LessThan | _: LessThanOrEqual) =>
+      calculateSelectivityForPropertyRange(comparison, selections).getOrElse(GraphStatistics.DEFAULT_RANGE_SELECTIVITY)
 
     case _ =>
       GraphStatistics.DEFAULT_PREDICATE_SELECTIVITY
@@ -100,22 +100,69 @@ case class ExpressionSelectivityCalculator(stats: GraphStatistics, combiner: Sel
   private def calculateSelectivityForPropertyEquality(identifier: String, expressions: Seq[Expression], selections: Selections, propertyKey: PropertyKeyName)
                                                      (implicit semanticTable: SemanticTable): Selectivity = {
     val labels = selections.labelsOnNode(IdName(identifier))
-    val indexSelectivities: Seq[Selectivity] = labels.toSeq.flatMap {
-      labelName =>
-        (labelName.id, propertyKey.id) match {
-          case (Some(labelId), Some(propertyKeyId)) =>
-            stats.indexSelectivity(labelId, propertyKeyId)
-
-          case _ =>
-            Some(Selectivity(0))
+    val indexSelectivities: Seq[Selectivity] = expressions.flatMap {
+      expression =>
+        labels.toSeq.flatMap {
+          labelName =>
+            (labelName.id, propertyKey.id) match {
+              case (Some(labelId), Some(propertyKeyId)) =>
+                knownValue(expression).
+                  flatMap(stats.indexPropertyValueSelectivity(labelId, propertyKeyId, _)).
+                  orElse(stats.indexSelectivity(labelId, propertyKeyId))
+
+              case _ =>
+                Some(Selectivity(0))
+            }
         }
     }
 
-    val expandedSelectivities = Stream.from(0).take(expressions.size).flatMap(_ => indexSelectivities)
-
-    val selectivity: Option[Selectivity] = combiner.orTogetherSelectivities(expandedSelectivities)
+    val selectivity: Option[Selectivity] = combiner.orTogetherSelectivities(indexSelectivities)
 
     selectivity.
       getOrElse(DEFAULT_EQUALITY_SELECTIVITY * Multiplier(expressions.size)) // If no index exist, use default equality selectivity
   }
+
+  private def calculateSelectivityForPropertyRange(comparison: Expression, selections: Selections)
+                                                  (implicit semanticTable: SemanticTable): Option[Selectivity] = {
+    val range: Option[(String, PropertyKeyName, Option[RangeBound], Option[RangeBound])] = comparison match {
+      case LessThan(Property(Identifier(name), key), value)           => Some((name, key, None, bound(value, inclusive = false)))
+      case LessThanOrEqual(Property(Identifier(name), key), value)    => Some((name, key, None, bound(value, inclusive = true)))
+      case GreaterThan(Property(Identifier(name), key), value)        => Some((name, key, bound(value, inclusive = false), None))
+      case GreaterThanOrEqual(Property(Identifier(name), key), value) => Some((name, key, bound(value, inclusive = true), None))
+      case LessThan(value, Property(Identifier(name), key))           => Some((name, key, bound(value, inclusive = false), None))
+      case LessThanOrEqual(value, Property(Identifier(name), key))    => Some((name, key, bound(value, inclusive = true), None))
+      case GreaterThan(value, Property(Identifier(name), key))        => Some((name, key, None, bound(value, inclusive = false)))
+      case GreaterThanOrEqual(value, Property(Identifier(name), key)) => Some((name, key, None, bound(value, inclusive = true)))
+      case _                                                          => None
+    }
+
+    range.flatMap {
+      case (_, _, None, None) =>
+        None
+
+      case (identifier, propertyKey, lower, upper) =>
+        val labels = selections.labelsOnNode(IdName(identifier))
+        val rangeSelectivities = labels.toSeq.flatMap {
+          labelName =>
+            (labelName.id, propertyKey.id) match {
+              case (Some(labelId), Some(propertyKeyId)) =>
+                stats.indexPropertyRangeSelectivity(labelId, propertyKeyId, lower, upper)
+
+              case _ =>
+                Some(Selectivity(0))
+            }
+        }
+        combiner.orTogetherSelectivities(rangeSelectivities)
+    }
+  }
+
+  private def bound(expression: Expression, inclusive: Boolean)(implicit semanticTable: SemanticTable): Option[RangeBound] =
+    knownValue(expression).map(RangeBound(_, inclusive))
+
+  // Literals have usually been extracted into parameters by now, the planner keeps their values in the semantic table
+  private def knownValue(expression: Expression)(implicit semanticTable: SemanticTable): Option[Any] = expression match {
+    case literal: Literal => Option(literal.value)
+    case Parameter(name)  => semanticTable.extractedParams.get(name)
+    case _                => None
+  }
 }
@@ -43,14 +43,23 @@ object expand extends CandidateGenerator[PlanTable] {
           planSimpleExpand(plan, nodeId, dir, otherSide, patternRel, mode)
 
         case length: VarPatternLength =>
-          val availablePredicates = queryGraph.selections.predicatesGiven(plan.availableSymbols + patternRel.name)
-          val (predicates, allPredicates) = availablePredicates.collect {
-            case all@AllIterablePredicate(FilterScope(identifier, Some(innerPredicate)), relId@Identifier(patternRel.name.name))
-              if identifier == relId || !innerPredicate.dependencies(relId) =>
-              (identifier, innerPredicate) -> all
-          }.unzip
+          val (predicates, allPredicates) = variableLengthPredicates(plan, patternRel, queryGraph)
           planVarExpand(plan, nodeId, dir, otherSide, patternRel, predicates, allPredicates, mode)
       }
     }
   }
+
+  /*
+   * The predicates on all relationships of a variable length pattern that can be evaluated while expanding it from
+   * the given plan, together with the predicates they were taken from.
+   */
+  def variableLengthPredicates(plan: LogicalPlan, patternRel: PatternRelationship, queryGraph: QueryGraph):
+      (Seq[(Identifier, Expression)], Seq[Expression]) = {
+    val availablePredicates = queryGraph.selections.predicatesGiven(plan.availableSymbols + patternRel.name)
+    availablePredicates.collect {
+      case all@AllIterablePredicate(FilterScope(identifier, Some(innerPredicate)), relId@Identifier(patternRel.name.name))
+        if identifier == relId || !innerPredicate.dependencies(relId) =>
+        (identifier, innerPredicate) -> all
+    }.unzip
+  }
 }
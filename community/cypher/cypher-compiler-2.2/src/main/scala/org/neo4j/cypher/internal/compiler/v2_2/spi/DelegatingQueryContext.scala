@@ -19,7 +19,7 @@
  */
 package org.neo4j.cypher.internal.compiler.v2_2.spi
 
-import org.neo4j.graphdb.{Relationship, PropertyContainer, Direction, Node}
+import org.neo4j.graphdb.{Path, Relationship, PropertyContainer, Direction, Node}
 import org.neo4j.kernel.api.index.IndexDescriptor
 
 class DelegatingQueryContext(inner: QueryContext) extends QueryContext {
@@ -114,6 +114,12 @@ class DelegatingQueryContext(inner: QueryContext) extends QueryContext {
   def nodeGetDegree(node: Long, dir: Direction): Int = singleDbHit(inner.nodeGetDegree(node, dir))
 
   def nodeGetDegree(node: Long, dir: Direction, relTypeId: Int): Int = singleDbHit(inner.nodeGetDegree(node, dir, relTypeId))
+
+  def singleShortestPath(left: Node, right: Node, depth: Int, dir: Direction, relTypes: Seq[String]): Option[Path] =
+    singleDbHit(inner.singleShortestPath(left, right, depth, dir, relTypes))
+
+  def allShortestPath(left: Node, right: Node, depth: Int, dir: Direction, relTypes: Seq[String]): Iterator[Path] =
+    manyDbHits(inner.allShortestPath(left, right, depth, dir, relTypes))
 }
 
 class DelegatingOperations[T <: PropertyContainer](protected val inner: Operations[T]) extends Operations[T] {
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v2_2.spi
 
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.{Cardinality, Selectivity}
+import org.neo4j.cypher.internal.compiler.v2_2.spi.GraphStatistics.RangeBound
 import org.neo4j.cypher.internal.compiler.v2_2.{LabelId, PropertyKeyId, RelTypeId}
 
 object GraphStatistics {
@@ -28,6 +29,8 @@ object GraphStatistics {
   val DEFAULT_EQUALITY_SELECTIVITY       = Selectivity(0.1)
   val DEFAULT_NUMBER_OF_ID_LOOKUPS       = Cardinality(25)
   val DEFAULT_REL_UNIQUENESS_SELECTIVITY = Selectivity(1.0 - 1 / 100 /*rel-cardinality*/)
+
+  case class RangeBound(value: Any, inclusive: Boolean)
 }
 
 trait GraphStatistics {
@@ -41,6 +44,22 @@ trait GraphStatistics {
       indexSelectivity(:X, prop) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE x.prop = *|
    */
   def indexSelectivity(label: LabelId, property: PropertyKeyId): Option[Selectivity]
+
+  /*
+      Probability of any node with the given label, to have a property with the given value
+
+      indexPropertyValueSelectivity(:X, prop, v) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE x.prop = v|
+   */
+  def indexPropertyValueSelectivity(label: LabelId, property: PropertyKeyId, value: Any): Option[Selectivity] = None
+
+  /*
+      Probability of any node with the given label, to have a property with a value in the given range,
+      where a missing bound leaves that side of the range open
+
+      indexPropertyRangeSelectivity(:X, prop, l, u) = s => |MATCH (a:X)| * s = |MATCH (a:X) WHERE l < x.prop < u|
+   */
+  def indexPropertyRangeSelectivity(label: LabelId, property: PropertyKeyId,
+                                    lower: Option[RangeBound], upper: Option[RangeBound]): Option[Selectivity] = None
 }
 
 class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatistics {
@@ -57,6 +76,13 @@ class DelegatingGraphStatistics(delegate: GraphStatistics) extends GraphStatisti
    */
   override def indexSelectivity(label: LabelId, property: PropertyKeyId): Option[Selectivity] =
     delegate.indexSelectivity(label, property)
+
+  override def indexPropertyValueSelectivity(label: LabelId, property: PropertyKeyId, value: Any): Option[Selectivity] =
+    delegate.indexPropertyValueSelectivity(label, property, value)
+
+  override def indexPropertyRangeSelectivity(label: LabelId, property: PropertyKeyId,
+                                             lower: Option[RangeBound], upper: Option[RangeBound]): Option[Selectivity] =
+    delegate.indexPropertyRangeSelectivity(label, property, lower, upper)
 }
 
 class StatisticsCompletingGraphStatistics(delegate: GraphStatistics)
@@ -20,6 +20,7 @@
 package org.neo4j.cypher.internal.compiler.v2_2.spi
 
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.{Cardinality, Selectivity}
+import org.neo4j.cypher.internal.compiler.v2_2.spi.GraphStatistics.RangeBound
 import org.neo4j.cypher.internal.compiler.v2_2.{LabelId, PropertyKeyId, RelTypeId}
 
 import scala.collection.mutable
@@ -28,6 +29,8 @@ sealed trait StatisticsKey
 case class NodesWithLabelCardinality(labelId: Option[LabelId]) extends StatisticsKey
 case class CardinalityByLabelsAndRelationshipType(lhs: Option[LabelId], relType: Option[RelTypeId], rhs: Option[LabelId]) extends StatisticsKey
 case class IndexSelectivity(labelId: LabelId, propertyKeyId: PropertyKeyId) extends StatisticsKey
+case class IndexPropertyValueSelectivity(labelId: LabelId, propertyKeyId: PropertyKeyId, value: Any) extends StatisticsKey
+case class IndexPropertyRangeSelectivity(labelId: LabelId, propertyKeyId: PropertyKeyId, lower: Option[RangeBound], upper: Option[RangeBound]) extends StatisticsKey
 
 case class MutableGraphStatisticsSnapshot(map: mutable.Map[StatisticsKey, Double] = mutable.Map.empty) {
   def freeze: GraphStatisticsSnapshot = GraphStatisticsSnapshot(map.toMap)
@@ -44,6 +47,10 @@ case class GraphStatisticsSnapshot(map: Map[StatisticsKey, Double] = Map.empty)
         instrumented.cardinalityByLabelsAndRelationshipType(lhs, relType, rhs)
       case IndexSelectivity(labelId, propertyKeyId) =>
         instrumented.indexSelectivity(labelId, propertyKeyId)
+      case IndexPropertyValueSelectivity(labelId, propertyKeyId, value) =>
+        instrumented.indexPropertyValueSelectivity(labelId, propertyKeyId, value)
+      case IndexPropertyRangeSelectivity(labelId, propertyKeyId, lower, upper) =>
+        instrumented.indexPropertyRangeSelectivity(labelId, propertyKeyId, lower, upper)
     }
     snapshot.freeze
   }
@@ -97,4 +104,17 @@ case class InstrumentedGraphStatistics(inner: GraphStatistics, snapshot: Mutable
     snapshot.map.getOrElseUpdate(IndexSelectivity(label, property), selectivity.fold(0.0)(_.factor))
     selectivity
   }
+
+  override def indexPropertyValueSelectivity(label: LabelId, property: PropertyKeyId, value: Any): Option[Selectivity] = {
+    val selectivity = inner.indexPropertyValueSelectivity(label, property, value)
+    snapshot.map.getOrElseUpdate(IndexPropertyValueSelectivity(label, property, value), selectivity.fold(0.0)(_.factor))
+    selectivity
+  }
+
+  override def indexPropertyRangeSelectivity(label: LabelId, property: PropertyKeyId,
+                                             lower: Option[RangeBound], upper: Option[RangeBound]): Option[Selectivity] = {
+    val selectivity = inner.indexPropertyRangeSelectivity(label, property, lower, upper)
+    snapshot.map.getOrElseUpdate(IndexPropertyRangeSelectivity(label, property, lower, upper), selectivity.fold(0.0)(_.factor))
+    selectivity
+  }
 }
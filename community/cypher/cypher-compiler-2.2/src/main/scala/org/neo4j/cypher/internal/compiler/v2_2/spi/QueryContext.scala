@@ -109,6 +109,10 @@ trait QueryContext extends TokenContext {
   def nodeGetDegree(node: Long, dir: Direction): Int
 
   def nodeGetDegree(node: Long, dir: Direction, relTypeId: Int): Int
+
+  def singleShortestPath(left: Node, right: Node, depth: Int, dir: Direction, relTypes: Seq[String]): Option[Path]
+
+  def allShortestPath(left: Node, right: Node, depth: Int, dir: Direction, relTypes: Seq[String]): Iterator[Path]
 }
 
 trait LockingQueryContext extends QueryContext {
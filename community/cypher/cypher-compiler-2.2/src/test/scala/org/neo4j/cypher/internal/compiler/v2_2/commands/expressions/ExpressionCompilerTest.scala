@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.commands.expressions
+
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_2._
+import org.neo4j.cypher.internal.compiler.v2_2.commands._
+import org.neo4j.cypher.internal.compiler.v2_2.pipes.QueryStateHelper
+import org.neo4j.cypher.internal.compiler.v2_2.symbols._
+
+class ExpressionCompilerTest extends CypherFunSuite {
+  val state = QueryStateHelper.empty
+  val values: Seq[Any] = Seq(null, 0L, 1L, -7L, 42L, Long.MaxValue, 3, 0.0, 2.5, -1.5, "a", "b", Seq(1L, 2L))
+  val symbolTables: Seq[SymbolTable] = Seq(
+    SymbolTable(),
+    SymbolTable(Map("l" -> CTInteger, "r" -> CTInteger)),
+    SymbolTable(Map("l" -> CTFloat, "r" -> CTFloat)),
+    SymbolTable(Map("l" -> CTInteger, "r" -> CTFloat)),
+    SymbolTable(Map("l" -> CTFloat, "r" -> CTInteger))
+  )
+
+  test("arithmetic should give the same results as the interpreter") {
+    for (l <- values; r <- values) {
+      val ctx = ExecutionContext.empty.newWith(Map("l" -> l, "r" -> r))
+      Seq(
+        Add(Identifier("l"), Identifier("r")),
+        Subtract(Identifier("l"), Identifier("r")),
+        Multiply(Identifier("l"), Identifier("r")),
+        Divide(Identifier("l"), Identifier("r")),
+        Modulo(Identifier("l"), Identifier("r")),
+        Add(Multiply(Identifier("l"), Literal(2L)), Divide(Identifier("r"), Literal(0.5))),
+        Subtract(Modulo(Identifier("l"), Identifier("r")), Identifier("r"))
+      ).foreach(e => assertSameOutcomeForAllTypes(e, ctx))
+    }
+  }
+
+  test("comparisons should give the same results as the interpreter") {
+    for (l <- values; r <- values) {
+      val ctx = ExecutionContext.empty.newWith(Map("l" -> l, "r" -> r))
+      Seq(
+        Equals(Identifier("l"), Identifier("r")),
+        LessThan(Identifier("l"), Identifier("r")),
+        LessThanOrEqual(Identifier("l"), Identifier("r")),
+        GreaterThan(Identifier("l"), Identifier("r")),
+        GreaterThanOrEqual(Identifier("l"), Identifier("r")),
+        LessThan(Add(Identifier("l"), Literal(1L)), Identifier("r"))
+      ).foreach(e => assertSameOutcomeForAllTypes(e, ctx))
+    }
+  }
+
+  test("boolean logic should give the same results as the interpreter") {
+    val truthValues: Seq[Predicate] = Seq(True(), Not(True()), IsNull(Literal(null)), Equals(Literal(null), Literal(1L)))
+
+    for (l <- truthValues; r <- truthValues) {
+      val ctx = ExecutionContext.empty
+      Seq(
+        And(l, r),
+        Or(l, r),
+        Xor(l, r),
+        Not(l),
+        Ands(List(l, r, l)),
+        Ors(List(l, r, l))
+      ).foreach(e => assertSameOutcome(e, ctx, SymbolTable()))
+    }
+  }
+
+  test("should keep integer arithmetic on primitive longs") {
+    val symbols = SymbolTable(Map("l" -> CTInteger, "r" -> CTInteger))
+    val compiled = ExpressionCompiler.compile(Add(Multiply(Identifier("l"), Identifier("r")), Literal(1L)), symbols)
+    val ctx = ExecutionContext.empty.newWith(Map("l" -> 6L, "r" -> 7L))
+
+    compiled shouldBe a[CompiledLongArithmetic]
+    compiled(ctx, state) should equal(43L)
+  }
+
+  test("should keep arithmetic involving floats on primitive doubles") {
+    val symbols = SymbolTable(Map("l" -> CTInteger, "r" -> CTFloat))
+    val compiled = ExpressionCompiler.compile(Add(Identifier("l"), Identifier("r")), symbols)
+    val ctx = ExecutionContext.empty.newWith(Map("l" -> 1L, "r" -> 0.5))
+
+    compiled shouldBe a[CompiledDoubleArithmetic]
+    compiled(ctx, state) should equal(1.5)
+  }
+
+  test("should compare integers on primitive longs") {
+    val symbols = SymbolTable(Map("l" -> CTInteger, "r" -> CTInteger))
+    val compiled = ExpressionCompiler.compilePredicate(LessThan(Identifier("l"), Identifier("r")), symbols)
+
+    compiled shouldBe a[CompiledLongComparison]
+    compiled.isMatch(ExecutionContext.empty.newWith(Map("l" -> 1L, "r" -> 2L)), state) should equal(Some(true))
+  }
+
+  test("should leave arithmetic over operands of unknown type to the interpreter") {
+    val compiled = ExpressionCompiler.compile(Add(Identifier("l"), Identifier("r")), SymbolTable(Map("l" -> CTAny)))
+
+    compiled shouldBe an[InterpretedExpression]
+  }
+
+  test("should fall back to the interpreter when a value is not of the calculated type") {
+    val symbols = SymbolTable(Map("l" -> CTInteger, "r" -> CTInteger))
+    val compiled = ExpressionCompiler.compile(Add(Identifier("l"), Identifier("r")), symbols)
+
+    compiled(ExecutionContext.empty.newWith(Map("l" -> 1L, "r" -> null)), state) should equal(null)
+    compiled(ExecutionContext.empty.newWith(Map("l" -> 1L, "r" -> "a")), state) should equal("1a")
+  }
+
+  test("should fall back to the interpreter for unknown expressions") {
+    val expression = Add(ToStringFunction(Literal(1L)), Literal("a"))
+
+    ExpressionCompiler.compile(expression, SymbolTable())(ExecutionContext.empty, state) should equal("1a")
+  }
+
+  private def assertSameOutcomeForAllTypes(expression: Expression, ctx: ExecutionContext) {
+    symbolTables.foreach(symbols => assertSameOutcome(expression, ctx, symbols))
+  }
+
+  private def assertSameOutcome(expression: Expression, ctx: ExecutionContext, symbols: SymbolTable) {
+    val expected = outcome(expression(ctx)(state))
+    val actual = outcome(ExpressionCompiler.compile(expression, symbols)(ctx, state))
+
+    withClue(expression + " with " + ctx + " typed as " + symbols) {
+      actual should equal(expected)
+    }
+  }
+
+  private def outcome(f: => Any): Any =
+    try {
+      val result = f
+      if (result == null) null else (result, result.getClass)
+    } catch {
+      case e: Exception => e.getClass
+    }
+}
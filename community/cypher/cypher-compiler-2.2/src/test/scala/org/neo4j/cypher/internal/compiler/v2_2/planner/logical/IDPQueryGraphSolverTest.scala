@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.cypher.internal.compiler.v2_2.planner.logical
+
+import org.neo4j.cypher.internal.commons.CypherFunSuite
+import org.neo4j.cypher.internal.compiler.v2_2.Foldable._
+import org.neo4j.cypher.internal.compiler.v2_2.ast.{HasLabels, LabelName}
+import org.neo4j.cypher.internal.compiler.v2_2.pipes.LazyLabel
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans._
+import org.neo4j.cypher.internal.compiler.v2_2.planner.{LogicalPlanningTestSupport2, PlannerQuery, QueryGraph, Selections}
+import org.neo4j.graphdb.Direction
+import org.neo4j.helpers.Clock
+
+import scala.collection.immutable
+
+class IDPQueryGraphSolverTest extends CypherFunSuite with LogicalPlanningTestSupport2 {
+
+  private val corpPattern = QueryGraph(patternNodes = Set("corp", "a1", "a2", "c", "v"),
+    patternRelationships = Set(
+      PatternRelationship("r1", ("corp", "a1"), Direction.INCOMING, Seq.empty, SimplePatternLength),
+      PatternRelationship("r2", ("a1", "c"), Direction.OUTGOING, Seq.empty, SimplePatternLength),
+      PatternRelationship("r3", ("c", "v"), Direction.OUTGOING, Seq.empty, SimplePatternLength),
+      PatternRelationship("r4", ("corp", "a2"), Direction.INCOMING, Seq.empty, SimplePatternLength),
+      PatternRelationship("r5", ("a2", "c"), Direction.OUTGOING, Seq.empty, SimplePatternLength)
+    ))
+
+  private val corpLeafPlans = generatePlanTable(
+    AllNodesScan("corp", Set.empty)(PlannerQuery(graph = QueryGraph(patternNodes = Set("corp")))),
+    AllNodesScan("a1", Set.empty)(PlannerQuery(graph = QueryGraph(patternNodes = Set("a1")))),
+    AllNodesScan("a2", Set.empty)(PlannerQuery(graph = QueryGraph(patternNodes = Set("a2")))),
+    AllNodesScan("c", Set.empty)(PlannerQuery(graph = QueryGraph(patternNodes = Set("c")))),
+    AllNodesScan("v", Set.empty)(PlannerQuery(graph = QueryGraph(patternNodes = Set("v"))))
+  )
+
+  test("should plan for a single relationship pattern") {
+    new given {
+      queryGraphSolver = IDPQueryGraphSolver.withDefaults(generatePlanTable(
+        AllNodesScan("a", Set.empty)(PlannerQuery(graph = QueryGraph(patternNodes = Set("a")))),
+        NodeByLabelScan("b", LazyLabel("B"), Set.empty)(PlannerQuery.empty.withGraph(
+          QueryGraph(patternNodes = Set("b"),
+            selections = Selections.from(HasLabels(ident("b"), Seq(LabelName("B")(pos)))(pos)))))
+      ))
+      qg = QueryGraph(
+        patternNodes = Set("a", "b"),
+        patternRelationships = Set(PatternRelationship("r", ("a", "b"), Direction.OUTGOING, Seq.empty, SimplePatternLength)),
+        selections = Selections.from(HasLabels(ident("b"), Seq(LabelName("B")(pos)))(pos))
+      )
+
+      labelCardinality = immutable.Map(
+        "B" -> Cardinality(10)
+      )
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      implicit val x = ctx
+
+      queryGraphSolver.plan(cfg.qg) should equal(
+        Expand(NodeByLabelScan("b", LazyLabel("B"), Set.empty)(null), "b", Direction.INCOMING, Seq.empty, "a", "r")(null)
+      )
+    }
+  }
+
+  test("should plan for a join between two pattern relationships") {
+    // MATCH (a:A)-[r1]->(c)-[r2]->(b:B)
+    val planTableGenerator = generatePlanTable(
+      NodeByLabelScan("a", LazyLabel("A"), Set.empty)(PlannerQuery(graph = QueryGraph(patternNodes = Set("a"), selections = Selections.from(
+        HasLabels(ident("a"), Seq(LabelName("A")(pos)))(pos))))),
+      NodeByLabelScan("b", LazyLabel("B"), Set.empty)(PlannerQuery(graph = QueryGraph(patternNodes = Set("b"), selections = Selections.from(
+        HasLabels(ident("b"), Seq(LabelName("B")(pos)))(pos))))),
+      AllNodesScan("c", Set.empty)(PlannerQuery(graph = QueryGraph(patternNodes = Set("c"))))
+    )
+    new given {
+      queryGraphSolver = IDPQueryGraphSolver.withDefaults(leafPlanTableGenerator = planTableGenerator)
+      qg = QueryGraph(
+        patternNodes = Set("a", "b", "c"),
+        patternRelationships = Set(
+          PatternRelationship("r1", ("a", "c"), Direction.OUTGOING, Seq.empty, SimplePatternLength),
+          PatternRelationship("r2", ("c", "b"), Direction.OUTGOING, Seq.empty, SimplePatternLength)
+        ),
+        selections = Selections.from(
+          HasLabels(ident("a"), Seq(LabelName("A")(pos)))(pos),
+          HasLabels(ident("b"), Seq(LabelName("B")(pos)))(pos))
+      )
+
+      labelCardinality = immutable.Map(
+        "A" -> Cardinality(10),
+        "B" -> Cardinality(10)
+      )
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      implicit val x = ctx
+
+      val expandFromA = Expand(
+        NodeByLabelScan("a", LazyLabel("A"), Set.empty)(null), "a", Direction.OUTGOING, Seq.empty, "c", "r1")(null)
+      val expandFromB = Expand(
+        NodeByLabelScan("b", LazyLabel("B"), Set.empty)(null), "b", Direction.INCOMING, Seq.empty, "c", "r2")(null)
+
+      queryGraphSolver.plan(cfg.qg) match {
+        case NodeHashJoin(nodes, lhs, rhs) =>
+          nodes should equal(Set(IdName("c")))
+          Set(lhs, rhs) should equal(Set(expandFromA, expandFromB))
+        case plan =>
+          fail(s"Expected a hash join on c, got $plan")
+      }
+    }
+  }
+
+  test("should plan a var length expand when extending a plan with a var length relationship") {
+    // MATCH (a:A)-[r1]->(c)-[r2*1..3]->(b)
+    val planTableGenerator = generatePlanTable(
+      NodeByLabelScan("a", LazyLabel("A"), Set.empty)(PlannerQuery(graph = QueryGraph(patternNodes = Set("a"), selections = Selections.from(
+        HasLabels(ident("a"), Seq(LabelName("A")(pos)))(pos))))),
+      AllNodesScan("b", Set.empty)(PlannerQuery(graph = QueryGraph(patternNodes = Set("b")))),
+      AllNodesScan("c", Set.empty)(PlannerQuery(graph = QueryGraph(patternNodes = Set("c"))))
+    )
+    new given {
+      queryGraphSolver = IDPQueryGraphSolver.withDefaults(leafPlanTableGenerator = planTableGenerator)
+      qg = QueryGraph(
+        patternNodes = Set("a", "b", "c"),
+        patternRelationships = Set(
+          PatternRelationship("r1", ("a", "c"), Direction.OUTGOING, Seq.empty, SimplePatternLength),
+          PatternRelationship("r2", ("c", "b"), Direction.OUTGOING, Seq.empty, VarPatternLength(1, Some(3)))
+        ),
+        selections = Selections.from(HasLabels(ident("a"), Seq(LabelName("A")(pos)))(pos))
+      )
+
+      labelCardinality = immutable.Map(
+        "A" -> Cardinality(10)
+      )
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      implicit val x = ctx
+
+      val plan = queryGraphSolver.plan(cfg.qg)
+
+      plan.solved.graph.patternRelationships should equal(cfg.qg.patternRelationships)
+      plan.exists { case e: Expand => e.relName == IdName("r2") } should equal(false)
+      plan.exists { case e: VarExpand => e.relName == IdName("r2") } should equal(true)
+    }
+  }
+
+  test("should solve the whole pattern when the plan table has to be compacted") {
+    new given {
+      queryGraphSolver = IDPQueryGraphSolver.withDefaults(corpLeafPlans, solverConfig = IDPSolverConfig(maxTableSize = 1))
+      qg = corpPattern
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      implicit val x = ctx
+
+      val plan = queryGraphSolver.plan(cfg.qg)
+
+      plan.solved.graph.patternRelationships should equal(cfg.qg.patternRelationships)
+    }
+  }
+
+  test("should solve the whole pattern when rounds run out of time") {
+    // every reading of the clock moves it a second ahead, so every round is cut short as early as possible
+    val clock = new Clock {
+      private var now = 0L
+
+      def currentTimeMillis() = {
+        now += 1000
+        now
+      }
+    }
+
+    new given {
+      queryGraphSolver = IDPQueryGraphSolver.withDefaults(corpLeafPlans,
+        solverConfig = IDPSolverConfig(maxIterationTime = 1), clock = clock)
+      qg = corpPattern
+    }.withLogicalPlanningContext { (cfg, ctx) =>
+      implicit val x = ctx
+
+      val plan = queryGraphSolver.plan(cfg.qg)
+
+      plan.solved.graph.patternRelationships should equal(cfg.qg.patternRelationships)
+    }
+  }
+
+  private def generatePlanTable(plans: LogicalPlan*): PlanTableGenerator = {
+    new PlanTableGenerator {
+      def apply(qg: QueryGraph, plan: Option[LogicalPlan])(implicit context: LogicalPlanningContext): PlanTable =
+        ExhaustivePlanTable(plans: _*)
+    }
+  }
+}
@@ -25,6 +25,7 @@ import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.Metrics.QueryGrap
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.cardinality.{CardinalityModelTestHelper, IndependenceCombiner}
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.cardinality.assumeIndependence.AssumeIndependenceQueryGraphCardinalityModel
 import org.neo4j.cypher.internal.compiler.v2_2.spi.GraphStatistics
+import org.neo4j.cypher.internal.compiler.v2_2.spi.GraphStatistics.RangeBound
 
 class StatisticsBackedCardinalityModelTest extends CypherFunSuite with LogicalPlanningTestSupport with CardinalityModelTestHelper {
 
@@ -63,6 +64,62 @@ class StatisticsBackedCardinalityModelTest extends CypherFunSuite with LogicalPl
     shouldHavePlannerQueryCardinality(produceCardinalityModel)(aggregation * allNodes * relCount / (personCount * allNodes))
   }
 
+  test("equality with a known value uses the histogram of the index") {
+    givenPattern("MATCH (a:Person) WHERE a.age = 42").
+    withGraphNodes(allNodes).
+    withLabel('Person -> personCount).
+    withIndexSelectivity(('Person -> 'age) -> .1).
+    withHistogram(('Person -> 'age) -> HistogramStub(values = Map(42L -> .01))).
+    shouldHavePlannerQueryCardinality(produceCardinalityModel)(personCount * .01)
+  }
+
+  test("equality with a value missing from the histogram uses the index selectivity") {
+    givenPattern("MATCH (a:Person) WHERE a.age = 7").
+    withGraphNodes(allNodes).
+    withLabel('Person -> personCount).
+    withIndexSelectivity(('Person -> 'age) -> .1).
+    withHistogram(('Person -> 'age) -> HistogramStub(values = Map(42L -> .01))).
+    shouldHavePlannerQueryCardinality(produceCardinalityModel)(personCount * .1)
+  }
+
+  test("IN with known values uses the histogram of the index for every value") {
+    givenPattern("MATCH (a:Person) WHERE a.age IN [1, 2]").
+    withGraphNodes(allNodes).
+    withLabel('Person -> personCount).
+    withIndexSelectivity(('Person -> 'age) -> .1).
+    withHistogram(('Person -> 'age) -> HistogramStub(values = Map(1L -> .02, 2L -> .05))).
+    shouldHavePlannerQueryCardinality(produceCardinalityModel)(personCount * or(.02, .05))
+  }
+
+  test("comparison with a known value uses the histogram of the index") {
+    val histogram = HistogramStub(ranges = Map(
+      (Some(RangeBound(10L, inclusive = false)), None) -> .3,
+      (None, Some(RangeBound(20L, inclusive = true))) -> .6
+    ))
+
+    givenPattern("MATCH (a:Person) WHERE a.age > 10").
+    withGraphNodes(allNodes).
+    withLabel('Person -> personCount).
+    withIndexSelectivity(('Person -> 'age) -> .1).
+    withHistogram(('Person -> 'age) -> histogram).
+    shouldHavePlannerQueryCardinality(produceCardinalityModel)(personCount * .3)
+
+    givenPattern("MATCH (a:Person) WHERE 20 >= a.age").
+    withGraphNodes(allNodes).
+    withLabel('Person -> personCount).
+    withIndexSelectivity(('Person -> 'age) -> .1).
+    withHistogram(('Person -> 'age) -> histogram).
+    shouldHavePlannerQueryCardinality(produceCardinalityModel)(personCount * .6)
+  }
+
+  test("comparison without a histogram uses the default range selectivity") {
+    givenPattern("MATCH (a:Person) WHERE a.age > 10").
+    withGraphNodes(allNodes).
+    withLabel('Person -> personCount).
+    withIndexSelectivity(('Person -> 'age) -> .1).
+    shouldHavePlannerQueryCardinality(produceCardinalityModel)(personCount * DEFAULT_RANGE_SELECTIVITY)
+  }
+
   def produceCardinalityModel(in: QueryGraphCardinalityModel): Metrics.CardinalityModel =
     new StatisticsBackedCardinalityModel(in)
 
@@ -28,6 +28,7 @@ import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.plans.IdName
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.{Cardinality, QueryGraphProducer, Selectivity}
 import org.neo4j.cypher.internal.compiler.v2_2.planner.{LogicalPlanningTestSupport, QueryGraph, SemanticTable}
 import org.neo4j.cypher.internal.compiler.v2_2.spi.GraphStatistics
+import org.neo4j.cypher.internal.compiler.v2_2.spi.GraphStatistics.RangeBound
 import org.neo4j.cypher.internal.compiler.v2_2.{LabelId, PropertyKeyId, RelTypeId}
 import org.scalatest.matchers.{MatchResult, Matcher}
 
@@ -47,6 +48,10 @@ trait CardinalityTestHelper extends QueryGraphProducer with CardinalityCustomMat
 
   def degree(above: Double, below: Double) = above / below
 
+  // selectivities of known values and ranges, as a sampled index histogram would provide them
+  case class HistogramStub(values: Map[Any, Double] = Map.empty,
+                           ranges: Map[(Option[RangeBound], Option[RangeBound]), Double] = Map.empty)
+
   case class TestUnit(query: String,
                       allNodes: Option[Double] = None,
                       knownLabelCardinality: Map[String, Double] = Map.empty,
@@ -56,7 +61,8 @@ trait CardinalityTestHelper extends QueryGraphProducer with CardinalityCustomMat
                       knownNodeNames: Set[String] = Set.empty,
                       knownRelNames: Set[String] = Set.empty,
                       queryGraphArgumentIds: Set[IdName] = Set.empty,
-                      inboundCardinality: Cardinality = Cardinality(1)) {
+                      inboundCardinality: Cardinality = Cardinality(1),
+                      knownHistograms: Map[(String, String), HistogramStub] = Map.empty) {
 
     self =>
 
@@ -110,6 +116,14 @@ trait CardinalityTestHelper extends QueryGraphProducer with CardinalityCustomMat
       )
     }
 
+    def withHistogram(v: ((Symbol, Symbol), HistogramStub)) = {
+      val ((Symbol(labelName), Symbol(propertyName)), histogram) = v
+      if (!knownIndexSelectivity.contains((labelName, propertyName)))
+        fail("Index not known. Add it with withIndexSelectivity")
+
+      copy(knownHistograms = knownHistograms + ((labelName, propertyName) -> histogram))
+    }
+
     def withKnownProperty(propertyName: Symbol) =
       copy(
         knownProperties = knownProperties + propertyName.name
@@ -144,6 +158,17 @@ trait CardinalityTestHelper extends QueryGraphProducer with CardinalityCustomMat
           }
         }
 
+        override def indexPropertyValueSelectivity(label: LabelId, property: PropertyKeyId, value: Any): Option[Selectivity] =
+          histogram(label, property).flatMap(_.values.get(value)).map(Selectivity.apply)
+
+        override def indexPropertyRangeSelectivity(label: LabelId, property: PropertyKeyId,
+                                                   lower: Option[RangeBound], upper: Option[RangeBound]): Option[Selectivity] =
+          histogram(label, property).flatMap(_.ranges.get((lower, upper))).map(Selectivity.apply)
+
+        private def histogram(label: LabelId, property: PropertyKeyId): Option[HistogramStub] =
+          for (lName <- getLabelName(label); pName <- getPropertyName(property); histogram <- knownHistograms.get((lName, pName)))
+            yield histogram
+
         def getCardinality(fromLabel:String, typ:String, toLabel:String): Double =
           knownRelationshipCardinality.getOrElse((fromLabel, typ, toLabel), 0.0)
 
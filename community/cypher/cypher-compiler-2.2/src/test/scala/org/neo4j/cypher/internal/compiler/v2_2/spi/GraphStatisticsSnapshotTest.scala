@@ -21,6 +21,7 @@ package org.neo4j.cypher.internal.compiler.v2_2.spi
 
 import org.neo4j.cypher.internal.commons.CypherFunSuite
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.{Cardinality, Selectivity}
+import org.neo4j.cypher.internal.compiler.v2_2.spi.GraphStatistics.RangeBound
 import org.neo4j.cypher.internal.compiler.v2_2.{LabelId, PropertyKeyId, RelTypeId}
 
 class GraphStatisticsSnapshotTest extends CypherFunSuite {
@@ -34,6 +35,9 @@ class GraphStatisticsSnapshotTest extends CypherFunSuite {
 
     def indexSelectivity(label: LabelId, property: PropertyKeyId): Option[Selectivity] =
       Some(1.0 / ((property.id + 1) * FACTOR))
+
+    override def indexPropertyValueSelectivity(label: LabelId, property: PropertyKeyId, value: Any): Option[Selectivity] =
+      Some(0.5 / FACTOR)
   }
 
   test("records queries and its observed values") {
@@ -53,6 +57,17 @@ class GraphStatisticsSnapshotTest extends CypherFunSuite {
     ))
   }
 
+  test("records value and range selectivities per value") {
+    val snapshot = MutableGraphStatisticsSnapshot()
+    val instrumentedStatistics = InstrumentedGraphStatistics(graphStatistics, snapshot)
+    instrumentedStatistics.indexPropertyValueSelectivity(LabelId(0), PropertyKeyId(3), 42L)
+    instrumentedStatistics.indexPropertyRangeSelectivity(LabelId(0), PropertyKeyId(3), Some(RangeBound(10L, inclusive = true)), None)
+    snapshot.freeze.map should equal(Map(
+      IndexPropertyValueSelectivity(LabelId(0), PropertyKeyId(3), 42L) -> 0.5,
+      IndexPropertyRangeSelectivity(LabelId(0), PropertyKeyId(3), Some(RangeBound(10L, inclusive = true)), None) -> 0.0
+    ))
+  }
+
   test("a snapshot shouldn't diverge from itself") {
     val snapshot = MutableGraphStatisticsSnapshot()
     val instrumentedStatistics = InstrumentedGraphStatistics(graphStatistics, snapshot)
@@ -23,13 +23,13 @@ import java.util.{Map => JavaMap}
 
 import org.neo4j.cypher.internal.compiler.v2_2.parser.ParserMonitor
 import org.neo4j.cypher.internal.compiler.v2_2.prettifier.Prettifier
-import org.neo4j.cypher.internal.compiler.v2_2.{Cost, CypherCacheMonitor, MonitoringCacheAccessor, PlannerName}
+import org.neo4j.cypher.internal.compiler.v2_2.{Cost, CypherCacheMonitor, IDP, MonitoringCacheAccessor, PlannerName}
 import org.neo4j.cypher.internal.{CypherCompiler, _}
 import org.neo4j.graphdb.GraphDatabaseService
 import org.neo4j.graphdb.config.Setting
 import org.neo4j.graphdb.factory.GraphDatabaseSettings
 import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge
-import org.neo4j.kernel.impl.query.{QueryEngineProvider, QueryExecutionMonitor, QuerySession}
+import org.neo4j.kernel.impl.query.{QueryEngineProvider, QueryExecutionMonitor, QueryPlanningMonitor, QuerySession}
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore
 import org.neo4j.kernel.impl.util.StringLogger
 import org.neo4j.kernel.{GraphDatabaseAPI, InternalAbstractGraphDatabase, api, monitoring}
@@ -60,6 +60,8 @@ class ExecutionEngine(graph: GraphDatabaseService, logger: StringLogger = String
 
   private val executionMonitor = kernelMonitors.newMonitor(classOf[QueryExecutionMonitor])
 
+  private val planningMonitor = kernelMonitors.newMonitor(classOf[QueryPlanningMonitor])
+
   private val cacheAccessor = new MonitoringCacheAccessor[String, (ExecutionPlan, Map[String, Any])](cacheMonitor)
 
   private val preParsedQueries = new LRUCache[String, PreParsedQuery](getPlanCacheSize)
@@ -123,6 +125,8 @@ class ExecutionEngine(graph: GraphDatabaseService, logger: StringLogger = String
   protected def planQuery(queryText: String): (PreparedPlanExecution, TransactionInfo) = {
     logger.debug(queryText)
 
+    val planningStart = System.nanoTime()
+    var planned = false
     val preParsedQuery = preParseQuery(queryText)
     val executionMode = preParsedQuery.executionMode
     val cacheKey = preParsedQuery.statementWithVersionAndPlanner
@@ -166,6 +170,7 @@ class ExecutionEngine(graph: GraphDatabaseService, logger: StringLogger = String
       }
 
       if (touched) {
+        planned = true
         kernelStatement.close()
         tx.success()
         tx.close()
@@ -176,6 +181,7 @@ class ExecutionEngine(graph: GraphDatabaseService, logger: StringLogger = String
         kernelStatement.close()
         val preparedPlanExecution = PreparedPlanExecution(plan, executionMode, extractedParameters)
         val txInfo = TransactionInfo(tx, isTopLevelTx, txBridge.instance())
+        planningMonitor.queryPlanned(queryText, System.nanoTime() - planningStart, !planned)
         return (preparedPlanExecution, txInfo)
       }
 
@@ -203,7 +209,7 @@ class ExecutionEngine(graph: GraphDatabaseService, logger: StringLogger = String
       graph, GraphDatabaseSettings.cypher_parser_version, CypherVersion.vDefault.name))
     val planner = PlannerName(optGraphSetting[String](
       graph, GraphDatabaseSettings.query_planner_version, PlannerName.default.name))
-    if (version != CypherVersion.v2_2 && planner == Cost) {
+    if (version != CypherVersion.v2_2 && (planner == Cost || planner == IDP)) {
       logger.error(s"Cannot combine configurations: ${GraphDatabaseSettings.cypher_parser_version.name}=${version.name} " +
         s"with ${GraphDatabaseSettings.query_planner_version.name} = ${planner.name}")
       throw new IllegalStateException(s"Cannot combine configurations: ${GraphDatabaseSettings.cypher_parser_version.name}=${version.name} " +
@@ -21,7 +21,8 @@ package org.neo4j.cypher.internal
 
 import org.neo4j.cypher._
 import org.neo4j.cypher.internal.compatibility._
-import org.neo4j.cypher.internal.compiler.v2_2.{Rule, Cost, Conservative, PlannerName}
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.IDPSolverConfig
+import org.neo4j.cypher.internal.compiler.v2_2.{Rule, Cost, IDP, Conservative, PlannerName}
 import org.neo4j.graphdb.GraphDatabaseService
 import org.neo4j.graphdb.factory.GraphDatabaseSettings
 import org.neo4j.helpers.Clock
@@ -61,6 +62,9 @@ class CypherCompiler(graph: GraphDatabaseService,
   private val compatibilityFor2_2Cost =
     CompatibilityFor2_2Cost(graph, queryCacheSize, STATISTICS_DIVERGENCE_THRESHOLD, queryPlanTTL, CLOCK,
       kernelMonitors, kernelAPI, logger)
+  private val compatibilityFor2_2IDP =
+    CompatibilityFor2_2IDP(graph, queryCacheSize, STATISTICS_DIVERGENCE_THRESHOLD, queryPlanTTL, CLOCK,
+      kernelMonitors, kernelAPI, logger, getIDPSolverConfig)
   private val compatibilityFor2_2 =
     CompatibilityFor2_2Conservative(graph, queryCacheSize, STATISTICS_DIVERGENCE_THRESHOLD, queryPlanTTL, CLOCK,
       kernelMonitors, kernelAPI, logger)
@@ -83,6 +87,7 @@ class CypherCompiler(graph: GraphDatabaseService,
       case (CypherVersion.v2_2, Conservative) => compatibilityFor2_2.produceParsedQuery(statementAsText)
       case (CypherVersion.v2_2, Cost) => compatibilityFor2_2Cost.produceParsedQuery(statementAsText)
       case (CypherVersion.v2_2, Rule) => compatibilityFor2_2Rule.produceParsedQuery(statementAsText)
+      case (CypherVersion.v2_2, IDP)  => compatibilityFor2_2IDP.produceParsedQuery(statementAsText)
       case (CypherVersion.v2_2, _)    => compatibilityFor2_2.produceParsedQuery(statementAsText)
       case (CypherVersion.v2_1, _)    => compatibilityFor2_1.parseQuery(statementAsText)
       case (CypherVersion.v2_0, _)    => compatibilityFor2_0.parseQuery(statementAsText)
@@ -126,6 +131,7 @@ class CypherCompiler(graph: GraphDatabaseService,
     val planner = options.collect {
       case CostPlannerOption => Cost
       case RulePlannerOption => Rule
+      case IDPPlannerOption => IDP
     }.distinct
     if (version != CypherVersion.v2_2 && !planner.isEmpty) {
       throw new InvalidArgumentException("PLANNER not supported in versions older than Neo4j v2.2")
@@ -151,6 +157,13 @@ class CypherCompiler(graph: GraphDatabaseService,
   }
 
 
+  private def getIDPSolverConfig: IDPSolverConfig =
+    optGraphAs[InternalAbstractGraphDatabase]
+      .andThen(db => IDPSolverConfig(
+        maxTableSize = db.getConfig.get(GraphDatabaseSettings.query_planner_idp_table_threshold).intValue(),
+        maxIterationTime = db.getConfig.get(GraphDatabaseSettings.query_planner_idp_duration_threshold).longValue()))
+      .applyOrElse(graph, (_: GraphDatabaseService) => IDPSolverConfig.default)
+
   private def optGraphAs[T <: GraphDatabaseService : Manifest]: PartialFunction[GraphDatabaseService, T] = {
     case (db: T) => db
   }
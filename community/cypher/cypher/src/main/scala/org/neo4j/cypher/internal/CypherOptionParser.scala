@@ -44,6 +44,7 @@ case class CypherOptionParser(monitor: ParserMonitor[CypherQueryWithOptions]) ex
   def Planner =rule("PLANNER") (
     keyword("PLANNER COST") ~ push(CostPlannerOption)
       | keyword("PLANNER RULE") ~ push(RulePlannerOption)
+      | keyword("PLANNER IDP") ~ push(IDPPlannerOption)
   )
 
   def VersionNumber =
@@ -27,6 +27,7 @@ import org.neo4j.cypher.internal.compiler.v2_2
 import org.neo4j.cypher.internal.compiler.v2_2.executionplan.{InternalExecutionResult, ExecutionPlan => ExecutionPlan_v2_2}
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.InternalPlanDescription.Arguments.{DbHits, Planner, Rows, Version}
 import org.neo4j.cypher.internal.compiler.v2_2.planDescription.{Argument, InternalPlanDescription, PlanDescriptionArgumentSerializer}
+import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.IDPSolverConfig
 import org.neo4j.cypher.internal.compiler.v2_2.spi.MapToPublicExceptions
 import org.neo4j.cypher.internal.compiler.v2_2.{CypherCompilerFactory, PlannerName, CypherException => CypherException_v2_2}
 import org.neo4j.cypher.internal.spi.v2_2.{TransactionBoundGraphStatistics, TransactionBoundPlanContext, TransactionBoundQueryContext}
@@ -323,3 +324,16 @@ case class CompatibilityFor2_2Rule(graph: GraphDatabaseService,
   protected val compiler = CypherCompilerFactory.ruleBasedCompiler(
     graph, queryCacheSize, statsDivergenceThreshold, queryPlanTTL, clock, kernelMonitors)
 }
+
+case class CompatibilityFor2_2IDP(graph: GraphDatabaseService,
+                                  queryCacheSize: Int,
+                                  statsDivergenceThreshold: Double,
+                                  queryPlanTTL: Long,
+                                  clock: Clock,
+                                  kernelMonitors: KernelMonitors,
+                                  kernelAPI: KernelAPI,
+                                  logger: StringLogger,
+                                  solverConfig: IDPSolverConfig) extends CompatibilityFor2_2 {
+  protected val compiler = CypherCompilerFactory.idpCompiler(
+    graph, queryCacheSize, statsDivergenceThreshold, queryPlanTTL, clock, kernelMonitors, logger, solverConfig)
+}
@@ -20,10 +20,11 @@
 package org.neo4j.cypher.internal.spi.v2_2
 
 import org.neo4j.cypher.internal.compiler.v2_2.planner.logical.{Cardinality, Selectivity}
+import org.neo4j.cypher.internal.compiler.v2_2.spi.GraphStatistics.RangeBound
 import org.neo4j.cypher.internal.compiler.v2_2.spi.{GraphStatistics, StatisticsCompletingGraphStatistics}
 import org.neo4j.cypher.internal.compiler.v2_2.{LabelId, PropertyKeyId, RelTypeId}
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException
-import org.neo4j.kernel.api.index.IndexDescriptor
+import org.neo4j.kernel.api.index.{IndexDescriptor, IndexHistogram}
 import org.neo4j.kernel.api.{Statement => KernelStatement}
 
 object TransactionBoundGraphStatistics {
@@ -49,6 +50,35 @@ object TransactionBoundGraphStatistics {
         case e: IndexNotFoundKernelException => None
       }
 
+    override def indexPropertyValueSelectivity(label: LabelId, property: PropertyKeyId, value: Any): Option[Selectivity] =
+      histogramSelectivity(label, property)(_.estimateEqualityCount(value))
+
+    override def indexPropertyRangeSelectivity(label: LabelId, property: PropertyKeyId,
+                                               lower: Option[RangeBound], upper: Option[RangeBound]): Option[Selectivity] =
+      if ((lower ++ upper).forall(_.value.isInstanceOf[Number]))
+        histogramSelectivity(label, property)(_.estimateRangeCount(
+          lower.map(_.value.asInstanceOf[Number]).orNull, lower.exists(_.inclusive),
+          upper.map(_.value.asInstanceOf[Number]).orNull, upper.exists(_.inclusive)))
+      else
+        None // histograms only describe the distribution of numbers
+
+    private def histogramSelectivity(label: LabelId, property: PropertyKeyId)(estimate: IndexHistogram => Double): Option[Selectivity] =
+      try {
+        val histogram = statement.readOperations().indexGetHistogram(new IndexDescriptor(label, property))
+        if (histogram.entries() == 0) {
+          None // not sampled yet
+        } else {
+          val labeledNodes = statement.readOperations().countsForNode(label).toDouble
+
+          // never estimate less than a single matching node, the histogram may be older than the data
+          val matchingNodes = Math.max(estimate(histogram), 1.0)
+          Selectivity.of(Math.min(matchingNodes / labeledNodes, 1.0))
+        }
+      }
+      catch {
+        case e: IndexNotFoundKernelException => None
+      }
+
     def nodesWithLabelCardinality(labelId: Option[LabelId]): Cardinality =
       statement.readOperations().countsForNode(labelId)
 
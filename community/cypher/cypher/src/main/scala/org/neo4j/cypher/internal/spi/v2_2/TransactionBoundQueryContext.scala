@@ -24,6 +24,8 @@ import org.neo4j.cypher.internal.compiler.v2_2.{EntityNotFoundException, FailedI
 import org.neo4j.cypher.internal.compiler.v2_2.spi._
 import org.neo4j.cypher.internal.helpers.JavaConversionSupport
 import org.neo4j.cypher.internal.helpers.JavaConversionSupport._
+import org.neo4j.graphalgo.impl.primitive.{PrimitiveExpander, PrimitivePath, PrimitiveShortestPath}
+import org.neo4j.graphalgo.impl.util.PathImpl
 import org.neo4j.graphdb.DynamicRelationshipType._
 import org.neo4j.graphdb._
 import org.neo4j.graphdb.factory.GraphDatabaseSettings
@@ -147,6 +149,23 @@ final class TransactionBoundQueryContext(graph: GraphDatabaseAPI,
 
   def nodeGetDegree(node: Long, dir: Direction, relTypeId: Int): Int = statement.readOperations().nodeGetDegree(node, dir, relTypeId)
 
+  def singleShortestPath(left: Node, right: Node, depth: Int, dir: Direction, relTypes: Seq[String]): Option[Path] =
+    Option(shortestPathFinder(depth, dir, relTypes).findSinglePath(left.getId, right.getId)).map(toPath(left, _))
+
+  def allShortestPath(left: Node, right: Node, depth: Int, dir: Direction, relTypes: Seq[String]): Iterator[Path] =
+    shortestPathFinder(depth, dir, relTypes).findAllPaths(left.getId, right.getId).asScala.iterator.map(toPath(left, _))
+
+  private def shortestPathFinder(depth: Int, dir: Direction, relTypes: Seq[String]) =
+    new PrimitiveShortestPath(PrimitiveExpander.forTypeNames(statement.readOperations(), dir, relTypes: _*), depth)
+
+  private def toPath(start: Node, path: PrimitivePath): Path = {
+    // the start node is already at hand, so single node paths never have to touch the store
+    var builder = new PathImpl.Builder(start)
+    for (i <- 0 until path.length())
+      builder = builder.push(relationshipOps.getById(path.relationship(i)))
+    builder.build()
+  }
+
   private def kernelStatement: KernelStatement =
     txBridge
       .getKernelTransactionBoundToThisThread(true)
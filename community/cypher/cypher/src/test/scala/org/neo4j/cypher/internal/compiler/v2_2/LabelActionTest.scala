@@ -24,7 +24,7 @@ import org.neo4j.cypher.internal.compiler.v2_2.commands.expressions.Literal
 import org.neo4j.cypher.internal.compiler.v2_2.commands.values.{KeyToken, TokenType}
 import org.neo4j.cypher.internal.compiler.v2_2.commands.{LabelAction, LabelSetOp}
 import org.neo4j.cypher.internal.compiler.v2_2.spi.{IdempotentResult, LockingQueryContext, QueryContext}
-import org.neo4j.graphdb.{Relationship, Direction, Node}
+import org.neo4j.graphdb.{Path, Relationship, Direction, Node}
 import org.neo4j.kernel.api.constraints.UniquenessConstraint
 import org.neo4j.kernel.api.index.IndexDescriptor
 
@@ -162,4 +162,8 @@ class SnitchingQueryContext extends QueryContext {
   def nodeGetDegree(node: Long, dir: Direction): Int = ???
 
   def nodeGetDegree(node: Long, dir: Direction, relTypeId: Int): Int = ???
+
+  def singleShortestPath(left: Node, right: Node, depth: Int, dir: Direction, relTypes: Seq[String]): Option[Path] = ???
+
+  def allShortestPath(left: Node, right: Node, depth: Int, dir: Direction, relTypes: Seq[String]): Iterator[Path] = ???
 }
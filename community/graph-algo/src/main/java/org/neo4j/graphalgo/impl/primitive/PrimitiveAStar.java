@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.primitive;
+
+/**
+ * {@link PrimitiveDijkstra} guided by an estimate of the remaining cost to the goal, like
+ * {@link org.neo4j.graphalgo.impl.path.AStar}. Since every node is expanded at most once, the estimate must be
+ * consistent: never more than the cost of a relationship plus the estimate from the node at its other end.
+ */
+public class PrimitiveAStar extends PrimitiveDijkstra
+{
+    public interface Estimator
+    {
+        double estimate( long node, long goal );
+    }
+
+    private final Estimator estimator;
+
+    public PrimitiveAStar( PrimitiveExpander expander, int costPropertyKeyId, double defaultCost,
+                           Estimator estimator )
+    {
+        super( expander, costPropertyKeyId, defaultCost );
+        this.estimator = estimator;
+    }
+
+    @Override
+    protected double estimate( long node, long goal )
+    {
+        return estimator.estimate( node, goal );
+    }
+}
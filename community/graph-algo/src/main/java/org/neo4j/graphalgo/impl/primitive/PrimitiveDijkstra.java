@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.primitive;
+
+import java.util.Arrays;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongIntMap;
+import org.neo4j.graphalgo.impl.util.LongDoubleHeap;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
+import org.neo4j.kernel.impl.api.RelationshipVisitor;
+
+import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_PROPERTY_KEY;
+
+/**
+ * Finds the cheapest path between two nodes, where the cost of a relationship is read from one of its properties.
+ * Nodes are numbered in the order they are reached; costs and the relationship each node was reached through live
+ * in arrays indexed by that number, and the nodes to visit are ordered in a {@link LongDoubleHeap} of numbers.
+ * Costs must not be negative.
+ */
+public class PrimitiveDijkstra
+{
+    private final PrimitiveExpander expander;
+    private final int costPropertyKeyId;
+    private final double defaultCost;
+
+    /**
+     * @param costPropertyKeyId the property holding the cost of a relationship, or
+     * {@link org.neo4j.kernel.api.StatementConstants#NO_SUCH_PROPERTY_KEY} to give all relationships the default cost.
+     * @param defaultCost the cost of relationships that don't have a numeric cost property.
+     */
+    public PrimitiveDijkstra( PrimitiveExpander expander, int costPropertyKeyId, double defaultCost )
+    {
+        this.expander = expander;
+        this.costPropertyKeyId = costPropertyKeyId;
+        this.defaultCost = defaultCost;
+    }
+
+    /**
+     * @return the cheapest path from {@code start} to {@code end}, with its cost as weight, or {@code null} if
+     * {@code end} can't be reached.
+     */
+    public PrimitivePath findSinglePath( long start, long end )
+    {
+        try ( Search search = new Search( end ) )
+        {
+            return search.run( start );
+        }
+    }
+
+    /**
+     * A lower bound of the cost of getting from {@code node} to {@code goal}; zero for Dijkstra.
+     */
+    protected double estimate( long node, long goal )
+    {
+        return 0;
+    }
+
+    protected double cost( long relationshipId )
+    {
+        if ( costPropertyKeyId == NO_SUCH_PROPERTY_KEY )
+        {
+            return defaultCost;
+        }
+
+        Object value;
+        try
+        {
+            value = expander.read().relationshipGetProperty( relationshipId, costPropertyKeyId ).value( null );
+        }
+        catch ( EntityNotFoundException e )
+        {
+            throw new NotFoundException( "Relationship " + relationshipId + " not found", e );
+        }
+        double cost = value instanceof Number ? ((Number) value).doubleValue() : defaultCost;
+        if ( cost < 0 )
+        {
+            throw new IllegalArgumentException( "Relationship " + relationshipId + " has negative cost " + cost );
+        }
+        return cost;
+    }
+
+    private class Search implements RelationshipVisitor<RuntimeException>, AutoCloseable
+    {
+        private static final int NOT_REACHED = -1;
+
+        private final long goal;
+        private final PrimitiveLongIntMap indexes = Primitive.longIntMap();
+        private final LongDoubleHeap queue = new LongDoubleHeap();
+
+        private long[] nodes = new long[64];
+        private double[] costs = new double[64];
+        private long[] viaRelationships = new long[64];
+        private int[] viaIndexes = new int[64];
+        private boolean[] settled = new boolean[64];
+        private int count;
+
+        private int current;
+
+        Search( long goal )
+        {
+            this.goal = goal;
+        }
+
+        PrimitivePath run( long start )
+        {
+            int startIndex = indexOf( start );
+            costs[startIndex] = 0;
+            queue.insert( startIndex, estimate( start, goal ) );
+
+            while ( !queue.isEmpty() )
+            {
+                current = (int) queue.removeMin();
+                if ( settled[current] )
+                {
+                    // a stale entry, the node was reached more cheaply after this entry was queued
+                    continue;
+                }
+                settled[current] = true;
+
+                if ( nodes[current] == goal )
+                {
+                    return path( current );
+                }
+                expander.expand( nodes[current], this );
+            }
+            return null;
+        }
+
+        @Override
+        public void visit( long relId, int type, long startNode, long endNode )
+        {
+            long node = PrimitiveExpander.otherNode( nodes[current], startNode, endNode );
+            int index = indexOf( node );
+            if ( settled[index] )
+            {
+                return;
+            }
+
+            double cost = costs[current] + cost( relId );
+            if ( cost < costs[index] )
+            {
+                costs[index] = cost;
+                viaRelationships[index] = relId;
+                viaIndexes[index] = current;
+                queue.insert( index, cost + estimate( node, goal ) );
+            }
+        }
+
+        private int indexOf( long node )
+        {
+            if ( indexes.containsKey( node ) )
+            {
+                return indexes.get( node );
+            }
+
+            if ( count == nodes.length )
+            {
+                int capacity = count * 2;
+                nodes = Arrays.copyOf( nodes, capacity );
+                costs = Arrays.copyOf( costs, capacity );
+                viaRelationships = Arrays.copyOf( viaRelationships, capacity );
+                viaIndexes = Arrays.copyOf( viaIndexes, capacity );
+                settled = Arrays.copyOf( settled, capacity );
+            }
+            int index = count++;
+            nodes[index] = node;
+            costs[index] = Double.POSITIVE_INFINITY;
+            viaIndexes[index] = NOT_REACHED;
+            indexes.put( node, index );
+            return index;
+        }
+
+        private PrimitivePath path( int endIndex )
+        {
+            int length = 0;
+            for ( int index = endIndex; viaIndexes[index] != NOT_REACHED; index = viaIndexes[index] )
+            {
+                length++;
+            }
+
+            long[] pathNodes = new long[length + 1];
+            long[] pathRelationships = new long[length];
+            int index = endIndex;
+            for ( int position = length; position > 0; position-- )
+            {
+                pathNodes[position] = nodes[index];
+                pathRelationships[position - 1] = viaRelationships[index];
+                index = viaIndexes[index];
+            }
+            pathNodes[0] = nodes[index];
+            return new PrimitivePath( pathNodes, pathRelationships, costs[endIndex] );
+        }
+
+        @Override
+        public void close()
+        {
+            indexes.close();
+        }
+    }
+}
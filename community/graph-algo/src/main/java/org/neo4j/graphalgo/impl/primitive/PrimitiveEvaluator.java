@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.primitive;
+
+import org.neo4j.graphdb.traversal.Evaluation;
+
+/**
+ * Decides whether a branch of a {@link PrimitiveTraverser primitive traversal} is included in the result and
+ * whether it is expanded further, like an {@link org.neo4j.graphdb.traversal.Evaluator}, but looking only at the
+ * ids at the end of the branch.
+ */
+public interface PrimitiveEvaluator
+{
+    /**
+     * @param depth the number of relationships from the start node to {@code endNode}.
+     * @param endNode the id of the node at the end of the branch.
+     * @param lastRelationship the id of the relationship leading to {@code endNode}, or {@code -1} for the start
+     * node of the traversal.
+     */
+    Evaluation evaluate( int depth, long endNode, long lastRelationship );
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.primitive;
+
+import org.neo4j.graphdb.traversal.Evaluation;
+
+/**
+ * Common {@link PrimitiveEvaluator}s, the depth based counterparts of {@link org.neo4j.graphdb.traversal.Evaluators}.
+ */
+public abstract class PrimitiveEvaluators
+{
+    private static final PrimitiveEvaluator ALL = new PrimitiveEvaluator()
+    {
+        @Override
+        public Evaluation evaluate( int depth, long endNode, long lastRelationship )
+        {
+            return Evaluation.INCLUDE_AND_CONTINUE;
+        }
+    };
+
+    /**
+     * @return an evaluator which includes and continues everything.
+     */
+    public static PrimitiveEvaluator all()
+    {
+        return ALL;
+    }
+
+    /**
+     * @return an evaluator which includes branches up to {@code depth} and doesn't continue beyond it.
+     */
+    public static PrimitiveEvaluator toDepth( final int depth )
+    {
+        return new PrimitiveEvaluator()
+        {
+            @Override
+            public Evaluation evaluate( int branchDepth, long endNode, long lastRelationship )
+            {
+                return branchDepth < depth ? Evaluation.INCLUDE_AND_CONTINUE : Evaluation.INCLUDE_AND_PRUNE;
+            }
+        };
+    }
+
+    /**
+     * @return an evaluator which only includes branches of exactly {@code depth}, and doesn't continue beyond it.
+     */
+    public static PrimitiveEvaluator atDepth( final int depth )
+    {
+        return new PrimitiveEvaluator()
+        {
+            @Override
+            public Evaluation evaluate( int branchDepth, long endNode, long lastRelationship )
+            {
+                return branchDepth < depth ? Evaluation.EXCLUDE_AND_CONTINUE : Evaluation.of( branchDepth == depth, false );
+            }
+        };
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.primitive;
+
+import org.neo4j.cursor.Cursor;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
+import org.neo4j.kernel.impl.api.RelationshipVisitor;
+
+import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_RELATIONSHIP_TYPE;
+
+/**
+ * Visits the relationships of a node in a given direction, optionally restricted to a set of relationship types,
+ * without creating any {@link org.neo4j.graphdb.Relationship} objects.
+ */
+public class PrimitiveExpander
+{
+    private static final int[] ALL_TYPES = null;
+
+    private final ReadOperations read;
+    private final Direction direction;
+    private final int[] types;
+
+    /**
+     * @param types the relationship types to expand, or {@code null} to expand relationships of all types.
+     */
+    public PrimitiveExpander( ReadOperations read, Direction direction, int[] types )
+    {
+        this.read = read;
+        this.direction = direction;
+        this.types = types;
+    }
+
+    public PrimitiveExpander( ReadOperations read, Direction direction )
+    {
+        this( read, direction, ALL_TYPES );
+    }
+
+    /**
+     * Resolves the given relationship type names. Types that don't exist in the database can't have any
+     * relationships, so they are left out, and if none of the given types exist nothing will be expanded.
+     */
+    public static PrimitiveExpander forTypeNames( ReadOperations read, Direction direction, String... typeNames )
+    {
+        if ( typeNames.length == 0 )
+        {
+            return new PrimitiveExpander( read, direction );
+        }
+
+        int[] types = new int[typeNames.length];
+        int count = 0;
+        for ( String typeName : typeNames )
+        {
+            int type = read.relationshipTypeGetForName( typeName );
+            if ( type != NO_SUCH_RELATIONSHIP_TYPE )
+            {
+                types[count++] = type;
+            }
+        }
+        int[] existingTypes = new int[count];
+        System.arraycopy( types, 0, existingTypes, 0, count );
+        return new PrimitiveExpander( read, direction, existingTypes );
+    }
+
+    public ReadOperations read()
+    {
+        return read;
+    }
+
+    /**
+     * @return an expander that follows the same relationships, but from the other end.
+     */
+    public PrimitiveExpander reverse()
+    {
+        return new PrimitiveExpander( read, direction.reverse(), types );
+    }
+
+    /**
+     * Visits every relationship of the given node that this expander follows.
+     *
+     * @throws NotFoundException if the node doesn't exist.
+     */
+    public void expand( long nodeId, RelationshipVisitor<RuntimeException> visitor )
+    {
+        if ( types != ALL_TYPES && types.length == 0 )
+        {
+            return;
+        }
+
+        try ( Cursor cursor = types == ALL_TYPES
+                ? read.nodeGetRelationships( nodeId, direction, visitor )
+                : read.nodeGetRelationships( nodeId, direction, types, visitor ) )
+        {
+            while ( cursor.next() )
+            {
+                // the visitor is called for each relationship the cursor moves to
+            }
+        }
+        catch ( EntityNotFoundException e )
+        {
+            throw new NotFoundException( "Node " + nodeId + " not found", e );
+        }
+    }
+
+    /**
+     * @return the node at the other end of a relationship visited from {@code nodeId}.
+     */
+    public static long otherNode( long nodeId, long startNode, long endNode )
+    {
+        return startNode == nodeId ? endNode : startNode;
+    }
+}
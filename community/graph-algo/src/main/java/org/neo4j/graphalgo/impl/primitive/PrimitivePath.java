@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.primitive;
+
+import java.util.Arrays;
+
+import org.neo4j.graphalgo.WeightedPath;
+import org.neo4j.graphalgo.impl.util.PathImpl;
+import org.neo4j.graphalgo.impl.util.WeightedPathImpl;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Path;
+
+/**
+ * A path found by one of the primitive path finders, as the ids of its nodes and relationships. It holds
+ * {@code length() + 1} nodes and {@code length()} relationships, where relationship {@code i} connects node
+ * {@code i} and node {@code i + 1}.
+ */
+public final class PrimitivePath
+{
+    private final long[] nodes;
+    private final long[] relationships;
+    private final double weight;
+
+    public PrimitivePath( long[] nodes, long[] relationships, double weight )
+    {
+        if ( nodes.length != relationships.length + 1 )
+        {
+            throw new IllegalArgumentException( "A path of " + relationships.length + " relationships must have " +
+                    (relationships.length + 1) + " nodes, not " + nodes.length );
+        }
+        this.nodes = nodes;
+        this.relationships = relationships;
+        this.weight = weight;
+    }
+
+    public static PrimitivePath singleNode( long node )
+    {
+        return new PrimitivePath( new long[]{node}, new long[0], 0 );
+    }
+
+    public int length()
+    {
+        return relationships.length;
+    }
+
+    public long startNode()
+    {
+        return nodes[0];
+    }
+
+    public long endNode()
+    {
+        return nodes[nodes.length - 1];
+    }
+
+    public long node( int index )
+    {
+        return nodes[index];
+    }
+
+    public long relationship( int index )
+    {
+        return relationships[index];
+    }
+
+    /**
+     * @return the sum of the costs of the relationships for weighted searches, otherwise the length.
+     */
+    public double weight()
+    {
+        return weight;
+    }
+
+    public Path toPath( GraphDatabaseService db )
+    {
+        PathImpl.Builder builder = new PathImpl.Builder( db.getNodeById( nodes[0] ) );
+        for ( long relationship : relationships )
+        {
+            builder = builder.push( db.getRelationshipById( relationship ) );
+        }
+        return builder.build();
+    }
+
+    public WeightedPath toWeightedPath( GraphDatabaseService db )
+    {
+        return new WeightedPathImpl( weight, toPath( db ) );
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        PrimitivePath that = (PrimitivePath) o;
+        return Arrays.equals( nodes, that.nodes ) && Arrays.equals( relationships, that.relationships );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * Arrays.hashCode( nodes ) + Arrays.hashCode( relationships );
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder result = new StringBuilder( "(" ).append( nodes[0] ).append( ')' );
+        for ( int i = 0; i < relationships.length; i++ )
+        {
+            result.append( "-[" ).append( relationships[i] ).append( "]-(" ).append( nodes[i + 1] ).append( ')' );
+        }
+        return result.toString();
+    }
+}
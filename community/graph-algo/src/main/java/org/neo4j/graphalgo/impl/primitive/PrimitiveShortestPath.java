@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.primitive;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongIntMap;
+import org.neo4j.kernel.impl.api.RelationshipVisitor;
+
+/**
+ * Finds the shortest paths between two nodes with a breadth first search from both ends, always expanding the side
+ * with the smaller frontier. This is the algorithm of {@link org.neo4j.graphalgo.impl.path.ShortestPath}, but all
+ * state is kept in primitive maps and arrays keyed on node ids: the depth at which each node was reached, and for
+ * each node a linked list of the relationships it was reached through, stored in three parallel arrays.
+ */
+public class PrimitiveShortestPath
+{
+    private static final int NO_LINK = -1; // what PrimitiveLongIntMap#get returns for a missing key
+    private static final int NOT_SEEN = -1;
+
+    private final PrimitiveExpander expander;
+    private final int maxDepth;
+
+    public PrimitiveShortestPath( PrimitiveExpander expander, int maxDepth )
+    {
+        this.expander = expander;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * @return one of the shortest paths from {@code start} to {@code end}, or {@code null} if there is no path of
+     * at most {@code maxDepth} relationships.
+     */
+    public PrimitivePath findSinglePath( long start, long end )
+    {
+        List<PrimitivePath> paths = search( start, end, true );
+        return paths.isEmpty() ? null : paths.get( 0 );
+    }
+
+    /**
+     * @return all the shortest paths from {@code start} to {@code end}, which is empty if there is no path of
+     * at most {@code maxDepth} relationships.
+     */
+    public List<PrimitivePath> findAllPaths( long start, long end )
+    {
+        return search( start, end, false );
+    }
+
+    private List<PrimitivePath> search( long start, long end, boolean single )
+    {
+        if ( start == end )
+        {
+            return Collections.singletonList( PrimitivePath.singleNode( start ) );
+        }
+
+        try ( Side fromStart = new Side( start, expander, single );
+              Side fromEnd = new Side( end, expander.reverse(), single ) )
+        {
+            while ( fromStart.depth + fromEnd.depth < maxDepth && fromStart.frontierSize > 0 && fromEnd.frontierSize > 0 )
+            {
+                Side side = fromStart.frontierSize <= fromEnd.frontierSize ? fromStart : fromEnd;
+                side.expandLevel( side == fromStart ? fromEnd : fromStart );
+                if ( side.meetingCount > 0 )
+                {
+                    return paths( fromStart, fromEnd, side, single );
+                }
+            }
+            return Collections.emptyList();
+        }
+    }
+
+    private List<PrimitivePath> paths( Side fromStart, Side fromEnd, Side side, boolean single )
+    {
+        // a node met at this level may have been reached from the other side at different depths, keep the closest
+        int shortest = Integer.MAX_VALUE;
+        for ( int i = 0; i < side.meetingCount; i++ )
+        {
+            shortest = Math.min( shortest, fromStart.depths.get( side.meetings[i] ) +
+                                           fromEnd.depths.get( side.meetings[i] ) );
+        }
+
+        List<PrimitivePath> result = new ArrayList<>();
+        for ( int i = 0; i < side.meetingCount; i++ )
+        {
+            long meeting = side.meetings[i];
+            if ( fromStart.depths.get( meeting ) + fromEnd.depths.get( meeting ) != shortest )
+            {
+                continue;
+            }
+            for ( PrimitivePath head : fromStart.pathsTo( meeting ) )
+            {
+                for ( PrimitivePath tail : fromEnd.pathsTo( meeting ) )
+                {
+                    result.add( join( head, tail ) );
+                    if ( single )
+                    {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Joins a path from the start node to the meeting node with a path from the end node to the meeting node.
+     */
+    private static PrimitivePath join( PrimitivePath head, PrimitivePath tail )
+    {
+        int length = head.length() + tail.length();
+        long[] nodes = new long[length + 1];
+        long[] relationships = new long[length];
+        for ( int i = 0; i <= head.length(); i++ )
+        {
+            nodes[i] = head.node( i );
+        }
+        for ( int i = 0; i < head.length(); i++ )
+        {
+            relationships[i] = head.relationship( i );
+        }
+        for ( int i = 0; i < tail.length(); i++ )
+        {
+            nodes[length - i] = tail.node( i );
+            relationships[length - 1 - i] = tail.relationship( i );
+        }
+        return new PrimitivePath( nodes, relationships, length );
+    }
+
+    private static class Side implements RelationshipVisitor<RuntimeException>, AutoCloseable
+    {
+        private final PrimitiveExpander expander;
+        private final boolean single;
+        private final PrimitiveLongIntMap depths = Primitive.longIntMap();
+        private final PrimitiveLongIntMap firstLinks = Primitive.longIntMap();
+
+        // the relationships each node was reached through, as linked lists starting at firstLinks
+        private long[] linkRelationships = new long[16];
+        private long[] linkNodes = new long[16];
+        private int[] nextLinks = new int[16];
+        private int linkCount;
+
+        private long[] frontier = new long[16];
+        private int frontierSize;
+        private long[] nextFrontier = new long[16];
+        private int nextFrontierSize;
+        private int depth;
+
+        private long[] meetings = new long[4];
+        private int meetingCount;
+
+        private Side other;
+        private long current;
+
+        Side( long origin, PrimitiveExpander expander, boolean single )
+        {
+            this.expander = expander;
+            this.single = single;
+            depths.put( origin, 0 );
+            frontier[frontierSize++] = origin;
+        }
+
+        void expandLevel( Side other )
+        {
+            this.other = other;
+            nextFrontierSize = 0;
+            for ( int i = 0; i < frontierSize && !(single && meetingCount > 0); i++ )
+            {
+                current = frontier[i];
+                expander.expand( current, this );
+            }
+
+            long[] expanded = frontier;
+            frontier = nextFrontier;
+            frontierSize = nextFrontierSize;
+            nextFrontier = expanded;
+            depth++;
+        }
+
+        @Override
+        public void visit( long relId, int type, long startNode, long endNode )
+        {
+            if ( single && meetingCount > 0 )
+            {
+                return;
+            }
+
+            long node = PrimitiveExpander.otherNode( current, startNode, endNode );
+            int nodeDepth = depths.containsKey( node ) ? depths.get( node ) : NOT_SEEN;
+            if ( nodeDepth == NOT_SEEN )
+            {
+                depths.put( node, depth + 1 );
+                if ( nextFrontierSize == nextFrontier.length )
+                {
+                    nextFrontier = Arrays.copyOf( nextFrontier, nextFrontierSize * 2 );
+                }
+                nextFrontier[nextFrontierSize++] = node;
+                link( node, relId, current );
+
+                if ( other.depths.containsKey( node ) )
+                {
+                    if ( meetingCount == meetings.length )
+                    {
+                        meetings = Arrays.copyOf( meetings, meetingCount * 2 );
+                    }
+                    meetings[meetingCount++] = node;
+                }
+            }
+            else if ( nodeDepth == depth + 1 && !single )
+            {
+                // another way of reaching the node at the same depth, which all shortest paths need
+                link( node, relId, current );
+            }
+        }
+
+        private void link( long node, long relationship, long previous )
+        {
+            if ( linkCount == linkRelationships.length )
+            {
+                linkRelationships = Arrays.copyOf( linkRelationships, linkCount * 2 );
+                linkNodes = Arrays.copyOf( linkNodes, linkCount * 2 );
+                nextLinks = Arrays.copyOf( nextLinks, linkCount * 2 );
+            }
+            linkRelationships[linkCount] = relationship;
+            linkNodes[linkCount] = previous;
+            nextLinks[linkCount] = firstLinks.containsKey( node ) ? firstLinks.get( node ) : NO_LINK;
+            firstLinks.put( node, linkCount );
+            linkCount++;
+        }
+
+        /**
+         * @return the paths from the origin of this side to the given node, or only one of them when searching for
+         * a single path.
+         */
+        List<PrimitivePath> pathsTo( long node )
+        {
+            int length = depths.get( node );
+            List<PrimitivePath> result = new ArrayList<>();
+            collectPaths( node, length, new long[length + 1], new long[length], result );
+            return result;
+        }
+
+        private void collectPaths( long node, int index, long[] nodes, long[] relationships,
+                                   List<PrimitivePath> result )
+        {
+            nodes[index] = node;
+            if ( index == 0 )
+            {
+                result.add( new PrimitivePath( nodes.clone(), relationships.clone(), relationships.length ) );
+                return;
+            }
+
+            for ( int link = firstLinks.get( node ); link != NO_LINK; link = nextLinks[link] )
+            {
+                relationships[index - 1] = linkRelationships[link];
+                collectPaths( linkNodes[link], index - 1, nodes, relationships, result );
+                if ( single )
+                {
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            depths.close();
+            firstLinks.close();
+        }
+    }
+}
@@ -0,0 +1,362 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.primitive;
+
+import java.util.Arrays;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.cursor.Cursor;
+import org.neo4j.graphdb.traversal.Evaluation;
+import org.neo4j.graphdb.traversal.Uniqueness;
+import org.neo4j.kernel.impl.api.RelationshipVisitor;
+
+/**
+ * The state of a {@link PrimitiveTraverser primitive traversal}, moving from one included branch to the next.
+ * <p>
+ * Every branch is a record in four parallel arrays: the id of its end node, the id of the relationship leading
+ * there, the index of its parent record and its depth together with the outcome of its evaluation, which is 24
+ * bytes per branch. Breadth first, the records themselves are the queue of branches to expand, since they are
+ * added in the order they are to be visited. Depth first, a stack of record indexes is kept as well, and the
+ * uniqueness check and evaluation of a branch other than a start branch happen when it is popped rather than
+ * when it is created, so that the first path to a node in depth first order is the one that is kept.
+ * <p>
+ * Depth first, the children of a branch are recorded in reverse order, so that the records on the stack always
+ * come in increasing order. Everything recorded after a branch popped off the stack belongs to subtrees that
+ * have been fully traversed, and is dropped, which keeps the records down to the branches along the current path
+ * and their siblings.
+ */
+public class PrimitiveTraversalCursor implements Cursor
+{
+    private static final long NO_RELATIONSHIP = -1;
+    private static final int NO_BRANCH = -1;
+    private static final int INITIAL_CAPACITY = 1 << 8;
+
+    // high bits here [ci dd,dddd][dddd,dddd][dddd,dddd][dddd,dddd]
+    private static final int INCLUDES = 0x40000000;
+    private static final int CONTINUES = 0x80000000;
+    private static final int DEPTH_MASK = 0x3FFFFFFF;
+
+    private final PrimitiveExpander expander;
+    private final boolean depthFirst;
+    private final Uniqueness uniqueness;
+    private final PrimitiveEvaluator evaluator;
+    private final long[] startNodes;
+    private final PrimitiveLongSet visited;
+
+    private long[] nodes;
+    private long[] relationships;
+    private int[] parents;
+    private int[] depthAndEvaluation;
+    private int size;
+
+    private int nextToVisit;
+    private int[] stack;
+    private int stackSize;
+
+    private int current = NO_BRANCH;
+    private int expanding = NO_BRANCH;
+
+    private final RelationshipVisitor<RuntimeException> addChild = new RelationshipVisitor<RuntimeException>()
+    {
+        @Override
+        public void visit( long relId, int type, long startNode, long endNode )
+        {
+            long node = nodes[expanding];
+            if ( relId == relationships[expanding] )
+            {
+                return;
+            }
+
+            int child = add( PrimitiveExpander.otherNode( node, startNode, endNode ), relId, expanding,
+                    depth( expanding ) + 1 );
+            if ( !depthFirst && !admit( child ) )
+            {
+                size--;
+            }
+        }
+    };
+
+    PrimitiveTraversalCursor( PrimitiveExpander expander, boolean depthFirst, Uniqueness uniqueness,
+                              PrimitiveEvaluator evaluator, long[] startNodes )
+    {
+        this.expander = expander;
+        this.depthFirst = depthFirst;
+        this.uniqueness = uniqueness;
+        this.evaluator = evaluator;
+        this.startNodes = startNodes;
+        this.visited = uniqueness == Uniqueness.NODE_GLOBAL || uniqueness == Uniqueness.RELATIONSHIP_GLOBAL
+                       ? Primitive.longSet() : null;
+        reset();
+    }
+
+    @Override
+    public boolean next()
+    {
+        while ( true )
+        {
+            int branch = depthFirst ? popAdmitted() : (nextToVisit < size ? nextToVisit++ : NO_BRANCH);
+            if ( branch == NO_BRANCH )
+            {
+                current = NO_BRANCH;
+                return false;
+            }
+
+            if ( (depthAndEvaluation[branch] & CONTINUES) != 0 )
+            {
+                expand( branch );
+            }
+            if ( (depthAndEvaluation[branch] & INCLUDES) != 0 )
+            {
+                current = branch;
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void reset()
+    {
+        nodes = new long[INITIAL_CAPACITY];
+        relationships = new long[INITIAL_CAPACITY];
+        parents = new int[INITIAL_CAPACITY];
+        depthAndEvaluation = new int[INITIAL_CAPACITY];
+        stack = depthFirst ? new int[INITIAL_CAPACITY] : null;
+        size = nextToVisit = stackSize = 0;
+        current = expanding = NO_BRANCH;
+        if ( visited != null )
+        {
+            visited.clear();
+        }
+
+        // all start branches are admitted up front, also depth first, like the object traversals do
+        for ( long startNode : startNodes )
+        {
+            admit( add( startNode, NO_RELATIONSHIP, NO_BRANCH, 0 ) );
+        }
+        if ( depthFirst )
+        {
+            for ( int branch = size - 1; branch >= 0; branch-- )
+            {
+                push( branch );
+            }
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        nodes = relationships = null;
+        parents = depthAndEvaluation = stack = null;
+        size = nextToVisit = stackSize = 0;
+        current = NO_BRANCH;
+        if ( visited != null )
+        {
+            visited.close();
+        }
+    }
+
+    /**
+     * @return the number of relationships from the start node to the end node of the current branch.
+     */
+    public int length()
+    {
+        return depth( currentBranch() );
+    }
+
+    public long endNode()
+    {
+        return nodes[currentBranch()];
+    }
+
+    /**
+     * @return the id of the relationship leading to the end node of the current branch, or {@code -1} if the
+     * current branch is only a start node.
+     */
+    public long lastRelationship()
+    {
+        return relationships[currentBranch()];
+    }
+
+    /**
+     * @return the ids of the nodes and relationships from the start node to the end node of the current branch.
+     */
+    public PrimitivePath path()
+    {
+        int branch = currentBranch();
+        int length = depth( branch );
+        long[] pathNodes = new long[length + 1];
+        long[] pathRelationships = new long[length];
+        for ( int i = length; i > 0; i-- )
+        {
+            pathNodes[i] = nodes[branch];
+            pathRelationships[i - 1] = relationships[branch];
+            branch = parents[branch];
+        }
+        pathNodes[0] = nodes[branch];
+        return new PrimitivePath( pathNodes, pathRelationships, length );
+    }
+
+    private int currentBranch()
+    {
+        if ( current == NO_BRANCH )
+        {
+            throw new IllegalStateException( "The cursor is not on any branch" );
+        }
+        return current;
+    }
+
+    private void expand( int branch )
+    {
+        int sizeBefore = size;
+        expanding = branch;
+        expander.expand( nodes[branch], addChild );
+        expanding = NO_BRANCH;
+
+        if ( depthFirst )
+        {
+            // children were recorded in the order of their relationships, the first one is to be on top
+            for ( int low = sizeBefore, high = size - 1; low < high; low++, high-- )
+            {
+                swap( low, high );
+            }
+            for ( int child = sizeBefore; child < size; child++ )
+            {
+                push( child );
+            }
+        }
+    }
+
+    private int popAdmitted()
+    {
+        while ( stackSize > 0 )
+        {
+            int branch = stack[--stackSize];
+            // the rest of the stack is below this branch, except for the start branches that are all up front
+            size = Math.max( branch + 1, startNodes.length );
+            if ( parents[branch] == NO_BRANCH || admit( branch ) )
+            {
+                return branch;
+            }
+        }
+        return NO_BRANCH;
+    }
+
+    /**
+     * Checks the uniqueness of the given branch, and if unique, evaluates it.
+     *
+     * @return whether or not the branch is unique.
+     */
+    private boolean admit( int branch )
+    {
+        if ( !isUnique( branch ) )
+        {
+            return false;
+        }
+        int depth = depth( branch );
+        Evaluation evaluation = evaluator.evaluate( depth, nodes[branch], relationships[branch] );
+        depthAndEvaluation[branch] = depth | (evaluation.includes() ? INCLUDES : 0) |
+                                     (evaluation.continues() ? CONTINUES : 0);
+        return true;
+    }
+
+    private boolean isUnique( int branch )
+    {
+        boolean startBranch = parents[branch] == NO_BRANCH;
+        switch ( uniqueness )
+        {
+        case NODE_GLOBAL:
+            // like in the object traversals, start nodes are registered, but never rejected
+            return visited.add( nodes[branch] ) || startBranch;
+        case RELATIONSHIP_GLOBAL:
+            return startBranch || visited.add( relationships[branch] );
+        case NODE_PATH:
+            for ( int ancestor = parents[branch]; ancestor != NO_BRANCH; ancestor = parents[ancestor] )
+            {
+                if ( nodes[ancestor] == nodes[branch] )
+                {
+                    return false;
+                }
+            }
+            return true;
+        case RELATIONSHIP_PATH:
+            if ( !startBranch )
+            {
+                for ( int ancestor = parents[branch]; parents[ancestor] != NO_BRANCH; ancestor = parents[ancestor] )
+                {
+                    if ( relationships[ancestor] == relationships[branch] )
+                    {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        default:
+            return true;
+        }
+    }
+
+    private int add( long node, long relationship, int parent, int depth )
+    {
+        if ( size == nodes.length )
+        {
+            int capacity = size << 1;
+            nodes = Arrays.copyOf( nodes, capacity );
+            relationships = Arrays.copyOf( relationships, capacity );
+            parents = Arrays.copyOf( parents, capacity );
+            depthAndEvaluation = Arrays.copyOf( depthAndEvaluation, capacity );
+        }
+        nodes[size] = node;
+        relationships[size] = relationship;
+        parents[size] = parent;
+        depthAndEvaluation[size] = depth;
+        return size++;
+    }
+
+    private void swap( int a, int b )
+    {
+        long node = nodes[a];
+        nodes[a] = nodes[b];
+        nodes[b] = node;
+        long relationship = relationships[a];
+        relationships[a] = relationships[b];
+        relationships[b] = relationship;
+        int parent = parents[a];
+        parents[a] = parents[b];
+        parents[b] = parent;
+        int depthAndEvaluationOfA = depthAndEvaluation[a];
+        depthAndEvaluation[a] = depthAndEvaluation[b];
+        depthAndEvaluation[b] = depthAndEvaluationOfA;
+    }
+
+    private void push( int branch )
+    {
+        if ( stackSize == stack.length )
+        {
+            stack = Arrays.copyOf( stack, stackSize << 1 );
+        }
+        stack[stackSize++] = branch;
+    }
+
+    private int depth( int branch )
+    {
+        return depthAndEvaluation[branch] & DEPTH_MASK;
+    }
+}
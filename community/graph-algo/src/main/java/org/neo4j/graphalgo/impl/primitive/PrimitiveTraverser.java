@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.primitive;
+
+import org.neo4j.graphdb.traversal.BranchOrderingPolicies;
+import org.neo4j.graphdb.traversal.BranchOrderingPolicy;
+import org.neo4j.graphdb.traversal.Uniqueness;
+
+/**
+ * A traversal over node and relationship ids, the primitive counterpart of a
+ * {@link org.neo4j.graphdb.traversal.TraversalDescription}. Relationships are expanded through the kernel cursors
+ * of a {@link PrimitiveExpander}, and the branches of the traversal are kept as records of node id, relationship
+ * id and parent branch in primitive arrays, see {@link PrimitiveTraversalCursor}. A {@link PrimitivePath}, and
+ * from that a {@link org.neo4j.graphdb.Path}, is only created for the branches a caller asks for.
+ * <p>
+ * Preorder {@link BranchOrderingPolicies#PREORDER_BREADTH_FIRST breadth first} and
+ * {@link BranchOrderingPolicies#PREORDER_DEPTH_FIRST depth first} ordering are supported, together with the
+ * global, path and no {@link Uniqueness uniqueness} kinds.
+ */
+public class PrimitiveTraverser
+{
+    private final PrimitiveExpander expander;
+    private final boolean depthFirst;
+    private final Uniqueness uniqueness;
+    private final PrimitiveEvaluator evaluator;
+
+    public PrimitiveTraverser( PrimitiveExpander expander, BranchOrderingPolicy order, Uniqueness uniqueness,
+                               PrimitiveEvaluator evaluator )
+    {
+        if ( order != BranchOrderingPolicies.PREORDER_BREADTH_FIRST &&
+             order != BranchOrderingPolicies.PREORDER_DEPTH_FIRST )
+        {
+            throw new IllegalArgumentException( "Only preorder breadth first and depth first ordering is supported" );
+        }
+        switch ( uniqueness )
+        {
+        case NODE_GLOBAL:
+        case NODE_PATH:
+        case RELATIONSHIP_GLOBAL:
+        case RELATIONSHIP_PATH:
+        case NONE:
+            break;
+        default:
+            throw new IllegalArgumentException( "Uniqueness " + uniqueness + " is not supported" );
+        }
+        this.expander = expander;
+        this.depthFirst = order == BranchOrderingPolicies.PREORDER_DEPTH_FIRST;
+        this.uniqueness = uniqueness;
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * @return a cursor over the branches of this traversal from the given start nodes which the evaluator
+     * includes. The traversal moves forward as the cursor does.
+     */
+    public PrimitiveTraversalCursor traverse( long... startNodes )
+    {
+        return new PrimitiveTraversalCursor( expander, depthFirst, uniqueness, evaluator, startNodes );
+    }
+}
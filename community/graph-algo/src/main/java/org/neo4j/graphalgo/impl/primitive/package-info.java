@@ -17,38 +17,11 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.consistency.store.paging;
-
-class CachedPageList
-{
-    Page head, tail;
-    int size = 0;
-
-    public int size()
-    {
-        return size;
-    }
-
-    public Page removeHead()
-    {
-        Page removedPage = head;
-        head.moveToTailOf( null );
-        return removedPage;
-    }
-
-    public void incrementSize()
-    {
-        size++;
-    }
-
-    public void decrementSize()
-    {
-        size--;
-    }
-
-    @Override
-    public String toString()
-    {
-        return String.format( "CachedPageList{head=%s, tail=%s, size=%d}", head, tail, size );
-    }
-}
+/**
+ * Path finding algorithms and traversals that work on node and relationship ids directly through the kernel
+ * {@link org.neo4j.kernel.api.ReadOperations}, keeping their state in primitive collections and arrays rather
+ * than in maps of {@link org.neo4j.graphdb.Node} and {@link org.neo4j.graphdb.Relationship} proxies. They are
+ * meant for callers that already hold a kernel statement, like Cypher, and for searches between densely
+ * connected nodes in large graphs where the object based implementations allocate too much.
+ */
+package org.neo4j.graphalgo.impl.primitive;
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.projection;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.neo4j.graphdb.Direction;
+
+/**
+ * Exact betweenness centrality of the nodes of an unweighted {@link GraphProjection}, using the algorithm by
+ * Ulrik Brandes. The single source searches are distributed over the threads, which each accumulate into their
+ * own array of centralities, summed up at the end. That costs a handful of arrays the size of the graph per
+ * thread, but no synchronization while searching.
+ */
+public class BrandesBetweenness
+{
+    static final int SOURCE_BATCH_SIZE = 64;
+
+    private final GraphProjection graph;
+    private final int concurrency;
+
+    public BrandesBetweenness( GraphProjection graph, int concurrency )
+    {
+        this.graph = graph;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param direction {@link Direction#OUTGOING} or {@link Direction#INCOMING} to treat relationships as
+     * directed, or {@link Direction#BOTH} to treat them as undirected, in which case every shortest path is
+     * only counted once.
+     * @return the centrality of every node, indexed by projected node.
+     */
+    public double[] compute( final Direction direction )
+    {
+        final int nodeCount = graph.nodeCount();
+        final List<Search> searches = new CopyOnWriteArrayList<>();
+        final ThreadLocal<Search> search = new ThreadLocal<Search>()
+        {
+            @Override
+            protected Search initialValue()
+            {
+                Search search = new Search( nodeCount, direction );
+                searches.add( search );
+                return search;
+            }
+        };
+        ParallelBatches.run( concurrency, nodeCount, SOURCE_BATCH_SIZE, new ParallelBatches.Task()
+        {
+            @Override
+            public void run( long from, long to )
+            {
+                Search local = search.get();
+                for ( int source = (int) from; source < to; source++ )
+                {
+                    local.accumulate( source );
+                }
+            }
+        } );
+
+        double[] centrality = new double[nodeCount];
+        for ( Search local : searches )
+        {
+            for ( int node = 0; node < nodeCount; node++ )
+            {
+                centrality[node] += local.centrality[node];
+            }
+        }
+        if ( direction == Direction.BOTH )
+        {
+            for ( int node = 0; node < nodeCount; node++ )
+            {
+                centrality[node] /= 2;
+            }
+        }
+        return centrality;
+    }
+
+    private class Search
+    {
+        private final Direction direction;
+        private final Direction backwards;
+        private final double[] centrality;
+        private final int[] distance;
+        private final double[] paths;
+        private final double[] dependency;
+        // the visited nodes in order of increasing distance, serving as both queue and stack
+        private final int[] visited;
+
+        Search( int nodeCount, Direction direction )
+        {
+            this.direction = direction;
+            this.backwards = direction.reverse();
+            this.centrality = new double[nodeCount];
+            this.distance = new int[nodeCount];
+            this.paths = new double[nodeCount];
+            this.dependency = new double[nodeCount];
+            this.visited = new int[nodeCount];
+            Arrays.fill( distance, -1 );
+        }
+
+        void accumulate( int source )
+        {
+            int visitedCount = 0;
+            distance[source] = 0;
+            paths[source] = 1;
+            visited[visitedCount++] = source;
+            for ( int head = 0; head < visitedCount; head++ )
+            {
+                int node = visited[head];
+                int degree = graph.degree( node, direction );
+                for ( int i = 0; i < degree; i++ )
+                {
+                    int neighbour = graph.neighbour( node, i, direction );
+                    if ( distance[neighbour] == -1 )
+                    {
+                        distance[neighbour] = distance[node] + 1;
+                        visited[visitedCount++] = neighbour;
+                    }
+                    if ( distance[neighbour] == distance[node] + 1 )
+                    {
+                        paths[neighbour] += paths[node];
+                    }
+                }
+            }
+
+            for ( int tail = visitedCount - 1; tail >= 0; tail-- )
+            {
+                int node = visited[tail];
+                int degree = graph.degree( node, backwards );
+                for ( int i = 0; i < degree; i++ )
+                {
+                    int predecessor = graph.neighbour( node, i, backwards );
+                    if ( distance[predecessor] == distance[node] - 1 )
+                    {
+                        dependency[predecessor] += paths[predecessor] / paths[node] * (1 + dependency[node]);
+                    }
+                }
+                if ( node != source )
+                {
+                    centrality[node] += dependency[node];
+                }
+            }
+
+            for ( int i = 0; i < visitedCount; i++ )
+            {
+                int node = visited[i];
+                distance[node] = -1;
+                paths[node] = 0;
+                dependency[node] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.projection;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.neo4j.graphdb.Direction.OUTGOING;
+
+/**
+ * Weakly connected components of a {@link GraphProjection}, found with a lock free union-find where threads
+ * union the end points of the outgoing relationships of their batches of nodes concurrently. Roots are always
+ * linked below the root with the lower projected index, so every component ends up being identified by its lowest
+ * projected node.
+ */
+public class ConnectedComponents
+{
+    private final GraphProjection graph;
+    private final int concurrency;
+
+    public ConnectedComponents( GraphProjection graph, int concurrency )
+    {
+        this.graph = graph;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @return for every projected node, the lowest projected node in its component.
+     */
+    public int[] compute()
+    {
+        int nodeCount = graph.nodeCount();
+        final AtomicIntegerArray parents = new AtomicIntegerArray( nodeCount );
+        for ( int node = 0; node < nodeCount; node++ )
+        {
+            parents.set( node, node );
+        }
+
+        ParallelBatches.run( concurrency, nodeCount, PageRank.NODE_BATCH_SIZE, new ParallelBatches.Task()
+        {
+            @Override
+            public void run( long from, long to )
+            {
+                for ( int node = (int) from; node < to; node++ )
+                {
+                    int degree = graph.degree( node, OUTGOING );
+                    for ( int i = 0; i < degree; i++ )
+                    {
+                        union( parents, node, graph.neighbour( node, i, OUTGOING ) );
+                    }
+                }
+            }
+        } );
+
+        int[] components = new int[nodeCount];
+        for ( int node = 0; node < nodeCount; node++ )
+        {
+            components[node] = find( parents, node );
+        }
+        return components;
+    }
+
+    private static void union( AtomicIntegerArray parents, int a, int b )
+    {
+        while ( true )
+        {
+            int rootA = find( parents, a );
+            int rootB = find( parents, b );
+            if ( rootA == rootB )
+            {
+                return;
+            }
+            int high = Math.max( rootA, rootB );
+            if ( parents.compareAndSet( high, high, Math.min( rootA, rootB ) ) )
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Parents always have a lower index than their children, which is what makes the path halving done here safe
+     * to race with other threads.
+     */
+    private static int find( AtomicIntegerArray parents, int node )
+    {
+        int parent = parents.get( node );
+        while ( parent != node )
+        {
+            int grandParent = parents.get( parent );
+            if ( grandParent != parent )
+            {
+                parents.compareAndSet( node, parent, grandParent );
+            }
+            node = grandParent;
+            parent = parents.get( node );
+        }
+        return node;
+    }
+}
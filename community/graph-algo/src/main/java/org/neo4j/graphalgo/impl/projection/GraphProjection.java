@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.projection;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.unsafe.impl.batchimport.cache.IntArray;
+import org.neo4j.unsafe.impl.batchimport.cache.LongArray;
+
+/**
+ * A read-only graph in compressed sparse row form. Nodes are addressed by their projected index, a dense int in
+ * the range [0, {@link #nodeCount()}), which {@link #toNodeId(int)} and {@link #toProjectedNode(long)} translate
+ * to and from node ids. The neighbours of a node are stored contiguously, once in outgoing and once in incoming
+ * direction, so that algorithms can iterate over either without touching the store.
+ * <p>
+ * Instances are created by {@link GraphProjectionLoader} and must be {@link #close() closed} to release the
+ * memory of their arrays, which may live off-heap.
+ */
+public class GraphProjection implements AutoCloseable
+{
+    public static final int NOT_PROJECTED = -1;
+
+    private final int nodeCount;
+    private final long relationshipCount;
+    private final LongArray nodeIds;
+    private final IntArray projectedNodes;
+    private final LongArray outgoingOffsets;
+    private final IntArray outgoingTargets;
+    private final LongArray incomingOffsets;
+    private final IntArray incomingTargets;
+
+    GraphProjection( int nodeCount, long relationshipCount, LongArray nodeIds, IntArray projectedNodes,
+            LongArray outgoingOffsets, IntArray outgoingTargets, LongArray incomingOffsets, IntArray incomingTargets )
+    {
+        this.nodeCount = nodeCount;
+        this.relationshipCount = relationshipCount;
+        this.nodeIds = nodeIds;
+        this.projectedNodes = projectedNodes;
+        this.outgoingOffsets = outgoingOffsets;
+        this.outgoingTargets = outgoingTargets;
+        this.incomingOffsets = incomingOffsets;
+        this.incomingTargets = incomingTargets;
+    }
+
+    public int nodeCount()
+    {
+        return nodeCount;
+    }
+
+    public long relationshipCount()
+    {
+        return relationshipCount;
+    }
+
+    public long toNodeId( int node )
+    {
+        return nodeIds.get( node );
+    }
+
+    /**
+     * @return the projected index of the node with the given id, or {@link #NOT_PROJECTED} if that node isn't
+     * part of this projection.
+     */
+    public int toProjectedNode( long nodeId )
+    {
+        return nodeId >= 0 && nodeId < projectedNodes.length() ? projectedNodes.get( nodeId ) : NOT_PROJECTED;
+    }
+
+    public int degree( int node, Direction direction )
+    {
+        switch ( direction )
+        {
+        case OUTGOING:
+            return degree( outgoingOffsets, node );
+        case INCOMING:
+            return degree( incomingOffsets, node );
+        default:
+            return degree( outgoingOffsets, node ) + degree( incomingOffsets, node );
+        }
+    }
+
+    /**
+     * @return the projected index of the {@code index}:th neighbour of {@code node} in the given direction, where
+     * {@code index} is less than {@link #degree(int, Direction)}. For {@link Direction#BOTH} the outgoing
+     * neighbours come before the incoming ones.
+     */
+    public int neighbour( int node, int index, Direction direction )
+    {
+        switch ( direction )
+        {
+        case OUTGOING:
+            return outgoingTargets.get( outgoingOffsets.get( node ) + index );
+        case INCOMING:
+            return incomingTargets.get( incomingOffsets.get( node ) + index );
+        default:
+            int outgoing = degree( outgoingOffsets, node );
+            return index < outgoing
+                    ? outgoingTargets.get( outgoingOffsets.get( node ) + index )
+                    : incomingTargets.get( incomingOffsets.get( node ) + index - outgoing );
+        }
+    }
+
+    private static int degree( LongArray offsets, int node )
+    {
+        return (int) (offsets.get( node + 1 ) - offsets.get( node ));
+    }
+
+    @Override
+    public void close()
+    {
+        nodeIds.close();
+        projectedNodes.close();
+        outgoingOffsets.close();
+        outgoingTargets.close();
+        incomingOffsets.close();
+        incomingTargets.close();
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.projection;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.api.Statement;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.impl.store.NeoStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.state.NeoStoreProvider;
+import org.neo4j.unsafe.impl.batchimport.cache.IntArray;
+import org.neo4j.unsafe.impl.batchimport.cache.LongArray;
+import org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory;
+
+import static org.neo4j.graphalgo.impl.projection.GraphProjection.NOT_PROJECTED;
+import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_LABEL;
+import static org.neo4j.kernel.api.StatementConstants.NO_SUCH_RELATIONSHIP_TYPE;
+
+/**
+ * Loads a {@link GraphProjection} of the nodes with a given label, or of all nodes, and the relationships of
+ * the given types between them.
+ * <p>
+ * The nodes are read through the kernel in a single transaction. The relationships are then read by scanning the
+ * relationship store in batches of consecutive records, with {@code concurrency} threads each reading a batch
+ * page by page into a shared edge list, which is finally sorted into the outgoing and incoming adjacency arrays.
+ * Relationships created or deleted while the store is scanned may or may not be part of the projection.
+ */
+public class GraphProjectionLoader
+{
+    static final int RELATIONSHIP_BATCH_SIZE = 1 << 16;
+
+    private final GraphDatabaseAPI db;
+    private final NumberArrayFactory arrayFactory;
+    private final int concurrency;
+
+    public GraphProjectionLoader( GraphDatabaseAPI db, NumberArrayFactory arrayFactory, int concurrency )
+    {
+        this.db = db;
+        this.arrayFactory = arrayFactory;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @param label the label of the nodes to project, or {@code null} for all nodes.
+     * @param relationshipTypes the types of the relationships to project, or none for all types.
+     * Unknown labels and types match nothing.
+     */
+    public GraphProjection load( String label, String... relationshipTypes )
+    {
+        NeoStore neoStore = db.getDependencyResolver().resolveDependency( NeoStoreProvider.class ).evaluate();
+        long highNodeId = Math.max( 1, neoStore.getNodeStore().getHighId() );
+        LongArray nodeIds = arrayFactory.newLongArray( highNodeId, -1 );
+        IntArray projectedNodes = arrayFactory.newIntArray( highNodeId, NOT_PROJECTED );
+        int nodeCount;
+        boolean[] types;
+        try ( Transaction tx = db.beginTx();
+              Statement statement = db.getDependencyResolver()
+                      .resolveDependency( ThreadToStatementContextBridge.class ).instance() )
+        {
+            ReadOperations read = statement.readOperations();
+            nodeCount = loadNodes( read, label, nodeIds, projectedNodes );
+            types = relationshipTypes.length == 0 ? null : typeFilter( read, relationshipTypes );
+            tx.success();
+        }
+
+        RelationshipStore relationshipStore = neoStore.getRelationshipStore();
+        // the high id grows while relationships are created, so the scan must not go beyond what edges can hold
+        long highRelationshipId = relationshipStore.getHighId();
+        LongArray edges = arrayFactory.newLongArray( Math.max( 1, highRelationshipId ), -1 );
+        try
+        {
+            long edgeCount = loadEdges( relationshipStore, highRelationshipId, projectedNodes, types, edges );
+            LongArray outgoingOffsets = arrayFactory.newLongArray( nodeCount + 1, 0 );
+            IntArray outgoingTargets = arrayFactory.newIntArray( Math.max( 1, edgeCount ), NOT_PROJECTED );
+            LongArray incomingOffsets = arrayFactory.newLongArray( nodeCount + 1, 0 );
+            IntArray incomingTargets = arrayFactory.newIntArray( Math.max( 1, edgeCount ), NOT_PROJECTED );
+            buildAdjacency( edges, edgeCount, nodeCount, outgoingOffsets, outgoingTargets, true );
+            buildAdjacency( edges, edgeCount, nodeCount, incomingOffsets, incomingTargets, false );
+            return new GraphProjection( nodeCount, edgeCount, nodeIds, projectedNodes,
+                    outgoingOffsets, outgoingTargets, incomingOffsets, incomingTargets );
+        }
+        finally
+        {
+            edges.close();
+        }
+    }
+
+    private int loadNodes( ReadOperations read, String label, LongArray nodeIds, IntArray projectedNodes )
+    {
+        PrimitiveLongIterator nodes;
+        if ( label == null )
+        {
+            nodes = read.nodesGetAll();
+        }
+        else
+        {
+            int labelId = read.labelGetForName( label );
+            if ( labelId == NO_SUCH_LABEL )
+            {
+                return 0;
+            }
+            nodes = read.nodesGetForLabel( labelId );
+        }
+
+        int nodeCount = 0;
+        while ( nodes.hasNext() )
+        {
+            long nodeId = nodes.next();
+            if ( nodeId < projectedNodes.length() )
+            {
+                nodeIds.set( nodeCount, nodeId );
+                projectedNodes.set( nodeId, nodeCount++ );
+            }
+        }
+        return nodeCount;
+    }
+
+    private static boolean[] typeFilter( ReadOperations read, String[] relationshipTypes )
+    {
+        int[] typeIds = new int[relationshipTypes.length];
+        int highestTypeId = -1;
+        for ( int i = 0; i < relationshipTypes.length; i++ )
+        {
+            typeIds[i] = read.relationshipTypeGetForName( relationshipTypes[i] );
+            highestTypeId = Math.max( highestTypeId, typeIds[i] );
+        }
+        boolean[] types = new boolean[highestTypeId + 1];
+        for ( int typeId : typeIds )
+        {
+            if ( typeId != NO_SUCH_RELATIONSHIP_TYPE )
+            {
+                types[typeId] = true;
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Scans the relationship store and puts every relationship of a wanted type between two projected nodes into
+     * {@code edges}, as the projected index of its start node in the high and of its end node in the low 32 bits.
+     * Each thread collects the edges of one batch locally and then appends them to {@code edges}. Number arrays
+     * are not thread safe, they keep track of their size and may allocate lazily, so the appending is serialized.
+     *
+     * @return the number of edges put into {@code edges}.
+     */
+    private long loadEdges( final RelationshipStore relationshipStore, long highRelationshipId,
+            final IntArray projectedNodes, final boolean[] types, final LongArray edges )
+    {
+        final AtomicLong edgeCount = new AtomicLong();
+        ParallelBatches.run( concurrency, highRelationshipId, RELATIONSHIP_BATCH_SIZE,
+                new ParallelBatches.Task()
+                {
+                    @Override
+                    public void run( long from, long to )
+                    {
+                        final long[] batch = new long[(int) (to - from)];
+                        final int[] size = new int[1];
+                        relationshipStore.scan( from, to, new RelationshipRecord( -1 ),
+                                new Visitor<RelationshipRecord,RuntimeException>()
+                                {
+                                    @Override
+                                    public boolean visit( RelationshipRecord record )
+                                    {
+                                        int type = record.getType();
+                                        if ( types != null && (type >= types.length || !types[type]) )
+                                        {
+                                            return false;
+                                        }
+                                        long startNode = projectedNode( projectedNodes, record.getFirstNode() );
+                                        long endNode = projectedNode( projectedNodes, record.getSecondNode() );
+                                        if ( startNode != NOT_PROJECTED && endNode != NOT_PROJECTED )
+                                        {
+                                            batch[size[0]++] = (startNode << 32) | endNode;
+                                        }
+                                        return false;
+                                    }
+                                } );
+
+                        synchronized ( edges )
+                        {
+                            long position = edgeCount.getAndAdd( size[0] );
+                            for ( int i = 0; i < size[0]; i++ )
+                            {
+                                edges.set( position + i, batch[i] );
+                            }
+                        }
+                    }
+                } );
+        return edgeCount.get();
+    }
+
+    private static long projectedNode( IntArray projectedNodes, long nodeId )
+    {
+        return nodeId < projectedNodes.length() ? projectedNodes.get( nodeId ) : NOT_PROJECTED;
+    }
+
+    /**
+     * Counting sort of the edges by their start node, or end node if not {@code outgoing}. Afterwards the
+     * neighbours of node {@code n} are found in {@code targets} from {@code offsets[n]} up to {@code offsets[n+1]}.
+     */
+    private static void buildAdjacency( LongArray edges, long edgeCount, int nodeCount, LongArray offsets,
+            IntArray targets, boolean outgoing )
+    {
+        for ( long i = 0; i < edgeCount; i++ )
+        {
+            int node = source( edges.get( i ), outgoing );
+            offsets.set( node, offsets.get( node ) + 1 );
+        }
+        // make every offset point past the end of the neighbours of its node, then fill each node backwards
+        long end = 0;
+        for ( int node = 0; node < nodeCount; node++ )
+        {
+            end += offsets.get( node );
+            offsets.set( node, end );
+        }
+        offsets.set( nodeCount, edgeCount );
+        for ( long i = 0; i < edgeCount; i++ )
+        {
+            long edge = edges.get( i );
+            int node = source( edge, outgoing );
+            long position = offsets.get( node ) - 1;
+            offsets.set( node, position );
+            targets.set( position, source( edge, !outgoing ) );
+        }
+    }
+
+    private static int source( long edge, boolean outgoing )
+    {
+        return outgoing ? (int) (edge >>> 32) : (int) edge;
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.projection;
+
+import java.util.Arrays;
+
+import static org.neo4j.graphdb.Direction.INCOMING;
+import static org.neo4j.graphdb.Direction.OUTGOING;
+
+/**
+ * PageRank over a {@link GraphProjection}, following relationships in their outgoing direction. Every iteration
+ * computes the rank of each node as {@code (1 - d) + d * sum(rank(m) / outDegree(m))} over the nodes {@code m}
+ * with a relationship to it, where {@code d} is the damping factor. Both halves of an iteration run in parallel
+ * over batches of nodes.
+ */
+public class PageRank
+{
+    static final int NODE_BATCH_SIZE = 10_000;
+
+    private final GraphProjection graph;
+    private final int concurrency;
+
+    public PageRank( GraphProjection graph, int concurrency )
+    {
+        this.graph = graph;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * @return the rank of every node, indexed by projected node.
+     */
+    public double[] compute( int iterations, final double dampingFactor )
+    {
+        final int nodeCount = graph.nodeCount();
+        final double[] ranks = new double[nodeCount];
+        final double[] contributions = new double[nodeCount];
+        Arrays.fill( ranks, 1d );
+
+        for ( int iteration = 0; iteration < iterations; iteration++ )
+        {
+            ParallelBatches.run( concurrency, nodeCount, NODE_BATCH_SIZE, new ParallelBatches.Task()
+            {
+                @Override
+                public void run( long from, long to )
+                {
+                    for ( int node = (int) from; node < to; node++ )
+                    {
+                        int degree = graph.degree( node, OUTGOING );
+                        contributions[node] = degree == 0 ? 0d : ranks[node] / degree;
+                    }
+                }
+            } );
+            ParallelBatches.run( concurrency, nodeCount, NODE_BATCH_SIZE, new ParallelBatches.Task()
+            {
+                @Override
+                public void run( long from, long to )
+                {
+                    for ( int node = (int) from; node < to; node++ )
+                    {
+                        double sum = 0d;
+                        int degree = graph.degree( node, INCOMING );
+                        for ( int i = 0; i < degree; i++ )
+                        {
+                            sum += contributions[graph.neighbour( node, i, INCOMING )];
+                        }
+                        ranks[node] = (1 - dampingFactor) + dampingFactor * sum;
+                    }
+                }
+            } );
+        }
+        return ranks;
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.projection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a task over the range [0, count) in batches, using a fixed number of threads that each pick the next
+ * unprocessed batch until there are none left.
+ */
+class ParallelBatches
+{
+    interface Task
+    {
+        void run( long from, long to ) throws Exception;
+    }
+
+    private ParallelBatches()
+    {
+    }
+
+    static void run( int concurrency, final long count, final long batchSize, final Task task )
+    {
+        final AtomicLong nextBatch = new AtomicLong();
+        int threads = (int) Math.max( 1, Math.min( concurrency, (count + batchSize - 1) / batchSize ) );
+        ExecutorService executor = Executors.newFixedThreadPool( threads );
+        try
+        {
+            List<Future<Void>> futures = new ArrayList<>( threads );
+            for ( int i = 0; i < threads; i++ )
+            {
+                futures.add( executor.submit( new Callable<Void>()
+                {
+                    @Override
+                    public Void call() throws Exception
+                    {
+                        long from;
+                        while ( (from = nextBatch.getAndAdd( batchSize )) < count )
+                        {
+                            task.run( from, Math.min( count, from + batchSize ) );
+                        }
+                        return null;
+                    }
+                } ) );
+            }
+            for ( Future<Void> future : futures )
+            {
+                future.get();
+            }
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException( e.getCause() );
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+}
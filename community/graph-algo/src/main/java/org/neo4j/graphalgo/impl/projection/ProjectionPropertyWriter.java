@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.projection;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+
+/**
+ * Writes the results of algorithms run on a {@link GraphProjection} back to the nodes they were computed for, as
+ * properties. The nodes are written in batches of {@code batchSize}, each in a transaction of its own, by
+ * {@code concurrency} threads. Since the batches don't share any nodes, the transactions don't contend for locks.
+ */
+public class ProjectionPropertyWriter
+{
+    private final GraphDatabaseService db;
+    private final GraphProjection graph;
+    private final int concurrency;
+    private final int batchSize;
+
+    public ProjectionPropertyWriter( GraphDatabaseService db, GraphProjection graph, int concurrency, int batchSize )
+    {
+        this.db = db;
+        this.graph = graph;
+        this.concurrency = concurrency;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sets {@code values[n]} as the {@code key} property of every projected node {@code n}.
+     */
+    public void write( final String key, final double[] values )
+    {
+        write( new Batch()
+        {
+            @Override
+            public void write( int node )
+            {
+                db.getNodeById( graph.toNodeId( node ) ).setProperty( key, values[node] );
+            }
+        } );
+    }
+
+    /**
+     * Sets the node id of {@code projectedNodes[n]} as the {@code key} property of every projected node {@code n},
+     * for example the representative node of the component found by {@link ConnectedComponents}.
+     */
+    public void writeNodeIds( final String key, final int[] projectedNodes )
+    {
+        write( new Batch()
+        {
+            @Override
+            public void write( int node )
+            {
+                db.getNodeById( graph.toNodeId( node ) ).setProperty( key, graph.toNodeId( projectedNodes[node] ) );
+            }
+        } );
+    }
+
+    private void write( final Batch batch )
+    {
+        ParallelBatches.run( concurrency, graph.nodeCount(), batchSize, new ParallelBatches.Task()
+        {
+            @Override
+            public void run( long from, long to )
+            {
+                try ( Transaction tx = db.beginTx() )
+                {
+                    for ( int node = (int) from; node < to; node++ )
+                    {
+                        batch.write( node );
+                    }
+                    tx.success();
+                }
+            }
+        } );
+    }
+
+    private interface Batch
+    {
+        void write( int node );
+    }
+}
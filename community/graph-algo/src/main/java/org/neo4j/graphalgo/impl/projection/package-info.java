@@ -17,11 +17,11 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.consistency.store.paging;
-
-enum TemporalUtility
-{
-    UNKNOWN,
-    SHORT_TERM,
-    LONG_TERM,
-}
+/**
+ * A read-only, compressed sparse row projection of the graph, or of the part of it that has a given label and
+ * relationship types, together with analytical algorithms that run multi-threaded on it. The projection is
+ * loaded by scanning the relationship store in parallel and keeps its arrays off-heap where possible, so that
+ * iterative algorithms like PageRank don't go through the object cache for every iteration. Results are
+ * written back as node properties in batched transactions.
+ */
+package org.neo4j.graphalgo.impl.projection;
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of {@code long} ids ordered by {@code double} priorities, kept in two parallel primitive arrays.
+ * There is no decrease-key; a caller that finds a cheaper way to an id simply inserts it again and skips the
+ * stale entries when they come out of the heap. That costs a few more entries, but no id to position map.
+ */
+public class LongDoubleHeap
+{
+    private long[] ids;
+    private double[] priorities;
+    private int size;
+
+    public LongDoubleHeap()
+    {
+        this( 64 );
+    }
+
+    public LongDoubleHeap( int initialCapacity )
+    {
+        this.ids = new long[Math.max( initialCapacity, 1 )];
+        this.priorities = new double[ids.length];
+    }
+
+    public void insert( long id, double priority )
+    {
+        if ( size == ids.length )
+        {
+            ids = Arrays.copyOf( ids, size * 2 );
+            priorities = Arrays.copyOf( priorities, size * 2 );
+        }
+
+        int position = size++;
+        while ( position > 0 )
+        {
+            int parent = (position - 1) >>> 1;
+            if ( priorities[parent] <= priority )
+            {
+                break;
+            }
+            ids[position] = ids[parent];
+            priorities[position] = priorities[parent];
+            position = parent;
+        }
+        ids[position] = id;
+        priorities[position] = priority;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public long peekId()
+    {
+        assertNotEmpty();
+        return ids[0];
+    }
+
+    public double peekPriority()
+    {
+        assertNotEmpty();
+        return priorities[0];
+    }
+
+    /**
+     * Removes the entry with the lowest priority.
+     *
+     * @return the id of the removed entry.
+     */
+    public long removeMin()
+    {
+        assertNotEmpty();
+        long min = ids[0];
+        size--;
+
+        long id = ids[size];
+        double priority = priorities[size];
+        int position = 0;
+        int child;
+        while ( (child = 2 * position + 1) < size )
+        {
+            if ( child + 1 < size && priorities[child + 1] < priorities[child] )
+            {
+                child++;
+            }
+            if ( priority <= priorities[child] )
+            {
+                break;
+            }
+            ids[position] = ids[child];
+            priorities[position] = priorities[child];
+            position = child;
+        }
+        ids[position] = id;
+        priorities[position] = priority;
+        return min;
+    }
+
+    public void clear()
+    {
+        size = 0;
+    }
+
+    private void assertNotEmpty()
+    {
+        if ( size == 0 )
+        {
+            throw new NoSuchElementException( "Heap is empty" );
+        }
+    }
+}
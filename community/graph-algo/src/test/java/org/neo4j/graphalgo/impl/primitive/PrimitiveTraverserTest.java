@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.primitive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import common.Neo4jAlgoTestCase;
+import org.junit.Test;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.PathExpanders;
+import org.neo4j.graphdb.traversal.BranchOrderingPolicies;
+import org.neo4j.graphdb.traversal.BranchOrderingPolicy;
+import org.neo4j.graphdb.traversal.Evaluators;
+import org.neo4j.graphdb.traversal.Uniqueness;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.api.Statement;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PrimitiveTraverserTest extends Neo4jAlgoTestCase
+{
+    @Test
+    public void shouldVisitSameBranchesInSameOrderAsTraversalFramework()
+    {
+        // Layout:
+        // (a)-->(b)-->(c)-->(d)
+        //  |     ^     |
+        //  v     |     v
+        // (e)-->(f)<--(g)-->(a)
+        graph.makeEdgeChain( "a,b,c,d" );
+        graph.makeEdgeChain( "a,e,f,b" );
+        graph.makeEdgeChain( "c,g,f" );
+        graph.makeEdge( "g", "a" );
+
+        try ( Statement statement = statement() )
+        {
+            for ( BranchOrderingPolicy order : new BranchOrderingPolicy[] {
+                    BranchOrderingPolicies.PREORDER_BREADTH_FIRST, BranchOrderingPolicies.PREORDER_DEPTH_FIRST} )
+            {
+                for ( Uniqueness uniqueness : new Uniqueness[] {Uniqueness.NODE_GLOBAL, Uniqueness.RELATIONSHIP_GLOBAL,
+                        Uniqueness.NODE_PATH, Uniqueness.RELATIONSHIP_PATH} )
+                {
+                    for ( Direction direction : Direction.values() )
+                    {
+                        List<String> expected = new ArrayList<>();
+                        for ( Path path : graphDb.traversalDescription().order( order ).uniqueness( uniqueness )
+                                .expand( PathExpanders.forDirection( direction ) )
+                                .evaluator( Evaluators.toDepth( 4 ) ).traverse( graph.getNode( "a" ) ) )
+                        {
+                            expected.add( getPathDef( path ) );
+                        }
+
+                        List<String> actual = new ArrayList<>();
+                        PrimitiveTraverser traverser = new PrimitiveTraverser(
+                                new PrimitiveExpander( statement.readOperations(), direction ), order, uniqueness,
+                                PrimitiveEvaluators.toDepth( 4 ) );
+                        try ( PrimitiveTraversalCursor cursor = traverser.traverse( id( "a" ) ) )
+                        {
+                            while ( cursor.next() )
+                            {
+                                Path path = cursor.path().toPath( graphDb );
+                                assertEquals( path.length(), cursor.length() );
+                                assertEquals( path.endNode().getId(), cursor.endNode() );
+                                actual.add( getPathDef( path ) );
+                            }
+                        }
+
+                        assertEquals( order + " " + uniqueness + " " + direction, expected, actual );
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldOnlyIncludeBranchesAtDepthAndStartOverOnReset()
+    {
+        graph.makeEdgeChain( "a,b,c" );
+        graph.makeEdgeChain( "a,d,e,f" );
+
+        try ( Statement statement = statement() )
+        {
+            PrimitiveTraverser traverser = new PrimitiveTraverser(
+                    new PrimitiveExpander( statement.readOperations(), Direction.OUTGOING ),
+                    BranchOrderingPolicies.PREORDER_BREADTH_FIRST, Uniqueness.NODE_GLOBAL,
+                    PrimitiveEvaluators.atDepth( 2 ) );
+            try ( PrimitiveTraversalCursor cursor = traverser.traverse( id( "a" ) ) )
+            {
+                for ( int round = 0; round < 2; round++ )
+                {
+                    assertTrue( cursor.next() );
+                    assertPathDef( cursor.path().toPath( graphDb ), "a", "b", "c" );
+                    assertTrue( cursor.next() );
+                    assertPathDef( cursor.path().toPath( graphDb ), "a", "d", "e" );
+                    assertFalse( cursor.next() );
+                    cursor.reset();
+                }
+            }
+        }
+    }
+
+    private Statement statement()
+    {
+        return ((GraphDatabaseAPI) graphDb).getDependencyResolver()
+                .resolveDependency( ThreadToStatementContextBridge.class ).instance();
+    }
+
+    private long id( String name )
+    {
+        return graph.getNode( name ).getId();
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.projection;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.DatabaseRule;
+import org.neo4j.test.ImpermanentDatabaseRule;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.graphdb.Direction.BOTH;
+import static org.neo4j.graphdb.Direction.INCOMING;
+import static org.neo4j.graphdb.Direction.OUTGOING;
+import static org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory.AUTO;
+
+public class GraphProjectionTest
+{
+    private static final Label PERSON = DynamicLabel.label( "Person" );
+    private static final RelationshipType KNOWS = DynamicRelationshipType.withName( "KNOWS" );
+    private static final RelationshipType LIKES = DynamicRelationshipType.withName( "LIKES" );
+
+    @Rule
+    public final DatabaseRule db = new ImpermanentDatabaseRule();
+
+    @Test
+    public void shouldProjectNodesWithLabelAndRelationshipsOfTypes() throws Exception
+    {
+        // GIVEN
+        long a, b, c, d;
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node nodeA = db.createNode( PERSON );
+            Node nodeB = db.createNode( PERSON );
+            Node nodeC = db.createNode( PERSON );
+            Node nodeD = db.createNode();
+            nodeA.createRelationshipTo( nodeB, KNOWS );
+            nodeA.createRelationshipTo( nodeC, KNOWS );
+            nodeC.createRelationshipTo( nodeB, KNOWS );
+            nodeA.createRelationshipTo( nodeB, LIKES );
+            nodeA.createRelationshipTo( nodeD, KNOWS );
+            a = nodeA.getId();
+            b = nodeB.getId();
+            c = nodeC.getId();
+            d = nodeD.getId();
+            tx.success();
+        }
+
+        // WHEN
+        try ( GraphProjection graph = new GraphProjectionLoader( db.getGraphDatabaseAPI(), AUTO, 2 )
+                .load( "Person", "KNOWS" ) )
+        {
+            // THEN
+            assertEquals( 3, graph.nodeCount() );
+            assertEquals( 3, graph.relationshipCount() );
+            assertEquals( GraphProjection.NOT_PROJECTED, graph.toProjectedNode( d ) );
+            assertEquals( asSet( b, c ), neighbours( graph, a, OUTGOING ) );
+            assertEquals( asSet( a, c ), neighbours( graph, b, INCOMING ) );
+            assertEquals( asSet( a, b ), neighbours( graph, c, BOTH ) );
+            assertEquals( 0, graph.degree( graph.toProjectedNode( b ), OUTGOING ) );
+        }
+    }
+
+    @Test
+    public void shouldComputeAndWriteBackPageRankAndComponents() throws Exception
+    {
+        // GIVEN two components, a -> b <- c and d -> e
+        long[] nodes = new long[5];
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node[] created = new Node[nodes.length];
+            for ( int i = 0; i < nodes.length; i++ )
+            {
+                created[i] = db.createNode();
+                nodes[i] = created[i].getId();
+            }
+            created[0].createRelationshipTo( created[1], KNOWS );
+            created[2].createRelationshipTo( created[1], KNOWS );
+            created[3].createRelationshipTo( created[4], KNOWS );
+            tx.success();
+        }
+
+        // WHEN
+        try ( GraphProjection graph = new GraphProjectionLoader( db.getGraphDatabaseAPI(), AUTO, 2 ).load( null ) )
+        {
+            ProjectionPropertyWriter writer = new ProjectionPropertyWriter( db.getGraphDatabaseService(), graph, 2, 2 );
+            writer.write( "rank", new PageRank( graph, 2 ).compute( 10, 0.85 ) );
+            writer.writeNodeIds( "component", new ConnectedComponents( graph, 2 ).compute() );
+            writer.write( "betweenness", new BrandesBetweenness( graph, 2 ).compute( BOTH ) );
+        }
+
+        // THEN
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node hub = db.getGraphDatabaseService().getNodeById( nodes[1] );
+            Node leaf = db.getGraphDatabaseService().getNodeById( nodes[0] );
+            assertEquals( 0.15 + 0.85 * 0.15 * 2, (double) hub.getProperty( "rank" ), 0.0001 );
+            assertEquals( 0.15, (double) leaf.getProperty( "rank" ), 0.0001 );
+            assertEquals( 1d, (double) hub.getProperty( "betweenness" ), 0.0001 );
+            assertEquals( 0d, (double) leaf.getProperty( "betweenness" ), 0.0001 );
+
+            Object first = leaf.getProperty( "component" );
+            for ( int i = 1; i < 3; i++ )
+            {
+                assertEquals( first, db.getGraphDatabaseService().getNodeById( nodes[i] ).getProperty( "component" ) );
+            }
+            Object second = db.getGraphDatabaseService().getNodeById( nodes[3] ).getProperty( "component" );
+            assertEquals( second, db.getGraphDatabaseService().getNodeById( nodes[4] ).getProperty( "component" ) );
+            assertTrue( !first.equals( second ) );
+            tx.success();
+        }
+    }
+
+    private static Set<Long> neighbours( GraphProjection graph, long nodeId, Direction direction )
+    {
+        int node = graph.toProjectedNode( nodeId );
+        Set<Long> neighbours = new HashSet<>();
+        for ( int i = 0; i < graph.degree( node, direction ); i++ )
+        {
+            neighbours.add( graph.toNodeId( graph.neighbour( node, i, direction ) ) );
+        }
+        return neighbours;
+    }
+
+    private static Set<Long> asSet( Long... nodeIds )
+    {
+        return new HashSet<>( asList( nodeIds ) );
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.path;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import common.Neo4jAlgoTestCase;
+import org.junit.Test;
+
+import org.neo4j.graphalgo.impl.primitive.PrimitiveAStar;
+import org.neo4j.graphalgo.impl.primitive.PrimitiveDijkstra;
+import org.neo4j.graphalgo.impl.primitive.PrimitiveExpander;
+import org.neo4j.graphalgo.impl.primitive.PrimitivePath;
+import org.neo4j.graphalgo.impl.primitive.PrimitiveShortestPath;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Path;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.api.Statement;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.neo4j.graphdb.Direction.BOTH;
+import static org.neo4j.graphdb.Direction.INCOMING;
+import static org.neo4j.graphdb.Direction.OUTGOING;
+
+public class TestPrimitivePathFinders extends Neo4jAlgoTestCase
+{
+    @Test
+    public void shouldFindSingleShortestPath()
+    {
+        // Layout:
+        // (s)-->(a)-->(b)-->(t)
+        //   \               ^
+        //    -->(c)-->(d)--/
+        //         \
+        //          -->(e)-->(f)
+        graph.makeEdgeChain( "s,a,b,t" );
+        graph.makeEdgeChain( "s,c,d,t" );
+        graph.makeEdgeChain( "c,e,f" );
+
+        try ( Statement statement = statement() )
+        {
+            PrimitiveShortestPath finder = new PrimitiveShortestPath( expander( statement, OUTGOING ), 15 );
+
+            Path path = toPath( finder.findSinglePath( id( "s" ), id( "t" ) ) );
+
+            assertEquals( 3, path.length() );
+            assertEquals( graph.getNode( "s" ), path.startNode() );
+            assertEquals( graph.getNode( "t" ), path.endNode() );
+        }
+    }
+
+    @Test
+    public void shouldFindAllShortestPaths()
+    {
+        // Layout, where (s) and (t) are also connected to each other and both connected to (x):
+        //    -->(a)--
+        //   /        v
+        // (s)-->(b)->(t)
+        //   \        ^
+        //    -->(c)--
+        graph.makeEdgeChain( "s,a,t" );
+        graph.makeEdgeChain( "s,b,t" );
+        graph.makeEdgeChain( "s,c,t" );
+        graph.makeEdge( "s", "t" );
+        graph.makeEdge( "s", "x" );
+        graph.makeEdge( "t", "x" );
+
+        try ( Statement statement = statement() )
+        {
+            PrimitiveShortestPath finder = new PrimitiveShortestPath( expander( statement, BOTH ), 15 );
+
+            assertPaths( toPaths( finder.findAllPaths( id( "s" ), id( "t" ) ) ), "s,t" );
+            assertPaths( toPaths( finder.findAllPaths( id( "a" ), id( "b" ) ) ), "a,s,b", "a,t,b" );
+            assertPaths( toPaths( finder.findAllPaths( id( "x" ), id( "a" ) ) ), "x,s,a", "x,t,a" );
+        }
+    }
+
+    @Test
+    public void shouldRespectDirectionAndMaxDepth()
+    {
+        graph.makeEdgeChain( "a,b,c,d" );
+
+        try ( Statement statement = statement() )
+        {
+            assertNull( new PrimitiveShortestPath( expander( statement, INCOMING ), 15 )
+                    .findSinglePath( id( "a" ), id( "d" ) ) );
+            assertNull( new PrimitiveShortestPath( expander( statement, OUTGOING ), 2 )
+                    .findSinglePath( id( "a" ), id( "d" ) ) );
+            assertPathDef( toPath( new PrimitiveShortestPath( expander( statement, INCOMING ), 3 )
+                    .findSinglePath( id( "d" ), id( "a" ) ) ), "d", "c", "b", "a" );
+            assertPathDef( toPath( new PrimitiveShortestPath( expander( statement, OUTGOING ), 3 )
+                    .findSinglePath( id( "a" ), id( "a" ) ) ), "a" );
+        }
+    }
+
+    @Test
+    public void shouldFindCheapestPathWithDijkstraAndAStar()
+    {
+        // Layout:
+        // (s)--[1]-->(a)--[1]-->(b)--[1]-->(t)
+        //   \                               ^
+        //    ------------[5]---------------/
+        graph.makeEdge( "s", "a", "cost", 1d );
+        graph.makeEdge( "a", "b", "cost", 1 );
+        graph.makeEdge( "b", "t", "cost", (short) 1 );
+        graph.makeEdge( "s", "t", "cost", 5f );
+
+        try ( Statement statement = statement() )
+        {
+            ReadOperations read = statement.readOperations();
+            int cost = read.propertyKeyGetForName( "cost" );
+
+            PrimitivePath cheapest = new PrimitiveDijkstra( expander( statement, OUTGOING ), cost, 1d )
+                    .findSinglePath( id( "s" ), id( "t" ) );
+            assertEquals( 3d, cheapest.weight(), 0d );
+            assertPathDef( toPath( cheapest ), "s", "a", "b", "t" );
+
+            PrimitivePath estimated = new PrimitiveAStar( expander( statement, OUTGOING ), cost, 1d,
+                    new PrimitiveAStar.Estimator()
+                    {
+                        @Override
+                        public double estimate( long node, long goal )
+                        {
+                            return node == goal ? 0d : 1d;
+                        }
+                    } ).findSinglePath( id( "s" ), id( "t" ) );
+            assertEquals( cheapest, estimated );
+
+            assertNull( new PrimitiveDijkstra( expander( statement, INCOMING ), cost, 1d )
+                    .findSinglePath( id( "s" ), id( "t" ) ) );
+        }
+    }
+
+    private Statement statement()
+    {
+        return ((GraphDatabaseAPI) graphDb).getDependencyResolver()
+                .resolveDependency( ThreadToStatementContextBridge.class ).instance();
+    }
+
+    private PrimitiveExpander expander( Statement statement, Direction direction )
+    {
+        return PrimitiveExpander.forTypeNames( statement.readOperations(), direction, MyRelTypes.R1.name() );
+    }
+
+    private long id( String name )
+    {
+        return graph.getNode( name ).getId();
+    }
+
+    private Path toPath( PrimitivePath path )
+    {
+        return path.toPath( graphDb );
+    }
+
+    private List<Path> toPaths( List<PrimitivePath> paths )
+    {
+        List<Path> result = new ArrayList<>();
+        for ( PrimitivePath path : paths )
+        {
+            result.add( toPath( path ) );
+        }
+        return result;
+    }
+}
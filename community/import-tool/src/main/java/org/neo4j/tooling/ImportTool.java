@@ -23,8 +23,10 @@ import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map.Entry;
 
 import org.neo4j.function.Function;
@@ -35,6 +37,8 @@ import org.neo4j.helpers.collection.IterableWrapper;
 import org.neo4j.helpers.collection.Iterables;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.api.impl.index.DirectoryFactory;
+import org.neo4j.kernel.api.impl.index.LuceneSchemaIndexProvider;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.storemigration.FileOperation;
 import org.neo4j.kernel.impl.storemigration.StoreFile;
@@ -48,6 +52,7 @@ import org.neo4j.unsafe.impl.batchimport.BatchImporter;
 import org.neo4j.unsafe.impl.batchimport.ParallelBatchImporter;
 import org.neo4j.unsafe.impl.batchimport.input.Collectors;
 import org.neo4j.unsafe.impl.batchimport.input.Input;
+import org.neo4j.unsafe.impl.batchimport.input.InputIndex;
 import org.neo4j.unsafe.impl.batchimport.input.InputNode;
 import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
 import org.neo4j.unsafe.impl.batchimport.input.csv.Configuration;
@@ -136,7 +141,26 @@ public class ImportTool
                 "<max number of bad entries>",
                 "Number of bad entries before the import is considered failed. This tolerance threshold is "
                         + "about relationships refering to missing nodes. Format errors in input data are "
-                        + "still treated as errors" );
+                        + "still treated as errors" ),
+        INDEXES( "indexes", null,
+                "\"<Label1>:<property1>" + MULTI_FILE_DELIMITER + "<Label2>:<property2>" + MULTI_FILE_DELIMITER
+                        + "...\"",
+                "Schema indexes to build as part of the import, so that they are online when the database "
+                        + "starts, instead of being populated from the whole node store at that point." ),
+        UNIQUE_CONSTRAINTS( "unique-constraints", null,
+                "\"<Label1>:<property1>" + MULTI_FILE_DELIMITER + "<Label2>:<property2>" + MULTI_FILE_DELIMITER
+                        + "...\"",
+                "Uniqueness constraints to create, and build the backing indexes of, as part of the import. "
+                        + "The import fails if the imported data doesn't satisfy the constraints." ),
+        STRING_DICTIONARY_SIZE( "string-dictionary-size", 0,
+                "<max number of entries>",
+                "(advanced) Max number of entries in a shared dictionary of string property values. Strings "
+                        + "too long to be stored inline in property records, that occur more than once, are "
+                        + "then stored as references to dictionary entries. 0 disables the dictionary." ),
+        STRING_COMPRESSION_THRESHOLD( "string-compression-threshold", 0,
+                "<number of bytes>",
+                "(advanced) String property values of at least this many bytes are compressed, if that makes "
+                        + "them smaller. 0 disables compression." );
 
         private final String key;
         private final Object defaultValue;
@@ -224,6 +248,9 @@ public class ImportTool
         Input input = null;
         String badFileName;
         int badTolerance;
+        InputIndex[] indexes;
+        int stringDictionarySize;
+        int stringCompressionThreshold;
         try
         {
             storeDir = args.interpretOption( Options.STORE_DIR.key(), Converters.<File>mandatory(),
@@ -237,10 +264,15 @@ public class ImportTool
             badTolerance = args.getNumber( Options.BAD_TOLERANCE.key,
                     (Number) Options.BAD_TOLERANCE.defaultValue() ).intValue();
             badFileName = args.get( Options.BAD.key );
+            indexes = indexes( args );
+            stringDictionarySize = args.getNumber( Options.STRING_DICTIONARY_SIZE.key(),
+                    (Number) Options.STRING_DICTIONARY_SIZE.defaultValue() ).intValue();
+            stringCompressionThreshold = args.getNumber( Options.STRING_COMPRESSION_THRESHOLD.key(),
+                    (Number) Options.STRING_COMPRESSION_THRESHOLD.defaultValue() ).intValue();
             input = new CsvInput(
                     nodeData( nodesFiles ), defaultFormatNodeFileHeader(),
                     relationshipData( relationshipsFiles ), defaultFormatRelationshipFileHeader(),
-                    idType, csvConfiguration( args ), Collectors.badRelationships( badTolerance ) );
+                    idType, csvConfiguration( args, processors ), Collectors.badRelationships( badTolerance ) );
         }
         catch ( IllegalArgumentException e )
         {
@@ -251,10 +283,16 @@ public class ImportTool
         Logging logging = life.add( new ClassicLoggingService(
                 new Config( stringMap( store_dir.name(), storeDir.getAbsolutePath() ) ) ) );
         life.start();
-        BatchImporter importer = new ParallelBatchImporter( storeDir.getPath(),
-                importConfiguration( processors, badFileName ),
+        ParallelBatchImporter importer = new ParallelBatchImporter( storeDir.getPath(),
+                importConfiguration( processors, badFileName, stringDictionarySize, stringCompressionThreshold ),
                 logging,
                 ExecutionMonitors.defaultVisible() );
+        if ( indexes.length > 0 )
+        {
+            // Added to the life so that it's shut down along with it when the import is done
+            importer.buildIndexes( life.add( new LuceneSchemaIndexProvider( DirectoryFactory.PERSISTENT,
+                    new Config( stringMap( store_dir.name(), storeDir.getAbsolutePath() ) ) ) ), indexes );
+        }
         boolean success = false;
         try
         {
@@ -288,8 +326,42 @@ public class ImportTool
         }
     }
 
+    private static InputIndex[] indexes( Args args )
+    {
+        List<InputIndex> indexes = new ArrayList<>();
+        for ( String[] labelAndKey : labelsAndKeys( args.get( Options.INDEXES.key() ) ) )
+        {
+            indexes.add( InputIndex.index( labelAndKey[0], labelAndKey[1] ) );
+        }
+        for ( String[] labelAndKey : labelsAndKeys( args.get( Options.UNIQUE_CONSTRAINTS.key() ) ) )
+        {
+            indexes.add( InputIndex.uniquenessConstraint( labelAndKey[0], labelAndKey[1] ) );
+        }
+        return indexes.toArray( new InputIndex[indexes.size()] );
+    }
+
+    private static List<String[]> labelsAndKeys( String value )
+    {
+        List<String[]> result = new ArrayList<>();
+        if ( value == null )
+        {
+            return result;
+        }
+        for ( String definition : value.split( MULTI_FILE_DELIMITER ) )
+        {
+            String[] labelAndKey = definition.trim().split( ":" );
+            if ( labelAndKey.length != 2 || labelAndKey[0].isEmpty() || labelAndKey[1].isEmpty() )
+            {
+                throw new IllegalArgumentException( "Invalid index definition '" + definition +
+                        "', expected <Label>:<property>" );
+            }
+            result.add( labelAndKey );
+        }
+        return result;
+    }
+
     private static org.neo4j.unsafe.impl.batchimport.Configuration importConfiguration( final Number processors,
-            final String badFileName  )
+            final String badFileName, final int stringDictionarySize, final int stringCompressionThreshold )
     {
         return new org.neo4j.unsafe.impl.batchimport.Configuration.Default()
         {
@@ -304,6 +376,18 @@ public class ImportTool
             {
                 return badFileName != null ? badFileName : super.badFileName();
             }
+
+            @Override
+            public int stringDictionarySize()
+            {
+                return stringDictionarySize;
+            }
+
+            @Override
+            public int stringCompressionThreshold()
+            {
+                return stringCompressionThreshold;
+            }
         };
     }
 
@@ -405,7 +489,7 @@ public class ImportTool
         return key.equals( "?" ) || key.equals( "help" );
     }
 
-    private static Configuration csvConfiguration( Args args )
+    private static Configuration csvConfiguration( Args args, final Number processors )
     {
         final Configuration defaultConfiguration = COMMAS;
         final Character specificDelimiter =
@@ -439,6 +523,14 @@ public class ImportTool
                         ? specificQuote.charValue()
                         : defaultConfiguration.quotationCharacter();
             }
+
+            @Override
+            public int parsingThreads()
+            {
+                return processors != null
+                        ? processors.intValue()
+                        : Runtime.getRuntime().availableProcessors();
+            }
         };
     }
 
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.tooling;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.unsafe.impl.batchimport.cache.LongArray;
+import org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory;
+
+/**
+ * Bidirectional mapping between the node ids of an existing store and the dense, gap-free node ids they
+ * will get in a compacted store. The order in which nodes are given new ids decides the locality of the
+ * compacted store, since the batch importer writes nodes, and the relationships of each node, in that order.
+ */
+class NodeRenumbering implements AutoCloseable
+{
+    static final long UNASSIGNED = -1;
+
+    enum Order
+    {
+        /**
+         * Breadth-first over relationships in both directions, so that nodes reached from each other in
+         * few hops end up close to each other in the node store.
+         */
+        BFS
+        {
+            @Override
+            void assign( GraphDatabaseService db, NodeRenumbering renumbering )
+            {
+                for ( Node node : GlobalGraphOperations.at( db ).getAllNodes() )
+                {
+                    renumbering.breadthFirstFrom( db, node.getId() );
+                }
+            }
+        },
+        /**
+         * All nodes of the first label, then all (not yet assigned) nodes of the next label a.s.o.
+         * and lastly nodes without labels, so that label scans touch as few pages as possible.
+         */
+        LABEL
+        {
+            @Override
+            void assign( GraphDatabaseService db, NodeRenumbering renumbering )
+            {
+                GlobalGraphOperations operations = GlobalGraphOperations.at( db );
+                for ( Label label : operations.getAllLabels() )
+                {
+                    for ( Node node : operations.getAllNodesWithLabel( label ) )
+                    {
+                        renumbering.assign( node.getId() );
+                    }
+                }
+                for ( Node node : operations.getAllNodes() )
+                {
+                    renumbering.assign( node.getId() );
+                }
+            }
+        };
+
+        abstract void assign( GraphDatabaseService db, NodeRenumbering renumbering );
+    }
+
+    private final LongArray newIds;
+    private final LongArray oldIds;
+    private long count;
+
+    NodeRenumbering( NumberArrayFactory factory, long highNodeId )
+    {
+        long length = Math.max( highNodeId, 1 );
+        this.newIds = factory.newLongArray( length, UNASSIGNED );
+        this.oldIds = factory.newLongArray( length, UNASSIGNED );
+    }
+
+    /**
+     * Assigns new ids to all nodes in {@code db}, in the given {@link Order}.
+     */
+    static NodeRenumbering of( GraphDatabaseService db, long highNodeId, Order order, NumberArrayFactory factory )
+    {
+        NodeRenumbering renumbering = new NodeRenumbering( factory, highNodeId );
+        try ( Transaction tx = db.beginTx() )
+        {
+            order.assign( db, renumbering );
+            tx.success();
+        }
+        return renumbering;
+    }
+
+    /**
+     * Gives {@code oldId} the next new id, unless it already has one.
+     */
+    void assign( long oldId )
+    {
+        if ( newIds.get( oldId ) == UNASSIGNED )
+        {
+            newIds.set( oldId, count );
+            oldIds.set( count, oldId );
+            count++;
+        }
+    }
+
+    private void breadthFirstFrom( GraphDatabaseService db, long oldId )
+    {
+        if ( newIds.get( oldId ) != UNASSIGNED )
+        {
+            return;
+        }
+
+        // The old ids in new id order double as the queue, nodes between head and count are yet to be expanded
+        long head = count;
+        assign( oldId );
+        while ( head < count )
+        {
+            Node current = db.getNodeById( oldIds.get( head++ ) );
+            for ( Relationship relationship : current.getRelationships() )
+            {
+                assign( relationship.getOtherNode( current ).getId() );
+            }
+        }
+    }
+
+    long newId( long oldId )
+    {
+        return newIds.get( oldId );
+    }
+
+    long oldId( long newId )
+    {
+        return oldIds.get( newId );
+    }
+
+    /**
+     * @return number of assigned nodes, which also is the high id of the compacted node store.
+     */
+    long count()
+    {
+        return count;
+    }
+
+    @Override
+    public void close()
+    {
+        newIds.close();
+        oldIds.close();
+    }
+}
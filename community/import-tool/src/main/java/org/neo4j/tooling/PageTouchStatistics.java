@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.tooling;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+
+import static java.lang.String.format;
+
+/**
+ * Estimates the distinct node and relationship store pages that sample traversals touch, i.e. how many page
+ * faults these traversals would cause on a cold page cache. Pages are derived from record ids and record
+ * sizes rather than measured in the page cache, and property, dynamic and relationship group records are not
+ * accounted for, so the numbers are only comparable between stores with the same record format and page size.
+ */
+class PageTouchStatistics
+{
+    private final long pageSize;
+    private final int depth;
+    private long traversals;
+    private long relationships;
+    private long relationshipPages;
+    private long nodePages;
+
+    PageTouchStatistics( long pageSize, int depth )
+    {
+        this.pageSize = pageSize;
+        this.depth = depth;
+    }
+
+    /**
+     * Expands all relationships, in both directions, up to {@code depth} hops out from the start node.
+     */
+    void traverse( GraphDatabaseService db, long startNodeId )
+    {
+        try ( Transaction tx = db.beginTx();
+              PrimitiveLongSet visited = Primitive.longSet();
+              PrimitiveLongSet touchedRelationshipPages = Primitive.longSet();
+              PrimitiveLongSet touchedNodePages = Primitive.longSet() )
+        {
+            PrimitiveLongSet frontier = Primitive.longSet();
+            frontier.add( startNodeId );
+            visited.add( startNodeId );
+            for ( int hop = 0; hop < depth && !frontier.isEmpty(); hop++ )
+            {
+                PrimitiveLongSet next = Primitive.longSet();
+                PrimitiveLongIterator nodes = frontier.iterator();
+                while ( nodes.hasNext() )
+                {
+                    long nodeId = nodes.next();
+                    touchedNodePages.add( page( nodeId, NodeStore.RECORD_SIZE ) );
+                    Node node = db.getNodeById( nodeId );
+                    for ( Relationship relationship : node.getRelationships() )
+                    {
+                        relationships++;
+                        touchedRelationshipPages.add( page( relationship.getId(), RelationshipStore.RECORD_SIZE ) );
+                        long otherNodeId = relationship.getOtherNode( node ).getId();
+                        if ( visited.add( otherNodeId ) )
+                        {
+                            touchedNodePages.add( page( otherNodeId, NodeStore.RECORD_SIZE ) );
+                            next.add( otherNodeId );
+                        }
+                    }
+                }
+                frontier.close();
+                frontier = next;
+            }
+            frontier.close();
+            tx.success();
+
+            traversals++;
+            relationshipPages += touchedRelationshipPages.size();
+            nodePages += touchedNodePages.size();
+        }
+    }
+
+    private long page( long id, int recordSize )
+    {
+        return id * recordSize / pageSize;
+    }
+
+    long relationshipPages()
+    {
+        return relationshipPages;
+    }
+
+    long nodePages()
+    {
+        return nodePages;
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "%d traversals of depth %d expanded %d relationships, touching an estimated %d " +
+                "relationship store pages and %d node store pages (%.2f pages per relationship)", traversals, depth, relationships,
+                relationshipPages, nodePages,
+                relationships == 0 ? 0d : (relationshipPages + nodePages) / (double) relationships );
+    }
+}
@@ -0,0 +1,358 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.tooling;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.neo4j.function.Function;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseFactory;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.graphdb.schema.ConstraintDefinition;
+import org.neo4j.graphdb.schema.ConstraintType;
+import org.neo4j.graphdb.schema.IndexDefinition;
+import org.neo4j.helpers.Args;
+import org.neo4j.helpers.Settings;
+import org.neo4j.helpers.collection.Iterables;
+import org.neo4j.io.fs.DefaultFileSystemAbstraction;
+import org.neo4j.kernel.GraphDatabaseAPI;
+import org.neo4j.kernel.api.impl.index.DirectoryFactory;
+import org.neo4j.kernel.api.impl.index.LuceneSchemaIndexProvider;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.storemigration.FileOperation;
+import org.neo4j.kernel.impl.storemigration.StoreFile;
+import org.neo4j.kernel.impl.storemigration.StoreFileType;
+import org.neo4j.kernel.impl.transaction.state.NeoStoreProvider;
+import org.neo4j.kernel.impl.util.Converters;
+import org.neo4j.kernel.impl.util.Validators;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.kernel.logging.ClassicLoggingService;
+import org.neo4j.kernel.logging.Logging;
+import org.neo4j.tooling.NodeRenumbering.Order;
+import org.neo4j.unsafe.impl.batchimport.ParallelBatchImporter;
+import org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory;
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdGenerators;
+import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdMappers;
+import org.neo4j.unsafe.impl.batchimport.input.Input;
+import org.neo4j.unsafe.impl.batchimport.input.InputIndex;
+import org.neo4j.unsafe.impl.batchimport.input.Inputs;
+import org.neo4j.unsafe.impl.batchimport.staging.ExecutionMonitors;
+
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.store_dir;
+import static org.neo4j.helpers.Exceptions.launderedException;
+import static org.neo4j.helpers.collection.IteratorUtil.single;
+import static org.neo4j.helpers.collection.MapUtil.stringMap;
+import static org.neo4j.kernel.impl.util.Converters.withDefault;
+
+/**
+ * Offline tool which rewrites an existing database into a new store directory, using the
+ * {@link ParallelBatchImporter}. Nodes get new, gap-free ids in a locality preserving {@link Order}, the
+ * relationships of each node are written next to each other, property chains are written anew and id files,
+ * schema indexes and the counts store are rebuilt. Legacy indexes and transaction logs are not carried over.
+ *
+ * Before/after estimates of the pages touched by sample traversals are printed when done, see
+ * {@link PageTouchStatistics}.
+ */
+public class StoreCompactionTool
+{
+    enum Options
+    {
+        FROM( "from", null,
+                "<store-dir>",
+                "Database directory to compact. The database must not be running." ),
+        INTO( "into", null,
+                "<store-dir>",
+                "Database directory to write the compacted database into. Must not contain existing database." ),
+        ORDER( "order", Order.BFS,
+                "<order>",
+                "One out of " + Arrays.toString( Order.values() ) + " and specifies the order in which nodes "
+                        + "get their new ids.\n"
+                        + Order.BFS + ": breadth-first over relationships, keeping neighbourhoods together.\n"
+                        + Order.LABEL + ": nodes grouped by label." ),
+        PROCESSORS( "processors", null,
+                "<max processor count>",
+                "(advanced) Max number of processors used by the importer. Defaults to the number of "
+                        + "available processors reported by the JVM." ),
+        SAMPLES( "sample-traversals", 100,
+                "<number of traversals>",
+                "Number of traversals, from randomly picked nodes, to estimate page touches for in the "
+                        + "database before and after compaction." ),
+        STACKTRACE( "stacktrace", null,
+                "",
+                "Enable printing of error stack traces." );
+
+        private final String key;
+        private final Object defaultValue;
+        private final String usage;
+        private final String description;
+
+        Options( String key, Object defaultValue, String usage, String description )
+        {
+            this.key = key;
+            this.defaultValue = defaultValue;
+            this.usage = usage;
+            this.description = description;
+        }
+
+        String key()
+        {
+            return key;
+        }
+
+        Object defaultValue()
+        {
+            return defaultValue;
+        }
+
+        void printUsage( PrintStream out )
+        {
+            out.println( "--" + key + " " + usage );
+            String text = defaultValue != null ? description + " Default value: " + defaultValue : description;
+            for ( String line : Args.splitLongLine( text, 80 ) )
+            {
+                out.println( "\t" + line );
+            }
+        }
+    }
+
+    static final int SAMPLE_TRAVERSAL_DEPTH = 2;
+
+    public static void main( String[] incomingArguments )
+    {
+        Args args = Args.parse( incomingArguments );
+        File fromDir;
+        File intoDir;
+        Order order;
+        Number processors;
+        int samples;
+        boolean enableStacktrace;
+        try
+        {
+            fromDir = args.interpretOption( Options.FROM.key(), Converters.<File>mandatory(),
+                    Converters.toFile(), Validators.CONTAINS_EXISTING_DATABASE );
+            intoDir = args.interpretOption( Options.INTO.key(), Converters.<File>mandatory(),
+                    Converters.toFile(), Validators.DIRECTORY_IS_WRITABLE, Validators.CONTAINS_NO_EXISTING_DATABASE );
+            order = args.interpretOption( Options.ORDER.key(), withDefault( (Order) Options.ORDER.defaultValue() ),
+                    TO_ORDER );
+            processors = args.getNumber( Options.PROCESSORS.key(), null );
+            samples = args.getNumber( Options.SAMPLES.key(), (Number) Options.SAMPLES.defaultValue() ).intValue();
+            enableStacktrace = args.getBoolean( Options.STACKTRACE.key(), Boolean.FALSE, Boolean.TRUE );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            throw andPrintError( "Input error", e, false );
+        }
+
+        long pageSize = new Config().get( GraphDatabaseSettings.mapped_memory_page_size );
+        PageTouchStatistics before = new PageTouchStatistics( pageSize, SAMPLE_TRAVERSAL_DEPTH );
+        PageTouchStatistics after = new PageTouchStatistics( pageSize, SAMPLE_TRAVERSAL_DEPTH );
+        GraphDatabaseService source = new GraphDatabaseFactory().newEmbeddedDatabaseBuilder( fromDir.getPath() )
+                .setConfig( GraphDatabaseSettings.read_only, Settings.TRUE ).newGraphDatabase();
+        try ( NodeRenumbering renumbering = NodeRenumbering.of( source, highNodeId( source ), order,
+                NumberArrayFactory.AUTO ) )
+        {
+            long[] sampleNodes = sampleNodes( renumbering, samples );
+            for ( long newId : sampleNodes )
+            {
+                before.traverse( source, renumbering.oldId( newId ) );
+            }
+
+            compact( source, renumbering, intoDir, processors, enableStacktrace );
+
+            GraphDatabaseService target = new GraphDatabaseFactory().newEmbeddedDatabase( intoDir.getPath() );
+            try
+            {
+                for ( long newId : sampleNodes )
+                {
+                    after.traverse( target, newId );
+                }
+            }
+            finally
+            {
+                target.shutdown();
+            }
+        }
+        finally
+        {
+            source.shutdown();
+        }
+
+        System.out.println( "Before compaction: " + before );
+        System.out.println( "After compaction:  " + after );
+    }
+
+    private static void compact( GraphDatabaseService source, NodeRenumbering renumbering, File intoDir,
+            Number processors, boolean enableStacktrace )
+    {
+        LifeSupport life = new LifeSupport();
+        Config config = new Config( stringMap( store_dir.name(), intoDir.getAbsolutePath() ) );
+        Logging logging = life.add( new ClassicLoggingService( config ) );
+        life.start();
+        ParallelBatchImporter importer = new ParallelBatchImporter( intoDir.getPath(),
+                importConfiguration( processors ), logging, ExecutionMonitors.defaultVisible() );
+        InputIndex[] indexes = indexes( source );
+        Input input = Inputs.input( StoreInput.nodes( source, renumbering ),
+                StoreInput.relationships( source, renumbering ), IdMappers.actual(), IdGenerators.fromInput(), false );
+        boolean success = false;
+        try
+        {
+            if ( indexes.length > 0 )
+            {
+                importer.buildIndexes( life.add( new LuceneSchemaIndexProvider( DirectoryFactory.PERSISTENT,
+                        config ) ), indexes );
+            }
+            importer.doImport( input );
+            success = true;
+        }
+        catch ( Exception e )
+        {
+            throw andPrintError( "Compaction error", e, enableStacktrace );
+        }
+        finally
+        {
+            life.shutdown();
+            if ( !success )
+            {
+                try
+                {
+                    StoreFile.fileOperation( FileOperation.DELETE, new DefaultFileSystemAbstraction(), intoDir,
+                            null, Iterables.<StoreFile,StoreFile>iterable( StoreFile.values() ),
+                            false, false, StoreFileType.values() );
+                }
+                catch ( IOException e )
+                {
+                    System.err.println( "Unable to delete store files after an aborted compaction " + e );
+                }
+            }
+        }
+    }
+
+    private static long highNodeId( GraphDatabaseService db )
+    {
+        return ((GraphDatabaseAPI) db).getDependencyResolver().resolveDependency( NeoStoreProvider.class )
+                .evaluate().getNodeStore().getHighId();
+    }
+
+    private static long[] sampleNodes( NodeRenumbering renumbering, int samples )
+    {
+        if ( renumbering.count() == 0 )
+        {
+            return new long[0];
+        }
+        Random random = new Random( renumbering.count() );
+        long[] nodes = new long[samples];
+        for ( int i = 0; i < samples; i++ )
+        {
+            nodes[i] = Math.abs( random.nextLong() % renumbering.count() );
+        }
+        return nodes;
+    }
+
+    private static InputIndex[] indexes( GraphDatabaseService db )
+    {
+        List<InputIndex> indexes = new ArrayList<>();
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( IndexDefinition index : db.schema().getIndexes() )
+            {
+                if ( !index.isConstraintIndex() )
+                {
+                    indexes.add( InputIndex.index( index.getLabel().name(), single( index.getPropertyKeys() ) ) );
+                }
+            }
+            for ( ConstraintDefinition constraint : db.schema().getConstraints() )
+            {
+                if ( constraint.isConstraintType( ConstraintType.UNIQUENESS ) )
+                {
+                    indexes.add( InputIndex.uniquenessConstraint( constraint.getLabel().name(),
+                            single( constraint.getPropertyKeys() ) ) );
+                }
+            }
+            tx.success();
+        }
+        return indexes.toArray( new InputIndex[indexes.size()] );
+    }
+
+    private static org.neo4j.unsafe.impl.batchimport.Configuration importConfiguration( final Number processors )
+    {
+        return new org.neo4j.unsafe.impl.batchimport.Configuration.Default()
+        {
+            @Override
+            public int maxNumberOfProcessors()
+            {
+                return processors != null ? processors.intValue() : super.maxNumberOfProcessors();
+            }
+        };
+    }
+
+    private static RuntimeException andPrintError( String typeOfError, Exception e, boolean stackTrace )
+    {
+        System.err.println( typeOfError + ": " + e.getMessage() );
+        if ( stackTrace )
+        {
+            e.printStackTrace( System.err );
+        }
+        System.err.println();
+        printUsage( System.err );
+
+        // Mute the stack trace that the default exception handler would have liked to print, see ImportTool
+        Thread.currentThread().setUncaughtExceptionHandler( new UncaughtExceptionHandler()
+        {
+            @Override
+            public void uncaughtException( Thread t, Throwable e )
+            {   // Shhhh
+            }
+        } );
+        return launderedException( e );
+    }
+
+    private static void printUsage( PrintStream out )
+    {
+        out.println( "Neo4j Store Compaction Tool" );
+        for ( String line : Args.splitLongLine( "Rewrites an existing, stopped, database into a new directory "
+                + "with node ids renumbered in a locality preserving order and the relationships of each node "
+                + "stored next to each other.", 80 ) )
+        {
+            out.println( "\t" + line );
+        }
+        out.println( "Usage:" );
+        for ( Options option : Options.values() )
+        {
+            option.printUsage( out );
+        }
+    }
+
+    private static final Function<String,Order> TO_ORDER = new Function<String,Order>()
+    {
+        @Override
+        public Order apply( String from )
+        {
+            return Order.valueOf( from.toUpperCase() );
+        }
+    };
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.tooling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.PropertyContainer;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.helpers.collection.PrefetchingIterator;
+import org.neo4j.unsafe.impl.batchimport.InputIterable;
+import org.neo4j.unsafe.impl.batchimport.InputIterator;
+import org.neo4j.unsafe.impl.batchimport.input.InputNode;
+import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
+
+/**
+ * Batch importer input reading nodes and relationships from an existing database, in the order given by a
+ * {@link NodeRenumbering}. Nodes come with their new ids and relationships are grouped by start node, so that
+ * the importer writes the outgoing relationships of each node next to each other in the relationship store.
+ *
+ * The importer consumes input from its own threads and transactions are bound to the thread that started them,
+ * so the database is read in short transactions covering a batch of nodes each.
+ */
+class StoreInput
+{
+    private static final int NODES_PER_TRANSACTION = 10_000;
+
+    private StoreInput()
+    {   // Only static methods
+    }
+
+    static InputIterable<InputNode> nodes( final GraphDatabaseService db, final NodeRenumbering renumbering )
+    {
+        return new InputIterable<InputNode>()
+        {
+            @Override
+            public InputIterator<InputNode> iterator()
+            {
+                return new BatchedIterator<InputNode>( db, renumbering )
+                {
+                    @Override
+                    protected void read( long newId, Node node, Deque<InputNode> into )
+                    {
+                        List<String> labels = new ArrayList<>();
+                        for ( Label label : node.getLabels() )
+                        {
+                            labels.add( label.name() );
+                        }
+                        into.add( new InputNode( sourceDescription(), lineNumber(), position(), newId,
+                                properties( node ), null, labels.toArray( new String[labels.size()] ), null ) );
+                    }
+                };
+            }
+        };
+    }
+
+    static InputIterable<InputRelationship> relationships( final GraphDatabaseService db,
+            final NodeRenumbering renumbering )
+    {
+        return new InputIterable<InputRelationship>()
+        {
+            @Override
+            public InputIterator<InputRelationship> iterator()
+            {
+                return new BatchedIterator<InputRelationship>( db, renumbering )
+                {
+                    @Override
+                    protected void read( long newId, Node node, Deque<InputRelationship> into )
+                    {
+                        // Outgoing only, so that each relationship is read once, loops included
+                        for ( Relationship relationship : node.getRelationships( Direction.OUTGOING ) )
+                        {
+                            long endNode = renumbering.newId( relationship.getEndNode().getId() );
+                            into.add( new InputRelationship( sourceDescription(), lineNumber(), position(),
+                                    properties( relationship ), null, newId, endNode,
+                                    relationship.getType().name(), null ) );
+                        }
+                    }
+                };
+            }
+        };
+    }
+
+    private static Object[] properties( PropertyContainer entity )
+    {
+        List<Object> keyValues = new ArrayList<>();
+        for ( String key : entity.getPropertyKeys() )
+        {
+            keyValues.add( key );
+            keyValues.add( entity.getProperty( key ) );
+        }
+        return keyValues.toArray();
+    }
+
+    private static abstract class BatchedIterator<T> extends PrefetchingIterator<T> implements InputIterator<T>
+    {
+        private final GraphDatabaseService db;
+        private final NodeRenumbering renumbering;
+        private final Deque<T> batch = new ArrayDeque<>();
+        private long cursor;
+
+        BatchedIterator( GraphDatabaseService db, NodeRenumbering renumbering )
+        {
+            this.db = db;
+            this.renumbering = renumbering;
+        }
+
+        @Override
+        protected T fetchNextOrNull()
+        {
+            while ( batch.isEmpty() && cursor < renumbering.count() )
+            {
+                long end = Math.min( cursor + NODES_PER_TRANSACTION, renumbering.count() );
+                try ( Transaction tx = db.beginTx() )
+                {
+                    for ( ; cursor < end; cursor++ )
+                    {
+                        read( cursor, db.getNodeById( renumbering.oldId( cursor ) ), batch );
+                    }
+                    tx.success();
+                }
+            }
+            return batch.poll();
+        }
+
+        protected abstract void read( long newId, Node node, Deque<T> into );
+
+        @Override
+        public String sourceDescription()
+        {
+            return db.toString();
+        }
+
+        @Override
+        public long lineNumber()
+        {
+            return cursor;
+        }
+
+        @Override
+        public long position()
+        {
+            return cursor;
+        }
+
+        @Override
+        public void close()
+        {   // Nothing to close, transactions are closed batch by batch
+        }
+    }
+}
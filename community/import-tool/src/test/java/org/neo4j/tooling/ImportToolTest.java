@@ -38,6 +38,8 @@ import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.factory.GraphDatabaseFactory;
+import org.neo4j.graphdb.schema.IndexDefinition;
+import org.neo4j.graphdb.schema.Schema.IndexState;
 import org.neo4j.helpers.Exceptions;
 import org.neo4j.helpers.Triplet;
 import org.neo4j.helpers.collection.PrefetchingIterator;
@@ -225,6 +227,47 @@ public class ImportToolTest
         }
     }
 
+    @Test
+    public void shouldBuildIndexesAndConstraintsAsPartOfImport() throws Exception
+    {
+        // GIVEN
+        List<String> nodeIds = nodeIds();
+        Configuration config = Configuration.COMMAS;
+
+        // WHEN
+        ImportTool.main( arguments(
+                "--into",               directory.absolutePath(),
+                "--nodes:Person",       nodeData( true, config, nodeIds, alwaysTrue() ).getAbsolutePath(),
+                "--indexes",            "Person:name",
+                "--unique-constraints", "Person:id" ) );
+
+        // THEN the indexes are online right away, without awaiting population
+        GraphDatabaseService db = new GraphDatabaseFactory().newEmbeddedDatabase( directory.absolutePath() );
+        try ( Transaction tx = db.beginTx() )
+        {
+            int indexCount = 0;
+            for ( IndexDefinition index : db.schema().getIndexes( label( "Person" ) ) )
+            {
+                assertEquals( IndexState.ONLINE, db.schema().getIndexState( index ) );
+                indexCount++;
+            }
+            assertEquals( 2, indexCount );
+            assertEquals( 1, count( db.schema().getConstraints( label( "Person" ) ) ) );
+
+            for ( String id : nodeIds )
+            {
+                Node node = db.findNode( label( "Person" ), "id", id );
+                assertEquals( id, node.getProperty( "id" ) );
+                assertTrue( count( db.findNodes( label( "Person" ), "name", node.getProperty( "name" ) ) ) > 0 );
+            }
+            tx.success();
+        }
+        finally
+        {
+            db.shutdown();
+        }
+    }
+
     @Test
     public void shouldImportGroupsOfOverlappingIds() throws Exception
     {
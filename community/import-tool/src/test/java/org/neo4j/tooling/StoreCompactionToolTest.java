@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.tooling;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.neo4j.graphdb.DynamicRelationshipType;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseFactory;
+import org.neo4j.graphdb.schema.ConstraintDefinition;
+import org.neo4j.test.Mute;
+import org.neo4j.test.TargetDirectory;
+import org.neo4j.test.TargetDirectory.TestDirectory;
+import org.neo4j.tooling.NodeRenumbering.Order;
+import org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import static org.neo4j.graphdb.DynamicLabel.label;
+import static org.neo4j.helpers.collection.IteratorUtil.single;
+
+public class StoreCompactionToolTest
+{
+    private static final RelationshipType KNOWS = DynamicRelationshipType.withName( "KNOWS" );
+
+    @Test
+    public void shouldCompactStoreKeepingAllDataAndSchema() throws Exception
+    {
+        // GIVEN a store with holes in both the node and relationship stores
+        String from = directory.directory( "from" ).getAbsolutePath();
+        String into = directory.directory( "into" ).getAbsolutePath();
+        GraphDatabaseService db = new GraphDatabaseFactory().newEmbeddedDatabase( from );
+        Map<Integer,Set<Integer>> expectedFriends = new HashMap<>();
+        try
+        {
+            try ( Transaction tx = db.beginTx() )
+            {
+                db.schema().constraintFor( label( "Person" ) ).assertPropertyIsUnique( "id" ).create();
+                tx.success();
+            }
+            try ( Transaction tx = db.beginTx() )
+            {
+                Node[] nodes = new Node[NODE_COUNT];
+                for ( int i = 0; i < NODE_COUNT; i++ )
+                {
+                    nodes[i] = db.createNode( label( "Person" ) );
+                    nodes[i].setProperty( "id", i );
+                    nodes[i].setProperty( "name", "Person " + i );
+                }
+                for ( int i = 0; i < NODE_COUNT; i++ )
+                {
+                    for ( int offset = 1; offset <= 3; offset++ )
+                    {
+                        int other = (i * 7 + offset * 13) % NODE_COUNT;
+                        nodes[i].createRelationshipTo( nodes[other], KNOWS ).setProperty( "since", i + other );
+                    }
+                }
+                for ( int i = 0; i < NODE_COUNT; i += 3 )
+                {
+                    for ( Relationship relationship : nodes[i].getRelationships() )
+                    {
+                        relationship.delete();
+                    }
+                    nodes[i].delete();
+                }
+                tx.success();
+            }
+            try ( Transaction tx = db.beginTx() )
+            {
+                for ( Relationship relationship : GlobalGraphOperations.at( db ).getAllRelationships() )
+                {
+                    friendsOf( expectedFriends, relationship ).add( idOf( relationship.getEndNode() ) );
+                }
+                tx.success();
+            }
+        }
+        finally
+        {
+            db.shutdown();
+        }
+
+        // WHEN
+        StoreCompactionTool.main( new String[] {"--from", from, "--into", into, "--sample-traversals", "10"} );
+
+        // THEN
+        db = new GraphDatabaseFactory().newEmbeddedDatabase( into );
+        try ( Transaction tx = db.beginTx() )
+        {
+            Map<Integer,Set<Integer>> friends = new HashMap<>();
+            int nodeCount = 0;
+            long highestNodeId = -1;
+            for ( Node node : GlobalGraphOperations.at( db ).getAllNodes() )
+            {
+                int id = idOf( node );
+                assertEquals( "Person " + id, node.getProperty( "name" ) );
+                assertTrue( node.hasLabel( label( "Person" ) ) );
+                highestNodeId = Math.max( highestNodeId, node.getId() );
+                nodeCount++;
+            }
+            for ( Relationship relationship : GlobalGraphOperations.at( db ).getAllRelationships() )
+            {
+                int start = idOf( relationship.getStartNode() );
+                int end = idOf( relationship.getEndNode() );
+                assertEquals( start + end, relationship.getProperty( "since" ) );
+                friendsOf( friends, relationship ).add( end );
+            }
+            assertEquals( NODE_COUNT - (NODE_COUNT + 2) / 3, nodeCount );
+            assertEquals( "Node ids should be gap-free", nodeCount - 1, highestNodeId );
+            assertEquals( expectedFriends, friends );
+
+            ConstraintDefinition constraint = single( db.schema().getConstraints() );
+            assertEquals( "id", single( constraint.getPropertyKeys() ) );
+            assertNotNull( db.findNode( label( "Person" ), "id", 1 ) );
+            tx.success();
+        }
+        finally
+        {
+            db.shutdown();
+        }
+    }
+
+    @Test
+    public void breadthFirstOrderShouldGiveNeighboursConsecutiveIds() throws Exception
+    {
+        // GIVEN a star with unrelated nodes created in between its leaves
+        GraphDatabaseService db = new GraphDatabaseFactory().newEmbeddedDatabase( directory.absolutePath() );
+        try
+        {
+            Set<Long> leaves = new HashSet<>();
+            long highNodeId;
+            try ( Transaction tx = db.beginTx() )
+            {
+                Node center = db.createNode();
+                for ( int i = 0; i < 10; i++ )
+                {
+                    db.createNode();
+                    Node leaf = db.createNode();
+                    center.createRelationshipTo( leaf, KNOWS );
+                    leaves.add( leaf.getId() );
+                }
+                highNodeId = center.getId() + 21;
+                tx.success();
+            }
+
+            // WHEN
+            try ( NodeRenumbering renumbering = NodeRenumbering.of( db, highNodeId, Order.BFS,
+                    NumberArrayFactory.HEAP ) )
+            {
+                // THEN the center gets the first id and its leaves the ones right after it
+                assertEquals( 21, renumbering.count() );
+                for ( long newId = 1; newId <= leaves.size(); newId++ )
+                {
+                    assertTrue( leaves.contains( renumbering.oldId( newId ) ) );
+                }
+                for ( Long leaf : leaves )
+                {
+                    assertEquals( leaf.longValue(), renumbering.oldId( renumbering.newId( leaf ) ) );
+                }
+            }
+        }
+        finally
+        {
+            db.shutdown();
+        }
+    }
+
+    private static Set<Integer> friendsOf( Map<Integer,Set<Integer>> friends, Relationship relationship )
+    {
+        int start = idOf( relationship.getStartNode() );
+        Set<Integer> set = friends.get( start );
+        if ( set == null )
+        {
+            friends.put( start, set = new HashSet<>() );
+        }
+        return set;
+    }
+
+    private static int idOf( Node node )
+    {
+        return (Integer) node.getProperty( "id" );
+    }
+
+    private static final int NODE_COUNT = 300;
+
+    public final @Rule TestDirectory directory = TargetDirectory.testDirForTest( getClass() );
+    public final @Rule Mute mute = Mute.mute( Mute.System.values() );
+}
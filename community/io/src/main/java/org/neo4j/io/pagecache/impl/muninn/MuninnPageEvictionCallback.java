@@ -26,14 +26,14 @@ import org.neo4j.jsr166e.StampedLock;
 
 final class MuninnPageEvictionCallback implements PageEvictionCallback
 {
-    private final PrimitiveLongObjectMap<MuninnPage>[] translationTables;
+    private final PrimitiveLongObjectMap<MuninnPage> translationTable;
     private final StampedLock[] translationTableLocks;
 
     public MuninnPageEvictionCallback(
-            PrimitiveLongObjectMap<MuninnPage>[] translationTables,
+            PrimitiveLongObjectMap<MuninnPage> translationTable,
             StampedLock[] translationTableLocks )
     {
-        this.translationTables = translationTables;
+        this.translationTable = translationTable;
         this.translationTableLocks = translationTableLocks;
     }
 
@@ -42,7 +42,6 @@ final class MuninnPageEvictionCallback implements PageEvictionCallback
     {
         int stripe = (int) (pageId & MuninnPagedFile.translationTableStripeMask);
         StampedLock translationTableLock = translationTableLocks[stripe];
-        PrimitiveLongObjectMap<MuninnPage> translationTable = translationTables[stripe];
 
         // We use tryWriteLock here, because this call is in the way of
         // releasing new pages to the freelist. This means that threads might
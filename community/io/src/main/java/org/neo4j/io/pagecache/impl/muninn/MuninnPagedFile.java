@@ -51,7 +51,7 @@ final class MuninnPagedFile implements PagedFile
     final int pageSize;
     final PageCacheTracer tracer;
 
-    final PrimitiveLongObjectMap<MuninnPage>[] translationTables;
+    final PrimitiveLongObjectMap<MuninnPage> translationTable;
     final StampedLock[] translationTableLocks;
 
     final PageSwapper swapper;
@@ -74,20 +74,21 @@ final class MuninnPagedFile implements PagedFile
         this.cursorPool = cursorPool;
         this.tracer = tracer;
 
-        // The translation table and its locks are striped to reduce lock
-        // contention.
+        // The translation table can be read without locking, so pinning a
+        // page that is already in memory never touches a lock here.
+        // Updating the table is coordinated through the translation table
+        // locks, which are striped to reduce lock contention.
         // This is important as both eviction and page faulting will grab
         // these locks, and will hold them for the duration of their respective
         // operation.
-        translationTables = new PrimitiveLongObjectMap[translationTableStripeLevel];
+        translationTable = Primitive.concurrentLongObjectMap();
         translationTableLocks = new StampedLock[translationTableStripeLevel];
         for ( int i = 0; i < translationTableStripeLevel; i++ )
         {
-            translationTables[i] = Primitive.longObjectMap( 8 );
             translationTableLocks[i] = new StampedLock();
         }
         PageEvictionCallback onEviction = new MuninnPageEvictionCallback(
-                translationTables, translationTableLocks );
+                translationTable, translationTableLocks );
         swapper = swapperFactory.createPageSwapper( file, pageSize, onEviction );
         initialiseLastPageId( swapper.getLastPageId() );
     }
@@ -154,22 +155,9 @@ final class MuninnPagedFile implements PagedFile
     {
         try ( MajorFlushEvent flushEvent = tracer.beginFileFlush( swapper ) )
         {
-            PageFlusher flusher = new PageFlusher( swapper, flushEvent );
-            for ( int i = 0; i < translationTableStripeLevel; i++ )
-            {
-                PrimitiveLongObjectMap<MuninnPage> translationTable = translationTables[i];
-                StampedLock translationTableLock = translationTableLocks[i];
-
-                long stamp = translationTableLock.readLock();
-                try
-                {
-                    translationTable.visitEntries( flusher );
-                }
-                finally
-                {
-                    translationTableLock.unlockRead( stamp );
-                }
-            }
+            // The flusher checks that each page is still bound to the entry it was
+            // visited for, so concurrent page faults and evictions are fine here.
+            translationTable.visitEntries( new PageFlusher( swapper, flushEvent ) );
             force();
         }
     }
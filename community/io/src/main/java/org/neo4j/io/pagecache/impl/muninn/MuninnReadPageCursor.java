@@ -68,26 +68,13 @@ final class MuninnReadPageCursor extends MuninnPageCursor
     {
         int stripe = (int) (filePageId & MuninnPagedFile.translationTableStripeMask);
         StampedLock translationTableLock = pagedFile.translationTableLocks[stripe];
-        PrimitiveLongObjectMap<MuninnPage> translationTable = pagedFile.translationTables[stripe];
+        PrimitiveLongObjectMap<MuninnPage> translationTable = pagedFile.translationTable;
         PageSwapper swapper = pagedFile.swapper;
         pinEvent = pagedFile.tracer.beginPin( false, filePageId, swapper );
-        MuninnPage page;
+        long stamp;
 
-        long stamp = translationTableLock.tryOptimisticRead();
-        page = translationTable.get( filePageId );
-        if ( !translationTableLock.validate( stamp ) )
-        {
-            // The optimistic lock failed... Try again with a proper read lock.
-            stamp = translationTableLock.readLock();
-            try
-            {
-                page = translationTable.get( filePageId );
-            }
-            finally
-            {
-                translationTableLock.unlockRead( stamp );
-            }
-        }
+        // Reading the translation table needs no lock, see ConcurrentPrimitiveLongObjectHashMap.
+        MuninnPage page = translationTable.get( filePageId );
 
         // The PrimitiveLongObjectMap returns null for unmapped keys, so in that case we
         // know with high probability that we are going to page fault.
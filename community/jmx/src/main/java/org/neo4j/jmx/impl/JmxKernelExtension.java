@@ -93,6 +93,16 @@ public class JmxKernelExtension implements Lifecycle
         {
             logger.info( "Failed to register Configuration JMX Bean" );
         }
+        try
+        {
+            Neo4jMBean bean = new MetricsBean( kernelData, support );
+            mbs.registerMBean( bean, bean.objectName );
+            beans.add( bean );
+        }
+        catch ( Exception e )
+        {
+            logger.info( "Failed to register Metrics JMX Bean" );
+        }
     }
 
     @Override
@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.jmx.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.InvalidAttributeValueException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ReflectionException;
+
+import org.neo4j.jmx.Description;
+import org.neo4j.kernel.KernelData;
+import org.neo4j.kernel.monitoring.metrics.Histogram;
+import org.neo4j.kernel.monitoring.metrics.MetricsRegistry;
+import org.neo4j.kernel.monitoring.metrics.MetricsVisitor;
+
+@Description( "The current values of the metrics of the database" )
+public final class MetricsBean extends Neo4jMBean
+{
+    public static final String METRICS_MBEAN_NAME = "Metrics";
+    private final MetricsRegistry registry;
+
+    MetricsBean( KernelData kernel, ManagementSupport support ) throws NotCompliantMBeanException
+    {
+        super( METRICS_MBEAN_NAME, kernel, support );
+        this.registry = kernel.graphDatabase().getDependencyResolver().resolveDependency( MetricsRegistry.class );
+    }
+
+    /**
+     * Counters and gauges become one attribute each, histograms one attribute per statistic, such as
+     * {@code cypher.execution.time_micros.p99}.
+     */
+    private Map<String,Long> values()
+    {
+        final Map<String,Long> values = new LinkedHashMap<>();
+        registry.accept( new MetricsVisitor()
+        {
+            @Override
+            public void visitCounter( String name, long count )
+            {
+                values.put( name, count );
+            }
+
+            @Override
+            public void visitGauge( String name, long value )
+            {
+                values.put( name, value );
+            }
+
+            @Override
+            public void visitHistogram( String name, Histogram.Snapshot snapshot )
+            {
+                values.put( name + ".count", snapshot.count() );
+                values.put( name + ".mean", Math.round( snapshot.mean() ) );
+                values.put( name + ".p50", snapshot.percentile( 0.5 ) );
+                values.put( name + ".p95", snapshot.percentile( 0.95 ) );
+                values.put( name + ".p99", snapshot.percentile( 0.99 ) );
+                values.put( name + ".max", snapshot.max() );
+            }
+        } );
+        return values;
+    }
+
+    @Override
+    public Object getAttribute( String attribute ) throws AttributeNotFoundException, MBeanException,
+            ReflectionException
+    {
+        Long value = values().get( attribute );
+        if ( value == null )
+        {
+            throw new AttributeNotFoundException( "No metric named " + attribute );
+        }
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes( String[] attributes )
+    {
+        Map<String,Long> values = values();
+        AttributeList result = new AttributeList( attributes.length );
+        for ( String attribute : attributes )
+        {
+            Long value = values.get( attribute );
+            if ( value != null )
+            {
+                result.add( new Attribute( attribute, value ) );
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void setAttribute( Attribute attribute )
+        throws AttributeNotFoundException, InvalidAttributeValueException, MBeanException, ReflectionException
+    {
+        throw new InvalidAttributeValueException( "Not a writeable attribute: " + attribute.getName() );
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo()
+    {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for ( String name : values().keySet() )
+        {
+            attributes.add( new MBeanAttributeInfo( name, Long.class.getName(), name, true, false, false ) );
+        }
+        Description description = getClass().getAnnotation( Description.class );
+        return new MBeanInfo( getClass().getName(), description.value(),
+                attributes.toArray( new MBeanAttributeInfo[attributes.size()] ), null, null, null );
+    }
+
+    @Override
+    public Object invoke( String s, Object[] objects, String[] strings ) throws MBeanException, ReflectionException
+    {
+        throw new MBeanException( new UnsupportedOperationException( "The metrics bean has no operations" ) );
+    }
+}
@@ -59,7 +59,7 @@ public abstract class Neo4jMBean extends StandardMBean
         this.objectName = support.createObjectName( kernel.instanceId(), beanInterface );
     }
 
-    /** Constructor for {@link ConfigurationBean} */
+    /** Constructor for {@link ConfigurationBean} and {@link MetricsBean} */
     Neo4jMBean( String beanName, KernelData kernel, ManagementSupport support )
             throws NotCompliantMBeanException
     {
@@ -100,7 +100,7 @@ public abstract class GraphDatabaseSettings
     @Description( "Set this to specify the default planner." )
     public static final Setting<String> query_planner_version = setting(
             "query.planner.version",
-            options( "COST", "RULE"), NO_DEFAULT );
+            options( "COST", "IDP", "RULE"), NO_DEFAULT );
 
     @Description( "The number of Cypher query execution plans that are cached." )
     public static Setting<Integer> query_cache_size = setting( "query_cache_size", INTEGER, "100", min( 0 ) );
@@ -108,6 +108,17 @@ public abstract class GraphDatabaseSettings
     @Description("The minimum lifetime of a query plan before a query is considered for replanning")
     public static Setting<Long> query_plan_ttl = setting( "query_plan_ttl", DURATION, "1s" );
 
+    @Description( "The number of sub-plans the IDP planner keeps before it commits to the best plan found so far and "
+                  + "continues planning from there. Higher values give better plans for large patterns, at the "
+                  + "cost of longer planning." )
+    public static Setting<Integer> query_planner_idp_table_threshold =
+            setting( "query_planner_idp_table_threshold", INTEGER, "128", min( 16 ) );
+
+    @Description( "The time the IDP planner may spend searching before it commits to the best plan found so far and "
+                  + "continues planning from there." )
+    public static Setting<Long> query_planner_idp_duration_threshold =
+            setting( "query_planner_idp_duration_threshold", DURATION, "1s" );
+
     @Description( "Determines if Cypher will allow using file URLs when loading data using `LOAD CSV`. Setting this "
                   + "value to `false` will cause Neo4j to fail `LOAD CSV` clauses that load data from the file system." )
     public static Setting<Boolean> allow_file_urls = setting( "allow_file_urls", BOOLEAN, TRUE );
@@ -308,6 +319,12 @@ public abstract class GraphDatabaseSettings
     @Internal
     public static final Setting<Integer> string_block_size = setting("string_block_size", INTEGER, "120",min(1));
 
+    @Description("String property values of at least this many bytes, when UTF-8 encoded, are compressed before " +
+            "being written to the dynamic string store, if that makes them smaller. Compressed values can only be " +
+            "read by versions supporting string compression. A value of 0 disables compression.")
+    public static final Setting<Integer> string_compression_threshold =
+            setting( "string_compression_threshold", INTEGER, "0", min( 0 ) );
+
     @Description("Specifies the block size for storing arrays. This parameter is only honored when the store is " +
             "created, otherwise it is ignored. " +
             "The default block size is 120 bytes, and the overhead of each block is the same as for string blocks, " +
@@ -339,9 +356,25 @@ public abstract class GraphDatabaseSettings
     @Internal
     public static final Setting<Long> gc_monitor_block_threshold = MonitorGc.Configuration.gc_monitor_threshold;
 
+    @Description( "How often metrics are pushed to the CSV files and to any other registered metrics reporters." )
+    public static final Setting<Long> metrics_report_interval =
+            setting( "dbms.metrics.report_interval", DURATION, "3s", min( 1L ) );
+
+    @Description( "Enable writing metrics to CSV files, one file per metric." )
+    public static final Setting<Boolean> metrics_csv_enabled = setting( "dbms.metrics.csv.enabled", BOOLEAN, FALSE );
+
+    @Description( "The directory the CSV files with metrics are written to." )
+    public static final Setting<File> metrics_csv_path =
+            setting( "dbms.metrics.csv.path", PATH, "metrics", basePath( store_dir ) );
+
     @Description( "Relationship count threshold for considering a node to be dense" )
     public static final Setting<Integer> dense_node_threshold = setting( "dense_node_threshold", INTEGER, "50", min(1) );
 
+    @Description( "Number of commands a committing transaction keeps in memory before the rest are spilled to a " +
+            "temporary file in the store directory. Zero, the default, keeps all commands in memory." )
+    public static final Setting<Integer> transaction_spill_threshold =
+            setting( "transaction_spill_threshold", INTEGER, "0", min( 0 ) );
+
     @Description("Whether or not transactions are appended to the log in batches")
     public static final Setting<Boolean> batched_writes = setting( "batched_writes", BOOLEAN, Boolean.TRUE.toString() );
 
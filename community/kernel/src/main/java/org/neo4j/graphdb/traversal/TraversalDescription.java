@@ -244,6 +244,26 @@ public interface TraversalDescription
      * @return a new traversal description with the new modifications.
      */
     TraversalDescription reverse();
+
+    /**
+     * Creates an identical {@link TraversalDescription}, although one which
+     * expands each depth of the traversal using {@code concurrency} threads.
+     * Only {@link #breadthFirst() breadth first} ordering is supported, where
+     * all paths of one depth are still returned before any path of the next
+     * depth, but in no particular order within a depth.
+     * <p>
+     * The worker threads read the graph in transactions of their own, so
+     * changes not yet committed by the transaction that runs the traversal
+     * are not seen by it. The {@link PathExpander}, evaluators and
+     * {@link UniquenessFactory uniqueness} given to a parallel traversal
+     * must be safe to use from several threads at the same time; the global
+     * uniqueness kinds are replaced by thread safe equivalents automatically.
+     *
+     * @param concurrency the number of threads to expand the traversal with,
+     * where {@code 1} means that the traversal is single threaded.
+     * @return a new traversal description with the new modifications.
+     */
+    TraversalDescription parallel( int concurrency );
     
     /**
      * Traverse from a single start node based on all the rules and behavior
@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.helpers.collection;
+
+import org.neo4j.graphdb.ResourceIterable;
+import org.neo4j.graphdb.ResourceIterator;
+
+/**
+ * Wraps a {@link ResourceIterable} so that it returns items of another type. The
+ * iteration is done lazily and closing the returned iterator closes the wrapped one,
+ * so that a consumer that stops early can release the underlying resources without
+ * exhausting them.
+ *
+ * @param <T> the type of items to return
+ * @param <U> the type of items to wrap/convert from
+ */
+public abstract class ResourceIterableWrapper<T, U> implements ResourceIterable<T>
+{
+    private final ResourceIterable<U> source;
+
+    public ResourceIterableWrapper( ResourceIterable<U> iterableToWrap )
+    {
+        this.source = iterableToWrap;
+    }
+
+    protected abstract T underlyingObjectToObject( U object );
+
+    @Override
+    public ResourceIterator<T> iterator()
+    {
+        ResourceIterator<U> iterator = source.iterator();
+        return new ResourceClosingIterator<U, T>( iterator, iterator )
+        {
+            @Override
+            public T map( U elem )
+            {
+                return underlyingObjectToObject( elem );
+            }
+        };
+    }
+}
@@ -167,6 +167,8 @@ import org.neo4j.kernel.logging.DefaultLogging;
 import org.neo4j.kernel.logging.Logging;
 import org.neo4j.kernel.logging.RollingLogMonitor;
 import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.kernel.monitoring.metrics.KernelMetrics;
+import org.neo4j.kernel.monitoring.metrics.MetricsRegistry;
 import org.neo4j.kernel.monitoring.tracing.Tracers;
 import org.neo4j.tooling.GlobalGraphOperations;
 
@@ -276,6 +278,7 @@ public abstract class InternalAbstractGraphDatabase
     protected Monitors monitors;
     protected TransactionCounters transactionMonitor;
     protected Tracers tracers;
+    protected MetricsRegistry metricsRegistry;
     protected AvailabilityGuard availabilityGuard;
     protected long transactionStartTimeout;
     protected StoreUpgrader storeMigrationProcess;
@@ -433,6 +436,8 @@ public abstract class InternalAbstractGraphDatabase
 
         tracers = createTracers( config, msgLog );
 
+        metricsRegistry = new MetricsRegistry();
+
         this.storeLocker = life.add( new StoreLockerLifecycleAdapter(
                 new StoreLocker( fileSystem ), storeDir ) );
 
@@ -550,6 +555,9 @@ public abstract class InternalAbstractGraphDatabase
 
         life.add( new MonitorGc( config, msgLog ) );
 
+        life.add( new KernelMetrics( metricsRegistry, config, fileSystem, jobScheduler, monitors, transactionMonitor,
+                tracers.pageCacheTracer, logging.getMessagesLog( KernelMetrics.class ) ) );
+
         life.add( nodeManager );
 
         createDatabaseAvailability();
@@ -1591,6 +1599,10 @@ public abstract class InternalAbstractGraphDatabase
             {
                 return type.cast( tracers.pageCacheTracer );
             }
+            else if ( MetricsRegistry.class.isAssignableFrom( type ) )
+            {
+                return type.cast( metricsRegistry );
+            }
             else if ( Caches.class.isAssignableFrom( type ) )
             {
                 return type.cast( caches );
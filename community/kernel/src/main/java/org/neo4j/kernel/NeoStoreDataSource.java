@@ -982,7 +982,9 @@ public class NeoStoreDataSource implements NeoStoreProvider, Lifecycle, IndexPro
                         statementOperations, updateableSchemaState, schemaWriteGuard, schemaIndexProviderMap,
                         transactionHeaderInformationFactory, persistenceCache, storeLayer, transactionCommitProcess,
                         indexConfigStore,
-                        legacyIndexProviderLookup, hooks, transactionMonitor, life, tracers ) );
+                        legacyIndexProviderLookup, hooks, transactionMonitor, life, tracers,
+                        fs, new File( storeDir, "tx-spill" ),
+                        config.get( GraphDatabaseSettings.transaction_spill_threshold ) ) );
 
         final Kernel kernel = new Kernel( kernelTransactions, hooks, kernelHealth, transactionMonitor );
 
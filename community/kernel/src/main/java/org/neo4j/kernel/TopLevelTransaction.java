@@ -133,7 +133,7 @@ public class TopLevelTransaction implements Transaction
         }
         finally
         {
-            stmtProvider.unbindTransactionFromCurrentThread();
+            stmtProvider.unbindTransactionFromCurrentThread( this );
         }
     }
 
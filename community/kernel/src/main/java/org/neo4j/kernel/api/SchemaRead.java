@@ -25,6 +25,7 @@ import org.neo4j.kernel.api.constraints.UniquenessConstraint;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
 import org.neo4j.kernel.api.exceptions.schema.SchemaRuleNotFoundException;
 import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexHistogram;
 import org.neo4j.kernel.api.index.InternalIndexState;
 
 interface SchemaRead
@@ -55,6 +56,9 @@ interface SchemaRead
     /** Calculate the index unique values percentage (range: {@code 0.0} exclusive to {@code 1.0} inclusive). */
     double indexUniqueValuesSelectivity( IndexDescriptor descriptor ) throws IndexNotFoundKernelException;
 
+    /** Returns the value histogram from the most recent sampling of an index. */
+    IndexHistogram indexGetHistogram( IndexDescriptor descriptor ) throws IndexNotFoundKernelException;
+
     /** Returns the failure description of a failed index. */
     String indexGetFailure( IndexDescriptor descriptor ) throws IndexNotFoundKernelException;
 
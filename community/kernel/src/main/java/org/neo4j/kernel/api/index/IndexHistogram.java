@@ -0,0 +1,309 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.neo4j.helpers.UTF8;
+
+import static java.lang.String.format;
+
+/**
+ * Compact summary of the value distribution of an index, built when the index is sampled.
+ * <p/>
+ * It keeps the most frequent values together with their counts, and equi-depth buckets over the numeric values,
+ * so that the number of entries matching an equality or a range can be estimated without touching the index.
+ * Numbers are kept as doubles, the same way they are indexed.
+ */
+public final class IndexHistogram
+{
+    private static final byte NUMBER = 0;
+    private static final byte STRING = 1;
+    private static final byte BOOLEAN = 2;
+
+    public static final IndexHistogram EMPTY = new IndexHistogram( 0, 0, new Object[0], new long[0],
+            new double[0], new double[0], new long[0], new long[0] );
+
+    private final long entries;
+    private final long distinctValues;
+    private final Object[] frequentValues;
+    private final long[] frequentValueCounts;
+    private final double[] bucketLowerBounds;
+    private final double[] bucketUpperBounds;
+    private final long[] bucketCounts;
+    private final long[] bucketDistinctValues;
+
+    public IndexHistogram( long entries, long distinctValues, Object[] frequentValues, long[] frequentValueCounts,
+                           double[] bucketLowerBounds, double[] bucketUpperBounds, long[] bucketCounts,
+                           long[] bucketDistinctValues )
+    {
+        this.entries = entries;
+        this.distinctValues = distinctValues;
+        this.frequentValues = frequentValues;
+        this.frequentValueCounts = frequentValueCounts;
+        this.bucketLowerBounds = bucketLowerBounds;
+        this.bucketUpperBounds = bucketUpperBounds;
+        this.bucketCounts = bucketCounts;
+        this.bucketDistinctValues = bucketDistinctValues;
+    }
+
+    /**
+     * @return the value as it is kept in a histogram, or {@code null} if values of its type are not summarized.
+     */
+    public static Object key( Object value )
+    {
+        if ( value instanceof Number )
+        {
+            return ((Number) value).doubleValue();
+        }
+        if ( value instanceof String || value instanceof Boolean )
+        {
+            return value;
+        }
+        if ( value instanceof Character )
+        {
+            return value.toString();
+        }
+        return null;
+    }
+
+    public long entries()
+    {
+        return entries;
+    }
+
+    public long distinctValues()
+    {
+        return distinctValues;
+    }
+
+    public int frequentValues()
+    {
+        return frequentValues.length;
+    }
+
+    public int buckets()
+    {
+        return bucketCounts.length;
+    }
+
+    /**
+     * Estimates the number of entries that are equal to the given value.
+     */
+    public double estimateEqualityCount( Object value )
+    {
+        Object key = key( value );
+        if ( key == null )
+        {
+            return averageInfrequentCount();
+        }
+
+        for ( int i = 0; i < frequentValues.length; i++ )
+        {
+            if ( frequentValues[i].equals( key ) )
+            {
+                return frequentValueCounts[i];
+            }
+        }
+
+        if ( key instanceof Double && bucketCounts.length > 0 )
+        {
+            double number = (Double) key;
+            int bucket = bucketFor( number );
+            if ( bucket < 0 )
+            {
+                // no sampled number falls outside of the buckets
+                return 0;
+            }
+
+            long count = bucketCounts[bucket];
+            long distinct = bucketDistinctValues[bucket];
+            for ( int i = 0; i < frequentValues.length; i++ )
+            {
+                if ( frequentValues[i] instanceof Double && inBucket( bucket, (Double) frequentValues[i] ) )
+                {
+                    count -= frequentValueCounts[i];
+                    distinct--;
+                }
+            }
+            return distinct > 0 ? Math.max( count, 0 ) / (double) distinct : 0;
+        }
+
+        return averageInfrequentCount();
+    }
+
+    /**
+     * Estimates the number of numeric entries in the given range. A {@code null} bound leaves that side open.
+     */
+    public double estimateRangeCount( Number lower, boolean lowerInclusive, Number upper, boolean upperInclusive )
+    {
+        double total = 0;
+        for ( int i = 0; i < bucketCounts.length; i++ )
+        {
+            double low = bucketLowerBounds[i];
+            double high = bucketUpperBounds[i];
+            if ( lower != null && (high < lower.doubleValue() || (high == lower.doubleValue() && !lowerInclusive)) )
+            {
+                continue;
+            }
+            if ( upper != null && (low > upper.doubleValue() || (low == upper.doubleValue() && !upperInclusive)) )
+            {
+                continue;
+            }
+
+            double fraction = 1.0;
+            if ( high > low )
+            {
+                double from = lower == null ? low : Math.max( low, lower.doubleValue() );
+                double to = upper == null ? high : Math.min( high, upper.doubleValue() );
+                fraction = (to - from) / (high - low);
+            }
+            // a range touching a bucket matches at least one of its values
+            fraction = Math.max( fraction, 1.0 / Math.max( bucketDistinctValues[i], 1 ) );
+            total += Math.min( fraction, 1.0 ) * bucketCounts[i];
+        }
+        return total;
+    }
+
+    private double averageInfrequentCount()
+    {
+        long count = entries;
+        for ( long frequentValueCount : frequentValueCounts )
+        {
+            count -= frequentValueCount;
+        }
+        long distinct = distinctValues - frequentValues.length;
+        return distinct > 0 ? Math.max( count, 0 ) / (double) distinct : 0;
+    }
+
+    private int bucketFor( double number )
+    {
+        int index = Arrays.binarySearch( bucketUpperBounds, number );
+        if ( index < 0 )
+        {
+            index = -index - 1;
+        }
+        return index < bucketUpperBounds.length && inBucket( index, number ) ? index : -1;
+    }
+
+    private boolean inBucket( int bucket, double number )
+    {
+        return bucketLowerBounds[bucket] <= number && number <= bucketUpperBounds[bucket];
+    }
+
+    public void write( DataOutput out ) throws IOException
+    {
+        out.writeLong( entries );
+        out.writeLong( distinctValues );
+        out.writeInt( frequentValues.length );
+        for ( int i = 0; i < frequentValues.length; i++ )
+        {
+            Object value = frequentValues[i];
+            if ( value instanceof Double )
+            {
+                out.writeByte( NUMBER );
+                out.writeDouble( (Double) value );
+            }
+            else if ( value instanceof String )
+            {
+                // not writeUTF, which is limited to strings of 64k encoded bytes
+                byte[] bytes = UTF8.encode( (String) value );
+                out.writeByte( STRING );
+                out.writeInt( bytes.length );
+                out.write( bytes );
+            }
+            else
+            {
+                out.writeByte( BOOLEAN );
+                out.writeBoolean( (Boolean) value );
+            }
+            out.writeLong( frequentValueCounts[i] );
+        }
+        out.writeInt( bucketCounts.length );
+        for ( int i = 0; i < bucketCounts.length; i++ )
+        {
+            out.writeDouble( bucketLowerBounds[i] );
+            out.writeDouble( bucketUpperBounds[i] );
+            out.writeLong( bucketCounts[i] );
+            out.writeLong( bucketDistinctValues[i] );
+        }
+    }
+
+    public static IndexHistogram read( DataInput in ) throws IOException
+    {
+        long entries = in.readLong();
+        long distinctValues = in.readLong();
+        int frequent = in.readInt();
+        Object[] frequentValues = new Object[frequent];
+        long[] frequentValueCounts = new long[frequent];
+        for ( int i = 0; i < frequent; i++ )
+        {
+            byte type = in.readByte();
+            switch ( type )
+            {
+            case NUMBER:
+                frequentValues[i] = in.readDouble();
+                break;
+            case STRING:
+            {
+                int length = in.readInt();
+                if ( length < 0 )
+                {
+                    throw new IOException( "Illegal string length " + length + " in index histogram" );
+                }
+                byte[] bytes = new byte[length];
+                in.readFully( bytes );
+                frequentValues[i] = UTF8.decode( bytes );
+                break;
+            }
+            case BOOLEAN:
+                frequentValues[i] = in.readBoolean();
+                break;
+            default:
+                throw new IOException( "Unknown value type " + type + " in index histogram" );
+            }
+            frequentValueCounts[i] = in.readLong();
+        }
+        int buckets = in.readInt();
+        double[] lowerBounds = new double[buckets];
+        double[] upperBounds = new double[buckets];
+        long[] counts = new long[buckets];
+        long[] distincts = new long[buckets];
+        for ( int i = 0; i < buckets; i++ )
+        {
+            lowerBounds[i] = in.readDouble();
+            upperBounds[i] = in.readDouble();
+            counts[i] = in.readLong();
+            distincts[i] = in.readLong();
+        }
+        return new IndexHistogram( entries, distinctValues, frequentValues, frequentValueCounts,
+                lowerBounds, upperBounds, counts, distincts );
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "IndexHistogram[entries:%d, distinctValues:%d, frequentValues:%d, buckets:%d]",
+                entries, distinctValues, frequentValues.length, bucketCounts.length );
+    }
+}
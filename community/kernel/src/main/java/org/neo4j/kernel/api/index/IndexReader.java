@@ -26,6 +26,7 @@ import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphdb.Resource;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
+import org.neo4j.kernel.impl.api.index.sampling.IndexHistogramBuilder;
 
 import static org.neo4j.register.Register.DoubleLong;
 
@@ -60,7 +61,7 @@ public interface IndexReader extends Resource
         }
 
         @Override
-        public long sampleIndex( DoubleLong.Out result )
+        public long sampleIndex( DoubleLong.Out result, IndexHistogramBuilder histogram )
         {
             result.write( 0l, 0l );
             return 0;
@@ -86,10 +87,12 @@ public interface IndexReader extends Resource
     /**
      * Sample this index (on the current thread)
      * @param result contains the unique values and the sampled size
+     * @param histogram is given the distinct values of the index and their frequencies, in the same pass
      * @return the index size
      * @throws IndexNotFoundKernelException if the index is dropped while sampling
      */
-    public long sampleIndex( DoubleLong.Out result ) throws IndexNotFoundKernelException;
+    public long sampleIndex( DoubleLong.Out result, IndexHistogramBuilder histogram )
+            throws IndexNotFoundKernelException;
 
     class Delegator implements IndexReader
     {
@@ -119,9 +122,10 @@ public interface IndexReader extends Resource
         }
 
         @Override
-        public long sampleIndex( DoubleLong.Out result ) throws IndexNotFoundKernelException
+        public long sampleIndex( DoubleLong.Out result, IndexHistogramBuilder histogram )
+                throws IndexNotFoundKernelException
         {
-            return delegate.sampleIndex( result );
+            return delegate.sampleIndex( result, histogram );
         }
 
         @Override
@@ -46,7 +46,7 @@ public class KernelStatement implements TxStateHolder, Statement
     private final OperationsFacade facade;
     private LabelScanReader labelScanReader;
     private int referenceCount;
-    private boolean closed;
+    private volatile boolean closed;
 
     public KernelStatement( KernelTransactionImplementation transaction, IndexReaderFactory indexReaderFactory,
                             LabelScanStore labelScanStore, TxStateHolder txStateHolder, Locks.Client locks,
@@ -116,6 +116,14 @@ public class KernelStatement implements TxStateHolder, Statement
         }
     }
 
+    /**
+     * @return {@code true} if this statement has been closed, either by its last user or by its transaction closing.
+     */
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
     void assertOpen()
     {
         if ( closed )
@@ -66,8 +66,8 @@ import org.neo4j.kernel.impl.transaction.TransactionHeaderInformationFactory;
 import org.neo4j.kernel.impl.transaction.TransactionMonitor;
 import org.neo4j.kernel.impl.transaction.command.Command;
 import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.SpillingCommandCollection;
 import org.neo4j.kernel.impl.transaction.state.TransactionRecordState;
-import org.neo4j.kernel.impl.util.collection.ArrayCollection;
 
 import static org.neo4j.kernel.api.ReadOperations.ANY_LABEL;
 import static org.neo4j.kernel.api.ReadOperations.ANY_RELATIONSHIP_TYPE;
@@ -141,7 +141,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
     private final StoreReadLayer storeLayer;
     private final Clock clock;
     private final TransactionToRecordStateVisitor txStateToRecordStateVisitor = new TransactionToRecordStateVisitor();
-    private final Collection<Command> extractedCommands = new ArrayCollection<>( 32 );
+    private final Collection<Command> extractedCommands;
     private TransactionState txState;
     private LegacyIndexTransactionState legacyIndexTransactionState;
     private TransactionType transactionType = TransactionType.ANY;
@@ -175,6 +175,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                                             PersistenceCache persistenceCache,
                                             StoreReadLayer storeLayer,
                                             LegacyIndexTransactionState legacyIndexTransactionState,
+                                            Collection<Command> extractedCommands,
                                             Pool<KernelTransactionImplementation> pool,
                                             Clock clock,
                                             TransactionTracer tracer )
@@ -196,6 +197,7 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         this.persistenceCache = persistenceCache;
         this.storeLayer = storeLayer;
         this.legacyIndexTransactionState = new CachingLegacyIndexTransactionState( legacyIndexTransactionState );
+        this.extractedCommands = extractedCommands;
         this.pool = pool;
         this.clock = clock;
         this.schemaStorage = new SchemaStorage( neoStore.getSchemaStore() );
@@ -461,11 +463,19 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
             // Convert changes into commands and commit
             if ( hasChanges() )
             {
+                // Acquire any locks the locks client has deferred until now
+                locks.prepareForCommit();
+
                 try ( LockGroup lockGroup = new LockGroup() )
                 {
                     // Gather up commands from the various sources
                     extractedCommands.clear();
                     recordState.extractCommands( extractedCommands );
+                    if ( commandsSpilled() )
+                    {   // The records only live on in the spill file from here on. Anything reading record state
+                        // after the commit, like the cache update, loads the committed records from the store.
+                        recordState.releaseRecordChanges();
+                    }
                     legacyIndexTransactionState.extractCommands( extractedCommands );
                     counts.extractCommands( extractedCommands );
 
@@ -491,7 +501,15 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
                                 locks.getLockSessionId() );
 
                         // Commit the transaction
-                        commitProcess.commit( transactionRepresentation, lockGroup, commitEvent );
+                        try
+                        {
+                            commitProcess.commit( transactionRepresentation, lockGroup, commitEvent );
+                        }
+                        finally
+                        {
+                            // Let go of the commands, or their spill file, as soon as they've been applied
+                            extractedCommands.clear();
+                        }
                     }
 
                     if ( hasTxStateWithChanges() )
@@ -515,6 +533,12 @@ public class KernelTransactionImplementation implements KernelTransaction, TxSta
         }
     }
 
+    private boolean commandsSpilled()
+    {
+        return extractedCommands instanceof SpillingCommandCollection &&
+                ((SpillingCommandCollection) extractedCommands).isSpilled();
+    }
+
     private void rollback() throws TransactionFailureException
     {
         try
@@ -19,16 +19,21 @@
  */
 package org.neo4j.kernel.impl.api;
 
+import java.io.File;
+import java.io.FilenameFilter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.neo4j.collection.pool.LinkedQueuePool;
 import org.neo4j.collection.pool.MarshlandPool;
 import org.neo4j.function.Factory;
 import org.neo4j.graphdb.DatabaseShutdownException;
 import org.neo4j.helpers.Clock;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.labelscan.LabelScanStore;
 import org.neo4j.kernel.api.txstate.LegacyIndexTransactionState;
@@ -43,10 +48,13 @@ import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.store.NeoStore;
 import org.neo4j.kernel.impl.transaction.TransactionHeaderInformationFactory;
 import org.neo4j.kernel.impl.transaction.TransactionMonitor;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.log.SpillingCommandCollection;
 import org.neo4j.kernel.impl.transaction.state.IntegrityValidator;
 import org.neo4j.kernel.impl.transaction.state.NeoStoreTransactionContext;
 import org.neo4j.kernel.impl.transaction.state.NeoStoreTransactionContextSupplier;
 import org.neo4j.kernel.impl.transaction.state.TransactionRecordState;
+import org.neo4j.kernel.impl.util.collection.ArrayCollection;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.lifecycle.LifecycleAdapter;
 import org.neo4j.kernel.monitoring.tracing.Tracers;
@@ -63,6 +71,8 @@ import static java.util.Collections.newSetFromMap;
  */
 public class KernelTransactions extends LifecycleAdapter implements Factory<KernelTransaction>
 {
+    public static final String SPILL_FILE_PREFIX = "tx-commands.";
+
     // Transaction dependencies
 
     private final NeoStoreTransactionContextSupplier neoStoreTransactionContextSupplier;
@@ -86,6 +96,10 @@ public class KernelTransactions extends LifecycleAdapter implements Factory<Kern
     private final TransactionMonitor transactionMonitor;
     private final LifeSupport dataSourceLife;
     private final Tracers tracers;
+    private final FileSystemAbstraction fs;
+    private final File spillDirectory;
+    private final int commandSpillThreshold;
+    private final AtomicInteger spillFileCounter = new AtomicInteger();
 
     // End Tx Dependencies
 
@@ -116,7 +130,8 @@ public class KernelTransactions extends LifecycleAdapter implements Factory<Kern
                                LegacyIndexApplier.ProviderLookup legacyIndexProviderLookup,
                                TransactionHooks hooks, TransactionMonitor transactionMonitor,
                                LifeSupport dataSourceLife,
-                               Tracers tracers )
+                               Tracers tracers,
+                               FileSystemAbstraction fs, File spillDirectory, int commandSpillThreshold )
     {
         this.neoStoreTransactionContextSupplier = neoStoreTransactionContextSupplier;
         this.neoStore = neoStore;
@@ -139,6 +154,9 @@ public class KernelTransactions extends LifecycleAdapter implements Factory<Kern
         this.transactionMonitor = transactionMonitor;
         this.dataSourceLife = dataSourceLife;
         this.tracers = tracers;
+        this.fs = fs;
+        this.spillDirectory = spillDirectory;
+        this.commandSpillThreshold = commandSpillThreshold;
     }
 
     /**
@@ -163,7 +181,7 @@ public class KernelTransactions extends LifecycleAdapter implements Factory<Kern
                     labelScanStore, indexingService, updateableSchemaState, recordState, recordStateForCache, providerMap,
                     neoStore, locksClient, hooks, constraintIndexCreator, transactionHeaderInformationFactory,
                     transactionCommitProcess, transactionMonitor, persistenceCache, storeLayer,
-                    legacyIndexTransactionState, localTxPool, Clock.SYSTEM_CLOCK, tracers.transactionTracer );
+                    legacyIndexTransactionState, newExtractedCommands(), localTxPool, Clock.SYSTEM_CLOCK, tracers.transactionTracer );
 
             allTransactions.add( tx );
 
@@ -171,6 +189,16 @@ public class KernelTransactions extends LifecycleAdapter implements Factory<Kern
         }
     };
 
+    private Collection<Command> newExtractedCommands()
+    {
+        if ( commandSpillThreshold <= 0 )
+        {
+            return new ArrayCollection<>( 32 );
+        }
+        File spillFile = new File( spillDirectory, SPILL_FILE_PREFIX + spillFileCounter.incrementAndGet() );
+        return new SpillingCommandCollection( fs, spillFile, commandSpillThreshold );
+    }
+
     @Override
     public KernelTransaction newInstance()
     {
@@ -233,6 +261,28 @@ public class KernelTransactions extends LifecycleAdapter implements Factory<Kern
         globalTxPool.disposeAll();
     }
 
+    @Override
+    public void init() throws Throwable
+    {
+        // Spill files are only ever used by a transaction while it commits, so any found now were left behind
+        // by transactions that were committing when the database went down
+        File[] staleSpillFiles = fs.listFiles( spillDirectory, new FilenameFilter()
+        {
+            @Override
+            public boolean accept( File dir, String name )
+            {
+                return name.startsWith( SPILL_FILE_PREFIX );
+            }
+        } );
+        if ( staleSpillFiles != null )
+        {
+            for ( File file : staleSpillFiles )
+            {
+                fs.deleteFile( file );
+            }
+        }
+    }
+
     @Override
     public void shutdown() throws Throwable
     {
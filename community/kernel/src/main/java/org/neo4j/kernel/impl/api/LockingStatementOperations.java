@@ -35,6 +35,7 @@ import org.neo4j.kernel.api.exceptions.schema.DropConstraintFailureException;
 import org.neo4j.kernel.api.exceptions.schema.DropIndexFailureException;
 import org.neo4j.kernel.api.exceptions.schema.SchemaRuleNotFoundException;
 import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexHistogram;
 import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.api.properties.DefinedProperty;
 import org.neo4j.kernel.api.properties.Property;
@@ -183,6 +184,13 @@ public class LockingStatementOperations implements
         return schemaReadDelegate.indexUniqueValuesPercentage( state, descriptor );
     }
 
+    @Override
+    public IndexHistogram indexGetHistogram( KernelStatement state, IndexDescriptor descriptor ) throws IndexNotFoundKernelException
+    {
+        state.locks().acquireShared( ResourceTypes.SCHEMA, schemaResource() );
+        return schemaReadDelegate.indexGetHistogram( state, descriptor );
+    }
+
     @Override
     public Long indexGetOwningUniquenessConstraintId( KernelStatement state, IndexDescriptor index ) throws SchemaRuleNotFoundException
     {
@@ -365,7 +373,7 @@ public class LockingStatementOperations implements
     @Override
     public void acquireExclusive( KernelStatement state, Locks.ResourceType resourceType, long[] resourceId )
     {
-        state.locks().acquireExclusive( resourceType, resourceId );
+        state.locks().acquireExplicitExclusive( resourceType, resourceId );
     }
 
     @Override
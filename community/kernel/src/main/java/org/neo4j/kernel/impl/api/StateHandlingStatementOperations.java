@@ -52,6 +52,7 @@ import org.neo4j.kernel.api.exceptions.schema.IndexBrokenKernelException;
 import org.neo4j.kernel.api.exceptions.schema.SchemaRuleNotFoundException;
 import org.neo4j.kernel.api.exceptions.schema.TooManyLabelsException;
 import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexHistogram;
 import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.api.properties.DefinedProperty;
 import org.neo4j.kernel.api.properties.Property;
@@ -886,6 +887,13 @@ public class StateHandlingStatementOperations implements
         return storeLayer.indexUniqueValuesPercentage( descriptor );
     }
 
+    @Override
+    public IndexHistogram indexGetHistogram( KernelStatement statement, IndexDescriptor descriptor )
+            throws IndexNotFoundKernelException
+    {
+        return storeLayer.indexGetHistogram( descriptor );
+    }
+
     @Override
     public PrimitiveLongIterator nodeGetRelationships( KernelStatement state, long nodeId, Direction direction,
                                                        int[] relTypes ) throws EntityNotFoundException
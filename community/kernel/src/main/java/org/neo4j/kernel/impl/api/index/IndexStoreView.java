@@ -21,6 +21,7 @@ package org.neo4j.kernel.impl.api.index;
 
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexHistogram;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.api.index.PropertyAccessor;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
@@ -56,4 +57,12 @@ public interface IndexStoreView extends PropertyAccessor
     void replaceIndexCounts( IndexDescriptor descriptor, long uniqueElements, long maxUniqueElements, long indexSize );
 
     void incrementIndexUpdates( IndexDescriptor descriptor, long updatesDelta );
+
+    /**
+     * @return the histogram of the most recent sampling of the given index, or {@link IndexHistogram#EMPTY}
+     * if it has not been sampled.
+     */
+    IndexHistogram indexHistogram( IndexDescriptor descriptor );
+
+    void replaceIndexHistogram( IndexDescriptor descriptor, IndexHistogram histogram );
 }
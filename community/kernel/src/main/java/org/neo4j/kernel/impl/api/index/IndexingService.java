@@ -38,6 +38,7 @@ import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
 import org.neo4j.kernel.api.exceptions.index.IndexPopulationFailedKernelException;
 import org.neo4j.kernel.api.exceptions.schema.ConstraintVerificationFailedKernelException;
 import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexHistogram;
 import org.neo4j.kernel.api.index.IndexEntryConflictException;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.InternalIndexState;
@@ -335,6 +336,12 @@ public class IndexingService extends LifecycleAdapter
         }
     }
 
+    public IndexHistogram indexHistogram( long indexId ) throws IndexNotFoundKernelException
+    {
+        final IndexProxy indexProxy = indexMapRef.getOnlineIndexProxy( indexId );
+        return storeView.indexHistogram( indexProxy.getDescriptor() );
+    }
+
     /*
      * Creates an index.
      *
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import org.neo4j.kernel.api.index.IndexHistogram;
+
+/**
+ * Builds an {@link IndexHistogram} from the distinct values of an index and their frequencies, in a single pass
+ * and in bounded memory.
+ * <p/>
+ * Numbers must be included in ascending order, which is the order indexes keep them in. They are collected into
+ * equi-depth buckets: whenever there are twice as many buckets as wanted, neighbouring buckets are merged and the
+ * depth of the following buckets is doubled.
+ */
+public class IndexHistogramBuilder
+{
+    public static final int DEFAULT_BUCKETS = 32;
+    public static final int DEFAULT_FREQUENT_VALUES = 16;
+
+    private static final Comparator<FrequentValue> BY_COUNT = new Comparator<FrequentValue>()
+    {
+        @Override
+        public int compare( FrequentValue o1, FrequentValue o2 )
+        {
+            return Long.compare( o1.count, o2.count );
+        }
+    };
+
+    private final int maxBuckets;
+    private final int maxFrequentValues;
+    private final PriorityQueue<FrequentValue> frequentValues;
+
+    private long entries;
+    private long distinctValues;
+
+    private final double[] lowerBounds;
+    private final double[] upperBounds;
+    private final long[] counts;
+    private final long[] distincts;
+    private int buckets;
+    private long depth = 1;
+
+    private boolean bucketOpen;
+    private boolean anyNumbers;
+    private double lastNumber;
+
+    public IndexHistogramBuilder()
+    {
+        this( DEFAULT_BUCKETS, DEFAULT_FREQUENT_VALUES );
+    }
+
+    public IndexHistogramBuilder( int maxBuckets, int maxFrequentValues )
+    {
+        this.maxBuckets = maxBuckets;
+        this.maxFrequentValues = maxFrequentValues;
+        this.frequentValues = new PriorityQueue<>( maxFrequentValues + 1, BY_COUNT );
+        this.lowerBounds = new double[2 * maxBuckets + 1];
+        this.upperBounds = new double[2 * maxBuckets + 1];
+        this.counts = new long[2 * maxBuckets + 1];
+        this.distincts = new long[2 * maxBuckets + 1];
+    }
+
+    /**
+     * Include a distinct indexed value that occurs {@code frequency} times in the index.
+     */
+    public void include( Object value, long frequency )
+    {
+        entries += frequency;
+        distinctValues++;
+
+        Object key = IndexHistogram.key( value );
+        if ( key == null )
+        {
+            return;
+        }
+        if ( key instanceof Double )
+        {
+            includeNumber( (Double) key, frequency );
+        }
+        if ( frequency > 1 )
+        {
+            includeFrequent( key, frequency );
+        }
+    }
+
+    private void includeNumber( double number, long frequency )
+    {
+        if ( anyNumbers && Double.compare( number, lastNumber ) <= 0 )
+        {
+            throw new IllegalArgumentException(
+                    "Numbers must be included in ascending order, got " + number + " after " + lastNumber );
+        }
+        lastNumber = number;
+        anyNumbers = true;
+
+        if ( !bucketOpen )
+        {
+            lowerBounds[buckets] = number;
+            counts[buckets] = 0;
+            distincts[buckets] = 0;
+            bucketOpen = true;
+        }
+        upperBounds[buckets] = number;
+        counts[buckets] += frequency;
+        distincts[buckets]++;
+
+        if ( counts[buckets] >= depth )
+        {
+            buckets++;
+            bucketOpen = false;
+            if ( buckets == 2 * maxBuckets )
+            {
+                mergeBuckets();
+            }
+        }
+    }
+
+    private void mergeBuckets()
+    {
+        for ( int i = 0; i < maxBuckets; i++ )
+        {
+            int first = 2 * i;
+            int second = first + 1;
+            lowerBounds[i] = lowerBounds[first];
+            upperBounds[i] = upperBounds[second];
+            counts[i] = counts[first] + counts[second];
+            distincts[i] = distincts[first] + distincts[second];
+        }
+        buckets = maxBuckets;
+        depth *= 2;
+    }
+
+    private void includeFrequent( Object key, long frequency )
+    {
+        if ( frequentValues.size() < maxFrequentValues )
+        {
+            frequentValues.add( new FrequentValue( key, frequency ) );
+        }
+        else if ( frequentValues.peek().count < frequency )
+        {
+            frequentValues.poll();
+            frequentValues.add( new FrequentValue( key, frequency ) );
+        }
+    }
+
+    public IndexHistogram result()
+    {
+        int bucketCount = bucketOpen ? buckets + 1 : buckets;
+
+        FrequentValue[] mostFrequent = frequentValues.toArray( new FrequentValue[frequentValues.size()] );
+        Arrays.sort( mostFrequent, BY_COUNT );
+        Object[] values = new Object[mostFrequent.length];
+        long[] valueCounts = new long[mostFrequent.length];
+        for ( int i = 0; i < mostFrequent.length; i++ )
+        {
+            // most frequent first
+            FrequentValue frequentValue = mostFrequent[mostFrequent.length - 1 - i];
+            values[i] = frequentValue.value;
+            valueCounts[i] = frequentValue.count;
+        }
+
+        return new IndexHistogram( entries, distinctValues, values, valueCounts,
+                Arrays.copyOf( lowerBounds, bucketCount ), Arrays.copyOf( upperBounds, bucketCount ),
+                Arrays.copyOf( counts, bucketCount ), Arrays.copyOf( distincts, bucketCount ) );
+    }
+
+    private static class FrequentValue
+    {
+        private final Object value;
+        private final long count;
+
+        FrequentValue( Object value, long count )
+        {
+            this.value = value;
+            this.count = count;
+        }
+    }
+}
@@ -76,7 +76,8 @@ public class IndexSamplingControllerFactory
                 long updates = output.readFirst();
                 long size = output.readSecond();
                 long threshold = Math.round( config.updateRatio() * size );
-                return updates > threshold;
+                // indexes sampled when populated have counts but no histogram until they are sampled online
+                return updates > threshold || (size > 0 && storeView.indexHistogram( descriptor ).entries() == 0);
             }
         };
     }
@@ -92,13 +93,20 @@ public class IndexSamplingControllerFactory
             @Override
             public boolean accept( IndexDescriptor descriptor )
             {
-                boolean result = storeView.indexSample( descriptor, register ).readSecond() == 0;
-                if ( result )
+                if ( storeView.indexSample( descriptor, register ).readSecond() == 0 )
                 {
                     logger.warn( "Recovering index sampling for index " +
                                  descriptor.userDescription( tokenNameLookup ));
+                    return true;
                 }
-                return result;
+                // non-empty indexes sampled when populated, e.g. by the batch importer, have no histogram yet
+                if ( storeView.indexHistogram( descriptor ).entries() == 0 )
+                {
+                    logger.info( "Sampling index " + descriptor.userDescription( tokenNameLookup ) +
+                                 " to build its histogram" );
+                    return true;
+                }
+                return false;
             }
         };
     }
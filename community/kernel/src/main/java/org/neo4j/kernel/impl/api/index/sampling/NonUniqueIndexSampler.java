@@ -29,6 +29,7 @@ public class NonUniqueIndexSampler
 
     private final int bufferSizeLimit;
     private final MultiSet<String> values;
+    private final IndexHistogramBuilder histogram;
 
     private int sampledSteps = 0;
 
@@ -39,9 +40,19 @@ public class NonUniqueIndexSampler
     private long bufferSize = 0;
 
     public NonUniqueIndexSampler( int bufferSizeLimit )
+    {
+        this( bufferSizeLimit, null );
+    }
+
+    /**
+     * @param histogram is given the values included through {@link #include(String, Object, long)}, so that a
+     * single pass over an index both samples it and builds its histogram.
+     */
+    public NonUniqueIndexSampler( int bufferSizeLimit, IndexHistogramBuilder histogram )
     {
         this.bufferSizeLimit = bufferSizeLimit;
         this.values = new MultiSet<>( INITIAL_SIZE );
+        this.histogram = histogram;
     }
 
     public void include( String value )
@@ -57,6 +68,16 @@ public class NonUniqueIndexSampler
         }
     }
 
+    /**
+     * Include a distinct indexed value that occurs {@code frequency} times in the index, in both the sample and
+     * the histogram. Values must come in the order the index keeps them in, see {@link IndexHistogramBuilder}.
+     */
+    public void include( String value, Object histogramValue, long frequency )
+    {
+        include( value );
+        histogram.include( histogramValue, frequency );
+    }
+
     public void exclude( String value )
     {
         if ( values.remove( value ) == 0 )
@@ -69,7 +69,8 @@ class OnlineIndexSamplingJob implements IndexSamplingJob
                 try ( IndexReader reader = indexProxy.newReader() )
                 {
                     Register.DoubleLongRegister sample = Registers.newDoubleLongRegister();
-                    final long indexSize = reader.sampleIndex( sample );
+                    IndexHistogramBuilder histogram = new IndexHistogramBuilder();
+                    final long indexSize = reader.sampleIndex( sample, histogram );
 
                     // check again if the index is online before saving the counts in the store
                     if ( indexProxy.getState() == ONLINE )
@@ -77,6 +78,7 @@ class OnlineIndexSamplingJob implements IndexSamplingJob
                         long unique = sample.readFirst();
                         long sampleSize = sample.readSecond();
                         storeView.replaceIndexCounts( indexDescriptor, unique, sampleSize, indexSize );
+                        storeView.replaceIndexHistogram( indexDescriptor, histogram.result() );
                         durationLogger.markAsFinished();
                         logger.info(
                             format( "Sampled index %s with %d unique values in sample of avg size %d taken from " +
@@ -26,6 +26,7 @@ import org.neo4j.kernel.api.constraints.UniquenessConstraint;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
 import org.neo4j.kernel.api.exceptions.schema.SchemaRuleNotFoundException;
 import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexHistogram;
 import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.impl.api.KernelStatement;
 import org.neo4j.kernel.impl.store.SchemaStorage;
@@ -67,6 +68,11 @@ public interface SchemaReadOperations
      **/
     double indexUniqueValuesPercentage( KernelStatement state, IndexDescriptor descriptor ) throws IndexNotFoundKernelException;
 
+    /**
+     * Returns the value histogram from the most recent sampling of the index.
+     */
+    IndexHistogram indexGetHistogram( KernelStatement state, IndexDescriptor descriptor ) throws IndexNotFoundKernelException;
+
     /**
      * Returns the failure description of a failed index.
      */
@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.api.state;
 import org.neo4j.kernel.api.constraints.UniquenessConstraint;
 import org.neo4j.kernel.api.index.IndexDescriptor;
 import org.neo4j.kernel.impl.util.diffsets.DiffSets;
+import org.neo4j.kernel.impl.util.diffsets.PrimitiveLongDiffSets;
 import org.neo4j.kernel.impl.util.diffsets.ReadableDiffSets;
 
 /**
@@ -49,7 +50,7 @@ public abstract class LabelState
 
     public static class Mutable extends LabelState
     {
-        private DiffSets<Long> nodeDiffSets;
+        private PrimitiveLongDiffSets nodeDiffSets;
         private DiffSets<IndexDescriptor> indexChanges;
         private DiffSets<IndexDescriptor> constraintIndexChanges;
         private DiffSets<UniquenessConstraint> constraintsChanges;
@@ -71,11 +72,11 @@ public abstract class LabelState
             return ReadableDiffSets.Empty.ifNull( nodeDiffSets );
         }
 
-        public DiffSets<Long> getOrCreateNodeDiffSets()
+        public PrimitiveLongDiffSets getOrCreateNodeDiffSets()
         {
             if ( nodeDiffSets == null )
             {
-                nodeDiffSets = new DiffSets<>();
+                nodeDiffSets = new PrimitiveLongDiffSets();
             }
             return nodeDiffSets;
         }
@@ -126,12 +127,12 @@ public abstract class LabelState
         }
     }
 
-    static abstract class Defaults extends StateDefaults<Integer, LabelState, Mutable>
+    static abstract class Defaults extends StateDefaults<LabelState, Mutable>
     {
         @Override
-        Mutable createValue( Integer key )
+        Mutable createValue( long key )
         {
-            return new Mutable( key );
+            return new Mutable( (int) key );
         }
 
         @Override
@@ -34,6 +34,7 @@ import org.neo4j.kernel.api.properties.DefinedProperty;
 import org.neo4j.kernel.api.txstate.UpdateTriState;
 import org.neo4j.kernel.impl.api.state.RelationshipChangesForNode.DiffStrategy;
 import org.neo4j.kernel.impl.util.diffsets.DiffSets;
+import org.neo4j.kernel.impl.util.diffsets.PrimitiveLongDiffSets;
 import org.neo4j.kernel.impl.util.diffsets.ReadableDiffSets;
 
 import static org.neo4j.collection.primitive.PrimitiveLongCollections.emptyIterator;
@@ -82,7 +83,7 @@ public interface NodeState extends PropertyContainerState
         private DiffSets<Integer> labelDiffSets;
         private RelationshipChangesForNode relationshipsAdded;
         private RelationshipChangesForNode relationshipsRemoved;
-        private Set<DiffSets<Long>> indexDiffs;
+        private Set<PrimitiveLongDiffSets> indexDiffs;
 
         private Mutable( long id )
         {
@@ -261,16 +262,16 @@ public interface NodeState extends PropertyContainerState
             return UpdateTriState.UNTOUCHED;
         }
 
-        public void addIndexDiff( DiffSets<Long> diff )
+        public void addIndexDiff( PrimitiveLongDiffSets diff )
         {
             if ( indexDiffs == null )
             {
-                indexDiffs = Collections.newSetFromMap( new IdentityHashMap<DiffSets<Long>, Boolean>() );
+                indexDiffs = Collections.newSetFromMap( new IdentityHashMap<PrimitiveLongDiffSets, Boolean>() );
             }
             indexDiffs.add( diff );
         }
 
-        public void removeIndexDiff( DiffSets<Long> diff )
+        public void removeIndexDiff( PrimitiveLongDiffSets diff )
         {
             if ( indexDiffs != null )
             {
@@ -282,13 +283,13 @@ public interface NodeState extends PropertyContainerState
         {
             if ( indexDiffs != null )
             {
-                for ( DiffSets<Long> diff : indexDiffs )
+                for ( PrimitiveLongDiffSets diff : indexDiffs )
                 {
-                    if ( diff.getAdded().contains( nodeId ) )
+                    if ( diff.isAdded( nodeId ) )
                     {
                         diff.remove( nodeId );
                     }
-                    else if ( diff.getRemoved().contains( nodeId ) )
+                    else if ( diff.isRemoved( nodeId ) )
                     {
                         diff.add( nodeId );
                     }
@@ -297,10 +298,10 @@ public interface NodeState extends PropertyContainerState
         }
     }
 
-    abstract class Defaults extends StateDefaults<Long, NodeState, NodeState.Mutable>
+    abstract class Defaults extends StateDefaults<NodeState, NodeState.Mutable>
     {
         @Override
-        final Mutable createValue( Long id )
+        final Mutable createValue( long id )
         {
             return new Mutable( id );
         }
@@ -21,8 +21,8 @@ package org.neo4j.kernel.impl.api.state;
 
 import java.util.Map;
 
-import org.neo4j.kernel.impl.util.diffsets.DiffSets;
 import org.neo4j.kernel.impl.util.VersionedHashMap;
+import org.neo4j.kernel.impl.util.diffsets.PrimitiveLongDiffSets;
 import org.neo4j.kernel.impl.util.diffsets.ReadableDiffSets;
 
 /**
@@ -30,16 +30,16 @@ import org.neo4j.kernel.impl.util.diffsets.ReadableDiffSets;
  */
 public class PropertyChanges
 {
-    private VersionedHashMap<Integer, Map<Object, DiffSets<Long>>> changes;
+    private VersionedHashMap<Integer, Map<Object, PrimitiveLongDiffSets>> changes;
 
     public ReadableDiffSets<Long> changesForProperty( int propertyKeyId, Object value )
     {
         if ( changes != null )
         {
-            Map<Object,DiffSets<Long>> keyChanges = changes.get( propertyKeyId );
+            Map<Object,PrimitiveLongDiffSets> keyChanges = changes.get( propertyKeyId );
             if ( keyChanges != null )
             {
-                DiffSets<Long> valueChanges = keyChanges.get( value );
+                PrimitiveLongDiffSets valueChanges = keyChanges.get( value );
                 if ( valueChanges != null )
                 {
                     return valueChanges;
@@ -51,7 +51,7 @@ public class PropertyChanges
 
     public void changeProperty( long entityId, int propertyKeyId, Object oldValue, Object newValue )
     {
-        Map<Object, DiffSets<Long>> keyChanges = keyChanges( propertyKeyId );
+        Map<Object, PrimitiveLongDiffSets> keyChanges = keyChanges( propertyKeyId );
         valueChanges( newValue, keyChanges ).add( entityId );
         valueChanges( oldValue, keyChanges ).remove( entityId );
     }
@@ -66,14 +66,14 @@ public class PropertyChanges
         valueChanges( oldValue, keyChanges( propertyKeyId ) ).remove( entityId );
     }
 
-    private Map<Object, DiffSets<Long>> keyChanges( int propertyKeyId )
+    private Map<Object, PrimitiveLongDiffSets> keyChanges( int propertyKeyId )
     {
         if(changes == null)
         {
             changes = new VersionedHashMap<>();
         }
 
-        Map<Object, DiffSets<Long>> keyChanges = changes.get( propertyKeyId );
+        Map<Object, PrimitiveLongDiffSets> keyChanges = changes.get( propertyKeyId );
         if(keyChanges == null)
         {
             keyChanges = new VersionedHashMap<>();
@@ -82,12 +82,12 @@ public class PropertyChanges
         return keyChanges;
     }
 
-    private DiffSets<Long> valueChanges( Object newValue, Map<Object, DiffSets<Long>> keyChanges )
+    private PrimitiveLongDiffSets valueChanges( Object newValue, Map<Object, PrimitiveLongDiffSets> keyChanges )
     {
-        DiffSets<Long> changes = keyChanges.get( newValue );
+        PrimitiveLongDiffSets changes = keyChanges.get( newValue );
         if(changes == null)
         {
-            changes = new DiffSets<>();
+            changes = new PrimitiveLongDiffSets();
             keyChanges.put( newValue, changes );
         }
         return changes;
@@ -69,10 +69,10 @@ public interface RelationshipState extends PropertyContainerState
         }
     }
 
-    abstract class Defaults extends StateDefaults<Long, RelationshipState, RelationshipState.Mutable>
+    abstract class Defaults extends StateDefaults<RelationshipState, RelationshipState.Mutable>
     {
         @Override
-        Mutable createValue( Long id )
+        Mutable createValue( long id )
         {
             return new Mutable( id );
         }
@@ -20,7 +20,6 @@
 package org.neo4j.kernel.impl.api.state;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
@@ -29,6 +28,8 @@ import org.neo4j.collection.primitive.Primitive;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.collection.primitive.PrimitiveIntObjectMap;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.function.Function;
 import org.neo4j.helpers.Predicate;
@@ -45,6 +46,7 @@ import org.neo4j.kernel.api.txstate.TransactionState;
 import org.neo4j.kernel.impl.api.RelationshipVisitor;
 import org.neo4j.kernel.impl.util.diffsets.DiffSets;
 import org.neo4j.kernel.impl.util.diffsets.DiffSetsVisitor;
+import org.neo4j.kernel.impl.util.diffsets.PrimitiveLongDiffSets;
 import org.neo4j.kernel.impl.util.diffsets.ReadableDiffSets;
 
 import static org.neo4j.helpers.collection.Iterables.map;
@@ -63,47 +65,47 @@ import static org.neo4j.kernel.api.properties.Property.property;
  */
 public final class TxState implements TransactionState
 {
-    private Map<Integer/*Label ID*/, LabelState.Mutable> labelStatesMap;
+    private PrimitiveLongObjectMap<LabelState.Mutable> labelStatesMap;
     private static final LabelState.Defaults LABEL_STATE = new LabelState.Defaults()
     {
         @Override
-        Map<Integer, LabelState.Mutable> getMap( TxState state )
+        PrimitiveLongObjectMap<LabelState.Mutable> getMap( TxState state )
         {
             return state.labelStatesMap;
         }
 
         @Override
-        void setMap( TxState state, Map<Integer, LabelState.Mutable> map )
+        void setMap( TxState state, PrimitiveLongObjectMap<LabelState.Mutable> map )
         {
             state.labelStatesMap = map;
         }
     };
-    private Map<Long/*Node ID*/, NodeState.Mutable> nodeStatesMap;
+    private PrimitiveLongObjectMap<NodeState.Mutable> nodeStatesMap;
     private static final NodeState.Defaults NODE_STATE = new NodeState.Defaults()
     {
         @Override
-        Map<Long, NodeState.Mutable> getMap( TxState state )
+        PrimitiveLongObjectMap<NodeState.Mutable> getMap( TxState state )
         {
             return state.nodeStatesMap;
         }
 
         @Override
-        void setMap( TxState state, Map<Long, NodeState.Mutable> map )
+        void setMap( TxState state, PrimitiveLongObjectMap<NodeState.Mutable> map )
         {
             state.nodeStatesMap = map;
         }
     };
-    private Map<Long/*Relationship ID*/, RelationshipState.Mutable> relationshipStatesMap;
+    private PrimitiveLongObjectMap<RelationshipState.Mutable> relationshipStatesMap;
     private static final RelationshipState.Defaults RELATIONSHIP_STATE = new RelationshipState.Defaults()
     {
         @Override
-        Map<Long, RelationshipState.Mutable> getMap( TxState state )
+        PrimitiveLongObjectMap<RelationshipState.Mutable> getMap( TxState state )
         {
             return state.relationshipStatesMap;
         }
 
         @Override
-        void setMap( TxState state, Map<Long, RelationshipState.Mutable> map )
+        void setMap( TxState state, PrimitiveLongObjectMap<RelationshipState.Mutable> map )
         {
             state.relationshipStatesMap = map;
         }
@@ -121,23 +123,23 @@ public final class TxState implements TransactionState
     private PropertyChanges propertyChangesForNodes;
 
     // Tracks added and removed nodes, not modified nodes
-    private DiffSets<Long> nodes;
+    private PrimitiveLongDiffSets nodes;
 
     // Tracks added and removed relationships, not modified relationships
-    private DiffSets<Long> relationships;
+    private PrimitiveLongDiffSets relationships;
 
     // This is temporary. It is needed until we've removed nodes and rels from the global cache, to tell
     // that they were created and then deleted in the same tx. This is here just to set a save point to
     // get a large set of changes in, and is meant to be removed in the coming days in a follow-up commit.
-    private final Set<Long> nodesDeletedInTx = new HashSet<>();
-    private final Set<Long> relationshipsDeletedInTx = new HashSet<>();
+    private final PrimitiveLongSet nodesDeletedInTx = Primitive.longSet();
+    private final PrimitiveLongSet relationshipsDeletedInTx = Primitive.longSet();
 
     private Map<UniquenessConstraint, Long> createdConstraintIndexesByConstraint;
 
     private Map<String, Map<String, String>> createdNodeLegacyIndexes;
     private Map<String, Map<String, String>> createdRelationshipLegacyIndexes;
 
-    private PrimitiveIntObjectMap<Map<DefinedProperty, DiffSets<Long>>> indexUpdates;
+    private PrimitiveIntObjectMap<Map<DefinedProperty, PrimitiveLongDiffSets>> indexUpdates;
 
     private boolean hasChanges;
 
@@ -384,7 +386,7 @@ public final class TxState implements TransactionState
         return NODE_STATE.values( this );
     }
 
-    private DiffSets<Long> getOrCreateLabelStateNodeDiffSets( int labelId )
+    private PrimitiveLongDiffSets getOrCreateLabelStateNodeDiffSets( int labelId )
     {
         return LABEL_STATE.getOrCreate( this, labelId ).getOrCreateNodeDiffSets();
     }
@@ -501,7 +503,7 @@ public final class TxState implements TransactionState
     @Override
     public boolean nodeIsDeletedInThisTx( long nodeId )
     {
-        return addedAndRemovedNodes().isRemoved( nodeId )
+        return (nodes != null && nodes.isRemoved( nodeId ))
                 // Temporary until we've stopped adding nodes to the global cache during tx.
                 || nodesDeletedInTx.contains( nodeId );
     }
@@ -558,7 +560,7 @@ public final class TxState implements TransactionState
     @Override
     public boolean relationshipIsDeletedInThisTx( long relationshipId )
     {
-        return addedAndRemovedRelationships().isRemoved( relationshipId )
+        return (relationships != null && relationships.isRemoved( relationshipId ))
                 // Temporary until we stop adding rels to the global cache during tx
                 || relationshipsDeletedInTx.contains( relationshipId );
     }
@@ -792,11 +794,11 @@ public final class TxState implements TransactionState
         return ReadableDiffSets.Empty.ifNull( nodes );
     }
 
-    private DiffSets<Long> nodes()
+    private PrimitiveLongDiffSets nodes()
     {
         if ( nodes == null )
         {
-            nodes = new DiffSets<>();
+            nodes = new PrimitiveLongDiffSets();
         }
         return nodes;
     }
@@ -857,11 +859,11 @@ public final class TxState implements TransactionState
         return ReadableDiffSets.Empty.ifNull( relationships );
     }
 
-    private DiffSets<Long> relationships()
+    private PrimitiveLongDiffSets relationships()
     {
         if ( relationships == null )
         {
-            relationships = new DiffSets<>();
+            relationships = new PrimitiveLongDiffSets();
         }
         return relationships;
     }
@@ -1008,11 +1010,11 @@ public final class TxState implements TransactionState
     public void indexDoUpdateProperty( IndexDescriptor descriptor, long nodeId,
                                        DefinedProperty propertyBefore, DefinedProperty propertyAfter )
     {
-        DiffSets<Long> before = getIndexUpdates( descriptor.getLabelId(), true, propertyBefore );
+        PrimitiveLongDiffSets before = getIndexUpdates( descriptor.getLabelId(), true, propertyBefore );
         if ( before != null )
         {
             before.remove( nodeId );
-            if ( before.getRemoved().contains( nodeId ) )
+            if ( before.isRemoved( nodeId ) )
             {
                 getOrCreateNodeState( nodeId ).addIndexDiff( before );
             }
@@ -1022,11 +1024,11 @@ public final class TxState implements TransactionState
             }
         }
 
-        DiffSets<Long> after = getIndexUpdates( descriptor.getLabelId(), true, propertyAfter );
+        PrimitiveLongDiffSets after = getIndexUpdates( descriptor.getLabelId(), true, propertyAfter );
         if ( after != null )
         {
             after.add( nodeId );
-            if ( after.getAdded().contains( nodeId ) )
+            if ( after.isAdded( nodeId ) )
             {
                 getOrCreateNodeState( nodeId ).addIndexDiff( after );
             }
@@ -1037,7 +1039,7 @@ public final class TxState implements TransactionState
         }
     }
 
-    private DiffSets<Long> getIndexUpdates( int label, boolean create, DefinedProperty property )
+    private PrimitiveLongDiffSets getIndexUpdates( int label, boolean create, DefinedProperty property )
     {
         if ( property == null )
         {
@@ -1051,7 +1053,7 @@ public final class TxState implements TransactionState
             }
             indexUpdates = Primitive.intObjectMap();
         }
-        Map<DefinedProperty, DiffSets<Long>> updates = indexUpdates.get( label );
+        Map<DefinedProperty, PrimitiveLongDiffSets> updates = indexUpdates.get( label );
         if ( updates == null )
         {
             if ( !create )
@@ -1060,10 +1062,10 @@ public final class TxState implements TransactionState
             }
             indexUpdates.put( label, updates = new HashMap<>() );
         }
-        DiffSets<Long> diffs = updates.get( property );
+        PrimitiveLongDiffSets diffs = updates.get( property );
         if ( diffs == null && create )
         {
-            updates.put( property, diffs = new DiffSets<>() );
+            updates.put( property, diffs = new PrimitiveLongDiffSets() );
         }
         return diffs;
     }
@@ -56,6 +56,7 @@ import org.neo4j.kernel.api.exceptions.schema.IndexBrokenKernelException;
 import org.neo4j.kernel.api.exceptions.schema.SchemaRuleNotFoundException;
 import org.neo4j.kernel.api.exceptions.schema.TooManyLabelsException;
 import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexHistogram;
 import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.api.properties.DefinedProperty;
 import org.neo4j.kernel.api.properties.Property;
@@ -368,6 +369,12 @@ public class CacheLayer implements StoreReadLayer
         return indexingService.indexUniqueValuesPercentage( schemaCache.indexId( descriptor ) );
     }
 
+    @Override
+    public IndexHistogram indexGetHistogram( IndexDescriptor descriptor ) throws IndexNotFoundKernelException
+    {
+        return indexingService.indexHistogram( schemaCache.indexId( descriptor ) );
+    }
+
     @Override
     public String indexGetFailure( IndexDescriptor descriptor ) throws IndexNotFoundKernelException
     {
@@ -458,20 +465,20 @@ public class CacheLayer implements StoreReadLayer
     public int nodeGetDegree( long nodeId, Direction direction )
             throws EntityNotFoundException
     {
-        return persistenceCache.nodeGetDegree( nodeId, direction );
+        return diskLayer.nodeGetDegree( nodeId, direction );
     }
 
     @Override
     public int nodeGetDegree( long nodeId, Direction direction, int relType )
             throws EntityNotFoundException
     {
-        return persistenceCache.nodeGetDegree( nodeId, relType, direction );
+        return diskLayer.nodeGetDegree( nodeId, direction, relType );
     }
 
     @Override
     public boolean nodeVisitDegrees( long nodeId, DegreeVisitor visitor )
     {
-        return persistenceCache.nodeVisitDegrees( nodeId, visitor );
+        return diskLayer.nodeVisitDegrees( nodeId, visitor );
     }
 
     @Override
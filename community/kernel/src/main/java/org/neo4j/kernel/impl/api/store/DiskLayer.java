@@ -48,6 +48,7 @@ import org.neo4j.kernel.api.exceptions.schema.IndexBrokenKernelException;
 import org.neo4j.kernel.api.exceptions.schema.SchemaRuleNotFoundException;
 import org.neo4j.kernel.api.exceptions.schema.TooManyLabelsException;
 import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexHistogram;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.api.properties.DefinedProperty;
@@ -66,6 +67,7 @@ import org.neo4j.kernel.impl.store.InvalidRecordException;
 import org.neo4j.kernel.impl.store.NeoStore;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.SchemaStorage;
 import org.neo4j.kernel.impl.store.UnderlyingStorageException;
@@ -119,6 +121,7 @@ public class DiskLayer implements StoreReadLayer
     private final SchemaStorage schemaStorage;
     private final Provider<PropertyStore> propertyStoreProvider;
     private final CountsAccessor counts;
+    private final ThreadLocal<NodeDegreeReader> degreeReaders;
 
     private static class PropertyStoreProvider implements Provider<PropertyStore>
     {
@@ -158,6 +161,15 @@ public class DiskLayer implements StoreReadLayer
         this.propertyStore = this.neoStore.getPropertyStore();
         this.propertyStoreProvider = new PropertyStoreProvider( neoStoreProvider );
         this.counts = neoStore.getCounts();
+        final RelationshipGroupStore relationshipGroupStore = this.neoStore.getRelationshipGroupStore();
+        this.degreeReaders = new ThreadLocal<NodeDegreeReader>()
+        {
+            @Override
+            protected NodeDegreeReader initialValue()
+            {
+                return new NodeDegreeReader( nodeStore, relationshipStore, relationshipGroupStore );
+            }
+        };
     }
 
     @Override
@@ -253,19 +265,27 @@ public class DiskLayer implements StoreReadLayer
     @Override
     public int nodeGetDegree( long nodeId, Direction direction ) throws EntityNotFoundException
     {
-        throw new UnsupportedOperationException( "expected to be answered by cache" );
+        return degreeReaders.get().degree( nodeId, direction, NodeDegreeReader.ANY_TYPE );
     }
 
     @Override
     public int nodeGetDegree( long nodeId, Direction direction, int relType ) throws EntityNotFoundException
     {
-        throw new UnsupportedOperationException( "expected to be answered by cache" );
+        return degreeReaders.get().degree( nodeId, direction, relType );
     }
 
     @Override
     public boolean nodeVisitDegrees( long nodeId, DegreeVisitor visitor )
     {
-        throw new UnsupportedOperationException( "expected to be answered by cache" );
+        try
+        {
+            degreeReaders.get().visitDegrees( nodeId, visitor );
+            return true;
+        }
+        catch ( EntityNotFoundException e )
+        {
+            return false;
+        }
     }
 
     @Override
@@ -439,6 +459,12 @@ public class DiskLayer implements StoreReadLayer
         return indexService.indexUniqueValuesPercentage( indexId( descriptor ) );
     }
 
+    @Override
+    public IndexHistogram indexGetHistogram( IndexDescriptor descriptor ) throws IndexNotFoundKernelException
+    {
+        return indexService.indexHistogram( indexId( descriptor ) );
+    }
+
     @Override
     public String indexGetFailure( IndexDescriptor descriptor ) throws IndexNotFoundKernelException
     {
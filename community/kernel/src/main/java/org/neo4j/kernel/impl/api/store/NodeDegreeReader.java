@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.store;
+
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.api.EntityType;
+import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
+import org.neo4j.kernel.impl.api.DegreeVisitor;
+import org.neo4j.kernel.impl.store.NodeStore;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+
+/**
+ * Answers degree questions straight from the store files, without loading relationships into the object cache.
+ *
+ * The first record in each relationship chain keeps the length of that chain in its prev field, so the degree of
+ * a dense node is answered by reading its relationship groups and the first record of each chain in them. Chains
+ * of non-dense nodes are bounded by the dense node threshold and are walked when the degree is asked for a
+ * specific type or direction.
+ *
+ * A chain may be changed concurrently while it is read, so a record that is no longer in use ends the chain,
+ * like it does when relationships are loaded into the object cache, rather than failing the read.
+ *
+ * The records are reused between calls, so an instance must only be used by one thread at a time.
+ */
+class NodeDegreeReader
+{
+    static final int ANY_TYPE = -1;
+
+    private final NodeStore nodeStore;
+    private final RelationshipStore relationshipStore;
+    private final RelationshipGroupStore groupStore;
+
+    private final NodeRecord node = new NodeRecord( -1 );
+    private final RelationshipRecord relationship = new RelationshipRecord( -1 );
+    private final RelationshipGroupRecord group = new RelationshipGroupRecord( -1, -1 );
+
+    NodeDegreeReader( NodeStore nodeStore, RelationshipStore relationshipStore, RelationshipGroupStore groupStore )
+    {
+        this.nodeStore = nodeStore;
+        this.relationshipStore = relationshipStore;
+        this.groupStore = groupStore;
+    }
+
+    int degree( long nodeId, Direction direction, int type ) throws EntityNotFoundException
+    {
+        NodeRecord node = loadNode( nodeId );
+        long firstRel = node.getNextRel();
+        if ( Record.NO_NEXT_RELATIONSHIP.is( firstRel ) )
+        {
+            return 0;
+        }
+        if ( node.isDense() )
+        {
+            return denseDegree( nodeId, firstRel, direction, type );
+        }
+        if ( type == ANY_TYPE && direction == Direction.BOTH )
+        {
+            return chainLength( nodeId, firstRel );
+        }
+
+        int count = 0;
+        long relId = firstRel;
+        while ( !Record.NO_NEXT_RELATIONSHIP.is( relId ) )
+        {
+            RelationshipRecord rel = loadRelationship( relId );
+            if ( rel == null )
+            {
+                break;
+            }
+            if ( type == ANY_TYPE || rel.getType() == type )
+            {
+                boolean outgoing = rel.getFirstNode() == nodeId;
+                boolean incoming = rel.getSecondNode() == nodeId;
+                if ( (outgoing && direction != Direction.INCOMING) || (incoming && direction != Direction.OUTGOING) )
+                {
+                    count++;
+                }
+            }
+            relId = nextInChain( nodeId, rel );
+        }
+        return count;
+    }
+
+    /**
+     * Visits the degrees of the given node. A type may be visited more than once for non-dense nodes, in which
+     * case the degrees are to be added together. Loops count as both outgoing and incoming.
+     */
+    void visitDegrees( long nodeId, DegreeVisitor visitor ) throws EntityNotFoundException
+    {
+        NodeRecord node = loadNode( nodeId );
+        long firstRel = node.getNextRel();
+        if ( Record.NO_NEXT_RELATIONSHIP.is( firstRel ) )
+        {
+            return;
+        }
+        if ( node.isDense() )
+        {
+            long groupId = firstRel;
+            while ( !Record.NO_NEXT_RELATIONSHIP.is( groupId ) )
+            {
+                RelationshipGroupRecord group = loadGroup( groupId );
+                if ( group == null )
+                {
+                    break;
+                }
+                int loops = chainLength( nodeId, group.getFirstLoop() );
+                int outgoing = chainLength( nodeId, group.getFirstOut() ) + loops;
+                int incoming = chainLength( nodeId, group.getFirstIn() ) + loops;
+                groupId = group.getNext();
+                visitor.visitDegree( group.getType(), outgoing, incoming );
+            }
+            return;
+        }
+
+        long relId = firstRel;
+        while ( !Record.NO_NEXT_RELATIONSHIP.is( relId ) )
+        {
+            RelationshipRecord rel = loadRelationship( relId );
+            if ( rel == null )
+            {
+                break;
+            }
+            relId = nextInChain( nodeId, rel );
+            visitor.visitDegree( rel.getType(),
+                    rel.getFirstNode() == nodeId ? 1 : 0,
+                    rel.getSecondNode() == nodeId ? 1 : 0 );
+        }
+    }
+
+    private int denseDegree( long nodeId, long firstGroup, Direction direction, int type )
+    {
+        int count = 0;
+        long groupId = firstGroup;
+        while ( !Record.NO_NEXT_RELATIONSHIP.is( groupId ) )
+        {
+            RelationshipGroupRecord group = loadGroup( groupId );
+            if ( group == null )
+            {
+                break;
+            }
+            groupId = group.getNext();
+            if ( type != ANY_TYPE && group.getType() != type )
+            {
+                continue;
+            }
+            if ( direction != Direction.INCOMING )
+            {
+                count += chainLength( nodeId, group.getFirstOut() );
+            }
+            if ( direction != Direction.OUTGOING )
+            {
+                count += chainLength( nodeId, group.getFirstIn() );
+            }
+            count += chainLength( nodeId, group.getFirstLoop() );
+            if ( type != ANY_TYPE )
+            {
+                break;
+            }
+        }
+        return count;
+    }
+
+    private int chainLength( long nodeId, long firstRel )
+    {   // Relationship count is in a PREV field of the first record in a chain
+        if ( Record.NO_NEXT_RELATIONSHIP.is( firstRel ) )
+        {
+            return 0;
+        }
+        RelationshipRecord rel = loadRelationship( firstRel );
+        if ( rel == null )
+        {
+            return 0;
+        }
+        return (int) (rel.getFirstNode() == nodeId ? rel.getFirstPrevRel() : rel.getSecondPrevRel());
+    }
+
+    private NodeRecord loadNode( long nodeId ) throws EntityNotFoundException
+    {
+        if ( nodeStore.loadRecord( nodeId, node ) == null )
+        {
+            throw new EntityNotFoundException( EntityType.NODE, nodeId );
+        }
+        return node;
+    }
+
+    /**
+     * @return the loaded relationship, or {@code null} if it is not in use.
+     */
+    private RelationshipRecord loadRelationship( long relId )
+    {
+        return relationshipStore.fillChainRecord( relId, relationship ) ? relationship : null;
+    }
+
+    /**
+     * @return the loaded group, or {@code null} if it is not in use.
+     */
+    private RelationshipGroupRecord loadGroup( long groupId )
+    {
+        return groupStore.fillRecord( groupId, group ) ? group : null;
+    }
+
+    private static long nextInChain( long nodeId, RelationshipRecord rel )
+    {
+        return rel.getFirstNode() == nodeId ? rel.getFirstNextRel() : rel.getSecondNextRel();
+    }
+}
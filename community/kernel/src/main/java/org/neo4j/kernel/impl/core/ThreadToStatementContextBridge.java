@@ -57,6 +57,30 @@ public class ThreadToStatementContextBridge extends LifecycleAdapter implements
         threadToTransactionMap.remove();
     }
 
+    /**
+     * Unbinds the given transaction from the current thread if it is the one bound to it. A transaction that is
+     * handed between threads may be closed from a thread that it is not bound to, and must then leave whatever
+     * transaction that thread has alone.
+     */
+    public void unbindTransactionFromCurrentThread( TopLevelTransaction transaction )
+    {
+        if ( threadToTransactionMap.get() == transaction )
+        {
+            threadToTransactionMap.remove();
+        }
+    }
+
+    /**
+     * Unbinds the transaction bound to the current thread, and hands it back as a transaction that can be passed
+     * explicitly between threads.
+     */
+    public ThreadUnboundTransaction detachTransactionFromCurrentThread()
+    {
+        TopLevelTransaction transaction = getTopLevelTransactionBoundToThisThread( true );
+        unbindTransactionFromCurrentThread();
+        return new ThreadUnboundTransaction( transaction, this );
+    }
+
     @Override
     public Statement instance()
     {
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.core;
+
+import org.neo4j.kernel.TopLevelTransaction;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.api.Statement;
+import org.neo4j.kernel.api.exceptions.TransactionFailureException;
+
+/**
+ * A top level transaction that is not tied to the thread that began it, so that it can be handed from thread to
+ * thread, for example between requests served from a fixed pool of threads.
+ *
+ * {@link Statement Statements} can be acquired, and the transaction committed, rolled back or terminated, from any
+ * thread. The Core API and Cypher find their transaction through {@link ThreadToStatementContextBridge}, so while
+ * they are used the transaction must be {@link #bindToCurrentThread() bound} to the thread that uses them, and
+ * {@link #unbindFromCurrentThread() unbound} again before that thread goes on to do something else.
+ *
+ * Instances are acquired through {@link ThreadToStatementContextBridge#detachTransactionFromCurrentThread()}.
+ * They are not thread safe; a transaction is used by one thread at a time.
+ */
+public class ThreadUnboundTransaction
+{
+    private final TopLevelTransaction transaction;
+    private final ThreadToStatementContextBridge bridge;
+
+    ThreadUnboundTransaction( TopLevelTransaction transaction, ThreadToStatementContextBridge bridge )
+    {
+        this.transaction = transaction;
+        this.bridge = bridge;
+    }
+
+    public KernelTransaction kernelTransaction()
+    {
+        return transaction.getTransaction();
+    }
+
+    public Statement acquireStatement()
+    {
+        return kernelTransaction().acquireStatement();
+    }
+
+    public void bindToCurrentThread()
+    {
+        bridge.bindTransactionToCurrentThread( transaction );
+    }
+
+    /**
+     * Unbinds this transaction from the current thread, if it is bound to it.
+     */
+    public void unbindFromCurrentThread()
+    {
+        bridge.unbindTransactionFromCurrentThread( transaction );
+    }
+
+    public void commit() throws TransactionFailureException
+    {
+        KernelTransaction kernelTransaction = kernelTransaction();
+        try
+        {
+            kernelTransaction.success();
+            kernelTransaction.close();
+        }
+        finally
+        {
+            unbindFromCurrentThread();
+        }
+    }
+
+    public void rollback() throws TransactionFailureException
+    {
+        KernelTransaction kernelTransaction = kernelTransaction();
+        try
+        {
+            kernelTransaction.failure();
+            kernelTransaction.close();
+        }
+        finally
+        {
+            unbindFromCurrentThread();
+        }
+    }
+
+    public void terminate()
+    {
+        kernelTransaction().markForTermination();
+    }
+}
@@ -86,6 +86,14 @@ public interface Locks extends Lifecycle
          */
         void acquireExclusive(ResourceType resourceType, long ... resourceIds) throws AcquireLockTimeoutException;
 
+        /**
+         * Same as {@link #acquireExclusive(ResourceType, long...)}, but for locks explicitly requested by a user,
+         * which must be held with their full guarantees as soon as this method returns, i.e. they may not be
+         * deferred by clients that otherwise defer acquiring some of their locks until commit.
+         */
+        void acquireExplicitExclusive( ResourceType resourceType, long... resourceIds )
+                throws AcquireLockTimeoutException;
+
         /** Try grabbing exclusive lock, not waiting and returning a boolean indicating if we got the lock. */
         boolean tryExclusiveLock( ResourceType resourceType, long ... resourceIds );
 
@@ -113,6 +121,12 @@ public interface Locks extends Lifecycle
 
         /** For slave transactions, this tracks an identifier for the lock session running on the master */
         int getLockSessionId();
+
+        /**
+         * Called right before the transaction owning this client commits, for clients that defer acquiring some
+         * of their locks until commit time.
+         */
+        void prepareForCommit();
     }
 
     /**
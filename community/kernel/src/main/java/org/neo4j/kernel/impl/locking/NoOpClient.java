@@ -78,4 +78,14 @@ public class NoOpClient implements Locks.Client
     {
         return -1;
     }
+
+    @Override
+    public void acquireExplicitExclusive( Locks.ResourceType resourceType, long... resourceIds )
+    {
+    }
+
+    @Override
+    public void prepareForCommit()
+    {
+    }
 }
@@ -196,6 +196,17 @@ public class CommunityLockClient implements Locks.Client
         return lockTransaction.getId();
     }
 
+    @Override
+    public void acquireExplicitExclusive( Locks.ResourceType resourceType, long... resourceIds )
+    {
+        acquireExclusive( resourceType, resourceIds );
+    }
+
+    @Override
+    public void prepareForCommit()
+    {
+    }
+
     private PrimitiveLongObjectMap<LockResource> localShared( Locks.ResourceType resourceType )
     {
         PrimitiveLongObjectMap<LockResource> map = sharedLocks.get( resourceType.typeId() );
@@ -17,17 +17,18 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.consistency.store.paging;
+package org.neo4j.kernel.impl.query;
 
-public interface PageReplacementStrategy
+/**
+ * Notified every time a query has been turned into an execution plan, whether the plan came from the plan cache
+ * or had to be built.
+ */
+public interface QueryPlanningMonitor
 {
-    <PAYLOAD, PAGE extends Page<PAYLOAD>> PAYLOAD acquire( PAGE page, Storage<PAYLOAD, PAGE> storage )
-            throws PageLoadFailureException;
-
-    <PAYLOAD> void forceEvict( Page<PAYLOAD> page );
-
-    public interface Storage<PAYLOAD, PAGE extends Page<PAYLOAD>>
-    {
-        PAYLOAD load( PAGE page ) throws PageLoadFailureException;
-    }
+    /**
+     * @param query the query text.
+     * @param elapsedNanos the time spent planning, including looking in the plan cache.
+     * @param cached {@code true} if a cached plan was used, {@code false} if a new plan was built.
+     */
+    void queryPlanned( String query, long elapsedNanos, boolean cached );
 }
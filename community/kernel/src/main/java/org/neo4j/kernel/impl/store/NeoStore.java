@@ -36,6 +36,7 @@ import org.neo4j.kernel.IdGeneratorFactory;
 import org.neo4j.kernel.IdType;
 import org.neo4j.kernel.configuration.Config;
 import org.neo4j.kernel.impl.store.counts.CountsTracker;
+import org.neo4j.kernel.impl.store.counts.IndexHistogramStore;
 import org.neo4j.kernel.impl.store.record.NeoStoreRecord;
 import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
@@ -125,6 +126,7 @@ public class NeoStore extends AbstractStore implements TransactionIdStore, LogVe
     private SchemaStore schemaStore;
     private RelationshipGroupStore relGroupStore;
     private CountsTracker counts;
+    private IndexHistogramStore indexHistograms;
 
     // Fields the neostore keeps cached and must be initialized on startup
     private volatile long creationTimeField = FIELD_NOT_INITIALIZED;
@@ -184,6 +186,9 @@ public class NeoStore extends AbstractStore implements TransactionIdStore, LogVe
         {
             throw new UnderlyingStorageException( "Failed to initialize counts store", e );
         }
+        this.indexHistograms = new IndexHistogramStore( fileSystemAbstraction,
+                new File( fileName.getPath() + StoreFactory.INDEX_HISTOGRAMS_STORE ), stringLogger );
+        indexHistograms.init();
     }
 
     @Override
@@ -287,6 +292,21 @@ public class NeoStore extends AbstractStore implements TransactionIdStore, LogVe
                 counts = null;
             }
         }
+        if ( indexHistograms != null )
+        {
+            try
+            {
+                indexHistograms.flush();
+            }
+            catch ( IOException e )
+            {
+                throw new UnderlyingStorageException( e );
+            }
+            finally
+            {
+                indexHistograms = null;
+            }
+        }
     }
 
     @Override
@@ -298,6 +318,10 @@ public class NeoStore extends AbstractStore implements TransactionIdStore, LogVe
             {
                 counts.rotate( getLastCommittedTransactionId() );
             }
+            if ( indexHistograms != null )
+            {
+                indexHistograms.flush();
+            }
             pageCache.flush();
         }
         catch ( IOException e )
@@ -718,6 +742,11 @@ public class NeoStore extends AbstractStore implements TransactionIdStore, LogVe
         return counts;
     }
 
+    public IndexHistogramStore getIndexHistograms()
+    {
+        return indexHistograms;
+    }
+
     @Override
     public void makeStoreOk()
     {
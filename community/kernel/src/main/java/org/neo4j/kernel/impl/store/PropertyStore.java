@@ -26,6 +26,8 @@ import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
 
+import org.neo4j.graphdb.config.Setting;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.helpers.Pair;
 import org.neo4j.helpers.UTF8;
 import org.neo4j.helpers.collection.IteratorUtil;
@@ -59,6 +61,8 @@ public class PropertyStore extends AbstractRecordStore<PropertyRecord> implement
 {
     public static abstract class Configuration extends AbstractStore.Configuration
     {
+        public static final Setting<Integer> string_compression_threshold =
+                GraphDatabaseSettings.string_compression_threshold;
     }
 
     public static final int DEFAULT_DATA_BLOCK_SIZE = 120;
@@ -75,6 +79,8 @@ public class PropertyStore extends AbstractRecordStore<PropertyRecord> implement
     private DynamicStringStore stringPropertyStore;
     private PropertyKeyTokenStore propertyKeyTokenStore;
     private DynamicArrayStore arrayPropertyStore;
+    private final StringDictionary stringDictionary;
+    private final int stringCompressionThreshold;
     private final PropertyPhysicalToLogicalConverter physicalToLogicalConverter;
 
     public PropertyStore(
@@ -87,6 +93,7 @@ public class PropertyStore extends AbstractRecordStore<PropertyRecord> implement
             DynamicStringStore stringPropertyStore,
             PropertyKeyTokenStore propertyKeyTokenStore,
             DynamicArrayStore arrayPropertyStore,
+            StringDictionary stringDictionary,
             StoreVersionMismatchHandler versionMismatchHandler,
             Monitors monitors )
     {
@@ -95,6 +102,8 @@ public class PropertyStore extends AbstractRecordStore<PropertyRecord> implement
         this.stringPropertyStore = stringPropertyStore;
         this.propertyKeyTokenStore = propertyKeyTokenStore;
         this.arrayPropertyStore = arrayPropertyStore;
+        this.stringDictionary = stringDictionary;
+        this.stringCompressionThreshold = configuration.get( Configuration.string_compression_threshold );
         this.physicalToLogicalConverter = new PropertyPhysicalToLogicalConverter( this );
     }
 
@@ -115,6 +124,16 @@ public class PropertyStore extends AbstractRecordStore<PropertyRecord> implement
         return arrayPropertyStore;
     }
 
+    public StringDictionary getStringDictionary()
+    {
+        return stringDictionary;
+    }
+
+    public int getStringCompressionThreshold()
+    {
+        return stringCompressionThreshold;
+    }
+
     @Override
     protected void closeStorage()
     {
@@ -485,11 +504,24 @@ public class PropertyStore extends AbstractRecordStore<PropertyRecord> implement
 
     public void encodeValue( PropertyBlock block, int keyId, Object value )
     {
-        encodeValue( block, keyId, value, stringPropertyStore, arrayPropertyStore );
+        encodeValue( block, keyId, value, stringPropertyStore, arrayPropertyStore, stringDictionary,
+                stringCompressionThreshold );
     }
 
     public static void encodeValue( PropertyBlock block, int keyId, Object value,
             DynamicRecordAllocator stringAllocator, DynamicRecordAllocator arrayAllocator )
+    {
+        encodeValue( block, keyId, value, stringAllocator, arrayAllocator, StringDictionary.EMPTY, 0 );
+    }
+
+    /**
+     * @param stringDictionary strings found in this dictionary are stored as references to their entries.
+     * @param stringCompressionThreshold strings of at least this many bytes are compressed, if that makes them
+     * smaller, before being written to the dynamic string store. 0 means no compression.
+     */
+    public static void encodeValue( PropertyBlock block, int keyId, Object value,
+            DynamicRecordAllocator stringAllocator, DynamicRecordAllocator arrayAllocator,
+            StringDictionary stringDictionary, int stringCompressionThreshold )
     {
         if ( value instanceof String )
         {   // Try short string first, i.e. inlined in the property block
@@ -499,8 +531,20 @@ public class PropertyStore extends AbstractRecordStore<PropertyRecord> implement
                 return;
             }
 
+            // Then a reference to a shared dictionary entry
+            int dictionaryId = stringDictionary.idOf( string );
+            if ( dictionaryId != StringDictionary.NOT_IN_DICTIONARY )
+            {
+                setSingleBlockValue( block, keyId, PropertyType.DICTIONARY_STRING, dictionaryId );
+                return;
+            }
+
             // Fall back to dynamic string store
             byte[] encodedString = encodeString( string );
+            if ( stringCompressionThreshold > 0 && encodedString.length >= stringCompressionThreshold )
+            {
+                encodedString = StringCompression.compress( encodedString );
+            }
             List<DynamicRecord> valueRecords = new ArrayList<>();
             allocateStringRecords( valueRecords, encodedString, stringAllocator );
             setSingleBlockValue( block, keyId, PropertyType.STRING, first( valueRecords ).getId() );
@@ -605,7 +649,8 @@ public class PropertyStore extends AbstractRecordStore<PropertyRecord> implement
     {
         Pair<byte[], byte[]> source = stringPropertyStore.readFullByteArray( dynamicRecords, PropertyType.STRING );
         // A string doesn't have a header in the data array
-        return decodeString( source.other() );
+        byte[] data = source.other();
+        return decodeString( StringCompression.isCompressed( data ) ? StringCompression.decompress( data ) : data );
     }
 
     public Object getArrayFor( PropertyBlock propertyBlock )
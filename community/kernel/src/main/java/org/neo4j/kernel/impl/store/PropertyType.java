@@ -304,6 +304,24 @@ public enum PropertyType
         {
             return ShortArray.calculateNumberOfBlocksUsed( firstBlock );
         }
+    },
+    DICTIONARY_STRING( 13 )
+    {
+        @Override
+        public DefinedProperty readProperty( int propertyKeyId, PropertyBlock block, Provider<PropertyStore> store )
+        {
+            return Property.stringProperty( propertyKeyId, getValue( block, store.instance() ) );
+        }
+
+        @Override
+        public String getValue( PropertyBlock block, PropertyStore store )
+        {
+            if ( store == null )
+            {
+                return null;
+            }
+            return store.getStringDictionary().string( (int) block.getSingleValueLong() );
+        }
     };
 
     private final int type;
@@ -372,6 +390,8 @@ public enum PropertyType
             return SHORT_STRING;
         case 12:
             return SHORT_ARRAY;
+        case 13:
+            return DICTIONARY_STRING;
         default: if (nullOnIllegal)
         {
             return null;
@@ -150,6 +150,27 @@ public interface RecordStore<R extends AbstractBaseRecord> extends IdSequence
             apply( store, progressListener, filters );
         }
 
+        /**
+         * Applies this processor to the records with ids in the range {@code [fromId, toId)} only, so that
+         * disjoint ranges of the same store can be processed by different threads.
+         */
+        public <R extends AbstractBaseRecord> void applyFilteredRange( RecordStore<R> store, long fromId, long toId,
+                ProgressListener progressListener ) throws FAILURE
+        {
+            long lowId = Math.max( fromId, store.getNumberOfReservedLowIds() );
+            for ( R record : Scanner.scan( store, lowId, toId ) )
+            {
+                if ( shouldStop )
+                {
+                    break;
+                }
+
+                store.accept( this, record );
+                progressListener.set( record.getLongId() - lowId );
+            }
+            progressListener.done();
+        }
+
         private <R extends AbstractBaseRecord> void apply( RecordStore<R> store, ProgressListener progressListener,
                 Predicate<? super R>... filters ) throws FAILURE
         {
@@ -205,6 +226,42 @@ public interface RecordStore<R extends AbstractBaseRecord> extends IdSequence
             };
         }
 
+        @SafeVarargs
+        public static <R extends AbstractBaseRecord> Iterable<R> scan( final RecordStore<R> store,
+                final long fromId, final long toId, final Predicate<? super R>... filters )
+        {
+            return new Iterable<R>()
+            {
+                @Override
+                public Iterator<R> iterator()
+                {
+                    return new PrefetchingIterator<R>()
+                    {
+                        long id = fromId;
+
+                        @Override
+                        protected R fetchNextOrNull()
+                        {
+                            scan:
+                            while ( id < toId )
+                            {
+                                R record = store.forceGetRecord( id++ );
+                                for ( Predicate<? super R> filter : filters )
+                                {
+                                    if ( !filter.accept( record ) )
+                                    {
+                                        continue scan;
+                                    }
+                                }
+                                return record;
+                            }
+                            return null;
+                        }
+                    };
+                }
+            };
+        }
+
         public static <R extends AbstractBaseRecord> Iterable<R> scanById( final RecordStore<R> store,
                 Iterable<Long> ids )
         {
@@ -66,23 +66,33 @@ public class RelationshipGroupStore extends AbstractRecordStore<RelationshipGrou
 
     @Override
     public RelationshipGroupRecord getRecord( long id )
+    {
+        RelationshipGroupRecord record = new RelationshipGroupRecord( id, -1 );
+        if ( !fillRecord( id, record ) )
+        {
+            throw new InvalidRecordException( "Record[" + id + "] not in use" );
+        }
+        return record;
+    }
+
+    /**
+     * Reads the group record with the given id into the given record, so that it can be reused.
+     *
+     * @return whether or not the record is in use. If not, the fields of the given record are undefined.
+     */
+    public boolean fillRecord( long id, RelationshipGroupRecord target )
     {
         try ( PageCursor cursor = storeFile.io( pageIdForRecord( id ), PF_SHARED_LOCK ) )
         {
+            boolean inUse = false;
             if ( cursor.next() )
             {
-                RelationshipGroupRecord record;
                 do
                 {
-                    record = getRecord( id, cursor );
+                    inUse = readRecord( id, cursor, target );
                 } while ( cursor.shouldRetry() );
-
-                if ( record != null )
-                {
-                    return record;
-                }
             }
-            throw new InvalidRecordException( "Record[" + id + "] not in use" );
+            return inUse;
         }
         catch ( IOException e )
         {
@@ -112,7 +122,7 @@ public class RelationshipGroupStore extends AbstractRecordStore<RelationshipGrou
         }
     }
 
-    private RelationshipGroupRecord getRecord( long id, PageCursor cursor )
+    private boolean readRecord( long id, PageCursor cursor, RelationshipGroupRecord record )
     {
         cursor.setOffset( offsetForId( id ) );
 
@@ -123,7 +133,7 @@ public class RelationshipGroupStore extends AbstractRecordStore<RelationshipGrou
         boolean inUse = (inUseByte&0x1) > 0;
         if ( !inUse )
         {
-            return null;
+            return false;
         }
 
         // [    ,xxx ] high firstIn bits
@@ -142,14 +152,15 @@ public class RelationshipGroupStore extends AbstractRecordStore<RelationshipGrou
         long nextInMod = (highByte & 0xE) << 31;
         long nextLoopMod = (highByte & 0x70) << 28;
 
-        RelationshipGroupRecord record = new RelationshipGroupRecord( id, type );
+        record.setId( id );
+        record.setType( type );
         record.setInUse( inUse );
         record.setNext( longFromIntAndMod( nextLowBits, nextMod ) );
         record.setFirstOut( longFromIntAndMod( nextOutLowBits, nextOutMod ) );
         record.setFirstIn( longFromIntAndMod( nextInLowBits, nextInMod ) );
         record.setFirstLoop( longFromIntAndMod( nextLoopLowBits, nextLoopMod ) );
         record.setOwningNode( owningNode );
-        return record;
+        return true;
     }
 
     @Override
@@ -214,13 +225,14 @@ public class RelationshipGroupStore extends AbstractRecordStore<RelationshipGrou
         {
             if ( cursor.next() )
             {
-                RelationshipGroupRecord record;
+                RelationshipGroupRecord record = new RelationshipGroupRecord( id, -1 );
+                boolean inUse;
                 do
                 {
-                    record = getRecord( id, cursor );
+                    inUse = readRecord( id, cursor, record );
                 } while ( cursor.shouldRetry() );
 
-                if ( record != null )
+                if ( inUse )
                 {
                     return record;
                 }
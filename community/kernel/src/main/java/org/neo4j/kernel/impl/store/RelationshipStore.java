@@ -22,6 +22,7 @@ package org.neo4j.kernel.impl.store;
 import java.io.File;
 import java.io.IOException;
 
+import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.io.pagecache.PageCursor;
@@ -205,6 +206,42 @@ public class RelationshipStore extends AbstractRecordStore<RelationshipRecord> i
         }
     }
 
+    /**
+     * Reads the records with ids in the range [{@code fromId}, {@code toId}) one page at a time, handing each
+     * record in use to the visitor. The given record is reused for every record read, so the visitor must not
+     * keep references to it. The scan stops early if the visitor returns {@code true}.
+     */
+    public <FAILURE extends Exception> void scan( long fromId, long toId, RelationshipRecord record,
+            Visitor<RelationshipRecord,FAILURE> visitor ) throws FAILURE
+    {
+        int recordsPerPage = recordsPerPage();
+        long id = fromId;
+        try ( PageCursor cursor = storeFile.io( pageIdForRecord( fromId ), PF_SHARED_LOCK ) )
+        {
+            while ( id < toId && cursor.next() )
+            {
+                long endOfPage = Math.min( toId, (cursor.getCurrentPageId() + 1) * recordsPerPage );
+                for ( ; id < endOfPage; id++ )
+                {
+                    boolean inUse;
+                    do
+                    {
+                        inUse = readRecord( id, cursor, record );
+                    } while ( cursor.shouldRetry() );
+
+                    if ( inUse && visitor.visit( record ) )
+                    {
+                        return;
+                    }
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
     @Override
     public void forceUpdateRecord( RelationshipRecord record )
     {
@@ -56,6 +56,7 @@ public class StoreFactory
     public static final String KEYS_PART = ".keys";
     public static final String ARRAYS_PART = ".arrays";
     public static final String STRINGS_PART = ".strings";
+    public static final String DICTIONARY_PART = ".dictionary";
     public static final String NODE_STORE_NAME = ".nodestore.db";
     public static final String NODE_LABELS_STORE_NAME = NODE_STORE_NAME + LABELS_PART;
     public static final String PROPERTY_STORE_NAME = ".propertystore.db";
@@ -63,6 +64,7 @@ public class StoreFactory
     public static final String PROPERTY_KEY_TOKEN_NAMES_STORE_NAME = PROPERTY_STORE_NAME + INDEX_PART + KEYS_PART;
     public static final String PROPERTY_STRINGS_STORE_NAME = PROPERTY_STORE_NAME + STRINGS_PART;
     public static final String PROPERTY_ARRAYS_STORE_NAME = PROPERTY_STORE_NAME + ARRAYS_PART;
+    public static final String PROPERTY_STRINGS_DICTIONARY_NAME = PROPERTY_STRINGS_STORE_NAME + DICTIONARY_PART;
     public static final String RELATIONSHIP_STORE_NAME = ".relationshipstore.db";
     public static final String RELATIONSHIP_TYPE_TOKEN_STORE_NAME = ".relationshiptypestore.db";
     public static final String RELATIONSHIP_TYPE_TOKEN_NAMES_STORE_NAME = RELATIONSHIP_TYPE_TOKEN_STORE_NAME +
@@ -72,6 +74,7 @@ public class StoreFactory
     public static final String SCHEMA_STORE_NAME = ".schemastore.db";
     public static final String RELATIONSHIP_GROUP_STORE_NAME = ".relationshipgroupstore.db";
     public static final String COUNTS_STORE = ".counts.db";
+    public static final String INDEX_HISTOGRAMS_STORE = COUNTS_STORE + ".histograms";
     private final Config config;
     @SuppressWarnings( "deprecation" )
     private final IdGeneratorFactory idGeneratorFactory;
@@ -248,9 +251,23 @@ public class StoreFactory
         PropertyKeyTokenStore propertyKeyTokenStore = newPropertyKeyTokenStore( propertyKeysStore );
         DynamicStringStore stringPropertyStore = newDynamicStringStore( propertyStringStore, IdType.STRING_BLOCK );
         DynamicArrayStore arrayPropertyStore = newDynamicArrayStore( propertyArrayStore, IdType.ARRAY_BLOCK );
+        StringDictionary stringDictionary = loadStringDictionary(
+                new File( propertyStringStore.getPath() + DICTIONARY_PART ) );
         return new PropertyStore( propertyStore, config, idGeneratorFactory,
                 pageCache, fileSystemAbstraction, stringLogger, stringPropertyStore, propertyKeyTokenStore,
-                arrayPropertyStore, versionMismatchHandler, monitors );
+                arrayPropertyStore, stringDictionary, versionMismatchHandler, monitors );
+    }
+
+    private StringDictionary loadStringDictionary( File file )
+    {
+        try
+        {
+            return StringDictionary.load( fileSystemAbstraction, file );
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( "Unable to load string dictionary " + file, e );
+        }
     }
 
     public PropertyKeyTokenStore newPropertyKeyTokenStore()
@@ -439,6 +456,19 @@ public class StoreFactory
         createDynamicStringStore( storeFileName( PROPERTY_STRINGS_STORE_NAME ), stringStoreBlockSize,
                 IdType.STRING_BLOCK );
         createDynamicArrayStore( storeFileName( PROPERTY_ARRAYS_STORE_NAME ), arrayStoreBlockSize );
+        createStringDictionary( storeFileName( PROPERTY_STRINGS_DICTIONARY_NAME ) );
+    }
+
+    private void createStringDictionary( File fileName )
+    {
+        try
+        {
+            StringDictionary.EMPTY.writeTo( fileSystemAbstraction, fileName );
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( "Unable to create string dictionary " + fileName, e );
+        }
     }
 
     /**
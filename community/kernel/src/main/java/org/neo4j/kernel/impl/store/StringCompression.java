@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Optional block compression of long string property values in the dynamic string store.
+ * A compressed value starts with a {@link #MARKER marker byte}, which can never be the first byte of
+ * UTF-8 encoded data, followed by the length of the uncompressed data and the deflated data itself.
+ * Compressed and uncompressed values can therefore live side by side in the same store, and values are
+ * only ever written compressed if that makes them smaller.
+ */
+public class StringCompression
+{
+    static final byte MARKER = (byte) 0xFF;
+    private static final int HEADER_SIZE = 1 + 4;
+
+    private StringCompression()
+    {   // Only static methods
+    }
+
+    /**
+     * @return {@code utf8} compressed, or {@code utf8} itself if compression doesn't make it smaller.
+     */
+    public static byte[] compress( byte[] utf8 )
+    {
+        if ( utf8.length <= HEADER_SIZE )
+        {
+            return utf8;
+        }
+
+        Deflater deflater = new Deflater( Deflater.BEST_SPEED );
+        try
+        {
+            deflater.setInput( utf8 );
+            deflater.finish();
+            byte[] target = new byte[utf8.length];
+            ByteBuffer.wrap( target ).put( MARKER ).putInt( utf8.length );
+            int length = HEADER_SIZE;
+            while ( !deflater.finished() && length < target.length )
+            {
+                length += deflater.deflate( target, length, target.length - length );
+            }
+            return deflater.finished() ? Arrays.copyOf( target, length ) : utf8;
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    public static boolean isCompressed( byte[] data )
+    {
+        return data.length > HEADER_SIZE && data[0] == MARKER;
+    }
+
+    /**
+     * @return the length of the data {@link #isCompressed(byte[]) compressed} {@code data} decompresses into.
+     */
+    public static int uncompressedLength( byte[] data )
+    {
+        return ByteBuffer.wrap( data, 1, 4 ).getInt();
+    }
+
+    public static byte[] decompress( byte[] data )
+    {
+        int length = uncompressedLength( data );
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput( data, HEADER_SIZE, data.length - HEADER_SIZE );
+            byte[] utf8 = new byte[length];
+            int read = 0;
+            while ( read < length )
+            {
+                int bytes = inflater.inflate( utf8, read, length - read );
+                if ( bytes == 0 && (inflater.finished() || inflater.needsInput()) )
+                {
+                    throw new InvalidRecordException( "Compressed string ended after " + read + " of " +
+                            length + " bytes" );
+                }
+                read += bytes;
+            }
+            return utf8;
+        }
+        catch ( DataFormatException e )
+        {
+            throw new InvalidRecordException( "Invalid compressed string", e );
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+
+import static org.neo4j.kernel.impl.store.PropertyStore.decodeString;
+import static org.neo4j.kernel.impl.store.PropertyStore.encodeString;
+
+/**
+ * Per-store dictionary of string property values which are referenced from
+ * {@link PropertyType#DICTIONARY_STRING} property blocks by id, instead of each being written
+ * to the dynamic string store. The dictionary is kept in memory and is append-only: it's populated
+ * when a store is created by the batch importer and only looked up in after that, so entries are
+ * never changed or removed once they have been referenced.
+ * <p/>
+ * Each store has a dictionary file, empty unless written by the batch importer. The file has no version trailer,
+ * its format is covered by the version of the other store files.
+ */
+public class StringDictionary
+{
+    public static final String TYPE_DESCRIPTOR = "StringDictionary";
+    public static final int NOT_IN_DICTIONARY = -1;
+    public static final StringDictionary EMPTY = new StringDictionary();
+
+    private final ConcurrentMap<String,Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] strings = new String[16];
+    private volatile int size;
+
+    /**
+     * @return the id of {@code string} in this dictionary, or {@link #NOT_IN_DICTIONARY}.
+     */
+    public int idOf( String string )
+    {
+        Integer id = ids.get( string );
+        return id != null ? id : NOT_IN_DICTIONARY;
+    }
+
+    public String string( int id )
+    {
+        if ( !contains( id ) )
+        {
+            throw new InvalidRecordException( "String dictionary entry " + id + " doesn't exist, dictionary has " +
+                    size + " entries" );
+        }
+        return strings[id];
+    }
+
+    public boolean contains( long id )
+    {
+        return id >= 0 && id < size;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Adds {@code string} to this dictionary, unless it's already in it.
+     *
+     * @return the id of {@code string} in this dictionary.
+     */
+    protected synchronized int add( String string )
+    {
+        Integer existing = ids.get( string );
+        if ( existing != null )
+        {
+            return existing;
+        }
+
+        int id = size;
+        if ( id == strings.length )
+        {
+            strings = Arrays.copyOf( strings, id << 1 );
+        }
+        strings[id] = string;
+        size = id + 1;
+        ids.put( string, id );
+        return id;
+    }
+
+    public void writeTo( FileSystemAbstraction fs, File file ) throws IOException
+    {
+        try ( DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream( fs.openAsOutputStream( file, false ) ) ) )
+        {
+            int count = size;
+            out.writeInt( count );
+            for ( int id = 0; id < count; id++ )
+            {
+                byte[] bytes = encodeString( strings[id] );
+                out.writeInt( bytes.length );
+                out.write( bytes );
+            }
+        }
+    }
+
+    /**
+     * Reads the dictionary in {@code file}, or returns an empty dictionary if there's no such file.
+     */
+    public static StringDictionary load( FileSystemAbstraction fs, File file ) throws IOException
+    {
+        StringDictionary dictionary = new StringDictionary();
+        if ( !fs.fileExists( file ) )
+        {
+            return dictionary;
+        }
+
+        try ( DataInputStream in = new DataInputStream( new BufferedInputStream( fs.openAsInputStream( file ) ) ) )
+        {
+            int count = in.readInt();
+            for ( int id = 0; id < count; id++ )
+            {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully( bytes );
+                dictionary.add( decodeString( bytes ) );
+            }
+        }
+        return dictionary;
+    }
+}
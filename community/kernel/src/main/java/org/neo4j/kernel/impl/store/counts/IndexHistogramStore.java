@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.counts;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.api.index.IndexHistogram;
+import org.neo4j.kernel.impl.util.StringLogger;
+
+/**
+ * Keeps the {@link IndexHistogram histograms} produced by index sampling, next to the counts store.
+ *
+ * Histograms are only ever replaced as a whole by a new sampling of their index, so they are kept in memory and
+ * written to a single file on flush, by writing a new file and moving it in place. Since the contents can always be
+ * regenerated by sampling, a missing or unreadable file is not an error, the store just starts out empty.
+ */
+public class IndexHistogramStore
+{
+    private static final int FORMAT_VERSION = 2;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final FileSystemAbstraction fs;
+    private final File file;
+    private final StringLogger logger;
+    private final ConcurrentMap<Long,IndexHistogram> histograms = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    public IndexHistogramStore( FileSystemAbstraction fs, File file, StringLogger logger )
+    {
+        this.fs = fs;
+        this.file = file;
+        this.logger = logger;
+    }
+
+    public void init()
+    {
+        histograms.clear();
+        if ( !fs.fileExists( file ) )
+        {
+            return;
+        }
+        try ( DataInputStream in = new DataInputStream( new BufferedInputStream( fs.openAsInputStream( file ) ) ) )
+        {
+            int version = in.readInt();
+            if ( version != FORMAT_VERSION )
+            {
+                logger.warn( "Ignoring index histograms in " + file + " of unknown format version " + version );
+                return;
+            }
+            int count = in.readInt();
+            for ( int i = 0; i < count; i++ )
+            {
+                long key = in.readLong();
+                histograms.put( key, IndexHistogram.read( in ) );
+            }
+        }
+        catch ( IOException e )
+        {
+            histograms.clear();
+            logger.warn( "Unable to read index histograms from " + file + ", they will be rebuilt by sampling", e );
+        }
+    }
+
+    public IndexHistogram histogram( int labelId, int propertyKeyId )
+    {
+        IndexHistogram histogram = histograms.get( key( labelId, propertyKeyId ) );
+        return histogram == null ? IndexHistogram.EMPTY : histogram;
+    }
+
+    public void replace( int labelId, int propertyKeyId, IndexHistogram histogram )
+    {
+        histograms.put( key( labelId, propertyKeyId ), histogram );
+        dirty = true;
+    }
+
+    public synchronized void flush() throws IOException
+    {
+        if ( !dirty )
+        {
+            return;
+        }
+        dirty = false;
+
+        File tempFile = new File( file.getPath() + TEMP_SUFFIX );
+        try ( DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream( fs.openAsOutputStream( tempFile, false ) ) ) )
+        {
+            Map<Long,IndexHistogram> snapshot = new HashMap<>( histograms );
+            out.writeInt( FORMAT_VERSION );
+            out.writeInt( snapshot.size() );
+            for ( Map.Entry<Long,IndexHistogram> entry : snapshot.entrySet() )
+            {
+                out.writeLong( entry.getKey() );
+                entry.getValue().write( out );
+            }
+        }
+        catch ( IOException e )
+        {
+            dirty = true;
+            throw e;
+        }
+        fs.deleteFile( file );
+        if ( !fs.renameFile( tempFile, file ) )
+        {
+            dirty = true;
+            throw new IOException( "Unable to move " + tempFile + " to " + file );
+        }
+    }
+
+    private static long key( int labelId, int propertyKeyId )
+    {
+        return (((long) labelId) << 32) | (propertyKeyId & 0xFFFFFFFFL);
+    }
+}
@@ -25,6 +25,7 @@ import java.nio.ByteBuffer;
 import java.util.LinkedList;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.impl.store.InvalidIdGeneratorException;
@@ -529,6 +530,34 @@ public class IdGeneratorImpl implements IdGenerator
         }
     }
 
+    /**
+     * Reads the defragged ids of a cleanly closed id file into {@code target}, without opening it as a generator.
+     *
+     * @throws InvalidIdGeneratorException if the id file wasn't cleanly closed.
+     */
+    public static void readDefraggedIds( FileSystemAbstraction fileSystem, File file, PrimitiveLongSet target )
+            throws IOException
+    {
+        try ( StoreChannel channel = fileSystem.open( file, "r" ) )
+        {
+            readHighIdFromHeader( channel, file );
+            ByteBuffer buffer = ByteBuffer.allocate( 8 * 1024 );
+            while ( channel.read( buffer ) > 0 )
+            {
+                buffer.flip();
+                while ( buffer.remaining() >= 8 )
+                {
+                    long id = buffer.getLong();
+                    if ( id != INTEGER_MINUS_ONE )
+                    {
+                        target.add( id );
+                    }
+                }
+                buffer.compact();
+            }
+        }
+    }
+
     private void readIdBatch()
     {
         if ( !canReadMoreIdBatches() )
@@ -20,7 +20,9 @@
 package org.neo4j.kernel.impl.store.record;
 
 import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.InvalidRecordException;
 import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.StringCompression;
 
 
 public class DynamicRecord extends Abstract64BitRecord
@@ -143,7 +145,12 @@ public class DynamicRecord extends Abstract64BitRecord
         buf.append( ",data=" );
         if ( data != null )
         {
-            if ( type == PropertyType.STRING && data.length <= MAX_CHARS_IN_TO_STRING )
+            String compressed = type == PropertyType.STRING ? compressedStringToString() : null;
+            if ( compressed != null )
+            {
+                buf.append( compressed ).append( ',' );
+            }
+            else if ( type == PropertyType.STRING && data.length <= MAX_CHARS_IN_TO_STRING )
             {
                 buf.append( '"' );
                 buf.append( PropertyStore.decodeString( data ) );
@@ -176,6 +183,32 @@ public class DynamicRecord extends Abstract64BitRecord
         return buf.toString();
     }
     
+    /**
+     * Only the start record of a compressed string is recognizable as such, and only a compressed string
+     * contained in that one record can be decompressed.
+     *
+     * @return description of a compressed string value, or {@code null} if this isn't one.
+     */
+    private String compressedStringToString()
+    {
+        if ( !startRecord || !StringCompression.isCompressed( data ) )
+        {
+            return null;
+        }
+        if ( nextBlock == Record.NO_NEXT_BLOCK.intValue() &&
+             StringCompression.uncompressedLength( data ) <= MAX_CHARS_IN_TO_STRING )
+        {
+            try
+            {
+                return "compressed\"" + PropertyStore.decodeString( StringCompression.decompress( data ) ) + '"';
+            }
+            catch ( InvalidRecordException e )
+            {   // Describe it by its size below
+            }
+        }
+        return "compressed byte[size=" + data.length + "]";
+    }
+
     @Override
     public DynamicRecord clone()
     {
@@ -179,6 +179,9 @@ public class PropertyBlock implements Cloneable
             case ARRAY:
                 result.append( ",firstDynamic=" ).append( getSingleValueLong() );
                 break;
+            case DICTIONARY_STRING:
+                result.append( ",dictionaryEntry=" ).append( getSingleValueLong() );
+                break;
             default:
                 Object value = type.getValue( this, null );
                 if ( value != null && value.getClass().isArray() )
@@ -42,6 +42,7 @@ import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.RelationshipTypeTokenStore;
 import org.neo4j.kernel.impl.store.SchemaStore;
 import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.StringDictionary;
 import org.neo4j.kernel.impl.store.counts.CountsTracker;
 import org.neo4j.kernel.impl.storemigration.legacystore.v19.Legacy19Store;
 import org.neo4j.kernel.impl.storemigration.legacystore.v20.Legacy20Store;
@@ -87,6 +88,13 @@ public enum StoreFile
             Legacy19Store.LEGACY_VERSION
     ),
 
+    PROPERTY_STRING_DICTIONARY(
+            StringDictionary.TYPE_DESCRIPTOR,
+            StoreFactory.PROPERTY_STRINGS_DICTIONARY_NAME,
+            AbstractStore.ALL_STORES_VERSION,
+            false
+    ),
+
     PROPERTY_KEY_TOKEN_STORE(
             PropertyKeyTokenStore.TYPE_DESCRIPTOR,
             StoreFactory.PROPERTY_KEY_TOKEN_STORE_NAME,
@@ -161,12 +169,20 @@ public enum StoreFile
     private final String typeDescriptor;
     private final String storeFileNamePart;
     private final String sinceVersion;
+    private final boolean hasVersionTrailer;
 
     private StoreFile( String typeDescriptor, String storeFileNamePart, String sinceVersion )
+    {
+        this( typeDescriptor, storeFileNamePart, sinceVersion, true );
+    }
+
+    private StoreFile( String typeDescriptor, String storeFileNamePart, String sinceVersion,
+            boolean hasVersionTrailer )
     {
         this.typeDescriptor = typeDescriptor;
         this.storeFileNamePart = storeFileNamePart;
         this.sinceVersion = sinceVersion;
+        this.hasVersionTrailer = hasVersionTrailer;
     }
 
     public String forVersion( String version )
@@ -182,6 +198,14 @@ public enum StoreFile
         return typeDescriptor;
     }
 
+    /**
+     * @return whether this file ends with its type descriptor and version, see {@link #forVersion(String)}.
+     */
+    public boolean hasVersionTrailer()
+    {
+        return hasVersionTrailer;
+    }
+
     public String fileName( StoreFileType type )
     {
         return type.augment( NeoStore.DEFAULT_NAME + storeFileNamePart );
@@ -218,7 +242,7 @@ public enum StoreFile
             @Override
             public boolean accept( StoreFile item )
             {
-                return version.compareTo( item.sinceVersion ) >= 0;
+                return item.hasVersionTrailer && version.compareTo( item.sinceVersion ) >= 0;
             }
         };
 
@@ -269,6 +293,10 @@ public enum StoreFile
     {
         for ( StoreFile file : files )
         {
+            if ( !file.hasVersionTrailer )
+            {
+                continue;
+            }
             setStoreVersionTrailer( fs, new File( storeDir, file.storeFileName() ),
                     buildTypeDescriptorAndVersion( file.typeDescriptor(), version ) );
         }
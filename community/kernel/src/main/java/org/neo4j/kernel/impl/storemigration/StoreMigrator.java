@@ -54,6 +54,7 @@ import org.neo4j.kernel.impl.store.RelationshipStore;
 import org.neo4j.kernel.impl.store.RelationshipTypeTokenStore;
 import org.neo4j.kernel.impl.store.StoreFactory;
 import org.neo4j.kernel.impl.store.StoreVersionMismatchHandler;
+import org.neo4j.kernel.impl.store.StringDictionary;
 import org.neo4j.kernel.impl.store.counts.CountsTracker;
 import org.neo4j.kernel.impl.store.id.IdGeneratorImpl;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
@@ -71,6 +72,7 @@ import org.neo4j.kernel.impl.storemigration.legacystore.v19.Legacy19Store;
 import org.neo4j.kernel.impl.storemigration.legacystore.v20.Legacy20Store;
 import org.neo4j.kernel.impl.storemigration.legacystore.v21.Legacy21Store;
 import org.neo4j.kernel.impl.storemigration.legacystore.v21.propertydeduplication.PropertyDeduplicator;
+import org.neo4j.kernel.impl.storemigration.legacystore.v22.Legacy22Store;
 import org.neo4j.kernel.impl.storemigration.monitoring.MigrationProgressMonitor;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.lifecycle.LifeSupport;
@@ -191,7 +193,11 @@ public class StoreMigrator implements StoreMigrationParticipant
         // Write the tx checksum to file in migrationDir, because we need it later when moving files into storeDir
         writeLastTxChecksum( migrationDir, lastTxChecksum );
 
-        if ( versionToUpgradeFrom( storeDir ).equals( Legacy21Store.LEGACY_VERSION ) )
+        if ( versionToUpgradeFrom( storeDir ).equals( Legacy22Store.LEGACY_VERSION ) )
+        {
+            // nothing to rewrite, the store files only get their versions replaced when moving migrated files
+        }
+        else if ( versionToUpgradeFrom( storeDir ).equals( Legacy21Store.LEGACY_VERSION ) )
         {
             // create counters from scratch
             final LifeSupport life = new LifeSupport();
@@ -713,6 +719,10 @@ public class StoreMigrator implements StoreMigrationParticipant
                         StoreFile.PROPERTY_KEY_TOKEN_NAMES_STORE );
                 idFilesToDelete = new StoreFile[]{};
                 break;
+            case Legacy22Store.LEGACY_VERSION:
+                filesToMove = Arrays.asList();
+                idFilesToDelete = new StoreFile[]{};
+                break;
             default:
                 throw new IllegalStateException( "Unknown version to upgrade from: " + versionToUpgradeFrom( storeDir ) );
         }
@@ -730,6 +740,13 @@ public class StoreMigrator implements StoreMigrationParticipant
         // ensure the store version is correct
         ensureStoreVersions( storeDir );
 
+        // stores from versions without a string dictionary get an empty one
+        File stringDictionary = new File( storeDir, StoreFile.PROPERTY_STRING_DICTIONARY.storeFileName() );
+        if ( !fileSystem.fileExists( stringDictionary ) )
+        {
+            StringDictionary.EMPTY.writeTo( fileSystem, stringDictionary );
+        }
+
         // update or add upgrade id and time and other necessary neostore records
         updateOrAddNeoStoreFieldsAsPartOfMigration( migrationDir, storeDir );
 
@@ -740,7 +757,11 @@ public class StoreMigrator implements StoreMigrationParticipant
 
     private void ensureStoreVersions( File dir ) throws IOException
     {
-        final Iterable<StoreFile> versionedStores = iterable( allExcept() );
+        // A 2.2 counts store is kept as is, and both of its files don't necessarily exist. Its trailing
+        // version isn't verified and is replaced next time the counts store rotates.
+        final Iterable<StoreFile> versionedStores = versionToUpgradeFrom( dir ).equals( Legacy22Store.LEGACY_VERSION )
+                ? iterable( allExcept( StoreFile.COUNTS_STORE_LEFT, StoreFile.COUNTS_STORE_RIGHT ) )
+                : iterable( allExcept() );
         StoreFile.ensureStoreVersion( fileSystem, dir, versionedStores );
     }
 
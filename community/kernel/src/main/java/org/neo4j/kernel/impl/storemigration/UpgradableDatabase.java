@@ -28,6 +28,7 @@ import org.neo4j.kernel.impl.store.record.NeoStoreUtil;
 import org.neo4j.kernel.impl.storemigration.legacystore.v19.Legacy19Store;
 import org.neo4j.kernel.impl.storemigration.legacystore.v20.Legacy20Store;
 import org.neo4j.kernel.impl.storemigration.legacystore.v21.Legacy21Store;
+import org.neo4j.kernel.impl.storemigration.legacystore.v22.Legacy22Store;
 
 import static org.neo4j.kernel.impl.storemigration.StoreVersionCheck.Result;
 
@@ -77,6 +78,12 @@ public class UpgradableDatabase
             return Legacy21Store.LEGACY_VERSION;
         }
 
+        result = checkUpgradeableFor( storeDirectory, Legacy22Store.LEGACY_VERSION );
+        if ( result.outcome.isSuccessful() )
+        {
+            return Legacy22Store.LEGACY_VERSION;
+        }
+
         // report error
         switch ( result.outcome )
         {
@@ -86,7 +93,7 @@ public class UpgradableDatabase
                 throw new StoreUpgrader.UpgradingStoreVersionNotFoundException( result.storeFilename );
             case unexpectedUpgradingStoreVersion:
                 throw new StoreUpgrader.UnexpectedUpgradingStoreVersionException(
-                        result.storeFilename, Legacy21Store.LEGACY_VERSION, result.actualVersion );
+                        result.storeFilename, Legacy22Store.LEGACY_VERSION, result.actualVersion );
             default:
                 throw new IllegalArgumentException( result.outcome.name() );
         }
@@ -17,20 +17,24 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.consistency.store.paging;
+package org.neo4j.kernel.impl.storemigration.legacystore.v22;
 
-public class StubPageReplacementStrategy implements PageReplacementStrategy
+/**
+ * Marks a database in the 2.2 store format version.
+ * <p/>
+ * The current format only adds property value encodings on top of it, dictionary referenced strings in
+ * {@link org.neo4j.kernel.impl.store.PropertyType#DICTIONARY_STRING} blocks and compressed string values in
+ * the dynamic string store, which a 2.2 store never contains. Its store files are therefore kept as they are
+ * and migration only replaces their trailing versions and adds an empty string dictionary, which is also why
+ * there's no reader for this version.
+ * <p/>
+ * {@link #LEGACY_VERSION} marks which version this is.
+ */
+public class Legacy22Store
 {
-    @Override
-    public <PAYLOAD, PAGE extends Page<PAYLOAD>> PAYLOAD acquire( PAGE page, Storage<PAYLOAD, PAGE> storage )
-            throws PageLoadFailureException
-    {
-        return page.payload = storage.load( page );
-    }
+    public static final String LEGACY_VERSION = "v0.A.5";
 
-    @Override
-    public <PAYLOAD> void forceEvict( Page<PAYLOAD> page )
-    {
-        page.evict();
+    private Legacy22Store()
+    {   // Only the version
     }
 }
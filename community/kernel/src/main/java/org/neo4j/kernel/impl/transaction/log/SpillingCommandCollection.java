@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.neo4j.helpers.collection.PrefetchingIterator;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.command.PhysicalLogNeoCommandReaderV2;
+import org.neo4j.kernel.impl.util.collection.ArrayCollection;
+
+import static org.neo4j.kernel.impl.transaction.log.ReadAheadLogChannel.DEFAULT_READ_AHEAD_SIZE;
+import static org.neo4j.kernel.impl.transaction.log.entry.LogVersions.CURRENT_LOG_VERSION;
+
+/**
+ * Collection of {@link Command commands} which keeps them in memory up to a threshold, after which all commands
+ * are serialized, in the logical log format, into a file. Iterating over a spilled collection reads the commands
+ * back from that file in the order they were added, so that a transaction producing a very large number of
+ * commands doesn't need to keep all of them on the heap while it's being committed. The records the commands
+ * were created from are let go of by the transaction once its commands have been spilled, so from then on they
+ * only live in the spill file.
+ *
+ * Only adding, iterating and clearing is supported. {@link #clear()} deletes the spill file, if any.
+ */
+public class SpillingCommandCollection extends AbstractCollection<Command>
+{
+    private final FileSystemAbstraction fs;
+    private final File file;
+    private final int threshold;
+    private final ArrayCollection<Command> inMemory = new ArrayCollection<>( 32 );
+    private final List<StoreChannel> openReaders = new ArrayList<>();
+    private int size;
+
+    private StoreChannel spillChannel;
+    private PhysicalWritableLogChannel spillWriter;
+    private CommandWriter commandWriter;
+
+    /**
+     * @param threshold number of commands kept in memory before spilling to {@code file}.
+     */
+    public SpillingCommandCollection( FileSystemAbstraction fs, File file, int threshold )
+    {
+        this.fs = fs;
+        this.file = file;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public boolean add( Command command )
+    {
+        try
+        {
+            if ( commandWriter == null && inMemory.size() >= threshold )
+            {
+                spill();
+            }
+
+            if ( commandWriter != null )
+            {
+                command.handle( commandWriter );
+            }
+            else
+            {
+                inMemory.add( command );
+            }
+            size++;
+            return true;
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
+    private void spill() throws IOException
+    {
+        File directory = file.getParentFile();
+        if ( directory != null )
+        {
+            fs.mkdirs( directory );
+        }
+        spillChannel = fs.open( file, "rw" );
+        spillChannel.truncate( 0 );
+        spillWriter = new PhysicalWritableLogChannel(
+                new PhysicalLogVersionedStoreChannel( spillChannel, 0, CURRENT_LOG_VERSION ) );
+        commandWriter = new CommandWriter( spillWriter );
+        for ( Command command : inMemory )
+        {
+            command.handle( commandWriter );
+        }
+        inMemory.clear();
+    }
+
+    public boolean isSpilled()
+    {
+        return commandWriter != null;
+    }
+
+    @Override
+    public Iterator<Command> iterator()
+    {
+        if ( commandWriter == null )
+        {
+            return inMemory.iterator();
+        }
+
+        try
+        {
+            spillWriter.emptyBufferIntoChannelAndClearIt();
+            final StoreChannel channel = fs.open( file, "r" );
+            openReaders.add( channel );
+            final ReadAheadLogChannel source = new ReadAheadLogChannel(
+                    new PhysicalLogVersionedStoreChannel( channel, 0, CURRENT_LOG_VERSION ),
+                    LogVersionBridge.NO_MORE_CHANNELS, DEFAULT_READ_AHEAD_SIZE );
+            final PhysicalLogNeoCommandReaderV2 reader = new PhysicalLogNeoCommandReaderV2();
+            final int count = size;
+            return new PrefetchingIterator<Command>()
+            {
+                private int read;
+
+                @Override
+                protected Command fetchNextOrNull()
+                {
+                    if ( read == count )
+                    {
+                        closeReader( channel );
+                        return null;
+                    }
+
+                    try
+                    {
+                        Command command = reader.read( source );
+                        read++;
+                        return command;
+                    }
+                    catch ( IOException e )
+                    {
+                        closeReader( channel );
+                        throw new UnderlyingStorageException( e );
+                    }
+                }
+            };
+        }
+        catch ( IOException e )
+        {
+            throw new UnderlyingStorageException( e );
+        }
+    }
+
+    private void closeReader( StoreChannel channel )
+    {
+        if ( openReaders.remove( channel ) )
+        {
+            try
+            {
+                channel.close();
+            }
+            catch ( IOException e )
+            {
+                throw new UnderlyingStorageException( e );
+            }
+        }
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public void clear()
+    {
+        inMemory.clear();
+        size = 0;
+        for ( StoreChannel reader : new ArrayList<>( openReaders ) )
+        {
+            closeReader( reader );
+        }
+        if ( spillChannel != null )
+        {
+            try
+            {
+                spillChannel.close();
+            }
+            catch ( IOException e )
+            {
+                throw new UnderlyingStorageException( e );
+            }
+            finally
+            {
+                spillChannel = null;
+                spillWriter = null;
+                commandWriter = null;
+                fs.deleteFile( file );
+            }
+        }
+    }
+}
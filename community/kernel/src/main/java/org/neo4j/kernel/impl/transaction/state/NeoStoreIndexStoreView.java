@@ -32,6 +32,7 @@ import org.neo4j.kernel.api.EntityType;
 import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
 import org.neo4j.kernel.api.exceptions.PropertyNotFoundException;
 import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexHistogram;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.api.labelscan.NodeLabelUpdate;
 import org.neo4j.kernel.api.properties.Property;
@@ -45,6 +46,7 @@ import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.StoreIdIterator;
 import org.neo4j.kernel.impl.store.counts.CountsTracker;
+import org.neo4j.kernel.impl.store.counts.IndexHistogramStore;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.store.record.PropertyRecord;
@@ -62,19 +64,23 @@ public class NeoStoreIndexStoreView implements IndexStoreView
     private final NodeStore nodeStore;
     private final LockService locks;
     private final CountsTracker counts;
+    private final IndexHistogramStore histograms;
     private final TransactionIdStore txIdStore;
 
     public NeoStoreIndexStoreView( LockService locks, NeoStore neoStore )
     {
-        this( locks, neoStore.getNodeStore(), neoStore.getPropertyStore(), neoStore.getCounts(), neoStore  );
+        this( locks, neoStore.getNodeStore(), neoStore.getPropertyStore(), neoStore.getCounts(),
+                neoStore.getIndexHistograms(), neoStore  );
     }
 
-    public NeoStoreIndexStoreView( LockService locks, NodeStore nodeStore, PropertyStore propertyStore, CountsTracker counts, TransactionIdStore txIdStore )
+    public NeoStoreIndexStoreView( LockService locks, NodeStore nodeStore, PropertyStore propertyStore, CountsTracker counts,
+                                   IndexHistogramStore histograms, TransactionIdStore txIdStore )
     {
         this.locks = locks;
         this.propertyStore = propertyStore;
         this.nodeStore = nodeStore;
         this.counts = counts;
+        this.histograms = histograms;
         this.txIdStore = txIdStore;
     }
 
@@ -109,6 +115,18 @@ public class NeoStoreIndexStoreView implements IndexStoreView
         return counts.indexSample( descriptor.getLabelId(), descriptor.getPropertyKeyId(), output );
     }
 
+    @Override
+    public IndexHistogram indexHistogram( IndexDescriptor descriptor )
+    {
+        return histograms.histogram( descriptor.getLabelId(), descriptor.getPropertyKeyId() );
+    }
+
+    @Override
+    public void replaceIndexHistogram( IndexDescriptor descriptor, IndexHistogram histogram )
+    {
+        histograms.replace( descriptor.getLabelId(), descriptor.getPropertyKeyId(), histogram );
+    }
+
     @Override
     public <FAILURE extends Exception> StoreScan<FAILURE> visitNodesWithPropertyAndLabel(
             IndexDescriptor descriptor, final Visitor<NodePropertyUpdate, FAILURE> visitor )
@@ -24,6 +24,7 @@ import java.util.Iterator;
 import org.neo4j.kernel.impl.store.DynamicRecordAllocator;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.PropertyType;
+import org.neo4j.kernel.impl.store.StringDictionary;
 import org.neo4j.kernel.impl.store.id.IdSequence;
 import org.neo4j.kernel.impl.store.record.DynamicRecord;
 import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
@@ -36,19 +37,32 @@ public class PropertyCreator
 {
     private final DynamicRecordAllocator stringRecordAllocator;
     private final DynamicRecordAllocator arrayRecordAllocator;
+    private final StringDictionary stringDictionary;
+    private final int stringCompressionThreshold;
     private final IdSequence propertyRecordIdGenerator;
     private final PropertyTraverser traverser;
 
     public PropertyCreator( PropertyStore propertyStore, PropertyTraverser traverser )
     {
-        this( propertyStore.getStringStore(), propertyStore.getArrayStore(), propertyStore, traverser );
+        this( propertyStore.getStringStore(), propertyStore.getArrayStore(), propertyStore.getStringDictionary(),
+                propertyStore.getStringCompressionThreshold(), propertyStore, traverser );
     }
 
     public PropertyCreator( DynamicRecordAllocator stringRecordAllocator, DynamicRecordAllocator arrayRecordAllocator,
             IdSequence propertyRecordIdGenerator, PropertyTraverser traverser )
+    {
+        this( stringRecordAllocator, arrayRecordAllocator, StringDictionary.EMPTY, 0, propertyRecordIdGenerator,
+                traverser );
+    }
+
+    public PropertyCreator( DynamicRecordAllocator stringRecordAllocator, DynamicRecordAllocator arrayRecordAllocator,
+            StringDictionary stringDictionary, int stringCompressionThreshold,
+            IdSequence propertyRecordIdGenerator, PropertyTraverser traverser )
     {
         this.stringRecordAllocator = stringRecordAllocator;
         this.arrayRecordAllocator = arrayRecordAllocator;
+        this.stringDictionary = stringDictionary;
+        this.stringCompressionThreshold = stringCompressionThreshold;
         this.propertyRecordIdGenerator = propertyRecordIdGenerator;
         this.traverser = traverser;
     }
@@ -109,7 +123,8 @@ public class PropertyCreator
 
     public PropertyBlock encodeValue( PropertyBlock block, int propertyKey, Object value )
     {
-        PropertyStore.encodeValue( block, propertyKey, value, stringRecordAllocator, arrayRecordAllocator );
+        PropertyStore.encodeValue( block, propertyKey, value, stringRecordAllocator, arrayRecordAllocator,
+                stringDictionary, stringCompressionThreshold );
         return block;
     }
 
@@ -19,11 +19,12 @@
  */
 package org.neo4j.kernel.impl.transaction.state;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
 
-import org.neo4j.helpers.Predicate;
-import org.neo4j.helpers.collection.Iterables;
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
+import org.neo4j.collection.primitive.PrimitiveLongObjectVisitor;
 import org.neo4j.kernel.impl.util.statistics.IntCounter;
 import org.neo4j.kernel.impl.util.statistics.LocalIntCounter;
 
@@ -32,15 +33,18 @@ import org.neo4j.kernel.impl.util.statistics.LocalIntCounter;
  * deciding when to make a record heavy and when to consider it changed for inclusion in the
  * transaction as a command.
  *
+ * Changes are kept in a {@link PrimitiveLongObjectMap} keyed by the numeric id of each record, so that
+ * large transactions don't pay for a boxed key and map entry per changed record.
+ *
  * @author Mattias Persson
  *
  * @param <KEY>
  * @param <RECORD>
  * @param <ADDITIONAL>
  */
-public class RecordChanges<KEY,RECORD,ADDITIONAL> implements RecordAccess<KEY,RECORD,ADDITIONAL>
+public class RecordChanges<KEY extends Number,RECORD,ADDITIONAL> implements RecordAccess<KEY,RECORD,ADDITIONAL>
 {
-    private Map<KEY, RecordProxy<KEY,RECORD,ADDITIONAL>> recordChanges = new HashMap<>();
+    private PrimitiveLongObjectMap<RecordProxy<KEY,RECORD,ADDITIONAL>> recordChanges = Primitive.longObjectMap();
     private final Loader<KEY,RECORD,ADDITIONAL> loader;
     private final boolean manageBeforeState;
     private final IntCounter changeCounter;
@@ -55,13 +59,13 @@ public class RecordChanges<KEY,RECORD,ADDITIONAL> implements RecordAccess<KEY,RE
     @Override
     public RecordProxy<KEY, RECORD, ADDITIONAL> getIfLoaded( KEY key )
     {
-        return recordChanges.get( key );
+        return recordChanges.get( key.longValue() );
     }
 
     @Override
     public RecordProxy<KEY, RECORD, ADDITIONAL> getOrLoad( KEY key, ADDITIONAL additionalData )
     {
-        RecordProxy<KEY, RECORD, ADDITIONAL> result = recordChanges.get( key );
+        RecordProxy<KEY, RECORD, ADDITIONAL> result = recordChanges.get( key.longValue() );
         if ( result == null )
         {
             result = new RecordChange<>( recordChanges, changeCounter, key,
@@ -75,7 +79,7 @@ public class RecordChanges<KEY,RECORD,ADDITIONAL> implements RecordAccess<KEY,RE
     {
         RecordChange<KEY, RECORD, ADDITIONAL> recordChange = new RecordChange<>( recordChanges, changeCounter,
                 key, newRecord, loader, manageBeforeState, false, additionalData );
-        recordChanges.put( key, recordChange );
+        recordChanges.put( key.longValue(), recordChange );
         recordChange.forChangingData();
     }
 
@@ -95,7 +99,7 @@ public class RecordChanges<KEY,RECORD,ADDITIONAL> implements RecordAccess<KEY,RE
         else
         {
             // Let's not allow the internal maps to grow too big over time.
-            recordChanges = new HashMap<>();
+            recordChanges = Primitive.longObjectMap();
         }
         changeCounter.clear();
     }
@@ -103,7 +107,7 @@ public class RecordChanges<KEY,RECORD,ADDITIONAL> implements RecordAccess<KEY,RE
     @Override
     public RecordProxy<KEY, RECORD, ADDITIONAL> create( KEY key, ADDITIONAL additionalData )
     {
-        if ( recordChanges.containsKey( key ) )
+        if ( recordChanges.containsKey( key.longValue() ) )
         {
             throw new IllegalStateException( key + " already exists" );
         }
@@ -111,26 +115,32 @@ public class RecordChanges<KEY,RECORD,ADDITIONAL> implements RecordAccess<KEY,RE
         RECORD record = loader.newUnused( key, additionalData );
         RecordChange<KEY, RECORD, ADDITIONAL> change = new RecordChange<>(
                 recordChanges, changeCounter, key, record, loader, manageBeforeState, true, additionalData);
-        recordChanges.put( key, change );
+        recordChanges.put( key.longValue(), change );
         return change;
     }
 
     @Override
     public Iterable<RecordProxy<KEY,RECORD,ADDITIONAL>> changes()
     {
-        return Iterables.filter( new Predicate<RecordProxy<KEY,RECORD,ADDITIONAL>>()
+        final List<RecordProxy<KEY,RECORD,ADDITIONAL>> changes = new ArrayList<>( changeCounter.value() );
+        recordChanges.visitEntries( new PrimitiveLongObjectVisitor<RecordProxy<KEY,RECORD,ADDITIONAL>,RuntimeException>()
         {
             @Override
-            public boolean accept( RecordProxy<KEY, RECORD, ADDITIONAL> item )
+            public boolean visited( long key, RecordProxy<KEY,RECORD,ADDITIONAL> change )
             {
-                return item.isChanged();
+                if ( change.isChanged() )
+                {
+                    changes.add( change );
+                }
+                return false;
             }
-        }, recordChanges.values() );
+        } );
+        return changes;
     }
 
-    public static class RecordChange<KEY,RECORD,ADDITIONAL> implements RecordProxy<KEY, RECORD, ADDITIONAL>
+    public static class RecordChange<KEY extends Number,RECORD,ADDITIONAL> implements RecordProxy<KEY, RECORD, ADDITIONAL>
     {
-        private final Map<KEY, RecordProxy<KEY, RECORD, ADDITIONAL>> allChanges;
+        private final PrimitiveLongObjectMap<RecordProxy<KEY, RECORD, ADDITIONAL>> allChanges;
         private final IntCounter changeCounter;
         private final Loader<KEY,RECORD,ADDITIONAL> loader;
 
@@ -143,7 +153,7 @@ public class RecordChanges<KEY,RECORD,ADDITIONAL> implements RecordAccess<KEY,RE
         private RECORD before;
         private boolean changed;
 
-        public RecordChange(Map<KEY, RecordProxy<KEY, RECORD, ADDITIONAL>> allChanges, IntCounter changeCounter,
+        public RecordChange(PrimitiveLongObjectMap<RecordProxy<KEY, RECORD, ADDITIONAL>> allChanges, IntCounter changeCounter,
                             KEY key, RECORD record,
                             Loader<KEY, RECORD, ADDITIONAL> loader, boolean manageBeforeState, boolean created, ADDITIONAL additionalData)
         {
@@ -181,7 +191,7 @@ public class RecordChanges<KEY,RECORD,ADDITIONAL> implements RecordAccess<KEY,RE
             ensureHasBeforeRecordImage();
             if ( !this.changed )
             {
-                RecordProxy<KEY, RECORD, ADDITIONAL> previous = this.allChanges.put( key, this );
+                RecordProxy<KEY, RECORD, ADDITIONAL> previous = this.allChanges.put( key.longValue(), this );
 
                 if( previous == null || !previous.isChanged() )
                 {
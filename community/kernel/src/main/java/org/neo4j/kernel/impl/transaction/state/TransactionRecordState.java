@@ -218,6 +218,21 @@ public class TransactionRecordState implements RecordState
         prepared = true;
     }
 
+    /**
+     * Lets go of the record changes once their commands have been {@link #extractCommands(Collection) extracted}
+     * and spilled to disk, so that the records don't stay on the heap for the rest of the commit. Records read
+     * from this state afterwards are loaded from the store again.
+     */
+    public void releaseRecordChanges()
+    {
+        assert prepared : "Commands haven't been extracted";
+        context.initialize();
+        if ( neoStoreRecord != null )
+        {
+            neoStoreRecord.close();
+        }
+    }
+
     public void relCreate( long id, int typeId, long startNodeId, long endNodeId )
     {
         context.relationshipCreate( id, typeId, startNodeId, endNodeId );
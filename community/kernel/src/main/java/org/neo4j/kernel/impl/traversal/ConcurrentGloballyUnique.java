@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.traversal;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.graphdb.traversal.TraversalBranch;
+import org.neo4j.graphdb.traversal.Uniqueness;
+import org.neo4j.graphdb.traversal.UniquenessFactory;
+import org.neo4j.graphdb.traversal.UniquenessFilter;
+
+/**
+ * Thread safe counterpart of global uniqueness, for traversals where branches are checked from several threads.
+ * Visited ids are spread over a number of primitive sets, each guarded by its own lock, so that threads only
+ * contend when they check ids falling into the same stripe.
+ */
+class ConcurrentGloballyUnique implements UniquenessFilter
+{
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    private final boolean relationships;
+    private final PrimitiveLongSet[] visited = new PrimitiveLongSet[STRIPES];
+
+    ConcurrentGloballyUnique( boolean relationships )
+    {
+        this.relationships = relationships;
+        for ( int i = 0; i < STRIPES; i++ )
+        {
+            visited[i] = Primitive.longSet( 1 << 8 );
+        }
+    }
+
+    @Override
+    public boolean checkFirst( TraversalBranch branch )
+    {
+        return relationships || check( branch );
+    }
+
+    @Override
+    public boolean check( TraversalBranch branch )
+    {
+        long id = relationships ? branch.lastRelationship().getId() : branch.endNode().getId();
+        PrimitiveLongSet stripe = visited[(int) ((id * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - STRIPE_BITS))];
+        synchronized ( stripe )
+        {
+            return stripe.add( id );
+        }
+    }
+
+    /**
+     * Creates a {@link UniquenessFilter} which can be used from several threads at the same time.
+     * Global uniqueness is replaced by {@link ConcurrentGloballyUnique}, filters which keep no state of their own
+     * are used as is and all others are synchronized.
+     */
+    static UniquenessFilter concurrentFilter( UniquenessFactory factory, Object parameter )
+    {
+        if ( factory == Uniqueness.NODE_GLOBAL || factory == org.neo4j.kernel.Uniqueness.NODE_GLOBAL )
+        {
+            factory.create( parameter ); // for the parameter validation
+            return new ConcurrentGloballyUnique( false );
+        }
+        if ( factory == Uniqueness.RELATIONSHIP_GLOBAL || factory == org.neo4j.kernel.Uniqueness.RELATIONSHIP_GLOBAL )
+        {
+            factory.create( parameter );
+            return new ConcurrentGloballyUnique( true );
+        }
+
+        final UniquenessFilter filter = factory.create( parameter );
+        if ( factory == Uniqueness.NONE || factory == org.neo4j.kernel.Uniqueness.NONE ||
+             factory == Uniqueness.NODE_PATH || factory == org.neo4j.kernel.Uniqueness.NODE_PATH ||
+             factory == Uniqueness.RELATIONSHIP_PATH || factory == org.neo4j.kernel.Uniqueness.RELATIONSHIP_PATH )
+        {
+            return filter;
+        }
+        return new UniquenessFilter()
+        {
+            @Override
+            public synchronized boolean checkFirst( TraversalBranch branch )
+            {
+                return filter.checkFirst( branch );
+            }
+
+            @Override
+            public synchronized boolean check( TraversalBranch branch )
+            {
+                return filter.check( branch );
+            }
+        };
+    }
+}
@@ -68,6 +68,7 @@ public final class MonoDirectionalTraversalDescription implements TraversalDescr
     final BranchOrderingPolicy branchOrdering;
     final Comparator<? super Path> sorting;
     final Collection<Node> endNodes;
+    final int concurrency;
 
     public MonoDirectionalTraversalDescription()
     {
@@ -83,7 +84,7 @@ public final class MonoDirectionalTraversalDescription implements TraversalDescr
     {
         this( PathExpanders.allTypesAndDirections(), Uniqueness.NODE_GLOBAL, null,
                 Evaluators.all(), InitialBranchState.NO_STATE, BranchOrderingPolicies.PREORDER_DEPTH_FIRST, null, null,
-                statementProvider );
+                statementProvider, 1 );
     }
 
     private MonoDirectionalTraversalDescription( PathExpander expander,
@@ -91,7 +92,7 @@ public final class MonoDirectionalTraversalDescription implements TraversalDescr
                                                  PathEvaluator evaluator, InitialBranchState initialState,
                                                  BranchOrderingPolicy branchOrdering,
                                                  Comparator<? super Path> sorting, Collection<Node> endNodes,
-                                                 Provider<? extends Resource> statementFactory )
+                                                 Provider<? extends Resource> statementFactory, int concurrency )
     {
         this.expander = expander;
         this.uniqueness = uniqueness;
@@ -102,6 +103,7 @@ public final class MonoDirectionalTraversalDescription implements TraversalDescr
         this.endNodes = endNodes;
         this.initialState = initialState;
         this.statementFactory = statementFactory;
+        this.concurrency = concurrency;
     }
 
     public Traverser traverse( Node startNode )
@@ -122,11 +124,25 @@ public final class MonoDirectionalTraversalDescription implements TraversalDescr
             public TraverserIterator newInstance()
             {
                 Resource statement = statementFactory.instance();
-                MonoDirectionalTraverserIterator iterator = new MonoDirectionalTraverserIterator(
-                        statement,
-                        uniqueness.create( uniquenessParameter ),
-                        expander, branchOrdering, evaluator,
-                        iterableStartNodes, initialState, uniqueness );
+                TraverserIterator iterator;
+                if ( concurrency > 1 )
+                {
+                    if ( branchOrdering != BranchOrderingPolicies.PREORDER_BREADTH_FIRST )
+                    {
+                        statement.close();
+                        throw new IllegalStateException( "Parallel traversals only support breadth first ordering" );
+                    }
+                    iterator = new ParallelTraverserIterator( statement,
+                            ConcurrentGloballyUnique.concurrentFilter( uniqueness, uniquenessParameter ),
+                            expander, evaluator, iterableStartNodes, initialState, concurrency );
+                }
+                else
+                {
+                    iterator = new MonoDirectionalTraverserIterator( statement,
+                            uniqueness.create( uniquenessParameter ),
+                            expander, branchOrdering, evaluator,
+                            iterableStartNodes, initialState, uniqueness );
+                }
                 return sorting != null ? new SortingTraverserIterator( statement, sorting, iterator ) : iterator;
             }
         } );
@@ -138,7 +154,7 @@ public final class MonoDirectionalTraversalDescription implements TraversalDescr
     public TraversalDescription uniqueness( UniquenessFactory uniqueness )
     {
         return new MonoDirectionalTraversalDescription( expander, uniqueness, null,
-                evaluator, initialState, branchOrdering, sorting, endNodes, statementFactory );
+                evaluator, initialState, branchOrdering, sorting, endNodes, statementFactory, concurrency );
     }
 
     /* (non-Javadoc)
@@ -154,7 +170,7 @@ public final class MonoDirectionalTraversalDescription implements TraversalDescr
         }
 
         return new MonoDirectionalTraversalDescription( expander, uniqueness, parameter,
-                evaluator, initialState, branchOrdering, sorting, endNodes, statementFactory );
+                evaluator, initialState, branchOrdering, sorting, endNodes, statementFactory, concurrency );
     }
     
     public TraversalDescription evaluator( Evaluator evaluator )
@@ -171,7 +187,7 @@ public final class MonoDirectionalTraversalDescription implements TraversalDescr
         nullCheck( evaluator, Evaluator.class, "RETURN_ALL" );
         return new MonoDirectionalTraversalDescription( expander, uniqueness, uniquenessParameter,
                 addEvaluator( this.evaluator, evaluator ), initialState, branchOrdering, sorting, endNodes,
-                statementFactory );
+                statementFactory, concurrency );
     }
     
     protected static PathEvaluator addEvaluator( PathEvaluator existing, PathEvaluator toAdd )
@@ -209,7 +225,7 @@ public final class MonoDirectionalTraversalDescription implements TraversalDescr
             return this;
         }
         return new MonoDirectionalTraversalDescription( expander, uniqueness, uniquenessParameter,
-                evaluator, initialState, order, sorting, endNodes, statementFactory );
+                evaluator, initialState, order, sorting, endNodes, statementFactory, concurrency );
     }
 
     public TraversalDescription depthFirst()
@@ -253,33 +269,48 @@ public final class MonoDirectionalTraversalDescription implements TraversalDescr
             return this;
         }
         return new MonoDirectionalTraversalDescription( expander, uniqueness,
-                uniquenessParameter, evaluator, initialState, branchOrdering, sorting, endNodes, statementFactory );
+                uniquenessParameter, evaluator, initialState, branchOrdering, sorting, endNodes, statementFactory, concurrency );
     }
     
     public <STATE> TraversalDescription expand( PathExpander<STATE> expander, InitialBranchState<STATE> initialState )
     {
         return new MonoDirectionalTraversalDescription( expander, uniqueness,
-                uniquenessParameter, evaluator, initialState, branchOrdering, sorting, endNodes, statementFactory );
+                uniquenessParameter, evaluator, initialState, branchOrdering, sorting, endNodes, statementFactory, concurrency );
     }
     
     public <STATE> TraversalDescription expand( PathExpander<STATE> expander, InitialStateFactory<STATE> initialState )
     {
         return new MonoDirectionalTraversalDescription( expander, uniqueness,
                 uniquenessParameter, evaluator, new InitialStateFactory.AsInitialBranchState<>( initialState ),
-                branchOrdering, sorting, endNodes, statementFactory );
+                branchOrdering, sorting, endNodes, statementFactory, concurrency );
     }
     
     @Override
     public TraversalDescription sort( Comparator<? super Path> sorting )
     {
         return new MonoDirectionalTraversalDescription( expander, uniqueness, uniquenessParameter, evaluator,
-                initialState, branchOrdering, sorting, endNodes, statementFactory );
+                initialState, branchOrdering, sorting, endNodes, statementFactory, concurrency );
     }
     
+    @Override
+    public TraversalDescription parallel( int concurrency )
+    {
+        if ( concurrency < 1 )
+        {
+            throw new IllegalArgumentException( "Concurrency must be at least 1, was " + concurrency );
+        }
+        if ( this.concurrency == concurrency )
+        {
+            return this;
+        }
+        return new MonoDirectionalTraversalDescription( expander, uniqueness, uniquenessParameter, evaluator,
+                initialState, branchOrdering, sorting, endNodes, statementFactory, concurrency );
+    }
+
     @Override
     public TraversalDescription reverse()
     {
         return new MonoDirectionalTraversalDescription( expander.reverse(), uniqueness, uniquenessParameter,
-                evaluator, initialState.reverse(), branchOrdering, sorting, endNodes, statementFactory );
+                evaluator, initialState.reverse(), branchOrdering, sorting, endNodes, statementFactory, concurrency );
     }
 }
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.traversal;
+
+import java.util.Iterator;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.PathExpander;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.traversal.BranchState;
+import org.neo4j.graphdb.traversal.InitialBranchState;
+import org.neo4j.graphdb.traversal.TraversalBranch;
+import org.neo4j.graphdb.traversal.TraversalContext;
+
+/**
+ * A branch in a {@link ParallelTraverserIterator parallel traversal}. It is only evaluated when created, its
+ * relationships are expanded later by whichever thread gets to expand it, in a transaction of that thread.
+ */
+class ParallelTraversalBranch extends TraversalBranchWithState
+{
+    private final boolean hasState;
+
+    /*
+     * For the start node branches
+     */
+    ParallelTraversalBranch( TraversalBranch parent, Node source, InitialBranchState<?> initialState )
+    {
+        super( parent, source, initialState );
+        this.hasState = initialState != InitialBranchState.NO_STATE;
+    }
+
+    private ParallelTraversalBranch( ParallelTraversalBranch parent, Node source, Relationship toHere )
+    {
+        super( parent, parent.length() + 1, source, toHere, parent.stateForChildren );
+        this.hasState = parent.hasState;
+    }
+
+    @Override
+    @SuppressWarnings( "rawtypes" )
+    public void initialize( PathExpander expander, TraversalContext context )
+    {
+        evaluate( context );
+    }
+
+    @Override
+    protected TraversalBranch newNextBranch( Node node, Relationship relationship )
+    {
+        return new ParallelTraversalBranch( this, node, relationship );
+    }
+
+    @Override
+    @SuppressWarnings( {"rawtypes", "unchecked"} )
+    protected Iterator<Relationship> expandRelationshipsWithoutChecks( PathExpander expander )
+    {
+        return hasState ? super.expandRelationshipsWithoutChecks( expander ) :
+                expander.expand( this, BranchState.NO_STATE ).iterator();
+    }
+
+    @Override
+    protected void evaluate( TraversalContext context )
+    {
+        setEvaluation( context.evaluate( this, hasState ? this : null ) );
+    }
+}
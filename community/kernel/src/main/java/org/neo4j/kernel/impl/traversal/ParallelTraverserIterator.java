@@ -0,0 +1,339 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.traversal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.PathExpander;
+import org.neo4j.graphdb.Resource;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.traversal.BranchState;
+import org.neo4j.graphdb.traversal.Evaluation;
+import org.neo4j.graphdb.traversal.InitialBranchState;
+import org.neo4j.graphdb.traversal.PathEvaluator;
+import org.neo4j.graphdb.traversal.TraversalBranch;
+import org.neo4j.graphdb.traversal.Uniqueness;
+import org.neo4j.graphdb.traversal.UniquenessFilter;
+import org.neo4j.kernel.impl.api.KernelStatement;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import static org.neo4j.helpers.Exceptions.launderedException;
+
+/**
+ * Breadth first traversal where each depth is expanded in parallel on a {@link ForkJoinPool}, before moving on to
+ * the next depth. The branches of a depth are split up recursively into tasks of {@link #BRANCHES_PER_TASK}
+ * branches, each expanded in a transaction of the worker thread running it. Paths are handed over to the thread
+ * iterating over this traverser through a bounded queue, which holds the workers back when results aren't
+ * consumed fast enough.
+ * <p>
+ * The {@link UniquenessFilter}, {@link PathExpander} and {@link PathEvaluator} are called from the worker threads
+ * concurrently and must be thread safe.
+ * <p>
+ * The traversal lives no longer than the statement it was started with. A traverser that is abandoned without being
+ * closed has its workers stop as soon as the transaction of that statement closes, instead of waiting forever for
+ * their results to be taken.
+ */
+class ParallelTraverserIterator extends AbstractTraverserIterator
+{
+    private static final int BRANCHES_PER_TASK = 16;
+    private static final int RESULT_QUEUE_CAPACITY = 1024;
+    private static final Object END_OF_TRAVERSAL = new Object();
+
+    private final UniquenessFilter uniqueness;
+    private final PathExpander<?> expander;
+    private final PathEvaluator<?> evaluator;
+    private final int concurrency;
+    private final List<ParallelTraversalBranch> startBranches = new ArrayList<>();
+    private final BlockingQueue<Object> results = new ArrayBlockingQueue<>( RESULT_QUEUE_CAPACITY );
+    private final AtomicInteger relationshipsTraversed = new AtomicInteger();
+    private final KernelStatement statement;
+    private GraphDatabaseService db;
+    private ForkJoinPool pool;
+    private volatile boolean closed;
+
+    ParallelTraverserIterator( Resource resource, UniquenessFilter uniqueness, PathExpander<?> expander,
+                               PathEvaluator<?> evaluator, Iterable<Node> startNodes,
+                               InitialBranchState<?> initialState, int concurrency )
+    {
+        super( resource );
+        this.statement = resource instanceof KernelStatement ? (KernelStatement) resource : null;
+        this.uniqueness = uniqueness;
+        this.expander = expander;
+        this.evaluator = evaluator;
+        this.concurrency = concurrency;
+
+        // The start branches are evaluated right here, in the transaction of the thread starting the traversal
+        TraversalBranch root = new AsOneStartBranch( this, Collections.<Node>emptyList(), initialState,
+                Uniqueness.NONE );
+        for ( Node node : startNodes )
+        {
+            db = node.getGraphDatabase();
+            ParallelTraversalBranch branch = new ParallelTraversalBranch( root, node, initialState );
+            branch.initialize( expander, this );
+            isUniqueFirst( branch );
+            startBranches.add( branch );
+        }
+    }
+
+    @Override
+    protected Path fetchNextOrNull()
+    {
+        if ( closed )
+        {
+            return null;
+        }
+        if ( pool == null )
+        {
+            pool = new ForkJoinPool( concurrency );
+            pool.execute( new Traversal() );
+        }
+
+        Object result;
+        try
+        {
+            result = results.take();
+        }
+        catch ( InterruptedException e )
+        {
+            close();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException( "Interrupted while waiting for traversal results", e );
+        }
+
+        if ( result == END_OF_TRAVERSAL )
+        {
+            close();
+            return null;
+        }
+        if ( result instanceof Throwable )
+        {
+            close();
+            throw launderedException( (Throwable) result );
+        }
+        numberOfPathsReturned++;
+        return (Path) result;
+    }
+
+    /**
+     * Hands over a path, or the end of the traversal, to the thread iterating over this traverser.
+     *
+     * @return {@code false} if this traverser was closed before the result could be handed over.
+     */
+    private boolean deliver( Object result )
+    {
+        try
+        {
+            while ( !closed )
+            {
+                if ( results.offer( result, 100, MILLISECONDS ) )
+                {
+                    return true;
+                }
+                if ( statement != null && statement.isClosed() )
+                {   // Nobody is going to take this result, the transaction this traversal belongs to is gone
+                    abandon();
+                }
+            }
+            return false;
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean expand( ParallelTraversalBranch branch, List<ParallelTraversalBranch> nextDepth )
+    {
+        branch.expandRelationships( expander );
+        TraversalBranch child;
+        while ( (child = branch.next( expander, this )) != null )
+        {
+            if ( child.includes() && !deliver( child ) )
+            {
+                return false;
+            }
+            if ( child.continues() )
+            {
+                nextDepth.add( (ParallelTraversalBranch) child );
+            }
+        }
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings( {"rawtypes", "unchecked"} )
+    public Evaluation evaluate( TraversalBranch branch, BranchState state )
+    {   // the state is the one the evaluator's traversal was started with, it is just not typed on the way here
+        return ((PathEvaluator) evaluator).evaluate( branch, state );
+    }
+
+    @Override
+    public boolean isUniqueFirst( TraversalBranch branch )
+    {
+        return uniqueness.checkFirst( branch );
+    }
+
+    @Override
+    public boolean isUnique( TraversalBranch branch )
+    {
+        return uniqueness.check( branch );
+    }
+
+    @Override
+    public int getNumberOfRelationshipsTraversed()
+    {
+        return relationshipsTraversed.get();
+    }
+
+    @Override
+    public void relationshipTraversed()
+    {
+        relationshipsTraversed.incrementAndGet();
+    }
+
+    @Override
+    public void unnecessaryRelationshipTraversed()
+    {
+        relationshipsTraversed.incrementAndGet();
+    }
+
+    @Override
+    public void close()
+    {
+        if ( !closed )
+        {
+            closed = true;
+            if ( pool != null )
+            {
+                // Workers notice that the traversal is closed and finish their transactions by themselves
+                pool.shutdown();
+            }
+            super.close();
+        }
+    }
+
+    /**
+     * Stops the traversal from a worker thread. The statement went with its transaction, so it's not closed here.
+     */
+    private void abandon()
+    {
+        closed = true;
+        pool.shutdown();
+    }
+
+    /**
+     * Drives the traversal one depth at a time, until there are no more branches to expand.
+     */
+    private class Traversal extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute()
+        {
+            try
+            {
+                List<ParallelTraversalBranch> branches = new ArrayList<>();
+                for ( ParallelTraversalBranch branch : startBranches )
+                {
+                    if ( branch.includes() && !deliver( branch ) )
+                    {
+                        return;
+                    }
+                    if ( branch.continues() )
+                    {
+                        branches.add( branch );
+                    }
+                }
+
+                while ( !branches.isEmpty() && !closed )
+                {
+                    branches = new Expansion( branches, 0, branches.size() ).invoke();
+                }
+                deliver( END_OF_TRAVERSAL );
+            }
+            catch ( Throwable e )
+            {
+                deliver( e );
+            }
+        }
+    }
+
+    /**
+     * Expands a range of the branches of one depth, returning the branches of the next depth to expand.
+     */
+    private class Expansion extends RecursiveTask<List<ParallelTraversalBranch>>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final List<ParallelTraversalBranch> branches;
+        private final int from;
+        private final int to;
+
+        Expansion( List<ParallelTraversalBranch> branches, int from, int to )
+        {
+            this.branches = branches;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<ParallelTraversalBranch> compute()
+        {
+            if ( to - from > BRANCHES_PER_TASK )
+            {
+                int middle = (from + to) >>> 1;
+                Expansion left = new Expansion( branches, from, middle );
+                left.fork();
+                List<ParallelTraversalBranch> right = new Expansion( branches, middle, to ).compute();
+                List<ParallelTraversalBranch> result = left.join();
+                result.addAll( right );
+                return result;
+            }
+
+            List<ParallelTraversalBranch> nextDepth = new ArrayList<>();
+            try ( Transaction tx = db.beginTx() )
+            {
+                for ( int i = from; i < to && !closed; i++ )
+                {
+                    if ( !expand( branches.get( i ), nextDepth ) )
+                    {
+                        break;
+                    }
+                }
+                tx.success();
+            }
+            return nextDepth;
+        }
+    }
+}
@@ -35,11 +35,11 @@ import org.neo4j.helpers.collection.PrefetchingResourceIterator;
 class SortingTraverserIterator extends PrefetchingResourceIterator<Path> implements TraverserIterator
 {
     private final Comparator<? super Path> sortingStrategy;
-    private final MonoDirectionalTraverserIterator source;
+    private final TraverserIterator source;
     private final Resource resource;
     private Iterator<Path> sortedResultIterator;
 
-    SortingTraverserIterator( Resource resource, Comparator<? super Path> sortingStrategy, MonoDirectionalTraverserIterator source )
+    SortingTraverserIterator( Resource resource, Comparator<? super Path> sortingStrategy, TraverserIterator source )
     {
         this.resource = resource;
         this.sortingStrategy = sortingStrategy;
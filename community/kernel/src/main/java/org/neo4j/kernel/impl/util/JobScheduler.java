@@ -61,6 +61,11 @@ public interface JobScheduler extends Lifecycle
         indexSamplingController,
         indexSampling,
         pageCacheEviction,
+
+        /**
+         * Pushes metrics to the registered metrics reporters.
+         */
+        metricsReporting,
     }
 
     interface JobHandle
@@ -90,6 +90,18 @@ public class Validators
         }
     };
 
+    public static final Validator<File> CONTAINS_EXISTING_DATABASE = new Validator<File>()
+    {
+        @Override
+        public void validate( File value )
+        {
+            if ( !NeoStoreUtil.neoStoreExists( new DefaultFileSystemAbstraction(), value ) )
+            {
+                throw new IllegalArgumentException( "Directory '" + value + "' doesn't contain a database" );
+            }
+        }
+    };
+
     public static <T> Validator<T[]> atLeast( final int length )
     {
         return new Validator<T[]>()
@@ -0,0 +1,476 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.util.diffsets;
+
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveIntIterator;
+import org.neo4j.collection.primitive.PrimitiveLongCollections.PrimitiveLongBaseIterator;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.graphdb.Resource;
+import org.neo4j.helpers.Predicate;
+import org.neo4j.helpers.collection.Iterables;
+import org.neo4j.helpers.collection.PrefetchingIterator;
+
+import static java.lang.String.format;
+
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.emptyIterator;
+import static org.neo4j.helpers.collection.Iterables.concat;
+
+/**
+ * {@link DiffSets} specialized for primitive longs, f.ex. node and relationship ids. Added and removed elements
+ * are kept in {@link PrimitiveLongSet primitive sets} so that large transactions don't create a boxed
+ * {@link Long} and a map entry for every element. The boxed methods of {@link ReadableDiffSets} are supported,
+ * but readers which can should use the primitive methods, f.ex. {@link #isAdded(long)} and
+ * {@link #augment(PrimitiveLongIterator)}.
+ *
+ * Iterating over the elements of this diff set while changing it behaves like it does for {@link DiffSets}:
+ * elements added after an iterator was created will not be returned by it and elements removed while iterating
+ * will not be returned either. Iterators read the primitive sets directly. A set is only copied if it's changed
+ * while an iterator over it is still in progress, in which case that iterator keeps reading the old set.
+ */
+public class PrimitiveLongDiffSets implements ReadableDiffSets<Long>
+{
+    private ElementSet addedElements;
+    private ElementSet removedElements;
+
+    public boolean add( long elem )
+    {
+        boolean wasRemoved = isRemoved( elem ) && removedElements.forWriting().remove( elem );
+        // Add to the addedElements only if it was not removed from the removedElements
+        return wasRemoved || added( true ).forWriting().add( elem );
+    }
+
+    public boolean remove( long elem )
+    {
+        boolean removedFromAddedElements = isAdded( elem ) && addedElements.forWriting().remove( elem );
+        // Add to the removedElements only if it was not removed from the addedElements.
+        return removedFromAddedElements || removed( true ).forWriting().add( elem );
+    }
+
+    public boolean unRemove( long elem )
+    {
+        return isRemoved( elem ) && removedElements.forWriting().remove( elem );
+    }
+
+    public void clear()
+    {
+        if ( addedElements != null )
+        {
+            addedElements.clear();
+        }
+        if ( removedElements != null )
+        {
+            removedElements.clear();
+        }
+    }
+
+    public boolean isAdded( long elem )
+    {
+        return addedElements != null && addedElements.set.contains( elem );
+    }
+
+    public boolean isRemoved( long elem )
+    {
+        return removedElements != null && removedElements.set.contains( elem );
+    }
+
+    @Override
+    public boolean isAdded( Long elem )
+    {
+        return isAdded( elem.longValue() );
+    }
+
+    @Override
+    public boolean isRemoved( Long elem )
+    {
+        return isRemoved( elem.longValue() );
+    }
+
+    @Override
+    public Set<Long> getAdded()
+    {
+        return addedElements == null ? Collections.<Long>emptySet() : addedElements.boxed();
+    }
+
+    @Override
+    public Set<Long> getRemoved()
+    {
+        return removedElements == null ? Collections.<Long>emptySet() : removedElements.boxed();
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size( addedElements ) == 0 && size( removedElements ) == 0;
+    }
+
+    @Override
+    public int delta()
+    {
+        return size( addedElements ) - size( removedElements );
+    }
+
+    @Override
+    public Iterator<Long> apply( Iterator<Long> source )
+    {
+        if ( isEmpty() )
+        {
+            return source;
+        }
+        Iterator<Long> result = Iterables.filter( new Predicate<Long>()
+        {
+            @Override
+            public boolean accept( Long item )
+            {
+                return !isRemoved( item.longValue() ) && !isAdded( item.longValue() );
+            }
+        }, source );
+        if ( size( addedElements ) > 0 )
+        {
+            result = concat( result, getAdded().iterator() );
+        }
+        return result;
+    }
+
+    @Override
+    public PrimitiveLongIterator augment( PrimitiveLongIterator source )
+    {
+        return new DiffApplyingIterator( source, true, true );
+    }
+
+    @Override
+    public PrimitiveIntIterator augment( final PrimitiveIntIterator source )
+    {
+        final PrimitiveLongIterator augmented = augment( new PrimitiveLongBaseIterator()
+        {
+            @Override
+            protected boolean fetchNext()
+            {
+                return source.hasNext() && next( source.next() );
+            }
+        } );
+        return new PrimitiveIntIterator()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                return augmented.hasNext();
+            }
+
+            @Override
+            public int next()
+            {
+                return (int) augmented.next();
+            }
+        };
+    }
+
+    @Override
+    public PrimitiveLongIterator augmentWithRemovals( PrimitiveLongIterator source )
+    {
+        return new DiffApplyingIterator( source, false, true );
+    }
+
+    @Override
+    public PrimitiveLongIterator augmentWithAdditions( PrimitiveLongIterator source )
+    {
+        return new DiffApplyingIterator( source, true, false );
+    }
+
+    @Override
+    public PrimitiveLongDiffSets filterAdded( Predicate<Long> addedFilter )
+    {
+        PrimitiveLongDiffSets result = new PrimitiveLongDiffSets();
+        for ( PrimitiveLongIterator elems = iterator( addedElements ); elems.hasNext(); )
+        {
+            long elem = elems.next();
+            if ( addedFilter.accept( elem ) )
+            {
+                result.added( true ).set.add( elem );
+            }
+        }
+        for ( PrimitiveLongIterator elems = iterator( removedElements ); elems.hasNext(); )
+        {
+            result.removed( true ).set.add( elems.next() );
+        }
+        return result;
+    }
+
+    @Override
+    public PrimitiveLongDiffSets filter( Predicate<Long> filter )
+    {
+        PrimitiveLongDiffSets result = new PrimitiveLongDiffSets();
+        for ( PrimitiveLongIterator elems = iterator( addedElements ); elems.hasNext(); )
+        {
+            long elem = elems.next();
+            if ( filter.accept( elem ) )
+            {
+                result.added( true ).set.add( elem );
+            }
+        }
+        for ( PrimitiveLongIterator elems = iterator( removedElements ); elems.hasNext(); )
+        {
+            long elem = elems.next();
+            if ( filter.accept( elem ) )
+            {
+                result.removed( true ).set.add( elem );
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void accept( DiffSetsVisitor<Long> visitor )
+    {
+        for ( PrimitiveLongIterator elems = iterator( addedElements ); elems.hasNext(); )
+        {
+            visitor.visitAdded( elems.next() );
+        }
+        for ( PrimitiveLongIterator elems = iterator( removedElements ); elems.hasNext(); )
+        {
+            visitor.visitRemoved( elems.next() );
+        }
+    }
+
+    private ElementSet added( boolean create )
+    {
+        if ( addedElements == null && create )
+        {
+            addedElements = new ElementSet();
+        }
+        return addedElements;
+    }
+
+    private ElementSet removed( boolean create )
+    {
+        if ( removedElements == null && create )
+        {
+            removedElements = new ElementSet();
+        }
+        return removedElements;
+    }
+
+    private static int size( ElementSet elements )
+    {
+        return elements == null ? 0 : elements.set.size();
+    }
+
+    private static PrimitiveLongIterator iterator( ElementSet elements )
+    {
+        return elements == null ? emptyIterator() : elements.iterator();
+    }
+
+    @Override
+    public boolean equals( Object o )
+    {
+        if ( this == o )
+        {
+            return true;
+        }
+        if ( o == null || getClass() != o.getClass() )
+        {
+            return false;
+        }
+        PrimitiveLongDiffSets that = (PrimitiveLongDiffSets) o;
+        return getAdded().equals( that.getAdded() ) && getRemoved().equals( that.getRemoved() );
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * getAdded().hashCode() + getRemoved().hashCode();
+    }
+
+    @Override
+    public String toString()
+    {
+        return format( "{+%s, -%s}", getAdded(), getRemoved() );
+    }
+
+    /**
+     * The added or removed elements. Iterators go over the {@link #set} directly and it's only copied when it's
+     * about to be changed while iterators over it are still in progress, i.e. copy on write for as long as there
+     * are readers. Iterators that are abandoned before they are exhausted count as readers until the next copy.
+     */
+    private static class ElementSet
+    {
+        private PrimitiveLongSet set = Primitive.longSet();
+        private int readers;
+
+        PrimitiveLongSet forWriting()
+        {
+            if ( readers > 0 )
+            {
+                PrimitiveLongSet copy = Primitive.longSet( set.size() );
+                for ( PrimitiveLongIterator elems = set.iterator(); elems.hasNext(); )
+                {
+                    copy.add( elems.next() );
+                }
+                set = copy;
+                readers = 0;
+            }
+            return set;
+        }
+
+        void clear()
+        {
+            if ( readers > 0 )
+            {
+                set = Primitive.longSet();
+                readers = 0;
+            }
+            else
+            {
+                set.clear();
+            }
+        }
+
+        /**
+         * @return an iterator over the elements in the set when this method was called, which may include
+         * elements that have since been removed from it.
+         */
+        PrimitiveLongIterator iterator()
+        {
+            final PrimitiveLongSet iterated = set;
+            if ( iterated.isEmpty() )
+            {
+                return emptyIterator();
+            }
+            readers++;
+            return new PrimitiveLongBaseIterator()
+            {
+                private final PrimitiveLongIterator elems = iterated.iterator();
+                private boolean exhausted;
+
+                @Override
+                protected boolean fetchNext()
+                {
+                    if ( elems.hasNext() )
+                    {
+                        return next( elems.next() );
+                    }
+                    if ( !exhausted && set == iterated )
+                    {   // Not copied since this iterator was created, so it no longer needs protecting
+                        readers--;
+                    }
+                    exhausted = true;
+                    return false;
+                }
+            };
+        }
+
+        Set<Long> boxed()
+        {
+            return new AbstractSet<Long>()
+            {
+                @Override
+                public boolean contains( Object o )
+                {
+                    return o instanceof Long && set.contains( (Long) o );
+                }
+
+                @Override
+                public Iterator<Long> iterator()
+                {
+                    final PrimitiveLongIterator elems = ElementSet.this.iterator();
+                    return new PrefetchingIterator<Long>()
+                    {
+                        @Override
+                        protected Long fetchNextOrNull()
+                        {
+                            while ( elems.hasNext() )
+                            {
+                                long elem = elems.next();
+                                if ( set.contains( elem ) )
+                                {
+                                    return elem;
+                                }
+                            }
+                            return null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size()
+                {
+                    return set.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * Applies this diff set to a source iterator, like {@link org.neo4j.kernel.impl.util.DiffApplyingPrimitiveLongIterator}
+     * does for {@link DiffSets}. If the source is a {@link Resource}, then so is this iterator.
+     */
+    private class DiffApplyingIterator extends PrimitiveLongBaseIterator implements Resource
+    {
+        private final PrimitiveLongIterator source;
+        private final boolean withAdditions;
+        private final boolean withRemovals;
+        private final PrimitiveLongIterator added;
+
+        DiffApplyingIterator( PrimitiveLongIterator source, boolean withAdditions, boolean withRemovals )
+        {
+            this.source = source;
+            this.withAdditions = withAdditions;
+            this.withRemovals = withRemovals;
+            this.added = withAdditions ? PrimitiveLongDiffSets.iterator( addedElements ) : emptyIterator();
+        }
+
+        @Override
+        protected boolean fetchNext()
+        {
+            while ( source.hasNext() )
+            {
+                long value = source.next();
+                if ( !(withRemovals && isRemoved( value )) && !(withAdditions && isAdded( value )) )
+                {
+                    return next( value );
+                }
+            }
+            while ( added.hasNext() )
+            {
+                long value = added.next();
+                if ( isAdded( value ) )
+                {   // It's still added, i.e. it wasn't removed since this iterator was created
+                    return next( value );
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close()
+        {
+            if ( source instanceof Resource )
+            {
+                ((Resource) source).close();
+            }
+        }
+    }
+}
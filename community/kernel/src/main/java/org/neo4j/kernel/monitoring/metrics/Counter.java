@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.monitoring.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A monotonically increasing count, cheap enough to update from hot code paths. Updates go to a per thread stripe,
+ * so concurrent writers don't contend on a single cache line. Reading the count is comparatively expensive and
+ * is expected to happen only when metrics are reported.
+ */
+public final class Counter
+{
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    Counter()
+    {
+        this( Striping.stripes() );
+    }
+
+    Counter( int stripes )
+    {
+        this.cells = new AtomicLongArray( stripes * Striping.CACHE_LINE_LONGS );
+        this.mask = stripes - 1;
+    }
+
+    public void increment()
+    {
+        add( 1 );
+    }
+
+    public void add( long delta )
+    {
+        cells.getAndAdd( Striping.stripe( mask ) * Striping.CACHE_LINE_LONGS, delta );
+    }
+
+    public long count()
+    {
+        long count = 0;
+        for ( int i = 0; i < cells.length(); i += Striping.CACHE_LINE_LONGS )
+        {
+            count += cells.get( i );
+        }
+        return count;
+    }
+}
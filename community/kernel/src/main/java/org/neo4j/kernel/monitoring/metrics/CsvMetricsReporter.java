@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.monitoring.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+
+/**
+ * Appends the value of every metric to a CSV file of its own, named after the metric, in the given directory.
+ * Counters and gauges get a {@code t,value} row per report, histograms a
+ * {@code t,count,mean,p50,p95,p99,max} row. Timestamps are in milliseconds.
+ */
+public class CsvMetricsReporter implements MetricsReporter
+{
+    static final String VALUE_HEADER = "t,value";
+    static final String HISTOGRAM_HEADER = "t,count,mean,p50,p95,p99,max";
+
+    private final FileSystemAbstraction fs;
+    private final File directory;
+
+    public CsvMetricsReporter( FileSystemAbstraction fs, File directory )
+    {
+        this.fs = fs;
+        this.directory = directory;
+    }
+
+    @Override
+    public void report( final long timestamp, MetricsRegistry registry ) throws IOException
+    {
+        final Map<String,String[]> rows = new LinkedHashMap<>();
+        registry.accept( new MetricsVisitor()
+        {
+            @Override
+            public void visitCounter( String name, long count )
+            {
+                rows.put( name, new String[]{VALUE_HEADER, timestamp + "," + count} );
+            }
+
+            @Override
+            public void visitGauge( String name, long value )
+            {
+                rows.put( name, new String[]{VALUE_HEADER, timestamp + "," + value} );
+            }
+
+            @Override
+            public void visitHistogram( String name, Histogram.Snapshot snapshot )
+            {
+                rows.put( name, new String[]{HISTOGRAM_HEADER, timestamp + "," + snapshot.count() + "," +
+                        String.format( Locale.ROOT, "%.2f", snapshot.mean() ) + "," + snapshot.percentile( 0.5 ) + "," +
+                        snapshot.percentile( 0.95 ) + "," + snapshot.percentile( 0.99 ) + "," + snapshot.max()} );
+            }
+        } );
+
+        fs.mkdirs( directory );
+        for ( Map.Entry<String,String[]> row : rows.entrySet() )
+        {
+            File file = new File( directory, row.getKey() + ".csv" );
+            boolean created = !fs.fileExists( file );
+            try ( Writer writer = fs.openAsWriter( file, "UTF-8", true ) )
+            {
+                if ( created )
+                {
+                    writer.write( row.getValue()[0] + "\n" );
+                }
+                writer.write( row.getValue()[1] + "\n" );
+            }
+        }
+    }
+}
@@ -17,11 +17,13 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.consistency.store.paging;
+package org.neo4j.kernel.monitoring.metrics;
 
-public interface TemporalUtilityCounter
+/**
+ * A metric whose value is read from somewhere else at reporting time, typically a counter that a component already
+ * maintains for its own purposes. Gauges add no cost at all to the code they observe.
+ */
+public interface Gauge
 {
-    void increment( TemporalUtility utility );
-
-    void decrement( TemporalUtility utility );
+    long value();
 }
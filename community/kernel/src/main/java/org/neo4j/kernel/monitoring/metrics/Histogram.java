@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.monitoring.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The distribution of a non-negative value, such as the duration of an operation. Values are recorded into
+ * power-of-two buckets, which keeps updates down to a couple of uncontended atomic adds, at the price of percentiles
+ * only being accurate to within a factor of two. Like {@link Counter}, the buckets are striped per thread.
+ */
+public final class Histogram
+{
+    private static final int BUCKETS = Long.SIZE + 1;
+    private static final int SUM = BUCKETS;
+    // buckets and sum, rounded up to a whole number of cache lines
+    private static final int STRIPE_LENGTH =
+            (SUM + Striping.CACHE_LINE_LONGS) & ~(Striping.CACHE_LINE_LONGS - 1);
+
+    private final AtomicLongArray cells;
+    private final AtomicLong max = new AtomicLong();
+    private final int mask;
+
+    Histogram()
+    {
+        this( Striping.stripes() );
+    }
+
+    Histogram( int stripes )
+    {
+        this.cells = new AtomicLongArray( stripes * STRIPE_LENGTH );
+        this.mask = stripes - 1;
+    }
+
+    public void update( long value )
+    {
+        value = Math.max( 0, value );
+        int base = Striping.stripe( mask ) * STRIPE_LENGTH;
+        cells.getAndIncrement( base + bucket( value ) );
+        cells.getAndAdd( base + SUM, value );
+
+        long currentMax;
+        while ( value > (currentMax = max.get()) && !max.compareAndSet( currentMax, value ) )
+        {
+            // retry
+        }
+    }
+
+    public Snapshot snapshot()
+    {
+        long[] buckets = new long[BUCKETS];
+        long sum = 0;
+        for ( int base = 0; base < cells.length(); base += STRIPE_LENGTH )
+        {
+            for ( int i = 0; i < BUCKETS; i++ )
+            {
+                buckets[i] += cells.get( base + i );
+            }
+            sum += cells.get( base + SUM );
+        }
+        return new Snapshot( buckets, sum, max.get() );
+    }
+
+    private static int bucket( long value )
+    {
+        return Long.SIZE - Long.numberOfLeadingZeros( value );
+    }
+
+    /**
+     * The state of a {@link Histogram} at some point in time. Since the histogram is updated concurrently with
+     * taking the snapshot, the count, sum and buckets may be off by the few updates that were in flight.
+     */
+    public static final class Snapshot
+    {
+        private final long[] buckets;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        Snapshot( long[] buckets, long sum, long max )
+        {
+            this.buckets = buckets;
+            long count = 0;
+            for ( long bucket : buckets )
+            {
+                count += bucket;
+            }
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long count()
+        {
+            return count;
+        }
+
+        public long sum()
+        {
+            return sum;
+        }
+
+        public long max()
+        {
+            return max;
+        }
+
+        public double mean()
+        {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * @param quantile between 0 and 1.
+         * @return an upper bound of the given quantile, which is at most twice the actual value.
+         */
+        public long percentile( double quantile )
+        {
+            if ( quantile < 0 || quantile > 1 )
+            {
+                throw new IllegalArgumentException( "Quantile must be between 0 and 1, was " + quantile );
+            }
+            long rank = (long) Math.ceil( quantile * count );
+            long seen = 0;
+            for ( int i = 0; i < buckets.length; i++ )
+            {
+                seen += buckets[i];
+                if ( seen >= rank && seen > 0 )
+                {
+                    return Math.min( max, upperBound( i ) );
+                }
+            }
+            return 0;
+        }
+
+        private static long upperBound( int bucket )
+        {
+            return bucket == Long.SIZE ? Long.MAX_VALUE : (1L << bucket) - 1;
+        }
+    }
+}
@@ -0,0 +1,407 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.monitoring.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.pagecache.monitoring.PageCacheMonitor;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.query.QueryExecutionMonitor;
+import org.neo4j.kernel.impl.query.QueryPlanningMonitor;
+import org.neo4j.kernel.impl.query.QuerySession;
+import org.neo4j.kernel.impl.transaction.TransactionCounters;
+import org.neo4j.kernel.impl.transaction.log.LogRotation;
+import org.neo4j.kernel.impl.util.JobScheduler;
+import org.neo4j.kernel.impl.util.StringLogger;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.kernel.monitoring.Monitors;
+
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.nanoTime;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Registers the metrics of the kernel, and pushes all metrics to the {@link MetricsReporter reporters} at the
+ * interval given by {@link GraphDatabaseSettings#metrics_report_interval}.
+ * <p>
+ * Transaction and page cache metrics are gauges over the counters those components already maintain, so they add
+ * nothing to the transaction or page fault paths. Log rotations, which is when the store gets flushed in this
+ * version, and Cypher planning and execution are picked up through {@link Monitors}, at the cost of a couple of
+ * counter updates per event.
+ */
+public class KernelMetrics extends LifecycleAdapter
+{
+    private final MetricsRegistry registry;
+    private final Config config;
+    private final FileSystemAbstraction fs;
+    private final JobScheduler scheduler;
+    private final Monitors monitors;
+    private final TransactionCounters transactionCounters;
+    private final PageCacheMonitor pageCacheMonitor;
+    private final StringLogger logger;
+    private final Set<MetricsReporter> failingReporters =
+            Collections.newSetFromMap( new IdentityHashMap<MetricsReporter,Boolean>() );
+    private final List<String> gauges = new ArrayList<>();
+
+    private LogRotationMetrics logRotationMetrics;
+    private QueryMetrics queryMetrics;
+    private MetricsReporter csvReporter;
+    private JobScheduler.JobHandle reportingJob;
+
+    public KernelMetrics( MetricsRegistry registry, Config config, FileSystemAbstraction fs, JobScheduler scheduler,
+            Monitors monitors, TransactionCounters transactionCounters, PageCacheMonitor pageCacheMonitor,
+            StringLogger logger )
+    {
+        this.registry = registry;
+        this.config = config;
+        this.fs = fs;
+        this.scheduler = scheduler;
+        this.monitors = monitors;
+        this.transactionCounters = transactionCounters;
+        this.pageCacheMonitor = pageCacheMonitor;
+        this.logger = logger;
+    }
+
+    @Override
+    public void init()
+    {
+        registerTransactionMetrics();
+        registerPageCacheMetrics();
+
+        logRotationMetrics = new LogRotationMetrics( registry );
+        monitors.addMonitorListener( logRotationMetrics );
+        queryMetrics = new QueryMetrics( registry );
+        monitors.addMonitorListener( queryMetrics );
+        register( "cypher.execution.active", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return queryMetrics.activeQueries();
+            }
+        } );
+    }
+
+    @Override
+    public void start()
+    {
+        if ( config.get( GraphDatabaseSettings.metrics_csv_enabled ) )
+        {
+            csvReporter = new CsvMetricsReporter( fs, config.get( GraphDatabaseSettings.metrics_csv_path ) );
+            registry.addReporter( csvReporter );
+        }
+
+        long interval = config.get( GraphDatabaseSettings.metrics_report_interval );
+        reportingJob = scheduler.scheduleRecurring( JobScheduler.Group.metricsReporting, new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                report();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS );
+    }
+
+    @Override
+    public void stop()
+    {
+        if ( reportingJob != null )
+        {
+            reportingJob.cancel( false );
+            reportingJob = null;
+        }
+        if ( csvReporter != null )
+        {
+            registry.removeReporter( csvReporter );
+            csvReporter = null;
+        }
+    }
+
+    @Override
+    public void shutdown()
+    {
+        monitors.removeMonitorListener( logRotationMetrics );
+        monitors.removeMonitorListener( queryMetrics );
+        for ( String gauge : gauges )
+        {
+            registry.unregister( gauge );
+        }
+        gauges.clear();
+    }
+
+    void report()
+    {
+        long timestamp = currentTimeMillis();
+        for ( MetricsReporter reporter : registry.reporters() )
+        {
+            try
+            {
+                reporter.report( timestamp, registry );
+                failingReporters.remove( reporter );
+            }
+            catch ( Exception e )
+            {
+                // Only log the first of a series of failures, reporting is retried every interval
+                if ( failingReporters.add( reporter ) )
+                {
+                    logger.warn( "Failed to report metrics to " + reporter, e );
+                }
+            }
+        }
+    }
+
+    private void register( String name, Gauge gauge )
+    {
+        registry.register( name, gauge );
+        gauges.add( name );
+    }
+
+    private void registerTransactionMetrics()
+    {
+        register( "transaction.started", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return transactionCounters.getNumberOfStartedTransactions();
+            }
+        } );
+        register( "transaction.committed", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return transactionCounters.getNumberOfCommittedTransactions();
+            }
+        } );
+        register( "transaction.rolled_back", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return transactionCounters.getNumberOfRolledbackTransactions();
+            }
+        } );
+        register( "transaction.terminated", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return transactionCounters.getNumberOfTerminatedTransactions();
+            }
+        } );
+        register( "transaction.active", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return transactionCounters.getNumberOfActiveTransactions();
+            }
+        } );
+        register( "transaction.peak_concurrent", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return transactionCounters.getPeakConcurrentNumberOfTransactions();
+            }
+        } );
+    }
+
+    private void registerPageCacheMetrics()
+    {
+        register( "page_cache.pins", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return pageCacheMonitor.countPins();
+            }
+        } );
+        register( "page_cache.faults", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return pageCacheMonitor.countFaults();
+            }
+        } );
+        register( "page_cache.hits", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                // every pin either finds the page in memory, or faults it in
+                return Math.max( 0, pageCacheMonitor.countPins() - pageCacheMonitor.countFaults() );
+            }
+        } );
+        register( "page_cache.evictions", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return pageCacheMonitor.countEvictions();
+            }
+        } );
+        register( "page_cache.eviction_exceptions", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return pageCacheMonitor.countEvictionExceptions();
+            }
+        } );
+        register( "page_cache.flushes", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return pageCacheMonitor.countFlushes();
+            }
+        } );
+        register( "page_cache.bytes_read", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return pageCacheMonitor.countBytesRead();
+            }
+        } );
+        register( "page_cache.bytes_written", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return pageCacheMonitor.countBytesWritten();
+            }
+        } );
+    }
+
+    static class LogRotationMetrics implements LogRotation.Monitor
+    {
+        private final Counter rotations;
+        private final Histogram rotationTime;
+        // rotations are serialized by the log file, so there is only ever one in progress
+        private volatile long startTime;
+
+        LogRotationMetrics( MetricsRegistry registry )
+        {
+            this.rotations = registry.counter( "log.rotation.events" );
+            this.rotationTime = registry.histogram( "log.rotation.time_millis" );
+        }
+
+        @Override
+        public void startedRotating( long currentVersion )
+        {
+            startTime = currentTimeMillis();
+        }
+
+        @Override
+        public void finishedRotating( long currentVersion )
+        {
+            rotations.increment();
+            rotationTime.update( currentTimeMillis() - startTime );
+        }
+    }
+
+    static class QueryMetrics implements QueryExecutionMonitor, QueryPlanningMonitor
+    {
+        private final ConcurrentMap<QuerySession,Long> runningQueries = new ConcurrentHashMap<>();
+        private final Counter succeeded;
+        private final Counter failed;
+        private final Histogram executionTime;
+        private final Counter plannedFromCache;
+        private final Counter planned;
+        private final Histogram planningTime;
+
+        QueryMetrics( MetricsRegistry registry )
+        {
+            this.succeeded = registry.counter( "cypher.execution.succeeded" );
+            this.failed = registry.counter( "cypher.execution.failed" );
+            this.executionTime = registry.histogram( "cypher.execution.time_micros" );
+            this.plannedFromCache = registry.counter( "cypher.planning.cache_hits" );
+            this.planned = registry.counter( "cypher.planning.events" );
+            this.planningTime = registry.histogram( "cypher.planning.time_micros" );
+        }
+
+        int activeQueries()
+        {
+            return runningQueries.size();
+        }
+
+        @Override
+        public void startQueryExecution( QuerySession session, String query )
+        {
+            runningQueries.put( session, nanoTime() );
+        }
+
+        @Override
+        public void endFailure( QuerySession session, Throwable failure )
+        {
+            if ( end( session ) )
+            {
+                failed.increment();
+            }
+        }
+
+        @Override
+        public void endSuccess( QuerySession session )
+        {
+            if ( end( session ) )
+            {
+                succeeded.increment();
+            }
+        }
+
+        @Override
+        public void queryPlanned( String query, long elapsedNanos, boolean cached )
+        {
+            planned.increment();
+            if ( cached )
+            {
+                plannedFromCache.increment();
+            }
+            planningTime.update( NANOSECONDS.toMicros( elapsedNanos ) );
+        }
+
+        /**
+         * The end methods are expected to be idempotent, so only the first end of a query is counted.
+         */
+        private boolean end( QuerySession session )
+        {
+            Long startTime = runningQueries.remove( session );
+            if ( startTime == null )
+            {
+                return false;
+            }
+            executionTime.update( NANOSECONDS.toMicros( nanoTime() - startTime ) );
+            return true;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.monitoring.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The database wide registry of named metrics, of which there are three kinds:
+ * <ul>
+ * <li>{@link Counter counters}, for counting events as they happen,</li>
+ * <li>{@link Gauge gauges}, for exposing values that are already maintained elsewhere, and</li>
+ * <li>{@link Histogram histograms}, for the distribution of values such as durations.</li>
+ * </ul>
+ * Components look up their counters and histograms once, by name, and then update them directly, so the registry
+ * itself is never on a hot path. Metric names are dot separated, lower case, e.g. {@code transaction.committed}.
+ * <p>
+ * The current values are made available through {@link #accept(MetricsVisitor)}, which is what JMX and the
+ * {@link MetricsReporter reporters} use. Reporters can be plugged in at any time, by resolving the registry as a
+ * dependency and calling {@link #addReporter(MetricsReporter)}.
+ */
+public class MetricsRegistry
+{
+    private final ConcurrentMap<String,Counter> counters = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String,Gauge> gauges = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String,Histogram> histograms = new ConcurrentSkipListMap<>();
+    private final CopyOnWriteArrayList<MetricsReporter> reporters = new CopyOnWriteArrayList<>();
+
+    /**
+     * @return the counter with the given name, created if it doesn't exist already.
+     */
+    public Counter counter( String name )
+    {
+        Counter counter = counters.get( name );
+        if ( counter == null )
+        {
+            Counter created = new Counter();
+            counter = counters.putIfAbsent( name, created );
+            if ( counter == null )
+            {
+                counter = created;
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * @return the histogram with the given name, created if it doesn't exist already.
+     */
+    public Histogram histogram( String name )
+    {
+        Histogram histogram = histograms.get( name );
+        if ( histogram == null )
+        {
+            Histogram created = new Histogram();
+            histogram = histograms.putIfAbsent( name, created );
+            if ( histogram == null )
+            {
+                histogram = created;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Registers a gauge, which will be read every time metrics are reported.
+     *
+     * @throws IllegalArgumentException if there already is a gauge with the given name.
+     */
+    public void register( String name, Gauge gauge )
+    {
+        if ( gauges.putIfAbsent( name, gauge ) != null )
+        {
+            throw new IllegalArgumentException( "There already is a gauge named '" + name + "'" );
+        }
+    }
+
+    public void unregister( String name )
+    {
+        gauges.remove( name );
+    }
+
+    public void addReporter( MetricsReporter reporter )
+    {
+        reporters.add( reporter );
+    }
+
+    public void removeReporter( MetricsReporter reporter )
+    {
+        reporters.remove( reporter );
+    }
+
+    public Iterable<MetricsReporter> reporters()
+    {
+        return reporters;
+    }
+
+    /**
+     * Visits counters, then gauges and then histograms, each in name order.
+     */
+    public void accept( MetricsVisitor visitor )
+    {
+        for ( Map.Entry<String,Counter> counter : counters.entrySet() )
+        {
+            visitor.visitCounter( counter.getKey(), counter.getValue().count() );
+        }
+        for ( Map.Entry<String,Gauge> gauge : gauges.entrySet() )
+        {
+            visitor.visitGauge( gauge.getKey(), gauge.getValue().value() );
+        }
+        for ( Map.Entry<String,Histogram> histogram : histograms.entrySet() )
+        {
+            visitor.visitHistogram( histogram.getKey(), histogram.getValue().snapshot() );
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.monitoring.metrics;
+
+import java.io.IOException;
+
+/**
+ * Pushes the current values of all metrics somewhere, e.g. to files or to an external monitoring system.
+ * Reporters are added to the {@link MetricsRegistry}, and called periodically from a single background thread,
+ * so implementations need not be thread safe. A reporter that fails is logged and then called again at the
+ * next reporting interval.
+ */
+public interface MetricsReporter
+{
+    /**
+     * @param timestamp the time, in milliseconds, of this report.
+     * @param registry the metrics to report, typically visited with {@link MetricsRegistry#accept(MetricsVisitor)}.
+     */
+    void report( long timestamp, MetricsRegistry registry ) throws IOException;
+}
@@ -17,21 +17,16 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.server.rest.transactional;
+package org.neo4j.kernel.monitoring.metrics;
 
-import org.neo4j.graphdb.Transaction;
-
-public class TransactionTerminator
+/**
+ * Visits all metrics of a {@link MetricsRegistry}, in name order, see {@link MetricsRegistry#accept(MetricsVisitor)}.
+ */
+public interface MetricsVisitor
 {
-    private final Transaction transaction;
+    void visitCounter( String name, long count );
 
-    public TransactionTerminator( Transaction transaction )
-    {
-        this.transaction = transaction;
-    }
+    void visitGauge( String name, long value );
 
-    public void terminate()
-    {
-        transaction.terminate();
-    }
+    void visitHistogram( String name, Histogram.Snapshot snapshot );
 }
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.monitoring.metrics;
+
+/**
+ * Spreads concurrent updates of a metric over a number of cache line aligned slots, so that threads on different
+ * cores rarely write to the same cache line. Reading a metric sums up all the slots.
+ */
+final class Striping
+{
+    /**
+     * Number of longs in a cache line, i.e. the distance between two slots that are written by different threads.
+     */
+    static final int CACHE_LINE_LONGS = 8;
+
+    private static final int MAX_STRIPES = 64;
+
+    private Striping()
+    {
+    }
+
+    /**
+     * @return the number of stripes to use on this machine, a power of two that is at least twice the number of
+     * available processors, capped to {@value #MAX_STRIPES}.
+     */
+    static int stripes()
+    {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return Math.min( MAX_STRIPES, Integer.highestOneBit( Math.max( 1, processors ) * 2 - 1 ) << 1 );
+    }
+
+    /**
+     * @return the stripe the current thread should update, given a stripe mask of {@code stripes - 1}.
+     */
+    static int stripe( int mask )
+    {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) & mask;
+    }
+}
@@ -95,6 +95,22 @@ public interface Configuration
      */
     String badFileName();
 
+    /**
+     * Max number of entries in the shared dictionary of string property values. Strings too long to be
+     * inlined in property records are put in the dictionary the second time they're seen, after which they're
+     * stored as references to their dictionary entries instead of in the dynamic string store.
+     * 0 means that no dictionary is built.
+     */
+    int stringDictionarySize();
+
+    /**
+     * Strings of at least this many bytes are compressed before being written to the dynamic string store.
+     * 0 means no compression.
+     *
+     * @see GraphDatabaseSettings#string_compression_threshold
+     */
+    int stringCompressionThreshold();
+
     public static class Default implements Configuration
     {
         private static final int OPTIMAL_FILE_CHANNEL_CHUNK_SIZE = 1024 * 4;
@@ -163,6 +179,18 @@ public interface Configuration
         {
             return "not-imported.bad";
         }
+
+        @Override
+        public int stringDictionarySize()
+        {
+            return 0;
+        }
+
+        @Override
+        public int stringCompressionThreshold()
+        {
+            return Integer.parseInt( GraphDatabaseSettings.string_compression_threshold.getDefaultValue() );
+        }
     }
 
     public static final Configuration DEFAULT = new Default();
@@ -236,6 +264,18 @@ public interface Configuration
         {
             return defaults.badFileName();
         }
+
+        @Override
+        public int stringDictionarySize()
+        {
+            return defaults.stringDictionarySize();
+        }
+
+        @Override
+        public int stringCompressionThreshold()
+        {
+            return config.get( GraphDatabaseSettings.string_compression_threshold );
+        }
     }
 
     // TODO Add Configuration option "calibrate()" which probes the hardware and returns optimal values.
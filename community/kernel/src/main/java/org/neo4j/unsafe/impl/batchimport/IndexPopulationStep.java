@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.kernel.api.index.IndexEntryConflictException;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.PreexistingIndexEntryConflictException;
+import org.neo4j.kernel.api.properties.DefinedProperty;
+import org.neo4j.kernel.api.properties.Property;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.unsafe.impl.batchimport.input.InputException;
+import org.neo4j.unsafe.impl.batchimport.input.InputIndex;
+import org.neo4j.unsafe.impl.batchimport.input.InputNode;
+import org.neo4j.unsafe.impl.batchimport.staging.ExecutorServiceStep;
+import org.neo4j.unsafe.impl.batchimport.staging.StageControl;
+
+/**
+ * Feeds the indexed property value of each node passing by to an {@link IndexPopulator}, so that the
+ * index is populated while nodes are imported instead of in a full node store scan afterwards.
+ * There's one such step per index, which means that indexes get populated in parallel with each other,
+ * but each index by a single thread since {@link IndexPopulator#add(long, Object)} is required to be called
+ * by the same thread every time.
+ *
+ * Uniqueness of a constraint index is verified here as values are added, comparing values the way properties
+ * are compared, i.e. numbers by value regardless of type and arrays by contents. This keeps one entry per
+ * distinct value in memory for the duration of the import.
+ */
+public class IndexPopulationStep extends ExecutorServiceStep<Batch<InputNode,NodeRecord>>
+{
+    private final InputIndex index;
+    private final int propertyKeyId;
+    private final IndexPopulator populator;
+    private final Map<DefinedProperty,Long> uniqueValues;
+
+    public IndexPopulationStep( StageControl control, Configuration config, InputIndex index,
+            int propertyKeyId, IndexPopulator populator )
+    {
+        // A single processor since populators aren't required to be thread safe
+        super( control, "INDEX " + index.label() + "(" + index.propertyKey() + ")",
+                config.workAheadSize(), config.movingAverageSize(), 1 );
+        this.index = index;
+        this.propertyKeyId = propertyKeyId;
+        this.populator = populator;
+        this.uniqueValues = index.unique() ? new HashMap<DefinedProperty,Long>() : null;
+    }
+
+    @Override
+    protected Object process( long ticket, Batch<InputNode,NodeRecord> batch )
+    {
+        InputNode[] input = batch.input;
+        for ( int i = 0; i < input.length; i++ )
+        {
+            Object value = index.valueOf( input[i] );
+            if ( value != null )
+            {
+                long nodeId = batch.records[i].getId();
+                try
+                {
+                    if ( uniqueValues != null )
+                    {
+                        verifyUnique( nodeId, value );
+                    }
+                    populator.add( nodeId, value );
+                }
+                catch ( IndexEntryConflictException e )
+                {
+                    throw new InputException( "Node " + input[i] + " violates " + index, e );
+                }
+                catch ( IOException e )
+                {
+                    throw new UnderlyingStorageException( e );
+                }
+            }
+        }
+        return batch;
+    }
+
+    private void verifyUnique( long nodeId, Object value ) throws IndexEntryConflictException
+    {
+        Long existingNodeId = uniqueValues.put( Property.property( propertyKeyId, value ), nodeId );
+        if ( existingNodeId != null && existingNodeId != nodeId )
+        {
+            throw new PreexistingIndexEntryConflictException( value, existingNodeId, nodeId );
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.neo4j.kernel.impl.store.StringDictionary;
+
+/**
+ * {@link StringDictionary} which learns which strings are worth having in the dictionary while properties are
+ * encoded: a string is added the second time it's seen. The first occurrence of each string is
+ * therefore still written to the dynamic string store, but every repetition after that is a reference.
+ * Long strings are left to the dynamic string store, and potentially compression, since each dictionary
+ * entry is kept in memory for as long as the store is open.
+ */
+public class LearningStringDictionary extends StringDictionary
+{
+    static final int MAX_STRING_LENGTH = 256;
+
+    private final int maxSize;
+    private final Set<String> seenOnce = Collections.newSetFromMap( new ConcurrentHashMap<String,Boolean>() );
+
+    /**
+     * @param existing entries already in the store, kept with the same ids.
+     * @param maxSize max number of dictionary entries, also bounding the number of strings remembered as seen.
+     */
+    public LearningStringDictionary( StringDictionary existing, int maxSize )
+    {
+        this.maxSize = maxSize;
+        for ( int id = 0; id < existing.size(); id++ )
+        {
+            add( existing.string( id ) );
+        }
+    }
+
+    @Override
+    public int idOf( String string )
+    {
+        int id = super.idOf( string );
+        if ( id != NOT_IN_DICTIONARY || string.length() > MAX_STRING_LENGTH || size() >= maxSize )
+        {
+            return id;
+        }
+
+        if ( seenOnce.remove( string ) )
+        {
+            return add( string );
+        }
+        if ( seenOnce.size() < maxSize )
+        {
+            seenOnce.add( string );
+        }
+        return NOT_IN_DICTIONARY;
+    }
+}
@@ -37,11 +37,23 @@ public class NodeCountsProcessor implements StoreProcessor<NodeRecord>
     private final NodeLabelsCache cache;
     private final CountsTracker countsTracker;
     private final int anyLabel;
+    private final long firstCountedNodeId;
 
     public NodeCountsProcessor( NodeStore nodeStore, NodeLabelsCache cache, int highLabelId,
             CountsTracker countsTracker )
+    {
+        this( nodeStore, cache, highLabelId, countsTracker, 0 );
+    }
+
+    /**
+     * @param firstCountedNodeId nodes with lower ids are only put into the {@link NodeLabelsCache}, not counted.
+     * Used when appending to an existing store where the counts store already has counts for those nodes.
+     */
+    public NodeCountsProcessor( NodeStore nodeStore, NodeLabelsCache cache, int highLabelId,
+            CountsTracker countsTracker, long firstCountedNodeId )
     {
         this.nodeStore = nodeStore;
+        this.firstCountedNodeId = firstCountedNodeId;
         this.cache = cache;
         this.anyLabel = highLabelId;
         this.countsTracker = countsTracker;
@@ -53,15 +65,22 @@ public class NodeCountsProcessor implements StoreProcessor<NodeRecord>
     public boolean process( NodeRecord node )
     {
         long[] labels = NodeLabelsField.get( node, nodeStore );
+        boolean counted = node.getId() >= firstCountedNodeId;
         if ( labels.length > 0 )
         {
-            for ( long labelId : labels )
+            if ( counted )
             {
-                labelCounts[(int) labelId]++;
+                for ( long labelId : labels )
+                {
+                    labelCounts[(int) labelId]++;
+                }
             }
             cache.put( node.getId(), labels );
         }
-        labelCounts[anyLabel]++;
+        if ( counted )
+        {
+            labelCounts[anyLabel]++;
+        }
 
         // No need to update the store, we're just reading things here
         return false;
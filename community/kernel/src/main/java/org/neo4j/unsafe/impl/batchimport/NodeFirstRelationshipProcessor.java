@@ -58,10 +58,8 @@ public class NodeFirstRelationshipProcessor implements StoreProcessor<NodeRecord
         }
 
         node.setNextRel( firstRel );
-        if ( nodeRelationshipLink.isDense( nodeId ) )
-        {
-            node.setDense( true );
-        }
+        // Also clears the flag on a node that was dense before its relationship chains got rebuilt
+        node.setDense( nodeRelationshipLink.isDense( nodeId ) );
         return true;
     }
 
@@ -29,10 +29,16 @@ import org.neo4j.helpers.Exceptions;
 import org.neo4j.helpers.Format;
 import org.neo4j.io.fs.DefaultFileSystemAbstraction;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.impl.store.NeoStore;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.StoreFactory;
+import org.neo4j.kernel.impl.store.StringDictionary;
 import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipGroupRecord;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.logging.Logging;
@@ -46,6 +52,7 @@ import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdGenerator;
 import org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdMapper;
 import org.neo4j.unsafe.impl.batchimport.input.Collector;
 import org.neo4j.unsafe.impl.batchimport.input.Input;
+import org.neo4j.unsafe.impl.batchimport.input.InputIndex;
 import org.neo4j.unsafe.impl.batchimport.input.InputNode;
 import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
 import org.neo4j.unsafe.impl.batchimport.staging.ExecutionMonitor;
@@ -61,6 +68,7 @@ import static org.neo4j.unsafe.impl.batchimport.AdditionalInitialIds.EMPTY;
 import static org.neo4j.unsafe.impl.batchimport.Utils.idsOf;
 import static org.neo4j.unsafe.impl.batchimport.WriterFactories.parallel;
 import static org.neo4j.unsafe.impl.batchimport.cache.NumberArrayFactory.AUTO;
+import static org.neo4j.unsafe.impl.batchimport.cache.idmapping.IdGenerators.appendingTo;
 import static org.neo4j.unsafe.impl.batchimport.staging.ExecutionSupervisors.superviseDynamicExecution;
 
 /**
@@ -72,6 +80,16 @@ import static org.neo4j.unsafe.impl.batchimport.staging.ExecutionSupervisors.sup
  * I/O is only allowed to be read to and written from sequentially, any random access drastically reduces performance.
  * Goes through multiple stages where each stage has one or more steps executing in parallel, passing
  * batches between these steps through each stage, i.e. passing batches downstream.
+ *
+ * The import can also append to a store which already contains data. New nodes and relationships get ids after
+ * the existing ones and relationships can refer to existing nodes when the {@link Input#idMapper() id mapper}
+ * maps input ids to actual node ids. All relationship chains and relationship groups are rebuilt, existing ones
+ * included, by reading the relationship store sequentially, which is what keeps the I/O sequential also in this
+ * case. Counts for the new data are added to the existing counts. The store must have been shut down cleanly.
+ *
+ * Schema indexes and uniqueness constraints can be {@link #buildIndexes(SchemaIndexProvider, InputIndex...) built}
+ * as part of the import, populated from the input nodes as they pass through the node stage. They are then
+ * online when the database starts, instead of being populated by scanning the whole node store.
  */
 public class ParallelBatchImporter implements BatchImporter
 {
@@ -86,6 +104,9 @@ public class ParallelBatchImporter implements BatchImporter
     private final WriterFactory writerFactory;
     private final AdditionalInitialIds additionalInitialIds;
     private final AvailableMemoryCalculator memoryCalculator;
+    private final boolean appendToExistingStore;
+    private SchemaIndexProvider indexProvider;
+    private InputIndex[] indexes = new InputIndex[0];
 
     /**
      * Advanced usage of the parallel batch importer, for special and very specific cases. Please use
@@ -94,6 +115,21 @@ public class ParallelBatchImporter implements BatchImporter
     public ParallelBatchImporter( String storeDir, FileSystemAbstraction fileSystem, Configuration config,
             Logging logging, ExecutionMonitor executionMonitor, Function<Configuration,WriterFactory> writerFactory,
             AdditionalInitialIds additionalInitialIds, AvailableMemoryCalculator memoryCalculator )
+    {
+        this( storeDir, fileSystem, config, logging, executionMonitor, writerFactory, additionalInitialIds,
+                memoryCalculator, false );
+    }
+
+    /**
+     * Advanced usage of the parallel batch importer, for special and very specific cases. Please use
+     * a constructor with fewer arguments instead.
+     *
+     * @param appendToExistingStore whether or not to import into a store which already contains data.
+     */
+    public ParallelBatchImporter( String storeDir, FileSystemAbstraction fileSystem, Configuration config,
+            Logging logging, ExecutionMonitor executionMonitor, Function<Configuration,WriterFactory> writerFactory,
+            AdditionalInitialIds additionalInitialIds, AvailableMemoryCalculator memoryCalculator,
+            boolean appendToExistingStore )
     {
         this.storeDir = storeDir;
         this.fileSystem = fileSystem;
@@ -102,6 +138,7 @@ public class ParallelBatchImporter implements BatchImporter
         this.executionMonitor = executionMonitor;
         this.additionalInitialIds = additionalInitialIds;
         this.memoryCalculator = memoryCalculator;
+        this.appendToExistingStore = appendToExistingStore;
         this.logger = logging.getMessagesLog( getClass() );
         this.monitors = new Monitors();
         this.writeMonitor = new IoMonitor();
@@ -110,9 +147,31 @@ public class ParallelBatchImporter implements BatchImporter
 
     public ParallelBatchImporter( String storeDir, Configuration config, Logging logging,
             ExecutionMonitor executionMonitor )
+    {
+        this( storeDir, config, logging, executionMonitor, false );
+    }
+
+    /**
+     * @param appendToExistingStore whether or not to import into a store which already contains data.
+     */
+    public ParallelBatchImporter( String storeDir, Configuration config, Logging logging,
+            ExecutionMonitor executionMonitor, boolean appendToExistingStore )
     {
         this( storeDir, new DefaultFileSystemAbstraction(), config, logging, executionMonitor, parallel(), EMPTY,
-                AvailableMemoryCalculator.RUNTIME );
+                AvailableMemoryCalculator.RUNTIME, appendToExistingStore );
+    }
+
+    /**
+     * Have the next {@link #doImport(Input) import} also build the given indexes and uniqueness constraints.
+     * Not supported when appending to an existing store.
+     *
+     * @param indexProvider provider of the populators for the indexes, its descriptor is stored in the index rules.
+     * @param indexes the indexes and uniqueness constraints to build.
+     */
+    public void buildIndexes( SchemaIndexProvider indexProvider, InputIndex... indexes )
+    {
+        this.indexProvider = indexProvider;
+        this.indexes = indexes;
     }
 
     @Override
@@ -124,25 +183,58 @@ public class ParallelBatchImporter implements BatchImporter
         // is that we need to close, and set to null, at specific points preferably. So use good ol' finally block.
         NodeRelationshipLink nodeRelationshipLink = null;
         NodeLabelsCache nodeLabelsCache = null;
+        SchemaIndexPopulators indexPopulators = null;
         long startTime = currentTimeMillis();
         File badRelationshipsFile = new File( config.badFileName() );
         boolean hasBadRelationships = false;
         try ( BatchingNeoStore neoStore = new BatchingNeoStore( fileSystem, storeDir, config,
-                      writeMonitor, logging, monitors, writerFactory, additionalInitialIds );
+                      writeMonitor, logging, monitors, writerFactory, additionalInitialIds, appendToExistingStore );
               OutputStream badRelationshipsOutput = new BufferedOutputStream(
                       fileSystem.openAsOutputStream( badRelationshipsFile, false ) );
               Collector<InputRelationship> badRelationships =
                       input.badRelationshipsCollector( badRelationshipsOutput ) )
         {
+            // The first ids not used by records already in the store, which is all of them for an empty store
+            long firstNodeId = neoStore.getNodeStore().getHighId();
+            long firstRelationshipId = neoStore.getRelationshipStore().getHighId();
+            long existingRelationshipGroupsHighId = neoStore.getRelationshipGroupStore().getHighId();
+            if ( appendToExistingStore && input.specificRelationshipIds() )
+            {
+                throw new IllegalArgumentException( "Relationships with specific ids cannot be appended to " +
+                        "an existing store, since those ids may already be in use" );
+            }
+            if ( appendToExistingStore &&
+                    (indexes.length > 0 || neoStore.getSchemaStore().loadAllSchemaRules().hasNext()) )
+            {
+                throw new IllegalArgumentException( "Cannot append to a store with indexes or constraints, " +
+                        "since those wouldn't be updated with the appended data" );
+            }
+            indexPopulators = new SchemaIndexPopulators( indexProvider, indexes, neoStore );
+            StringDictionary existingDictionary = neoStore.getPropertyStore().getStringDictionary();
+            StringDictionary stringDictionary = config.stringDictionarySize() > 0
+                    ? new LearningStringDictionary( existingDictionary, config.stringDictionarySize() )
+                    : existingDictionary;
+
             // Some temporary caches and indexes in the import
             IdMapper idMapper = input.idMapper();
-            IdGenerator idGenerator = input.idGenerator();
+            IdGenerator idGenerator = appendToExistingStore
+                    ? appendingTo( firstNodeId, input.idGenerator() )
+                    : input.idGenerator();
             nodeRelationshipLink = new NodeRelationshipLinkImpl( AUTO, config.denseNodeThreshold() );
             final InputIterable<InputNode> nodes = input.nodes();
             final InputIterable<InputRelationship> relationships = input.relationships();
 
+            if ( appendToExistingStore )
+            {
+                // Stage 0 -- count existing relationships, their chains are rebuilt along with the imported ones
+                executeStages( new RelationshipStoreProcessorStage( "Existing relationships --> Node degrees",
+                        config, neoStore.getRelationshipStore(),
+                        new RelationshipDegreesProcessor( nodeRelationshipLink ), false ) );
+            }
+
             // Stage 1 -- nodes, properties, labels
-            final NodeStage nodeStage = new NodeStage( nodes, idMapper, idGenerator, neoStore );
+            final NodeStage nodeStage = new NodeStage( nodes, idMapper, idGenerator, neoStore,
+                    indexPopulators, stringDictionary );
 
             // Stage 2 -- calculate dense node threshold
             final CalculateDenseNodesStage calculateDenseNodesStage = new CalculateDenseNodesStage( relationships,
@@ -162,21 +254,36 @@ public class ParallelBatchImporter implements BatchImporter
                 executeStages( nodeStage, calculateDenseNodesStage );
             }
 
+            if ( appendToExistingStore )
+            {
+                // Stage 3a -- link existing relationships in id order, ahead of the imported relationships
+                executeStages( new RelationshipStoreProcessorStage( "Existing relationships --> Relationship",
+                        config, neoStore.getRelationshipStore(),
+                        new RelationshipLinkforwardProcessor( nodeRelationshipLink ), false ) );
+                writerFactory.awaitEverythingWritten();
+            }
+
             // Stage 3 -- relationships, properties
             final RelationshipStage relationshipStage = new RelationshipStage( relationships, idMapper,
-                    neoStore, nodeRelationshipLink, input.specificRelationshipIds() );
+                    neoStore, nodeRelationshipLink, input.specificRelationshipIds(), stringDictionary );
             executeStages( relationshipStage );
 
             // Switch to reverse updating mode and release references that are no longer used so they can be collected
             writerFactory.awaitEverythingWritten();
             neoStore.switchToUpdateMode();
+            if ( appendToExistingStore )
+            {
+                // Existing relationship groups are replaced by the ones created in stage 4
+                deleteRelationshipGroups( neoStore.getRelationshipGroupStore(), existingRelationshipGroupsHighId );
+            }
 
             // Remaining node processors
             nodeLabelsCache = new NodeLabelsCache( AUTO, neoStore.getLabelRepository().getHighId() );
             StoreProcessor<NodeRecord> nodeFirstRelationshipProcessor = new NodeFirstRelationshipProcessor(
                     neoStore.getRelationshipGroupStore(), nodeRelationshipLink );
             StoreProcessor<NodeRecord> nodeCountsProcessor = new NodeCountsProcessor( neoStore.getNodeStore(),
-                    nodeLabelsCache, neoStore.getLabelRepository().getHighId(), neoStore.getCountsStore() );
+                    nodeLabelsCache, neoStore.getLabelRepository().getHighId(), neoStore.getCountsStore(),
+                    firstNodeId );
 
             // Remaining relationship processors
             StoreProcessor<RelationshipRecord> relationshipLinkerProcessor =
@@ -187,7 +294,7 @@ public class ParallelBatchImporter implements BatchImporter
 
             // Determine if we have enough available memory to be able to execute all remaining processors
             // in parallel.
-            if ( disableParallelizationSinceItCausesWrongCountsComputations() &&
+            if ( disableParallelizationSinceItCausesWrongCountsComputations() && !appendToExistingStore &&
                     enoughAvailableMemoryForRemainingProcessors( nodeRelationshipLink ) )
             {
                 // Stages 4, 5, 6 and 7
@@ -220,7 +327,22 @@ public class ParallelBatchImporter implements BatchImporter
                 // Stage 7 -- count label-[type]->label
                 executeStages( new RelationshipCountsStage( config, nodeLabelsCache, neoStore.getRelationshipStore(),
                         neoStore.getLabelRepository().getHighId(),
-                        neoStore.getRelationshipTypeRepository().getHighId(), neoStore.getCountsStore() ) );
+                        neoStore.getRelationshipTypeRepository().getHighId(), neoStore.getCountsStore(),
+                        firstRelationshipId ) );
+            }
+
+            // Stage 8 -- write the samples and schema rules of the indexes populated in stage 1
+            if ( indexes.length > 0 )
+            {
+                indexPopulators.complete();
+                logger.info( "Built " + indexes.length + " indexes and constraints" );
+            }
+
+            if ( stringDictionary != existingDictionary )
+            {
+                stringDictionary.writeTo( fileSystem,
+                        new File( storeDir, NeoStore.DEFAULT_NAME + StoreFactory.PROPERTY_STRINGS_DICTIONARY_NAME ) );
+                logger.info( "Wrote string dictionary with " + stringDictionary.size() + " entries" );
             }
 
             // We're done, do some final logging about it
@@ -250,6 +372,10 @@ public class ParallelBatchImporter implements BatchImporter
             {
                 nodeLabelsCache.close();
             }
+            if ( indexPopulators != null )
+            {
+                indexPopulators.close();
+            }
             if ( !hasBadRelationships )
             {
                 fileSystem.deleteFile( badRelationshipsFile );
@@ -257,6 +383,16 @@ public class ParallelBatchImporter implements BatchImporter
         }
     }
 
+    private void deleteRelationshipGroups( RelationshipGroupStore store, long highId )
+    {
+        for ( long id = store.getNumberOfReservedLowIds(); id < highId; id++ )
+        {
+            store.updateRecord( new RelationshipGroupRecord( id, -1 ) );
+            store.freeId( id );
+        }
+        writerFactory.awaitEverythingWritten();
+    }
+
     private boolean disableParallelizationSinceItCausesWrongCountsComputations()
     {
         // we have seen wrongly computed node counts when this stages parallelization is allowed
@@ -281,7 +417,8 @@ public class ParallelBatchImporter implements BatchImporter
     public class NodeStage extends Stage
     {
         public NodeStage( InputIterable<InputNode> nodes, IdMapper idMapper, IdGenerator idGenerator,
-                          BatchingNeoStore neoStore )
+                          BatchingNeoStore neoStore, SchemaIndexPopulators indexPopulators,
+                          StringDictionary stringDictionary )
         {
             super( "Nodes", config, idGenerator.dependsOnInput() );
             add( new InputIteratorBatcherStep<>( control(), config.batchSize(), config.movingAverageSize(),
@@ -289,9 +426,14 @@ public class ParallelBatchImporter implements BatchImporter
 
             NodeStore nodeStore = neoStore.getNodeStore();
             PropertyStore propertyStore = neoStore.getPropertyStore();
-            add( new PropertyEncoderStep<>( control(), config, 1, neoStore.getPropertyKeyRepository(), propertyStore ) );
+            add( new PropertyEncoderStep<>( control(), config, 1, neoStore.getPropertyKeyRepository(), propertyStore,
+                    stringDictionary ) );
             add( new NodeEncoderStep( control(), config, idMapper, idGenerator,
                     neoStore.getLabelRepository(), nodeStore, idsOf( nodes ) ) );
+            for ( IndexPopulationStep step : indexPopulators.populationSteps( control(), config ) )
+            {
+                add( step );
+            }
             add( new EntityStoreUpdaterStep<>( control(), config, nodeStore, propertyStore,
                     writeMonitor, writerFactory ) );
         }
@@ -315,7 +457,8 @@ public class ParallelBatchImporter implements BatchImporter
     public class RelationshipStage extends Stage
     {
         public RelationshipStage( InputIterable<InputRelationship> relationships, IdMapper idMapper,
-                BatchingNeoStore neoStore, NodeRelationshipLink nodeRelationshipLink, boolean specificIds )
+                BatchingNeoStore neoStore, NodeRelationshipLink nodeRelationshipLink, boolean specificIds,
+                StringDictionary stringDictionary )
         {
             super( "Relationships", config, false );
             add( new InputIteratorBatcherStep<>( control(), config.batchSize(), config.movingAverageSize(),
@@ -324,7 +467,8 @@ public class ParallelBatchImporter implements BatchImporter
             RelationshipStore relationshipStore = neoStore.getRelationshipStore();
             PropertyStore propertyStore = neoStore.getPropertyStore();
             add( new RelationshipPreparationStep( control(), config, idMapper ) );
-            add( new PropertyEncoderStep<>( control(), config, 1, neoStore.getPropertyKeyRepository(), propertyStore ) );
+            add( new PropertyEncoderStep<>( control(), config, 1, neoStore.getPropertyKeyRepository(), propertyStore,
+                    stringDictionary ) );
             add( new RelationshipEncoderStep( control(), config,
                     neoStore.getRelationshipTypeRepository(), relationshipStore, nodeRelationshipLink, specificIds ) );
             add( new EntityStoreUpdaterStep<>( control(), config,
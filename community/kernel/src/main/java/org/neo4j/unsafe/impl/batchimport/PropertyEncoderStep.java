@@ -22,6 +22,7 @@ package org.neo4j.unsafe.impl.batchimport;
 import java.util.Arrays;
 
 import org.neo4j.kernel.impl.store.PropertyStore;
+import org.neo4j.kernel.impl.store.StringDictionary;
 import org.neo4j.kernel.impl.store.record.PrimitiveRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
 import org.neo4j.kernel.impl.transaction.state.PropertyCreator;
@@ -43,16 +44,20 @@ public class PropertyEncoderStep<RECORD extends PrimitiveRecord,INPUT extends In
     private final BatchingPropertyKeyTokenRepository propertyKeyHolder;
     private final int arrayDataSize;
     private final int stringDataSize;
+    private final StringDictionary stringDictionary;
+    private final int stringCompressionThreshold;
     private final MovingAverage averageBlocksPerBatch;
 
     protected PropertyEncoderStep( StageControl control, Configuration config, int numberOfExecutors,
             BatchingPropertyKeyTokenRepository propertyKeyHolder,
-            PropertyStore propertyStore )
+            PropertyStore propertyStore, StringDictionary stringDictionary )
     {
         super( control, "PROPERTIES", config.workAheadSize(), config.movingAverageSize(), numberOfExecutors, true );
         this.propertyKeyHolder = propertyKeyHolder;
         this.arrayDataSize = propertyStore.getArrayStore().dataSize();
         this.stringDataSize = propertyStore.getStringStore().dataSize();
+        this.stringDictionary = stringDictionary;
+        this.stringCompressionThreshold = propertyStore.getStringCompressionThreshold();
         this.averageBlocksPerBatch = new MovingAverage( config.movingAverageSize() );
     }
 
@@ -61,7 +66,8 @@ public class PropertyEncoderStep<RECORD extends PrimitiveRecord,INPUT extends In
     {
         RelativeIdRecordAllocator stringAllocator = new RelativeIdRecordAllocator( stringDataSize );
         RelativeIdRecordAllocator arrayAllocator = new RelativeIdRecordAllocator( arrayDataSize );
-        PropertyCreator propertyCreator = new PropertyCreator( stringAllocator, arrayAllocator, null, null );
+        PropertyCreator propertyCreator = new PropertyCreator( stringAllocator, arrayAllocator, stringDictionary,
+                stringCompressionThreshold, null, null );
 
         int blockCountGuess = (int) averageBlocksPerBatch.average();
         PropertyBlock[] propertyBlocks = new PropertyBlock[blockCountGuess == 0
@@ -36,14 +36,21 @@ public class ReadRelationshipCountsDataStep extends IoProducerStep<long[]>
     private final RelationshipStore store;
     private final RelationshipRecord record = new RelationshipRecord( -1 );
     private final long highestId;
-    private long id = -1;
+    private long id;
 
     public ReadRelationshipCountsDataStep( StageControl control, int batchSize, int movingAverageSize,
             RelationshipStore store )
+    {
+        this( control, batchSize, movingAverageSize, store, 0 );
+    }
+
+    public ReadRelationshipCountsDataStep( StageControl control, int batchSize, int movingAverageSize,
+            RelationshipStore store, long firstId )
     {
         super( control, batchSize, movingAverageSize );
         this.store = store;
         this.highestId = store.getHighestPossibleIdInUse();
+        this.id = firstId - 1;
     }
 
     @Override
@@ -32,10 +32,20 @@ public class RelationshipCountsStage extends Stage
 {
     public RelationshipCountsStage( Configuration config, NodeLabelsCache cache, RelationshipStore relationshipStore,
             int highLabelId, int highRelationshipTypeId, CountsTracker countsTracker )
+    {
+        this( config, cache, relationshipStore, highLabelId, highRelationshipTypeId, countsTracker, 0 );
+    }
+
+    /**
+     * @param firstRelationshipId relationships with lower ids are not counted. Used when appending to an
+     * existing store where the counts store already has counts for those relationships.
+     */
+    public RelationshipCountsStage( Configuration config, NodeLabelsCache cache, RelationshipStore relationshipStore,
+            int highLabelId, int highRelationshipTypeId, CountsTracker countsTracker, long firstRelationshipId )
     {
         super( "Relationship --> Relationship counts", config, false );
         add( new ReadRelationshipCountsDataStep( control(), config.batchSize(), config.movingAverageSize(),
-                relationshipStore ) );
+                relationshipStore, firstRelationshipId ) );
         add( new ProcessRelationshipCountsDataStep( control(), cache, config.workAheadSize(),
                 config.movingAverageSize(), highLabelId, highRelationshipTypeId, countsTracker ) );
     }
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipLink;
+
+/**
+ * Counts relationships per node for {@link RelationshipRecord relationship records} already in the store,
+ * the same way {@link CalculateDenseNodesStep} does for relationship input. Used when appending to an
+ * existing store, so that dense nodes are designated by their total number of relationships.
+ */
+public class RelationshipDegreesProcessor implements StoreProcessor<RelationshipRecord>
+{
+    private final NodeRelationshipLink nodeRelationshipLink;
+
+    public RelationshipDegreesProcessor( NodeRelationshipLink nodeRelationshipLink )
+    {
+        this.nodeRelationshipLink = nodeRelationshipLink;
+    }
+
+    @Override
+    public boolean process( RelationshipRecord record )
+    {
+        nodeRelationshipLink.incrementCount( record.getFirstNode() );
+        if ( record.getFirstNode() != record.getSecondNode() )
+        {
+            nodeRelationshipLink.incrementCount( record.getSecondNode() );
+        }
+        // No need to update the store, we're just reading things here
+        return false;
+    }
+
+    @Override
+    public void done()
+    {   // Nothing to do here
+    }
+}
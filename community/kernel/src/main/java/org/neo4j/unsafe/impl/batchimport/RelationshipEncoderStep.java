@@ -20,7 +20,6 @@
 package org.neo4j.unsafe.impl.batchimport;
 
 import org.neo4j.kernel.impl.store.RelationshipStore;
-import org.neo4j.kernel.impl.store.record.Record;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipLink;
 import org.neo4j.unsafe.impl.batchimport.input.InputRelationship;
@@ -28,10 +27,6 @@ import org.neo4j.unsafe.impl.batchimport.staging.ExecutorServiceStep;
 import org.neo4j.unsafe.impl.batchimport.staging.StageControl;
 import org.neo4j.unsafe.impl.batchimport.store.BatchingTokenRepository;
 
-import static org.neo4j.graphdb.Direction.BOTH;
-import static org.neo4j.graphdb.Direction.INCOMING;
-import static org.neo4j.graphdb.Direction.OUTGOING;
-
 /**
  * Creates batches of relationship records, with the "next" relationship
  * pointers set to the next relationships (previously created) in their respective chains. The previous
@@ -47,7 +42,7 @@ public class RelationshipEncoderStep extends ExecutorServiceStep<Batch<InputRela
     // There are two "modes" in generating relationship ids
     // - ids are decided by InputRelationship#id() (f.ex. store migration, where ids should be kept intact).
     //   nextRelationshipId will not be used, and all InputRelationships will have to specify ids
-    // - ids are incremented for each one, starting at a specific id (0 on empty db)
+    // - ids are incremented for each one, starting at the high id of the relationship store (0 on empty db)
     //   nextRelationshipId is used and _no_ id from InputRelationship is used, rather no id is allowed to be specified.
     private final boolean specificIds;
     private long nextRelationshipId;
@@ -64,6 +59,7 @@ public class RelationshipEncoderStep extends ExecutorServiceStep<Batch<InputRela
         this.relationshipStore = relationshipStore;
         this.nodeRelationshipLink = nodeRelationshipLink;
         this.specificIds = specificIds;
+        this.nextRelationshipId = relationshipStore.getHighId();
     }
 
     @Override
@@ -99,26 +95,7 @@ public class RelationshipEncoderStep extends ExecutorServiceStep<Batch<InputRela
                     startNodeId, endNodeId, typeId );
             relationshipRecord.setInUse( true );
 
-            // Set first/second next rel
-            boolean loop = startNodeId == endNodeId;
-            long firstNextRel = nodeRelationshipLink.getAndPutRelationship(
-                    startNodeId, typeId, loop ? BOTH : OUTGOING, relationshipId, true );
-            relationshipRecord.setFirstNextRel( firstNextRel );
-            if ( loop )
-            {
-                relationshipRecord.setSecondNextRel( firstNextRel );
-            }
-            else
-            {
-                relationshipRecord.setSecondNextRel( nodeRelationshipLink.getAndPutRelationship(
-                        endNodeId, typeId, INCOMING, relationshipId, true ) );
-            }
-
-            // Most rels will not be first in chain
-            relationshipRecord.setFirstInFirstChain( false );
-            relationshipRecord.setFirstInSecondChain( false );
-            relationshipRecord.setFirstPrevRel( Record.NO_NEXT_RELATIONSHIP.intValue() );
-            relationshipRecord.setSecondPrevRel( Record.NO_NEXT_RELATIONSHIP.intValue() );
+            RelationshipLinkforwardProcessor.linkForward( relationshipRecord, nodeRelationshipLink );
         }
         return batch;
     }
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.neo4j.kernel.impl.store.record.Record;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.unsafe.impl.batchimport.cache.NodeRelationshipLink;
+
+import static org.neo4j.graphdb.Direction.BOTH;
+import static org.neo4j.graphdb.Direction.INCOMING;
+import static org.neo4j.graphdb.Direction.OUTGOING;
+
+/**
+ * Links the {@code next} fields in {@link RelationshipRecord relationship records} already in the store,
+ * the same way {@link RelationshipEncoderStep} does for imported relationships. Used when appending to an
+ * existing store, where the existing relationship chains are rebuilt together with the imported relationships.
+ * Records must be processed in id order and before any imported relationship, so that
+ * {@link RelationshipLinkbackProcessor} can link them back in the reverse order.
+ */
+public class RelationshipLinkforwardProcessor implements StoreProcessor<RelationshipRecord>
+{
+    private final NodeRelationshipLink nodeRelationshipLink;
+
+    public RelationshipLinkforwardProcessor( NodeRelationshipLink nodeRelationshipLink )
+    {
+        this.nodeRelationshipLink = nodeRelationshipLink;
+    }
+
+    @Override
+    public boolean process( RelationshipRecord record )
+    {
+        linkForward( record, nodeRelationshipLink );
+        return true;
+    }
+
+    static void linkForward( RelationshipRecord record, NodeRelationshipLink nodeRelationshipLink )
+    {
+        long startNodeId = record.getFirstNode();
+        long endNodeId = record.getSecondNode();
+        int typeId = record.getType();
+
+        // Set first/second next rel
+        boolean loop = startNodeId == endNodeId;
+        long firstNextRel = nodeRelationshipLink.getAndPutRelationship(
+                startNodeId, typeId, loop ? BOTH : OUTGOING, record.getId(), true );
+        record.setFirstNextRel( firstNextRel );
+        if ( loop )
+        {
+            record.setSecondNextRel( firstNextRel );
+        }
+        else
+        {
+            record.setSecondNextRel( nodeRelationshipLink.getAndPutRelationship(
+                    endNodeId, typeId, INCOMING, record.getId(), true ) );
+        }
+
+        // Most rels will not be first in chain
+        record.setFirstInFirstChain( false );
+        record.setFirstInSecondChain( false );
+        record.setFirstPrevRel( Record.NO_NEXT_RELATIONSHIP.intValue() );
+        record.setSecondPrevRel( Record.NO_NEXT_RELATIONSHIP.intValue() );
+    }
+
+    @Override
+    public void done()
+    {   // Nothing to do here
+    }
+}
@@ -25,14 +25,20 @@ import org.neo4j.unsafe.impl.batchimport.staging.Stage;
 
 /**
  * {@link Stage} that has just a single {@link RelationshipStoreProcessorStep} where a custom {@link StoreProcessor}
- * is passed in.
+ * is passed in. Records are processed from the highest id and backwards, unless told otherwise.
  */
 public class RelationshipStoreProcessorStage extends Stage
 {
     public RelationshipStoreProcessorStage( String name, Configuration config,
             RelationshipStore store, StoreProcessor<RelationshipRecord> processor )
+    {
+        this( name, config, store, processor, true );
+    }
+
+    public RelationshipStoreProcessorStage( String name, Configuration config,
+            RelationshipStore store, StoreProcessor<RelationshipRecord> processor, boolean reversed )
     {
         super( name, config, true );
-        add( new RelationshipStoreProcessorStep( control(), name, config, store, processor ) );
+        add( new RelationshipStoreProcessorStep( control(), name, config, store, processor, reversed ) );
     }
 }
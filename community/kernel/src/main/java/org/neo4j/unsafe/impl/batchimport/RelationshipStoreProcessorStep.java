@@ -35,7 +35,14 @@ public class RelationshipStoreProcessorStep extends StoreProcessorStep<Relations
     protected RelationshipStoreProcessorStep( StageControl control, String name, Configuration config,
             RelationshipStore relationshipStore, StoreProcessor<RelationshipRecord> processor )
     {
-        super( control, name, config.batchSize(), config.movingAverageSize(), relationshipStore, processor, true );
+        this( control, name, config, relationshipStore, processor, true );
+    }
+
+    protected RelationshipStoreProcessorStep( StageControl control, String name, Configuration config,
+            RelationshipStore relationshipStore, StoreProcessor<RelationshipRecord> processor, boolean reversed )
+    {
+        super( control, name, config.batchSize(), config.movingAverageSize(), relationshipStore, processor,
+                reversed );
         this.relationshipStore = relationshipStore;
     }
 
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import java.io.IOException;
+
+import org.neo4j.kernel.api.index.IndexConfiguration;
+import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexPopulator;
+import org.neo4j.kernel.api.index.SchemaIndexProvider;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
+import org.neo4j.kernel.impl.store.SchemaStore;
+import org.neo4j.kernel.impl.store.UniquenessConstraintRule;
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+import org.neo4j.kernel.impl.store.record.IndexRule;
+import org.neo4j.kernel.impl.store.record.SchemaRule;
+import org.neo4j.kernel.impl.transaction.state.NeoStoreIndexStoreView;
+import org.neo4j.register.Register.DoubleLongRegister;
+import org.neo4j.register.Registers;
+import org.neo4j.unsafe.impl.batchimport.input.InputIndex;
+import org.neo4j.unsafe.impl.batchimport.staging.Stage;
+import org.neo4j.unsafe.impl.batchimport.staging.StageControl;
+import org.neo4j.unsafe.impl.batchimport.store.BatchingNeoStore;
+
+/**
+ * {@link IndexPopulator Populators} for the {@link InputIndex indexes} to build during an import.
+ * They're created up front, get populated by an {@link IndexPopulationStep} each as nodes are imported
+ * which also verifies uniqueness of constraint indexes, and are {@link #complete() completed} when all data
+ * is in the store, at which point index samples are stored and the schema rules are written. An index which has been completed starts out
+ * as ONLINE in the database, any other index is left failed and is dropped when {@link #close() closed}.
+ */
+public class SchemaIndexPopulators implements AutoCloseable
+{
+    private final InputIndex[] indexes;
+    private final IndexRule[] rules;
+    private final IndexPopulator[] populators;
+    private final BatchingNeoStore neoStore;
+    private boolean completed;
+
+    public SchemaIndexPopulators( SchemaIndexProvider provider, InputIndex[] indexes, BatchingNeoStore neoStore )
+            throws IOException
+    {
+        this.indexes = indexes;
+        this.neoStore = neoStore;
+        this.rules = new IndexRule[indexes.length];
+        this.populators = new IndexPopulator[indexes.length];
+
+        SchemaStore schemaStore = neoStore.getSchemaStore();
+        IndexSamplingConfig samplingConfig = new IndexSamplingConfig( new Config() );
+        try
+        {
+            for ( int i = 0; i < indexes.length; i++ )
+            {
+                InputIndex index = indexes[i];
+                int labelId = neoStore.getLabelRepository().getOrCreateId( index.label() );
+                int propertyKeyId = neoStore.getPropertyKeyRepository().getOrCreateId( index.propertyKey() );
+                long ruleId = schemaStore.nextId();
+                rules[i] = index.unique()
+                        ? IndexRule.constraintIndexRule( ruleId, labelId, propertyKeyId,
+                                provider.getProviderDescriptor(), schemaStore.nextId() )
+                        : IndexRule.indexRule( ruleId, labelId, propertyKeyId, provider.getProviderDescriptor() );
+                populators[i] = provider.getPopulator( ruleId, new IndexDescriptor( labelId, propertyKeyId ),
+                        new IndexConfiguration( index.unique() ), samplingConfig );
+                populators[i].create();
+            }
+        }
+        catch ( IOException | RuntimeException e )
+        {   // Nobody gets to close us if we fail here, so drop the populators created so far
+            try
+            {
+                close();
+            }
+            catch ( IOException closeException )
+            {
+                e.addSuppressed( closeException );
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return one {@link IndexPopulationStep} per index, to be added to a {@link Stage} after the step
+     * which creates the node records.
+     */
+    public IndexPopulationStep[] populationSteps( StageControl control, Configuration config )
+    {
+        IndexPopulationStep[] steps = new IndexPopulationStep[indexes.length];
+        for ( int i = 0; i < indexes.length; i++ )
+        {
+            steps[i] = new IndexPopulationStep( control, config, indexes[i], rules[i].getPropertyKey(),
+                    populators[i] );
+        }
+        return steps;
+    }
+
+    /**
+     * Stores the index samples in the counts store and writes the schema rules for all indexes.
+     * Must be called when all nodes and properties have been written to the store and the
+     * {@link IndexPopulationStep population steps} have completed without failure.
+     *
+     * @throws IOException on I/O error.
+     */
+    public void complete() throws IOException
+    {
+        NeoStoreIndexStoreView storeView = neoStore.newIndexStoreView();
+        SchemaStore schemaStore = neoStore.getSchemaStore();
+        DoubleLongRegister sample = Registers.newDoubleLongRegister();
+        for ( int i = 0; i < indexes.length; i++ )
+        {
+            IndexPopulator populator = populators[i];
+            IndexRule rule = rules[i];
+
+            long indexSize = populator.sampleResult( sample );
+            storeView.replaceIndexCounts( new IndexDescriptor( rule.getLabel(), rule.getPropertyKey() ),
+                    sample.readFirst(), sample.readSecond(), indexSize );
+
+            if ( rule.isConstraintIndex() )
+            {
+                writeRule( schemaStore, UniquenessConstraintRule.uniquenessConstraintRule(
+                        rule.getOwningConstraint(), rule.getLabel(), rule.getPropertyKey(), rule.getId() ) );
+            }
+            writeRule( schemaStore, rule );
+        }
+        for ( IndexPopulator populator : populators )
+        {
+            populator.close( true );
+        }
+        completed = true;
+    }
+
+    private void writeRule( SchemaStore schemaStore, SchemaRule rule )
+    {
+        for ( DynamicRecord record : schemaStore.allocateFrom( rule ) )
+        {
+            schemaStore.updateRecord( record );
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if ( completed )
+        {
+            return;
+        }
+
+        // Population didn't complete, so there are no rules for these indexes, don't leave them lying around
+        IOException exception = null;
+        for ( IndexPopulator populator : populators )
+        {
+            if ( populator == null )
+            {
+                continue;
+            }
+            try
+            {
+                populator.close( false );
+                populator.drop();
+            }
+            catch ( IOException e )
+            {
+                exception = exception == null ? e : exception;
+            }
+        }
+        if ( exception != null )
+        {
+            throw exception;
+        }
+    }
+}
@@ -94,4 +94,39 @@ public class IdGenerators
     {
         return startingFrom( 0 );
     }
+
+    /**
+     * @param generator {@link IdGenerator} to generate ids with.
+     * @param firstFreeId the first id not used by nodes already in the store.
+     * @return an {@link IdGenerator} for appending nodes to a store that already has nodes up to, but excluding,
+     * {@code firstFreeId}. Incrementally generated ids are moved up past the existing nodes, whereas
+     * ids coming from input are verified to not collide with them.
+     */
+    public static IdGenerator appendingTo( final long firstFreeId, final IdGenerator generator )
+    {
+        return new IdGenerator()
+        {
+            @Override
+            public long generate( Object inputId )
+            {
+                long id = generator.generate( inputId );
+                if ( !generator.dependsOnInput() )
+                {
+                    return firstFreeId + id;
+                }
+                if ( id < firstFreeId )
+                {
+                    throw new IllegalArgumentException( "Node id " + id + " is already used in the store, " +
+                            "new nodes must have ids from " + firstFreeId + " and up" );
+                }
+                return id;
+            }
+
+            @Override
+            public boolean dependsOnInput()
+            {
+                return generator.dependsOnInput();
+            }
+        };
+    }
 }
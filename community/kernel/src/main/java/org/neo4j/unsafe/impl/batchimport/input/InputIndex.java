@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.input;
+
+/**
+ * Schema index, optionally backing a uniqueness constraint, to build from {@link InputNode input nodes}
+ * as part of an import, so that it's online as soon as the database starts.
+ */
+public class InputIndex
+{
+    private final String label;
+    private final String propertyKey;
+    private final boolean unique;
+
+    private InputIndex( String label, String propertyKey, boolean unique )
+    {
+        this.label = label;
+        this.propertyKey = propertyKey;
+        this.unique = unique;
+    }
+
+    public static InputIndex index( String label, String propertyKey )
+    {
+        return new InputIndex( label, propertyKey, false );
+    }
+
+    public static InputIndex uniquenessConstraint( String label, String propertyKey )
+    {
+        return new InputIndex( label, propertyKey, true );
+    }
+
+    public String label()
+    {
+        return label;
+    }
+
+    public String propertyKey()
+    {
+        return propertyKey;
+    }
+
+    /**
+     * @return whether or not this index backs a uniqueness constraint.
+     */
+    public boolean unique()
+    {
+        return unique;
+    }
+
+    /**
+     * @return the value of the indexed property of {@code node} if it has the indexed label and property,
+     * otherwise {@code null}.
+     * @throws InputException if {@code node} refers to labels or properties already written to the store,
+     * instead of carrying them, since those can't be resolved for the index while importing.
+     */
+    public Object valueOf( InputNode node )
+    {
+        if ( node.hasLabelField() || node.hasFirstPropertyId() )
+        {
+            throw new InputException( "Can't build " + this + " from " + node + ", since it refers to labels " +
+                    "or properties already in the store rather than carrying them" );
+        }
+        if ( !hasLabel( node.labels() ) )
+        {
+            return null;
+        }
+
+        Object[] properties = node.properties();
+        for ( int i = 0; i < properties.length; i += 2 )
+        {
+            if ( propertyKey.equals( properties[i] ) )
+            {
+                return properties[i+1];
+            }
+        }
+        return null;
+    }
+
+    private boolean hasLabel( String[] labels )
+    {
+        for ( String candidate : labels )
+        {
+            if ( label.equals( candidate ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString()
+    {
+        return (unique ? "uniqueness constraint" : "index") + " on :" + label + "(" + propertyKey + ")";
+    }
+}
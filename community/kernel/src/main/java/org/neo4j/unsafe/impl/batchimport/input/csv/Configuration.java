@@ -44,6 +44,13 @@ public interface Configuration
 
     int bufferSize();
 
+    /**
+     * Number of threads to parse data with. With more than one thread the data of each input group is cut
+     * into chunks of whole lines which are parsed in parallel, although entities are still provided
+     * in the order they appear in the data.
+     */
+    int parsingThreads();
+
     public static abstract class Default implements Configuration
     {
         @Override
@@ -57,6 +64,12 @@ public interface Configuration
         {
             return BufferedCharSeeker.DEFAULT_BUFFER_SIZE;
         }
+
+        @Override
+        public int parsingThreads()
+        {
+            return 1;
+        }
     }
 
     public static final Configuration COMMAS = new Default()
@@ -121,5 +134,11 @@ public interface Configuration
         {
             return defaults.bufferSize();
         }
+
+        @Override
+        public int parsingThreads()
+        {
+            return defaults.parsingThreads();
+        }
     }
 }
@@ -109,15 +109,12 @@ public class CsvInput implements Input
             public InputIterator<InputNode> iterator()
             {
                 return new InputGroupsDeserializer<InputNode>( nodeDataFactory.iterator(),
-                        nodeHeaderFactory, config, idType )
+                        nodeHeaderFactory, config, idType, Validators.<InputNode>emptyValidator() )
                 {
                     @Override
-                    protected InputIterator<InputNode> entityDeserializer( CharSeeker dataStream, Header dataHeader,
-                            Function<InputNode,InputNode> decorator )
+                    protected Deserialization<InputNode> deserialization( CharSeeker dataStream, Header dataHeader )
                     {
-                        return new InputEntityDeserializer<>( dataHeader, dataStream, config.delimiter(),
-                                new InputNodeDeserialization( dataStream, dataHeader, groups, idType.idsAreExternal() ),
-                                decorator, Validators.<InputNode>emptyValidator() );
+                        return new InputNodeDeserialization( dataStream, dataHeader, groups, idType.idsAreExternal() );
                     }
                 };
             }
@@ -133,25 +130,23 @@ public class CsvInput implements Input
             public InputIterator<InputRelationship> iterator()
             {
                 return new InputGroupsDeserializer<InputRelationship>( relationshipDataFactory.iterator(),
-                        relationshipHeaderFactory, config, idType )
+                        relationshipHeaderFactory, config, idType, new Validator<InputRelationship>()
+                        {
+                            @Override
+                            public void validate( InputRelationship entity )
+                            {
+                                if ( !entity.hasTypeId() && entity.type() == null )
+                                {
+                                    throw new DataException( entity + " is missing " + Type.TYPE + " field" );
+                                }
+                            }
+                        } )
                 {
                     @Override
-                    protected InputIterator<InputRelationship> entityDeserializer( CharSeeker dataStream,
-                              Header dataHeader, Function<InputRelationship,InputRelationship> decorator )
+                    protected Deserialization<InputRelationship> deserialization( CharSeeker dataStream,
+                            Header dataHeader )
                     {
-                        return new InputEntityDeserializer<>( dataHeader, dataStream, config.delimiter(),
-                                new InputRelationshipDeserialization( dataStream, dataHeader, groups ),
-                                decorator, new Validator<InputRelationship>()
-                                {
-                                    @Override
-                                    public void validate( InputRelationship entity )
-                                    {
-                                        if ( !entity.hasTypeId() && entity.type() == null )
-                                        {
-                                            throw new DataException( entity + " is missing " + Type.TYPE + " field" );
-                                        }
-                                    }
-                                } );
+                        return new InputRelationshipDeserialization( dataStream, dataHeader, groups );
                     }
                 };
             }
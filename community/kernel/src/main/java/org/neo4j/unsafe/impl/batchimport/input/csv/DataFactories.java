@@ -65,15 +65,20 @@ public class DataFactories
             @Override
             public Data<ENTITY> create( final Configuration config )
             {
-                return new Data<ENTITY>()
+                return new ReadableData<ENTITY>()
                 {
                     @Override
                     public CharSeeker stream()
+                    {
+                        return charSeeker( readable(), config.bufferSize(), true, config.quotationCharacter() );
+                    }
+
+                    @Override
+                    public CharReadable readable()
                     {
                         try
                         {
-                            return charSeeker( Readables.file( file ), config.bufferSize(),
-                                    true, config.quotationCharacter() );
+                            return Readables.file( file );
                         }
                         catch ( IOException e )
                         {
@@ -110,15 +115,20 @@ public class DataFactories
             @Override
             public Data<ENTITY> create( final Configuration config )
             {
-                return new Data<ENTITY>()
+                return new ReadableData<ENTITY>()
                 {
                     @Override
                     public CharSeeker stream()
+                    {
+                        return charSeeker( readable(), config.bufferSize(), true, config.quotationCharacter() );
+                    }
+
+                    @Override
+                    public CharReadable readable()
                     {
                         try
                         {
-                            return charSeeker( multipleFiles( files ), config.bufferSize(),
-                                               true, config.quotationCharacter() );
+                            return multipleFiles( files );
                         }
                         catch ( IOException e )
                         {
@@ -149,13 +159,18 @@ public class DataFactories
             @Override
             public Data<ENTITY> create( final Configuration config )
             {
-                return new Data<ENTITY>()
+                return new ReadableData<ENTITY>()
                 {
                     @Override
                     public CharSeeker stream()
                     {
-                        return charSeeker( readable.newInstance(), config.bufferSize(),
-                                           true, config.quotationCharacter() );
+                        return charSeeker( readable(), config.bufferSize(), true, config.quotationCharacter() );
+                    }
+
+                    @Override
+                    public CharReadable readable()
+                    {
+                        return readable.newInstance();
                     }
 
                     @Override
@@ -23,6 +23,7 @@ import java.util.Arrays;
 
 import org.neo4j.csv.reader.CharSeeker;
 import org.neo4j.csv.reader.Extractor;
+import org.neo4j.csv.reader.Extractors;
 
 /**
  * Header of tabular/csv data input, specifying meta data about values in each "column", for example
@@ -53,6 +54,25 @@ public class Header
         return entries;
     }
 
+    /**
+     * {@link Extractor Extractors} are mutable and so a {@link Header} can only be used by one thread at a time.
+     * This method creates a copy of this header for use by another thread.
+     *
+     * @param extractors where to get extractors for the copy from, by the name of the extractors of this header.
+     * @return a copy of this header, with its own extractors.
+     */
+    public Header copy( Extractors extractors )
+    {
+        Entry[] copy = new Entry[entries.length];
+        for ( int i = 0; i < entries.length; i++ )
+        {
+            Entry entry = entries[i];
+            copy[i] = new Entry( entry.name(), entry.type(), entry.groupName(),
+                    entry.extractor() != null ? extractors.valueOf( entry.extractor().toString() ) : null );
+        }
+        return new Header( copy );
+    }
+
     public Entry entry( Type type )
     {
         Entry result = null;
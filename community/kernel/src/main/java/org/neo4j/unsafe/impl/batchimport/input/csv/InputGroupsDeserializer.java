@@ -22,15 +22,17 @@ package org.neo4j.unsafe.impl.batchimport.input.csv;
 import java.util.Iterator;
 
 import org.neo4j.csv.reader.CharSeeker;
-import org.neo4j.function.Function;
+import org.neo4j.function.Function2;
 import org.neo4j.helpers.collection.NestingIterator;
+import org.neo4j.kernel.impl.util.Validator;
 import org.neo4j.unsafe.impl.batchimport.InputIterator;
 import org.neo4j.unsafe.impl.batchimport.input.InputEntity;
 
 /**
  * Able to deserialize one input group. An input group is a list of one or more input files containing
  * its own header. An import can read multiple input groups. Each group is deserialized by
- * {@link InputEntityDeserializer}.
+ * {@link InputEntityDeserializer}, or by {@link ParallelInputEntityDeserializer} if the data of the group
+ * is {@link ReadableData readable} and {@link Configuration#parsingThreads() parsed by multiple threads}.
  */
 abstract class InputGroupsDeserializer<ENTITY extends InputEntity>
         extends NestingIterator<ENTITY,DataFactory<ENTITY>>
@@ -39,16 +41,18 @@ abstract class InputGroupsDeserializer<ENTITY extends InputEntity>
     private final Header.Factory headerFactory;
     private final Configuration config;
     private final IdType idType;
+    private final Validator<ENTITY> validator;
     private InputIterator<ENTITY> currentInput = new InputIterator.Adapter<>();
     private long previousInputsCollectivePositions;
 
     InputGroupsDeserializer( Iterator<DataFactory<ENTITY>> dataFactory, Header.Factory headerFactory,
-                             Configuration config, IdType idType )
+                             Configuration config, IdType idType, Validator<ENTITY> validator )
     {
         super( dataFactory );
         this.headerFactory = headerFactory;
         this.config = config;
         this.idType = idType;
+        this.validator = validator;
     }
 
     @Override
@@ -58,6 +62,18 @@ abstract class InputGroupsDeserializer<ENTITY extends InputEntity>
 
         // Open the data stream. It's closed by the batch importer when execution is done.
         Data<ENTITY> data = dataFactory.create( config );
+        if ( config.parsingThreads() > 1 && data instanceof ReadableData )
+        {
+            return currentInput = new ParallelInputEntityDeserializer<>( ((ReadableData<ENTITY>) data).readable(),
+                    headerFactory, config, idType, new Function2<CharSeeker,Header,Deserialization<ENTITY>>()
+                    {
+                        @Override
+                        public Deserialization<ENTITY> apply( CharSeeker dataStream, Header dataHeader )
+                        {
+                            return deserialization( dataStream, dataHeader );
+                        }
+                    }, data.decorator(), validator );
+        }
         CharSeeker dataStream = data.stream();
 
         // Read the header, given the data stream. This allows the header factory to be able to
@@ -65,7 +81,8 @@ abstract class InputGroupsDeserializer<ENTITY extends InputEntity>
         // from somewhere else, it's up to that factory.
         Header dataHeader = headerFactory.create( dataStream, config, idType );
 
-        return currentInput = entityDeserializer( dataStream, dataHeader, data.decorator() );
+        return currentInput = new InputEntityDeserializer<>( dataHeader, dataStream, config.delimiter(),
+                deserialization( dataStream, dataHeader ), data.decorator(), validator );
     }
 
     private void closeCurrent()
@@ -78,8 +95,11 @@ abstract class InputGroupsDeserializer<ENTITY extends InputEntity>
         }
     }
 
-    protected abstract InputIterator<ENTITY> entityDeserializer( CharSeeker dataStream, Header dataHeader,
-            Function<ENTITY,ENTITY> decorator );
+    /**
+     * @return a new {@link Deserialization} of entities from {@code dataStream}. Called from parsing threads
+     * when {@link Configuration#parsingThreads() parsing in parallel}, once for each chunk of data.
+     */
+    protected abstract Deserialization<ENTITY> deserialization( CharSeeker dataStream, Header dataHeader );
 
     @Override
     public void close()
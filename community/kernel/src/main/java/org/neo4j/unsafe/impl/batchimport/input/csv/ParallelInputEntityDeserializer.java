@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.input.csv;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.csv.reader.CharReadable;
+import org.neo4j.csv.reader.CharSeeker;
+import org.neo4j.csv.reader.Extractors;
+import org.neo4j.csv.reader.LineBoundaryChunker;
+import org.neo4j.csv.reader.LineBoundaryChunker.Chunk;
+import org.neo4j.function.Function;
+import org.neo4j.function.Function2;
+import org.neo4j.function.Functions;
+import org.neo4j.helpers.collection.PrefetchingIterator;
+import org.neo4j.kernel.impl.util.Validator;
+import org.neo4j.kernel.impl.util.Validators;
+import org.neo4j.unsafe.impl.batchimport.InputIterator;
+import org.neo4j.unsafe.impl.batchimport.input.InputEntity;
+import org.neo4j.unsafe.impl.batchimport.input.InputException;
+
+import static java.lang.Math.min;
+
+import static org.neo4j.csv.reader.ThreadAheadReadable.threadAhead;
+import static org.neo4j.helpers.NamedThreadFactory.daemon;
+
+/**
+ * Deserializes one input group, like {@link InputEntityDeserializer}, but parses the data on multiple threads.
+ * The data is cut into chunks of whole lines by a {@link LineBoundaryChunker}, on the thread iterating over
+ * the entities, and each chunk is parsed by its own {@link InputEntityDeserializer} on one of the parsing threads.
+ * Parsed chunks are handed out in the order they were cut, and decorators and validation are applied here
+ * on the iterating thread, so the entities, and f.ex. the order of their ids, are exactly the same as if
+ * the data had been parsed by a single {@link InputEntityDeserializer}.
+ */
+class ParallelInputEntityDeserializer<ENTITY extends InputEntity>
+        extends PrefetchingIterator<ENTITY> implements InputIterator<ENTITY>
+{
+    private static final int MAX_CHUNK_SIZE = 1024 * 1024;
+
+    private final LineBoundaryChunker chunker;
+    private final Configuration config;
+    private final Header header;
+    private final ThreadLocal<Header> threadHeader;
+    private final Function2<CharSeeker,Header,Deserialization<ENTITY>> deserialization;
+    private final Function<ENTITY,ENTITY> decorator;
+    private final Validator<ENTITY> validator;
+    private final ExecutorService executor;
+    private final int maxChunksAhead;
+    private final Deque<Future<List<ENTITY>>> chunks = new ArrayDeque<>();
+    private boolean endOfChunks;
+    private List<ENTITY> current;
+    private int cursor;
+    private ENTITY last;
+
+    ParallelInputEntityDeserializer( CharReadable data, Header.Factory headerFactory, final Configuration config,
+            IdType idType, Function2<CharSeeker,Header,Deserialization<ENTITY>> deserialization,
+            Function<ENTITY,ENTITY> decorator, Validator<ENTITY> validator )
+    {
+        this.config = config;
+        this.deserialization = deserialization;
+        this.decorator = decorator;
+        this.validator = validator;
+        this.chunker = new LineBoundaryChunker( threadAhead( data, config.bufferSize() ), config.bufferSize(),
+                min( config.bufferSize(), MAX_CHUNK_SIZE ), config.delimiter(), config.quotationCharacter() );
+
+        // Read the header from the first chunk, which is then parsed like any other chunk from where
+        // the header ended. The header factory may read the header from somewhere else too, that's fine.
+        Chunk first = nextChunk();
+        CharSeeker firstSeeker = first != null ? first.seeker( config.quotationCharacter() ) : CharSeeker.EMPTY;
+        this.header = headerFactory.create( firstSeeker, config, idType );
+        this.threadHeader = new ThreadLocal<Header>()
+        {
+            @Override
+            protected Header initialValue()
+            {
+                return header.copy( new Extractors( config.arrayDelimiter() ) );
+            }
+        };
+
+        this.executor = Executors.newFixedThreadPool( config.parsingThreads(), daemon( "CSV parser" ) );
+        this.maxChunksAhead = config.parsingThreads() * 2;
+        if ( first != null )
+        {
+            chunks.add( executor.submit( new ChunkParser( firstSeeker ) ) );
+        }
+        else
+        {
+            endOfChunks = true;
+        }
+    }
+
+    @Override
+    protected ENTITY fetchNextOrNull()
+    {
+        while ( current == null || cursor >= current.size() )
+        {
+            current = nextParsedChunk();
+            cursor = 0;
+            if ( current == null )
+            {
+                return null;
+            }
+        }
+
+        ENTITY entity = current.set( cursor++, null ); // so that the entity can be garbage collected sooner
+        entity = decorator.apply( entity );
+        validator.validate( entity );
+        return last = entity;
+    }
+
+    private List<ENTITY> nextParsedChunk()
+    {
+        // Keep the parsing threads busy
+        while ( !endOfChunks && chunks.size() < maxChunksAhead )
+        {
+            Chunk chunk = nextChunk();
+            if ( chunk == null )
+            {
+                endOfChunks = true;
+            }
+            else
+            {
+                chunks.add( executor.submit( new ChunkParser( chunk.seeker( config.quotationCharacter() ) ) ) );
+            }
+        }
+
+        Future<List<ENTITY>> next = chunks.poll();
+        if ( next == null )
+        {
+            return null;
+        }
+        try
+        {
+            return next.get();
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new InputException( "Interrupted while waiting for parsed data", e );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new InputException( "Unable to parse data", e.getCause() );
+        }
+    }
+
+    private Chunk nextChunk()
+    {
+        try
+        {
+            return chunker.next();
+        }
+        catch ( IOException e )
+        {
+            throw new InputException( "Unable to read more data from input stream", e );
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        executor.shutdownNow();
+        try
+        {
+            chunker.close();
+        }
+        catch ( IOException e )
+        {
+            throw new InputException( "Unable to close data iterator", e );
+        }
+    }
+
+    @Override
+    public long position()
+    {
+        return last != null ? last.position() : 0;
+    }
+
+    @Override
+    public String sourceDescription()
+    {
+        return last != null ? last.sourceDescription() : null;
+    }
+
+    @Override
+    public long lineNumber()
+    {
+        return last != null ? last.lineNumber() : 0;
+    }
+
+    /**
+     * Parses all entities of one chunk. Decoration and validation is left for the iterating thread.
+     */
+    private class ChunkParser implements Callable<List<ENTITY>>
+    {
+        private final CharSeeker seeker;
+
+        ChunkParser( CharSeeker seeker )
+        {
+            this.seeker = seeker;
+        }
+
+        @Override
+        public List<ENTITY> call()
+        {
+            Header header = threadHeader.get();
+            InputEntityDeserializer<ENTITY> entities = new InputEntityDeserializer<>( header, seeker,
+                    config.delimiter(), deserialization.apply( seeker, header ),
+                    Functions.<ENTITY>identity(), Validators.<ENTITY>emptyValidator() );
+            List<ENTITY> result = new ArrayList<>();
+            try
+            {
+                while ( entities.hasNext() )
+                {
+                    result.add( entities.next() );
+                }
+            }
+            finally
+            {
+                entities.close();
+            }
+            return result;
+        }
+    }
+}
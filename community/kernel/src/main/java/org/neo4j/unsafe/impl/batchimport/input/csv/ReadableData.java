@@ -17,14 +17,20 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-package org.neo4j.consistency.store.paging;
+package org.neo4j.unsafe.impl.batchimport.input.csv;
 
-import java.io.IOException;
+import org.neo4j.csv.reader.CharReadable;
+import org.neo4j.unsafe.impl.batchimport.input.InputEntity;
 
-public class PageLoadFailureException extends Exception
+/**
+ * {@link Data} which can also provide its raw characters, instead of only a {@link #stream() seeker} over them.
+ * This allows the data to be cut into chunks which are parsed in parallel,
+ * see {@link Configuration#parsingThreads()}.
+ */
+public interface ReadableData<ENTITY extends InputEntity> extends Data<ENTITY>
 {
-    public PageLoadFailureException( IOException e )
-    {
-        super(e);
-    }
+    /**
+     * @return the characters of this data. Should be called instead of, not in addition to, {@link #stream()}.
+     */
+    CharReadable readable();
 }
@@ -20,13 +20,20 @@
 package org.neo4j.unsafe.impl.batchimport.store;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.EnumMap;
 import java.util.Map;
 
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.kernel.IdGeneratorFactory;
 import org.neo4j.kernel.IdType;
 import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.impl.store.InvalidIdGeneratorException;
+import org.neo4j.kernel.impl.store.UnderlyingStorageException;
 import org.neo4j.kernel.impl.store.id.IdGenerator;
+import org.neo4j.kernel.impl.store.id.IdGeneratorImpl;
 import org.neo4j.kernel.impl.store.id.IdRange;
 
 import static org.neo4j.kernel.impl.store.id.IdGeneratorImpl.createGenerator;
@@ -45,7 +52,8 @@ public class BatchingIdGeneratorFactory implements IdGeneratorFactory
         IdGenerator generator = idGenerators.get( idType );
         if ( generator == null )
         {
-            idGenerators.put( idType, generator = new BatchingIdGenerator( fs, fileName, highId ) );
+            idGenerators.put( idType, generator = new BatchingIdGenerator( fs, fileName, grabSize, idType.getMaxValue(),
+                    highId ) );
         }
         return generator;
     }
@@ -66,12 +74,41 @@ public class BatchingIdGeneratorFactory implements IdGeneratorFactory
         private long highId;
         private final FileSystemAbstraction fs;
         private final File fileName;
+        private final int grabSize;
+        private final long maxId;
+        private final PrimitiveLongSet freedIds = Primitive.longSet();
 
-        public BatchingIdGenerator( FileSystemAbstraction fs, File fileName, long highId )
+        public BatchingIdGenerator( FileSystemAbstraction fs, File fileName, int grabSize, long maxId, long highId )
         {
             this.fs = fs;
             this.fileName = fileName;
+            this.grabSize = grabSize;
+            this.maxId = maxId;
             this.highId = highId;
+            if ( fs.fileExists( fileName ) )
+            {
+                keepDefraggedIds();
+            }
+        }
+
+        /**
+         * When appending to an existing store its id file is replaced on {@link #close()}, so the ids it had
+         * already freed are carried over, together with those freed during the import.
+         */
+        private void keepDefraggedIds()
+        {
+            try
+            {
+                IdGeneratorImpl.readDefraggedIds( fs, fileName, freedIds );
+            }
+            catch ( InvalidIdGeneratorException e )
+            {   // Not cleanly closed, so its ids can't be trusted. The database rebuilds id files like that anyway.
+                freedIds.clear();
+            }
+            catch ( IOException e )
+            {
+                throw new UnderlyingStorageException( e );
+            }
         }
 
         @Override
@@ -107,8 +144,13 @@ public class BatchingIdGeneratorFactory implements IdGeneratorFactory
 
         @Override
         public void freeId( long id )
-        {
-            throw new UnsupportedOperationException();
+        {   // Ids are never reused during an import, but are written to the id file on close so that
+            // the database reuses them once it's started on the imported store.
+            if ( id < 0 || id >= highId )
+            {
+                throw new IllegalArgumentException( "Illegal id[" + id + "], highId is " + highId );
+            }
+            freedIds.add( id );
         }
 
         @Override
@@ -116,18 +158,40 @@ public class BatchingIdGeneratorFactory implements IdGeneratorFactory
         {
             fs.deleteFile( fileName );
             createGenerator( fs, fileName, highId );
+            try
+            {
+                if ( !freedIds.isEmpty() )
+                {
+                    IdGeneratorImpl generator = new IdGeneratorImpl( fs, fileName, grabSize, maxId, false, highId );
+                    try
+                    {
+                        for ( PrimitiveLongIterator ids = freedIds.iterator(); ids.hasNext(); )
+                        {
+                            generator.freeId( ids.next() );
+                        }
+                    }
+                    finally
+                    {
+                        generator.close();
+                    }
+                }
+            }
+            finally
+            {
+                freedIds.close();
+            }
         }
 
         @Override
         public long getNumberOfIdsInUse()
         {
-            return highId;
+            return highId - freedIds.size();
         }
 
         @Override
         public long getDefragCount()
         {
-            return 0;
+            return freedIds.size();
         }
 
         @Override
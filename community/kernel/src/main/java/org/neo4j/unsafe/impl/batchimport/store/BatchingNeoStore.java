@@ -26,14 +26,18 @@ import org.neo4j.graphdb.factory.GraphDatabaseSettings;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.pagecache.PageCache;
 import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.impl.api.index.IndexStoreView;
+import org.neo4j.kernel.impl.locking.ReentrantLockService;
 import org.neo4j.kernel.impl.store.NeoStore;
 import org.neo4j.kernel.impl.store.NodeStore;
 import org.neo4j.kernel.impl.store.PropertyStore;
 import org.neo4j.kernel.impl.store.RelationshipGroupStore;
 import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.SchemaStore;
 import org.neo4j.kernel.impl.store.StoreFactory;
 import org.neo4j.kernel.impl.store.UnderlyingStorageException;
 import org.neo4j.kernel.impl.store.counts.CountsTracker;
+import org.neo4j.kernel.impl.transaction.state.NeoStoreIndexStoreView;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.logging.Logging;
 import org.neo4j.kernel.monitoring.Monitors;
@@ -49,9 +53,11 @@ import org.neo4j.unsafe.impl.batchimport.store.io.Monitor;
 import static java.lang.String.valueOf;
 
 import static org.neo4j.graphdb.factory.GraphDatabaseSettings.dense_node_threshold;
+import static org.neo4j.graphdb.factory.GraphDatabaseSettings.string_compression_threshold;
 import static org.neo4j.helpers.collection.MapUtil.stringMap;
 import static org.neo4j.kernel.impl.store.StoreFactory.configForStoreDir;
 import static org.neo4j.unsafe.impl.batchimport.store.BatchingPageCache.Mode.APPEND_ONLY;
+import static org.neo4j.unsafe.impl.batchimport.store.BatchingPageCache.Mode.APPEND_TO_EXISTING;
 import static org.neo4j.unsafe.impl.batchimport.store.BatchingPageCache.Mode.UPDATE;
 
 /**
@@ -74,21 +80,36 @@ public class BatchingNeoStore implements AutoCloseable
     public BatchingNeoStore( FileSystemAbstraction fileSystem, String storeDir,
                              Configuration config, Monitor writeMonitor, Logging logging,
                              Monitors monitors, WriterFactory writerFactory, AdditionalInitialIds initialIds )
+    {
+        this( fileSystem, storeDir, config, writeMonitor, logging, monitors, writerFactory, initialIds, false );
+    }
+
+    /**
+     * @param appendToExistingStore if {@code true} the store in {@code storeDir} is allowed to contain data.
+     * Existing records and tokens are kept and new records are appended after them. The last committed
+     * transaction id is left as it is, and so {@code initialIds} only applies to an empty store.
+     */
+    public BatchingNeoStore( FileSystemAbstraction fileSystem, String storeDir,
+                             Configuration config, Monitor writeMonitor, Logging logging,
+                             Monitors monitors, WriterFactory writerFactory, AdditionalInitialIds initialIds,
+                             boolean appendToExistingStore )
     {
         this.fileSystem = fileSystem;
         this.monitors = monitors;
         this.writerFactory = writerFactory;
         this.logger = logging.getMessagesLog( getClass() );
         this.neo4jConfig = configForStoreDir(
-                new Config( stringMap( dense_node_threshold.name(), valueOf( config.denseNodeThreshold() ) ),
+                new Config( stringMap( dense_node_threshold.name(), valueOf( config.denseNodeThreshold() ),
+                        string_compression_threshold.name(), valueOf( config.stringCompressionThreshold() ) ),
                         GraphDatabaseSettings.class ),
                 new File( storeDir ) );
 
         this.pageCacheFactory = new BatchingPageCache( fileSystem, config.fileChannelBufferSize(),
-                config.bigFileChannelBufferSizeMultiplier(), writerFactory, writeMonitor, APPEND_ONLY );
+                config.bigFileChannelBufferSizeMultiplier(), writerFactory, writeMonitor,
+                appendToExistingStore ? APPEND_TO_EXISTING : APPEND_ONLY );
         this.neoStore = newNeoStore( pageCacheFactory );
         flushNeoStoreAndAwaitEverythingWritten();
-        if ( alreadyContainsData( neoStore ) )
+        if ( !appendToExistingStore && alreadyContainsData( neoStore ) )
         {
             neoStore.close();
             throw new IllegalStateException( storeDir + " already contains data, cannot do import here" );
@@ -101,14 +122,23 @@ public class BatchingNeoStore implements AutoCloseable
         {
             throw new UnderlyingStorageException( e );
         }
-        neoStore.setLastCommittedAndClosedTransactionId(
-                initialIds.lastCommittedTransactionId(), initialIds.lastCommittedTransactionChecksum() );
+        if ( !appendToExistingStore )
+        {
+            neoStore.setLastCommittedAndClosedTransactionId(
+                    initialIds.lastCommittedTransactionId(), initialIds.lastCommittedTransactionChecksum() );
+        }
         this.propertyKeyRepository = new BatchingPropertyKeyTokenRepository(
                 neoStore.getPropertyKeyTokenStore(), initialIds.highPropertyKeyTokenId() );
         this.labelRepository = new BatchingLabelTokenRepository(
                 neoStore.getLabelTokenStore(), initialIds.highLabelTokenId() );
         this.relationshipTypeRepository = new BatchingRelationshipTypeTokenRepository(
                 neoStore.getRelationshipTypeTokenStore(), initialIds.highRelationshipTypeTokenId() );
+        if ( appendToExistingStore )
+        {
+            propertyKeyRepository.loadExistingTokens();
+            labelRepository.loadExistingTokens();
+            relationshipTypeRepository.loadExistingTokens();
+        }
     }
 
     private boolean alreadyContainsData( NeoStore neoStore )
@@ -180,6 +210,21 @@ public class BatchingNeoStore implements AutoCloseable
         return neoStore.getCounts();
     }
 
+    public SchemaStore getSchemaStore()
+    {
+        return neoStore.getSchemaStore();
+    }
+
+    /**
+     * @return an {@link IndexStoreView} for completing index population with, which reads node properties
+     * directly from the store. Only reliable after {@link #switchToUpdateMode()}.
+     */
+    public NeoStoreIndexStoreView newIndexStoreView()
+    {
+        // the store is uncontended during import, so a local LockService is safe
+        return new NeoStoreIndexStoreView( new ReentrantLockService(), neoStore );
+    }
+
     public void switchToUpdateMode()
     {
         pageCacheFactory.setMode( UPDATE );
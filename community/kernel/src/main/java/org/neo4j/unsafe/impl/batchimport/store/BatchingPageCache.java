@@ -112,21 +112,33 @@ public class BatchingPageCache implements PageCache
         APPEND_ONLY
         {
             @Override
-            boolean canReadFrom( long pageId )
+            boolean canReadFrom( long pageId, long existingPages )
             {
                 return pageId == 0;
             }
         },
+        /**
+         * Like {@link #APPEND_ONLY}, but pages that existed in the file when it was mapped are read,
+         * so that records already in a store are kept intact while new records are appended after them.
+         */
+        APPEND_TO_EXISTING
+        {
+            @Override
+            boolean canReadFrom( long pageId, long existingPages )
+            {
+                return pageId == 0 || pageId < existingPages;
+            }
+        },
         UPDATE
         {
             @Override
-            boolean canReadFrom( long pageId )
+            boolean canReadFrom( long pageId, long existingPages )
             {
                 return true;
             }
         };
 
-        abstract boolean canReadFrom( long pageId );
+        abstract boolean canReadFrom( long pageId, long existingPages );
     }
 
     private final int pageSize;
@@ -310,6 +322,7 @@ public class BatchingPageCache implements PageCache
         private final int pageSize;
         private boolean pinned;
         private long highestKnownPageId;
+        private final long existingPages;
         private boolean changed;
 
         BatchingPageCursor( StoreChannel channel, Writer writer, final int pageSize ) throws IOException
@@ -332,6 +345,7 @@ public class BatchingPageCache implements PageCache
             this.bufferPool = new SimplePool<>( buffers );
             this.currentBuffer = bufferPool.acquire();
             highestKnownPageId = channel.size() / pageSize;
+            existingPages = (channel.size() + pageSize - 1) / pageSize;
         }
 
         private void free()
@@ -553,7 +567,7 @@ public class BatchingPageCache implements PageCache
             // The reason for reading the first windows is that in order to play nicely with
             // NeoStore and loading the store sometimes header information needs to be read,
             // even if we're in append-only mode
-            if ( mode.canReadFrom( pageId ) )
+            if ( mode.canReadFrom( pageId, existingPages ) )
             {
                 readFromChannelIntoBuffer( pageId );
             }
@@ -24,6 +24,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.TreeMap;
 
+import org.neo4j.kernel.impl.core.Token;
 import org.neo4j.kernel.impl.store.TokenStore;
 import org.neo4j.kernel.impl.store.record.LabelTokenRecord;
 import org.neo4j.kernel.impl.store.record.PropertyBlock;
@@ -45,12 +46,27 @@ public abstract class BatchingTokenRepository<T extends TokenRecord>
     private final Map<String,Integer> tokens = new HashMap<>();
     private final TokenStore<T> store;
     private int highId;
+    private int firstCreatedId;
 
     public BatchingTokenRepository( TokenStore<T> store, int highId )
     {
         this.store = store;
-        // TODO read the store into the repository, i.e. into existing?
         this.highId = highId;
+        this.firstCreatedId = highId;
+    }
+
+    /**
+     * Reads the tokens already in the store into this repository, so that {@link #getOrCreateId(String)}
+     * hands out their existing ids. Only tokens created after this call are persisted on {@link #close()}.
+     */
+    public void loadExistingTokens()
+    {
+        for ( Token token : store.getTokens( Integer.MAX_VALUE ) )
+        {
+            tokens.put( token.name(), token.id() );
+        }
+        highId = max( highId, (int) store.getHighId() );
+        firstCreatedId = highId;
     }
 
     public int getOrCreateId( String name )
@@ -150,7 +166,10 @@ public abstract class BatchingTokenRepository<T extends TokenRecord>
         Map<Integer,String> sorted = new TreeMap<>();
         for ( Map.Entry<String,Integer> entry : tokens.entrySet() )
         {
-            sorted.put( entry.getValue(), entry.getKey() );
+            if ( entry.getValue() >= firstCreatedId )
+            {
+                sorted.put( entry.getValue(), entry.getKey() );
+            }
         }
         return sorted.entrySet();
     }
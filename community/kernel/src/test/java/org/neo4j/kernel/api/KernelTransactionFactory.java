@@ -37,7 +37,9 @@ import org.neo4j.kernel.impl.store.NeoStore;
 import org.neo4j.kernel.impl.transaction.tracing.TransactionTracer;
 import org.neo4j.kernel.impl.transaction.TransactionHeaderInformationFactory;
 import org.neo4j.kernel.impl.transaction.TransactionMonitor;
+import org.neo4j.kernel.impl.transaction.command.Command;
 import org.neo4j.kernel.impl.transaction.state.TransactionRecordState;
+import org.neo4j.kernel.impl.util.collection.ArrayCollection;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -60,6 +62,7 @@ public class KernelTransactionFactory
                 mock( PersistenceCache.class ),
                 mock( StoreReadLayer.class ),
                 mock( LegacyIndexTransactionState.class ),
+                new ArrayCollection<Command>( 32 ),
                 mock(Pool.class),
                 Clock.SYSTEM_CLOCK,
                 TransactionTracer.NULL );
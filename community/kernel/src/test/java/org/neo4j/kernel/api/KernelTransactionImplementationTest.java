@@ -45,6 +45,7 @@ import org.neo4j.kernel.impl.transaction.TransactionMonitor;
 import org.neo4j.kernel.impl.transaction.TransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.command.Command;
 import org.neo4j.kernel.impl.transaction.state.TransactionRecordState;
+import org.neo4j.kernel.impl.util.collection.ArrayCollection;
 import org.neo4j.test.DoubleLatch;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -376,7 +377,8 @@ public class KernelTransactionImplementationTest
         KernelTransactionImplementation transaction = new KernelTransactionImplementation(
                 null, null, null, null, null, recordState, recordStateAccessor, null, neoStore, new NoOpClient(),
                 hooks, null, headerInformationFactory, commitProcess, transactionMonitor, null, null,
-                legacyIndexState, mock( Pool.class ), clock, TransactionTracer.NULL );
+                legacyIndexState, new ArrayCollection<Command>( 32 ), mock( Pool.class ), clock,
+                TransactionTracer.NULL );
         transaction.initialize( 0 );
         return transaction;
     }
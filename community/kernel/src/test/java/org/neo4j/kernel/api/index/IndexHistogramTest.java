@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.api.index;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class IndexHistogramTest
+{
+    // "a" x 20, 5.0 x 13, and two buckets of ten distinct numbers each: [0, 9] x 40 including 5.0, [10, 19] x 60
+    private final IndexHistogram histogram = new IndexHistogram( 120, 21,
+            new Object[]{"a", 5.0}, new long[]{20, 13},
+            new double[]{0, 10}, new double[]{9, 19}, new long[]{40, 60}, new long[]{10, 10} );
+
+    @Test
+    public void shouldEstimateEqualityOfFrequentValues()
+    {
+        assertEquals( 20.0, histogram.estimateEqualityCount( "a" ), 0.0 );
+        assertEquals( 13.0, histogram.estimateEqualityCount( 5.0 ), 0.0 );
+        assertEquals( 13.0, histogram.estimateEqualityCount( 5 ), 0.0 );
+    }
+
+    @Test
+    public void shouldEstimateEqualityOfNumbersFromTheirBucket()
+    {
+        // the 27 entries of the first bucket that are not 5.0 are spread over its remaining 9 values
+        assertEquals( 3.0, histogram.estimateEqualityCount( 3L ), 0.0 );
+        assertEquals( 6.0, histogram.estimateEqualityCount( 15.0f ), 0.0 );
+        assertEquals( 0.0, histogram.estimateEqualityCount( 25 ), 0.0 );
+    }
+
+    @Test
+    public void shouldEstimateEqualityOfOtherValuesFromTheInfrequentAverage()
+    {
+        // 120 - 33 entries over the 19 values that are not frequent
+        assertEquals( 87.0 / 19, histogram.estimateEqualityCount( "b" ), 0.001 );
+        assertEquals( 87.0 / 19, histogram.estimateEqualityCount( new int[]{1} ), 0.001 );
+    }
+
+    @Test
+    public void shouldEstimateOpenRanges()
+    {
+        assertEquals( 100.0, histogram.estimateRangeCount( null, false, null, false ), 0.0 );
+        assertEquals( 60.0, histogram.estimateRangeCount( 10, true, null, false ), 0.0 );
+        assertEquals( 40.0, histogram.estimateRangeCount( null, false, 9, true ), 0.0 );
+    }
+
+    @Test
+    public void shouldEstimateRangesWithInclusiveBounds()
+    {
+        // a bound on the edge of a bucket matches at least one of its values
+        assertEquals( 60.0 + 4.0, histogram.estimateRangeCount( 9, true, null, false ), 0.0 );
+        assertEquals( 40.0 + 6.0, histogram.estimateRangeCount( null, false, 10, true ), 0.0 );
+        assertEquals( 20.0, histogram.estimateRangeCount( 0, true, 4.5, true ), 0.0 );
+    }
+
+    @Test
+    public void shouldEstimateRangesWithExclusiveBounds()
+    {
+        assertEquals( 60.0, histogram.estimateRangeCount( 9, false, null, false ), 0.0 );
+        assertEquals( 40.0, histogram.estimateRangeCount( null, false, 10, false ), 0.0 );
+        assertEquals( 0.0, histogram.estimateRangeCount( 9, false, 10, false ), 0.0 );
+    }
+
+    @Test
+    public void shouldWriteAndReadStringsLongerThanModifiedUtf8Allows() throws Exception
+    {
+        // given a string taking more than 64k bytes when encoded
+        char[] chars = new char[40_000];
+        Arrays.fill( chars, '\u00e9' );
+        String value = new String( chars );
+        IndexHistogram histogram = new IndexHistogram( 10, 2, new Object[]{value}, new long[]{7},
+                new double[0], new double[0], new long[0], new long[0] );
+
+        // when
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        histogram.write( new DataOutputStream( bytes ) );
+        IndexHistogram read = IndexHistogram.read(
+                new DataInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) );
+
+        // then
+        assertEquals( 7.0, read.estimateEqualityCount( value ), 0.0 );
+        assertEquals( 3.0, read.estimateEqualityCount( "other" ), 0.0 );
+    }
+}
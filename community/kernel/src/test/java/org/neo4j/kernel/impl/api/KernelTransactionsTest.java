@@ -19,11 +19,15 @@
  */
 package org.neo4j.kernel.impl.api;
 
+import java.io.File;
+
 import org.junit.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import org.neo4j.graphdb.mockfs.EphemeralFileSystemAbstraction;
 import org.neo4j.helpers.collection.Iterables;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.exceptions.TransactionFailureException;
 import org.neo4j.kernel.impl.locking.LockGroup;
@@ -45,6 +49,7 @@ import org.neo4j.kernel.monitoring.tracing.Tracers;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -119,6 +124,29 @@ public class KernelTransactionsTest
         assertTrue( additionalHeader.length > 0 );
     }
 
+    @Test
+    public void shouldDeleteStaleSpillFilesOnInit() throws Throwable
+    {
+        // Given
+        EphemeralFileSystemAbstraction fs = new EphemeralFileSystemAbstraction();
+        File spillDirectory = new File( "tx-spill" );
+        fs.mkdirs( spillDirectory );
+        File staleSpillFile = new File( spillDirectory, KernelTransactions.SPILL_FILE_PREFIX + "1" );
+        File otherFile = new File( spillDirectory, "other" );
+        fs.create( staleSpillFile ).close();
+        fs.create( otherFile ).close();
+        KernelTransactions registry = newKernelTransactions( mock( TransactionCommitProcess.class ),
+                new MockContextSupplier(), fs, spillDirectory );
+
+        // When
+        registry.init();
+
+        // Then
+        assertFalse( fs.fileExists( staleSpillFile ) );
+        assertTrue( fs.fileExists( otherFile ) );
+        fs.shutdown();
+    }
+
     private static KernelTransactions newKernelTransactions()
     {
         return newKernelTransactions( mock( TransactionCommitProcess.class ), new MockContextSupplier() );
@@ -126,6 +154,12 @@ public class KernelTransactionsTest
 
     private static KernelTransactions newKernelTransactions( TransactionCommitProcess commitProcess,
                                                              NeoStoreTransactionContextSupplier contextSupplier )
+    {
+        return newKernelTransactions( commitProcess, contextSupplier, null, null );
+    }
+
+    private static KernelTransactions newKernelTransactions( TransactionCommitProcess commitProcess,
+            NeoStoreTransactionContextSupplier contextSupplier, FileSystemAbstraction fs, File spillDirectory )
     {
         LifeSupport life = new LifeSupport();
         life.start();
@@ -137,7 +171,7 @@ public class KernelTransactionsTest
                 mock( IntegrityValidator.class ), null, null, null, null, null, null, null,
                 TransactionHeaderInformationFactory.DEFAULT, null, null, commitProcess, null,
                 null, new TransactionHooks(), mock( TransactionMonitor.class ), life,
-                new Tracers( "null", StringLogger.DEV_NULL ) );
+                new Tracers( "null", StringLogger.DEV_NULL ), fs, spillDirectory, 0 );
     }
 
     private static TransactionCommitProcess newRememberingCommitProcess( final TransactionRepresentation[] slot )
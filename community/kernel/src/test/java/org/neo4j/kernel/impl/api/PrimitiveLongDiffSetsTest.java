@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.kernel.impl.util.diffsets.DiffSetsVisitor;
+import org.neo4j.kernel.impl.util.diffsets.PrimitiveLongDiffSets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.iterator;
+import static org.neo4j.helpers.collection.IteratorUtil.asSet;
+
+public class PrimitiveLongDiffSetsTest
+{
+    @Test
+    public void shouldCancelOutAddAndRemove() throws Exception
+    {
+        // GIVEN
+        PrimitiveLongDiffSets diffSets = new PrimitiveLongDiffSets();
+
+        // WHEN
+        diffSets.add( 1L );
+        diffSets.add( 2L );
+        diffSets.remove( 2L );
+        diffSets.remove( 3L );
+        diffSets.add( 3L );
+        diffSets.remove( 4L );
+
+        // THEN
+        assertEquals( asSet( 1L ), diffSets.getAdded() );
+        assertEquals( asSet( 4L ), diffSets.getRemoved() );
+        assertTrue( diffSets.isAdded( 1L ) );
+        assertFalse( diffSets.isAdded( 2L ) );
+        assertTrue( diffSets.isRemoved( 4L ) );
+        assertEquals( 0, diffSets.delta() );
+    }
+
+    @Test
+    public void shouldAugmentSourceWithAddedAndRemovedElements() throws Exception
+    {
+        // GIVEN
+        PrimitiveLongDiffSets diffSets = new PrimitiveLongDiffSets();
+        diffSets.add( 5L );
+        diffSets.add( 2L );
+        diffSets.remove( 3L );
+
+        // WHEN
+        PrimitiveLongIterator augmented = diffSets.augment( iterator( 1L, 2L, 3L, 4L ) );
+
+        // THEN
+        assertEquals( asSet( 1L, 2L, 4L, 5L ), toSet( augmented ) );
+        assertEquals( asSet( 1L, 2L, 4L ), toSet( diffSets.augmentWithRemovals( iterator( 1L, 2L, 3L, 4L ) ) ) );
+        assertEquals( asSet( 1L, 2L, 3L, 4L, 5L ),
+                toSet( diffSets.augmentWithAdditions( iterator( 1L, 2L, 3L, 4L ) ) ) );
+    }
+
+    @Test
+    public void shouldNotSeeElementsAddedOrRemovedAfterIteratorWasCreated() throws Exception
+    {
+        // GIVEN
+        PrimitiveLongDiffSets diffSets = new PrimitiveLongDiffSets();
+        diffSets.add( 1L );
+        diffSets.add( 2L );
+        PrimitiveLongIterator augmented = diffSets.augment( iterator() );
+
+        // WHEN
+        for ( long i = 10; i < 1_000; i++ )
+        {
+            diffSets.add( i );
+        }
+        diffSets.remove( 2L );
+
+        // THEN
+        assertEquals( asSet( 1L ), toSet( augmented ) );
+    }
+
+    @Test
+    public void shouldSeeChangesMadeAfterEarlierIteratorsWereExhausted() throws Exception
+    {
+        // GIVEN
+        PrimitiveLongDiffSets diffSets = new PrimitiveLongDiffSets();
+        diffSets.add( 1L );
+        diffSets.add( 2L );
+        Set<Long> added = diffSets.getAdded();
+        assertEquals( asSet( 1L, 2L ), toSet( diffSets.augment( iterator() ) ) );
+        assertEquals( asSet( 1L, 2L ), asSet( added ) );
+
+        // WHEN
+        diffSets.add( 3L );
+        diffSets.remove( 1L );
+
+        // THEN
+        assertEquals( asSet( 2L, 3L ), toSet( diffSets.augment( iterator() ) ) );
+        assertEquals( asSet( 2L, 3L ), asSet( added ) );
+    }
+
+    @Test
+    public void shouldVisitElementsAsTheyWereWhenVisitingStarted() throws Exception
+    {
+        // GIVEN
+        final PrimitiveLongDiffSets diffSets = new PrimitiveLongDiffSets();
+        diffSets.add( 1L );
+        diffSets.add( 2L );
+        final Set<Long> visited = new HashSet<>();
+
+        // WHEN
+        diffSets.accept( new DiffSetsVisitor.Adapter<Long>()
+        {
+            @Override
+            public void visitAdded( Long element )
+            {
+                visited.add( element );
+                diffSets.add( element + 10 );
+            }
+        } );
+
+        // THEN
+        assertEquals( asSet( 1L, 2L ), visited );
+        assertEquals( asSet( 1L, 2L, 11L, 12L ), diffSets.getAdded() );
+    }
+
+    private static Set<Long> toSet( PrimitiveLongIterator iterator )
+    {
+        Set<Long> set = new HashSet<>();
+        while ( iterator.hasNext() )
+        {
+            set.add( iterator.next() );
+        }
+        return set;
+    }
+}
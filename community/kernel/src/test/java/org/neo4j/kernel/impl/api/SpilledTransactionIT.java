@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+
+import org.neo4j.graphdb.DynamicLabel;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseBuilder;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.impl.MyRelTypes;
+import org.neo4j.test.DatabaseRule;
+import org.neo4j.test.ImpermanentDatabaseRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SpilledTransactionIT
+{
+    private static final int SPILL_THRESHOLD = 10;
+    private static final Label LABEL = DynamicLabel.label( "Spilled" );
+
+    @Test
+    public void shouldReadBackSpilledTransactionFromCacheAndStore() throws Exception
+    {
+        // GIVEN a transaction producing many times more commands than are kept in memory
+        long[] nodes = new long[SPILL_THRESHOLD * 10];
+        long[] relationships = new long[nodes.length - 1];
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node previous = null;
+            for ( int i = 0; i < nodes.length; i++ )
+            {
+                Node node = db.createNode( LABEL );
+                node.setProperty( "name", "node-" + i );
+                nodes[i] = node.getId();
+                if ( previous != null )
+                {
+                    Relationship relationship = previous.createRelationshipTo( node, MyRelTypes.TEST );
+                    relationship.setProperty( "weight", i );
+                    relationships[i - 1] = relationship.getId();
+                }
+                previous = node;
+            }
+
+            // WHEN
+            tx.success();
+        }
+
+        // THEN the commands were spilled and the spill file is gone after the commit
+        FileSystemAbstraction fs = db.resolveDependency( FileSystemAbstraction.class );
+        File spillDirectory = new File( db.getGraphDatabaseAPI().getStoreDir(), "tx-spill" );
+        assertTrue( fs.fileExists( spillDirectory ) );
+        assertEquals( 0, fs.listFiles( spillDirectory ).length );
+
+        // and the data can be read back, first through the cache and then from the store
+        assertCommitted( nodes, relationships );
+        db.clearCache();
+        assertCommitted( nodes, relationships );
+    }
+
+    private void assertCommitted( long[] nodes, long[] relationships )
+    {
+        try ( Transaction tx = db.beginTx() )
+        {
+            for ( int i = 0; i < nodes.length; i++ )
+            {
+                Node node = db.getGraphDatabaseService().getNodeById( nodes[i] );
+                assertTrue( node.hasLabel( LABEL ) );
+                assertEquals( "node-" + i, node.getProperty( "name" ) );
+            }
+            for ( int i = 0; i < relationships.length; i++ )
+            {
+                Relationship relationship = db.getGraphDatabaseService().getRelationshipById( relationships[i] );
+                assertEquals( nodes[i], relationship.getStartNode().getId() );
+                assertEquals( nodes[i + 1], relationship.getEndNode().getId() );
+                assertEquals( i + 1, relationship.getProperty( "weight" ) );
+            }
+            tx.success();
+        }
+    }
+
+    public final @Rule DatabaseRule db = new ImpermanentDatabaseRule()
+    {
+        @Override
+        protected void configure( GraphDatabaseBuilder builder )
+        {
+            builder.setConfig( GraphDatabaseSettings.transaction_spill_threshold, String.valueOf( SPILL_THRESHOLD ) );
+        }
+    };
+}
@@ -33,6 +33,7 @@ import org.neo4j.kernel.api.index.IndexConfiguration;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.impl.api.index.inmemory.InMemoryIndexProvider;
 import org.neo4j.kernel.impl.api.index.inmemory.InMemoryIndexProviderFactory;
+import org.neo4j.kernel.impl.api.index.sampling.IndexHistogramBuilder;
 import org.neo4j.kernel.impl.api.index.sampling.IndexSamplingConfig;
 import org.neo4j.register.Register;
 import org.neo4j.test.Barrier;
@@ -66,12 +67,13 @@ public class IndexSamplingIntegrationTest
                     return new IndexReader.Delegator( super.newReader() )
                     {
                         @Override
-                        public long sampleIndex( Register.DoubleLong.Out result ) throws IndexNotFoundKernelException
+                        public long sampleIndex( Register.DoubleLong.Out result, IndexHistogramBuilder histogram )
+                                throws IndexNotFoundKernelException
                         {
                             samplingStarted.reached();
                             try
                             {
-                                return super.sampleIndex( result );
+                                return super.sampleIndex( result, histogram );
                             }
                             catch ( Throwable e )
                             {
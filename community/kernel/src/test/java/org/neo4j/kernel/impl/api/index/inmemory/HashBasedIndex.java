@@ -27,10 +27,13 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.neo4j.collection.primitive.PrimitiveLongCollections;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
+import org.neo4j.kernel.impl.api.index.sampling.IndexHistogramBuilder;
 
 import static org.neo4j.collection.primitive.PrimitiveLongCollections.toPrimitiveIterator;
 import static org.neo4j.register.Register.DoubleLong;
@@ -185,35 +188,41 @@ class HashBasedIndex extends InMemoryIndexImplementation
     }
 
     @Override
-    public long sampleIndex( final DoubleLong.Out result ) throws IndexNotFoundKernelException
+    public long sampleIndex( DoubleLong.Out result, IndexHistogramBuilder histogram )
+            throws IndexNotFoundKernelException
     {
         if ( data == null )
         {
             throw new IndexNotFoundKernelException( "Index dropped while sampling." );
         }
-        final long[] uniqueAndSize = {0, 0};
-        try
+        long uniqueValues = 0, size = 0;
+        // the builder needs the numbers in order, the way a real index would hand them out
+        SortedMap<Double,Long> numbers = new TreeMap<>();
+        for ( Map.Entry<Object,Set<Long>> entry : data.entrySet() )
         {
-            iterateAll( new IndexEntryIterator()
+            int ids = entry.getValue().size();
+            if ( ids > 0 )
             {
-                @Override
-                public void visitEntry( Object value, Set<Long> nodeIds ) throws Exception
+                uniqueValues++;
+                size += ids;
+                if ( entry.getKey() instanceof Number )
                 {
-                    int ids = nodeIds.size();
-                    if ( ids > 0 )
-                    {
-                        uniqueAndSize[0] += 1;
-                        uniqueAndSize[1] += ids;
-                    }
+                    double number = ((Number) entry.getKey()).doubleValue();
+                    Long count = numbers.get( number );
+                    numbers.put( number, count == null ? ids : count + ids );
                 }
-            });
+                else
+                {
+                    histogram.include( entry.getKey(), ids );
+                }
+            }
         }
-        catch ( Exception ex )
+        for ( Map.Entry<Double,Long> entry : numbers.entrySet() )
         {
-            throw new RuntimeException( ex );
+            histogram.include( entry.getKey(), entry.getValue() );
         }
 
-        result.write( uniqueAndSize[0], uniqueAndSize[1] );
-        return uniqueAndSize[1];
+        result.write( uniqueValues, size );
+        return size;
     }
 }
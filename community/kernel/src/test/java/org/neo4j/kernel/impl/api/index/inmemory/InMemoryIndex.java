@@ -37,6 +37,7 @@ import org.neo4j.kernel.api.index.InternalIndexState;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.api.index.PropertyAccessor;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.kernel.impl.api.index.sampling.IndexHistogramBuilder;
 
 import static org.neo4j.helpers.collection.IteratorUtil.emptyIterator;
 import static org.neo4j.register.Register.DoubleLong;
@@ -163,7 +164,7 @@ class InMemoryIndex
         {
             try
             {
-                return indexData.sampleIndex( result );
+                return indexData.sampleIndex( result, new IndexHistogramBuilder() );
             }
             catch ( IndexNotFoundKernelException e )
             {
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.index.sampling;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.neo4j.kernel.api.index.IndexHistogram;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class IndexHistogramBuilderTest
+{
+    @Test
+    public void shouldBuildAnEmptyHistogram()
+    {
+        // given
+        IndexHistogramBuilder builder = new IndexHistogramBuilder();
+
+        // when
+        IndexHistogram histogram = builder.result();
+
+        // then
+        assertEquals( 0, histogram.entries() );
+        assertEquals( 0, histogram.buckets() );
+        assertEquals( 0.0, histogram.estimateEqualityCount( 42 ), 0.0 );
+        assertEquals( 0.0, histogram.estimateRangeCount( null, false, null, false ), 0.0 );
+    }
+
+    @Test
+    public void shouldKeepTheMostFrequentValues()
+    {
+        // given
+        IndexHistogramBuilder builder = new IndexHistogramBuilder( 4, 2 );
+        builder.include( "a", 10 );
+        builder.include( "b", 100 );
+        builder.include( "c", 2 );
+        builder.include( "d", 50 );
+        builder.include( "e", 1 );
+
+        // when
+        IndexHistogram histogram = builder.result();
+
+        // then
+        assertEquals( 163, histogram.entries() );
+        assertEquals( 5, histogram.distinctValues() );
+        assertEquals( 2, histogram.frequentValues() );
+        assertEquals( 100.0, histogram.estimateEqualityCount( "b" ), 0.0 );
+        assertEquals( 50.0, histogram.estimateEqualityCount( "d" ), 0.0 );
+        // the remaining 13 entries are spread over 3 values
+        assertEquals( 13.0 / 3, histogram.estimateEqualityCount( "a" ), 0.001 );
+    }
+
+    @Test
+    public void shouldKeepNumbersInEquiDepthBuckets()
+    {
+        // given
+        IndexHistogramBuilder builder = new IndexHistogramBuilder( 4, 0 );
+        for ( int i = 0; i < 1000; i++ )
+        {
+            builder.include( i, 1 );
+        }
+
+        // when
+        IndexHistogram histogram = builder.result();
+
+        // then
+        assertTrue( histogram.buckets() >= 4 && histogram.buckets() <= 8 );
+        assertEquals( 1000.0, histogram.estimateRangeCount( null, true, null, true ), 0.0 );
+        assertEquals( 100.0, histogram.estimateRangeCount( 100, true, 200, false ), 10.0 );
+        assertEquals( 500.0, histogram.estimateRangeCount( 500, true, null, false ), 10.0 );
+        assertEquals( 1.0, histogram.estimateEqualityCount( 500L ), 0.001 );
+        assertEquals( 0.0, histogram.estimateEqualityCount( 5000 ), 0.0 );
+    }
+
+    @Test
+    public void shouldNotCountFrequentValuesTwiceForNumbersInTheSameBucket()
+    {
+        // given
+        IndexHistogramBuilder builder = new IndexHistogramBuilder( 1, 1 );
+        builder.include( 1, 1 );
+        builder.include( 2, 97 );
+        builder.include( 3, 1 );
+        builder.include( 4, 1 );
+
+        // when
+        IndexHistogram histogram = builder.result();
+
+        // then
+        assertEquals( 97.0, histogram.estimateEqualityCount( 2.0 ), 0.0 );
+        assertEquals( 1.0, histogram.estimateEqualityCount( 3 ), 0.001 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldRequireNumbersInAscendingOrder()
+    {
+        IndexHistogramBuilder builder = new IndexHistogramBuilder();
+        builder.include( 2, 1 );
+        builder.include( 1, 1 );
+    }
+
+    @Test
+    public void shouldWriteAndReadHistograms() throws IOException
+    {
+        // given
+        IndexHistogramBuilder builder = new IndexHistogramBuilder( 2, 2 );
+        builder.include( true, 3 );
+        builder.include( "x", 5 );
+        for ( int i = 0; i < 10; i++ )
+        {
+            builder.include( i * 1.5, i + 1 );
+        }
+        IndexHistogram histogram = builder.result();
+
+        // when
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        histogram.write( new DataOutputStream( bytes ) );
+        IndexHistogram read = IndexHistogram.read(
+                new DataInputStream( new ByteArrayInputStream( bytes.toByteArray() ) ) );
+
+        // then
+        assertEquals( histogram.toString(), read.toString() );
+        assertEquals( histogram.estimateEqualityCount( true ), read.estimateEqualityCount( true ), 0.0 );
+        assertEquals( histogram.estimateEqualityCount( 6.0 ), read.estimateEqualityCount( 6.0 ), 0.0 );
+        assertEquals( histogram.estimateRangeCount( 2, true, 9, true ),
+                read.estimateRangeCount( 2, true, 9, true ), 0.0 );
+    }
+}
@@ -21,18 +21,22 @@ package org.neo4j.kernel.impl.api.index.sampling;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
 import org.neo4j.kernel.api.index.IndexConfiguration;
 import org.neo4j.kernel.api.index.IndexDescriptor;
+import org.neo4j.kernel.api.index.IndexHistogram;
 import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.impl.api.index.IndexProxy;
 import org.neo4j.kernel.impl.api.index.IndexStoreView;
 import org.neo4j.kernel.logging.DevNullLoggingService;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -56,7 +60,11 @@ public class OnlineIndexSamplingJobTest
 
         // then
         verify( indexStoreView ).replaceIndexCounts( indexDescriptor, indexUniqueValues, indexSize, indexSize );
+        ArgumentCaptor<IndexHistogram> histogram = ArgumentCaptor.forClass( IndexHistogram.class );
+        verify( indexStoreView ).replaceIndexHistogram( eq( indexDescriptor ), histogram.capture() );
         verifyNoMoreInteractions( indexStoreView );
+        assertEquals( indexSize, histogram.getValue().entries() );
+        assertEquals( indexUniqueValues, histogram.getValue().distinctValues() );
     }
 
     @Test
@@ -89,7 +97,7 @@ public class OnlineIndexSamplingJobTest
         when( indexProxy.config() ).thenReturn( new IndexConfiguration( false ) );
         when( indexProxy.newReader() ).thenReturn( indexReader );
         doAnswer( answerWith( indexUniqueValues, indexSize ) ).when( indexReader )
-                                                              .sampleIndex( any( DoubleLong.Out.class ) );
+                .sampleIndex( any( DoubleLong.Out.class ), any( IndexHistogramBuilder.class ) );
 
     }
 
@@ -102,6 +110,12 @@ public class OnlineIndexSamplingJobTest
             {
                 final DoubleLong.Out result = (DoubleLong.Out) invocationOnMock.getArguments()[0];
                 result.write( indexUniqueValues, indexSize );
+                final IndexHistogramBuilder histogram = (IndexHistogramBuilder) invocationOnMock.getArguments()[1];
+                for ( long value = 0; value < indexUniqueValues - 1; value++ )
+                {
+                    histogram.include( value, 1 );
+                }
+                histogram.include( indexUniqueValues, indexSize - indexUniqueValues + 1 );
                 return indexSize;
             }
         };
@@ -22,9 +22,10 @@ package org.neo4j.kernel.impl.api.state;
 import org.hamcrest.Matcher;
 import org.junit.Test;
 
+import java.util.Collections;
 import java.util.Set;
 
-import org.neo4j.kernel.impl.util.diffsets.DiffSets;
+import org.neo4j.kernel.impl.util.diffsets.PrimitiveLongDiffSets;
 import org.neo4j.kernel.impl.util.diffsets.ReadableDiffSets;
 
 import static org.hamcrest.CoreMatchers.equalTo;
@@ -53,6 +54,15 @@ public class PropertyChangesTest
     @SuppressWarnings( "unchecked" )
     private Matcher<? super ReadableDiffSets<Long>> isDiffSets( Set<Long> added, Set<Long> removed )
     {
-        return (Matcher) equalTo( new DiffSets<Long>( added, removed ) );
+        PrimitiveLongDiffSets diffSets = new PrimitiveLongDiffSets();
+        for ( long id : added != null ? added : Collections.<Long>emptySet() )
+        {
+            diffSets.add( id );
+        }
+        for ( long id : removed != null ? removed : Collections.<Long>emptySet() )
+        {
+            diffSets.remove( id );
+        }
+        return (Matcher) equalTo( diffSets );
     }
 }
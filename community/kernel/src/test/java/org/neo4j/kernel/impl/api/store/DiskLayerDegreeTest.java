@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.api.store;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.exceptions.EntityNotFoundException;
+import org.neo4j.kernel.impl.api.DegreeVisitor;
+import org.neo4j.kernel.impl.store.RelationshipStore;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.state.NeoStoreProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import static org.neo4j.graphdb.Direction.BOTH;
+import static org.neo4j.graphdb.Direction.INCOMING;
+import static org.neo4j.graphdb.Direction.OUTGOING;
+import static org.neo4j.graphdb.DynamicRelationshipType.withName;
+import static org.neo4j.helpers.collection.MapUtil.map;
+
+/**
+ * Test reading degrees of committed nodes from disk, for both sparse and dense nodes.
+ */
+public class DiskLayerDegreeTest extends DiskLayerTest
+{
+    private final RelationshipType likes = withName( "LIKES" ), knows = withName( "KNOWS" );
+
+    @Test
+    public void shouldReadDegreesOfSparseNode() throws Exception
+    {
+        shouldReadDegrees( 2 );
+    }
+
+    @Test
+    public void shouldReadDegreesOfDenseNode() throws Exception
+    {
+        shouldReadDegrees( 40 );
+    }
+
+    @Test
+    public void shouldThrowForDegreeOfNodeThatDoesNotExist() throws Exception
+    {
+        long nodeId = createLabeledNode( db, map() ).getId();
+        try ( Transaction tx = db.beginTx() )
+        {
+            db.getNodeById( nodeId ).delete();
+            tx.success();
+        }
+
+        try
+        {
+            disk.nodeGetDegree( nodeId, BOTH );
+            fail( "Should have thrown" );
+        }
+        catch ( EntityNotFoundException e )
+        {
+            // Good
+        }
+        assertFalse( disk.nodeVisitDegrees( nodeId, new Degrees() ) );
+    }
+
+    @Test
+    public void shouldEndChainAtRelationshipNoLongerInUse() throws Exception
+    {
+        // Given
+        long nodeId, firstCreated;
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = db.createNode();
+            firstCreated = node.createRelationshipTo( db.createNode(), likes ).getId();
+            node.createRelationshipTo( db.createNode(), likes );
+            node.createRelationshipTo( db.createNode(), likes );
+            nodeId = node.getId();
+            tx.success();
+        }
+        // the first created relationship is last in the chain, as if it was being removed concurrently
+        RelationshipStore relationshipStore =
+                db.getDependencyResolver().resolveDependency( NeoStoreProvider.class ).evaluate().getRelationshipStore();
+        RelationshipRecord record = relationshipStore.getRecord( firstCreated );
+        record.setInUse( false );
+        relationshipStore.updateRecord( record );
+        int likesId = disk.relationshipTypeGetForName( likes.name() );
+
+        // When & then
+        assertEquals( 2, disk.nodeGetDegree( nodeId, OUTGOING, likesId ) );
+        Degrees degrees = new Degrees();
+        disk.nodeVisitDegrees( nodeId, degrees );
+        assertEquals( 2, degrees.outgoing.get( likesId ).intValue() );
+    }
+
+    private void shouldReadDegrees( int multiplier ) throws Exception
+    {
+        // Given
+        long nodeId;
+        try ( Transaction tx = db.beginTx() )
+        {
+            Node node = db.createNode();
+            for ( int i = 0; i < multiplier; i++ )
+            {
+                node.createRelationshipTo( db.createNode(), likes );
+                node.createRelationshipTo( db.createNode(), likes );
+                db.createNode().createRelationshipTo( node, likes );
+                db.createNode().createRelationshipTo( node, knows );
+            }
+            node.createRelationshipTo( node, knows );
+            nodeId = node.getId();
+            tx.success();
+        }
+        int likesId = disk.relationshipTypeGetForName( likes.name() );
+        int knowsId = disk.relationshipTypeGetForName( knows.name() );
+
+        // When & then
+        assertEquals( 4 * multiplier + 1, disk.nodeGetDegree( nodeId, BOTH ) );
+        assertEquals( 2 * multiplier + 1, disk.nodeGetDegree( nodeId, OUTGOING ) );
+        assertEquals( 2 * multiplier + 1, disk.nodeGetDegree( nodeId, INCOMING ) );
+        assertEquals( 3 * multiplier, disk.nodeGetDegree( nodeId, BOTH, likesId ) );
+        assertEquals( 2 * multiplier, disk.nodeGetDegree( nodeId, OUTGOING, likesId ) );
+        assertEquals( multiplier + 1, disk.nodeGetDegree( nodeId, INCOMING, knowsId ) );
+        assertEquals( 1, disk.nodeGetDegree( nodeId, OUTGOING, knowsId ) );
+        assertEquals( 0, disk.nodeGetDegree( nodeId, BOTH, knowsId + likesId + 1 ) );
+
+        Degrees degrees = new Degrees();
+        disk.nodeVisitDegrees( nodeId, degrees );
+        assertEquals( 2 * multiplier, degrees.outgoing.get( likesId ).intValue() );
+        assertEquals( multiplier, degrees.incoming.get( likesId ).intValue() );
+        assertEquals( 1, degrees.outgoing.get( knowsId ).intValue() );
+        assertEquals( multiplier + 1, degrees.incoming.get( knowsId ).intValue() );
+    }
+
+    private static class Degrees implements DegreeVisitor
+    {
+        private final Map<Integer,Integer> outgoing = new HashMap<>(), incoming = new HashMap<>();
+
+        @Override
+        public void visitDegree( int type, int outgoing, int incoming )
+        {
+            add( this.outgoing, type, outgoing );
+            add( this.incoming, type, incoming );
+        }
+
+        private static void add( Map<Integer,Integer> degrees, int type, int degree )
+        {
+            Integer current = degrees.get( type );
+            degrees.put( type, (current == null ? 0 : current) + degree );
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.core;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.DatabaseRule;
+import org.neo4j.test.ImpermanentDatabaseRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.helpers.collection.IteratorUtil.count;
+import static org.neo4j.tooling.GlobalGraphOperations.at;
+
+public class ThreadUnboundTransactionTest
+{
+    private static final int THREADS = 2;
+    private static final int TRANSACTIONS = 200;
+    private static final int REQUESTS_PER_TRANSACTION = 3;
+
+    public final @Rule DatabaseRule dbRule = new ImpermanentDatabaseRule();
+    private GraphDatabaseService db;
+    private ThreadToStatementContextBridge bridge;
+    private ExecutorService threads;
+
+    @Before
+    public void setUp()
+    {
+        db = dbRule.getGraphDatabaseService();
+        bridge = dbRule.resolveDependency( ThreadToStatementContextBridge.class );
+        threads = Executors.newFixedThreadPool( THREADS );
+    }
+
+    @After
+    public void tearDown()
+    {
+        threads.shutdownNow();
+    }
+
+    @Test
+    public void shouldHoldManyMoreOpenTransactionsThanThereAreThreads() throws Exception
+    {
+        // Given
+        List<ThreadUnboundTransaction> transactions = new ArrayList<>();
+        for ( int i = 0; i < TRANSACTIONS; i++ )
+        {
+            db.beginTx();
+            transactions.add( bridge.detachTransactionFromCurrentThread() );
+        }
+        assertFalse( bridge.hasTransaction() );
+
+        // When
+        for ( int request = 0; request < REQUESTS_PER_TRANSACTION; request++ )
+        {
+            List<Future<Void>> requests = new ArrayList<>();
+            for ( final ThreadUnboundTransaction transaction : transactions )
+            {
+                requests.add( threads.submit( new Callable<Void>()
+                {
+                    @Override
+                    public Void call() throws Exception
+                    {
+                        transaction.bindToCurrentThread();
+                        try
+                        {
+                            db.createNode();
+                        }
+                        finally
+                        {
+                            transaction.unbindFromCurrentThread();
+                        }
+                        return null;
+                    }
+                } ) );
+            }
+            awaitAll( requests );
+        }
+        List<Future<Void>> commits = new ArrayList<>();
+        for ( final ThreadUnboundTransaction transaction : transactions )
+        {
+            commits.add( threads.submit( new Callable<Void>()
+            {
+                @Override
+                public Void call() throws Exception
+                {
+                    transaction.commit();
+                    return null;
+                }
+            } ) );
+        }
+        awaitAll( commits );
+
+        // Then
+        try ( Transaction tx = db.beginTx() )
+        {
+            assertEquals( TRANSACTIONS * REQUESTS_PER_TRANSACTION, count( at( db ).getAllNodes() ) );
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldLeaveTransactionBoundToThreadAloneWhenCommittingAnotherOne() throws Exception
+    {
+        // Given
+        db.beginTx();
+        ThreadUnboundTransaction unbound = bridge.detachTransactionFromCurrentThread();
+
+        try ( Transaction bound = db.beginTx() )
+        {
+            // When
+            unbound.commit();
+
+            // Then
+            assertTrue( bridge.hasTransaction() );
+            bound.success();
+        }
+        assertFalse( bridge.hasTransaction() );
+    }
+
+    private static void awaitAll( List<Future<Void>> futures ) throws Exception
+    {
+        for ( Future<Void> future : futures )
+        {
+            future.get();
+        }
+    }
+}
@@ -87,12 +87,13 @@ public class PropertyStoreTest
 
         org.neo4j.kernel.configuration.Config config = mock( org.neo4j.kernel.configuration.Config.class );
         when( config.get( PropertyStore.Configuration.rebuild_idgenerators_fast ) ).thenReturn( true );
+        when( config.get( PropertyStore.Configuration.string_compression_threshold ) ).thenReturn( 0 );
 
 
         PropertyStore store = new PropertyStore( path, config, new JumpingIdGeneratorFactory( 1 ), pageCache,
                 fileSystemAbstraction, StringLogger
                 .DEV_NULL, stringPropertyStore, mock( PropertyKeyTokenStore.class ), mock( DynamicArrayStore.class ),
-                null, null );
+                StringDictionary.EMPTY, null, null );
 
         store.makeStoreOk();
         long l = store.nextId();
@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import org.neo4j.kernel.impl.store.record.DynamicRecord;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class StringCompressionTest
+{
+    @Test
+    public void shouldCompressAndDecompressRepetitiveString() throws Exception
+    {
+        // GIVEN
+        StringBuilder builder = new StringBuilder();
+        for ( int i = 0; i < 100; i++ )
+        {
+            builder.append( "status=OK;country=Sweden;" );
+        }
+        byte[] utf8 = PropertyStore.encodeString( builder.toString() );
+
+        // WHEN
+        byte[] compressed = StringCompression.compress( utf8 );
+
+        // THEN
+        assertTrue( StringCompression.isCompressed( compressed ) );
+        assertTrue( compressed.length < utf8.length / 10 );
+        assertArrayEquals( utf8, StringCompression.decompress( compressed ) );
+    }
+
+    @Test
+    public void shouldLeaveIncompressibleDataUncompressed() throws Exception
+    {
+        // GIVEN
+        char[] chars = new char[200];
+        Random random = new Random( 1234 );
+        for ( int i = 0; i < chars.length; i++ )
+        {
+            chars[i] = (char) ('!' + random.nextInt( 90 ));
+        }
+        byte[] utf8 = PropertyStore.encodeString( new String( chars ) );
+
+        // WHEN
+        byte[] result = StringCompression.compress( utf8 );
+
+        // THEN
+        assertSame( utf8, result );
+        assertFalse( StringCompression.isCompressed( result ) );
+    }
+
+    @Test
+    public void shouldNotTakeUtf8ForCompressedData() throws Exception
+    {
+        // GIVEN multi-byte characters, none of which encode to a byte recognized as the compression marker
+        byte[] utf8 = PropertyStore.encodeString( "ÿĀ￿åäö" );
+
+        // THEN
+        assertFalse( StringCompression.isCompressed( utf8 ) );
+        assertEquals( "ÿĀ￿åäö", PropertyStore.decodeString( utf8 ) );
+    }
+
+    @Test
+    public void shouldDescribeCompressedStringRecordsByTheirDecompressedValue() throws Exception
+    {
+        // GIVEN
+        DynamicRecord shortString = compressedStringRecord( "aaaaaaaaaaaaaaaa" );
+        DynamicRecord longString = compressedStringRecord( "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa" );
+
+        // THEN
+        assertTrue( shortString.toString(), shortString.toString().contains( "data=compressed\"aaaaaaaaaaaaaaaa\"," ) );
+        assertTrue( longString.toString(), longString.toString().contains(
+                "data=compressed byte[size=" + longString.getData().length + "]," ) );
+    }
+
+    private DynamicRecord compressedStringRecord( String string )
+    {
+        byte[] compressed = StringCompression.compress( PropertyStore.encodeString( string ) );
+        assertTrue( StringCompression.isCompressed( compressed ) );
+        DynamicRecord record = new DynamicRecord( 1 );
+        record.setInUse( true, PropertyType.STRING.intValue() );
+        record.setData( compressed );
+        return record;
+    }
+}
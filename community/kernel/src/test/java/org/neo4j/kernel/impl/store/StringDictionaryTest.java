@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+
+import org.neo4j.kernel.impl.store.record.PropertyBlock;
+import org.neo4j.test.EphemeralFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StringDictionaryTest
+{
+    private static final String URL = "http://www.example.com/some/rather/long/path/to/a/resource.html";
+
+    @Test
+    public void shouldLoadEmptyDictionaryIfThereIsNoFile() throws Exception
+    {
+        // WHEN
+        StringDictionary dictionary = StringDictionary.load( fs.get(), file );
+
+        // THEN
+        assertEquals( 0, dictionary.size() );
+        assertEquals( StringDictionary.NOT_IN_DICTIONARY, dictionary.idOf( URL ) );
+    }
+
+    @Test
+    public void shouldKeepIdsOfEntriesWhenWrittenAndLoaded() throws Exception
+    {
+        // GIVEN
+        StringDictionary dictionary = new StringDictionary();
+        for ( int i = 0; i < 100; i++ )
+        {
+            assertEquals( i, dictionary.add( URL + i ) );
+        }
+        assertEquals( 42, dictionary.add( URL + 42 ) );
+
+        // WHEN
+        dictionary.writeTo( fs.get(), file );
+        StringDictionary loaded = StringDictionary.load( fs.get(), file );
+
+        // THEN
+        assertEquals( 100, loaded.size() );
+        for ( int i = 0; i < 100; i++ )
+        {
+            assertEquals( i, loaded.idOf( URL + i ) );
+            assertEquals( URL + i, loaded.string( i ) );
+        }
+        assertFalse( loaded.contains( 100 ) );
+    }
+
+    @Test
+    public void shouldEncodeStringInDictionaryAsReferenceToItsEntry() throws Exception
+    {
+        // GIVEN
+        StringDictionary dictionary = new StringDictionary();
+        dictionary.add( "something else" );
+        dictionary.add( URL );
+
+        // WHEN
+        PropertyBlock block = new PropertyBlock();
+        PropertyStore.encodeValue( block, 3, URL, null, null, dictionary, 0 );
+
+        // THEN
+        assertEquals( PropertyType.DICTIONARY_STRING, block.getType() );
+        assertEquals( 3, block.getKeyIndexId() );
+        assertEquals( 1, block.getSingleValueLong() );
+        assertTrue( block.getValueRecords().isEmpty() );
+        assertEquals( 1, block.getValueBlocks().length );
+    }
+
+    @Test
+    public void shouldStillPreferShortStringEncodingOverDictionary() throws Exception
+    {
+        // GIVEN
+        StringDictionary dictionary = new StringDictionary();
+        dictionary.add( "short" );
+
+        // WHEN
+        PropertyBlock block = new PropertyBlock();
+        PropertyStore.encodeValue( block, 3, "short", null, null, dictionary, 0 );
+
+        // THEN
+        assertEquals( PropertyType.SHORT_STRING, block.getType() );
+    }
+
+    public final @Rule EphemeralFileSystemRule fs = new EphemeralFileSystemRule();
+    private final File file = new File( "neostore.propertystore.db.strings.dictionary" );
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.store.counts;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.OutputStream;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.api.index.IndexHistogram;
+import org.neo4j.kernel.impl.util.StringLogger;
+import org.neo4j.test.EphemeralFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class IndexHistogramStoreTest
+{
+    @Rule
+    public final EphemeralFileSystemRule fsRule = new EphemeralFileSystemRule();
+    private final File file = new File( "store", "neostore.counts.db.histograms" );
+
+    @Test
+    public void shouldReadBackWrittenHistograms() throws Exception
+    {
+        // given
+        FileSystemAbstraction fs = fsRule.get();
+        fs.mkdirs( file.getParentFile() );
+        IndexHistogram first = new IndexHistogram( 30, 3, new Object[]{"a", true}, new long[]{10, 15},
+                new double[0], new double[0], new long[0], new long[0] );
+        IndexHistogram second = new IndexHistogram( 100, 20, new Object[]{7.0}, new long[]{25},
+                new double[]{0, 10}, new double[]{9, 19}, new long[]{45, 30}, new long[]{10, 10} );
+        IndexHistogramStore store = new IndexHistogramStore( fs, file, StringLogger.DEV_NULL );
+        store.init();
+        store.replace( 1, 2, first );
+        store.replace( 3, 2, second );
+
+        // when
+        store.flush();
+        IndexHistogramStore reopened = new IndexHistogramStore( fs, file, StringLogger.DEV_NULL );
+        reopened.init();
+
+        // then
+        assertSameEstimates( first, reopened.histogram( 1, 2 ) );
+        assertSameEstimates( second, reopened.histogram( 3, 2 ) );
+        assertSame( IndexHistogram.EMPTY, reopened.histogram( 1, 3 ) );
+    }
+
+    @Test
+    public void shouldStartOutEmptyWhenTheFileIsUnreadable() throws Exception
+    {
+        // given
+        FileSystemAbstraction fs = fsRule.get();
+        fs.mkdirs( file.getParentFile() );
+        try ( OutputStream out = fs.openAsOutputStream( file, false ) )
+        {
+            out.write( new byte[]{0, 0, 0, 2, 0, 0} );
+        }
+
+        // when
+        IndexHistogramStore store = new IndexHistogramStore( fs, file, StringLogger.DEV_NULL );
+        store.init();
+
+        // then
+        assertSame( IndexHistogram.EMPTY, store.histogram( 1, 2 ) );
+    }
+
+    private void assertSameEstimates( IndexHistogram expected, IndexHistogram actual )
+    {
+        assertEquals( expected.toString(), actual.toString() );
+        for ( Object value : new Object[]{"a", "b", true, 7, 3.5, 12L, 25} )
+        {
+            assertEquals( expected.estimateEqualityCount( value ), actual.estimateEqualityCount( value ), 0.0 );
+        }
+        assertEquals( expected.estimateRangeCount( 2, true, 12, false ),
+                actual.estimateRangeCount( 2, true, 12, false ), 0.0 );
+    }
+}
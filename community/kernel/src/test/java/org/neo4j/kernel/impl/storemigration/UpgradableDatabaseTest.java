@@ -36,6 +36,7 @@ import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.impl.storemigration.legacystore.v19.Legacy19Store;
 import org.neo4j.kernel.impl.storemigration.legacystore.v20.Legacy20Store;
 import org.neo4j.kernel.impl.storemigration.legacystore.v21.Legacy21Store;
+import org.neo4j.kernel.impl.storemigration.legacystore.v22.Legacy22Store;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
@@ -200,7 +201,7 @@ public class UpgradableDatabaseTest
             {
                 // then
                 final String expected = "'" + neostoreFilename + "' has a store version number that we cannot upgrade from. " +
-                                        "Expected '" + Legacy21Store.LEGACY_VERSION + "' but file is version 'NodeStore " + version + "'.";
+                                        "Expected '" + Legacy22Store.LEGACY_VERSION + "' but file is version 'NodeStore " + version + "'.";
                 assertThat( e.getMessage(), is( expected ) );
             }
         }
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.transaction.log;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.test.EphemeralFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SpillingCommandCollectionTest
+{
+    @Rule
+    public final EphemeralFileSystemRule fs = new EphemeralFileSystemRule();
+    private final File file = new File( "spill", "commands" );
+
+    @Test
+    public void shouldKeepCommandsInMemoryBelowThreshold() throws Exception
+    {
+        // GIVEN
+        SpillingCommandCollection commands = new SpillingCommandCollection( fs.get(), file, 10 );
+
+        // WHEN
+        List<Command> added = addNodeCommands( commands, 10 );
+
+        // THEN
+        assertFalse( commands.isSpilled() );
+        assertFalse( fs.get().fileExists( file ) );
+        assertCommands( added, commands );
+    }
+
+    @Test
+    public void shouldSpillCommandsAboveThresholdAndReadThemBackInOrder() throws Exception
+    {
+        // GIVEN
+        SpillingCommandCollection commands = new SpillingCommandCollection( fs.get(), file, 10 );
+
+        // WHEN
+        List<Command> added = addNodeCommands( commands, 1_000 );
+
+        // THEN
+        assertTrue( commands.isSpilled() );
+        assertTrue( fs.get().fileExists( file ) );
+        assertEquals( 1_000, commands.size() );
+        // iterating twice, like appending and then applying a transaction does
+        assertCommands( added, commands );
+        assertCommands( added, commands );
+    }
+
+    @Test
+    public void shouldDeleteSpillFileOnClear() throws Exception
+    {
+        // GIVEN
+        SpillingCommandCollection commands = new SpillingCommandCollection( fs.get(), file, 10 );
+        addNodeCommands( commands, 100 );
+        Iterator<Command> abandoned = commands.iterator();
+        abandoned.next();
+
+        // WHEN
+        commands.clear();
+
+        // THEN
+        assertTrue( commands.isEmpty() );
+        assertFalse( commands.isSpilled() );
+        assertFalse( fs.get().fileExists( file ) );
+
+        // and WHEN reused
+        List<Command> added = addNodeCommands( commands, 20 );
+
+        // THEN
+        assertCommands( added, commands );
+    }
+
+    private List<Command> addNodeCommands( SpillingCommandCollection commands, int count )
+    {
+        List<Command> added = new ArrayList<>();
+        for ( int i = 0; i < count; i++ )
+        {
+            NodeRecord before = new NodeRecord( i, false, -1, -1, false );
+            NodeRecord after = new NodeRecord( i, false, i * 10, -1, true );
+            Command command = new Command.NodeCommand().init( before, after );
+            commands.add( command );
+            added.add( command );
+        }
+        return added;
+    }
+
+    private void assertCommands( List<Command> expected, SpillingCommandCollection commands )
+    {
+        Iterator<Command> iterator = commands.iterator();
+        for ( Command expectedCommand : expected )
+        {
+            assertTrue( iterator.hasNext() );
+            Command.NodeCommand actual = (Command.NodeCommand) iterator.next();
+            assertEquals( expectedCommand, actual );
+            assertEquals( ((Command.NodeCommand) expectedCommand).getAfter().getNextRel(),
+                    actual.getAfter().getNextRel() );
+            assertTrue( actual.getAfter().inUse() );
+        }
+        assertFalse( iterator.hasNext() );
+    }
+}
@@ -77,6 +77,7 @@ public class NeoStoreFileListingTest
             "neostore.propertystore.db.index.keys",
             "neostore.propertystore.db.index.keys.id",
             "neostore.propertystore.db.strings",
+            "neostore.propertystore.db.strings.dictionary",
             "neostore.propertystore.db.strings.id",
             "neostore.relationshipstore.db",
             "neostore.relationshipstore.db.id",
@@ -129,6 +130,7 @@ public class NeoStoreFileListingTest
                 "neostore.propertystore.db.index",
                 "neostore.propertystore.db.index.keys",
                 "neostore.propertystore.db.strings",
+                "neostore.propertystore.db.strings.dictionary",
                 "neostore.relationshipstore.db",
                 "neostore.relationshiptypestore.db",
                 "neostore.relationshiptypestore.db.names",
@@ -162,6 +164,7 @@ public class NeoStoreFileListingTest
                 "neostore.propertystore.db.index",
                 "neostore.propertystore.db.index.keys",
                 "neostore.propertystore.db.strings",
+                "neostore.propertystore.db.strings.dictionary",
                 "neostore.relationshipstore.db",
                 "neostore.relationshiptypestore.db",
                 "neostore.relationshiptypestore.db.names",
@@ -195,6 +198,7 @@ public class NeoStoreFileListingTest
                 "neostore.propertystore.db.index",
                 "neostore.propertystore.db.index.keys",
                 "neostore.propertystore.db.strings",
+                "neostore.propertystore.db.strings.dictionary",
                 "neostore.relationshipstore.db",
                 "neostore.relationshiptypestore.db",
                 "neostore.relationshiptypestore.db.names",
@@ -231,6 +235,7 @@ public class NeoStoreFileListingTest
                 "neostore.propertystore.db.index",
                 "neostore.propertystore.db.index.keys",
                 "neostore.propertystore.db.strings",
+                "neostore.propertystore.db.strings.dictionary",
                 "neostore.relationshipstore.db",
                 "neostore.relationshiptypestore.db",
                 "neostore.relationshiptypestore.db.names",
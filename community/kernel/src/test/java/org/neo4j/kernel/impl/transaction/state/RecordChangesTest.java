@@ -29,16 +29,16 @@ import static org.junit.Assert.assertThat;
 public class RecordChangesTest
 {
 
-    private final RecordAccess.Loader<Object, Object, Object> loader = new RecordAccess.Loader<Object, Object, Object>()
+    private final RecordAccess.Loader<Long, Object, Object> loader = new RecordAccess.Loader<Long, Object, Object>()
     {
         @Override
-        public Object newUnused( Object o, Object additionalData )
+        public Object newUnused( Long o, Object additionalData )
         {
             return o;
         }
 
         @Override
-        public Object load( Object o, Object additionalData )
+        public Object load( Long o, Object additionalData )
         {
             return o;
         }
@@ -60,13 +60,13 @@ public class RecordChangesTest
     public void shouldCountChanges() throws Exception
     {
         // Given
-        RecordChanges<Object, Object, Object> change = new RecordChanges<>( loader, false, new IntCounter() );
+        RecordChanges<Long, Object, Object> change = new RecordChanges<>( loader, false, new IntCounter() );
 
         // When
-        change.getOrLoad( "K1", null ).forChangingData();
-        change.getOrLoad( "K1", null ).forChangingData();
-        change.getOrLoad( "K2", null ).forChangingData();
-        change.getOrLoad( "K3", null ).forReadingData();
+        change.getOrLoad( 1L, null ).forChangingData();
+        change.getOrLoad( 1L, null ).forChangingData();
+        change.getOrLoad( 2L, null ).forChangingData();
+        change.getOrLoad( 3L, null ).forReadingData();
 
         // Then
         assertThat(change.changeSize(), equalTo(2));
@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.impl.traversal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.traversal.Evaluators;
+import org.neo4j.graphdb.traversal.TraversalDescription;
+import org.neo4j.graphdb.traversal.Uniqueness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestParallelTraversal extends TraversalTestBase
+{
+    @Test
+    public void shouldReturnTreeOneDepthAtATime() throws Exception
+    {
+        /*
+         *                     (1)
+         *               ------ | ------
+         *             /        |        \
+         *           (2)       (3)       (4)
+         *          / | \     / | \     / | \
+         *        (5)(6)(7) (8)(9)(A) (B)(C)(D)
+         */
+        createGraph( "1 TO 2", "1 TO 3", "1 TO 4", "2 TO 5", "2 TO 6", "2 TO 7",
+                "3 TO 8", "3 TO 9", "3 TO A", "4 TO B", "4 TO C", "4 TO D" );
+
+        try ( Transaction tx = beginTx() )
+        {
+            TraversalDescription description = getGraphDb().traversalDescription().breadthFirst().parallel( 4 );
+
+            List<String> depths = new ArrayList<>();
+            for ( Path path : description.traverse( node( "1" ) ) )
+            {
+                depths.add( path.length() + ":" + path.endNode().getProperty( "name" ) );
+            }
+
+            assertEquals( 13, depths.size() );
+            assertEquals( "0:1", depths.get( 0 ) );
+            for ( int i = 1; i < depths.size(); i++ )
+            {
+                int depth = i < 4 ? 1 : 2;
+                assertEquals( depths.toString(), depth, Integer.parseInt( depths.get( i ).split( ":" )[0] ) );
+            }
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldFindSameNodesAtSameDepthsAsSingleThreadedTraversal() throws Exception
+    {
+        // a grid, where there are many ways to each node
+        int size = 12;
+        List<String> description = new ArrayList<>();
+        for ( int row = 0; row < size; row++ )
+        {
+            for ( int column = 0; column < size; column++ )
+            {
+                if ( column + 1 < size )
+                {
+                    description.add( cell( row, column ) + " TO " + cell( row, column + 1 ) );
+                }
+                if ( row + 1 < size )
+                {
+                    description.add( cell( row, column ) + " TO " + cell( row + 1, column ) );
+                }
+            }
+        }
+        createGraph( description.toArray( new String[description.size()] ) );
+
+        for ( Uniqueness uniqueness : new Uniqueness[] {Uniqueness.NODE_GLOBAL, Uniqueness.RELATIONSHIP_GLOBAL} )
+        {
+            try ( Transaction tx = beginTx() )
+            {
+                TraversalDescription traversal = getGraphDb().traversalDescription().breadthFirst()
+                        .uniqueness( uniqueness ).evaluator( Evaluators.toDepth( 6 ) );
+
+                List<String> expected = depthsOfNodes( traversal );
+                List<String> actual = depthsOfNodes( traversal.parallel( 4 ) );
+
+                assertEquals( uniqueness.name(), expected, actual );
+                tx.success();
+            }
+        }
+    }
+
+    @Test
+    public void shouldOnlySupportBreadthFirstOrdering() throws Exception
+    {
+        createGraph( "a TO b" );
+
+        try ( Transaction tx = beginTx() )
+        {
+            try
+            {
+                getGraphDb().traversalDescription().depthFirst().parallel( 2 ).traverse( node( "a" ) ).iterator();
+                fail( "Should not be able to traverse depth first in parallel" );
+            }
+            catch ( IllegalStateException e )
+            {   // Good
+            }
+            tx.success();
+        }
+    }
+
+    @Test
+    public void shouldStopWorkersOfAbandonedTraversalWhenTransactionCloses() throws Exception
+    {
+        // more paths than the workers can hand over without anyone taking them
+        List<String> description = new ArrayList<>();
+        for ( int i = 0; i < 2000; i++ )
+        {
+            description.add( "root TO leaf" + i );
+        }
+        createGraph( description.toArray( new String[description.size()] ) );
+
+        try ( Transaction tx = beginTx() )
+        {
+            Iterator<Path> paths = getGraphDb().traversalDescription().breadthFirst().parallel( 2 )
+                    .traverse( node( "root" ) ).iterator();
+            paths.next();
+            tx.success();
+            // the traverser is abandoned here, without being closed
+        }
+
+        long end = System.currentTimeMillis() + 10_000;
+        while ( workersDelivering() && System.currentTimeMillis() < end )
+        {
+            Thread.sleep( 10 );
+        }
+        assertTrue( "Workers still delivering paths of an abandoned traversal", !workersDelivering() );
+    }
+
+    private static boolean workersDelivering()
+    {
+        for ( StackTraceElement[] stack : Thread.getAllStackTraces().values() )
+        {
+            for ( StackTraceElement element : stack )
+            {
+                if ( element.getClassName().startsWith( ParallelTraverserIterator.class.getName() ) )
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private List<String> depthsOfNodes( TraversalDescription description )
+    {
+        List<String> depths = new ArrayList<>();
+        for ( Path path : description.traverse( node( "0_0" ) ) )
+        {
+            depths.add( path.length() + ":" + path.endNode().getProperty( "name" ) );
+        }
+        Collections.sort( depths );
+        return depths;
+    }
+
+    private static String cell( int row, int column )
+    {
+        return row + "_" + column;
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.monitoring.metrics;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.test.EphemeralFileSystemRule;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+public class CsvMetricsReporterTest
+{
+    @Rule
+    public final EphemeralFileSystemRule fsRule = new EphemeralFileSystemRule();
+
+    private final File directory = new File( "metrics" );
+
+    @Test
+    public void shouldAppendARowPerReportToAFilePerMetric() throws Exception
+    {
+        // Given
+        MetricsRegistry registry = new MetricsRegistry();
+        Counter counter = registry.counter( "transaction.committed" );
+        registry.histogram( "log.rotation.time_millis" ).update( 10 );
+        CsvMetricsReporter reporter = new CsvMetricsReporter( fsRule.get(), directory );
+
+        // When
+        counter.increment();
+        reporter.report( 1000, registry );
+        counter.increment();
+        reporter.report( 2000, registry );
+
+        // Then
+        assertEquals( asList( CsvMetricsReporter.VALUE_HEADER, "1000,1", "2000,2" ),
+                lines( "transaction.committed.csv" ) );
+        assertEquals( asList( CsvMetricsReporter.HISTOGRAM_HEADER, "1000,1,10.00,10,10,10,10",
+                "2000,1,10.00,10,10,10,10" ), lines( "log.rotation.time_millis.csv" ) );
+    }
+
+    private List<String> lines( String fileName ) throws IOException
+    {
+        List<String> lines = new ArrayList<>();
+        try ( BufferedReader reader = new BufferedReader(
+                fsRule.get().openAsReader( new File( directory, fileName ), "UTF-8" ) ) )
+        {
+            for ( String line; (line = reader.readLine()) != null; )
+            {
+                lines.add( line );
+            }
+        }
+        return lines;
+    }
+}
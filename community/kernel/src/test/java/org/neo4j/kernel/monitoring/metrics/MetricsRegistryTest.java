@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.monitoring.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsRegistryTest
+{
+    @Test
+    public void shouldSumCounterUpdatesFromManyThreads() throws Exception
+    {
+        // Given
+        final Counter counter = new MetricsRegistry().counter( "events" );
+        ExecutorService executor = Executors.newFixedThreadPool( 8 );
+        List<Future<Void>> futures = new ArrayList<>();
+
+        // When
+        for ( int i = 0; i < 8; i++ )
+        {
+            futures.add( executor.submit( new Callable<Void>()
+            {
+                @Override
+                public Void call()
+                {
+                    for ( int j = 0; j < 10_000; j++ )
+                    {
+                        counter.increment();
+                    }
+                    return null;
+                }
+            } ) );
+        }
+        for ( Future<Void> future : futures )
+        {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Then
+        assertEquals( 80_000, counter.count() );
+    }
+
+    @Test
+    public void shouldApproximatePercentilesWithinAFactorOfTwo() throws Exception
+    {
+        // Given
+        Histogram histogram = new MetricsRegistry().histogram( "time" );
+
+        // When
+        for ( int i = 1; i <= 100; i++ )
+        {
+            histogram.update( i );
+        }
+
+        // Then
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals( 100, snapshot.count() );
+        assertEquals( 5050, snapshot.sum() );
+        assertEquals( 100, snapshot.max() );
+        assertEquals( 50.5, snapshot.mean(), 0.001 );
+        long median = snapshot.percentile( 0.5 );
+        assertTrue( "median was " + median, median >= 50 && median < 100 );
+        assertEquals( 100, snapshot.percentile( 0.99 ) );
+    }
+
+    @Test
+    public void shouldVisitMetricsByKindAndName() throws Exception
+    {
+        // Given
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter( "b.counter" ).add( 3 );
+        registry.counter( "a.counter" ).increment();
+        registry.register( "gauge", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return 42;
+            }
+        } );
+        registry.histogram( "histogram" ).update( 7 );
+
+        // When
+        final List<String> visited = new ArrayList<>();
+        registry.accept( new MetricsVisitor()
+        {
+            @Override
+            public void visitCounter( String name, long count )
+            {
+                visited.add( name + "=" + count );
+            }
+
+            @Override
+            public void visitGauge( String name, long value )
+            {
+                visited.add( name + "=" + value );
+            }
+
+            @Override
+            public void visitHistogram( String name, Histogram.Snapshot snapshot )
+            {
+                visited.add( name + "=" + snapshot.count() );
+            }
+        } );
+
+        // Then
+        assertEquals( asList( "a.counter=1", "b.counter=3", "gauge=42", "histogram=1" ), visited );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAllowTwoGaugesWithTheSameName() throws Exception
+    {
+        // Given
+        MetricsRegistry registry = new MetricsRegistry();
+        Gauge gauge = new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                return 0;
+            }
+        };
+        registry.register( "gauge", gauge );
+
+        // When
+        registry.register( "gauge", gauge );
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import org.neo4j.kernel.impl.store.StringDictionary;
+
+import static org.junit.Assert.assertEquals;
+
+import static org.neo4j.kernel.impl.store.StringDictionary.NOT_IN_DICTIONARY;
+
+public class LearningStringDictionaryTest
+{
+    @Test
+    public void shouldAddStringSecondTimeItsSeen() throws Exception
+    {
+        // GIVEN
+        StringDictionary dictionary = new LearningStringDictionary( StringDictionary.EMPTY, 10 );
+
+        // WHEN/THEN
+        assertEquals( NOT_IN_DICTIONARY, dictionary.idOf( "Sweden" ) );
+        assertEquals( NOT_IN_DICTIONARY, dictionary.idOf( "Norway" ) );
+        assertEquals( 0, dictionary.idOf( "Sweden" ) );
+        assertEquals( 0, dictionary.idOf( "Sweden" ) );
+        assertEquals( 1, dictionary.idOf( "Norway" ) );
+        assertEquals( "Norway", dictionary.string( 1 ) );
+    }
+
+    @Test
+    public void shouldKeepIdsOfExistingEntries() throws Exception
+    {
+        // GIVEN
+        StringDictionary existing = new LearningStringDictionary( StringDictionary.EMPTY, 10 );
+        existing.idOf( "Sweden" );
+        existing.idOf( "Sweden" );
+
+        // WHEN
+        StringDictionary dictionary = new LearningStringDictionary( existing, 10 );
+
+        // THEN
+        assertEquals( 0, dictionary.idOf( "Sweden" ) );
+        assertEquals( NOT_IN_DICTIONARY, dictionary.idOf( "Norway" ) );
+        assertEquals( 1, dictionary.idOf( "Norway" ) );
+    }
+
+    @Test
+    public void shouldNotAddLongStrings() throws Exception
+    {
+        // GIVEN
+        StringDictionary dictionary = new LearningStringDictionary( StringDictionary.EMPTY, 10 );
+        char[] chars = new char[LearningStringDictionary.MAX_STRING_LENGTH + 1];
+        Arrays.fill( chars, 'a' );
+        String string = new String( chars );
+
+        // WHEN
+        dictionary.idOf( string );
+
+        // THEN
+        assertEquals( NOT_IN_DICTIONARY, dictionary.idOf( string ) );
+        assertEquals( 0, dictionary.size() );
+    }
+
+    @Test
+    public void shouldNotGrowBeyondMaxSize() throws Exception
+    {
+        // GIVEN
+        StringDictionary dictionary = new LearningStringDictionary( StringDictionary.EMPTY, 2 );
+
+        // WHEN
+        for ( int round = 0; round < 2; round++ )
+        {
+            for ( int i = 0; i < 5; i++ )
+            {
+                dictionary.idOf( "string" + i );
+            }
+        }
+
+        // THEN
+        assertEquals( 2, dictionary.size() );
+        assertEquals( NOT_IN_DICTIONARY, dictionary.idOf( "string4" ) );
+    }
+}
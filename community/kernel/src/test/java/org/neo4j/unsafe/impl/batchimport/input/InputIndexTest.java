@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.input;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class InputIndexTest
+{
+    private final InputIndex index = InputIndex.index( "Person", "name" );
+
+    @Test
+    public void shouldGetIndexedValueOfLabeledNode() throws Exception
+    {
+        // GIVEN
+        InputNode node = new InputNode( "source", 1, 0, "id", new Object[] {
+                "age", 42,
+                "name", "Alice"
+        }, null, new String[] {"Employee", "Person"}, null );
+
+        // WHEN
+        Object value = index.valueOf( node );
+
+        // THEN
+        assertEquals( "Alice", value );
+    }
+
+    @Test
+    public void shouldNotGetValueOfNodeWithoutIndexedLabel() throws Exception
+    {
+        // GIVEN
+        InputNode node = new InputNode( "source", 1, 0, "id", new Object[] {
+                "name", "Alice"
+        }, null, new String[] {"Employee"}, null );
+
+        // WHEN
+        Object value = index.valueOf( node );
+
+        // THEN
+        assertNull( value );
+    }
+
+    @Test( expected = InputException.class )
+    public void shouldFailOnNodeReferringToPropertiesInStore() throws Exception
+    {
+        // GIVEN
+        InputNode node = new InputNode( "source", 1, 0, "id", InputEntity.NO_PROPERTIES, 10L,
+                new String[] {"Person"}, null );
+
+        // WHEN
+        index.valueOf( node );
+    }
+
+    @Test( expected = InputException.class )
+    public void shouldFailOnNodeReferringToLabelsInStore() throws Exception
+    {
+        // GIVEN
+        InputNode node = new InputNode( "source", 1, 0, "id", new Object[] {
+                "name", "Alice"
+        }, null, null, 5L );
+
+        // WHEN
+        index.valueOf( node );
+    }
+}
@@ -27,9 +27,11 @@ import java.util.Iterator;
 import java.util.Set;
 
 import org.neo4j.csv.reader.BufferedCharSeeker;
+import org.neo4j.csv.reader.CharReadable;
 import org.neo4j.csv.reader.CharSeeker;
 import org.neo4j.csv.reader.Extractor;
 import org.neo4j.csv.reader.Extractors;
+import org.neo4j.function.Factory;
 import org.neo4j.function.Function;
 import org.neo4j.function.Functions;
 import org.neo4j.graphdb.ResourceIterator;
@@ -613,6 +615,72 @@ public class CsvInputTest
         }
     }
 
+    @Test
+    public void shouldParseDataInParallelAndProvideEntitiesInOrder() throws Exception
+    {
+        // GIVEN
+        int count = 1_000;
+        final StringBuilder builder = new StringBuilder( ":ID,name,:LABEL\n" );
+        for ( int i = 0; i < count; i++ )
+        {
+            builder.append( i ).append( "," ).append( i % 10 == 0 ? "\"Name\n" + i + "\"" : "Name " + i )
+                   .append( "," ).append( i % 2 == 0 ? "Even" : "" ).append( "\n" );
+        }
+        String[] addedLabels = {"Parsed"};
+        DataFactory<InputNode> data = DataFactories.data( additiveLabels( addedLabels ), new Factory<CharReadable>()
+        {
+            @Override
+            public CharReadable newInstance()
+            {
+                return wrap( new StringReader( builder.toString() ) );
+            }
+        } );
+        Input input = new CsvInput( dataIterable( data ), defaultFormatNodeFileHeader(), null, null,
+                IdType.ACTUAL, parallelConfig( 4, 100 ), badRelationships( 0 ) );
+
+        // WHEN/THEN
+        try ( ResourceIterator<InputNode> nodes = input.nodes().iterator() )
+        {
+            for ( int i = 0; i < count; i++ )
+            {
+                String name = i % 10 == 0 ? "Name\n" + i : "Name " + i;
+                String[] labels = i % 2 == 0 ? union( new String[] {"Even"}, addedLabels ) : addedLabels;
+                assertNode( nodes.next(), (long) i, properties( "name", name ), labels( labels ) );
+            }
+            assertFalse( nodes.hasNext() );
+        }
+    }
+
+    private Configuration parallelConfig( final int threads, final int bufferSize )
+    {
+        return new Configuration.Default()
+        {
+            @Override
+            public char delimiter()
+            {
+                return ',';
+            }
+
+            @Override
+            public char arrayDelimiter()
+            {
+                return ';';
+            }
+
+            @Override
+            public int bufferSize()
+            {
+                return bufferSize;
+            }
+
+            @Override
+            public int parsingThreads()
+            {
+                return threads;
+            }
+        };
+    }
+
     private Configuration customConfig( final char delimiter, final char arrayDelimiter, final char quote )
     {
         return new Configuration.Default()
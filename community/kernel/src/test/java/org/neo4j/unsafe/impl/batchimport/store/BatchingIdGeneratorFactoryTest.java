@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.unsafe.impl.batchimport.store;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.kernel.IdType;
+import org.neo4j.kernel.impl.store.id.IdGenerator;
+import org.neo4j.kernel.impl.store.id.IdGeneratorImpl;
+import org.neo4j.test.EphemeralFileSystemRule;
+
+import static org.junit.Assert.assertEquals;
+
+public class BatchingIdGeneratorFactoryTest
+{
+    public final @Rule EphemeralFileSystemRule fsr = new EphemeralFileSystemRule();
+
+    @Test
+    public void shouldWriteFreedIdsToIdFileOnClose() throws Exception
+    {
+        // GIVEN
+        File fileName = new File( "id" );
+        IdGenerator generator = new BatchingIdGeneratorFactory().open( fsr.get(), fileName, 10,
+                IdType.RELATIONSHIP_GROUP, 0 );
+        for ( int i = 0; i < 10; i++ )
+        {
+            generator.nextId();
+        }
+
+        // WHEN
+        generator.freeId( 3 );
+        generator.freeId( 7 );
+        generator.close();
+
+        // THEN
+        IdGeneratorImpl reopened = new IdGeneratorImpl( fsr.get(), fileName, 10,
+                IdType.RELATIONSHIP_GROUP.getMaxValue(), false, 0 );
+        Set<Long> reused = new HashSet<>();
+        reused.add( reopened.nextId() );
+        reused.add( reopened.nextId() );
+        assertEquals( new HashSet<>( Arrays.asList( 3L, 7L ) ), reused );
+        assertEquals( 10, reopened.nextId() );
+        reopened.close();
+    }
+
+    @Test
+    public void shouldKeepIdsFreedInExistingIdFile() throws Exception
+    {
+        // GIVEN an id file of an existing store, with some ids freed
+        File fileName = new File( "id" );
+        IdGeneratorImpl.createGenerator( fsr.get(), fileName, 0 );
+        IdGeneratorImpl existing = new IdGeneratorImpl( fsr.get(), fileName, 10,
+                IdType.RELATIONSHIP_GROUP.getMaxValue(), false, 0 );
+        for ( int i = 0; i < 10; i++ )
+        {
+            existing.nextId();
+        }
+        existing.freeId( 2 );
+        existing.freeId( 4 );
+        existing.close();
+
+        // WHEN appending to it
+        IdGenerator generator = new BatchingIdGeneratorFactory().open( fsr.get(), fileName, 10,
+                IdType.RELATIONSHIP_GROUP, 10 );
+        assertEquals( 10, generator.nextId() );
+        assertEquals( 11, generator.nextId() );
+        generator.freeId( 10 );
+        generator.close();
+
+        // THEN
+        IdGeneratorImpl reopened = new IdGeneratorImpl( fsr.get(), fileName, 10,
+                IdType.RELATIONSHIP_GROUP.getMaxValue(), false, 0 );
+        Set<Long> reused = new HashSet<>();
+        reused.add( reopened.nextId() );
+        reused.add( reopened.nextId() );
+        reused.add( reopened.nextId() );
+        assertEquals( new HashSet<>( Arrays.asList( 2L, 4L, 10L ) ), reused );
+        assertEquals( 12, reopened.nextId() );
+        reopened.close();
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void shouldNotAcceptFreedIdsNeverHandedOut() throws Exception
+    {
+        // GIVEN
+        IdGenerator generator = new BatchingIdGeneratorFactory().open( fsr.get(), new File( "id" ), 10,
+                IdType.RELATIONSHIP_GROUP, 5 );
+
+        // WHEN
+        generator.freeId( 5 );
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.Query;
 import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.util.NumericUtils;
 
 import java.io.Closeable;
 import java.io.IOException;
@@ -38,6 +39,7 @@ import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.index.impl.lucene.Hits;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
 import org.neo4j.kernel.api.index.IndexReader;
+import org.neo4j.kernel.impl.api.index.sampling.IndexHistogramBuilder;
 import org.neo4j.kernel.impl.api.index.sampling.NonUniqueIndexSampler;
 
 import static org.neo4j.kernel.api.impl.index.LuceneDocumentStructure.*;
@@ -63,9 +65,10 @@ class LuceneIndexAccessorReader implements IndexReader
     }
 
     @Override
-    public long sampleIndex( DoubleLong.Out result ) throws IndexNotFoundKernelException
+    public long sampleIndex( DoubleLong.Out result, IndexHistogramBuilder histogram )
+            throws IndexNotFoundKernelException
     {
-        NonUniqueIndexSampler sampler = new NonUniqueIndexSampler( bufferSizeLimit );
+        NonUniqueIndexSampler sampler = new NonUniqueIndexSampler( bufferSizeLimit, histogram );
         try ( TermEnum terms = luceneIndexReader().terms() )
         {
             while ( terms.next() )
@@ -73,8 +76,7 @@ class LuceneIndexAccessorReader implements IndexReader
                 Term term = terms.term();
                 if ( !NODE_ID_KEY.equals( term.field() ))
                 {
-                    String value = term.text();
-                    sampler.include( value );
+                    sampler.include( term.text(), decode( term ), terms.docFreq() );
                 }
                 checkCancellation();
             }
@@ -87,6 +89,46 @@ class LuceneIndexAccessorReader implements IndexReader
         return sampler.result( result );
     }
 
+    /**
+     * Includes the distinct values of this index in the given histogram, for readers that sample without
+     * looking at the values.
+     */
+    protected void includeValues( IndexHistogramBuilder histogram ) throws IndexNotFoundKernelException
+    {
+        try ( TermEnum terms = luceneIndexReader().terms() )
+        {
+            while ( terms.next() )
+            {
+                Term term = terms.term();
+                if ( !NODE_ID_KEY.equals( term.field() ) )
+                {
+                    histogram.include( decode( term ), terms.docFreq() );
+                }
+                checkCancellation();
+            }
+        }
+        catch ( IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+    }
+
+    private static Object decode( Term term )
+    {
+        switch ( ValueEncoding.fromKey( term.field() ) )
+        {
+        case Number:
+            // prefix coded numbers enumerate in numeric order, as the histogram builder needs them
+            return NumericUtils.prefixCodedToDouble( term.text() );
+        case Bool:
+            return Boolean.valueOf( term.text() );
+        case String:
+            return term.text();
+        default:
+            // encoded arrays only count towards the totals of the histogram
+            return null;
+        }
+    }
 
     @Override
     public PrimitiveLongIterator lookup( Object value )
@@ -25,6 +25,7 @@ import java.io.Closeable;
 
 import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
+import org.neo4j.kernel.impl.api.index.sampling.IndexHistogramBuilder;
 import org.neo4j.kernel.impl.api.index.sampling.UniqueIndexSampler;
 
 import static org.neo4j.register.Register.DoubleLong;
@@ -44,11 +45,13 @@ class LuceneUniqueIndexAccessorReader extends LuceneIndexAccessorReader
      * {@link DeferredConstraintVerificationUniqueLuceneIndexPopulator population}.
      */
     @Override
-    public long sampleIndex( DoubleLong.Out result ) throws IndexNotFoundKernelException
+    public long sampleIndex( DoubleLong.Out result, IndexHistogramBuilder histogram )
+            throws IndexNotFoundKernelException
     {
         UniqueIndexSampler sampler = new UniqueIndexSampler();
         sampler.increment( luceneIndexReader().numDocs() );
         checkCancellation();
+        includeValues( histogram );
         return sampler.result( result );
     }
 }
@@ -33,6 +33,7 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.neo4j.kernel.impl.api.index.sampling.IndexHistogramBuilder;
 import org.neo4j.register.Register.DoubleLongRegister;
 import org.neo4j.register.Registers;
 
@@ -41,6 +42,8 @@ import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.neo4j.helpers.CancellationRequest.NEVER_CANCELLED;
 import static org.neo4j.kernel.api.impl.index.LuceneDocumentStructure.NODE_ID_KEY;
@@ -69,7 +72,7 @@ public class LuceneIndexAccessorReaderTest
     {
         // When
         final DoubleLongRegister output = Registers.newDoubleLongRegister();
-        long indexSize = accessor.sampleIndex( output );
+        long indexSize = accessor.sampleIndex( output, new IndexHistogramBuilder() );
 
         // Then
         assertEquals( 0, indexSize );
@@ -90,7 +93,7 @@ public class LuceneIndexAccessorReaderTest
 
         // When
         final DoubleLongRegister output = Registers.newDoubleLongRegister();
-        long indexSize = accessor.sampleIndex( output );
+        long indexSize = accessor.sampleIndex( output, new IndexHistogramBuilder() );
 
         // Then
         assertEquals( 3, indexSize );
@@ -98,6 +101,27 @@ public class LuceneIndexAccessorReaderTest
         assertEquals( 3, output.readSecond() );
     }
 
+    @Test
+    public void shouldBuildTheHistogramInTheSamePassAsTheSample() throws Exception
+    {
+        // Given
+        when( terms.next() ).thenReturn( true, true, false );
+        when( terms.term() ).thenReturn(
+                new Term( "string", "aaa" ),
+                new Term( "string", "ccc" )
+        );
+        when( terms.docFreq() ).thenReturn( 1, 3 );
+
+        // When
+        IndexHistogramBuilder histogram = new IndexHistogramBuilder();
+        accessor.sampleIndex( Registers.newDoubleLongRegister(), histogram );
+
+        // Then
+        verify( reader, times( 1 ) ).terms();
+        assertEquals( 4, histogram.result().entries() );
+        assertEquals( 2, histogram.result().distinctValues() );
+        assertEquals( 3, histogram.result().estimateEqualityCount( "ccc" ), 0.0 );
+    }
 
     @Test
     public void shouldSkipTheNonNodeIdKeyEntriesWhenCalculatingIndexUniqueValues() throws Exception
@@ -112,7 +136,7 @@ public class LuceneIndexAccessorReaderTest
         // When
 
         final DoubleLongRegister output = Registers.newDoubleLongRegister();
-        long indexSize = accessor.sampleIndex( output );
+        long indexSize = accessor.sampleIndex( output, new IndexHistogramBuilder() );
 
         // Then
         assertEquals( 1, indexSize );
@@ -130,7 +154,7 @@ public class LuceneIndexAccessorReaderTest
         // When
         try
         {
-            accessor.sampleIndex( Registers.newDoubleLongRegister() );
+            accessor.sampleIndex( Registers.newDoubleLongRegister(), new IndexHistogramBuilder() );
             fail( "should have thrown" );
         }
         catch ( RuntimeException ex )
@@ -41,6 +41,7 @@ import org.neo4j.kernel.api.index.IndexReader;
 import org.neo4j.kernel.api.index.IndexUpdater;
 import org.neo4j.kernel.api.index.NodePropertyUpdate;
 import org.neo4j.kernel.impl.api.index.IndexUpdateMode;
+import org.neo4j.kernel.impl.api.index.sampling.IndexHistogramBuilder;
 import org.neo4j.register.Registers;
 import org.neo4j.test.ThreadingRule;
 
@@ -158,7 +159,7 @@ public class LuceneIndexAccessorTest
 
         try ( IndexReader reader = indexReader /* do not inline! */ )
         {
-            reader.sampleIndex( Registers.newDoubleLongRegister() );
+            reader.sampleIndex( Registers.newDoubleLongRegister(), new IndexHistogramBuilder() );
             fail( "expected exception" );
         }
         catch ( IndexNotFoundKernelException e )
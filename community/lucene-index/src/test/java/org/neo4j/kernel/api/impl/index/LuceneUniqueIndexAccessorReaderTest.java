@@ -28,6 +28,7 @@ import java.io.Closeable;
 import java.io.IOException;
 
 import org.neo4j.kernel.api.exceptions.index.IndexNotFoundKernelException;
+import org.neo4j.kernel.impl.api.index.sampling.IndexHistogramBuilder;
 import org.neo4j.register.Register.DoubleLongRegister;
 import org.neo4j.register.Registers;
 
@@ -88,6 +89,6 @@ public class LuceneUniqueIndexAccessorReaderTest
     private long sampleAccessor( LuceneIndexAccessorReader reader, DoubleLongRegister output )
             throws IndexNotFoundKernelException
     {
-        return reader.sampleIndex( output );
+        return reader.sampleIndex( output, new IndexHistogramBuilder() );
     }
 }
@@ -19,6 +19,7 @@
  */
 package org.neo4j.collection.primitive;
 
+import org.neo4j.collection.primitive.concurrent.ConcurrentPrimitiveLongObjectHashMap;
 import org.neo4j.collection.primitive.hopscotch.IntKeyLongValueTable;
 import org.neo4j.collection.primitive.hopscotch.IntKeyObjectValueTable;
 import org.neo4j.collection.primitive.hopscotch.IntKeyTable;
@@ -108,6 +109,20 @@ public class Primitive
         return new PrimitiveLongObjectHashMap<>( new LongKeyObjectValueTable<VALUE>( initialCapacity ), NO_MONITOR );
     }
 
+    /**
+     * @return a {@link PrimitiveLongObjectMap} which can be read concurrently with updates, without locking.
+     * @see ConcurrentPrimitiveLongObjectHashMap
+     */
+    public static <VALUE> PrimitiveLongObjectMap<VALUE> concurrentLongObjectMap()
+    {
+        return concurrentLongObjectMap( DEFAULT_HEAP_CAPACITY );
+    }
+
+    public static <VALUE> PrimitiveLongObjectMap<VALUE> concurrentLongObjectMap( int initialCapacity )
+    {
+        return new ConcurrentPrimitiveLongObjectHashMap<>( initialCapacity );
+    }
+
     public static PrimitiveIntSet intSet()
     {
         return intSet( DEFAULT_HEAP_CAPACITY );
@@ -0,0 +1,303 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.collection.primitive.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.neo4j.collection.primitive.PrimitiveLongCollections.PrimitiveLongBaseIterator;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
+import org.neo4j.collection.primitive.PrimitiveLongObjectVisitor;
+import org.neo4j.collection.primitive.PrimitiveLongVisitor;
+
+import static org.neo4j.collection.primitive.hopscotch.HopScotchHashingAlgorithm.DEFAULT_HASHING;
+
+/**
+ * A {@link PrimitiveLongObjectMap} which can be read by any number of threads concurrently with updates,
+ * without locking. Reads are wait-free: {@link #get(long)} is a linear probe in an open addressing table,
+ * which is never more than three quarters full and so always ends at an empty slot. Updates are serialized
+ * on the map itself.
+ * <p>
+ * A key is assigned to a slot once and keeps it until the table is rebuilt, so a reader that finds a key
+ * also finds the latest value for it. Removing a key clears its value and leaves the key in place as a
+ * tombstone. The table is rebuilt, without tombstones and possibly with more room, when no more slots are
+ * available, and then published as a whole; readers still probing the previous table see a consistent, if
+ * slightly older, state of the map. Iteration and visiting is weakly consistent in the same way.
+ * <p>
+ * Keys must not be {@code -1}, and values must not be {@code null}; {@link #put(long, Object) putting}
+ * {@code null} is the same as {@link #remove(long) removing} the key.
+ */
+public class ConcurrentPrimitiveLongObjectHashMap<VALUE> implements PrimitiveLongObjectMap<VALUE>
+{
+    private static final long NULL_KEY = -1;
+
+    private final int initialCapacity;
+    private volatile Table<VALUE> table;
+    private volatile int size;
+
+    public ConcurrentPrimitiveLongObjectHashMap( int initialCapacity )
+    {
+        this.initialCapacity = Integer.highestOneBit( Math.max( initialCapacity, 4 ) - 1 ) << 1;
+        this.table = new Table<>( this.initialCapacity );
+    }
+
+    @Override
+    public VALUE get( long key )
+    {
+        Table<VALUE> table = this.table;
+        int index = table.slotOf( key );
+        return index == -1 ? null : table.values.get( index );
+    }
+
+    @Override
+    public boolean containsKey( long key )
+    {
+        return get( key ) != null;
+    }
+
+    @Override
+    public synchronized VALUE put( long key, VALUE value )
+    {
+        assert key != NULL_KEY;
+        if ( value == null )
+        {
+            return remove( key );
+        }
+
+        Table<VALUE> table = this.table;
+        int index = table.slotOf( key );
+        if ( index != -1 )
+        {
+            VALUE previous = table.values.get( index );
+            table.values.set( index, value );
+            if ( previous == null )
+            {
+                size++;
+            }
+            return previous;
+        }
+
+        if ( table.usedSlots >= table.maxUsedSlots )
+        {
+            table = rebuild( table );
+        }
+        table.insert( key, value );
+        size++;
+        return null;
+    }
+
+    @Override
+    public synchronized VALUE remove( long key )
+    {
+        Table<VALUE> table = this.table;
+        int index = table.slotOf( key );
+        if ( index == -1 )
+        {
+            return null;
+        }
+        VALUE previous = table.values.get( index );
+        if ( previous != null )
+        {
+            table.values.set( index, null );
+            size--;
+        }
+        return previous;
+    }
+
+    /**
+     * Copies the live entries of the given table into a new table, twice as large if the entries would
+     * otherwise occupy more than a quarter of it, and publishes the new table.
+     */
+    private Table<VALUE> rebuild( Table<VALUE> table )
+    {
+        int capacity = table.capacity();
+        Table<VALUE> rebuilt = new Table<>( size < capacity / 4 ? capacity : capacity * 2 );
+        for ( int i = 0; i < capacity; i++ )
+        {
+            VALUE value = table.values.get( i );
+            if ( value != null )
+            {
+                rebuilt.insert( table.keys.get( i ), value );
+            }
+        }
+        this.table = rebuilt;
+        return rebuilt;
+    }
+
+    @Override
+    public <E extends Exception> void visitEntries( PrimitiveLongObjectVisitor<VALUE,E> visitor ) throws E
+    {
+        Table<VALUE> table = this.table;
+        int capacity = table.capacity();
+        for ( int i = 0; i < capacity; i++ )
+        {
+            long key = table.keys.get( i );
+            VALUE value = key == NULL_KEY ? null : table.values.get( i );
+            if ( value != null && visitor.visited( key, value ) )
+            {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public <E extends Exception> void visitKeys( final PrimitiveLongVisitor<E> visitor ) throws E
+    {
+        visitEntries( new PrimitiveLongObjectVisitor<VALUE,E>()
+        {
+            @Override
+            public boolean visited( long key, VALUE value ) throws E
+            {
+                return visitor.visited( key );
+            }
+        } );
+    }
+
+    @Override
+    public PrimitiveLongIterator iterator()
+    {
+        final Table<VALUE> table = this.table;
+        return new PrimitiveLongBaseIterator()
+        {
+            private int index;
+
+            @Override
+            protected boolean fetchNext()
+            {
+                while ( index < table.capacity() )
+                {
+                    int current = index++;
+                    long key = table.keys.get( current );
+                    if ( key != NULL_KEY && table.values.get( current ) != null )
+                    {
+                        return next( key );
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    @Override
+    public synchronized void clear()
+    {
+        table = new Table<>( initialCapacity );
+        size = 0;
+    }
+
+    @Override
+    public void close()
+    {   // Nothing to close, the table lives on the heap
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder builder = new StringBuilder( "{" );
+        visitEntries( new PrimitiveLongObjectVisitor<VALUE,RuntimeException>()
+        {
+            @Override
+            public boolean visited( long key, VALUE value )
+            {
+                builder.append( builder.length() > 1 ? "," : "" ).append( key ).append( ':' ).append( value );
+                return false;
+            }
+        } );
+        return builder.append( "}" ).toString();
+    }
+
+    private static class Table<VALUE>
+    {
+        private final AtomicLongArray keys;
+        private final AtomicReferenceArray<VALUE> values;
+        private final int mask;
+        private final int maxUsedSlots;
+        // Slots with a key assigned, including tombstones. Only accessed by the thread updating the map.
+        private int usedSlots;
+
+        Table( int capacity )
+        {
+            keys = new AtomicLongArray( capacity );
+            values = new AtomicReferenceArray<>( capacity );
+            mask = capacity - 1;
+            maxUsedSlots = capacity - capacity / 4;
+            for ( int i = 0; i < capacity; i++ )
+            {
+                keys.lazySet( i, NULL_KEY );
+            }
+        }
+
+        int capacity()
+        {
+            return mask + 1;
+        }
+
+        /**
+         * @return the slot the given key is assigned to, or -1 if it isn't in this table.
+         */
+        int slotOf( long key )
+        {
+            int index = DEFAULT_HASHING.hash( key ) & mask;
+            for ( int probes = 0; probes <= mask; probes++ )
+            {
+                long keyAtIndex = keys.get( index );
+                if ( keyAtIndex == key )
+                {
+                    return index;
+                }
+                if ( keyAtIndex == NULL_KEY )
+                {
+                    return -1;
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Assigns a free slot to a key known not to be in this table. The value is set before the key,
+         * so that a reader finding the key is guaranteed to also see its value.
+         */
+        void insert( long key, VALUE value )
+        {
+            int index = DEFAULT_HASHING.hash( key ) & mask;
+            while ( keys.get( index ) != NULL_KEY )
+            {
+                index = (index + 1) & mask;
+            }
+            values.set( index, value );
+            keys.set( index, key );
+            usedSlots++;
+        }
+    }
+}
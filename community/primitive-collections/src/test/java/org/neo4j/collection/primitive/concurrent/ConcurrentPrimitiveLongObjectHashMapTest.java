@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.collection.primitive.concurrent;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.collection.primitive.PrimitiveLongObjectMap;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentPrimitiveLongObjectHashMapTest
+{
+    @Test
+    public void shouldPutGetAndRemove() throws Exception
+    {
+        // GIVEN
+        PrimitiveLongObjectMap<String> map = new ConcurrentPrimitiveLongObjectHashMap<>( 4 );
+
+        // WHEN/THEN
+        assertNull( map.put( 10, "ten" ) );
+        assertEquals( "ten", map.put( 10, "TEN" ) );
+        assertEquals( "TEN", map.get( 10 ) );
+        assertTrue( map.containsKey( 10 ) );
+        assertEquals( 1, map.size() );
+        assertEquals( "TEN", map.remove( 10 ) );
+        assertNull( map.remove( 10 ) );
+        assertFalse( map.containsKey( 10 ) );
+        assertTrue( map.isEmpty() );
+        assertNull( map.put( 10, "ten" ) );
+        assertEquals( 1, map.size() );
+    }
+
+    @Test
+    public void shouldBehaveLikeHashMapThroughGrowingAndRebuilding() throws Exception
+    {
+        // GIVEN
+        PrimitiveLongObjectMap<Long> map = new ConcurrentPrimitiveLongObjectHashMap<>( 4 );
+        Map<Long,Long> expected = new HashMap<>();
+        Random random = new Random( 1234 );
+
+        // WHEN
+        for ( int i = 0; i < 100000; i++ )
+        {
+            long key = random.nextInt( 1000 );
+            if ( random.nextInt( 3 ) == 0 )
+            {
+                assertEquals( expected.remove( key ), map.remove( key ) );
+            }
+            else
+            {
+                long value = random.nextLong();
+                assertEquals( expected.put( key, value ), map.put( key, value ) );
+            }
+        }
+
+        // THEN
+        assertEquals( expected.size(), map.size() );
+        for ( Map.Entry<Long,Long> entry : expected.entrySet() )
+        {
+            assertEquals( entry.getValue(), map.get( entry.getKey() ) );
+        }
+        int iterated = 0;
+        PrimitiveLongIterator keys = map.iterator();
+        while ( keys.hasNext() )
+        {
+            assertTrue( expected.containsKey( keys.next() ) );
+            iterated++;
+        }
+        assertEquals( expected.size(), iterated );
+    }
+
+    @Test
+    public void shouldNeverSeeWrongValueWhileReadingConcurrentlyWithUpdates() throws Exception
+    {
+        // GIVEN a map where every value is the same as its key
+        final PrimitiveLongObjectMap<Long> map = new ConcurrentPrimitiveLongObjectHashMap<>( 4 );
+        final AtomicBoolean end = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        Future<?>[] readers = new Future[4];
+        for ( int i = 0; i < readers.length; i++ )
+        {
+            readers[i] = executor.submit( new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    Random random = new Random();
+                    while ( !end.get() )
+                    {
+                        long key = random.nextInt( 10000 );
+                        Long value = map.get( key );
+                        assertTrue( value == null || value == key );
+                    }
+                }
+            } );
+        }
+
+        // WHEN
+        Random random = new Random();
+        for ( int i = 0; i < 1000000; i++ )
+        {
+            long key = random.nextInt( 10000 );
+            if ( random.nextBoolean() )
+            {
+                map.put( key, key );
+            }
+            else
+            {
+                map.remove( key );
+            }
+        }
+        end.set( true );
+
+        // THEN
+        for ( Future<?> reader : readers )
+        {
+            reader.get();
+        }
+        executor.shutdown();
+        assertTrue( executor.awaitTermination( 10, SECONDS ) );
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 
 import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Resource;
 import org.neo4j.helpers.collection.IterableWrapper;
 import org.neo4j.helpers.collection.PrefetchingIterator;
 
@@ -67,9 +68,18 @@ public class ListRepresentation extends Representation
         }
         finally
         {
-            // Make sure we exhaust this iterator in case it has an internal close mechanism
-            while (contentIterator.hasNext())
-                contentIterator.next();
+            if ( contentIterator instanceof Resource )
+            {
+                // Release the underlying results directly, rather than computing the rest of them
+                // only to throw them away, e.g. when the client went away half way through a stream
+                ((Resource) contentIterator).close();
+            }
+            else
+            {
+                // Make sure we exhaust this iterator in case it has an internal close mechanism
+                while (contentIterator.hasNext())
+                    contentIterator.next();
+            }
         }
     }
 
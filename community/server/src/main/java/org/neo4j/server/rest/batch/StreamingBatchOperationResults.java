@@ -94,6 +94,20 @@ public class StreamingBatchOperationResults
                 checkHead();
             }
 
+            @Override
+            public void write( byte[] b, int off, int len ) throws IOException
+            {
+                if ( bytesWritten < HEAD_BUFFER )
+                {
+                    // still sniffing whether the body is json or an error message
+                    super.write( b, off, len );
+                }
+                else
+                {
+                    output.write( b, off, len );
+                }
+            }
+
             @Override
             public boolean isReady()
             {
@@ -19,13 +19,16 @@
  */
 package org.neo4j.server.rest.paging;
 
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
 import org.neo4j.graphdb.Path;
 import org.neo4j.graphdb.traversal.Traverser;
 
+import static org.neo4j.helpers.collection.Iterables.limit;
+import static org.neo4j.helpers.collection.IteratorUtil.asList;
+import static org.neo4j.helpers.collection.IteratorUtil.loop;
+
 public class PagedTraverser implements Iterator<List<Path>>, Iterable<List<Path>>, Leasable
 {
     private final int pageSize;
@@ -40,25 +43,26 @@ public class PagedTraverser implements Iterator<List<Path>>, Iterable<List<Path>
 
     @Override
     public List<Path> next()
+    {
+        Iterable<Path> page = nextPage();
+        return page == null ? null : asList( page );
+    }
+
+    /**
+     * Returns the next page without collecting it first, paths are pulled from the underlying
+     * traversal as the page is iterated. The page must be iterated at most once and before the
+     * next page is requested.
+     *
+     * @return the next page, or {@code null} if all pages have been returned.
+     */
+    public Iterable<Path> nextPage()
     {
         ensureIteratorStarted();
         if ( !iterator.hasNext() )
         {
             return null;
         }
-
-        List<Path> result = new ArrayList<>();
-
-        for ( int i = 0; i < pageSize; i++ )
-        {
-            if ( !iterator.hasNext() )
-            {
-                break;
-            }
-            result.add( iterator.next() );
-        }
-
-        return result;
+        return limit( pageSize, loop( iterator ) );
     }
 
     private void ensureIteratorStarted()
@@ -53,8 +53,9 @@ import static org.neo4j.server.rest.transactional.TransactionHandle.StatementExe
  * {@link org.neo4j.kernel.api.KernelTransaction}; instead a {@link org.neo4j.kernel.api.KernelTransaction} is
  * only created when the first statements need to be executed.
  *
- * At the end of each statement-executing method, the {@link org.neo4j.kernel.api.KernelTransaction} is either
- * suspended (ready to be resumed by a later operation), or committed, or rolled back.
+ * The {@link org.neo4j.kernel.api.KernelTransaction} is bound to the executing thread only while statements are
+ * executed. At the end of each statement-executing method it is either unbound (ready to be picked up by a later
+ * operation on any thread), or committed, or rolled back.
  *
  * If you acquire instances of this class from {@link TransactionHandleRegistry}, it will prevent concurrent access to
  * the same instance. Therefore the implementation assumes that a single instance will only be accessed from
@@ -227,7 +228,6 @@ public class TransactionHandle implements TransactionTerminationHandle
 
     public void forceRollback() throws TransactionFailureException
     {
-        context.resumeSinceTransactionsAreStillThreadBound();
         context.rollback();
     }
 
@@ -245,10 +245,7 @@ public class TransactionHandle implements TransactionTerminationHandle
                 throw new InternalBeginTransactionError( e );
             }
         }
-        else
-        {
-            context.resumeSinceTransactionsAreStillThreadBound();
-        }
+        context.bindToCurrentThread();
     }
 
     private void execute( StatementDeserializer statements, ExecutionResultSerializer output,
@@ -262,7 +259,7 @@ public class TransactionHandle implements TransactionTerminationHandle
         }
         else
         {
-            context.suspendSinceTransactionsAreStillThreadBound();
+            context.unbindFromCurrentThread();
             long lastActiveTimestamp = registry.release( id, this );
             output.transactionStatus( lastActiveTimestamp );
         }
@@ -19,7 +19,6 @@
  */
 package org.neo4j.server.rest.transactional;
 
-import org.neo4j.graphdb.Transaction;
 import org.neo4j.kernel.GraphDatabaseAPI;
 import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
 
@@ -34,14 +33,13 @@ public class TransitionalPeriodTransactionMessContainer
         this.txBridge = db.getDependencyResolver().resolveDependency( ThreadToStatementContextBridge.class );
     }
 
+    /**
+     * Begins a new transaction, which is not bound to the calling thread when this method returns.
+     */
     public TransitionalTxManagementKernelTransaction newTransaction()
     {
-        Transaction tx = db.beginTx();
-        TransactionTerminator txInterruptor = new TransactionTerminator( tx );
-
-        // Get and use the TransactionContext created in db.beginTx(). The role of creating
-        // TransactionContexts will be reversed soonish.
-        return new TransitionalTxManagementKernelTransaction( txInterruptor, txBridge );
+        db.beginTx();
+        return new TransitionalTxManagementKernelTransaction( txBridge.detachTransactionFromCurrentThread() );
     }
 
 }
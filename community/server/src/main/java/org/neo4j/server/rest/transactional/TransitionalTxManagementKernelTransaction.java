@@ -19,76 +19,59 @@
  */
 package org.neo4j.server.rest.transactional;
 
-import org.neo4j.kernel.TopLevelTransaction;
-import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.api.exceptions.TransactionFailureException;
-import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.impl.core.ThreadUnboundTransaction;
 
+/**
+ * The transaction of one {@link TransactionHandle}. It is bound to a thread only while statements are executed in
+ * it, and can be committed, rolled back or terminated from any thread, so a transaction that is held open between
+ * requests does not hold on to any thread.
+ */
 class TransitionalTxManagementKernelTransaction
 {
-    private final TransactionTerminator txTerminator;
-    private final ThreadToStatementContextBridge bridge;
+    private final ThreadUnboundTransaction transaction;
 
-    private TopLevelTransaction suspendedTransaction;
-
-    TransitionalTxManagementKernelTransaction( TransactionTerminator txTerminator, ThreadToStatementContextBridge bridge )
+    TransitionalTxManagementKernelTransaction( ThreadUnboundTransaction transaction )
     {
-        this.txTerminator = txTerminator;
-        this.bridge = bridge;
+        this.transaction = transaction;
     }
 
-    public void suspendSinceTransactionsAreStillThreadBound()
+    public void bindToCurrentThread()
     {
-        assert suspendedTransaction == null : "Can't suspend the transaction if it already is suspended.";
-        suspendedTransaction = bridge.getTopLevelTransactionBoundToThisThread( true );
-        bridge.unbindTransactionFromCurrentThread();
+        transaction.bindToCurrentThread();
     }
 
-    public void resumeSinceTransactionsAreStillThreadBound()
+    public void unbindFromCurrentThread()
     {
-        assert suspendedTransaction != null : "Can't resume the transaction if it has not first been suspended.";
-        bridge.bindTransactionToCurrentThread( suspendedTransaction );
-        suspendedTransaction = null;
+        transaction.unbindFromCurrentThread();
     }
 
     public void terminate()
     {
-        txTerminator.terminate();
+        transaction.terminate();
     }
 
     public void rollback()
     {
         try
         {
-            KernelTransaction kernelTransactionBoundToThisThread = bridge.getKernelTransactionBoundToThisThread( false );
-            kernelTransactionBoundToThisThread.failure();
-            kernelTransactionBoundToThisThread.close();
+            transaction.rollback();
         }
         catch ( TransactionFailureException e )
         {
             throw new RuntimeException( e );
         }
-        finally
-        {
-            bridge.unbindTransactionFromCurrentThread();
-        }
     }
 
     public void commit()
     {
         try
         {
-            KernelTransaction kernelTransactionBoundToThisThread = bridge.getKernelTransactionBoundToThisThread( true );
-            kernelTransactionBoundToThisThread.success();
-            kernelTransactionBoundToThisThread.close();
+            transaction.commit();
         }
         catch ( TransactionFailureException e )
         {
             throw new RuntimeException( e );
         }
-        finally
-        {
-            bridge.unbindTransactionFromCurrentThread();
-        }
     }
 }
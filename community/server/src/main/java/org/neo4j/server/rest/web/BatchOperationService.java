@@ -98,6 +98,12 @@ public class BatchOperationService {
                                 output.write( i );
                             }
 
+                            @Override
+                            public void write( byte[] b, int off, int len ) throws IOException
+                            {
+                                output.write( b, off, len );
+                            }
+
                             @Override
                             public boolean isReady()
                             {
@@ -22,7 +22,6 @@ package org.neo4j.server.rest.web;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -45,6 +44,7 @@ import org.neo4j.graphdb.PropertyContainer;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipExpander;
 import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.ResourceIterable;
 import org.neo4j.graphdb.index.AutoIndexer;
 import org.neo4j.graphdb.index.Index;
 import org.neo4j.graphdb.index.IndexHits;
@@ -58,12 +58,14 @@ import org.neo4j.graphdb.schema.ConstraintType;
 import org.neo4j.graphdb.schema.IndexCreator;
 import org.neo4j.graphdb.schema.IndexDefinition;
 import org.neo4j.graphdb.traversal.TraversalDescription;
+import org.neo4j.graphdb.traversal.Traverser;
 import org.neo4j.helpers.Function;
 import org.neo4j.helpers.Pair;
 import org.neo4j.helpers.Predicate;
 import org.neo4j.helpers.Predicates;
 import org.neo4j.helpers.collection.IterableWrapper;
 import org.neo4j.helpers.collection.Iterables;
+import org.neo4j.helpers.collection.ResourceIterableWrapper;
 import org.neo4j.index.lucene.QueryContext;
 import org.neo4j.kernel.GraphDatabaseAPI;
 import org.neo4j.kernel.Traversal;
@@ -772,7 +774,8 @@ public class DatabaseActions
         final IndexRepresentation indexRepresentation = new NodeIndexRepresentation( indexName );
         final IndexHits<Node> indexHits = index.get( key, value );
 
-        final IterableWrapper<Representation, Node> results = new IterableWrapper<Representation, Node>( indexHits )
+        final ResourceIterableWrapper<Representation, Node> results =
+                new ResourceIterableWrapper<Representation, Node>( indexHits )
         {
             @Override
             protected Representation underlyingObjectToObject( Node node )
@@ -820,7 +823,8 @@ public class DatabaseActions
         {
             return new ListRepresentation( RepresentationType.NODE, Collections.<Representation>emptyList() );
         }
-        final IterableWrapper<Representation, Node> results = new IterableWrapper<Representation, Node>( result )
+        final ResourceIterableWrapper<Representation, Node> results =
+                new ResourceIterableWrapper<Representation, Node>( result )
         {
             @Override
             protected Representation underlyingObjectToObject( Node node )
@@ -848,8 +852,8 @@ public class DatabaseActions
         {
             return new ListRepresentation( RepresentationType.RELATIONSHIP, Collections.<Representation>emptyList() );
         }
-        final IterableWrapper<Representation, Relationship> results = new IterableWrapper<Representation,
-                Relationship>( result )
+        final ResourceIterableWrapper<Representation, Relationship> results =
+                new ResourceIterableWrapper<Representation, Relationship>( result )
         {
             @Override
             protected Representation underlyingObjectToObject( Relationship rel )
@@ -1036,8 +1040,8 @@ public class DatabaseActions
 
         final IndexRepresentation indexRepresentation = new RelationshipIndexRepresentation( indexName );
 
-        IterableWrapper<Representation, Relationship> result =
-                new IterableWrapper<Representation, Relationship>( index.get( key, value ) )
+        ResourceIterableWrapper<Representation, Relationship> result =
+                new ResourceIterableWrapper<Representation, Relationship>( index.get( key, value ) )
                 {
                     @Override
                     protected Representation underlyingObjectToObject( Relationship relationship )
@@ -1097,10 +1101,25 @@ public class DatabaseActions
         Node node = graphDb.getNodeById( startNode );
 
         TraversalDescription traversalDescription = traversalDescriptionBuilder.from( description );
-        final Iterable<Path> paths = traversalDescription.traverse( node );
+        final Traverser paths = traversalDescription.traverse( node );
         return toListPathRepresentation( paths, returnType );
     }
 
+    private ListRepresentation toListPathRepresentation( final ResourceIterable<Path> paths,
+                                                         final TraverserReturnType returnType )
+    {
+        final ResourceIterableWrapper<Representation, Path> result =
+                new ResourceIterableWrapper<Representation, Path>( paths )
+        {
+            @Override
+            protected Representation underlyingObjectToObject( Path position )
+            {
+                return returnType.toRepresentation( position );
+            }
+        };
+        return new ListRepresentation( returnType.repType, result );
+    }
+
     private ListRepresentation toListPathRepresentation( final Iterable<Path> paths,
                                                          final TraverserReturnType returnType )
     {
@@ -1126,7 +1145,7 @@ public class DatabaseActions
         }
 
         PagedTraverser traverser = lease.getLeasedItemAndRenewLease();
-        List<Path> paths = traverser.next();
+        Iterable<Path> paths = traverser.nextPage();
 
         if ( paths != null )
         {
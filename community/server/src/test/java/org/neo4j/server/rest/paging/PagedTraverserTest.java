@@ -19,6 +19,7 @@
  */
 package org.neo4j.server.rest.paging;
 
+import java.util.Iterator;
 import java.util.List;
 
 import org.junit.Before;
@@ -118,6 +119,24 @@ public class PagedTraverserTest
         assertNull( traversalPager.next() );
     }
 
+    @Test
+    public void shouldOnlyPullPathsFromTraversalWhenPageIsIterated()
+    {
+        try ( Transaction transaction = dbRule.getGraphDatabaseService().beginTx() )
+        {
+            PagedTraverser traversalPager = new PagedTraverser( simpleListTraverser(), 10 );
+
+            Iterator<Path> firstPage = traversalPager.nextPage().iterator();
+            assertEquals( 0, firstPage.next().length() );
+            assertEquals( 1, firstPage.next().length() );
+
+            // The rest of the first page was never pulled, so the next page picks up right after it
+            Iterator<Path> secondPage = traversalPager.nextPage().iterator();
+            assertEquals( 2, secondPage.next().length() );
+            transaction.success();
+        }
+    }
+
     private Traverser simpleListTraverser()
     {
         return Traversal.description()
@@ -126,7 +126,7 @@ public class TransactionHandleTest
 
         // then
         InOrder transactionOrder = inOrder( transactionContext, registry );
-        transactionOrder.verify( transactionContext ).suspendSinceTransactionsAreStillThreadBound();
+        transactionOrder.verify( transactionContext ).unbindFromCurrentThread();
         transactionOrder.verify( registry ).release( 1337l, handle );
 
         InOrder outputOrder = inOrder( output );
@@ -168,9 +168,9 @@ public class TransactionHandleTest
 
         // then
         InOrder order = inOrder( transactionContext, registry, executionEngine );
-        order.verify( transactionContext ).resumeSinceTransactionsAreStillThreadBound();
+        order.verify( transactionContext ).bindToCurrentThread();
         order.verify( executionEngine ).executeQuery( "query", map(), querySession );
-        order.verify( transactionContext ).suspendSinceTransactionsAreStillThreadBound();
+        order.verify( transactionContext ).unbindFromCurrentThread();
         order.verify( registry ).release( 1337l, handle );
 
         InOrder outputOrder = inOrder( output );
@@ -31,6 +31,7 @@ import org.neo4j.com.Response;
 import org.neo4j.com.TargetCaller;
 import org.neo4j.com.monitor.RequestMonitor;
 import org.neo4j.com.storecopy.ResponseUnpacker;
+import org.neo4j.com.storecopy.StoreFileChecksums;
 import org.neo4j.com.storecopy.StoreWriter;
 import org.neo4j.com.storecopy.ToNetworkStoreWriter;
 import org.neo4j.kernel.impl.store.StoreId;
@@ -69,6 +70,13 @@ class BackupClient extends Client<TheBackupInterface> implements TheBackupInterf
                 Protocol.VOID_DESERIALIZER );
     }
 
+    @Override
+    public Response<Void> differentialBackup( StoreFileChecksums checksums, StoreWriter storeWriter )
+    {
+        return sendRequest( BackupRequestType.DIFFERENTIAL_BACKUP, RequestContext.EMPTY, checksums,
+                new Protocol.FileStreamsDeserializer( storeWriter ) );
+    }
+
     @Override
     protected boolean shouldCheckStoreId( RequestType<TheBackupInterface> type )
     {
@@ -94,6 +102,16 @@ class BackupClient extends Client<TheBackupInterface> implements TheBackupInterf
             {
                 return master.incrementalBackup( context );
             }
+        }, Protocol.VOID_SERIALIZER ),
+        DIFFERENTIAL_BACKUP( new TargetCaller<TheBackupInterface, Void>()
+        {
+            @Override
+            public Response<Void> call( TheBackupInterface master, RequestContext context,
+                    ChannelBuffer input, ChannelBuffer target )
+            {
+                return master.differentialBackup( StoreFileChecksums.read( input ),
+                        new ToNetworkStoreWriter( target, new Monitors() ) );
+            }
         }, Protocol.VOID_SERIALIZER )
 
         ;
@@ -21,8 +21,10 @@ package org.neo4j.backup;
 
 import org.neo4j.com.RequestContext;
 import org.neo4j.com.Response;
+import org.neo4j.com.storecopy.ChangedBlocksStoreWriter;
 import org.neo4j.com.storecopy.ResponsePacker;
 import org.neo4j.com.storecopy.StoreCopyServer;
+import org.neo4j.com.storecopy.StoreFileChecksums;
 import org.neo4j.com.storecopy.StoreWriter;
 import org.neo4j.helpers.Provider;
 import org.neo4j.kernel.impl.store.StoreId;
@@ -78,4 +80,11 @@ class BackupImpl implements TheBackupInterface
     {
         return incrementalResponsePacker.packTransactionStreamResponse( context, null );
     }
+
+    @Override
+    public Response<Void> differentialBackup( StoreFileChecksums checksums, StoreWriter writer )
+    {
+        // A full backup where only the blocks the client doesn't already have are sent
+        return fullBackup( new ChangedBlocksStoreWriter( writer, checksums ) );
+    }
 }
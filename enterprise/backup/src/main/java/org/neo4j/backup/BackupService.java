@@ -30,9 +30,11 @@ import java.util.Map;
 import org.neo4j.com.RequestContext;
 import org.neo4j.com.Response;
 import org.neo4j.com.monitor.RequestMonitor;
+import org.neo4j.com.storecopy.PatchingStoreWriter;
 import org.neo4j.com.storecopy.ResponseUnpacker;
 import org.neo4j.com.storecopy.ResponseUnpacker.TxHandler;
 import org.neo4j.com.storecopy.StoreCopyClient;
+import org.neo4j.com.storecopy.StoreFileChecksums;
 import org.neo4j.com.storecopy.StoreWriter;
 import org.neo4j.com.storecopy.TransactionCommittingResponseUnpacker;
 import org.neo4j.consistency.ConsistencyCheckService;
@@ -47,6 +49,7 @@ import org.neo4j.helpers.progress.ProgressListener;
 import org.neo4j.helpers.progress.ProgressMonitorFactory;
 import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.io.fs.FileUtils;
+import org.neo4j.io.fs.StoreChannel;
 import org.neo4j.kernel.DefaultFileSystemAbstraction;
 import org.neo4j.kernel.GraphDatabaseAPI;
 import org.neo4j.kernel.InternalAbstractGraphDatabase;
@@ -56,8 +59,10 @@ import org.neo4j.kernel.extension.KernelExtensionFactory;
 import org.neo4j.kernel.impl.store.MismatchingStoreIdException;
 import org.neo4j.kernel.impl.store.NeoStore;
 import org.neo4j.kernel.impl.store.StoreId;
+import org.neo4j.kernel.impl.store.record.NeoStoreUtil;
 import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
 import org.neo4j.kernel.impl.transaction.log.MissingLogDataException;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogFile;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
 import org.neo4j.kernel.impl.util.StringLogger;
 import org.neo4j.kernel.logging.ConsoleLogger;
@@ -68,6 +73,7 @@ import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.kernel.monitoring.StoreCopyMonitor;
 
 import static org.neo4j.com.RequestContext.anonymous;
+import static org.neo4j.io.fs.FileUtils.relativePath;
 
 /**
  * Client-side convenience service for doing backups from a running database instance.
@@ -181,21 +187,133 @@ class BackupService
         bumpMessagesDotLogFile( targetDirectory, timestamp );
         if ( checkConsistency )
         {
-            try
+            consistent = checkConsistency( targetDirectory, tuningConfiguration );
+        }
+        return new BackupOutcome( lastCommittedTx, consistent );
+    }
+
+    /**
+     * Brings an existing backup up to date by copying the store again, where only the blocks of the store
+     * files that differ from the ones in the backup are transferred. Unlike an incremental backup this
+     * doesn't need the transactions since the last backup to still be in the logs of the database,
+     * it's what {@link #doIncrementalBackupOrFallbackToFull} falls back to when they are not.
+     */
+    BackupOutcome doDifferentialBackup( final String sourceHostNameOrIp, final int sourcePort, String targetDirectory,
+            boolean checkConsistency, Config tuningConfiguration, final long timeout )
+    {
+        if ( !directoryContainsDb( targetDirectory ) )
+        {
+            throw new RuntimeException( targetDirectory + " doesn't contain a database" );
+        }
+        final File storeDir = new File( targetDirectory );
+        Map<String, String> params = tuningConfiguration.getParams();
+        params.put( GraphDatabaseSettings.store_dir.name(), targetDirectory );
+        tuningConfiguration.applyChanges( params );
+        long timestamp = System.currentTimeMillis();
+        long lastCommittedTx = -1;
+        boolean consistent = !checkConsistency; // default to true if we're not checking consistency
+        GraphDatabaseAPI targetDb = null;
+        try
+        {
+            NeoStoreUtil neoStore = new NeoStoreUtil( storeDir, fileSystem );
+            final StoreId storeId = new StoreId( neoStore.getCreationTime(), neoStore.getStoreId(),
+                    neoStore.getStoreVersion(), -1, -1 );
+            final StoreFileChecksums checksums = new StoreFileChecksums();
+            addStoreFileChecksums( storeDir, storeDir, checksums );
+            logger.info( "Differential backup comparing " + checksums.numberOfFiles() + " store files" );
+
+            StoreCopyClient storeCopier = new StoreCopyClient( tuningConfiguration, loadKernelExtensions(),
+                    new ConsoleLogger( StringLogger.SYSTEM ), new DevNullLoggingService(),
+                    new DefaultFileSystemAbstraction(), new Monitors().newMonitor( StoreCopyMonitor.class, getClass() ) );
+            storeCopier.copyStore( new StoreCopyClient.StoreCopyRequester()
             {
-                consistent = new ConsistencyCheckService().runFullConsistencyCheck( targetDirectory,
-                        tuningConfiguration, ProgressMonitorFactory.textual( System.err ), logger ).isSuccessful();
+                private BackupClient client;
+
+                @Override
+                public Response<?> copyStore( StoreWriter writer )
+                {
+                    Monitors monitors = new Monitors();
+                    client = new BackupClient( sourceHostNameOrIp, sourcePort, new DevNullLoggingService(),
+                            storeId, timeout, ResponseUnpacker.NO_OP_RESPONSE_UNPACKER,
+                            monitors.newMonitor( ByteCounterMonitor.class ),
+                            monitors.newMonitor( RequestMonitor.class ) );
+                    client.start();
+                    return client.differentialBackup( checksums,
+                            new PatchingStoreWriter( writer, fileSystem, storeDir ) );
+                }
+
+                @Override
+                public void done()
+                {
+                    client.stop();
+                }
+            }, CancellationRequest.NEVER_CANCELLED );
+
+            targetDb = startTemporaryDb( targetDirectory );
+        }
+        catch ( MismatchingStoreIdException e )
+        {
+            throw new RuntimeException( DIFFERENT_STORE, e );
+        }
+        catch ( IOException e )
+        {
+            throw new RuntimeException( e );
+        }
+        finally
+        {
+            if ( targetDb != null )
+            {
+                targetDb.shutdown();
             }
-            catch ( ConsistencyCheckIncompleteException e )
+        }
+        bumpMessagesDotLogFile( targetDirectory, timestamp );
+        if ( checkConsistency )
+        {
+            consistent = checkConsistency( targetDirectory, tuningConfiguration );
+        }
+        return new BackupOutcome( lastCommittedTx, consistent );
+    }
+
+    private void addStoreFileChecksums( File storeDir, File directory, StoreFileChecksums checksums )
+            throws IOException
+    {
+        for ( File file : fileSystem.listFiles( directory ) )
+        {
+            String name = file.getName();
+            if ( fileSystem.isDirectory( file ) )
             {
-                logger.error( "Consistency check incomplete", e );
+                if ( !name.equals( StoreCopyClient.TEMP_COPY_DIRECTORY_NAME ) )
+                {
+                    addStoreFileChecksums( storeDir, file, checksums );
+                }
             }
-            finally
+            else if ( !name.endsWith( ".id" ) && !name.startsWith( PhysicalLogFile.DEFAULT_NAME )
+                    && !name.startsWith( StringLogger.DEFAULT_NAME ) )
             {
-                logger.flush();
+                try ( StoreChannel channel = fileSystem.open( file, "r" ) )
+                {
+                    checksums.add( relativePath( storeDir, file ), StoreFileChecksums.checksumsOf( channel ) );
+                }
             }
         }
-        return new BackupOutcome( lastCommittedTx, consistent );
+    }
+
+    private boolean checkConsistency( String targetDirectory, Config tuningConfiguration )
+    {
+        try
+        {
+            return new ConsistencyCheckService().runFullConsistencyCheck( targetDirectory,
+                    tuningConfiguration, ProgressMonitorFactory.textual( System.err ), logger ).isSuccessful();
+        }
+        catch ( ConsistencyCheckIncompleteException e )
+        {
+            logger.error( "Consistency check incomplete", e );
+            return false;
+        }
+        finally
+        {
+            logger.flush();
+        }
     }
 
     BackupOutcome doIncrementalBackup( String sourceHostNameOrIp, int sourcePort, String targetDirectory,
@@ -242,6 +360,23 @@ class BackupService
         }
         catch ( IncrementalBackupNotPossibleException e )
         {
+            try
+            {
+                // The transactions since our existing backup are gone, only transfer the parts of the store
+                // that changed since then instead.
+                logger.info( "Existing backup is too far out of date, a differential backup will be performed." );
+                return doDifferentialBackup( sourceHostNameOrIp, sourcePort, targetDirectory, verification, config,
+                        timeout );
+            }
+            catch ( RuntimeException differentialBackupFailure )
+            {
+                if ( DIFFERENT_STORE.equals( differentialBackupFailure.getMessage() ) )
+                {
+                    throw differentialBackupFailure;
+                }
+                logger.warn( "Differential backup failed, a new full backup will be performed.",
+                        differentialBackupFailure );
+            }
             try
             {
                 // Our existing backup is out of date.
@@ -81,7 +81,9 @@ public class OnlineBackup
      * If the target directory does not contain a database, a full backup will be performed, otherwise an incremental
      * backup mechanism is used.
      *
-     * If the backup has become too far out of date for an incremental backup to succeed, a full backup is performed.
+     * If the backup has become too far out of date for an incremental backup to succeed, a differential backup is
+     * performed, which only transfers the parts of the store files that changed. Should that fail as well, a full
+     * backup is performed.
      *
      *
      * @param targetDirectory A directory holding a complete database previously obtained from the backup server.
@@ -103,7 +105,9 @@ public class OnlineBackup
      * If the target directory does not contain a database, a full backup will be performed, otherwise an incremental
      * backup mechanism is used.
      *
-     * If the backup has become too far out of date for an incremental backup to succeed, a full backup is performed.
+     * If the backup has become too far out of date for an incremental backup to succeed, a differential backup is
+     * performed, which only transfers the parts of the store files that changed. Should that fail as well, a full
+     * backup is performed.
      *
      *
      * @param targetDirectory A directory holding a complete database previously obtained from the backup server.
@@ -125,7 +129,9 @@ public class OnlineBackup
      * If the target directory does not contain a database, a full backup will be performed, otherwise an incremental
      * backup mechanism is used.
      *
-     * If the backup has become too far out of date for an incremental backup to succeed, a full backup is performed.
+     * If the backup has become too far out of date for an incremental backup to succeed, a differential backup is
+     * performed, which only transfers the parts of the store files that changed. Should that fail as well, a full
+     * backup is performed.
      *
      * @param targetDirectory A directory holding a complete database previously obtained from the backup server.
      * @param tuningConfiguration The {@link Config} to use when running the consistency check
@@ -147,7 +153,9 @@ public class OnlineBackup
      * If the target directory does not contain a database, a full backup will be performed, otherwise an incremental
      * backup mechanism is used.
      *
-     * If the backup has become too far out of date for an incremental backup to succeed, a full backup is performed.
+     * If the backup has become too far out of date for an incremental backup to succeed, a differential backup is
+     * performed, which only transfers the parts of the store files that changed. Should that fail as well, a full
+     * backup is performed.
      *
      * @param targetDirectory A directory holding a complete database previously obtained from the backup server.
      * @param tuningConfiguration The {@link Config} to use when running the consistency check
@@ -435,6 +435,36 @@ public class BackupServiceIT
         assertEquals( DbRepresentation.of( storeDir ), DbRepresentation.of( backupDir ) );
     }
 
+    @Test
+    public void shouldBringBackupUpToDateWithDifferentialBackupAfterLogsHaveBeenPruned() throws Exception
+    {
+        // Given
+        Map<String,String> config = defaultBackupPortHostParams();
+        config.put( GraphDatabaseSettings.keep_logical_logs.name(), "false" );
+        GraphDatabaseAPI db = createDb( storeDir, config );
+        BackupService backupService = new BackupService( fileSystem );
+
+        createAndIndexNode( db, 1 );
+
+        // A full backup
+        backupService.doFullBackup( BACKUP_HOST, backupPort, backupDir.getAbsolutePath(),
+                false, defaultConfig(), BackupClient.BIG_READ_TIMEOUT );
+
+        // And the log the backup uses is rotated out
+        createAndIndexNode( db, 2 );
+        rotate( db );
+        createAndIndexNode( db, 3 );
+        rotate( db );
+
+        // when
+        backupService.doDifferentialBackup( BACKUP_HOST, backupPort, backupDir.getAbsolutePath(),
+                false, defaultConfig(), BackupClient.BIG_READ_TIMEOUT );
+
+        // Then
+        db.shutdown();
+        assertEquals( DbRepresentation.of( storeDir ), DbRepresentation.of( backupDir ) );
+    }
+
     private void rotate( GraphDatabaseAPI db ) throws IOException
     {
         db.getDependencyResolver().resolveDependency( LogRotation.class ).rotateLogFile();
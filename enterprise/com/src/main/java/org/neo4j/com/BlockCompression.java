@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A small LZ77 block compressor in the style of LZ4, favouring speed over ratio. A compressed block is a series
+ * of sequences, each made up of a token byte, literals and a back reference into the already decompressed data:
+ * <pre>
+ * token:         4 high bits literal length, 4 low bits match length - {@link #MIN_MATCH}
+ * [length+]:     if the literal length is 15, more bytes follow which are added until one is not 255
+ * literals
+ * offset:        2 bytes little endian, distance back to the start of the match
+ * [length+]:     if the match length nibble is 15, more bytes follow like for literals
+ * </pre>
+ * The last sequence of a block has literals only, and no offset.
+ */
+public final class BlockCompression
+{
+    static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int HASH_LOG = 12;
+    private static final int MASK = 15;
+
+    private BlockCompression()
+    {
+        throw new AssertionError( "Not for instantiation" );
+    }
+
+    /**
+     * @return the largest number of bytes {@link #compress(byte[], int, byte[], int[])} can produce for
+     * {@code length} bytes of input.
+     */
+    public static int maxCompressedLength( int length )
+    {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses the first {@code length} bytes of {@code source} into {@code target}, which must have room for at
+     * least {@link #maxCompressedLength(int)} bytes.
+     *
+     * @param hashTable scratch space of at least {@code 1 << 12} ints, reused between calls to avoid garbage.
+     * @return number of bytes written into {@code target}.
+     */
+    public static int compress( byte[] source, int length, byte[] target, int[] hashTable )
+    {
+        Arrays.fill( hashTable, -1 );
+        int anchor = 0;
+        int out = 0;
+        int i = 0;
+        while ( i <= length - MIN_MATCH )
+        {
+            int sequence = readInt( source, i );
+            int hash = hash( sequence );
+            int reference = hashTable[hash];
+            hashTable[hash] = i;
+            if ( reference >= 0 && i - reference <= MAX_OFFSET && readInt( source, reference ) == sequence )
+            {
+                int matchLength = MIN_MATCH;
+                while ( i + matchLength < length && source[reference + matchLength] == source[i + matchLength] )
+                {
+                    matchLength++;
+                }
+
+                int literalLength = i - anchor;
+                int token = out++;
+                target[token] = (byte) ((Math.min( literalLength, MASK ) << 4) | Math.min( matchLength - MIN_MATCH, MASK ));
+                out = writeLength( target, out, literalLength );
+                System.arraycopy( source, anchor, target, out, literalLength );
+                out += literalLength;
+                int offset = i - reference;
+                target[out++] = (byte) offset;
+                target[out++] = (byte) (offset >>> 8);
+                out = writeLength( target, out, matchLength - MIN_MATCH );
+
+                i += matchLength;
+                anchor = i;
+            }
+            else
+            {
+                i++;
+            }
+        }
+
+        int literalLength = length - anchor;
+        target[out++] = (byte) (Math.min( literalLength, MASK ) << 4);
+        out = writeLength( target, out, literalLength );
+        System.arraycopy( source, anchor, target, out, literalLength );
+        return out + literalLength;
+    }
+
+    /**
+     * Decompresses {@code length} bytes of {@code source}, produced by
+     * {@link #compress(byte[], int, byte[], int[])}, into {@code target}.
+     *
+     * @return number of bytes written into {@code target}.
+     * @throws IOException if the compressed data is malformed.
+     */
+    public static int decompress( byte[] source, int length, byte[] target ) throws IOException
+    {
+        try
+        {
+            int in = 0;
+            int out = 0;
+            while ( true )
+            {
+                int token = source[in++] & 0xFF;
+                int literalLength = token >>> 4;
+                if ( literalLength == MASK )
+                {
+                    int next;
+                    do
+                    {
+                        next = source[in++] & 0xFF;
+                        literalLength += next;
+                    }
+                    while ( next == 255 );
+                }
+                System.arraycopy( source, in, target, out, literalLength );
+                in += literalLength;
+                out += literalLength;
+                if ( in >= length )
+                {
+                    return out;
+                }
+
+                int offset = (source[in++] & 0xFF) | ((source[in++] & 0xFF) << 8);
+                int matchLength = token & MASK;
+                if ( matchLength == MASK )
+                {
+                    int next;
+                    do
+                    {
+                        next = source[in++] & 0xFF;
+                        matchLength += next;
+                    }
+                    while ( next == 255 );
+                }
+                matchLength += MIN_MATCH;
+
+                // Byte by byte since the match may overlap the bytes it produces
+                int reference = out - offset;
+                if ( offset == 0 || reference < 0 )
+                {
+                    throw new IOException( "Invalid match offset " + offset + " at " + out );
+                }
+                for ( int j = 0; j < matchLength; j++ )
+                {
+                    target[out++] = target[reference++];
+                }
+            }
+        }
+        catch ( ArrayIndexOutOfBoundsException e )
+        {
+            throw new IOException( "Malformed compressed block", e );
+        }
+    }
+
+    public static int[] newHashTable()
+    {
+        return new int[1 << HASH_LOG];
+    }
+
+    private static int writeLength( byte[] target, int out, int length )
+    {
+        if ( length >= MASK )
+        {
+            int remaining = length - MASK;
+            while ( remaining >= 255 )
+            {
+                target[out++] = (byte) 255;
+                remaining -= 255;
+            }
+            target[out++] = (byte) remaining;
+        }
+        return out;
+    }
+
+    private static int readInt( byte[] source, int index )
+    {
+        return (source[index] & 0xFF) | ((source[index + 1] & 0xFF) << 8) |
+               ((source[index + 2] & 0xFF) << 16) | ((source[index + 3] & 0xFF) << 24);
+    }
+
+    private static int hash( int sequence )
+    {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+
+import org.neo4j.kernel.monitoring.ByteCounterMonitor;
+
+/**
+ * Writes the contents of a {@link ReadableByteChannel} to a {@link ChannelBuffer} in blocks of
+ * {@link #BLOCK_SIZE} bytes, to be read by {@link CompressedBlockLogReader}. Every block starts with a type byte:
+ * <ul>
+ * <li>{@link #ZERO_BLOCK}, followed by the block length. The block contained only zeros, which is common for
+ * sparse record stores, so no data is sent.</li>
+ * <li>{@link #COMPRESSED_BLOCK}, followed by the block length, the compressed length and the data compressed
+ * with {@link BlockCompression}.</li>
+ * <li>{@link #RAW_BLOCK}, followed by the block length and the data as is, if compression didn't make it
+ * smaller.</li>
+ * </ul>
+ * The stream ends with an {@link #END_OF_STREAM} byte, written by {@link #close()}.
+ */
+public class CompressedBlockLogBuffer implements Closeable
+{
+    static final byte END_OF_STREAM = 0;
+    static final byte RAW_BLOCK = 1;
+    static final byte ZERO_BLOCK = 2;
+    static final byte COMPRESSED_BLOCK = 3;
+    static final int BLOCK_SIZE = 8192;
+
+    private final ChannelBuffer target;
+    private final ByteCounterMonitor monitor;
+    private final byte[] block = new byte[BLOCK_SIZE];
+    private final ByteBuffer blockBuffer = ByteBuffer.wrap( block );
+    private final byte[] compressed = new byte[BlockCompression.maxCompressedLength( BLOCK_SIZE )];
+    private final int[] hashTable = BlockCompression.newHashTable();
+
+    public CompressedBlockLogBuffer( ChannelBuffer target, ByteCounterMonitor monitor )
+    {
+        this.target = target;
+        this.monitor = monitor;
+    }
+
+    /**
+     * @return number of bytes written to the target buffer.
+     */
+    public long write( ReadableByteChannel data ) throws IOException
+    {
+        long written = 0;
+        while ( true )
+        {
+            blockBuffer.clear();
+            while ( blockBuffer.hasRemaining() && data.read( blockBuffer ) >= 0 )
+            {
+                // Fill up the whole block, or until the end of the data
+            }
+            int length = blockBuffer.position();
+            if ( length > 0 )
+            {
+                written += writeBlock( length );
+            }
+            if ( length < BLOCK_SIZE )
+            {
+                return written;
+            }
+        }
+    }
+
+    private int writeBlock( int length )
+    {
+        int written;
+        if ( isAllZeros( length ) )
+        {
+            target.writeByte( ZERO_BLOCK );
+            target.writeInt( length );
+            written = 5;
+        }
+        else
+        {
+            int compressedLength = BlockCompression.compress( block, length, compressed, hashTable );
+            if ( compressedLength < length )
+            {
+                target.writeByte( COMPRESSED_BLOCK );
+                target.writeInt( length );
+                target.writeInt( compressedLength );
+                target.writeBytes( compressed, 0, compressedLength );
+                written = 9 + compressedLength;
+            }
+            else
+            {
+                target.writeByte( RAW_BLOCK );
+                target.writeInt( length );
+                target.writeBytes( block, 0, length );
+                written = 5 + length;
+            }
+        }
+        monitor.bytesWritten( written );
+        return written;
+    }
+
+    private boolean isAllZeros( int length )
+    {
+        for ( int i = 0; i < length; i++ )
+        {
+            if ( block[i] != 0 )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Signals the end of the stream to the reading side.
+     */
+    @Override
+    public void close()
+    {
+        target.writeByte( END_OF_STREAM );
+        monitor.bytesWritten( 1 );
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+
+import static org.neo4j.com.CompressedBlockLogBuffer.BLOCK_SIZE;
+import static org.neo4j.com.CompressedBlockLogBuffer.COMPRESSED_BLOCK;
+import static org.neo4j.com.CompressedBlockLogBuffer.END_OF_STREAM;
+import static org.neo4j.com.CompressedBlockLogBuffer.RAW_BLOCK;
+import static org.neo4j.com.CompressedBlockLogBuffer.ZERO_BLOCK;
+
+/**
+ * The counterpart of {@link CompressedBlockLogBuffer}, sits on the receiving end and decodes the blocks
+ * coming from the provided {@link ChannelBuffer} back into the original data.
+ */
+public class CompressedBlockLogReader implements ReadableByteChannel
+{
+    private final ChannelBuffer source;
+    private final byte[] block = new byte[BLOCK_SIZE];
+    private final ByteBuffer blockBuffer = ByteBuffer.wrap( block );
+    private final byte[] compressed = new byte[BlockCompression.maxCompressedLength( BLOCK_SIZE )];
+    private boolean moreBlocks = true;
+
+    public CompressedBlockLogReader( ChannelBuffer source )
+    {
+        this.source = source;
+        blockBuffer.limit( 0 );
+    }
+
+    /**
+     * Reads the next block into the block buffer, flipped and ready to be read from.
+     *
+     * @return whether or not there was another block.
+     */
+    private boolean readNextBlock() throws IOException
+    {
+        byte type = source.readByte();
+        blockBuffer.clear();
+        switch ( type )
+        {
+        case END_OF_STREAM:
+            moreBlocks = false;
+            blockBuffer.limit( 0 );
+            return false;
+        case ZERO_BLOCK:
+        {
+            int length = readBlockLength();
+            Arrays.fill( block, 0, length, (byte) 0 );
+            blockBuffer.limit( length );
+            return true;
+        }
+        case RAW_BLOCK:
+        {
+            int length = readBlockLength();
+            source.readBytes( block, 0, length );
+            blockBuffer.limit( length );
+            return true;
+        }
+        case COMPRESSED_BLOCK:
+        {
+            int length = readBlockLength();
+            int compressedLength = source.readInt();
+            if ( compressedLength < 0 || compressedLength > compressed.length )
+            {
+                throw new IOException( "Illegal compressed block length " + compressedLength + ", expected at most " +
+                        compressed.length );
+            }
+            source.readBytes( compressed, 0, compressedLength );
+            int decompressedLength = BlockCompression.decompress( compressed, compressedLength, block );
+            if ( decompressedLength != length )
+            {
+                throw new IOException( "Expected block of " + length + " bytes, but got " + decompressedLength );
+            }
+            blockBuffer.limit( length );
+            return true;
+        }
+        default:
+            throw new IOException( "Unknown block type " + type );
+        }
+    }
+
+    private int readBlockLength() throws IOException
+    {
+        int length = source.readInt();
+        if ( length < 0 || length > BLOCK_SIZE )
+        {
+            throw new IOException( "Illegal block length " + length + ", expected at most " + BLOCK_SIZE );
+        }
+        return length;
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        // This is to make sure that reader index in the ChannelBuffer is left
+        // in the right place even if this reader wasn't completely read through.
+        while ( moreBlocks )
+        {
+            readNextBlock();
+        }
+    }
+
+    @Override
+    public int read( ByteBuffer dst ) throws IOException
+    {
+        int bytesRead = 0;
+        while ( dst.hasRemaining() )
+        {
+            if ( !blockBuffer.hasRemaining() && (!moreBlocks || !readNextBlock()) )
+            {
+                break;
+            }
+            int bytesToRead = Math.min( dst.remaining(), blockBuffer.remaining() );
+            dst.put( block, blockBuffer.position(), bytesToRead );
+            blockBuffer.position( blockBuffer.position() + bytesToRead );
+            bytesRead += bytesToRead;
+        }
+        return bytesRead == 0 && !moreBlocks ? -1 : bytesRead;
+    }
+}
@@ -284,10 +284,20 @@ public abstract class Protocol
     public static class FileStreamsDeserializer implements Deserializer<Void>
     {
         private final StoreWriter writer;
+        private final boolean compressed;
 
         public FileStreamsDeserializer( StoreWriter writer )
+        {
+            this( writer, false );
+        }
+
+        /**
+         * @param compressed whether the file data was sent as {@link CompressedBlockLogBuffer compressed blocks}.
+         */
+        public FileStreamsDeserializer( StoreWriter writer, boolean compressed )
         {
             this.writer = writer;
+            this.compressed = compressed;
         }
 
         // NOTICE: this assumes a "smart" ChannelBuffer that continues to next chunk
@@ -299,7 +309,17 @@ public abstract class Protocol
             {
                 String path = readString( buffer, pathLength );
                 boolean hasData = buffer.readByte() == 1;
-                writer.write( path, hasData ? new BlockLogReader( buffer ) : null, temporaryBuffer, hasData );
+                if ( hasData && compressed )
+                {
+                    try ( CompressedBlockLogReader reader = new CompressedBlockLogReader( buffer ) )
+                    {
+                        writer.write( path, reader, temporaryBuffer, true );
+                    }
+                }
+                else
+                {
+                    writer.write( path, hasData ? new BlockLogReader( buffer ) : null, temporaryBuffer, hasData );
+                }
             }
             writer.close();
             return null;
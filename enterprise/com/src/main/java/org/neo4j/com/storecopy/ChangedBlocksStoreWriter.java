@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com.storecopy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+
+import static org.neo4j.com.storecopy.StoreFileChecksums.BLOCK_SIZE;
+import static org.neo4j.com.storecopy.StoreFileChecksums.checksum;
+import static org.neo4j.com.storecopy.StoreFileChecksums.newDigest;
+import static org.neo4j.com.storecopy.StoreFileChecksums.readBlock;
+
+/**
+ * Decorates a {@link StoreWriter} so that, of each file, only the blocks that differ from the given
+ * {@link StoreFileChecksums} are written. A {@link PatchingStoreWriter} on the receiving end applies
+ * them on top of the files it already has.
+ *
+ * The data written for a file is the sequence of its changed blocks, each one as its block index and
+ * length followed by its bytes, ended by {@link #END_OF_BLOCKS} and the total length of the file.
+ */
+public class ChangedBlocksStoreWriter implements StoreWriter
+{
+    static final int END_OF_BLOCKS = -1;
+
+    private final StoreWriter delegate;
+    private final StoreFileChecksums knownChecksums;
+
+    public ChangedBlocksStoreWriter( StoreWriter delegate, StoreFileChecksums knownChecksums )
+    {
+        this.delegate = delegate;
+        this.knownChecksums = knownChecksums;
+    }
+
+    @Override
+    public long write( String path, ReadableByteChannel data, ByteBuffer temporaryBuffer, boolean hasData )
+            throws IOException
+    {
+        if ( !hasData )
+        {
+            return delegate.write( path, data, temporaryBuffer, false );
+        }
+        return delegate.write( path, new ChangedBlocksChannel( data, knownChecksums.checksumsFor( path ) ),
+                temporaryBuffer, true );
+    }
+
+    @Override
+    public void close()
+    {
+        delegate.close();
+    }
+
+    static int transfer( ByteBuffer from, ByteBuffer to )
+    {
+        int count = Math.min( from.remaining(), to.remaining() );
+        ByteBuffer slice = from.duplicate();
+        slice.limit( slice.position() + count );
+        to.put( slice );
+        from.position( from.position() + count );
+        return count;
+    }
+
+    private static class ChangedBlocksChannel implements ReadableByteChannel
+    {
+        private final ReadableByteChannel source;
+        private final long[] knownChecksums;
+        private final MessageDigest digest = newDigest();
+        private final ByteBuffer header = ByteBuffer.allocate( 12 );
+        private final ByteBuffer block = ByteBuffer.allocate( BLOCK_SIZE );
+        private boolean blockChanged;
+        private int blockIndex;
+        private long fileLength;
+        private boolean ended;
+        private boolean open = true;
+
+        ChangedBlocksChannel( ReadableByteChannel source, long[] knownChecksums )
+        {
+            this.source = source;
+            this.knownChecksums = knownChecksums;
+            header.limit( 0 );
+        }
+
+        @Override
+        public int read( ByteBuffer dst ) throws IOException
+        {
+            int written = 0;
+            while ( dst.hasRemaining() )
+            {
+                if ( header.hasRemaining() )
+                {
+                    written += transfer( header, dst );
+                }
+                else if ( blockChanged && block.hasRemaining() )
+                {
+                    written += transfer( block, dst );
+                }
+                else if ( !ended )
+                {
+                    nextChangedBlock();
+                }
+                else
+                {
+                    break;
+                }
+            }
+            return written == 0 && ended && !header.hasRemaining() ? -1 : written;
+        }
+
+        private void nextChangedBlock() throws IOException
+        {
+            header.clear();
+            blockChanged = false;
+            int length;
+            while ( (length = readBlock( source, block )) > 0 )
+            {
+                int index = blockIndex++;
+                fileLength += length;
+                if ( index >= knownChecksums.length || knownChecksums[index] != checksum( digest, block ) )
+                {
+                    header.putInt( index ).putInt( length );
+                    blockChanged = true;
+                    break;
+                }
+            }
+            if ( !blockChanged )
+            {
+                header.putInt( END_OF_BLOCKS ).putLong( fileLength );
+                ended = true;
+            }
+            header.flip();
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return open;
+        }
+
+        @Override
+        public void close()
+        {
+            // The source is owned, and closed, by the caller
+            open = false;
+        }
+    }
+}
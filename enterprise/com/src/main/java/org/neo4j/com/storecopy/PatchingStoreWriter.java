@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com.storecopy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.io.fs.StoreChannel;
+
+import static org.neo4j.com.storecopy.ChangedBlocksStoreWriter.END_OF_BLOCKS;
+import static org.neo4j.com.storecopy.ChangedBlocksStoreWriter.transfer;
+import static org.neo4j.com.storecopy.StoreFileChecksums.BLOCK_SIZE;
+
+/**
+ * Receiving end of a {@link ChangedBlocksStoreWriter}. Each file is passed on to the decorated
+ * {@link StoreWriter} in full, with its unchanged blocks read from the file with the same path in
+ * the base directory and its changed blocks from the received data.
+ */
+public class PatchingStoreWriter implements StoreWriter
+{
+    private final StoreWriter delegate;
+    private final FileSystemAbstraction fs;
+    private final File baseDirectory;
+
+    public PatchingStoreWriter( StoreWriter delegate, FileSystemAbstraction fs, File baseDirectory )
+    {
+        this.delegate = delegate;
+        this.fs = fs;
+        this.baseDirectory = baseDirectory;
+    }
+
+    @Override
+    public long write( String path, ReadableByteChannel data, ByteBuffer temporaryBuffer, boolean hasData )
+            throws IOException
+    {
+        if ( !hasData )
+        {
+            return delegate.write( path, data, temporaryBuffer, false );
+        }
+        File baseFile = new File( baseDirectory, path );
+        try ( StoreChannel base = fs.fileExists( baseFile ) ? fs.open( baseFile, "r" ) : null )
+        {
+            return delegate.write( path, new PatchedChannel( path, base, data ), temporaryBuffer, true );
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        delegate.close();
+    }
+
+    private static class PatchedChannel implements ReadableByteChannel
+    {
+        private final String path;
+        private final StoreChannel base;
+        private final ReadableByteChannel changedBlocks;
+        private final ByteBuffer header = ByteBuffer.allocate( 8 );
+        private final ByteBuffer block = ByteBuffer.allocate( BLOCK_SIZE );
+        private int blockIndex;
+        private int nextChangedBlock;
+        private long fileLength = -1;
+        private boolean open = true;
+
+        PatchedChannel( String path, StoreChannel base, ReadableByteChannel changedBlocks ) throws IOException
+        {
+            this.path = path;
+            this.base = base;
+            this.changedBlocks = changedBlocks;
+            block.limit( 0 );
+            readNextChangedBlockIndex();
+        }
+
+        @Override
+        public int read( ByteBuffer dst ) throws IOException
+        {
+            int written = 0;
+            while ( dst.hasRemaining() && (block.hasRemaining() || nextBlock()) )
+            {
+                written += transfer( block, dst );
+            }
+            return written == 0 && dst.hasRemaining() ? -1 : written;
+        }
+
+        private boolean nextBlock() throws IOException
+        {
+            long position = (long) blockIndex * BLOCK_SIZE;
+            block.clear();
+            if ( blockIndex == nextChangedBlock )
+            {
+                block.limit( readHeader( 4 ).getInt() );
+                readFully( block );
+                readNextChangedBlockIndex();
+            }
+            else
+            {
+                if ( fileLength != -1 && position >= fileLength )
+                {
+                    block.limit( 0 );
+                    return false;
+                }
+                if ( fileLength != -1 )
+                {
+                    block.limit( (int) Math.min( BLOCK_SIZE, fileLength - position ) );
+                }
+                readFromBase( position );
+            }
+            block.flip();
+            blockIndex++;
+            return true;
+        }
+
+        private void readNextChangedBlockIndex() throws IOException
+        {
+            nextChangedBlock = readHeader( 4 ).getInt();
+            if ( nextChangedBlock == END_OF_BLOCKS )
+            {
+                fileLength = readHeader( 8 ).getLong();
+            }
+        }
+
+        private ByteBuffer readHeader( int length ) throws IOException
+        {
+            header.clear();
+            header.limit( length );
+            readFully( header );
+            header.flip();
+            return header;
+        }
+
+        private void readFully( ByteBuffer buffer ) throws IOException
+        {
+            while ( buffer.hasRemaining() )
+            {
+                if ( changedBlocks.read( buffer ) < 0 )
+                {
+                    throw new IOException( "Unexpected end of the changed blocks of " + path );
+                }
+            }
+        }
+
+        private void readFromBase( long position ) throws IOException
+        {
+            while ( base != null && block.hasRemaining() )
+            {
+                if ( base.read( block, position + block.position() ) < 0 )
+                {
+                    break;
+                }
+            }
+            if ( block.hasRemaining() )
+            {
+                throw new IOException( "Block " + blockIndex + " of " + path + " was not sent, " +
+                        "but is missing from the base copy of the file" );
+            }
+        }
+
+        @Override
+        public boolean isOpen()
+        {
+            return open;
+        }
+
+        @Override
+        public void close()
+        {
+            open = false;
+        }
+    }
+}
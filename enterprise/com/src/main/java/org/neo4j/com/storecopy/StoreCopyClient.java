@@ -140,9 +140,15 @@ public class StoreCopyClient
         graphDatabaseService.shutdown();
         storeCopyMonitor.recoveredStore();
 
-        // All is well, move the streamed files to the real store directory
+        // All is well, move the streamed files to the real store directory, replacing any previous
+        // version of them, as is the case when patching an existing copy
         for ( File candidate : tempStore.listFiles( STORE_FILE_FILTER ) )
         {
+            File previous = new File( storeDir, candidate.getName() );
+            if ( previous.exists() )
+            {
+                FileUtils.deleteRecursively( previous );
+            }
             FileUtils.moveFileToDirectory( candidate, storeDir );
         }
     }
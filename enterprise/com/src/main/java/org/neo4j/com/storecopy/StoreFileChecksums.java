@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com.storecopy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+
+import org.neo4j.com.Protocol;
+import org.neo4j.com.Serializer;
+
+/**
+ * Checksums of the blocks of a set of store files, keyed by the path of each file relative to its
+ * store directory. A differential store copy sends these for the files it already has, so that only
+ * blocks with a different checksum need to be transferred.
+ *
+ * @see ChangedBlocksStoreWriter
+ * @see PatchingStoreWriter
+ */
+public class StoreFileChecksums implements Serializer
+{
+    /**
+     * A block spans a few pages, which keeps the checksums small compared to the store itself
+     * while a single changed page only costs the block containing it.
+     */
+    public static final int BLOCK_SIZE = 64 * 1024;
+
+    private static final long[] NO_CHECKSUMS = new long[0];
+
+    private final Map<String,long[]> checksums = new HashMap<>();
+
+    public void add( String path, long[] blockChecksums )
+    {
+        checksums.put( path, blockChecksums );
+    }
+
+    /**
+     * @return the block checksums of the file with the given path, or an empty array if the file is not known.
+     */
+    public long[] checksumsFor( String path )
+    {
+        long[] blockChecksums = checksums.get( path );
+        return blockChecksums == null ? NO_CHECKSUMS : blockChecksums;
+    }
+
+    public int numberOfFiles()
+    {
+        return checksums.size();
+    }
+
+    @Override
+    public void write( ChannelBuffer buffer ) throws IOException
+    {
+        buffer.writeInt( checksums.size() );
+        for ( Map.Entry<String,long[]> file : checksums.entrySet() )
+        {
+            Protocol.writeString( buffer, file.getKey() );
+            long[] blockChecksums = file.getValue();
+            buffer.writeInt( blockChecksums.length );
+            for ( long checksum : blockChecksums )
+            {
+                buffer.writeLong( checksum );
+            }
+        }
+    }
+
+    public static StoreFileChecksums read( ChannelBuffer buffer )
+    {
+        StoreFileChecksums result = new StoreFileChecksums();
+        int files = buffer.readInt();
+        for ( int i = 0; i < files; i++ )
+        {
+            String path = Protocol.readString( buffer );
+            long[] blockChecksums = new long[buffer.readInt()];
+            for ( int block = 0; block < blockChecksums.length; block++ )
+            {
+                blockChecksums[block] = buffer.readLong();
+            }
+            result.add( path, blockChecksums );
+        }
+        return result;
+    }
+
+    /**
+     * Reads the given channel to the end and returns the checksums of all its blocks.
+     */
+    public static long[] checksumsOf( ReadableByteChannel data ) throws IOException
+    {
+        MessageDigest digest = newDigest();
+        ByteBuffer block = ByteBuffer.allocate( BLOCK_SIZE );
+        long[] blockChecksums = new long[16];
+        int blocks = 0;
+        while ( readBlock( data, block ) > 0 )
+        {
+            if ( blocks == blockChecksums.length )
+            {
+                long[] grown = new long[blockChecksums.length * 2];
+                System.arraycopy( blockChecksums, 0, grown, 0, blocks );
+                blockChecksums = grown;
+            }
+            blockChecksums[blocks++] = checksum( digest, block );
+        }
+        long[] result = new long[blocks];
+        System.arraycopy( blockChecksums, 0, result, 0, blocks );
+        return result;
+    }
+
+    /**
+     * Fills the block from the channel, leaving it flipped for reading. Only the last block of a
+     * channel is shorter than {@link #BLOCK_SIZE}.
+     *
+     * @return the number of bytes in the block, {@code 0} at the end of the channel.
+     */
+    static int readBlock( ReadableByteChannel data, ByteBuffer block ) throws IOException
+    {
+        block.clear();
+        while ( block.hasRemaining() && data.read( block ) >= 0 )
+        {
+            // keep reading until the block is full or the channel is exhausted
+        }
+        block.flip();
+        return block.remaining();
+    }
+
+    /**
+     * Checksum of the remaining bytes of the block, 64 bits of an MD5 digest since a collision
+     * would silently leave a stale block in the copy.
+     */
+    static long checksum( MessageDigest digest, ByteBuffer block )
+    {
+        digest.reset();
+        digest.update( block.duplicate() );
+        byte[] hash = digest.digest();
+        long checksum = 0;
+        for ( int i = 0; i < 8; i++ )
+        {
+            checksum = (checksum << 8) | (hash[i] & 0xFF);
+        }
+        return checksum;
+    }
+
+    static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance( "MD5" );
+        }
+        catch ( NoSuchAlgorithmException e )
+        {
+            throw new RuntimeException( "Hash algorithm is not available on this platform: " + e.getMessage(), e );
+        }
+    }
+}
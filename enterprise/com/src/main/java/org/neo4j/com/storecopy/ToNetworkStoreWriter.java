@@ -26,6 +26,7 @@ import java.nio.channels.ReadableByteChannel;
 import org.jboss.netty.buffer.ChannelBuffer;
 
 import org.neo4j.com.BlockLogBuffer;
+import org.neo4j.com.CompressedBlockLogBuffer;
 import org.neo4j.com.Protocol;
 import org.neo4j.kernel.monitoring.ByteCounterMonitor;
 import org.neo4j.kernel.monitoring.Monitors;
@@ -34,10 +35,21 @@ public class ToNetworkStoreWriter implements StoreWriter
 {
     private final ChannelBuffer targetBuffer;
     private final ByteCounterMonitor bufferMonitor;
+    private final boolean compressed;
 
     public ToNetworkStoreWriter( ChannelBuffer targetBuffer, Monitors monitors )
+    {
+        this( targetBuffer, monitors, false );
+    }
+
+    /**
+     * @param compressed whether to send file data as {@link CompressedBlockLogBuffer compressed blocks}, to be
+     * read with {@link org.neo4j.com.Protocol.FileStreamsDeserializer} created for compressed streams.
+     */
+    public ToNetworkStoreWriter( ChannelBuffer targetBuffer, Monitors monitors, boolean compressed )
     {
         this.targetBuffer = targetBuffer;
+        this.compressed = compressed;
         bufferMonitor = monitors.newMonitor( ByteCounterMonitor.class, getClass(), "storeCopier" );
     }
 
@@ -49,11 +61,17 @@ public class ToNetworkStoreWriter implements StoreWriter
         targetBuffer.writeShort( chars.length );
         Protocol.writeChars( targetBuffer, chars );
         targetBuffer.writeByte( hasData ? 1 : 0 );
-        // TODO Make use of temporaryBuffer?
-        BlockLogBuffer buffer = new BlockLogBuffer( targetBuffer, bufferMonitor );
         long totalWritten = 2 + chars.length*2 + 1;
-        if ( hasData )
+        if ( hasData && compressed )
+        {
+            CompressedBlockLogBuffer buffer = new CompressedBlockLogBuffer( targetBuffer, bufferMonitor );
+            totalWritten += buffer.write( data );
+            buffer.close();
+        }
+        else if ( hasData )
         {
+            // TODO Make use of temporaryBuffer?
+            BlockLogBuffer buffer = new BlockLogBuffer( targetBuffer, bufferMonitor );
             totalWritten += buffer.write( data );
             buffer.close();
 
@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Random;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.junit.Test;
+
+import org.neo4j.kernel.monitoring.ByteCounterMonitor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+
+import static org.neo4j.com.CompressedBlockLogBuffer.BLOCK_SIZE;
+import static org.neo4j.com.CompressedBlockLogBuffer.COMPRESSED_BLOCK;
+import static org.neo4j.com.CompressedBlockLogBuffer.RAW_BLOCK;
+
+public class CompressedBlockLogBufferTest
+{
+    private final Random random = new Random( 1234 );
+
+    @Test
+    public void shouldTransferRandomData() throws Exception
+    {
+        byte[] data = new byte[BLOCK_SIZE * 3 + 17];
+        random.nextBytes( data );
+
+        assertArrayEquals( data, transfer( data ) );
+    }
+
+    @Test
+    public void shouldTransferEmptyData() throws Exception
+    {
+        assertArrayEquals( new byte[0], transfer( new byte[0] ) );
+    }
+
+    @Test
+    public void shouldCompressRepetitiveDataAndSkipZeroBlocks() throws Exception
+    {
+        // GIVEN a sparse store: one page of similar records, lots of empty pages and a bit of random data
+        byte[] data = new byte[BLOCK_SIZE * 10 + 100];
+        for ( int i = 0; i + 1 < BLOCK_SIZE; i += 15 )
+        {
+            data[i] = 1;
+            data[i + 1] = (byte) (i / 15);
+        }
+        for ( int i = BLOCK_SIZE * 10; i < data.length; i++ )
+        {
+            data[i] = (byte) random.nextInt();
+        }
+
+        // WHEN
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        CompressedBlockLogBuffer writer = new CompressedBlockLogBuffer( buffer, mock( ByteCounterMonitor.class ) );
+        long written = writer.write( Channels.newChannel( new ByteArrayInputStream( data ) ) );
+        writer.close();
+
+        // THEN
+        assertTrue( "Expected far less than " + data.length + " bytes, but was " + written,
+                written < BLOCK_SIZE );
+        assertArrayEquals( data, read( buffer ) );
+    }
+
+    @Test
+    public void shouldRoundTripCompressionOfLongRunsAndLiterals() throws Exception
+    {
+        // GIVEN runs and literal sequences long enough to need extra length bytes
+        byte[] data = new byte[BLOCK_SIZE];
+        for ( int i = 0; i < data.length; i++ )
+        {
+            data[i] = i < 1000 ? (byte) 7 : i < 2000 ? (byte) random.nextInt() : (byte) (i % 5);
+        }
+        byte[] compressed = new byte[BlockCompression.maxCompressedLength( data.length )];
+
+        // WHEN
+        int compressedLength = BlockCompression.compress( data, data.length, compressed,
+                BlockCompression.newHashTable() );
+        byte[] decompressed = new byte[data.length];
+        int decompressedLength = BlockCompression.decompress( compressed, compressedLength, decompressed );
+
+        // THEN
+        assertTrue( compressedLength < data.length );
+        assertEquals( data.length, decompressedLength );
+        assertArrayEquals( data, decompressed );
+    }
+
+    @Test
+    public void shouldRejectBlockLongerThanBlockSize() throws Exception
+    {
+        // GIVEN
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        buffer.writeByte( RAW_BLOCK );
+        buffer.writeInt( BLOCK_SIZE + 1 );
+
+        // WHEN/THEN
+        assertCorrupt( buffer );
+    }
+
+    @Test
+    public void shouldRejectNegativeBlockLength() throws Exception
+    {
+        // GIVEN
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        buffer.writeByte( COMPRESSED_BLOCK );
+        buffer.writeInt( -1 );
+
+        // WHEN/THEN
+        assertCorrupt( buffer );
+    }
+
+    @Test
+    public void shouldRejectCompressedBlockLongerThanItsBuffer() throws Exception
+    {
+        // GIVEN
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        buffer.writeByte( COMPRESSED_BLOCK );
+        buffer.writeInt( BLOCK_SIZE );
+        buffer.writeInt( BlockCompression.maxCompressedLength( BLOCK_SIZE ) + 1 );
+
+        // WHEN/THEN
+        assertCorrupt( buffer );
+    }
+
+    private void assertCorrupt( ChannelBuffer buffer )
+    {
+        CompressedBlockLogReader reader = new CompressedBlockLogReader( buffer );
+        try
+        {
+            reader.read( ByteBuffer.allocate( 100 ) );
+            fail( "Should have failed on the corrupt block" );
+        }
+        catch ( IOException e )
+        {   // Good
+        }
+    }
+
+    private byte[] transfer( byte[] data ) throws IOException
+    {
+        ChannelBuffer buffer = ChannelBuffers.dynamicBuffer();
+        CompressedBlockLogBuffer writer = new CompressedBlockLogBuffer( buffer, mock( ByteCounterMonitor.class ) );
+        writer.write( Channels.newChannel( new ByteArrayInputStream( data ) ) );
+        writer.close();
+        return read( buffer );
+    }
+
+    private byte[] read( ChannelBuffer buffer ) throws IOException
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer chunk = ByteBuffer.allocate( 1000 );
+        try ( CompressedBlockLogReader reader = new CompressedBlockLogReader( buffer ) )
+        {
+            while ( reader.read( chunk ) >= 0 )
+            {
+                chunk.flip();
+                out.write( chunk.array(), 0, chunk.limit() );
+                chunk.clear();
+            }
+        }
+        assertEquals( 0, buffer.readableBytes() );
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.com.storecopy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import org.neo4j.io.fs.StoreChannel;
+import org.neo4j.test.EphemeralFileSystemRule;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import static org.neo4j.com.storecopy.StoreFileChecksums.BLOCK_SIZE;
+
+public class ChangedBlocksStoreWriterTest
+{
+    @Rule
+    public EphemeralFileSystemRule fs = new EphemeralFileSystemRule();
+
+    private final File baseDirectory = new File( "base" );
+    private final Random random = new Random();
+
+    @Test
+    public void shouldOnlySendBlocksThatChanged() throws Exception
+    {
+        // GIVEN
+        byte[] base = randomBytes( BLOCK_SIZE * 3 );
+        byte[] changed = base.clone();
+        changed[BLOCK_SIZE + 10]++;
+
+        // WHEN
+        byte[] sent = changedBlocks( base, changed );
+
+        // THEN only the middle block, its header and the end of blocks marker are sent
+        assertEquals( 4 + 4 + BLOCK_SIZE + 4 + 8, sent.length );
+        assertArrayEquals( changed, patch( sent ) );
+    }
+
+    @Test
+    public void shouldPatchFilesThatChangedLength() throws Exception
+    {
+        byte[] base = randomBytes( BLOCK_SIZE * 2 + 100 );
+
+        byte[] grown = new byte[BLOCK_SIZE * 4 + 7];
+        System.arraycopy( base, 0, grown, 0, base.length );
+        assertArrayEquals( grown, patch( changedBlocks( base, grown ) ) );
+
+        byte[] shrunk = new byte[BLOCK_SIZE + 3];
+        System.arraycopy( base, 0, shrunk, 0, shrunk.length );
+        assertArrayEquals( shrunk, patch( changedBlocks( base, shrunk ) ) );
+    }
+
+    private byte[] changedBlocks( byte[] base, byte[] changed ) throws IOException
+    {
+        fs.get().mkdirs( baseDirectory );
+        try ( StoreChannel channel = fs.get().open( new File( baseDirectory, "file" ), "rw" ) )
+        {
+            channel.truncate( 0 );
+            channel.writeAll( ByteBuffer.wrap( base ), 0 );
+        }
+        StoreFileChecksums checksums = new StoreFileChecksums();
+        try ( StoreChannel channel = fs.get().open( new File( baseDirectory, "file" ), "r" ) )
+        {
+            checksums.add( "file", StoreFileChecksums.checksumsOf( channel ) );
+        }
+
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        new ChangedBlocksStoreWriter( new ToStreamStoreWriter( sent ), checksums )
+                .write( "file", channel( changed ), ByteBuffer.allocate( 1024 ), true );
+        return sent.toByteArray();
+    }
+
+    private byte[] patch( byte[] sent ) throws IOException
+    {
+        ByteArrayOutputStream patched = new ByteArrayOutputStream();
+        new PatchingStoreWriter( new ToStreamStoreWriter( patched ), fs.get(), baseDirectory )
+                .write( "file", channel( sent ), ByteBuffer.allocate( 1024 ), true );
+        return patched.toByteArray();
+    }
+
+    private byte[] randomBytes( int length )
+    {
+        byte[] bytes = new byte[length];
+        random.nextBytes( bytes );
+        return bytes;
+    }
+
+    private static ReadableByteChannel channel( byte[] bytes )
+    {
+        return Channels.newChannel( new ByteArrayInputStream( bytes ) );
+    }
+
+    private static class ToStreamStoreWriter implements StoreWriter
+    {
+        private final OutputStream out;
+
+        ToStreamStoreWriter( OutputStream out )
+        {
+            this.out = out;
+        }
+
+        @Override
+        public long write( String path, ReadableByteChannel data, ByteBuffer temporaryBuffer, boolean hasData )
+                throws IOException
+        {
+            long written = 0;
+            temporaryBuffer.clear();
+            while ( data.read( temporaryBuffer ) >= 0 )
+            {
+                temporaryBuffer.flip();
+                out.write( temporaryBuffer.array(), 0, temporaryBuffer.limit() );
+                written += temporaryBuffer.limit();
+                temporaryBuffer.clear();
+            }
+            return written;
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
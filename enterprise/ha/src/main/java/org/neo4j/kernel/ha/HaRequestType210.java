@@ -269,6 +269,25 @@ public enum HaRequestType210 implements RequestType<Master>
         }
     }, INTEGER_SERIALIZER ),
 
+    // ==== Since MasterClient220
+    COPY_STORE_COMPRESSED( new TargetCaller<Master, Void>()
+    {
+        @Override
+        public Response<Void> call( Master master, RequestContext context, ChannelBuffer input,
+                final ChannelBuffer target )
+        {
+            return master.copyStore( context, new ToNetworkStoreWriter( target, new Monitors(), true ) );
+        }
+
+    }, VOID_SERIALIZER )
+            {
+                @Override
+                public boolean responseShouldBeUnpacked()
+                {
+                    return false;
+                }
+            },
+
     ;
 
 
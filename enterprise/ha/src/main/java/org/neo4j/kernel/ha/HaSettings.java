@@ -53,6 +53,13 @@ public class HaSettings
     @Description( "Timeout for taking remote (write) locks on slaves. Defaults to ha.read_timeout." )
     public static final Setting<Long> lock_read_timeout = setting( "ha.lock_read_timeout", DURATION, read_timeout );
 
+    @Description( "Whether slave transactions should acquire their node and relationship write locks on the " +
+            "master in one batch right before commit, instead of one network round trip per lock. Explicitly " +
+            "acquired locks are always taken on the master right away. A transaction whose locked nodes or " +
+            "relationships were changed by other transactions applied while its locks were deferred fails with " +
+            "a deadlock exception and should be retried." )
+    public static final Setting<Boolean> defer_write_locks = setting( "ha.defer_write_locks", BOOLEAN, Settings.FALSE );
+
     @Description( "Maximum number of connections a slave can have to the master." )
     public static final Setting<Integer> max_concurrent_channels_per_slave =
             setting( "ha.max_concurrent_channels_per_slave", INTEGER, "20", min( 1 ) );
@@ -82,6 +82,7 @@ import org.neo4j.kernel.ha.com.slave.InvalidEpochExceptionHandler;
 import org.neo4j.kernel.ha.com.slave.MasterClientResolver;
 import org.neo4j.kernel.ha.com.slave.SlaveServer;
 import org.neo4j.kernel.ha.id.HaIdGeneratorFactory;
+import org.neo4j.kernel.ha.lock.DeferredLockConflictDetector;
 import org.neo4j.kernel.ha.lock.LockManagerModeSwitcher;
 import org.neo4j.kernel.ha.management.ClusterDatabaseInfoProvider;
 import org.neo4j.kernel.ha.management.HighlyAvailableKernelData;
@@ -113,6 +114,7 @@ import org.neo4j.kernel.logging.Logging;
 import org.neo4j.kernel.monitoring.ByteCounterMonitor;
 import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.kernel.monitoring.StoreCopyMonitor;
+import org.neo4j.kernel.monitoring.metrics.Gauge;
 
 import static org.neo4j.kernel.GraphDatabaseDependencies.newDependencies;
 import static org.neo4j.kernel.logging.LogbackWeakDependency.DEFAULT_TO_CLASSIC;
@@ -540,7 +542,7 @@ public class HighlyAvailableGraphDatabase extends InternalAbstractGraphDatabase
             {
                 return HighlyAvailableGraphDatabase.super.createLockManager();
             }
-        } );
+        }, new DeferredLockConflictDetector( getDependencyResolver() ) );
         return lockManager;
     }
 
@@ -616,6 +618,16 @@ public class HighlyAvailableGraphDatabase extends InternalAbstractGraphDatabase
     protected KernelData createKernelData()
     {
         this.lastUpdateTime = new LastUpdateTime();
+        metricsRegistry.register( "ha.pull_lag_millis", new Gauge()
+        {
+            @Override
+            public long value()
+            {
+                // Time since the last attempt to pull updates from the master, zero if this instance never pulled
+                long lastUpdate = lastUpdateTime.getLastUpdateTime();
+                return lastUpdate == 0 ? 0 : Math.max( 0, System.currentTimeMillis() - lastUpdate );
+            }
+        } );
         OnDiskLastTxIdGetter txIdGetter = new OnDiskLastTxIdGetter( this );
         ClusterDatabaseInfoProvider databaseInfo = new ClusterDatabaseInfoProvider(
                 members, txIdGetter, lastUpdateTime );
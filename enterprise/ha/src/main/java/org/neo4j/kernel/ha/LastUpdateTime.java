@@ -21,7 +21,7 @@ package org.neo4j.kernel.ha;
 
 public class LastUpdateTime
 {
-    private long lastUpdateTime;
+    private volatile long lastUpdateTime;
 
     public LastUpdateTime()
     {
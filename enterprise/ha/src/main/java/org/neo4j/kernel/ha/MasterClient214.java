@@ -42,6 +42,15 @@ public class MasterClient214 extends MasterClient210
                 chunkSize, PROTOCOL_VERSION, unpacker, byteCounterMonitor, requestMonitor );
     }
 
+    MasterClient214( String hostNameOrIp, int port, Logging logging, StoreId storeId, long readTimeoutSeconds,
+                     long lockReadTimeout, int maxConcurrentChannels, int chunkSize,
+                     ProtocolVersion protocolVersion, ResponseUnpacker unpacker,
+                     ByteCounterMonitor byteCounterMonitor, RequestMonitor requestMonitor )
+    {
+        super( hostNameOrIp, port, logging, storeId, readTimeoutSeconds, lockReadTimeout, maxConcurrentChannels,
+                chunkSize, protocolVersion, unpacker, byteCounterMonitor, requestMonitor );
+    }
+
     @Override
     protected Protocol createProtocol( int chunkSize, byte applicationProtocolVersion )
     {
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.ha;
+
+import org.neo4j.com.Protocol;
+import org.neo4j.com.ProtocolVersion;
+import org.neo4j.com.RequestContext;
+import org.neo4j.com.Response;
+import org.neo4j.com.monitor.RequestMonitor;
+import org.neo4j.com.storecopy.ResponseUnpacker;
+import org.neo4j.com.storecopy.StoreWriter;
+import org.neo4j.kernel.impl.store.StoreId;
+import org.neo4j.kernel.logging.Logging;
+import org.neo4j.kernel.monitoring.ByteCounterMonitor;
+
+import static org.neo4j.com.Protocol.EMPTY_SERIALIZER;
+import static org.neo4j.com.ProtocolVersion.INTERNAL_PROTOCOL_VERSION;
+
+/**
+ * Copies the store from the master with compressed blocks, where all-zero blocks are not sent at all.
+ */
+public class MasterClient220 extends MasterClient214
+{
+    public static final ProtocolVersion PROTOCOL_VERSION = new ProtocolVersion( (byte) 9, INTERNAL_PROTOCOL_VERSION );
+
+    public MasterClient220( String hostNameOrIp, int port, Logging logging, StoreId storeId, long readTimeoutSeconds,
+                            long lockReadTimeout, int maxConcurrentChannels, int chunkSize, ResponseUnpacker unpacker,
+                            ByteCounterMonitor byteCounterMonitor, RequestMonitor requestMonitor )
+    {
+        super( hostNameOrIp, port, logging, storeId, readTimeoutSeconds, lockReadTimeout, maxConcurrentChannels,
+                chunkSize, PROTOCOL_VERSION, unpacker, byteCounterMonitor, requestMonitor );
+    }
+
+    @Override
+    public Response<Void> copyStore( RequestContext context, StoreWriter writer )
+    {
+        context = new RequestContext( context.getEpoch(), context.machineId(), context.getEventIdentifier(),
+                0, context.getChecksum() );
+        return sendRequest( HaRequestType210.COPY_STORE_COMPRESSED, context, EMPTY_SERIALIZER,
+                new Protocol.FileStreamsDeserializer( writer, true ) );
+    }
+
+    @Override
+    public ProtocolVersion getProtocolVersion()
+    {
+        return PROTOCOL_VERSION;
+    }
+}
@@ -242,7 +242,7 @@ public class SwitchToSlave
         return slaveUri;
     }
 
-    private void copyStoreFromMasterIfNeeded( URI masterUri, CancellationRequest cancellationRequest ) throws Throwable
+    void copyStoreFromMasterIfNeeded( URI masterUri, CancellationRequest cancellationRequest ) throws Throwable
     {
         if ( !isStorePresent( resolver.resolveDependency( FileSystemAbstraction.class ), config ) )
         {
@@ -254,10 +254,12 @@ public class SwitchToSlave
                 MasterClient masterClient = newMasterClient( masterUri, null, copyLife );
                 copyLife.start();
 
-                boolean masterIsOld = MasterClient.CURRENT.compareTo( masterClient.getProtocolVersion() ) > 0;
+                boolean masterIsOld =
+                        MasterClient.OLDEST_STORE_COPY_COMPATIBLE.compareTo( masterClient.getProtocolVersion() ) > 0;
                 if ( masterIsOld )
                 {
-                    throw new UnableToCopyStoreFromOldMasterException( MasterClient.CURRENT.getApplicationProtocol(),
+                    throw new UnableToCopyStoreFromOldMasterException(
+                            MasterClient.OLDEST_STORE_COPY_COMPATIBLE.getApplicationProtocol(),
                             masterClient.getProtocolVersion().getApplicationProtocol() );
                 }
                 else
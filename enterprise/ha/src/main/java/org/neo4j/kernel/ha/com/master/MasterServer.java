@@ -37,7 +37,7 @@ import org.neo4j.com.TransactionNotPresentOnMasterException;
 import org.neo4j.com.TxChecksumVerifier;
 import org.neo4j.com.monitor.RequestMonitor;
 import org.neo4j.kernel.ha.HaRequestType210;
-import org.neo4j.kernel.ha.MasterClient214;
+import org.neo4j.kernel.ha.MasterClient220;
 import org.neo4j.kernel.logging.Logging;
 import org.neo4j.kernel.monitoring.ByteCounterMonitor;
 
@@ -55,7 +55,7 @@ public class MasterServer extends Server<Master, Void>
                          TxChecksumVerifier txVerifier, ByteCounterMonitor byteCounterMonitor,
                          RequestMonitor requestMonitor )
     {
-        super( requestTarget, config, logging, FRAME_LENGTH, MasterClient214.PROTOCOL_VERSION, txVerifier,
+        super( requestTarget, config, logging, FRAME_LENGTH, MasterClient220.PROTOCOL_VERSION, txVerifier,
                 SYSTEM_CLOCK, byteCounterMonitor, requestMonitor );
     }
 
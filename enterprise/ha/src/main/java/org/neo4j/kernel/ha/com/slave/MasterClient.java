@@ -35,7 +35,7 @@ import org.neo4j.com.Response;
 import org.neo4j.com.storecopy.ResponseUnpacker.TxHandler;
 import org.neo4j.com.storecopy.StoreWriter;
 import org.neo4j.helpers.Exceptions;
-import org.neo4j.kernel.ha.MasterClient214;
+import org.neo4j.kernel.ha.MasterClient220;
 import org.neo4j.kernel.ha.com.master.Master;
 import org.neo4j.kernel.ha.lock.LockResult;
 import org.neo4j.kernel.ha.lock.LockStatus;
@@ -104,7 +104,13 @@ public interface MasterClient extends Master
         }
     };
 
-    public static final ProtocolVersion CURRENT = MasterClient214.PROTOCOL_VERSION;
+    public static final ProtocolVersion CURRENT = MasterClient220.PROTOCOL_VERSION;
+
+    /**
+     * The oldest master protocol with the same store format as {@link #CURRENT}, i.e. whose store can be copied.
+     * Masters before it have stores without the string dictionary.
+     */
+    public static final ProtocolVersion OLDEST_STORE_COPY_COMPATIBLE = MasterClient220.PROTOCOL_VERSION;
 
     @Override
     public Response<Integer> createRelationshipType( RequestContext context, final String name );
@@ -30,6 +30,7 @@ import org.neo4j.com.monitor.RequestMonitor;
 import org.neo4j.com.storecopy.ResponseUnpacker;
 import org.neo4j.kernel.ha.MasterClient210;
 import org.neo4j.kernel.ha.MasterClient214;
+import org.neo4j.kernel.ha.MasterClient220;
 import org.neo4j.kernel.ha.com.master.InvalidEpochException;
 import org.neo4j.kernel.impl.store.StoreId;
 import org.neo4j.kernel.impl.util.StringLogger;
@@ -70,11 +71,13 @@ public class MasterClientResolver implements MasterClientFactory, ComExceptionHa
         this.responseUnpacker = responseUnpacker;
         this.invalidEpochHandler = invalidEpochHandler;
 
-        protocolToFactoryMapping = new HashMap<>( 2, 1 );
+        protocolToFactoryMapping = new HashMap<>( 3, 1 );
         protocolToFactoryMapping.put( MasterClient210.PROTOCOL_VERSION, new F210( logging, readTimeout, lockReadTimeout,
                 channels, chunkSize ) );
         protocolToFactoryMapping.put( MasterClient214.PROTOCOL_VERSION, new F214( logging, readTimeout, lockReadTimeout,
                 channels, chunkSize ) );
+        protocolToFactoryMapping.put( MasterClient220.PROTOCOL_VERSION, new F220( logging, readTimeout, lockReadTimeout,
+                channels, chunkSize ) );
     }
 
     @Override
@@ -109,7 +112,7 @@ public class MasterClientResolver implements MasterClientFactory, ComExceptionHa
 
     private MasterClientFactory assignDefaultFactory()
     {
-        return getFor( MasterClient214.PROTOCOL_VERSION );
+        return getFor( MasterClient220.PROTOCOL_VERSION );
     }
 
     private abstract static class StaticMasterClientFactory implements MasterClientFactory
@@ -168,4 +171,23 @@ public class MasterClientResolver implements MasterClientFactory, ComExceptionHa
                     monitors.newMonitor( RequestMonitor.class, MasterClient214.class ) ) );
         }
     }
+
+    private final class F220 extends StaticMasterClientFactory
+    {
+        public F220( Logging logging, int readTimeoutSeconds, int lockReadTimeout, int maxConcurrentChannels,
+                     int chunkSize )
+        {
+            super( logging, readTimeoutSeconds, lockReadTimeout, maxConcurrentChannels, chunkSize );
+        }
+
+        @Override
+        public MasterClient instantiate( String hostNameOrIp, int port, Monitors monitors,
+                                         StoreId storeId, LifeSupport life )
+        {
+            return life.add( new MasterClient220( hostNameOrIp, port, logging, storeId, readTimeoutSeconds,
+                    lockReadTimeout, maxConcurrentChannels, chunkSize, responseUnpacker,
+                    monitors.newMonitor( ByteCounterMonitor.class, MasterClient220.class ),
+                    monitors.newMonitor( RequestMonitor.class, MasterClient220.class ) ) );
+        }
+    }
 }
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.ha.lock;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.graphdb.DependencyResolver;
+import org.neo4j.helpers.collection.Visitor;
+import org.neo4j.kernel.NeoStoreDataSource;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.ResourceTypes;
+import org.neo4j.kernel.impl.transaction.CommittedTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.command.Command.NodeCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.PropertyCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.RelationshipCommand;
+import org.neo4j.kernel.impl.transaction.command.Command.RelationshipGroupCommand;
+import org.neo4j.kernel.impl.transaction.command.NeoCommandHandler;
+import org.neo4j.kernel.impl.transaction.log.IOCursor;
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+
+/**
+ * Verifies that none of the transactions applied on a slave while a transaction held deferred exclusive locks
+ * only locally changed any of the entities those locks are held for. Transactions touching other entities
+ * do not affect the committing transaction and are allowed.
+ */
+public class DeferredLockConflictDetector
+{
+    private final DependencyResolver resolver;
+
+    public DeferredLockConflictDetector( DependencyResolver resolver )
+    {
+        this.resolver = resolver;
+    }
+
+    /**
+     * @param deferredLocks ids of the deferred exclusive locks, per resource type.
+     * @param lastAppliedWhenDeferred id of the last transaction applied when the first lock was deferred.
+     * @param lastAppliedAtCommit id of the last transaction applied once the locks were granted by the master.
+     * @throws DeferredLockConflictException if any transaction in between changed a locked entity, or if the
+     * transactions in between could not be read.
+     */
+    public void verifyNoConflicts( Map<Locks.ResourceType,PrimitiveLongSet> deferredLocks,
+            long lastAppliedWhenDeferred, long lastAppliedAtCommit ) throws DeferredLockConflictException
+    {
+        if ( lastAppliedAtCommit <= lastAppliedWhenDeferred )
+        {
+            return;
+        }
+
+        LogicalTransactionStore transactionStore = resolver.resolveDependency( NeoStoreDataSource.class )
+                .getDependencyResolver().resolveDependency( LogicalTransactionStore.class );
+        ConflictFinder finder = new ConflictFinder( deferredLocks );
+        try ( IOCursor<CommittedTransactionRepresentation> transactions =
+                      transactionStore.getTransactions( lastAppliedWhenDeferred + 1 ) )
+        {
+            while ( transactions.next() )
+            {
+                CommittedTransactionRepresentation transaction = transactions.get();
+                long txId = transaction.getCommitEntry().getTxId();
+                if ( txId > lastAppliedAtCommit )
+                {
+                    break;
+                }
+                transaction.getTransactionRepresentation().accept( finder );
+                if ( finder.conflictingType != null )
+                {
+                    throw new DeferredLockConflictException( txId, finder.conflictingType, finder.conflictingId );
+                }
+            }
+        }
+        catch ( IOException e )
+        {
+            // Includes NoSuchTransactionException; without the transactions we cannot rule out a conflict
+            throw new DeferredLockConflictException( lastAppliedWhenDeferred, lastAppliedAtCommit, e );
+        }
+    }
+
+    private static class ConflictFinder extends NeoCommandHandler.Adapter implements Visitor<Command,IOException>
+    {
+        private final PrimitiveLongSet nodes;
+        private final PrimitiveLongSet relationships;
+        private Locks.ResourceType conflictingType;
+        private long conflictingId;
+
+        ConflictFinder( Map<Locks.ResourceType,PrimitiveLongSet> deferredLocks )
+        {
+            this.nodes = deferredLocks.get( ResourceTypes.NODE );
+            this.relationships = deferredLocks.get( ResourceTypes.RELATIONSHIP );
+        }
+
+        @Override
+        public boolean visit( Command command ) throws IOException
+        {
+            return command.handle( this );
+        }
+
+        @Override
+        public boolean visitNodeCommand( NodeCommand command ) throws IOException
+        {
+            return conflicts( ResourceTypes.NODE, nodes, command.getKey() );
+        }
+
+        @Override
+        public boolean visitRelationshipCommand( RelationshipCommand command ) throws IOException
+        {
+            return conflicts( ResourceTypes.RELATIONSHIP, relationships, command.getKey() );
+        }
+
+        @Override
+        public boolean visitPropertyCommand( PropertyCommand command ) throws IOException
+        {
+            return conflicts( ResourceTypes.NODE, nodes, command.getNodeId() ) ||
+                   conflicts( ResourceTypes.RELATIONSHIP, relationships, command.getRelId() );
+        }
+
+        @Override
+        public boolean visitRelationshipGroupCommand( RelationshipGroupCommand command ) throws IOException
+        {
+            return conflicts( ResourceTypes.NODE, nodes, command.getRecord().getOwningNode() );
+        }
+
+        private boolean conflicts( Locks.ResourceType type, PrimitiveLongSet locked, long id )
+        {
+            if ( id != -1 && locked != null && locked.contains( id ) )
+            {
+                conflictingType = type;
+                conflictingId = id;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.ha.lock;
+
+import org.neo4j.kernel.DeadlockDetectedException;
+import org.neo4j.kernel.impl.locking.Locks;
+
+/**
+ * Thrown when a slave transaction which deferred its exclusive locks on the master until commit finds that another
+ * transaction, applied while those locks were held only locally, changed one of the locked entities, i.e. that it
+ * may have made its changes based on stale data. Since it subclasses {@link DeadlockDetectedException} code that
+ * already retries on deadlocks will retry the transaction as well.
+ */
+public class DeferredLockConflictException extends DeadlockDetectedException
+{
+    public DeferredLockConflictException( long conflictingTxId, Locks.ResourceType resourceType, long resourceId )
+    {
+        super( "Transaction " + conflictingTxId + ", applied on this slave while the committing transaction held " +
+                "a deferred lock on " + resourceType + "(" + resourceId + "), changed that entity. The committing " +
+                "transaction may have been based on stale data." );
+    }
+
+    public DeferredLockConflictException( long lastAppliedWhenDeferred, long lastAppliedAtCommit, Throwable cause )
+    {
+        super( "Unable to verify that transactions " + (lastAppliedWhenDeferred + 1) + "-" + lastAppliedAtCommit +
+                ", applied on this slave while the committing transaction held deferred locks, did not change any " +
+                "of the locked entities.", cause );
+    }
+}
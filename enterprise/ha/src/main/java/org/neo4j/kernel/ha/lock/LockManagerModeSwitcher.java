@@ -39,11 +39,13 @@ public class LockManagerModeSwitcher extends AbstractModeSwitcher<Locks>
     private final AvailabilityGuard availabilityGuard;
     private final Config config;
     private final Factory<Locks> locksFactory;
+    private final DeferredLockConflictDetector conflictDetector;
 
     public LockManagerModeSwitcher( HighAvailabilityMemberStateMachine stateMachine,
                                     DelegateInvocationHandler<Locks> delegate, DelegateInvocationHandler<Master> master,
                                     RequestContextFactory requestContextFactory, AvailabilityGuard availabilityGuard,
-                                    Config config, Factory<Locks> locksFactory )
+                                    Config config, Factory<Locks> locksFactory,
+                                    DeferredLockConflictDetector conflictDetector )
     {
         super( stateMachine, delegate );
         this.master = master;
@@ -51,6 +53,7 @@ public class LockManagerModeSwitcher extends AbstractModeSwitcher<Locks>
         this.availabilityGuard = availabilityGuard;
         this.config = config;
         this.locksFactory = locksFactory;
+        this.conflictDetector = conflictDetector;
     }
 
     @Override
@@ -71,6 +74,12 @@ public class LockManagerModeSwitcher extends AbstractModeSwitcher<Locks>
                     {
                         return config.get( HaSettings.lock_read_timeout );
                     }
-                } );
+
+                    @Override
+                    public boolean deferExclusiveLocks()
+                    {
+                        return config.get( HaSettings.defer_write_locks );
+                    }
+                }, conflictDetector );
     }
 }
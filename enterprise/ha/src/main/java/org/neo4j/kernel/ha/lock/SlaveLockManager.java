@@ -32,18 +32,27 @@ public class SlaveLockManager extends LifecycleAdapter implements Locks
     private final Master master;
     private final AvailabilityGuard availabilityGuard;
     private final Configuration config;
+    private final DeferredLockConflictDetector conflictDetector;
 
     public static interface Configuration
     {
         long getAvailabilityTimeout();
+
+        /**
+         * @return whether exclusive node and relationship locks are acquired on the master in one batch at commit,
+         * rather than one by one as they are requested.
+         */
+        boolean deferExclusiveLocks();
     }
 
     public SlaveLockManager( Locks localLocks, RequestContextFactory requestContextFactory, Master master,
-                             AvailabilityGuard availabilityGuard, Configuration config )
+                             AvailabilityGuard availabilityGuard, Configuration config,
+                             DeferredLockConflictDetector conflictDetector )
     {
         this.requestContextFactory = requestContextFactory;
         this.availabilityGuard = availabilityGuard;
         this.config = config;
+        this.conflictDetector = conflictDetector;
         this.local = localLocks;
         this.master = master;
     }
@@ -52,7 +61,8 @@ public class SlaveLockManager extends LifecycleAdapter implements Locks
     public Client newClient()
     {
         return new SlaveLocksClient(
-                master, local.newClient(), local, requestContextFactory, availabilityGuard, config );
+                master, local.newClient(), local, requestContextFactory, availabilityGuard, config,
+                conflictDetector );
     }
 
     @Override
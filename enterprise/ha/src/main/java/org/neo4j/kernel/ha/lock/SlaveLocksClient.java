@@ -20,10 +20,14 @@
 package org.neo4j.kernel.ha.lock;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.com.RequestContext;
 import org.neo4j.com.Response;
 import org.neo4j.kernel.AvailabilityGuard;
@@ -36,6 +40,7 @@ import org.neo4j.kernel.impl.locking.LockManager;
 import org.neo4j.kernel.impl.locking.Locks;
 import org.neo4j.kernel.impl.locking.ResourceTypes;
 
+import static org.neo4j.collection.primitive.PrimitiveLongCollections.asArray;
 import static org.neo4j.kernel.impl.locking.LockType.READ;
 import static org.neo4j.kernel.impl.locking.LockType.WRITE;
 
@@ -46,19 +51,32 @@ import static org.neo4j.kernel.impl.locking.LockType.WRITE;
  * The client maintains a local "real" lock client, backed by some regular Locks implementation, but it also coordinates
  * with the master for certain types of locks. If you grab a lock on a node, for instance, this class will grab a
  * cluster-global lock by talking to the master machine, and then grab that same lock locally before returning.
+ *
+ * If {@link SlaveLockManager.Configuration#deferExclusiveLocks() configured to}, exclusive node and relationship
+ * locks are only grabbed locally when requested and then acquired on the master in one batch per resource type,
+ * sorted by id, in {@link #prepareForCommit()}. Should any transaction applied on this slave in between the first
+ * deferred lock and the batch being granted have changed one of the locked entities the transaction may be based on
+ * stale data, and a {@link DeferredLockConflictException} is thrown, see {@link DeferredLockConflictDetector}.
+ * Explicitly requested locks are never deferred.
  */
 class SlaveLocksClient implements Locks.Client
 {
+    private static final Locks.ResourceType[] DEFERRABLE_RESOURCE_TYPES = {
+            ResourceTypes.NODE, ResourceTypes.RELATIONSHIP};
+
     private final Master master;
     private final Locks.Client client;
     private final Locks localLockManager;
     private final RequestContextFactory requestContextFactory;
     private final AvailabilityGuard availabilityGuard;
     private final SlaveLockManager.Configuration config;
+    private final DeferredLockConflictDetector conflictDetector;
 
     // Using atomic ints to avoid creating garbage through boxing.
     private final Map<Locks.ResourceType, Map<Long, AtomicInteger>> sharedLocks;
     private final Map<Locks.ResourceType, Map<Long, AtomicInteger>> exclusiveLocks;
+    private final Map<Locks.ResourceType, PrimitiveLongSet> deferredExclusiveLocks;
+    private long lastAppliedWhenDeferred = -1;
     private boolean initialized = false;
 
     public SlaveLocksClient(
@@ -67,7 +85,8 @@ class SlaveLocksClient implements Locks.Client
             Locks localLockManager,
             RequestContextFactory requestContextFactory,
             AvailabilityGuard availabilityGuard,
-            SlaveLockManager.Configuration config )
+            SlaveLockManager.Configuration config,
+            DeferredLockConflictDetector conflictDetector )
     {
         this.master = master;
         this.client = local;
@@ -75,8 +94,10 @@ class SlaveLocksClient implements Locks.Client
         this.requestContextFactory = requestContextFactory;
         this.availabilityGuard = availabilityGuard;
         this.config = config;
+        this.conflictDetector = conflictDetector;
         sharedLocks = new HashMap<>();
         exclusiveLocks = new HashMap<>();
+        deferredExclusiveLocks = new HashMap<>();
     }
 
     private Map<Long, AtomicInteger> getLockMap(
@@ -117,10 +138,57 @@ class SlaveLocksClient implements Locks.Client
     @Override
     public void acquireExclusive( Locks.ResourceType resourceType, long... resourceIds ) throws
             AcquireLockTimeoutException
+    {
+        acquireExclusive( resourceType, config.deferExclusiveLocks() && isDeferrable( resourceType ), resourceIds );
+    }
+
+    @Override
+    public void acquireExplicitExclusive( Locks.ResourceType resourceType, long... resourceIds ) throws
+            AcquireLockTimeoutException
+    {
+        // Locks already deferred by this client are held locally only, they must be taken on the master right away
+        PrimitiveLongSet deferred = deferredExclusiveLocks.get( resourceType );
+        if ( deferred != null )
+        {
+            PrimitiveLongSet promoted = Primitive.longSet();
+            for ( long resourceId : resourceIds )
+            {
+                if ( deferred.contains( resourceId ) )
+                {
+                    promoted.add( resourceId );
+                }
+            }
+            if ( !promoted.isEmpty() )
+            {
+                long[] promotedIds = asArray( promoted.iterator() );
+                Arrays.sort( promotedIds );
+                acquireDeferredOnMaster( resourceType, promotedIds );
+                conflictDetector.verifyNoConflicts( Collections.singletonMap( resourceType, promoted ),
+                        lastAppliedWhenDeferred, newRequestContextFor( client ).lastAppliedTransaction() );
+                for ( long resourceId : promotedIds )
+                {
+                    deferred.remove( resourceId );
+                }
+            }
+        }
+        acquireExclusive( resourceType, false, resourceIds );
+    }
+
+    private void acquireExclusive( Locks.ResourceType resourceType, boolean defer, long... resourceIds )
     {
         Map<Long, AtomicInteger> lockMap = getLockMap( exclusiveLocks, resourceType );
         long[] untakenIds = incrementAndRemoveAlreadyTakenLocks( lockMap, resourceIds );
-        if ( untakenIds.length > 0 && acquireExclusiveOnMaster( resourceType, untakenIds ) )
+        if ( untakenIds.length > 0 && defer )
+        {
+            // Wait for the lock locally, there is no master lock to guard against other local transactions
+            client.acquireExclusive( resourceType, untakenIds );
+            deferExclusiveOnMaster( resourceType, untakenIds );
+            for ( int i = 0; i < untakenIds.length; i++ )
+            {
+                lockMap.put( untakenIds[i], new AtomicInteger( 1 ) );
+            }
+        }
+        else if ( untakenIds.length > 0 && acquireExclusiveOnMaster( resourceType, untakenIds ) )
         {
             if ( client.tryExclusiveLock( resourceType, untakenIds ) )
             {
@@ -210,6 +278,11 @@ class SlaveLocksClient implements Locks.Client
             if(counter.decrementAndGet() == 0)
             {
                 lockMap.remove( resourceId );
+                PrimitiveLongSet deferred = deferredExclusiveLocks.get( resourceType );
+                if ( deferred != null )
+                {
+                    deferred.remove( resourceId );
+                }
                 client.releaseExclusive( resourceType, resourceId );
             }
         }
@@ -226,6 +299,7 @@ class SlaveLocksClient implements Locks.Client
     public void releaseAllExclusive()
     {
         exclusiveLocks.clear();
+        clearDeferredLocks();
         client.releaseAllExclusive();
     }
 
@@ -234,6 +308,7 @@ class SlaveLocksClient implements Locks.Client
     {
         sharedLocks.clear();
         exclusiveLocks.clear();
+        clearDeferredLocks();
         if ( initialized )
         {
             try ( Response<Void> ignored = master.endLockSession( newRequestContextFor( client ), true ) )
@@ -250,6 +325,7 @@ class SlaveLocksClient implements Locks.Client
     {
         sharedLocks.clear();
         exclusiveLocks.clear();
+        clearDeferredLocks();
         if ( initialized )
         {
             try ( Response<Void> ignored = master.endLockSession( newRequestContextFor( client ), true ) )
@@ -266,6 +342,77 @@ class SlaveLocksClient implements Locks.Client
         return initialized ? client.getLockSessionId() : -1;
     }
 
+    @Override
+    public void prepareForCommit()
+    {
+        if ( deferredExclusiveLocks.isEmpty() )
+        {
+            return;
+        }
+
+        try
+        {
+            // Always the same order of resource types and ids, to not deadlock with other batches on the master
+            for ( Locks.ResourceType resourceType : DEFERRABLE_RESOURCE_TYPES )
+            {
+                PrimitiveLongSet deferred = deferredExclusiveLocks.get( resourceType );
+                if ( deferred != null && !deferred.isEmpty() )
+                {
+                    long[] resourceIds = asArray( deferred.iterator() );
+                    Arrays.sort( resourceIds );
+                    acquireDeferredOnMaster( resourceType, resourceIds );
+                }
+            }
+
+            // Transactions pulled in while the locks were held locally only are fine, unless they changed any of
+            // the entities this transaction has locked
+            conflictDetector.verifyNoConflicts( deferredExclusiveLocks, lastAppliedWhenDeferred,
+                    newRequestContextFor( client ).lastAppliedTransaction() );
+        }
+        finally
+        {
+            clearDeferredLocks();
+        }
+    }
+
+    private static boolean isDeferrable( Locks.ResourceType resourceType )
+    {
+        return resourceType == ResourceTypes.NODE || resourceType == ResourceTypes.RELATIONSHIP;
+    }
+
+    private void deferExclusiveOnMaster( Locks.ResourceType resourceType, long[] resourceIds )
+    {
+        if ( deferredExclusiveLocks.isEmpty() )
+        {
+            lastAppliedWhenDeferred = newRequestContextFor( client ).lastAppliedTransaction();
+        }
+        PrimitiveLongSet deferred = deferredExclusiveLocks.get( resourceType );
+        if ( deferred == null )
+        {
+            deferred = Primitive.longSet();
+            deferredExclusiveLocks.put( resourceType, deferred );
+        }
+        for ( long resourceId : resourceIds )
+        {
+            deferred.add( resourceId );
+        }
+    }
+
+    private void acquireDeferredOnMaster( Locks.ResourceType resourceType, long[] resourceIds )
+    {
+        if ( !acquireExclusiveOnMaster( resourceType, resourceIds ) )
+        {
+            throw new org.neo4j.graphdb.TransactionFailureException( "Failed to acquire deferred exclusive locks " +
+                    resourceType + Arrays.toString( resourceIds ) + " in cluster" );
+        }
+    }
+
+    private void clearDeferredLocks()
+    {
+        deferredExclusiveLocks.clear();
+        lastAppliedWhenDeferred = -1;
+    }
+
     private boolean getReadLockOnMaster( Locks.ResourceType resourceType, long ... resourceId )
     {
         if ( resourceType == ResourceTypes.NODE
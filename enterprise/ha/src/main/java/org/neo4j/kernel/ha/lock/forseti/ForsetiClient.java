@@ -510,6 +510,17 @@ public class ForsetiClient implements Locks.Client
         return myId;
     }
 
+    @Override
+    public void acquireExplicitExclusive( Locks.ResourceType resourceType, long... resourceIds )
+    {
+        acquireExclusive( resourceType, resourceIds );
+    }
+
+    @Override
+    public void prepareForCommit()
+    {
+    }
+
     public int waitListSize()
     {
         return waitList.size();
@@ -40,7 +40,7 @@ import org.neo4j.graphdb.DependencyResolver;
 import org.neo4j.helpers.HostnamePort;
 import org.neo4j.helpers.collection.Visitor;
 import org.neo4j.kernel.configuration.Config;
-import org.neo4j.kernel.ha.MasterClient214;
+import org.neo4j.kernel.ha.MasterClient220;
 import org.neo4j.kernel.ha.com.master.MasterImpl;
 import org.neo4j.kernel.ha.com.master.MasterImpl.Monitor;
 import org.neo4j.kernel.ha.com.master.MasterImplTest;
@@ -107,10 +107,10 @@ public class MasterClientTest
         cleanupRule.add( newMasterServer( masterImplSPI ) );
 
         StoreId storeId = new StoreId( 5, 6, 7, 8 );
-        MasterClient214 masterClient214 = cleanupRule.add( newMasterClient214( storeId ) );
+        MasterClient220 masterClient220 = cleanupRule.add( newMasterClient220( storeId ) );
 
         // When
-        masterClient214.handshake( 1, storeId );
+        masterClient220.handshake( 1, storeId );
     }
 
     @Test
@@ -138,7 +138,7 @@ public class MasterClientTest
 
         ResponseUnpacker unpacker = initAndStart( new TransactionCommittingResponseUnpacker( resolver ) );
 
-        MasterClient masterClient = cleanupRule.add( newMasterClient214( StoreId.DEFAULT, unpacker ) );
+        MasterClient masterClient = cleanupRule.add( newMasterClient220( StoreId.DEFAULT, unpacker ) );
 
         // When
         masterClient.newLockSession( new RequestContext( 1, 2, 3, 4, 5 ) );
@@ -179,20 +179,20 @@ public class MasterClientTest
                 monitors.newMonitor( RequestMonitor.class, MasterClient.class ) ) );
     }
 
-    private MasterClient214 newMasterClient214( StoreId storeId ) throws Throwable
+    private MasterClient220 newMasterClient220( StoreId storeId ) throws Throwable
     {
-        return initAndStart( new MasterClient214( MASTER_SERVER_HOST, MASTER_SERVER_PORT, new DevNullLoggingService(),
+        return initAndStart( new MasterClient220( MASTER_SERVER_HOST, MASTER_SERVER_PORT, new DevNullLoggingService(),
                 storeId, TIMEOUT, TIMEOUT, 1, CHUNK_SIZE, NO_OP_RESPONSE_UNPACKER,
-                monitors.newMonitor( ByteCounterMonitor.class, MasterClient214.class ),
-                monitors.newMonitor( RequestMonitor.class, MasterClient214.class ) ) );
+                monitors.newMonitor( ByteCounterMonitor.class, MasterClient220.class ),
+                monitors.newMonitor( RequestMonitor.class, MasterClient220.class ) ) );
     }
 
-    private MasterClient214 newMasterClient214( StoreId storeId, ResponseUnpacker responseUnpacker ) throws Throwable
+    private MasterClient220 newMasterClient220( StoreId storeId, ResponseUnpacker responseUnpacker ) throws Throwable
     {
-        return initAndStart( new MasterClient214( MASTER_SERVER_HOST, MASTER_SERVER_PORT, new DevNullLoggingService(),
+        return initAndStart( new MasterClient220( MASTER_SERVER_HOST, MASTER_SERVER_PORT, new DevNullLoggingService(),
                 storeId, TIMEOUT, TIMEOUT, 1, CHUNK_SIZE, responseUnpacker,
-                monitors.newMonitor( ByteCounterMonitor.class, MasterClient214.class ),
-                monitors.newMonitor( RequestMonitor.class, MasterClient214.class ) ) );
+                monitors.newMonitor( ByteCounterMonitor.class, MasterClient220.class ),
+                monitors.newMonitor( RequestMonitor.class, MasterClient220.class ) ) );
     }
 
     private static Response<Void> voidResponseWithTransactionLogs()
@@ -22,14 +22,19 @@ package org.neo4j.kernel.ha.cluster;
 import org.junit.Test;
 
 import java.io.File;
+import java.net.URI;
 
 import org.neo4j.backup.OnlineBackupKernelExtension;
 import org.neo4j.cluster.member.ClusterMemberAvailability;
+import org.neo4j.com.RequestContext;
 import org.neo4j.com.Response;
 import org.neo4j.com.monitor.RequestMonitor;
+import org.neo4j.com.storecopy.StoreWriter;
 import org.neo4j.com.storecopy.TransactionCommittingResponseUnpacker;
 import org.neo4j.graphdb.DependencyResolver;
+import org.neo4j.helpers.CancellationRequest;
 import org.neo4j.helpers.collection.Iterables;
+import org.neo4j.io.fs.FileSystemAbstraction;
 import org.neo4j.kernel.InternalAbstractGraphDatabase;
 import org.neo4j.kernel.NeoStoreDataSource;
 import org.neo4j.kernel.StoreLockerLifecycleAdapter;
@@ -39,6 +44,7 @@ import org.neo4j.kernel.ha.BranchedDataException;
 import org.neo4j.kernel.ha.BranchedDataPolicy;
 import org.neo4j.kernel.ha.DelegateInvocationHandler;
 import org.neo4j.kernel.ha.HaSettings;
+import org.neo4j.kernel.ha.MasterClient214;
 import org.neo4j.kernel.ha.cluster.member.ClusterMember;
 import org.neo4j.kernel.ha.cluster.member.ClusterMembers;
 import org.neo4j.kernel.ha.com.RequestContextFactory;
@@ -49,19 +55,25 @@ import org.neo4j.kernel.ha.id.HaIdGeneratorFactory;
 import org.neo4j.kernel.impl.index.IndexConfigStore;
 import org.neo4j.kernel.impl.store.MismatchingStoreIdException;
 import org.neo4j.kernel.impl.store.StoreId;
+import org.neo4j.kernel.impl.store.UnableToCopyStoreFromOldMasterException;
 import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.lifecycle.Lifecycle;
 import org.neo4j.kernel.logging.ConsoleLogger;
 import org.neo4j.kernel.logging.DevNullLoggingService;
 import org.neo4j.kernel.monitoring.ByteCounterMonitor;
+import org.neo4j.kernel.monitoring.Monitors;
 import org.neo4j.kernel.monitoring.StoreCopyMonitor;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -123,14 +135,46 @@ public class SwitchToSlaveTest
         verify( switchToSlave ).stopServicesAndHandleBranchedStore( any( BranchedDataPolicy.class ) );
     }
 
-    @SuppressWarnings( "unchecked" )
+    @Test
+    public void shouldNotCopyStoreFromMasterWithOlderStoreFormat() throws Throwable
+    {
+        // Given a master of the protocol before the string dictionary was added to the store
+        MasterClient masterClient = mock( MasterClient.class );
+        when( masterClient.getProtocolVersion() ).thenReturn( MasterClient214.PROTOCOL_VERSION );
+        MasterClientResolver masterClientResolver = mock( MasterClientResolver.class );
+        when( masterClientResolver.instantiate( anyString(), anyInt(), any( Monitors.class ), any( StoreId.class ),
+                any( LifeSupport.class ) ) ).thenReturn( masterClient );
+        SwitchToSlave switchToSlave = newSwitchToSlaveSpy( masterClientResolver );
+
+        // When
+        try
+        {
+            switchToSlave.copyStoreFromMasterIfNeeded( URI.create( "ha://localhost:6001" ),
+                    mock( CancellationRequest.class ) );
+            fail( "Should have thrown " + UnableToCopyStoreFromOldMasterException.class.getSimpleName() );
+        }
+        catch ( UnableToCopyStoreFromOldMasterException e )
+        {
+            // good we got the expected exception
+        }
+
+        // Then
+        verify( masterClient, never() ).copyStore( any( RequestContext.class ), any( StoreWriter.class ) );
+    }
+
     private static SwitchToSlave newSwitchToSlaveSpy()
+    {
+        return newSwitchToSlaveSpy( mock( MasterClientResolver.class ) );
+    }
+
+    @SuppressWarnings( "unchecked" )
+    private static SwitchToSlave newSwitchToSlaveSpy( MasterClientResolver masterClientResolver )
     {
         return spy( new SwitchToSlave( ConsoleLogger.DEV_NULL, configMock(), dependencyResolverMock(),
                 mock( HaIdGeneratorFactory.class ), new DevNullLoggingService(),
                 mock( DelegateInvocationHandler.class ),
                 mock( ClusterMemberAvailability.class ), mock( RequestContextFactory.class ),
-                Iterables.<KernelExtensionFactory<?>>empty(), mock( MasterClientResolver.class ),
+                Iterables.<KernelExtensionFactory<?>>empty(), masterClientResolver,
                 ByteCounterMonitor.NULL, mock( RequestMonitor.class ), mock( SwitchToSlave.Monitor.class ),
                 StoreCopyMonitor.NONE ) );
     }
@@ -167,6 +211,9 @@ public class SwitchToSlaveTest
                 mockWithLifecycle( IndexConfigStore.class ) );
         when( resolver.resolveDependency( OnlineBackupKernelExtension.class ) ).thenReturn(
                 mockWithLifecycle( OnlineBackupKernelExtension.class ) );
+        when( resolver.resolveDependency( FileSystemAbstraction.class ) ).thenReturn(
+                mock( FileSystemAbstraction.class ) );
+        when( resolver.resolveDependency( Monitors.class ) ).thenReturn( new Monitors() );
 
         TransactionIdStore transactionIdStore = mock( TransactionIdStore.class );
         when( transactionIdStore.getLastCommittedTransaction() ).thenReturn( new long[]{42, 42} );
@@ -25,6 +25,7 @@ import org.neo4j.com.IllegalProtocolVersionException;
 import org.neo4j.com.storecopy.ResponseUnpacker;
 import org.neo4j.kernel.ha.MasterClient210;
 import org.neo4j.kernel.ha.MasterClient214;
+import org.neo4j.kernel.ha.MasterClient220;
 import org.neo4j.kernel.impl.store.StoreId;
 import org.neo4j.kernel.lifecycle.LifeSupport;
 import org.neo4j.kernel.logging.DevNullLoggingService;
@@ -49,7 +50,7 @@ public class MasterClientResolverTest
             life.start();
             MasterClient masterClient1 =
                     resolver.instantiate( "cluster://localhost", 44, new Monitors(), StoreId.DEFAULT, life );
-            assertThat( masterClient1, instanceOf( MasterClient214.class ) );
+            assertThat( masterClient1, instanceOf( MasterClient220.class ) );
         }
         finally
         {
@@ -58,7 +59,7 @@ public class MasterClientResolverTest
 
         IllegalProtocolVersionException illegalProtocolVersionException = new IllegalProtocolVersionException(
                 MasterClient210.PROTOCOL_VERSION.getApplicationProtocol(),
-                MasterClient214.PROTOCOL_VERSION.getApplicationProtocol(),
+                MasterClient220.PROTOCOL_VERSION.getApplicationProtocol(),
                 "Protocol is too modern" );
 
         // When
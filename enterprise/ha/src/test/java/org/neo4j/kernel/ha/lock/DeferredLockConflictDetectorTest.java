@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2002-2015 "Neo Technology,"
+ * Network Engine for Objects in Lund AB [http://neotechnology.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Neo4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.kernel.ha.lock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.neo4j.collection.primitive.Primitive;
+import org.neo4j.collection.primitive.PrimitiveLongSet;
+import org.neo4j.io.fs.FileSystemAbstraction;
+import org.neo4j.kernel.DefaultFileSystemAbstraction;
+import org.neo4j.kernel.KernelHealth;
+import org.neo4j.kernel.NeoStoreDataSource;
+import org.neo4j.kernel.impl.locking.Locks;
+import org.neo4j.kernel.impl.locking.ResourceTypes;
+import org.neo4j.kernel.impl.store.record.NodeRecord;
+import org.neo4j.kernel.impl.store.record.RelationshipRecord;
+import org.neo4j.kernel.impl.transaction.DeadSimpleTransactionIdStore;
+import org.neo4j.kernel.impl.transaction.command.Command;
+import org.neo4j.kernel.impl.transaction.log.LogFile;
+import org.neo4j.kernel.impl.transaction.log.LogRotation;
+import org.neo4j.kernel.impl.transaction.log.LogVersionRepository;
+import org.neo4j.kernel.impl.transaction.log.LogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogFile;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogFiles;
+import org.neo4j.kernel.impl.transaction.log.PhysicalLogicalTransactionStore;
+import org.neo4j.kernel.impl.transaction.log.PhysicalTransactionRepresentation;
+import org.neo4j.kernel.impl.transaction.log.TransactionIdStore;
+import org.neo4j.kernel.impl.transaction.log.TransactionMetadataCache;
+import org.neo4j.kernel.impl.transaction.tracing.LogAppendEvent;
+import org.neo4j.kernel.impl.util.Dependencies;
+import org.neo4j.kernel.lifecycle.LifeSupport;
+import org.neo4j.kernel.monitoring.Monitors;
+import org.neo4j.test.TargetDirectory;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import static org.neo4j.kernel.impl.transaction.log.PhysicalLogFile.DEFAULT_NAME;
+import static org.neo4j.kernel.impl.util.IdOrderingQueue.BYPASS;
+import static org.neo4j.test.TargetDirectory.testDirForTest;
+
+public class DeferredLockConflictDetectorTest
+{
+    @Rule
+    public TargetDirectory.TestDirectory dir = testDirForTest( getClass() );
+    private final FileSystemAbstraction fs = new DefaultFileSystemAbstraction();
+    private final LifeSupport life = new LifeSupport();
+    private LogicalTransactionStore transactionStore;
+    private DeferredLockConflictDetector detector;
+
+    @Before
+    public void setUp()
+    {
+        TransactionIdStore transactionIdStore = new DeadSimpleTransactionIdStore();
+        TransactionMetadataCache positionCache = new TransactionMetadataCache( 10, 100 );
+        PhysicalLogFiles logFiles = new PhysicalLogFiles( dir.graphDbDir(), DEFAULT_NAME, fs );
+        LogFile logFile = life.add( new PhysicalLogFile( fs, logFiles, 1000, transactionIdStore,
+                mock( LogVersionRepository.class ), new Monitors().newMonitor( PhysicalLogFile.Monitor.class ),
+                positionCache ) );
+        transactionStore = life.add( new PhysicalLogicalTransactionStore( logFile, LogRotation.NO_ROTATION,
+                positionCache, transactionIdStore, BYPASS, mock( KernelHealth.class ), true ) );
+        life.start();
+
+        Dependencies dataSourceDependencies = new Dependencies();
+        dataSourceDependencies.satisfyDependency( transactionStore );
+        NeoStoreDataSource dataSource = mock( NeoStoreDataSource.class );
+        when( dataSource.getDependencyResolver() ).thenReturn( dataSourceDependencies );
+        Dependencies dependencies = new Dependencies();
+        dependencies.satisfyDependency( dataSource );
+        detector = new DeferredLockConflictDetector( dependencies );
+    }
+
+    @After
+    public void tearDown()
+    {
+        life.shutdown();
+    }
+
+    @Test
+    public void shouldDetectTransactionChangingLockedEntity() throws Exception
+    {
+        // GIVEN
+        long lastAppliedWhenDeferred = appendTransaction( nodeCommand( 1 ) );
+        long conflicting = appendTransaction( nodeCommand( 2 ), relationshipCommand( 10 ) );
+        long lastAppliedAtCommit = appendTransaction( nodeCommand( 3 ) );
+
+        // WHEN
+        try
+        {
+            detector.verifyNoConflicts( locks( ResourceTypes.RELATIONSHIP, 10 ),
+                    lastAppliedWhenDeferred, lastAppliedAtCommit );
+            fail( "Should have detected the conflicting transaction" );
+        }
+        catch ( DeferredLockConflictException e )
+        {
+            // THEN
+            assertTrue( e.getMessage(), e.getMessage().startsWith( "Transaction " + conflicting + "," ) );
+        }
+    }
+
+    @Test
+    public void shouldAllowTransactionsChangingOtherEntities() throws Exception
+    {
+        // GIVEN
+        long lastAppliedWhenDeferred = appendTransaction( nodeCommand( 1 ) );
+        appendTransaction( nodeCommand( 2 ), relationshipCommand( 10 ) );
+        long lastAppliedAtCommit = appendTransaction( nodeCommand( 3 ) );
+
+        // WHEN/THEN no conflict, not even with the transaction applied before the locks were deferred
+        Map<Locks.ResourceType,PrimitiveLongSet> locks = locks( ResourceTypes.NODE, 1, 4 );
+        locks.putAll( locks( ResourceTypes.RELATIONSHIP, 11 ) );
+        detector.verifyNoConflicts( locks, lastAppliedWhenDeferred, lastAppliedAtCommit );
+    }
+
+    @Test
+    public void shouldIgnoreTransactionsAppliedAfterCommit() throws Exception
+    {
+        // GIVEN
+        long lastAppliedWhenDeferred = appendTransaction( nodeCommand( 1 ) );
+        long lastAppliedAtCommit = appendTransaction( nodeCommand( 2 ) );
+        appendTransaction( nodeCommand( 3 ) );
+
+        // WHEN/THEN
+        detector.verifyNoConflicts( locks( ResourceTypes.NODE, 3 ), lastAppliedWhenDeferred, lastAppliedAtCommit );
+    }
+
+    @Test
+    public void shouldNotReadAnyTransactionsWhenNoneWereAppliedWhileDeferred() throws Exception
+    {
+        // GIVEN a transaction which would conflict, had it been applied while the locks were deferred
+        long lastApplied = appendTransaction( nodeCommand( 1 ) );
+        detector = new DeferredLockConflictDetector( new Dependencies() );
+
+        // WHEN/THEN the detector doesn't even look up the transaction store
+        detector.verifyNoConflicts( locks( ResourceTypes.NODE, 1 ), lastApplied, lastApplied );
+    }
+
+    private long appendTransaction( Command... commands ) throws IOException
+    {
+        PhysicalTransactionRepresentation transaction =
+                new PhysicalTransactionRepresentation( Arrays.asList( commands ) );
+        transaction.setHeader( new byte[0], -1, -1, 0, 0, 0, -1 );
+        return transactionStore.getAppender().append( transaction, LogAppendEvent.NULL );
+    }
+
+    private Command nodeCommand( long id )
+    {
+        NodeRecord after = new NodeRecord( id );
+        after.setInUse( true );
+        return new Command.NodeCommand().init( new NodeRecord( id ), after );
+    }
+
+    private Command relationshipCommand( long id )
+    {
+        RelationshipRecord record = new RelationshipRecord( id, 1, 2, 0 );
+        record.setInUse( true );
+        return new Command.RelationshipCommand().init( record );
+    }
+
+    private Map<Locks.ResourceType,PrimitiveLongSet> locks( Locks.ResourceType type, long... ids )
+    {
+        PrimitiveLongSet set = Primitive.longSet();
+        for ( long id : ids )
+        {
+            set.add( id );
+        }
+        Map<Locks.ResourceType,PrimitiveLongSet> locks = new HashMap<>();
+        locks.put( type, set );
+        return locks;
+    }
+}
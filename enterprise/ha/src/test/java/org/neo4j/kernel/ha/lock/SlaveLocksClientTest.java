@@ -19,10 +19,13 @@
  */
 package org.neo4j.kernel.ha.lock;
 
+import java.util.Map;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Matchers;
 
+import org.neo4j.collection.primitive.PrimitiveLongSet;
 import org.neo4j.com.RequestContext;
 import org.neo4j.com.ResourceReleaser;
 import org.neo4j.com.TransactionStream;
@@ -35,20 +38,28 @@ import org.neo4j.kernel.impl.locking.ResourceTypes;
 
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import static org.neo4j.kernel.impl.locking.ResourceTypes.NODE;
+import static org.neo4j.kernel.impl.locking.ResourceTypes.RELATIONSHIP;
 
 public class SlaveLocksClientTest
 {
     private SlaveLocksClient client;
     private Master master;
     private Locks.Client local;
+    private RequestContextFactory requestContextFactory;
+    private SlaveLockManager.Configuration config;
+    private DeferredLockConflictDetector conflictDetector;
 
     @Before
     public void setUp() throws Exception
@@ -63,7 +74,7 @@ public class SlaveLocksClientTest
 
         when( lockManager.newClient() ).thenReturn( local );
 
-        RequestContextFactory requestContextFactory = mock( RequestContextFactory.class );
+        requestContextFactory = mock( RequestContextFactory.class );
 
         when( master.acquireSharedLock(
                 any( RequestContext.class ),
@@ -78,9 +89,11 @@ public class SlaveLocksClientTest
                 null, TransactionStream.EMPTY, ResourceReleaser.NO_OP ) );
         AvailabilityGuard availabilityGuard = mock( AvailabilityGuard.class );
         when( availabilityGuard.isAvailable( anyLong() ) ).thenReturn( true );
-        SlaveLockManager.Configuration config = mock( SlaveLockManager.Configuration.class );
+        config = mock( SlaveLockManager.Configuration.class );
+        conflictDetector = mock( DeferredLockConflictDetector.class );
 
-        client = new SlaveLocksClient( master, local, lockManager, requestContextFactory, availabilityGuard, config );
+        client = new SlaveLocksClient( master, local, lockManager, requestContextFactory, availabilityGuard, config,
+                conflictDetector );
     }
 
     @Test
@@ -221,4 +234,108 @@ public class SlaveLocksClientTest
         // Then
         assertThat(lockSessionId, equalTo(0));
     }
+
+    @Test
+    public void shouldDeferExclusiveLocksOnMasterUntilCommitAndAcquireThemInSortedBatches() throws Exception
+    {
+        // Given
+        when( config.deferExclusiveLocks() ).thenReturn( true );
+        when( requestContextFactory.newRequestContext( anyInt() ) ).thenReturn( contextWithLastAppliedTx( 5 ) );
+
+        // When
+        client.acquireExclusive( NODE, 3 );
+        client.acquireExclusive( RELATIONSHIP, 7 );
+        client.acquireExclusive( NODE, 1, 2 );
+
+        // Then no master round trips before commit
+        verify( master, never() ).acquireExclusiveLock( any( RequestContext.class ), any( Locks.ResourceType.class ),
+                Matchers.<long[]>anyVararg() );
+        verify( local ).acquireExclusive( NODE, 1, 2 );
+
+        // And when
+        client.prepareForCommit();
+
+        // Then one round trip per resource type
+        verify( master ).acquireExclusiveLock( any( RequestContext.class ), Matchers.eq( NODE ),
+                Matchers.eq( 1L ), Matchers.eq( 2L ), Matchers.eq( 3L ) );
+        verify( master ).acquireExclusiveLock( any( RequestContext.class ), Matchers.eq( RELATIONSHIP ),
+                Matchers.eq( 7L ) );
+    }
+
+    @Test
+    public void shouldVerifyDeferredLocksAgainstTransactionsAppliedWhileTheyWereDeferred() throws Exception
+    {
+        // Given
+        when( config.deferExclusiveLocks() ).thenReturn( true );
+        when( requestContextFactory.newRequestContext( anyInt() ) ).thenReturn( contextWithLastAppliedTx( 5 ) );
+        client.acquireExclusive( NODE, 1 );
+
+        // When the batch acquisition pulls in another transaction
+        when( requestContextFactory.newRequestContext( anyInt() ) ).thenReturn( contextWithLastAppliedTx( 6 ) );
+        client.prepareForCommit();
+
+        // Then
+        verify( conflictDetector ).verifyNoConflicts( Matchers.<Map<Locks.ResourceType,PrimitiveLongSet>>any(),
+                Matchers.eq( 5L ), Matchers.eq( 6L ) );
+    }
+
+    @Test
+    public void shouldFailCommitIfAppliedTransactionsConflictWithDeferredLocks() throws Exception
+    {
+        // Given
+        when( config.deferExclusiveLocks() ).thenReturn( true );
+        when( requestContextFactory.newRequestContext( anyInt() ) ).thenReturn( contextWithLastAppliedTx( 5 ) );
+        client.acquireExclusive( NODE, 1 );
+        DeferredLockConflictException conflict = new DeferredLockConflictException( 6, NODE, 1 );
+        doThrow( conflict ).when( conflictDetector ).verifyNoConflicts(
+                Matchers.<Map<Locks.ResourceType,PrimitiveLongSet>>any(), anyLong(), anyLong() );
+
+        // When
+        try
+        {
+            client.prepareForCommit();
+            fail( "Should have failed" );
+        }
+        catch ( DeferredLockConflictException e )
+        {   // Then good
+            assertThat( e, equalTo( conflict ) );
+        }
+    }
+
+    @Test
+    public void shouldNotDeferExplicitExclusiveLocks() throws Exception
+    {
+        // Given
+        when( config.deferExclusiveLocks() ).thenReturn( true );
+        when( requestContextFactory.newRequestContext( anyInt() ) ).thenReturn( contextWithLastAppliedTx( 5 ) );
+
+        // When
+        client.acquireExplicitExclusive( NODE, 1 );
+
+        // Then
+        verify( master ).acquireExclusiveLock( any( RequestContext.class ), Matchers.eq( NODE ), Matchers.eq( 1L ) );
+        verify( local ).tryExclusiveLock( NODE, 1 );
+    }
+
+    @Test
+    public void shouldAcquireAlreadyDeferredLockOnMasterWhenExplicitlyRequested() throws Exception
+    {
+        // Given
+        when( config.deferExclusiveLocks() ).thenReturn( true );
+        when( requestContextFactory.newRequestContext( anyInt() ) ).thenReturn( contextWithLastAppliedTx( 5 ) );
+        client.acquireExclusive( NODE, 1, 2 );
+
+        // When
+        client.acquireExplicitExclusive( NODE, 2 );
+
+        // Then the explicit lock is taken on the master right away, and not again at commit
+        verify( master ).acquireExclusiveLock( any( RequestContext.class ), Matchers.eq( NODE ), Matchers.eq( 2L ) );
+        client.prepareForCommit();
+        verify( master ).acquireExclusiveLock( any( RequestContext.class ), Matchers.eq( NODE ), Matchers.eq( 1L ) );
+    }
+
+    private RequestContext contextWithLastAppliedTx( long lastAppliedTx )
+    {
+        return new RequestContext( 0, 1, 0, lastAppliedTx, 0 );
+    }
 }